@@ -35,6 +35,7 @@ public class AllDataTests {
 		test.addTestSuite(DateUtilThreadTest.class);
 		test.addTestSuite(ExpressionParserUtilityTest.class);
 		test.addTestSuite(ExpressionUtilTest.class);
+		test.addTestSuite(StringValueConverterTest.class);
 		// add all test classes here
 
 		return test;
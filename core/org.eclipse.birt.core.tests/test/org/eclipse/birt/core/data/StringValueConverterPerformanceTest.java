@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import java.text.ParseException;
+import java.util.Date;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Compares the time of StringValueConverter with the exception cascade which
+ * DataTypeUtil used before to convert strings.
+ */
+@Ignore("ignore performance test")
+public class StringValueConverterPerformanceTest {
+
+	int VALUE_COUNT = 20000;
+	int LOOP_COUNT = 5;
+
+	@Test
+	public void testISODates() throws BirtException {
+		String[] values = new String[VALUE_COUNT];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = "2002-01-" + (i % 28 + 10) + "T13:45:" + (i % 50 + 10);
+		}
+		for (int i = 0; i < LOOP_COUNT; i++) {
+			long start, end;
+			start = System.currentTimeMillis();
+			for (int j = 0; j < values.length; j++) {
+				toDateWithExceptions(values[j]);
+			}
+			end = System.currentTimeMillis();
+			System.out.println("ISO DATE CASCADE:" + (end - start));
+
+			start = System.currentTimeMillis();
+			StringValueConverter converter = new StringValueConverter();
+			for (int j = 0; j < values.length; j++) {
+				converter.toDate(values[j]);
+			}
+			end = System.currentTimeMillis();
+			System.out.println("ISO DATE CONVERTER:" + (end - start));
+		}
+	}
+
+	@Test
+	public void testLocaleDates() throws BirtException {
+		String[] values = new String[VALUE_COUNT];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = "Feb " + (i % 28 + 1) + ", 1981 " + (i % 12 + 1) + ":17 AM";
+		}
+		for (int i = 0; i < LOOP_COUNT; i++) {
+			long start, end;
+			start = System.currentTimeMillis();
+			for (int j = 0; j < values.length; j++) {
+				toDateWithExceptions(values[j]);
+			}
+			end = System.currentTimeMillis();
+			System.out.println("LOCALE DATE CASCADE:" + (end - start));
+
+			start = System.currentTimeMillis();
+			StringValueConverter converter = new StringValueConverter();
+			for (int j = 0; j < values.length; j++) {
+				converter.toDate(values[j]);
+			}
+			end = System.currentTimeMillis();
+			System.out.println("LOCALE DATE CONVERTER:" + (end - start));
+		}
+	}
+
+	@Test
+	public void testNumbers() throws ParseException {
+		String[] values = new String[VALUE_COUNT];
+		for (int i = 0; i < values.length; i++) {
+			// one value in four is only parsed by the number format
+			values[i] = i % 4 == 0 ? "1," + (i % 900 + 100) + ".5" : String.valueOf(i * 1.5);
+		}
+		for (int i = 0; i < LOOP_COUNT; i++) {
+			long start, end;
+			start = System.currentTimeMillis();
+			for (int j = 0; j < values.length; j++) {
+				toDoubleWithExceptions(values[j]);
+			}
+			end = System.currentTimeMillis();
+			System.out.println("NUMBER CASCADE:" + (end - start));
+
+			start = System.currentTimeMillis();
+			StringValueConverter converter = new StringValueConverter();
+			for (int j = 0; j < values.length; j++) {
+				converter.toDouble(values[j]);
+			}
+			end = System.currentTimeMillis();
+			System.out.println("NUMBER CONVERTER:" + (end - start));
+		}
+	}
+
+	/**
+	 * The date conversion of DataTypeUtil before StringValueConverter: every
+	 * rejected format throws an exception.
+	 */
+	Date toDateWithExceptions(String source) throws BirtException {
+		source = source.trim();
+		try {
+			return DateFormatISO8601.parse(source, null);
+		} catch (BirtException | ParseException e) {
+			Date date = toDateWithExceptions(source, DataTypeUtil.JRE_DEFAULT_LOCALE);
+			if (date == null) {
+				date = toDateWithExceptions(source, ULocale.US);
+			}
+			return date;
+		}
+	}
+
+	Date toDateWithExceptions(String source, ULocale locale) {
+		boolean existTime = source.matches(".*[0-9]+:[0-9]+.*");
+		for (int i = DateFormat.FULL; i <= DateFormat.SHORT; i++) {
+			for (int j = DateFormat.FULL; j <= DateFormat.SHORT; j++) {
+				try {
+					return DateFormatFactory.getDateTimeInstance(i, j, locale).parse(source);
+				} catch (ParseException e) {
+				}
+			}
+			if (!existTime) {
+				try {
+					return DateFormatFactory.getDateInstance(i, locale).parse(source);
+				} catch (ParseException e) {
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The number conversion of DataTypeUtil before StringValueConverter.
+	 */
+	Double toDoubleWithExceptions(String source) throws ParseException {
+		try {
+			return Double.valueOf(source);
+		} catch (NumberFormatException e) {
+			return NumberFormat.getInstance(DataTypeUtil.JRE_DEFAULT_LOCALE).parse(source).doubleValue();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.eclipse.birt.core.exception.BirtException;
+
+import com.ibm.icu.util.TimeZone;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for StringValueConverter
+ */
+public class StringValueConverterTest extends TestCase {
+
+	private static final String[] DATES = { "2002-01-11", "2002-01-11T13:45:10", "2002-01-11 13:45:10.123Z",
+			"Jan 11, 2002", "Feb 12, 1981 6:17 AM", "Feb 12, 1981 6:17 AM extra", "12/30/2008 13:00",
+			"2002-01-11", "  Jan 11, 2002  ", "not a date", "", "1999" };
+
+	private static final String[] NUMBERS = { "1", "-12", "+7", "2147483648", "1.5", "1e3", " 2.5 ", "1,234",
+			"1,234.5", "0x1p3", "12abc", "abc", "", "-", "1e" };
+
+	public void testToDate() {
+		StringValueConverter converter = new StringValueConverter();
+		for (int i = 0; i < DATES.length; i++) {
+			assertEquals(DATES[i], toDate(DATES[i], null), converter.toDate(DATES[i]));
+		}
+	}
+
+	public void testToDateWithTimeZone() {
+		TimeZone timeZone = TimeZone.getTimeZone("GMT+03:00");
+		StringValueConverter converter = new StringValueConverter(timeZone);
+		for (int i = 0; i < DATES.length; i++) {
+			assertEquals(DATES[i], toDate(DATES[i], timeZone), converter.toDate(DATES[i]));
+		}
+	}
+
+	public void testToDateSameFormat() {
+		StringValueConverter converter = new StringValueConverter();
+		for (int day = 1; day <= 28; day++) {
+			String source = "Feb " + day + ", 1981 6:17 AM";
+			assertEquals(source, toDate(source, null), converter.toDate(source));
+		}
+		assertEquals(toDate("1981-02-12", null), converter.toDate("1981-02-12"));
+		assertNull(converter.toDate("not a date"));
+	}
+
+	public void testToNumber() throws BirtException {
+		StringValueConverter converter = new StringValueConverter();
+		for (int i = 0; i < NUMBERS.length; i++) {
+			String source = NUMBERS[i];
+			assertEquals(source, convert(source, DataType.DOUBLE_TYPE), converter.toDouble(source));
+			assertEquals(source, convert(source, DataType.INTEGER_TYPE), converter.toInteger(source));
+			assertEquals(source, convert(source, DataType.DECIMAL_TYPE), converter.toBigDecimal(source));
+		}
+		assertEquals(Integer.valueOf(12), converter.convert("12", DataType.INTEGER_TYPE));
+		assertEquals(new BigDecimal("12.50"), converter.convert("12.50", DataType.DECIMAL_TYPE));
+		assertNull(converter.convert("12", DataType.STRING_TYPE));
+	}
+
+	private static Date toDate(String source, TimeZone timeZone) {
+		try {
+			return timeZone == null ? DataTypeUtil.toDate((Object) source) : DataTypeUtil.toDate(source, timeZone);
+		} catch (BirtException e) {
+			return null;
+		}
+	}
+
+	private static Object convert(String source, int toType) {
+		try {
+			return DataTypeUtil.convert(source, toType);
+		} catch (BirtException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.text.Format;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+
+/**
+ * Test case for FormatPool
+ */
+public class FormatPoolTest extends TestCase {
+
+	@Test
+	public void testAcquireRelease() {
+		FormatPool pool = new FormatPool();
+		AtomicInteger created = new AtomicInteger();
+		SimpleDateFormat first = pool.acquire("a", () -> {
+			created.incrementAndGet();
+			return new SimpleDateFormat("yyyy-MM-dd");
+		});
+		SimpleDateFormat second = pool.acquire("a", () -> {
+			created.incrementAndGet();
+			return new SimpleDateFormat("yyyy-MM-dd");
+		});
+		assertEquals(1, created.get());
+		assertNotSame(first, second);
+		assertEquals("yyyy-MM-dd", second.toPattern());
+
+		pool.release("a", first);
+		assertSame(first, pool.acquire("a", () -> new SimpleDateFormat("yyyy")));
+	}
+
+	@Test
+	public void testBounded() {
+		FormatPool pool = new FormatPool(4, 2);
+		for (int i = 0; i < 10; i++) {
+			pool.acquire("key" + i, () -> new SimpleDateFormat("yyyy"));
+		}
+		assertEquals(4, pool.size());
+
+		Format[] formats = new Format[3];
+		for (int i = 0; i < formats.length; i++) {
+			formats[i] = pool.acquire("key9", () -> new SimpleDateFormat("yyyy"));
+		}
+		for (int i = 0; i < formats.length; i++) {
+			pool.release("key9", formats[i]);
+		}
+		// only two idle formats are kept
+		Format format1 = pool.acquire("key9", () -> new SimpleDateFormat("yyyy"));
+		Format format2 = pool.acquire("key9", () -> new SimpleDateFormat("yyyy"));
+		Format format3 = pool.acquire("key9", () -> new SimpleDateFormat("yyyy"));
+		assertSame(formats[1], format1);
+		assertSame(formats[0], format2);
+		assertNotSame(formats[2], format3);
+
+		// released formats of a dropped key are ignored
+		pool.release("dropped", format3);
+		assertEquals(4, pool.size());
+	}
+
+	@Test
+	public void testConcurrentUse() throws Exception {
+		final FormatPool pool = new FormatPool();
+		final Date date = new Date(1234567890123L);
+		final String expected = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(date);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			Future<?>[] futures = new Future<?>[8];
+			for (int i = 0; i < futures.length; i++) {
+				futures[i] = executor.submit(() -> {
+					for (int j = 0; j < 10000; j++) {
+						SimpleDateFormat format = pool.acquire("date",
+								() -> new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS"));
+						assertEquals(expected, format.format(date));
+						assertEquals(date, format.parse(expected));
+						pool.release("date", format);
+					}
+					return null;
+				});
+			}
+			for (int i = 0; i < futures.length; i++) {
+				futures[i].get();
+			}
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+	}
+}
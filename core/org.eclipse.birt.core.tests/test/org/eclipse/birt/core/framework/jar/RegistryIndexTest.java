@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.framework.jar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.eclipse.birt.core.framework.IPlatformConfig;
+import org.eclipse.birt.core.framework.PlatformConfig;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the registry index of the jar based platform, with a bundle in a
+ * jar and a bundle in a folder.
+ */
+public class RegistryIndexTest {
+
+	private static final String POINT_ID = "test.folder.points"; //$NON-NLS-1$
+
+	private File tempDir;
+	private File indexFile;
+	private File folderBundle;
+	private File jarBundle;
+
+	/**
+	 * A platform giving access to its extension registry.
+	 */
+	private static class TestPlatform extends ServicePlatform {
+
+		TestPlatform(PlatformConfig config) {
+			super(config);
+		}
+
+		ExtensionRegistry getRegistry() {
+			return extensionRegistry;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("registry").toFile(); //$NON-NLS-1$
+		indexFile = new File(tempDir, "registry.index"); //$NON-NLS-1$
+
+		folderBundle = new File(tempDir, "folder"); //$NON-NLS-1$
+		new File(folderBundle, "META-INF").mkdirs(); //$NON-NLS-1$
+		write(new File(folderBundle, "META-INF/MANIFEST.MF"), getManifest("test.folder")); //$NON-NLS-1$
+		write(new File(folderBundle, "plugin.properties"), "folder.label=Folder Extension A\n"); //$NON-NLS-1$
+		write(new File(folderBundle, "plugin.xml"), getFolderPlugin()); //$NON-NLS-1$
+
+		jarBundle = new File(tempDir, "bundle.jar"); //$NON-NLS-1$
+		writeJar("Jar Extension A"); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() {
+		delete(tempDir);
+	}
+
+	/**
+	 * The registry installed from the index is the one parsed from the bundles.
+	 */
+	@Test
+	public void testIndexedRegistry() throws Exception {
+		TestPlatform parsed = startup(false);
+		startup(true).shutdown();
+		assertTrue(indexFile.isFile());
+		TestPlatform indexed = startup(true);
+
+		for (String name : new String[] { "test.folder", "test.jar" }) { //$NON-NLS-1$ //$NON-NLS-2$
+			Bundle bundle = (Bundle) indexed.getBundle(name);
+			assertEquals(((Bundle) parsed.getBundle(name)).getVersion(), bundle.getVersion());
+		}
+
+		IExtensionPoint[] parsedPoints = sort(parsed.getRegistry().getExtensionPoints());
+		IExtensionPoint[] indexedPoints = sort(indexed.getRegistry().getExtensionPoints());
+		assertEquals(parsedPoints.length, indexedPoints.length);
+		for (int i = 0; i < parsedPoints.length; i++) {
+			assertEquals(parsedPoints[i].getUniqueIdentifier(), indexedPoints[i].getUniqueIdentifier());
+			assertEquals(parsedPoints[i].getSchemaReference(), indexedPoints[i].getSchemaReference());
+		}
+
+		IExtension[] parsedExtensions = sort(parsed.getRegistry().getExtensions(POINT_ID));
+		IExtension[] indexedExtensions = sort(indexed.getRegistry().getExtensions(POINT_ID));
+		assertEquals(2, parsedExtensions.length);
+		assertEquals(parsedExtensions.length, indexedExtensions.length);
+		for (int i = 0; i < parsedExtensions.length; i++) {
+			assertEquals(parsedExtensions[i].getUniqueIdentifier(), indexedExtensions[i].getUniqueIdentifier());
+			assertEquals(parsedExtensions[i].getLabel(), indexedExtensions[i].getLabel());
+			assertEquals(parsedExtensions[i].getExtensionPointUniqueIdentifier(),
+					indexedExtensions[i].getExtensionPointUniqueIdentifier());
+			assertConfigurationEquals(parsedExtensions[i].getConfigurationElements(),
+					indexedExtensions[i].getConfigurationElements());
+		}
+		assertEquals("Folder Extension A", //$NON-NLS-1$
+				indexed.getRegistry().getExtension("test.folder.folderExtension").getLabel()); //$NON-NLS-1$
+
+		parsed.shutdown();
+		indexed.shutdown();
+	}
+
+	/**
+	 * A bundle whose plugin.xml is touched is loaded again, the others are
+	 * installed from the index.
+	 */
+	@Test
+	public void testTouchedBundleReloaded() throws Exception {
+		startup(true).shutdown();
+
+		// a change which keeps the time and length of the jar isn't seen
+		long jarTime = jarBundle.lastModified();
+		writeJar("Jar Extension B"); //$NON-NLS-1$
+		jarBundle.setLastModified(jarTime);
+
+		File plugin = new File(folderBundle, "plugin.xml"); //$NON-NLS-1$
+		long pluginTime = plugin.lastModified();
+		write(plugin, getFolderPlugin().replace("%folder.label", "Folder Extension B")); //$NON-NLS-1$ //$NON-NLS-2$
+		plugin.setLastModified(pluginTime + 10000);
+
+		TestPlatform platform = startup(true);
+		assertEquals("Folder Extension B", //$NON-NLS-1$
+				platform.getRegistry().getExtension("test.folder.folderExtension").getLabel()); //$NON-NLS-1$
+		assertEquals("Jar Extension A", //$NON-NLS-1$
+				platform.getRegistry().getExtension("test.jar.jarExtension").getLabel()); //$NON-NLS-1$
+		assertEquals(2, platform.getRegistry().getExtensions(POINT_ID).length);
+		platform.shutdown();
+	}
+
+	private TestPlatform startup(boolean useIndex) throws Exception {
+		PlatformConfig config = new PlatformConfig();
+		config.setProperty(IPlatformConfig.TEMP_DIR, tempDir.getPath());
+		// an empty name disables the index
+		config.setProperty(IPlatformConfig.REGISTRY_INDEX, useIndex ? indexFile.getPath() : ""); //$NON-NLS-1$
+		TestPlatform platform = new TestPlatform(config);
+		platform.installBundle(folderBundle.toURI().toURL());
+		platform.installBundle(new URL("jar:" + jarBundle.toURI().toURL() + "!/")); //$NON-NLS-1$ //$NON-NLS-2$
+		platform.startup();
+		return platform;
+	}
+
+	private void assertConfigurationEquals(IConfigurationElement[] expected, IConfigurationElement[] actual) {
+		assertNotNull(actual);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getName(), actual[i].getName());
+			String[] names = expected[i].getAttributeNames();
+			Arrays.sort(names);
+			String[] actualNames = actual[i].getAttributeNames();
+			Arrays.sort(actualNames);
+			assertEquals(Arrays.asList(names), Arrays.asList(actualNames));
+			for (String name : names) {
+				assertEquals(expected[i].getAttribute(name), actual[i].getAttribute(name));
+			}
+			assertConfigurationEquals(expected[i].getChildren(), actual[i].getChildren());
+		}
+	}
+
+	private static IExtensionPoint[] sort(IExtensionPoint[] points) {
+		Arrays.sort(points, Comparator.comparing(IExtensionPoint::getUniqueIdentifier));
+		return points;
+	}
+
+	private static IExtension[] sort(IExtension[] extensions) {
+		Arrays.sort(extensions, Comparator.comparing(IExtension::getUniqueIdentifier));
+		return extensions;
+	}
+
+	private static String getManifest(String symbolicName) {
+		return "Manifest-Version: 1.0\nBundle-SymbolicName: " + symbolicName //$NON-NLS-1$
+				+ ";singleton:=true\nBundle-Version: 1.0.0\n"; //$NON-NLS-1$
+	}
+
+	private static String getFolderPlugin() {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<plugin>\n" //$NON-NLS-1$
+				+ "<extension-point id=\"points\" name=\"Points\" schema=\"schema/points.exsd\"/>\n" //$NON-NLS-1$
+				+ "<extension id=\"folderExtension\" name=\"%folder.label\" point=\"test.folder.points\">\n" //$NON-NLS-1$
+				+ "<factory class=\"test.FolderFactory\" priority=\"1\">\n" //$NON-NLS-1$
+				+ "<property name=\"a\" value=\"1\"/><property name=\"b\"/>\n" //$NON-NLS-1$
+				+ "</factory>\n<factory class=\"test.OtherFactory\"/>\n</extension>\n</plugin>\n"; //$NON-NLS-1$
+	}
+
+	private static String getJarPlugin(String label) {
+		return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<plugin>\n" //$NON-NLS-1$
+				+ "<extension id=\"jarExtension\" name=\"" + label + "\" point=\"test.folder.points\">\n" //$NON-NLS-1$ //$NON-NLS-2$
+				+ "<factory class=\"test.JarFactory\"><property name=\"c\" value=\"3\"/></factory>\n" //$NON-NLS-1$
+				+ "</extension>\n</plugin>\n"; //$NON-NLS-1$
+	}
+
+	/**
+	 * Writes the jar bundle, with stored entries at a fixed time, so that a label
+	 * of the same length gives a jar of the same length.
+	 */
+	private void writeJar(String label) throws IOException {
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jarBundle))) {
+			writeEntry(out, "META-INF/MANIFEST.MF", getManifest("test.jar")); //$NON-NLS-1$
+			writeEntry(out, "plugin.xml", getJarPlugin(label)); //$NON-NLS-1$
+		}
+	}
+
+	private static void writeEntry(ZipOutputStream out, String name, String content) throws IOException {
+		byte[] data = content.getBytes(StandardCharsets.UTF_8);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		ZipEntry entry = new ZipEntry(name);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(data.length);
+		entry.setCrc(crc.getValue());
+		entry.setTime(0);
+		out.putNextEntry(entry);
+		out.write(data);
+		out.closeEntry();
+	}
+
+	private static void write(File file, String content) throws IOException {
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -21,19 +21,19 @@ import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.regex.Pattern;
 
 import javax.sql.rowset.serial.SerialBlob;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.exception.CoreException;
 import org.eclipse.birt.core.format.DateFormatter;
+import org.eclipse.birt.core.format.FormatPool;
 import org.eclipse.birt.core.i18n.ResourceConstants;
 import org.eclipse.birt.core.i18n.ResourceHandle;
 import org.eclipse.birt.core.script.JavascriptEvalUtil;
@@ -56,15 +56,12 @@ public final class DataTypeUtil {
 	// Locale.getDefault()
 	// we will try to parse it for Locale.US
 	private static ULocale DEFAULT_LOCALE = ULocale.US;
-	private static ULocale JRE_DEFAULT_LOCALE = ULocale.getDefault();
-	private static SimpleDateFormat MysqlUSDateFormatter = new SimpleDateFormat("M/d/yyyy HH:mm");
-
-	private static Pattern p1 = Pattern.compile(".*[0-9]+:[0-9]+:[0-9]+.*");
-	private static Pattern p2 = Pattern.compile(".*[0-9]+:[0-9]+.*");
+	static ULocale JRE_DEFAULT_LOCALE = ULocale.getDefault();
+	private static final String MYSQL_US_DATE_PATTERN = "M/d/yyyy HH:mm"; //$NON-NLS-1$
 
 	// cache DateFormatter of ICU
 	private static Map dfMap = new HashMap();
-	private static Map nfMap = new HashMap();
+	private static FormatPool numberFormatPool = new FormatPool();
 	// Default Date/Time Style
 	private static int DEFAULT_DATE_STYLE = DateFormat.FULL;
 
@@ -227,26 +224,15 @@ public final class DataTypeUtil {
 			return (int) longValue;
 		} else if (source instanceof CharSequence) {
 			source = source.toString();
-			try {
-				return Integer.valueOf((String) source);
-			} catch (NumberFormatException e) {
-				try {
-					Number number = NumberFormat.getInstance(locale).parse((String) source);
-					if (number != null) {
-						if (!isConvertableToInteger(number)) {
-							throw new CoreException(ResourceConstants.CONVERT_FAILS,
-									new Object[] { source.toString(), "Integer" });
-						}
-						return number.intValue();
-					}
-
-					throw new CoreException(ResourceConstants.CONVERT_FAILS,
-							new Object[] { source.toString(), "Integer" });
-				} catch (ParseException e1) {
-					throw new CoreException(ResourceConstants.CONVERT_FAILS,
-							new Object[] { source.toString(), "Integer" });
-				}
+			Integer value = parseInteger((String) source);
+			if (value != null) {
+				return value;
+			}
+			Number number = parseNumber((String) source, NumberFormat.getInstance(locale));
+			if (number == null || !isConvertableToInteger(number)) {
+				throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Integer" });
 			}
+			return number.intValue();
 		} else {
 			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Integer" });
 		}
@@ -298,22 +284,16 @@ public final class DataTypeUtil {
 			if (((String) source).length() == 0) {
 				return null;
 			}
-			try {
-				return new BigDecimal((String) source);
-			} catch (NumberFormatException e) {
-				try {
-					Number number = NumberFormat.getInstance(JRE_DEFAULT_LOCALE).parse((String) source);
-					if (number != null) {
-						return new BigDecimal(number.toString());
-					}
-
-					throw new CoreException(ResourceConstants.CONVERT_FAILS,
-							new Object[] { source.toString(), "BigDecimal" });
-				} catch (ParseException e1) {
-					throw new CoreException(ResourceConstants.CONVERT_FAILS,
-							new Object[] { source.toString(), "BigDecimal" });
-				}
+			BigDecimal value = parseBigDecimal((String) source);
+			if (value != null) {
+				return value;
+			}
+			Number number = parseNumber((String) source, NumberFormat.getInstance(JRE_DEFAULT_LOCALE));
+			if (number == null) {
+				throw new CoreException(ResourceConstants.CONVERT_FAILS,
+						new Object[] { source.toString(), "BigDecimal" });
 			}
+			return new BigDecimal(number.toString());
 		} else {
 			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "BigDecimal" });
 		}
@@ -348,16 +328,16 @@ public final class DataTypeUtil {
 			} else if (((String) source).equalsIgnoreCase("false")) {
 				return Boolean.FALSE;
 			} else {
-				try {
-					if (Double.parseDouble((String) source) == 0) {
-						return Boolean.FALSE;
-					} else {
-						return Boolean.TRUE;
-					}
-				} catch (NumberFormatException e) {
+				Double value = parseDouble((String) source);
+				if (value == null) {
 					throw new CoreException(ResourceConstants.CONVERT_FAILS,
 							new Object[] { source.toString(), "Boolean" });
 				}
+				if (value.doubleValue() == 0) {
+					return Boolean.FALSE;
+				} else {
+					return Boolean.TRUE;
+				}
 			}
 		} else {
 			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Boolean" });
@@ -659,17 +639,11 @@ public final class DataTypeUtil {
 	 * @throws BirtException
 	 */
 	public static Date toDate(String source, ULocale locale, TimeZone timeZone) throws BirtException {
-		DateFormat dateFormat = (DateFormat) getDateFormatObject(source, locale, timeZone).clone();
-		Date resultDate = null;
-		try {
-			if (timeZone != null) {
-				dateFormat.setTimeZone(timeZone);
-			}
-			resultDate = dateFormat.parse(source);
-			return resultDate;
-		} catch (ParseException e) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+		Date resultDate = source == null ? null : parseDate(source, locale, timeZone, null);
+		if (resultDate == null) {
+			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source, "Date" });
 		}
+		return resultDate;
 	}
 
 	/**
@@ -697,57 +671,109 @@ public final class DataTypeUtil {
 			return null;
 		}
 
-		DateFormat dateFormat = null;
-		Date resultDate = null;
+		DateFormat[] dateFormat = new DateFormat[1];
+		if (parseDate(source, locale, timeZone, dateFormat) == null) {
+			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+		}
+		return dateFormat[0];
+	}
 
-		boolean existTime = p1.matcher(source).matches() || p2.matcher(source).matches();
+	/**
+	 * Parses a date/time string with the date and date/time styles of the locale,
+	 * from the longest to the shortest one. No exception is thrown if none of
+	 * them can parse the string.
+	 *
+	 * @param source
+	 * @param locale
+	 * @param timeZone
+	 * @param dateFormat if not null, receives the date format which parses the
+	 *                   string, in the time zone. The date format belongs to the
+	 *                   caller.
+	 * @return the date, or null if the string can not be parsed
+	 */
+	static Date parseDate(String source, ULocale locale, TimeZone timeZone, DateFormat[] dateFormat) {
+		boolean existTime = hasTime(source);
 
 		for (int i = DEFAULT_DATE_STYLE; i <= DateFormat.SHORT; i++) {
 			for (int j = DEFAULT_DATE_STYLE; j <= DateFormat.SHORT; j++) {
-				dateFormat = DateFormatFactory.getDateTimeInstance(i, j, locale);
-				TimeZone savedTimeZone = null;
-				if (timeZone != null) {
-					savedTimeZone = dateFormat.getTimeZone();
-					dateFormat.setTimeZone(timeZone);
+				DateFormat format = DateFormatFactory.acquireDateTimeInstance(i, j, locale, timeZone);
+				Date resultDate = parse(format, source, null);
+				if (resultDate != null && dateFormat != null) {
+					// the caller keeps the format
+					dateFormat[0] = format;
+					return resultDate;
 				}
-				try {
-					resultDate = dateFormat.parse(source);
-					return dateFormat;
-				} catch (ParseException e1) {
-				} finally {
-					if (savedTimeZone != null) {
-						dateFormat.setTimeZone(savedTimeZone);
-					}
+				DateFormatFactory.releaseDateTimeInstance(i, j, locale, timeZone, format);
+				if (resultDate != null) {
+					return resultDate;
 				}
 			}
 
 			// only Date, no Time
 			if (!existTime) {
-				dateFormat = DateFormatFactory.getDateInstance(i, locale);
-				TimeZone savedTimeZone = null;
-				if (timeZone != null) {
-					savedTimeZone = dateFormat.getTimeZone();
-					dateFormat.setTimeZone(timeZone);
+				DateFormat format = DateFormatFactory.acquireDateInstance(i, locale, timeZone);
+				Date resultDate = parse(format, source, null);
+				if (resultDate != null && dateFormat != null) {
+					dateFormat[0] = format;
+					return resultDate;
 				}
-				try {
-					resultDate = dateFormat.parse(source);
-					return dateFormat;
-				} catch (ParseException e1) {
-				} finally {
-					if (savedTimeZone != null) {
-						dateFormat.setTimeZone(savedTimeZone);
-					}
+				DateFormatFactory.releaseDateInstance(i, locale, timeZone, format);
+				if (resultDate != null) {
+					return resultDate;
 				}
 			}
 		}
+		return null;
+	}
 
-		// for the String can not be parsed, throws a BirtException
-		if (resultDate == null) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+	/**
+	 * Parses a string with a date format in the time zone, if it is not null. The
+	 * date format gets its own time zone back afterwards. Like
+	 * DateFormat.parse(String), the string is parsed if a part of it from the
+	 * beginning can be parsed.
+	 *
+	 * @param dateFormat
+	 * @param source
+	 * @param timeZone
+	 * @return the date, or null if the string can not be parsed
+	 */
+	static Date parse(DateFormat dateFormat, String source, TimeZone timeZone) {
+		TimeZone savedTimeZone = null;
+		if (timeZone != null) {
+			savedTimeZone = dateFormat.getTimeZone();
+			dateFormat.setTimeZone(timeZone);
+		}
+		try {
+			ParsePosition position = new ParsePosition(0);
+			Date resultDate = dateFormat.parse(source, position);
+			return position.getIndex() == 0 ? null : resultDate;
+		} finally {
+			if (savedTimeZone != null) {
+				dateFormat.setTimeZone(savedTimeZone);
+			}
 		}
+	}
 
-		// never access here
-		return dateFormat;
+	/**
+	 * Returns whether the string has a time part, that is two digits separated by
+	 * a colon, in a single line.
+	 *
+	 * @param source
+	 * @return
+	 */
+	private static boolean hasTime(String source) {
+		boolean found = false;
+		for (int i = 0; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+				return false;
+			}
+			if (c == ':' && i > 0 && i < source.length() - 1 && isAsciiDigit(source.charAt(i - 1))
+					&& isAsciiDigit(source.charAt(i + 1))) {
+				found = true;
+			}
+		}
+		return found;
 	}
 
 	/**
@@ -760,17 +786,48 @@ public final class DataTypeUtil {
 	 */
 	public static Date toDate(String source, TimeZone timeZone) throws BirtException {
 		assert timeZone != null;
-		try {
-			return toDateISO8601(source, timeZone);
-		} catch (BirtException e) {
-			try {
-				// format the String for JRE default locale
-				return toDate(source, JRE_DEFAULT_LOCALE, timeZone);
-			} catch (BirtException use) {
-				// format the String for Locale.US
-				return toDate(source, DEFAULT_LOCALE, timeZone);
+		Date resultDate = parseDate(source, timeZone, null);
+		if (resultDate == null) {
+			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source, "Date" });
+		}
+		return resultDate;
+	}
+
+	/**
+	 * Parses a date/time string the same way as toDate(String, TimeZone), or as
+	 * toDate(Object) if the time zone is null, without throwing an exception if it
+	 * can not be parsed.
+	 *
+	 * @param source
+	 * @param timeZone
+	 * @param dateFormat if not null, receives the date format which parses the
+	 *                   string, or null if it is parsed as an ISO8601 date
+	 * @return the date, or null if the string can not be parsed
+	 */
+	static Date parseDate(String source, TimeZone timeZone, DateFormat[] dateFormat) {
+		if (timeZone == null) {
+			source = source.trim();
+		}
+		Date resultDate = DateFormatISO8601.parseDate(source, timeZone);
+		if (resultDate == null) {
+			// format the String for JRE default locale
+			resultDate = parseDate(source, JRE_DEFAULT_LOCALE, timeZone, dateFormat);
+		}
+		if (resultDate == null) {
+			// format the String for Locale.US
+			resultDate = parseDate(source, DEFAULT_LOCALE, timeZone, dateFormat);
+		}
+		if (resultDate == null && timeZone == null) {
+			SimpleDateFormat format = DateFormatFactory.acquirePatternInstance(MYSQL_US_DATE_PATTERN,
+					JRE_DEFAULT_LOCALE, null);
+			resultDate = parse(format, source, null);
+			if (resultDate != null && dateFormat != null) {
+				dateFormat[0] = format;
+			} else {
+				DateFormatFactory.releasePatternInstance(MYSQL_US_DATE_PATTERN, JRE_DEFAULT_LOCALE, null, format);
 			}
 		}
+		return resultDate;
 	}
 
 	/**
@@ -799,20 +856,22 @@ public final class DataTypeUtil {
 	 * @throws BirtException
 	 */
 	public static Date toDateWithCheck(String source, ULocale locale) throws BirtException {
-		DateFormat dateFormat = DateFormatFactory.getDateInstance(DateFormat.SHORT, locale);
-		Date resultDate = null;
+		DateFormat dateFormat = DateFormatFactory.acquireDateInstance(DateFormat.SHORT, locale, null);
 		try {
-			resultDate = dateFormat.parse(source);
-		} catch (ParseException e) {
-			return toDate(source, locale);
-		}
+			Date resultDate = parse(dateFormat, source, null);
+			if (resultDate == null) {
+				return toDate(source, locale);
+			}
 
-		// check whether conversion is correct
-		if (!DateUtil.checkValid(dateFormat, source)) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
-		}
+			// check whether conversion is correct
+			if (!DateUtil.checkValid(dateFormat, source)) {
+				throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+			}
 
-		return resultDate;
+			return resultDate;
+		} finally {
+			DateFormatFactory.releaseDateInstance(DateFormat.SHORT, locale, null, dateFormat);
+		}
 	}
 
 	public static Double toDouble(Object source, Locale locale) throws CoreException {
@@ -842,27 +901,16 @@ public final class DataTypeUtil {
 			return new Double(doubleValue);
 		} else if (source instanceof CharSequence) {
 			source = source.toString();
-			try {
-				return Double.valueOf((String) source);
-			} catch (NumberFormatException e) {
-				try {
-					Number number = NumberFormat.getInstance(locale == null ? JRE_DEFAULT_LOCALE : locale)
-							.parse((String) source);
-					if (number != null) {
-						if (!isConvertableToDouble(number)) {
-							throw new CoreException(ResourceConstants.CONVERT_FAILS,
-									new Object[] { source.toString(), "Double" });
-						}
-						return new Double(number.doubleValue());
-					}
-
-					throw new CoreException(ResourceConstants.CONVERT_FAILS,
-							new Object[] { source.toString(), "Double" });
-				} catch (ParseException e1) {
-					throw new CoreException(ResourceConstants.CONVERT_FAILS,
-							new Object[] { source.toString(), "Double" });
-				}
+			Double value = parseDouble((String) source);
+			if (value != null) {
+				return value;
 			}
+			Number number = parseNumber((String) source,
+					NumberFormat.getInstance(locale == null ? JRE_DEFAULT_LOCALE : locale));
+			if (number == null || !isConvertableToDouble(number)) {
+				throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Double" });
+			}
+			return new Double(number.doubleValue());
 		} else {
 			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Double" });
 		}
@@ -1016,18 +1064,14 @@ public final class DataTypeUtil {
 	 * @param locale
 	 * @return
 	 */
-	private static String toString(Number source, ULocale locale) {
-		NumberFormat nf = (NumberFormat) nfMap.get(locale);
-		if (nf == null) {
-			synchronized (nfMap) {
-				nf = (NumberFormat) nfMap.get(locale);
-				if (nf == null) {
-					nf = NumberFormat.getInstance(locale);
-					nfMap.put(locale, nf);
-				}
-			}
+	private static String toString(Number source, final ULocale locale) {
+		String key = "number/" + locale.getName(); //$NON-NLS-1$
+		NumberFormat nf = numberFormatPool.acquire(key, () -> NumberFormat.getInstance(locale));
+		try {
+			return nf.format(source);
+		} finally {
+			numberFormatPool.release(key, nf);
 		}
-		return nf.format(source);
 	}
 
 	/**
@@ -1189,22 +1233,19 @@ public final class DataTypeUtil {
 			String stringValue = evaValue.toString();
 			value = toIntegerValue(evaValue);
 			if (value == null) {
-				try {
-					// 2: to Double
-					value = Double.valueOf(stringValue);
-				} catch (NumberFormatException e1) {
-					try {
-						// 3: to BigDecimal
-						value = new BigDecimal(stringValue);
-					} catch (NumberFormatException e2) {
-						try {
-							// 4: to Date
-							value = toDate(stringValue);
-						} catch (BirtException e3) {
-							value = evaValue;
-						}
-					}
-				}
+				// 2: to Double
+				value = parseDouble(stringValue);
+			}
+			if (value == null) {
+				// 3: to BigDecimal
+				value = parseBigDecimal(stringValue);
+			}
+			if (value == null) {
+				// 4: to Date
+				value = parseDate(stringValue, null, null);
+			}
+			if (value == null) {
+				value = evaValue;
 			}
 		}
 		return value;
@@ -1218,23 +1259,18 @@ public final class DataTypeUtil {
 		Integer value = null;
 		if (evaValue instanceof CharSequence) {
 			String stringValue = evaValue.toString();
-			try {
-				// 1: to Integer
-				value = Integer.valueOf(stringValue);
-			} catch (NumberFormatException e1) {
-				try {
-					Double ddValue = Double.valueOf(stringValue);
+			// 1: to Integer
+			value = parseInteger(stringValue);
+			if (value == null) {
+				Double ddValue = parseDouble(stringValue);
+				if (ddValue != null) {
 					int intValue = ddValue.intValue();
 					double doubleValue = ddValue.doubleValue();
 					// TODO: improve this implementation
 					// here examine whether the two values are equal.1.0e-5
 					if (Math.abs(intValue - doubleValue) < 0.0000001) {
-						value = Integer.valueOf(String.valueOf(intValue));
-					} else {
-						value = null;
+						value = Integer.valueOf(intValue);
 					}
-				} catch (NumberFormatException e2) {
-					value = null;
 				}
 			}
 		}
@@ -1251,48 +1287,11 @@ public final class DataTypeUtil {
 	 * @return result Date
 	 */
 	private static Date toDate(String source) throws BirtException {
-		source = source.trim();
-		try {
-			return toDateISO8601(source, null);
-		} catch (BirtException e) {
-			try {
-				// format the String for JRE default locale
-				return toDate(source, JRE_DEFAULT_LOCALE);
-			} catch (BirtException use) {
-				try {
-					// format the String for Locale.US
-					return toDate(source, DEFAULT_LOCALE);
-				} catch (BirtException de) {
-					return toDateForSpecialFormat(source);
-				}
-			}
-		}
-	}
-
-	/**
-	 * convert String with ISO8601 date format to java.util.Date
-	 *
-	 * @param source the String to be convert
-	 * @param locate the locate of the string
-	 * @return result Date
-	 */
-	private static Date toDateISO8601(String source, TimeZone timeZone) throws BirtException {
-		Date resultDate = null;
-
-		try {
-			resultDate = DateFormatISO8601.parse(source, timeZone);
-			return resultDate;
-		} catch (ParseException e1) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
-		}
-	}
-
-	private static Date toDateForSpecialFormat(String source) throws BirtException {
-		try {
-			return MysqlUSDateFormatter.parse(source);
-		} catch (ParseException e1) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+		Date resultDate = parseDate(source, null, null);
+		if (resultDate == null) {
+			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.trim(), "Date" });
 		}
+		return resultDate;
 	}
 
 	/**
@@ -1320,10 +1319,12 @@ public final class DataTypeUtil {
 					DateFormat dateformat = getDateFormatObject(source, DEFAULT_LOCALE, null);
 					sdf = (SimpleDateFormat) dateformat;
 				} catch (BirtException de) {
-					try {
-						MysqlUSDateFormatter.parse(source);
-						return "M/d/yyyy HH:mm";
-					} catch (ParseException e1) {
+					SimpleDateFormat format = DateFormatFactory.acquirePatternInstance(MYSQL_US_DATE_PATTERN,
+							JRE_DEFAULT_LOCALE, null);
+					Date resultDate = parse(format, source, null);
+					DateFormatFactory.releasePatternInstance(MYSQL_US_DATE_PATTERN, JRE_DEFAULT_LOCALE, null, format);
+					if (resultDate != null) {
+						return MYSQL_US_DATE_PATTERN;
 					}
 				}
 			} catch (ClassCastException ce) {
@@ -1502,7 +1503,174 @@ public final class DataTypeUtil {
 		return odaType;
 	}
 
-	private static boolean isConvertableToInteger(Number n) {
+	/**
+	 * Parses a string as Integer.valueOf(String) does, without throwing an
+	 * exception if it is not an integer.
+	 *
+	 * @param source
+	 * @return the value, or null if the string is not an integer
+	 */
+	static Integer parseInteger(String source) {
+		int length = source.length();
+		int start = length > 0 && (source.charAt(0) == '+' || source.charAt(0) == '-') ? 1 : 0;
+		if (start == length) {
+			return null;
+		}
+		for (int i = start; i < length; i++) {
+			if (Character.digit(source.charAt(i), 10) < 0) {
+				return null;
+			}
+		}
+		if (length - start <= 9) {
+			return Integer.valueOf(source);
+		}
+		try {
+			return Integer.valueOf(source);
+		} catch (NumberFormatException e) {
+			// out of the integer range
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a string as Double.valueOf(String) does, without throwing an
+	 * exception if it is not a number. The decimal form is checked before it is
+	 * parsed; the rare hexadecimal, NaN and Infinity forms are left to
+	 * Double.valueOf.
+	 *
+	 * @param source
+	 * @return the value, or null if the string is not a number
+	 */
+	static Double parseDouble(String source) {
+		int start = 0;
+		int end = source.length();
+		// Double.valueOf trims the string
+		while (start < end && source.charAt(start) <= ' ') {
+			start++;
+		}
+		while (end > start && source.charAt(end - 1) <= ' ') {
+			end--;
+		}
+		int i = start;
+		if (i < end && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+			i++;
+		}
+		int digits = 0;
+		while (i < end && isAsciiDigit(source.charAt(i))) {
+			i++;
+			digits++;
+		}
+		if (i < end && source.charAt(i) == '.') {
+			i++;
+			while (i < end && isAsciiDigit(source.charAt(i))) {
+				i++;
+				digits++;
+			}
+		}
+		boolean isDecimal = digits > 0;
+		if (isDecimal && i < end && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+			i++;
+			if (i < end && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+				i++;
+			}
+			int exponentDigits = 0;
+			while (i < end && isAsciiDigit(source.charAt(i))) {
+				i++;
+				exponentDigits++;
+			}
+			isDecimal = exponentDigits > 0;
+		}
+		if (isDecimal && i < end && "fFdD".indexOf(source.charAt(i)) >= 0) {
+			i++;
+		}
+		if (isDecimal && i == end) {
+			return Double.valueOf(source);
+		}
+		for (i = start; i < end; i++) {
+			if ("NIxX".indexOf(source.charAt(i)) >= 0) {
+				try {
+					return Double.valueOf(source);
+				} catch (NumberFormatException e) {
+					return null;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a string as new BigDecimal(String) does, without throwing an
+	 * exception if it is not a number.
+	 *
+	 * @param source
+	 * @return the value, or null if the string is not a number
+	 */
+	static BigDecimal parseBigDecimal(String source) {
+		int length = source.length();
+		int i = 0;
+		if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+			i++;
+		}
+		int digits = 0;
+		boolean hasPoint = false;
+		for (; i < length; i++) {
+			char c = source.charAt(i);
+			if (Character.isDigit(c)) {
+				digits++;
+			} else if (c == '.' && !hasPoint) {
+				hasPoint = true;
+			} else {
+				break;
+			}
+		}
+		if (digits == 0) {
+			return null;
+		}
+		if (i < length && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+			i++;
+			if (i < length && (source.charAt(i) == '+' || source.charAt(i) == '-')) {
+				i++;
+			}
+			int exponentDigits = 0;
+			while (i < length && Character.isDigit(source.charAt(i))) {
+				i++;
+				exponentDigits++;
+			}
+			if (exponentDigits == 0) {
+				return null;
+			}
+		}
+		if (i != length) {
+			return null;
+		}
+		try {
+			return new BigDecimal(source);
+		} catch (NumberFormatException e) {
+			// the exponent is out of range
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a string with a number format, without throwing an exception if it
+	 * can not be parsed. Like NumberFormat.parse(String), the string is parsed if
+	 * a part of it from the beginning can be parsed.
+	 *
+	 * @param source
+	 * @param numberFormat
+	 * @return the number, or null if the string can not be parsed
+	 */
+	static Number parseNumber(String source, NumberFormat numberFormat) {
+		ParsePosition position = new ParsePosition(0);
+		Number number = numberFormat.parse(source, position);
+		return position.getIndex() == 0 ? null : number;
+	}
+
+	private static boolean isAsciiDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	static boolean isConvertableToInteger(Number n) {
 		assert n != null;
 
 		long longValue = n.longValue();
@@ -1510,7 +1678,7 @@ public final class DataTypeUtil {
 
 	}
 
-	private static boolean isConvertableToDouble(Number n) {
+	static boolean isConvertableToDouble(Number n) {
 		assert n != null;
 
 		double doubleValue = n.doubleValue();
@@ -18,105 +18,221 @@
 package org.eclipse.birt.core.data;
 
 import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.birt.core.format.FormatPool;
 
 import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.TimeZone;
 import com.ibm.icu.util.ULocale;
 
 /**
- * Manages per-thread storage of locale-specific DateFormat instances. Use this
- * factory to obtain DateFormat instances to address two issues: (1) Reduce cost
- * of on-the-fly construction of DateFormat instances. The factory uses cached
- * instances whenever possible. (2) MT-safety issue related to use of shared
- * DateFormat instances across threads
+ * Manages locale-specific DateFormat instances. Use this factory to obtain
+ * DateFormat instances to address two issues: (1) Reduce cost of on-the-fly
+ * construction of DateFormat instances. The factory keeps the instances in a
+ * bounded pool shared by all the threads. (2) MT-safety issue related to use of
+ * shared DateFormat instances across threads: an acquired instance is used by
+ * one thread until it is released.
  */
 public class DateFormatFactory {
 
 	private static final int NO_TIME_STYLE = -999;
 
-	// TLS HashMap from locale/style key to DateFormat instance
-	private static ThreadLocal tlsCache = new ThreadLocal() {
+	private static final String[] ISO_PATTERNS = { "yyyy-MM-dd HH:mm:ss.SSS z", "yyyy-MM-dd HH:mm:ss.SSS Z",
+			"yyyy-MM-dd HH:mm:ss.SSSz", "yyyy-MM-dd HH:mm:ss.SSSZ", "yyyy-MM-dd HH:mm:ss.SSS", "yyyy-MM-dd HH:mm:ss z",
+			"yyyy-MM-dd HH:mm:ss Z", "yyyy-MM-dd HH:mm:ssz", "yyyy-MM-dd HH:mm:ssZ", "yyyy-MM-dd HH:mm:ss",
+			"yyyy-MM-dd HH:mm z", "yyyy-MM-dd HH:mm Z", "yyyy-MM-dd HH:mmz", "yyyy-MM-dd HH:mmZ", "yyyy-MM-dd HH:mm",
+			"yyyy-MM-dd", "yyyy-MM", "yyyy", "HH:mm:ss.SSS" };
 
-		@Override
-		protected Object initialValue() {
-			return new HashMap();
-		}
-	};
-
-	private static ThreadLocal patternCache = new ThreadLocal() {
-
-		@Override
-		protected Object initialValue() {
-			HashMap value = new HashMap();
-			String[] dateFormatPattern = { "yyyy-MM-dd HH:mm:ss.SSS z", "yyyy-MM-dd HH:mm:ss.SSS Z",
-					"yyyy-MM-dd HH:mm:ss.SSSz", "yyyy-MM-dd HH:mm:ss.SSSZ", "yyyy-MM-dd HH:mm:ss.SSS",
-					"yyyy-MM-dd HH:mm:ss z", "yyyy-MM-dd HH:mm:ss Z", "yyyy-MM-dd HH:mm:ssz", "yyyy-MM-dd HH:mm:ssZ",
-					"yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd HH:mm z", "yyyy-MM-dd HH:mm Z", "yyyy-MM-dd HH:mmz",
-					"yyyy-MM-dd HH:mmZ", "yyyy-MM-dd HH:mm", "yyyy-MM-dd", "yyyy-MM", "yyyy", "HH:mm:ss.SSS" };
-			SimpleDateFormat simpleDateFormatter = null;
-			PatternKey patterKey = null;
-
-			for (int i = 0; i < dateFormatPattern.length; i++) {
-				patterKey = PatternKey.getPatterKey(dateFormatPattern[i]);
-				simpleDateFormatter = new SimpleDateFormat(dateFormatPattern[i]);
-				simpleDateFormatter.setLenient(false);
-				value.put(patterKey, simpleDateFormatter);
-			}
-			return value;
+	// the ISO8601 pattern of each pattern key
+	private static Map<PatternKey, String> isoPatterns = new HashMap<>();
+
+	static {
+		for (int i = 0; i < ISO_PATTERNS.length; i++) {
+			isoPatterns.put(PatternKey.getPatterKey(ISO_PATTERNS[i]), ISO_PATTERNS[i]);
 		}
-	};
+	}
+
+	private static FormatPool pool = new FormatPool();
 
 	/**
-	 * Gets DateFormat instance allocated to the current thread for the given date
-	 * style, timestyle and locale. Returned instance is safe to use
+	 * Gets a DateFormat instance for the given date style, timestyle and locale.
+	 * The returned instance belongs to the caller.
 	 *
+	 * @deprecated use acquireDateTimeInstance and releaseDateTimeInstance instead
 	 */
+	@Deprecated
 	public static DateFormat getDateTimeInstance(int dateStyle, int timeStyle, ULocale locale) {
-		assert locale != null;
-
-		// Create key string for cache lookup
-		String keyStr = locale.getName() + "/" + Integer.toString(dateStyle) + "/" + Integer.toString(timeStyle);
-
-		HashMap tlsMap = (HashMap) tlsCache.get();
-		assert tlsMap != null;
+		return acquireDateTimeInstance(dateStyle, timeStyle, locale, null);
+	}
 
-		DateFormat result = (DateFormat) tlsMap.get(keyStr);
+	/**
+	 * Gets a DateFormat instance for the given date style and locale. The
+	 * returned instance belongs to the caller.
+	 *
+	 * @deprecated use acquireDateInstance and releaseDateInstance instead
+	 */
+	@Deprecated
+	public static DateFormat getDateInstance(int dateStyle, ULocale locale) {
+		return acquireDateTimeInstance(dateStyle, NO_TIME_STYLE, locale, null);
+	}
 
-		// Create new instance and add to cache if no instance available for
-		// current thread/style/locale combination
-		if (result == null) {
+	/**
+	 * Acquires a DateFormat instance for the given date style, timestyle, locale
+	 * and time zone. The instance is used by the current thread only, until it is
+	 * released with releaseDateTimeInstance.
+	 *
+	 * @param dateStyle
+	 * @param timeStyle
+	 * @param locale
+	 * @param timeZone  the time zone of the instance, or null for the default one
+	 * @return
+	 */
+	public static DateFormat acquireDateTimeInstance(final int dateStyle, final int timeStyle, final ULocale locale,
+			final TimeZone timeZone) {
+		assert locale != null;
+		return pool.acquire(getStyleKey(dateStyle, timeStyle, locale, timeZone), () -> {
+			DateFormat result;
 			if (timeStyle == NO_TIME_STYLE) {
 				result = DateFormat.getDateInstance(dateStyle, locale.toLocale());
 			} else {
 				result = DateFormat.getDateTimeInstance(dateStyle, timeStyle, locale.toLocale());
 			}
-			tlsMap.put(keyStr, result);
-		}
+			if (timeZone != null) {
+				result.setTimeZone(timeZone);
+			}
+			return result;
+		});
+	}
 
-		return result;
+	/**
+	 *
+	 * @param dateStyle
+	 * @param timeStyle
+	 * @param locale
+	 * @param timeZone
+	 * @param dateFormat the instance acquired with the same arguments
+	 */
+	public static void releaseDateTimeInstance(int dateStyle, int timeStyle, ULocale locale, TimeZone timeZone,
+			DateFormat dateFormat) {
+		pool.release(getStyleKey(dateStyle, timeStyle, locale, timeZone), dateFormat);
+	}
 
+	/**
+	 * Acquires a DateFormat instance for the given date style, locale and time
+	 * zone. The instance is used by the current thread only, until it is released
+	 * with releaseDateInstance.
+	 *
+	 * @param dateStyle
+	 * @param locale
+	 * @param timeZone  the time zone of the instance, or null for the default one
+	 * @return
+	 */
+	public static DateFormat acquireDateInstance(int dateStyle, ULocale locale, TimeZone timeZone) {
+		return acquireDateTimeInstance(dateStyle, NO_TIME_STYLE, locale, timeZone);
 	}
 
 	/**
-	 * Gets DateFormat instance allocated to the current thread for the given date
-	 * style, timestyle and locale. Returned instance is safe to use
 	 *
+	 * @param dateStyle
+	 * @param locale
+	 * @param timeZone
+	 * @param dateFormat the instance acquired with the same arguments
 	 */
-	public static DateFormat getDateInstance(int dateStyle, ULocale locale) {
-		return getDateTimeInstance(dateStyle, NO_TIME_STYLE, locale);
+	public static void releaseDateInstance(int dateStyle, ULocale locale, TimeZone timeZone, DateFormat dateFormat) {
+		releaseDateTimeInstance(dateStyle, NO_TIME_STYLE, locale, timeZone, dateFormat);
 	}
 
 	/**
-	 * Gets DateFormat instance allocated to the current thread for the given
-	 * pattern. Returned instance is safe to use
+	 * Gets a non lenient ISO8601 SimpleDateFormat instance for the given pattern.
+	 * The returned instance belongs to the caller.
 	 *
+	 * @deprecated use acquirePatternInstance and releasePatternInstance instead
 	 */
+	@Deprecated
 	public static SimpleDateFormat getPatternInstance(PatternKey pattern) {
+		return acquirePatternInstance(pattern, null);
+	}
+
+	/**
+	 * Acquires a non lenient ISO8601 SimpleDateFormat instance for the given
+	 * pattern and time zone. The instance is used by the current thread only,
+	 * until it is released with releasePatternInstance.
+	 *
+	 * @param pattern
+	 * @param timeZone the time zone of the instance, or null for the default one
+	 * @return the instance, or null if the pattern is not an ISO8601 one
+	 */
+	static SimpleDateFormat acquirePatternInstance(PatternKey pattern, TimeZone timeZone) {
+		String isoPattern = pattern == null ? null : isoPatterns.get(pattern);
+		if (isoPattern == null) {
+			return null;
+		}
+		return pool.acquire(getPatternKey("iso", isoPattern, null, timeZone), () -> {
+			SimpleDateFormat result = new SimpleDateFormat(isoPattern);
+			result.setLenient(false);
+			if (timeZone != null) {
+				result.setTimeZone(timeZone);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 *
+	 * @param pattern
+	 * @param timeZone
+	 * @param dateFormat the instance acquired with the same arguments
+	 */
+	static void releasePatternInstance(PatternKey pattern, TimeZone timeZone, SimpleDateFormat dateFormat) {
+		pool.release(getPatternKey("iso", isoPatterns.get(pattern), null, timeZone), dateFormat);
+	}
 
-		HashMap patternMap = (HashMap) patternCache.get();
-		assert patternMap != null;
+	/**
+	 * Acquires a SimpleDateFormat instance for the given pattern, locale and time
+	 * zone. The instance is used by the current thread only, until it is released
+	 * with releasePatternInstance. An instance which is never released belongs to
+	 * the caller, so this is also a cheap way to get a SimpleDateFormat which is
+	 * kept: the pattern is compiled once for all the instances.
+	 *
+	 * @param pattern
+	 * @param locale
+	 * @param timeZone the time zone of the instance, or null for the default one
+	 * @return
+	 */
+	public static SimpleDateFormat acquirePatternInstance(final String pattern, final ULocale locale,
+			final TimeZone timeZone) {
+		assert pattern != null && locale != null;
+		return pool.acquire(getPatternKey("pattern", pattern, locale, timeZone), () -> {
+			SimpleDateFormat result = new SimpleDateFormat(pattern, locale);
+			if (timeZone != null) {
+				result.setTimeZone(timeZone);
+			}
+			return result;
+		});
+	}
 
-		return (SimpleDateFormat) patternMap.get(pattern);
+	/**
+	 *
+	 * @param pattern
+	 * @param locale
+	 * @param timeZone
+	 * @param dateFormat the instance acquired with the same arguments
+	 */
+	public static void releasePatternInstance(String pattern, ULocale locale, TimeZone timeZone,
+			SimpleDateFormat dateFormat) {
+		pool.release(getPatternKey("pattern", pattern, locale, timeZone), dateFormat);
+	}
+
+	private static String getStyleKey(int dateStyle, int timeStyle, ULocale locale, TimeZone timeZone) {
+		return "style/" + locale.getName() + "/" + dateStyle + "/" + timeStyle + "/" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$//$NON-NLS-4$
+				+ (timeZone == null ? "" : timeZone.getID()); //$NON-NLS-1$
+	}
+
+	private static String getPatternKey(String kind, String pattern, ULocale locale, TimeZone timeZone) {
+		return kind + "/" + (locale == null ? "" : locale.getName()) + "/" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ (timeZone == null ? "" : timeZone.getID()) + "/" + pattern; //$NON-NLS-1$ //$NON-NLS-2$
 	}
 
 }
@@ -199,11 +315,16 @@ class PatternKey {
 			if ("yyyy".equalsIgnoreCase(source)) {
 				return true;
 			}
-			try {
-				Integer.parseInt(source);
-			} catch (NumberFormatException e) {
+			// the strings Integer.parseInt accepts
+			int start = source.length() > 0 && (source.charAt(0) == '+' || source.charAt(0) == '-') ? 1 : 0;
+			if (start == source.length()) {
 				return false;
 			}
+			for (int i = start; i < source.length(); i++) {
+				if (Character.digit(source.charAt(i), 10) < 0) {
+					return false;
+				}
+			}
 			return true;
 		}
 		return false;
@@ -23,7 +23,6 @@ import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.exception.CoreException;
 import org.eclipse.birt.core.i18n.ResourceConstants;
 
-import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.SimpleDateFormat;
 import com.ibm.icu.util.TimeZone;
 
@@ -34,7 +33,6 @@ import com.ibm.icu.util.TimeZone;
 
 public class DateFormatISO8601 {
 
-	private static Pattern T_PATTERN = Pattern.compile("T");
 	// Time pattern matches the time part similar to 02:15:01.999620
 	private static Pattern TIME_PART_PATTERN = Pattern.compile("\\d\\d:\\d\\d:\\d\\d\\.\\d+");
 
@@ -46,21 +44,35 @@ public class DateFormatISO8601 {
 	 * @throws ParseException
 	 */
 	public static Date parse(String source, TimeZone timeZone) throws BirtException, ParseException {
-		DateFormat dateFormat = getSimpleDateFormat(source, timeZone);
-		TimeZone savedTimeZone = dateFormat.getTimeZone();
-		Date resultDate = null;
+		Date resultDate = parseDate(source, timeZone);
+		if (resultDate == null) {
+			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source, "Date" });
+		}
+		return resultDate;
+	}
+
+	/**
+	 * Parse a date/time string, without throwing an exception if it is not an
+	 * ISO8601 date/time.
+	 *
+	 * @param source
+	 * @param timeZone
+	 * @return the date, or null if the string can not be parsed
+	 */
+	static Date parseDate(String source, TimeZone timeZone) {
+		if (source == null || source.trim().length() == 0) {
+			return null;
+		}
+		source = cleanDate(source);
+		PatternKey patternKey = PatternKey.getPatterKey(source);
+		SimpleDateFormat dateFormat = DateFormatFactory.acquirePatternInstance(patternKey, timeZone);
+		if (dateFormat == null) {
+			return null;
+		}
 		try {
-			if (timeZone != null) {
-				dateFormat.setTimeZone(timeZone);
-			}
-			if (dateFormat != null) {
-				resultDate = dateFormat.parse(cleanDate(source));
-			}
-			return resultDate;
-		} catch (ParseException e) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+			return DataTypeUtil.parse(dateFormat, source, null);
 		} finally {
-			dateFormat.setTimeZone(savedTimeZone);
+			DateFormatFactory.releasePatternInstance(patternKey, timeZone, dateFormat);
 		}
 	}
 
@@ -89,33 +101,13 @@ public class DateFormatISO8601 {
 		if (source == null || source.trim().length() == 0) {
 			return null;
 		}
-		SimpleDateFormat dateFormat = null;
-		Date resultDate = null;
 		source = cleanDate(source);
-		Object simpleDateFormatter = DateFormatFactory.getPatternInstance(PatternKey.getPatterKey(source));
-		if (simpleDateFormatter != null) {
-			dateFormat = (SimpleDateFormat) simpleDateFormatter;
-			TimeZone savedTimeZone = null;
-			try {
-				if (timeZone != null) {
-					savedTimeZone = dateFormat.getTimeZone();
-					dateFormat.setTimeZone(timeZone);
-				}
-				resultDate = dateFormat.parse(source);
-				return dateFormat;
-			} catch (ParseException e1) {
-			} finally {
-				if (savedTimeZone != null) {
-					dateFormat.setTimeZone(savedTimeZone);
-				}
-			}
-		}
+		// the caller keeps the format, which has the default time zone
+		SimpleDateFormat dateFormat = DateFormatFactory.acquirePatternInstance(PatternKey.getPatterKey(source), null);
 		// for the String can not be parsed, throws a BirtException
-		if (resultDate == null) {
-			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source.toString(), "Date" });
+		if (dateFormat == null || DataTypeUtil.parse(dateFormat, source, timeZone) == null) {
+			throw new CoreException(ResourceConstants.CONVERT_FAILS, new Object[] { source, "Date" });
 		}
-
-		// never access here
 		return dateFormat;
 	}
 
@@ -132,16 +124,14 @@ public class DateFormatISO8601 {
 			return null;
 		}
 
-		SimpleDateFormat simpleDateFormatter = DateFormatFactory
-				.getPatternInstance(PatternKey.getPatterKey("yyyy-MM-dd HH:mm:ss.sZ"));
-		TimeZone savedTimeZone = simpleDateFormatter.getTimeZone();
+		PatternKey patternKey = PatternKey.getPatterKey("yyyy-MM-dd HH:mm:ss.sZ");
+		SimpleDateFormat simpleDateFormatter = DateFormatFactory.acquirePatternInstance(patternKey, timeZone);
 		if (simpleDateFormatter != null) {
 			try {
-				simpleDateFormatter.setTimeZone(timeZone);
 				return simpleDateFormatter.format(date);
 			} catch (Exception e1) {
 			} finally {
-				simpleDateFormatter.setTimeZone(savedTimeZone);
+				DateFormatFactory.releasePatternInstance(patternKey, timeZone, simpleDateFormatter);
 			}
 		}
 		// for the String can not be parsed, throws a BirtException
@@ -164,10 +154,11 @@ public class DateFormatISO8601 {
 	 * @param s
 	 * @return
 	 */
-	private static String cleanDate(String s) {
+	static String cleanDate(String s) {
 		s = s.trim();
-		if (s.indexOf('T') < 12) {
-			s = T_PATTERN.matcher(s).replaceFirst(" ");//$NON-NLS-1$
+		int tIndex = s.indexOf('T');
+		if (tIndex >= 0 && tIndex < 12) {
+			s = s.substring(0, tIndex) + ' ' + s.substring(tIndex + 1);
 		}
 
 		int zoneIndex = s.indexOf('Z');
@@ -178,6 +169,9 @@ public class DateFormatISO8601 {
 			return s.substring(0, zoneIndex).trim();
 		}
 
+		if (s.indexOf('.') < 0) {
+			return s;
+		}
 		Matcher m = TIME_PART_PATTERN.matcher(s);
 		if (m.find()) {
 			String timePart = m.group();
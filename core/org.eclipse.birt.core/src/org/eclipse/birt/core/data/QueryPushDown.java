@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The filters that a data engine asks a data source to apply to the rows of a
+ * query, instead of applying them after the rows are fetched. It is passed to
+ * an ODA driver as a query specification property or an application context
+ * entry under {@link #KEY}.
+ *
+ * A driver which does not know it ignores it. A driver which applies it to the
+ * prepared query calls {@link #setApplied(boolean)}, and only then may the
+ * caller skip the filters on its side.
+ */
+
+public class QueryPushDown {
+	/**
+	 * The name of a QueryPushDown in the properties of a query specification, or
+	 * its key in an application context.
+	 */
+	public static final String KEY = "org.eclipse.birt.core.data.QueryPushDown"; //$NON-NLS-1$
+
+	public static final int OP_EQ = 1;
+	public static final int OP_NE = 2;
+	public static final int OP_LT = 3;
+	public static final int OP_LE = 4;
+	public static final int OP_GT = 5;
+	public static final int OP_GE = 6;
+	public static final int OP_BETWEEN = 7;
+	public static final int OP_NOT_BETWEEN = 8;
+	public static final int OP_IN = 9;
+	public static final int OP_NOT_IN = 10;
+	public static final int OP_LIKE = 11;
+	public static final int OP_NULL = 12;
+	public static final int OP_NOT_NULL = 13;
+
+	private List<Filter> filters = new ArrayList<>();
+
+	private volatile boolean applied;
+
+	/**
+	 * Adds a filter on a column. All the filters must be true for a row to be
+	 * kept.
+	 *
+	 * @param column
+	 * @param operator one of the OP_ constants
+	 * @param values   the operands: none for OP_NULL and OP_NOT_NULL, two for
+	 *                 OP_BETWEEN and OP_NOT_BETWEEN, at least one for OP_IN and
+	 *                 OP_NOT_IN and one for the others
+	 * @return this
+	 */
+	public QueryPushDown addFilter(String column, int operator, Object... values) {
+		filters.add(new Filter(column, operator, values == null ? new Object[] { null } : values));
+		return this;
+	}
+
+	/**
+	 *
+	 * @return the filters, in the order they are added
+	 */
+	public List<Filter> getFilters() {
+		return Collections.unmodifiableList(filters);
+	}
+
+	/**
+	 *
+	 * @return whether there is nothing to apply
+	 */
+	public boolean isEmpty() {
+		return filters.isEmpty();
+	}
+
+	/**
+	 * Called by the data source when it prepares a query.
+	 *
+	 * @param applied whether all the filters are applied to the prepared query
+	 */
+	public void setApplied(boolean applied) {
+		this.applied = applied;
+	}
+
+	/**
+	 * Returns whether the data source applies all the filters to the prepared
+	 * query. If not, the rows are those of the query as is and the caller must
+	 * apply the filters itself.
+	 *
+	 * @return
+	 */
+	public boolean isApplied() {
+		return applied;
+	}
+
+	/**
+	 * A filter on a column.
+	 */
+	public static final class Filter {
+		private String column;
+		private int operator;
+		private Object[] values;
+
+		Filter(String column, int operator, Object[] values) {
+			this.column = column;
+			this.operator = operator;
+			this.values = values;
+		}
+
+		public String getColumn() {
+			return column;
+		}
+
+		/**
+		 *
+		 * @return one of the OP_ constants
+		 */
+		public int getOperator() {
+			return operator;
+		}
+
+		public Object[] getValues() {
+			return values.clone();
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.core.data;
+
+import java.math.BigDecimal;
+import java.text.ParsePosition;
+import java.util.Date;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.util.TimeZone;
+
+/**
+ * Converts the string values of one column, or of one data source, to dates
+ * and numbers the same way as DataTypeUtil does, without exceptions: a string
+ * which can not be converted gives null.
+ *
+ * The values of a column usually have one format, so the converter remembers
+ * the date format which parsed the last date and tries it first. The locale
+ * date formats are only reused for strings which they parse completely and
+ * which are not ISO8601 dates; the other strings go through the whole list of
+ * formats of DataTypeUtil again.
+ *
+ * A converter is not thread safe.
+ */
+
+public class StringValueConverter {
+	private TimeZone timeZone;
+
+	// the last date was an ISO8601 one
+	private boolean isISO8601;
+	// the locale date format which parsed the last date, in the time zone
+	private DateFormat dateFormat;
+
+	private NumberFormat numberFormat;
+
+	/**
+	 * Converts the dates as DataTypeUtil.toDate(Object) does.
+	 */
+	public StringValueConverter() {
+		this(null);
+	}
+
+	/**
+	 *
+	 * @param timeZone converts the dates as DataTypeUtil.toDate(String,
+	 *                 TimeZone) does, or as DataTypeUtil.toDate(Object) if it is
+	 *                 null
+	 */
+	public StringValueConverter(TimeZone timeZone) {
+		this.timeZone = timeZone;
+	}
+
+	/**
+	 * Converts a string to the data type, if it is a date or a number type.
+	 *
+	 * @param source
+	 * @param toType
+	 * @return the value, or null if the string can not be converted, is empty or
+	 *         the type is not supported
+	 */
+	public Object convert(String source, int toType) {
+		switch (toType) {
+		case DataType.DATE_TYPE:
+			return toDate(source);
+		case DataType.DOUBLE_TYPE:
+			return toDouble(source);
+		case DataType.DECIMAL_TYPE:
+			return toBigDecimal(source);
+		case DataType.INTEGER_TYPE:
+			return toInteger(source);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @return the date, or null if the string can not be parsed
+	 */
+	public Date toDate(String source) {
+		if (source == null) {
+			return null;
+		}
+		if (timeZone == null) {
+			source = source.trim();
+		}
+		if (isISO8601 || dateFormat != null) {
+			Date resultDate = DateFormatISO8601.parseDate(source, timeZone);
+			if (resultDate != null) {
+				isISO8601 = true;
+				dateFormat = null;
+				return resultDate;
+			}
+			if (dateFormat != null) {
+				ParsePosition position = new ParsePosition(0);
+				resultDate = dateFormat.parse(source, position);
+				if (resultDate != null && position.getIndex() == source.length()) {
+					return resultDate;
+				}
+			}
+		}
+
+		DateFormat[] winner = new DateFormat[1];
+		Date resultDate = DataTypeUtil.parseDate(source, timeZone, winner);
+		if (resultDate != null) {
+			isISO8601 = winner[0] == null;
+			dateFormat = winner[0];
+		}
+		return resultDate;
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @return the number, or null if the string is not a number
+	 */
+	public Double toDouble(String source) {
+		if (source == null) {
+			return null;
+		}
+		Double value = DataTypeUtil.parseDouble(source);
+		if (value != null) {
+			return value;
+		}
+		Number number = DataTypeUtil.parseNumber(source, getNumberFormat());
+		if (number == null || !DataTypeUtil.isConvertableToDouble(number)) {
+			return null;
+		}
+		return Double.valueOf(number.doubleValue());
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @return the number, or null if the string is empty or not a number
+	 */
+	public BigDecimal toBigDecimal(String source) {
+		if (source == null || source.length() == 0) {
+			return null;
+		}
+		BigDecimal value = DataTypeUtil.parseBigDecimal(source);
+		if (value != null) {
+			return value;
+		}
+		Number number = DataTypeUtil.parseNumber(source, getNumberFormat());
+		if (number == null) {
+			return null;
+		}
+		try {
+			return new BigDecimal(number.toString());
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * @param source
+	 * @return the number, or null if the string is not an integer
+	 */
+	public Integer toInteger(String source) {
+		if (source == null) {
+			return null;
+		}
+		Integer value = DataTypeUtil.parseInteger(source);
+		if (value != null) {
+			return value;
+		}
+		Number number = DataTypeUtil.parseNumber(source, getNumberFormat());
+		if (number == null || !DataTypeUtil.isConvertableToInteger(number)) {
+			return null;
+		}
+		return Integer.valueOf(number.intValue());
+	}
+
+	private NumberFormat getNumberFormat() {
+		if (numberFormat == null) {
+			numberFormat = NumberFormat.getInstance(DataTypeUtil.JRE_DEFAULT_LOCALE);
+		}
+		return numberFormat;
+	}
+}
@@ -20,6 +20,8 @@ import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.core.data.DateFormatFactory;
+
 import com.ibm.icu.text.SimpleDateFormat;
 import com.ibm.icu.util.TimeZone;
 import com.ibm.icu.util.ULocale;
@@ -173,7 +175,7 @@ public class DateFormatter implements IFormatter {
 	private SimpleDateFormat toPredefinedPattern(SimpleDateFormat dateformat, ULocale locale) {
 		if ("en".equals(locale.getLanguage())) { // predefine format for US_en: MMM d, y h:mm a
 			String PredefinePattern = dateformat.toPattern().replace("y,", "y");
-			return new SimpleDateFormat(PredefinePattern, locale);
+			return DateFormatFactory.acquirePatternInstance(PredefinePattern, locale, null);
 		}
 		return dateformat;
 	}
@@ -245,7 +247,7 @@ public class DateFormatter implements IFormatter {
 							locale);
 					return;
 				case 't':
-					dateTimeFormat = new SimpleDateFormat("HH:mm", locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance("HH:mm", locale, null);
 					return;
 				case 'f':
 					dateTimeFormat = com.ibm.icu.text.DateFormat.getDateTimeInstance(com.ibm.icu.text.DateFormat.LONG,
@@ -297,18 +299,18 @@ public class DateFormatter implements IFormatter {
 					return;
 				case 'M':
 				case 'm':
-					dateTimeFormat = new SimpleDateFormat("MM/dd", locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance("MM/dd", locale, null);
 					return;
 				case 'R':
 				case 'r':
-					dateTimeFormat = new SimpleDateFormat("yyyy.MM.dd HH:mm:ss a", locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance("yyyy.MM.dd HH:mm:ss a", locale, null);
 					dateTimeFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 					return;
 				case 's':
-					dateTimeFormat = new SimpleDateFormat("yyyy.MM.dd HH:mm:ss", locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance("yyyy.MM.dd HH:mm:ss", locale, null);
 					return;
 				case 'u':
-					dateTimeFormat = new SimpleDateFormat("yyyy.MM.dd HH:mm:ss  Z", locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance("yyyy.MM.dd HH:mm:ss  Z", locale, null);
 					return;
 				// TODO:the defination is not clear enough
 				/*
@@ -316,10 +318,10 @@ public class DateFormatter implements IFormatter {
 				 */
 				case 'Y':
 				case 'y':
-					dateTimeFormat = new SimpleDateFormat("yyyy/mm", locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance("yyyy/mm", locale, null);
 					return;
 				default:
-					dateTimeFormat = new SimpleDateFormat(formatString, locale);
+					dateTimeFormat = DateFormatFactory.acquirePatternInstance(formatString, locale, null);
 					return;
 				}
 			}
@@ -361,11 +363,11 @@ public class DateFormatter implements IFormatter {
 
 			}
 			if (formatString.equals("Short Time")) {
-				dateTimeFormat = new SimpleDateFormat("kk:mm", locale);
+				dateTimeFormat = DateFormatFactory.acquirePatternInstance("kk:mm", locale, null);
 				return;
 
 			}
-			dateTimeFormat = new SimpleDateFormat(formatString, locale);
+			dateTimeFormat = DateFormatFactory.acquirePatternInstance(formatString, locale, null);
 
 		} catch (Exception e) {
 			logger.log(Level.WARNING, e.getMessage(), e);
@@ -405,7 +407,7 @@ public class DateFormatter implements IFormatter {
 					pattern = strBuf.toString();
 				}
 			}
-			return new SimpleDateFormat(pattern, locale);
+			return DateFormatFactory.acquirePatternInstance(pattern, locale, null);
 		}
 		return factoryFormat;
 	}
@@ -424,7 +426,7 @@ public class DateFormatter implements IFormatter {
 					pattern = strBuf.toString();
 				}
 			}
-			return new SimpleDateFormat(pattern, locale);
+			return DateFormatFactory.acquirePatternInstance(pattern, locale, null);
 		}
 		return factoryFormat;
 	}
@@ -515,7 +517,7 @@ public class DateFormatter implements IFormatter {
 					locale);
 		}
 		if (formatPattern.equals("Short Time")) {
-			dateFormat = new SimpleDateFormat("kk:mm", locale);
+			dateFormat = DateFormatFactory.acquirePatternInstance("kk:mm", locale, null);
 		}
 		return dateFormat;
 	}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.text.Format;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of formats shared by all the threads. Formats are not thread
+ * safe, so the pool hands out a format to one thread at a time: a thread
+ * acquires a format for a key, which identifies the pattern or styles, the
+ * locale and the time zone of the format, uses it and releases it.
+ *
+ * The pool keeps one prototype per key, created once, for the most recently
+ * used keys. An acquired format is an idle format released for the same key,
+ * or a clone of the prototype. A format which is never released belongs to
+ * the thread which acquires it.
+ */
+
+public class FormatPool {
+	private static final int DEFAULT_MAX_KEYS = 256;
+	private static final int DEFAULT_MAX_IDLE = 16;
+
+	private int maxIdle;
+
+	// the entries by key, the least recently used first
+	private Map<String, Entry> entries;
+
+	/**
+	 *
+	 */
+	public FormatPool() {
+		this(DEFAULT_MAX_KEYS, DEFAULT_MAX_IDLE);
+	}
+
+	/**
+	 *
+	 * @param maxKeys the maximum number of keys whose formats are kept
+	 * @param maxIdle the maximum number of idle formats kept per key
+	 */
+	public FormatPool(final int maxKeys, int maxIdle) {
+		this.maxIdle = maxIdle;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxKeys;
+			}
+		};
+	}
+
+	/**
+	 * Acquires a format. The format should be released once it is used, in the
+	 * state it is acquired in, for example with the same time zone.
+	 *
+	 * @param key
+	 * @param factory creates the prototype of the key if there is none
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Format> T acquire(String key, Supplier<T> factory) {
+		Entry entry = getEntry(key);
+		if (entry == null) {
+			// created out of the lock, as creating a format may load locale data
+			Entry created = new Entry(factory.get());
+			synchronized (entries) {
+				entry = entries.get(key);
+				if (entry == null) {
+					entry = created;
+					entries.put(key, entry);
+				}
+			}
+		}
+		Format format = entry.poll();
+		return (T) (format != null ? format : entry.prototype.clone());
+	}
+
+	/**
+	 * Releases a format acquired for the key, so that it can be acquired again.
+	 *
+	 * @param key
+	 * @param format
+	 */
+	public void release(String key, Format format) {
+		Entry entry = getEntry(key);
+		// the key may have been dropped meanwhile
+		if (entry != null) {
+			entry.offer(format, maxIdle);
+		}
+	}
+
+	/**
+	 *
+	 * @return the number of keys whose formats are kept
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private Entry getEntry(String key) {
+		synchronized (entries) {
+			return entries.get(key);
+		}
+	}
+
+	/**
+	 * The prototype and the idle formats of a key.
+	 */
+	private static class Entry {
+		private Format prototype;
+		private ArrayDeque<Format> idle = new ArrayDeque<>();
+
+		Entry(Format prototype) {
+			this.prototype = prototype;
+		}
+
+		synchronized Format poll() {
+			return idle.pollLast();
+		}
+
+		synchronized void offer(Format format, int maxIdle) {
+			if (idle.size() < maxIdle) {
+				idle.addLast(format);
+			}
+		}
+	}
+}
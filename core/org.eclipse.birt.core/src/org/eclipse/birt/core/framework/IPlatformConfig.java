@@ -43,4 +43,12 @@ public interface IPlatformConfig {
 	 */
 	String TEMP_DIR = "tmpDir"; //$NON-NLS-1$
 
+	/**
+	 * defines the file of the bundle index of the jar based platform, which is
+	 * written at the first startup and used by the next ones instead of parsing
+	 * the plugin.xml of the bundles which did not change. The value is a string
+	 * object, and can also be given as a system property of the same name.
+	 */
+	String REGISTRY_INDEX = "birt.registry.index"; //$NON-NLS-1$
+
 }
@@ -31,6 +31,10 @@ public class Extension implements IExtension {
 
 	protected ConfigurationElement[] configuration;
 
+	// the configuration saved in the registry index, parsed when it is first
+	// asked for
+	byte[] indexedConfiguration;
+
 	Extension(Bundle bundle, String id) {
 		this.bundle = bundle;
 		int dotAt = id.lastIndexOf('.');
@@ -47,7 +51,11 @@ public class Extension implements IExtension {
 	}
 
 	@Override
-	public IConfigurationElement[] getConfigurationElements() {
+	public synchronized IConfigurationElement[] getConfigurationElements() {
+		if (configuration == null && indexedConfiguration != null) {
+			configuration = RegistryIndex.readConfiguration(this, indexedConfiguration);
+			indexedConfiguration = null;
+		}
 		return configuration;
 	}
 
@@ -33,15 +33,31 @@ public class ExtensionRegistry implements IExtensionRegistry {
 	protected HashMap<String, Bundle> bundles = new HashMap<>();
 	protected HashMap<String, ExtensionPoint> extensionPoints = new HashMap<>();
 	protected HashMap<String, Extension> extensions = new HashMap<>();
+	// the extensions of the installed bundles by extension point id
+	protected HashMap<String, ArrayList<Extension>> pointExtensions = new HashMap<>();
 
 	ExtensionRegistry() {
 	}
 
 	public void addBundle(Bundle bundle) {
-		this.bundles.put(bundle.getSymbolicName(), bundle);
+		Bundle oldBundle = this.bundles.put(bundle.getSymbolicName(), bundle);
+		if (oldBundle != null) {
+			for (Extension extension : oldBundle.getExtensions()) {
+				ArrayList<Extension> list = pointExtensions.get(extension.getExtensionPointUniqueIdentifier());
+				if (list != null) {
+					list.remove(extension);
+				}
+			}
+		}
 		Extension[] extensions = bundle.getExtensions();
 		for (Extension extension : extensions) {
 			this.extensions.put(extension.getUniqueIdentifier(), extension);
+			ArrayList<Extension> list = pointExtensions.get(extension.getExtensionPointUniqueIdentifier());
+			if (list == null) {
+				list = new ArrayList<>();
+				pointExtensions.put(extension.getExtensionPointUniqueIdentifier(), list);
+			}
+			list.add(extension);
 		}
 		ExtensionPoint[] points = bundle.getExtensionPoints();
 		for (ExtensionPoint point : points) {
@@ -76,15 +92,9 @@ public class ExtensionRegistry implements IExtensionRegistry {
 
 	@Override
 	public IExtension[] getExtensions(String extensionPointId) {
-		ArrayList<IExtension> extensions = new ArrayList<>();
-		for (Bundle bundle : bundles.values()) {
-			Extension[] bundleExtensions = bundle.getExtensions();
-			for (Extension extension : bundleExtensions) {
-				String extPointId = extension.getExtensionPointUniqueIdentifier();
-				if (extPointId.equals(extensionPointId)) {
-					extensions.add(extension);
-				}
-			}
+		ArrayList<Extension> extensions = pointExtensions.get(extensionPointId);
+		if (extensions == null) {
+			return new IExtension[0];
 		}
 		return extensions.toArray(new IExtension[extensions.size()]);
 	}
@@ -0,0 +1,440 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.core.framework.jar;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Index of the bundles installed by the ServicePlatform, saved in a file
+ * between two startups. The index keeps, for every bundle root, the
+ * modification time and length of the jar (or of the manifest, plugin.xml and
+ * plugin.properties of a bundle folder), the bundle name and version, its
+ * extension points, its extensions and their configuration. A bundle whose
+ * files did not change is installed from the index without opening the jar,
+ * and the configuration of its extensions is only parsed when it is asked for.
+ * The other bundles are loaded by the BundleLoader, and the index is written
+ * again once all the bundles are installed.
+ * <p>
+ * Bundles which are not in a local jar or folder are never indexed.
+ */
+
+class RegistryIndex {
+
+	private static final Logger logger = Logger.getLogger(RegistryIndex.class.getName());
+
+	private static final int MAGIC = 0x42524958;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private File file;
+
+	/**
+	 * The bundles of the index file, by root.
+	 */
+	private Map<String, Entry> entries = new HashMap<>();
+
+	/**
+	 * The bundles installed since the index was loaded.
+	 */
+	private List<Entry> installedEntries = new ArrayList<>();
+
+	private boolean modified;
+
+	RegistryIndex(File file) {
+		this.file = file;
+		try {
+			load();
+		} catch (IOException ex) {
+			logger.log(Level.FINE, "Ignore the registry index " + file, ex);
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Installs a bundle from the index, or loads it from its root if it is not in
+	 * the index or if it changed.
+	 *
+	 * @param platform the platform
+	 * @param root     the root of the bundle
+	 * @return the bundle, or null if the root is not a bundle
+	 */
+	Bundle install(ServicePlatform platform, URL root) throws IOException, ParserConfigurationException, SAXException {
+		String key = root.toExternalForm();
+		long[] stamp = getStamp(root);
+		Entry entry = entries.get(key);
+		if (entry != null && stamp != null && entry.lastModified == stamp[0] && entry.length == stamp[1]) {
+			installedEntries.add(entry);
+			return entry.createBundle(platform, root);
+		}
+
+		modified = true;
+		Bundle bundle = new BundleLoader(platform, root).load();
+		if (stamp != null) {
+			installedEntries.add(new Entry(key, stamp, bundle));
+		}
+		return bundle;
+	}
+
+	/**
+	 * Writes the index file, if some bundles were loaded or removed since it was
+	 * read.
+	 */
+	void save() {
+		if (!modified && installedEntries.size() == entries.size()) {
+			return;
+		}
+		try {
+			write();
+		} catch (IOException ex) {
+			logger.log(Level.WARNING, "Failed to write the registry index " + file, ex);
+		}
+	}
+
+	/**
+	 * Returns the modification time and length of the files of a bundle.
+	 *
+	 * @param root the root of the bundle
+	 * @return the stamp, or null if the bundle is not in a local jar or folder
+	 */
+	static long[] getStamp(URL root) {
+		try {
+			if ("jar".equals(root.getProtocol())) {
+				String path = root.getPath();
+				int separator = path.indexOf("!/");
+				if (separator == -1) {
+					return null;
+				}
+				URL jarUrl = new URL(path.substring(0, separator));
+				if (!"file".equals(jarUrl.getProtocol())) {
+					return null;
+				}
+				File jar = new File(jarUrl.toURI());
+				if (!jar.isFile()) {
+					return null;
+				}
+				return new long[] { jar.lastModified(), jar.length() };
+			}
+			if ("file".equals(root.getProtocol())) {
+				File folder = new File(root.toURI());
+				if (!folder.isDirectory()) {
+					return null;
+				}
+				long lastModified = 0;
+				long length = 0;
+				for (String name : new String[] { BundleLoader.MANIFEST_ENTRY, BundleLoader.PLUGIN_ENTRY,
+						BundleLoader.PROPERTIES_ENTRY }) {
+					File entry = new File(folder, name);
+					lastModified = Math.max(lastModified, entry.lastModified());
+					length = length * 31 + entry.length();
+				}
+				return new long[] { lastModified, length };
+			}
+		} catch (IOException | URISyntaxException | IllegalArgumentException ex) {
+			// not a local file
+		}
+		return null;
+	}
+
+	private void load() throws IOException {
+		if (!file.isFile()) {
+			return;
+		}
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		if (bytes.length < 16) {
+			throw new EOFException();
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 8);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		in.skipBytes(bytes.length - 8);
+		if (in.readLong() != crc.getValue()) {
+			throw new IOException("Invalid checksum");
+		}
+
+		in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 8));
+		if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unsupported format");
+		}
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			Entry entry = new Entry(in);
+			entries.put(entry.key, entry);
+		}
+	}
+
+	private void write() throws IOException {
+		File folder = file.getAbsoluteFile().getParentFile();
+		if (folder != null && !folder.exists()) {
+			folder.mkdirs();
+		}
+		File tmpFile = File.createTempFile(file.getName(), ".tmp", folder);
+		try {
+			CRC32 crc = new CRC32();
+			try (DataOutputStream out = new DataOutputStream(
+					new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)), crc))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(installedEntries.size());
+				for (Entry entry : installedEntries) {
+					entry.write(out);
+				}
+				out.writeLong(crc.getValue());
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tmpFile.delete();
+		}
+	}
+
+	/**
+	 * Parses the configuration of an extension saved in the index.
+	 *
+	 * @param extension the extension
+	 * @param data      the saved configuration
+	 * @return the configuration elements of the extension
+	 */
+	static ConfigurationElement[] readConfiguration(Extension extension, byte[] data) {
+		try {
+			return readConfigurations(extension, new DataInputStream(new ByteArrayInputStream(data)));
+		} catch (IOException ex) {
+			// the index was checked when it was read
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static ConfigurationElement[] readConfigurations(Object parent, DataInputStream in) throws IOException {
+		ConfigurationElement[] configs = new ConfigurationElement[in.readInt()];
+		for (int i = 0; i < configs.length; i++) {
+			ConfigurationElement config = new ConfigurationElement();
+			config.parent = parent;
+			config.name = readString(in);
+			int attrCount = in.readInt();
+			config.attributes = new HashMap<>();
+			for (int j = 0; j < attrCount; j++) {
+				String name = readString(in);
+				config.attributes.put(name, readString(in));
+			}
+			config.children = readConfigurations(config, in);
+			configs[i] = config;
+		}
+		return configs;
+	}
+
+	private static void writeConfigurations(ConfigurationElement[] configs, DataOutputStream out) throws IOException {
+		if (configs == null) {
+			out.writeInt(0);
+			return;
+		}
+		out.writeInt(configs.length);
+		for (ConfigurationElement config : configs) {
+			writeString(out, config.name);
+			out.writeInt(config.attributes.size());
+			for (Map.Entry<String, String> attr : config.attributes.entrySet()) {
+				writeString(out, attr.getKey());
+				writeString(out, attr.getValue());
+			}
+			writeConfigurations(config.children, out);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length == -1) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * A bundle of the index.
+	 */
+	private static class Entry {
+
+		String key;
+		long lastModified;
+		long length;
+
+		// null if the root is not a bundle
+		String symbolicName;
+		String version;
+
+		// the id and schema of the extension points
+		String[] pointIds;
+		String[] pointSchemas;
+
+		// the id, label, extension point and saved configuration of the
+		// extensions
+		String[] extensionIds;
+		String[] extensionLabels;
+		String[] extensionPointIds;
+		byte[][] configurations;
+
+		Entry(String key, long[] stamp, Bundle bundle) throws IOException {
+			this.key = key;
+			this.lastModified = stamp[0];
+			this.length = stamp[1];
+			if (bundle == null) {
+				return;
+			}
+			symbolicName = bundle.getSymbolicName();
+			version = bundle.version;
+
+			ExtensionPoint[] points = bundle.getExtensionPoints();
+			pointIds = new String[points.length];
+			pointSchemas = new String[points.length];
+			for (int i = 0; i < points.length; i++) {
+				// the id as declared, which gives the same identifiers
+				pointIds[i] = points[i].uniqueId != null ? points[i].uniqueId : points[i].name;
+				pointSchemas[i] = points[i].schema;
+			}
+
+			Extension[] extensions = bundle.getExtensions();
+			extensionIds = new String[extensions.length];
+			extensionLabels = new String[extensions.length];
+			extensionPointIds = new String[extensions.length];
+			configurations = new byte[extensions.length][];
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			for (int i = 0; i < extensions.length; i++) {
+				extensionIds[i] = extensions[i].namespace != null ? extensions[i].name : extensions[i].uniqueId;
+				extensionLabels[i] = extensions[i].label;
+				extensionPointIds[i] = extensions[i].extensionPointId;
+				buffer.reset();
+				DataOutputStream out = new DataOutputStream(buffer);
+				writeConfigurations(extensions[i].configuration, out);
+				out.flush();
+				configurations[i] = buffer.toByteArray();
+			}
+		}
+
+		Entry(DataInputStream in) throws IOException {
+			key = readString(in);
+			lastModified = in.readLong();
+			length = in.readLong();
+			symbolicName = readString(in);
+			if (symbolicName == null) {
+				return;
+			}
+			version = readString(in);
+
+			int pointCount = in.readInt();
+			pointIds = new String[pointCount];
+			pointSchemas = new String[pointCount];
+			for (int i = 0; i < pointCount; i++) {
+				pointIds[i] = readString(in);
+				pointSchemas[i] = readString(in);
+			}
+
+			int extensionCount = in.readInt();
+			extensionIds = new String[extensionCount];
+			extensionLabels = new String[extensionCount];
+			extensionPointIds = new String[extensionCount];
+			configurations = new byte[extensionCount][];
+			for (int i = 0; i < extensionCount; i++) {
+				extensionIds[i] = readString(in);
+				extensionLabels[i] = readString(in);
+				extensionPointIds[i] = readString(in);
+				configurations[i] = new byte[in.readInt()];
+				in.readFully(configurations[i]);
+			}
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			writeString(out, key);
+			out.writeLong(lastModified);
+			out.writeLong(length);
+			writeString(out, symbolicName);
+			if (symbolicName == null) {
+				return;
+			}
+			writeString(out, version);
+
+			out.writeInt(pointIds.length);
+			for (int i = 0; i < pointIds.length; i++) {
+				writeString(out, pointIds[i]);
+				writeString(out, pointSchemas[i]);
+			}
+
+			out.writeInt(extensionIds.length);
+			for (int i = 0; i < extensionIds.length; i++) {
+				writeString(out, extensionIds[i]);
+				writeString(out, extensionLabels[i]);
+				writeString(out, extensionPointIds[i]);
+				out.writeInt(configurations[i].length);
+				out.write(configurations[i]);
+			}
+		}
+
+		Bundle createBundle(ServicePlatform platform, URL root) {
+			if (symbolicName == null) {
+				return null;
+			}
+			Bundle bundle = new Bundle(platform, root, symbolicName);
+			bundle.version = version;
+
+			bundle.extensionPoints = new ExtensionPoint[pointIds.length];
+			for (int i = 0; i < pointIds.length; i++) {
+				ExtensionPoint point = new ExtensionPoint(bundle, pointIds[i]);
+				point.schema = pointSchemas[i];
+				bundle.extensionPoints[i] = point;
+			}
+
+			bundle.extensions = new Extension[extensionIds.length];
+			for (int i = 0; i < extensionIds.length; i++) {
+				Extension extension = new Extension(bundle, extensionIds[i]);
+				extension.label = extensionLabels[i];
+				extension.extensionPointId = extensionPointIds[i];
+				extension.indexedConfiguration = configurations[i];
+				bundle.extensions[i] = extension;
+			}
+			return bundle;
+		}
+	}
+}
@@ -29,6 +29,7 @@ import org.eclipse.birt.core.framework.IBundle;
 import org.eclipse.birt.core.framework.IExtensionPoint;
 import org.eclipse.birt.core.framework.IExtensionRegistry;
 import org.eclipse.birt.core.framework.IPlatform;
+import org.eclipse.birt.core.framework.IPlatformConfig;
 import org.eclipse.birt.core.framework.IPlatformPath;
 import org.eclipse.birt.core.framework.PlatformConfig;
 import org.eclipse.birt.core.framework.eclipse.EclipseExtensionRegistry;
@@ -46,13 +47,28 @@ public class ServicePlatform implements IPlatform {
 	protected HashMap<String, Bundle> bundles = new HashMap<>();
 	protected ExtensionRegistry extensionRegistry = new ExtensionRegistry();
 	protected File workspace;
-
-	ServicePlatform(PlatformConfig config) {
+	protected RegistryIndex registryIndex;
+
+	/**
+	 * Instantiates a platform, which has the bundles given to installBundle once
+	 * it is started up.
+	 *
+	 * @param config the platform configuration
+	 */
+	public ServicePlatform(PlatformConfig config) {
 		this.config = config;
+		String indexFile = (String) config.getProperty(IPlatformConfig.REGISTRY_INDEX);
+		if (indexFile == null) {
+			indexFile = System.getProperty(IPlatformConfig.REGISTRY_INDEX);
+		}
+		if (indexFile != null && indexFile.length() > 0) {
+			registryIndex = new RegistryIndex(new File(indexFile));
+		}
 	}
 
 	public void installBundle(URL root) throws IOException, ParserConfigurationException, SAXException {
-		Bundle bundle = new BundleLoader(this, root).load();
+		Bundle bundle = registryIndex != null ? registryIndex.install(this, root)
+				: new BundleLoader(this, root).load();
 		if (bundle != null) {
 			bundles.put(bundle.getSymbolicName(), bundle);
 			extensionRegistry.addBundle(bundle);
@@ -166,6 +182,12 @@ public class ServicePlatform implements IPlatform {
 	}
 
 	public void startup() {
+		// all the bundles are installed
+		if (registryIndex != null) {
+			registryIndex.save();
+			registryIndex = null;
+		}
+
 		String tempDir = config.getTempDir();
 		UUID uuid = UUID.randomUUID();
 		String workPath = "workspace_" + uuid.toString();
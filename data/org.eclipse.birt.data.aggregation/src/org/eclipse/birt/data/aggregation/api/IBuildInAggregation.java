@@ -51,5 +51,8 @@ public interface IBuildInAggregation {
 	String TOTAL_RUNNINGCOUNT_FUNC = "RUNNINGCOUNT";//$NON-NLS-1$
 	String TOTAL_CONCATENATE_FUNC = "CONCATENATE";//$NON-NLS-1$
 	String TOTAL_RANGE_FUNC = "RANGE";//$NON-NLS-1$
+	String TOTAL_APPROX_COUNTDISTINCT_FUNC = "APPROXCOUNTDISTINCT";//$NON-NLS-1$
+	String TOTAL_APPROX_PERCENTILE_FUNC = "APPROXPERCENTILE";//$NON-NLS-1$
+	String TOTAL_APPROX_MEDIAN_FUNC = "APPROXMEDIAN";//$NON-NLS-1$
 
 }
@@ -34,5 +34,6 @@ public class ResourceConstants {
 	public final static String INVALID_QUARTILE_ARGUMENT = "aggregation.InvalidQuartileArgument";//$NON-NLS-1$
 	public final static String ILLEGAL_PARAMETER_FUN = "aggregation.BadAggrFuncParam";//$NON-NLS-1$
 	public final static String RESET_RATE = "aggregation.ResetRateGuess";//$NON-NLS-1$
+	public final static String INVALID_SKETCH = "aggregation.InvalidSketch";//$NON-NLS-1$
 
 }
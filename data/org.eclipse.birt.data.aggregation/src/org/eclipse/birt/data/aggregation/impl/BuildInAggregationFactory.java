@@ -20,6 +20,9 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.impl.approx.TotalApproxCountDistinct;
+import org.eclipse.birt.data.aggregation.impl.approx.TotalApproxMedian;
+import org.eclipse.birt.data.aggregation.impl.approx.TotalApproxPercentile;
 import org.eclipse.birt.data.aggregation.impl.rank.TotalIsBottomN;
 import org.eclipse.birt.data.aggregation.impl.rank.TotalIsBottomNPercent;
 import org.eclipse.birt.data.aggregation.impl.rank.TotalIsTopN;
@@ -139,6 +142,16 @@ public class BuildInAggregationFactory implements IAggregationFactory {
 		final TotalRange totalRange = new TotalRange();
 		aggrMap.put(IBuildInAggregation.TOTAL_RANGE_FUNC, totalRange);
 		aggregations.add(totalRange);
+
+		final TotalApproxCountDistinct totalApproxCountDistinct = new TotalApproxCountDistinct();
+		aggrMap.put(IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC, totalApproxCountDistinct);
+		aggregations.add(totalApproxCountDistinct);
+		final TotalApproxPercentile totalApproxPercentile = new TotalApproxPercentile();
+		aggrMap.put(IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC, totalApproxPercentile);
+		aggregations.add(totalApproxPercentile);
+		final TotalApproxMedian totalApproxMedian = new TotalApproxMedian();
+		aggrMap.put(IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC, totalApproxMedian);
+		aggregations.add(totalApproxMedian);
 	}
 
 	/**
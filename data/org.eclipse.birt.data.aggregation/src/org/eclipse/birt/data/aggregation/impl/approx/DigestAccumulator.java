@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.aggregation.impl.approx;
+
+import java.io.IOException;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.aggregation.impl.AggrException;
+import org.eclipse.birt.data.aggregation.impl.SummaryAccumulator;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Accumulator that is used by the approximate percentile and median. The values
+ * are summarized by a t-digest, so the memory taken does not grow with the
+ * number of rows.
+ */
+abstract class DigestAccumulator extends SummaryAccumulator implements ISketchAccumulator {
+
+	private TDigest digest;
+	private double pct;
+
+	DigestAccumulator() {
+		super(CalculatorFactory.getCalculator(DataType.DOUBLE_TYPE));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.aggregation.impl.SummaryAccumulator#start()
+	 */
+	@Override
+	public void start() {
+		super.start();
+		digest = new TDigest();
+		pct = -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.Accumulator#onRow(java.lang.
+	 * Object[])
+	 */
+	@Override
+	public void onRow(Object[] args) throws DataException {
+		assert (args.length > 0);
+		if (args[0] != null) {
+			Object value = calculator.getTypedObject(args[0]);
+			if (value instanceof Number) {
+				digest.add(((Number) value).doubleValue());
+			}
+		}
+		if (pct == -1) {
+			pct = getPctValue(args);
+		}
+	}
+
+	/**
+	 *
+	 * @param args
+	 * @return the percentile to estimate, between 0 and 1
+	 * @throws DataException
+	 */
+	protected abstract double getPctValue(Object[] args) throws DataException;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.aggregation.impl.SummaryAccumulator#getSummaryValue()
+	 */
+	@Override
+	public Object getSummaryValue() throws DataException {
+		if (digest.size() == 0) {
+			return null;
+		}
+		return Double.valueOf(digest.quantile(pct));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator#getSketch()
+	 */
+	@Override
+	public byte[] getSketch() throws DataException {
+		try {
+			return digest.toBytes();
+		} catch (IOException e) {
+			throw DataException.wrap(new AggrException(ResourceConstants.INVALID_SKETCH, e));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator#mergeSketch(
+	 * java.lang.Object[])
+	 */
+	@Override
+	public boolean mergeSketch(Object[] args) throws DataException {
+		assert (args.length > 0);
+		if (!(args[0] instanceof byte[]) || !TDigest.isSketch((byte[]) args[0])) {
+			return false;
+		}
+		try {
+			digest.merge(TDigest.fromBytes((byte[]) args[0]));
+		} catch (IOException | IllegalArgumentException e) {
+			throw DataException.wrap(new AggrException(ResourceConstants.INVALID_SKETCH, e));
+		}
+		if (pct == -1) {
+			pct = getPctValue(args);
+		}
+		return true;
+	}
+}
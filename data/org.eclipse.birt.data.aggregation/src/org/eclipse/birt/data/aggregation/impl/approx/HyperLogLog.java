@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.aggregation.impl.approx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * A HyperLogLog sketch which estimates the number of distinct values it has
+ * seen. With the default precision of 14 the sketch takes at most 16 KB and the
+ * standard error of the estimate is about 0.8%. Small sets are kept in a sparse
+ * list of registers, so a sketch of a few distinct values only takes a few
+ * bytes. Two sketches of the same precision can be merged into the sketch of
+ * the union of their values.
+ */
+
+public class HyperLogLog {
+	public static final int DEFAULT_PRECISION = 14;
+
+	// the first byte of a serialized sketch
+	private static final byte SKETCH_TYPE = 'H';
+
+	private static final int SPARSE_BUFFER_SIZE = 64;
+
+	private int precision;
+	private int registerCount;
+
+	// dense registers, null in sparse mode
+	private byte[] registers;
+
+	// sparse mode: sorted (index << 8 | rank) entries with one entry per index,
+	// and the unsorted entries which have not been merged yet
+	private int[] sparse;
+	private int sparseSize;
+	private int[] buffer;
+	private int bufferSize;
+
+	/**
+	 *
+	 */
+	public HyperLogLog() {
+		this(DEFAULT_PRECISION);
+	}
+
+	/**
+	 *
+	 * @param precision the number of hash bits which select a register, between 4
+	 *                  and 18
+	 */
+	public HyperLogLog(int precision) {
+		if (precision < 4 || precision > 18) {
+			throw new IllegalArgumentException("precision: " + precision); //$NON-NLS-1$
+		}
+		this.precision = precision;
+		this.registerCount = 1 << precision;
+		this.sparse = new int[0];
+		this.buffer = new int[SPARSE_BUFFER_SIZE];
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public int getPrecision() {
+		return precision;
+	}
+
+	/**
+	 * Adds a value. Values which are equal, and of the same class, are counted
+	 * once, and null is counted as one value.
+	 *
+	 * @param value
+	 */
+	public void add(Object value) {
+		addHash(hash(value));
+	}
+
+	/**
+	 * Adds the 64 bit hash of a value.
+	 *
+	 * @param hash
+	 */
+	public void addHash(long hash) {
+		int index = (int) (hash >>> (64 - precision));
+		// the rank is the position of the first 1 bit after the index bits
+		long rest = (hash << precision) | (1L << (precision - 1));
+		int rank = Long.numberOfLeadingZeros(rest) + 1;
+		if (registers != null) {
+			if (registers[index] < rank) {
+				registers[index] = (byte) rank;
+			}
+			return;
+		}
+		buffer[bufferSize++] = index << 8 | rank;
+		if (bufferSize == buffer.length) {
+			mergeBuffer();
+		}
+	}
+
+	/**
+	 * Merges the values of another sketch of the same precision into this one.
+	 *
+	 * @param other
+	 */
+	public void merge(HyperLogLog other) {
+		if (other.precision != precision) {
+			throw new IllegalArgumentException("precision: " + other.precision); //$NON-NLS-1$
+		}
+		other.mergeBuffer();
+		if (other.registers == null) {
+			for (int i = 0; i < other.sparseSize; i++) {
+				int entry = other.sparse[i];
+				if (registers != null) {
+					if (registers[entry >>> 8] < (entry & 0xFF)) {
+						registers[entry >>> 8] = (byte) (entry & 0xFF);
+					}
+				} else {
+					buffer[bufferSize++] = entry;
+					if (bufferSize == buffer.length) {
+						mergeBuffer();
+					}
+				}
+			}
+			return;
+		}
+		toDense();
+		for (int i = 0; i < registerCount; i++) {
+			if (registers[i] < other.registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * Estimates the cardinality from the histogram of the register values with
+	 * the improved estimator of Ertl, "New cardinality estimation algorithms for
+	 * HyperLogLog sketches", which needs neither a switch to linear counting for
+	 * small cardinalities nor empirical bias corrections.
+	 *
+	 * @return the estimated number of distinct values
+	 */
+	public long cardinality() {
+		mergeBuffer();
+		int maxRank = 65 - precision;
+		int[] histogram = new int[maxRank + 1];
+		if (registers != null) {
+			for (int i = 0; i < registerCount; i++) {
+				histogram[registers[i]]++;
+			}
+		} else {
+			histogram[0] = registerCount - sparseSize;
+			for (int i = 0; i < sparseSize; i++) {
+				histogram[sparse[i] & 0xFF]++;
+			}
+		}
+		double z = registerCount * tau(1 - (double) histogram[maxRank] / registerCount);
+		for (int k = maxRank - 1; k >= 1; k--) {
+			z = 0.5 * (z + histogram[k]);
+		}
+		z += registerCount * sigma((double) histogram[0] / registerCount);
+		return Math.round(registerCount / (2 * Math.log(2)) * registerCount / z);
+	}
+
+	private static double sigma(double x) {
+		if (x == 1) {
+			return Double.POSITIVE_INFINITY;
+		}
+		double y = 1;
+		double z = x;
+		double last;
+		do {
+			x *= x;
+			last = z;
+			z += x * y;
+			y += y;
+		} while (z != last);
+		return z;
+	}
+
+	private static double tau(double x) {
+		if (x == 0 || x == 1) {
+			return 0;
+		}
+		double y = 1;
+		double z = 1 - x;
+		double last;
+		do {
+			x = Math.sqrt(x);
+			last = z;
+			y *= 0.5;
+			z -= (1 - x) * (1 - x) * y;
+		} while (z != last);
+		return z / 3;
+	}
+
+	/**
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public byte[] toBytes() throws IOException {
+		mergeBuffer();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeByte(SKETCH_TYPE);
+		output.writeByte(precision);
+		if (registers != null) {
+			output.writeBoolean(true);
+			output.write(registers);
+		} else {
+			output.writeBoolean(false);
+			output.writeInt(sparseSize);
+			for (int i = 0; i < sparseSize; i++) {
+				output.writeInt(sparse[i]);
+			}
+		}
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 *
+	 * @param bytes
+	 * @return
+	 * @throws IOException
+	 */
+	public static HyperLogLog fromBytes(byte[] bytes) throws IOException {
+		if (!isSketch(bytes)) {
+			throw new IOException("Not a HyperLogLog sketch"); //$NON-NLS-1$
+		}
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+		HyperLogLog result = new HyperLogLog(input.readByte());
+		if (input.readBoolean()) {
+			result.registers = new byte[result.registerCount];
+			input.readFully(result.registers);
+			result.sparse = null;
+			result.buffer = null;
+		} else {
+			result.sparseSize = input.readInt();
+			result.sparse = new int[result.sparseSize];
+			for (int i = 0; i < result.sparseSize; i++) {
+				result.sparse[i] = input.readInt();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param bytes
+	 * @return whether the bytes are a sketch written by toBytes()
+	 */
+	public static boolean isSketch(byte[] bytes) {
+		return bytes != null && bytes.length > 0 && bytes[0] == SKETCH_TYPE;
+	}
+
+	/**
+	 * Returns a 64 bit hash of the value, so that equal values of the same class
+	 * have the same hash.
+	 *
+	 * @param value
+	 * @return
+	 */
+	static long hash(Object value) {
+		if (value == null) {
+			return mix(0x9E3779B97F4A7C15L);
+		}
+		long bits;
+		if (value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte) {
+			bits = ((Number) value).longValue();
+		} else if (value instanceof Double || value instanceof Float) {
+			bits = Double.doubleToLongBits(((Number) value).doubleValue());
+		} else if (value instanceof Date) {
+			bits = ((Date) value).getTime();
+		} else if (value instanceof String) {
+			bits = hash((String) value);
+		} else if (value instanceof BigDecimal) {
+			bits = hash(value.toString());
+		} else {
+			bits = value.hashCode();
+		}
+		return mix(bits + value.getClass().getName().hashCode() * 0x9E3779B97F4A7C15L);
+	}
+
+	private static long hash(String value) {
+		// FNV-1a over the characters
+		long hash = 0xCBF29CE484222325L;
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x100000001B3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * The finalization step of MurmurHash3, which spreads every input bit over
+	 * the whole hash.
+	 */
+	private static long mix(long k) {
+		k ^= k >>> 33;
+		k *= 0xFF51AFD7ED558CCDL;
+		k ^= k >>> 33;
+		k *= 0xC4CEB9FE1A85EC53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	/**
+	 * Merges the buffered entries into the sorted sparse list, and switches to
+	 * dense registers when the list takes more memory than they do.
+	 */
+	private void mergeBuffer() {
+		if (registers != null || bufferSize == 0) {
+			return;
+		}
+		Arrays.sort(buffer, 0, bufferSize);
+		int[] merged = new int[sparseSize + bufferSize];
+		int size = 0;
+		int i = 0, j = 0;
+		while (i < sparseSize || j < bufferSize) {
+			int entry;
+			if (j >= bufferSize || (i < sparseSize && sparse[i] < buffer[j])) {
+				entry = sparse[i++];
+			} else {
+				entry = buffer[j++];
+			}
+			// entries of the same index are sorted by rank, keep the last one
+			if (size > 0 && merged[size - 1] >>> 8 == entry >>> 8) {
+				merged[size - 1] = entry;
+			} else {
+				merged[size++] = entry;
+			}
+		}
+		sparse = merged;
+		sparseSize = size;
+		bufferSize = 0;
+		if (sparseSize * 4 > registerCount) {
+			toDense();
+		}
+	}
+
+	private void toDense() {
+		if (registers != null) {
+			return;
+		}
+		mergeBuffer();
+		if (registers != null) {
+			return;
+		}
+		registers = new byte[registerCount];
+		for (int i = 0; i < sparseSize; i++) {
+			registers[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+		}
+		sparse = null;
+		buffer = null;
+		sparseSize = 0;
+	}
+}
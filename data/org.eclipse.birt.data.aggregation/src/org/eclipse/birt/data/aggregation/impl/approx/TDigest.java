@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.aggregation.impl.approx;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A merging t-digest which estimates the quantiles of the values it has seen.
+ * The values are summarized by centroids, a mean and a weight each, whose
+ * weights are bounded by the scale function k(q) = compression / (2 * PI) *
+ * asin(2q - 1), so that the centroids near the tails are small and the
+ * estimates of extreme quantiles are accurate. The digest keeps at most about
+ * compression centroids and a buffer of new values.
+ *
+ * The quantiles are interpolated between the centroids the same way the exact
+ * Total.Percentile interpolates between the sorted values, so a digest of a
+ * few values, which keeps one centroid per value, returns the exact result.
+ */
+
+public class TDigest {
+	public static final double DEFAULT_COMPRESSION = 100;
+
+	// the first byte of a serialized digest
+	private static final byte SKETCH_TYPE = 'T';
+
+	private double compression;
+
+	// the centroids, sorted by their means
+	private double[] means;
+	private double[] weights;
+	private int centroidCount;
+
+	// the values which have not been merged into the centroids yet
+	private double[] bufferMeans;
+	private double[] bufferWeights;
+	private int bufferSize;
+	private int maxBufferSize;
+
+	private double totalWeight;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/**
+	 *
+	 */
+	public TDigest() {
+		this(DEFAULT_COMPRESSION);
+	}
+
+	/**
+	 *
+	 * @param compression the bigger the compression, the more centroids are kept
+	 *                    and the more accurate the estimates are
+	 */
+	public TDigest(double compression) {
+		if (!(compression >= 10)) {
+			throw new IllegalArgumentException("compression: " + compression); //$NON-NLS-1$
+		}
+		this.compression = compression;
+		this.means = new double[0];
+		this.weights = new double[0];
+		this.bufferMeans = new double[16];
+		this.bufferWeights = new double[16];
+		this.maxBufferSize = (int) (5 * compression);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public double getCompression() {
+		return compression;
+	}
+
+	/**
+	 *
+	 * @return the number of values in the digest
+	 */
+	public long size() {
+		return Math.round(totalWeight);
+	}
+
+	/**
+	 * Adds a value. NaN is ignored.
+	 *
+	 * @param value
+	 */
+	public void add(double value) {
+		add(value, 1);
+	}
+
+	/**
+	 *
+	 * @param value
+	 * @param weight
+	 */
+	private void add(double value, double weight) {
+		if (Double.isNaN(value)) {
+			return;
+		}
+		if (bufferSize == bufferMeans.length) {
+			if (bufferSize >= maxBufferSize) {
+				compress();
+			} else {
+				int length = Math.min(bufferSize * 2, maxBufferSize);
+				bufferMeans = Arrays.copyOf(bufferMeans, length);
+				bufferWeights = Arrays.copyOf(bufferWeights, length);
+			}
+		}
+		bufferMeans[bufferSize] = value;
+		bufferWeights[bufferSize] = weight;
+		bufferSize++;
+		totalWeight += weight;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Merges the values of another digest into this one.
+	 *
+	 * @param other
+	 */
+	public void merge(TDigest other) {
+		other.compress();
+		double otherMin = other.min;
+		double otherMax = other.max;
+		for (int i = 0; i < other.centroidCount; i++) {
+			add(other.means[i], other.weights[i]);
+		}
+		min = Math.min(min, otherMin);
+		max = Math.max(max, otherMax);
+	}
+
+	/**
+	 *
+	 * @param q the quantile, between 0 and 1
+	 * @return the estimated value of the quantile, or NaN if the digest is empty
+	 */
+	public double quantile(double q) {
+		if (q < 0 || q > 1) {
+			throw new IllegalArgumentException("quantile: " + q); //$NON-NLS-1$
+		}
+		compress();
+		if (centroidCount == 0) {
+			return Double.NaN;
+		}
+		// the rank of the value, 0 being the minimum and totalWeight - 1 the maximum
+		double rank = q * (totalWeight - 1);
+		double lastRank = 0;
+		double lastMean = min;
+		double weightSoFar = 0;
+		for (int i = 0; i < centroidCount; i++) {
+			// the values of a centroid are taken to be spread evenly around its mean
+			double centerRank = weightSoFar + (weights[i] - 1) / 2;
+			if (rank <= centerRank) {
+				return interpolate(lastRank, lastMean, centerRank, means[i], rank);
+			}
+			lastRank = centerRank;
+			lastMean = means[i];
+			weightSoFar += weights[i];
+		}
+		return interpolate(lastRank, lastMean, totalWeight - 1, max, rank);
+	}
+
+	/**
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public byte[] toBytes() throws IOException {
+		compress();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		output.writeByte(SKETCH_TYPE);
+		output.writeDouble(compression);
+		output.writeDouble(min);
+		output.writeDouble(max);
+		output.writeInt(centroidCount);
+		for (int i = 0; i < centroidCount; i++) {
+			output.writeDouble(means[i]);
+			output.writeDouble(weights[i]);
+		}
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 *
+	 * @param bytes
+	 * @return
+	 * @throws IOException
+	 */
+	public static TDigest fromBytes(byte[] bytes) throws IOException {
+		if (!isSketch(bytes)) {
+			throw new IOException("Not a t-digest"); //$NON-NLS-1$
+		}
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1));
+		TDigest result = new TDigest(input.readDouble());
+		result.min = input.readDouble();
+		result.max = input.readDouble();
+		result.centroidCount = input.readInt();
+		result.means = new double[result.centroidCount];
+		result.weights = new double[result.centroidCount];
+		for (int i = 0; i < result.centroidCount; i++) {
+			result.means[i] = input.readDouble();
+			result.weights[i] = input.readDouble();
+			result.totalWeight += result.weights[i];
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param bytes
+	 * @return whether the bytes are a digest written by toBytes()
+	 */
+	public static boolean isSketch(byte[] bytes) {
+		return bytes != null && bytes.length > 0 && bytes[0] == SKETCH_TYPE;
+	}
+
+	private static double interpolate(double x0, double y0, double x1, double y1, double x) {
+		if (x1 <= x0 || y0 == y1) {
+			return y1;
+		}
+		return y0 + (x - x0) / (x1 - x0) * (y1 - y0);
+	}
+
+	/**
+	 * Merges the buffered values into the centroids.
+	 */
+	private void compress() {
+		if (bufferSize == 0) {
+			return;
+		}
+		int count = centroidCount + bufferSize;
+		double[] allMeans = Arrays.copyOf(means, count);
+		double[] allWeights = Arrays.copyOf(weights, count);
+		System.arraycopy(bufferMeans, 0, allMeans, centroidCount, bufferSize);
+		System.arraycopy(bufferWeights, 0, allWeights, centroidCount, bufferSize);
+		bufferSize = 0;
+		sort(allMeans, allWeights, 0, count - 1);
+
+		int size = 0;
+		double weightSoFar = 0;
+		double kLeft = scale(0);
+		for (int i = 1; i < count; i++) {
+			double proposedWeight = allWeights[size] + allWeights[i];
+			if (scale((weightSoFar + proposedWeight) / totalWeight) - kLeft <= 1) {
+				allMeans[size] += (allMeans[i] - allMeans[size]) * allWeights[i] / proposedWeight;
+				allWeights[size] = proposedWeight;
+			} else {
+				weightSoFar += allWeights[size];
+				kLeft = scale(weightSoFar / totalWeight);
+				size++;
+				allMeans[size] = allMeans[i];
+				allWeights[size] = allWeights[i];
+			}
+		}
+		centroidCount = size + 1;
+		means = Arrays.copyOf(allMeans, centroidCount);
+		weights = Arrays.copyOf(allWeights, centroidCount);
+	}
+
+	private double scale(double q) {
+		return compression / (2 * Math.PI) * Math.asin(Math.max(-1, Math.min(1, 2 * q - 1)));
+	}
+
+	/**
+	 * Sorts the values by their means, together with their weights.
+	 */
+	private static void sort(double[] means, double[] weights, int from, int to) {
+		while (to - from > 16) {
+			double pivot = means[(from + to) >>> 1];
+			int i = from, j = to;
+			while (i <= j) {
+				while (means[i] < pivot) {
+					i++;
+				}
+				while (means[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(means, weights, i++, j--);
+				}
+			}
+			// recurse into the smaller part to bound the stack depth
+			if (j - from < to - i) {
+				sort(means, weights, from, j);
+				from = i;
+			} else {
+				sort(means, weights, i, to);
+				to = j;
+			}
+		}
+		for (int i = from + 1; i <= to; i++) {
+			for (int j = i; j > from && means[j - 1] > means[j]; j--) {
+				swap(means, weights, j - 1, j);
+			}
+		}
+	}
+
+	private static void swap(double[] means, double[] weights, int i, int j) {
+		double mean = means[i];
+		means[i] = means[j];
+		means[j] = mean;
+		double weight = weights[i];
+		weights[i] = weights[j];
+		weights[j] = weight;
+	}
+}
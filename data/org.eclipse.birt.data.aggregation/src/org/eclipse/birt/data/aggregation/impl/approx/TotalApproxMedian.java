@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.aggregation.impl.approx;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.i18n.Messages;
+import org.eclipse.birt.data.aggregation.impl.AggrFunction;
+import org.eclipse.birt.data.aggregation.impl.Constants;
+import org.eclipse.birt.data.aggregation.impl.ParameterDefn;
+import org.eclipse.birt.data.aggregation.impl.SupportedDataTypes;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+
+/**
+ * Implements the built-in Total.approxMedian aggregation, which estimates
+ * Total.median with a t-digest.
+ */
+public class TotalApproxMedian extends AggrFunction {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#getName()
+	 */
+	@Override
+	public String getName() {
+		return IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#getType()
+	 */
+	@Override
+	public int getType() {
+		return SUMMARY_AGGR;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggregation#getDataType()
+	 */
+	@Override
+	public int getDataType() {
+		return DataType.DOUBLE_TYPE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#getParameterDefn()
+	 */
+	@Override
+	public IParameterDefn[] getParameterDefn() {
+		return new IParameterDefn[] { new ParameterDefn(Constants.EXPRESSION_NAME, Constants.EXPRESSION_DISPLAY_NAME,
+				false, true, SupportedDataTypes.CALCULATABLE, "") //$NON-NLS-1$
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#newAccumulator()
+	 */
+	@Override
+	public Accumulator newAccumulator() {
+		return new MyAccumulator();
+	}
+
+	private static class MyAccumulator extends DigestAccumulator {
+
+		@Override
+		protected double getPctValue(Object[] args) {
+			return 0.5;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDescription()
+	 */
+	@Override
+	public String getDescription() {
+		return Messages.getString("TotalApproxMedian.description"); //$NON-NLS-1$
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDisplayName()
+	 */
+	@Override
+	public String getDisplayName() {
+		return Messages.getString("TotalApproxMedian.displayName"); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.aggregation.impl.approx;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.i18n.Messages;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.aggregation.impl.AggrException;
+import org.eclipse.birt.data.aggregation.impl.AggrFunction;
+import org.eclipse.birt.data.aggregation.impl.Constants;
+import org.eclipse.birt.data.aggregation.impl.ParameterDefn;
+import org.eclipse.birt.data.aggregation.impl.SupportedDataTypes;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Implements the built-in Total.approxPercentile aggregation, which estimates
+ * Total.Percentile with a t-digest.
+ */
+public class TotalApproxPercentile extends AggrFunction {
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#getName()
+	 */
+	@Override
+	public String getName() {
+		return IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#getType()
+	 */
+	@Override
+	public int getType() {
+		return SUMMARY_AGGR;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggregation#getDataType()
+	 */
+	@Override
+	public int getDataType() {
+		return DataType.DOUBLE_TYPE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#getParameterDefn()
+	 */
+	@Override
+	public IParameterDefn[] getParameterDefn() {
+		return new IParameterDefn[] {
+				new ParameterDefn(Constants.EXPRESSION_NAME, Constants.EXPRESSION_DISPLAY_NAME, false, true,
+						SupportedDataTypes.CALCULATABLE, ""), //$NON-NLS-1$
+				new ParameterDefn("percentage", Messages.getString("TotalApproxPercentile.param.percentage"), false, //$NON-NLS-1$ //$NON-NLS-2$
+						false, SupportedDataTypes.CALCULATABLE, "") //$NON-NLS-1$
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.aggregation.Aggregation#newAccumulator()
+	 */
+	@Override
+	public Accumulator newAccumulator() {
+		return new MyAccumulator();
+	}
+
+	private static class MyAccumulator extends DigestAccumulator {
+
+		@Override
+		protected double getPctValue(Object[] args) throws DataException {
+			assert (args.length == 2);
+			if (args[1] == null) {
+				throw DataException.wrap(new AggrException(ResourceConstants.INVALID_PERCENTILE_ARGUMENT));
+			}
+			double pct = ((Number) calculator.getTypedObject(args[1])).doubleValue();
+			if (pct < 0 || pct > 1) {
+				throw DataException.wrap(new AggrException(ResourceConstants.INVALID_PERCENTILE_ARGUMENT));
+			}
+			return pct;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDescription()
+	 */
+	@Override
+	public String getDescription() {
+		return Messages.getString("TotalApproxPercentile.description"); //$NON-NLS-1$
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDisplayName()
+	 */
+	@Override
+	public String getDisplayName() {
+		return Messages.getString("TotalApproxPercentile.displayName"); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.aggregation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.impl.BuildInAggregationFactory;
+import org.eclipse.birt.data.aggregation.impl.approx.HyperLogLog;
+import org.eclipse.birt.data.aggregation.impl.approx.TDigest;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.junit.Test;
+
+/**
+ *
+ * test the approximate aggregation functions
+ */
+public class ApproxAggregationTest {
+
+	private BuildInAggregationFactory buildInAggrFactory = new BuildInAggregationFactory();
+
+	@Test
+	public void testApproxCountDistinct() throws Exception {
+		IAggrFunction ag = buildInAggrFactory.getAggregation("approxCountDistinct");
+		assertEquals(IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC, ag.getName());
+		assertEquals(IAggrFunction.SUMMARY_AGGR, ag.getType());
+		assertEquals(1, ag.getParameterDefn().length);
+
+		Accumulator ac = ag.newAccumulator();
+		ac.start();
+		ac.finish();
+		assertEquals(Integer.valueOf(0), ac.getValue());
+
+		// small sets are counted exactly, and null counts as one value
+		Object[] values = { "a", "b", "a", null, Integer.valueOf(1), Integer.valueOf(1), Double.valueOf(1), null };
+		ac.start();
+		for (int i = 0; i < values.length; i++) {
+			ac.onRow(new Object[] { values[i] });
+		}
+		ac.finish();
+		assertEquals(Integer.valueOf(5), ac.getValue());
+
+		for (int n = 1000; n <= 1000000; n *= 10) {
+			ac.start();
+			for (int i = 0; i < n; i++) {
+				ac.onRow(new Object[] { "value" + (i % n) });
+				ac.onRow(new Object[] { "value" + (i % n) });
+			}
+			ac.finish();
+			assertRelativeError(n, ((Integer) ac.getValue()).intValue(), 0.03);
+		}
+	}
+
+	@Test
+	public void testApproxCountDistinctMerge() throws Exception {
+		IAggrFunction ag = buildInAggrFactory.getAggregation(IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC);
+		Accumulator[] groups = { ag.newAccumulator(), ag.newAccumulator(), ag.newAccumulator() };
+		for (int i = 0; i < groups.length; i++) {
+			groups[i].start();
+		}
+		// overlapping groups
+		for (int i = 0; i < 30000; i++) {
+			groups[i % 3].onRow(new Object[] { Integer.valueOf(i / 2) });
+		}
+		Accumulator total = ag.newAccumulator();
+		total.start();
+		for (int i = 0; i < groups.length; i++) {
+			groups[i].finish();
+			byte[] sketch = ((ISketchAccumulator) groups[i]).getSketch();
+			assertTrue(((ISketchAccumulator) total).mergeSketch(new Object[] { sketch }));
+		}
+		total.finish();
+		assertRelativeError(15000, ((Integer) total.getValue()).intValue(), 0.03);
+
+		// a digest or a value is not merged as a sketch
+		Accumulator median = buildInAggrFactory.getAggregation(IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC)
+				.newAccumulator();
+		median.start();
+		assertFalse(((ISketchAccumulator) total)
+				.mergeSketch(new Object[] { ((ISketchAccumulator) median).getSketch() }));
+		assertFalse(((ISketchAccumulator) total).mergeSketch(new Object[] { "value" }));
+		assertTrue(HyperLogLog.isSketch(HyperLogLog.fromBytes(new HyperLogLog().toBytes()).toBytes()));
+	}
+
+	@Test(expected = DataException.class)
+	public void testApproxCountDistinctUnsupportedType() throws Exception {
+		Accumulator ac = buildInAggrFactory.getAggregation("approxCountDistinct").newAccumulator();
+		ac.start();
+		ac.onRow(new Object[] { new Object() });
+	}
+
+	@Test
+	public void testApproxPercentile() throws Exception {
+		IAggrFunction ag = buildInAggrFactory.getAggregation("approxPercentile");
+		assertEquals(IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC, ag.getName());
+		assertEquals(2, ag.getParameterDefn().length);
+		IAggrFunction exact = buildInAggrFactory.getAggregation("percentile");
+
+		// a few values are kept one by one, and give the exact result
+		Object[] values = { Integer.valueOf(3), Integer.valueOf(1), null, "4", Double.valueOf(1.5), Integer.valueOf(9),
+				Integer.valueOf(2) };
+		double[] pcts = { 0, 0.1, 0.25, 0.5, 0.9, 1 };
+		for (int i = 0; i < pcts.length; i++) {
+			assertEquals(evaluate(exact, values, pcts[i]), evaluate(ag, values, pcts[i]), 1e-9);
+		}
+
+		Accumulator ac = ag.newAccumulator();
+		ac.start();
+		ac.finish();
+		assertNull(ac.getValue());
+
+		Random random = new Random(0);
+		double[] sorted = new double[100000];
+		Object[] data = new Object[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = Math.exp(random.nextGaussian());
+			data[i] = Double.valueOf(sorted[i]);
+		}
+		Arrays.sort(sorted);
+		double[] quantiles = { 0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999 };
+		for (int i = 0; i < quantiles.length; i++) {
+			double estimate = evaluate(ag, data, quantiles[i]);
+			// compare the ranks, the error of a t-digest is bounded in rank
+			double rank = (double) lowerBound(sorted, estimate) / sorted.length;
+			assertEquals(quantiles[i], rank, 0.01 * Math.max(0.1, Math.sqrt(quantiles[i] * (1 - quantiles[i]))));
+		}
+	}
+
+	@Test(expected = DataException.class)
+	public void testApproxPercentileInvalidArgument() throws Exception {
+		Accumulator ac = buildInAggrFactory.getAggregation("approxPercentile").newAccumulator();
+		ac.start();
+		ac.onRow(new Object[] { Integer.valueOf(1), Double.valueOf(1.5) });
+	}
+
+	@Test
+	public void testApproxMedian() throws Exception {
+		IAggrFunction ag = buildInAggrFactory.getAggregation("approxMedian");
+		assertEquals(IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC, ag.getName());
+		assertEquals(1, ag.getParameterDefn().length);
+
+		Accumulator ac = ag.newAccumulator();
+		ac.start();
+		double[] values = { 5, 1, 4, 2 };
+		for (int i = 0; i < values.length; i++) {
+			ac.onRow(new Object[] { Double.valueOf(values[i]) });
+		}
+		ac.finish();
+		assertEquals(3, ((Double) ac.getValue()).doubleValue(), 1e-9);
+
+		// roll up the digests of two groups
+		Accumulator group1 = ag.newAccumulator();
+		Accumulator group2 = ag.newAccumulator();
+		group1.start();
+		group2.start();
+		for (int i = 0; i < 100000; i++) {
+			(i % 2 == 0 ? group1 : group2).onRow(new Object[] { Integer.valueOf(i) });
+		}
+		group1.finish();
+		group2.finish();
+		ac.start();
+		assertTrue(((ISketchAccumulator) ac).mergeSketch(new Object[] { ((ISketchAccumulator) group1).getSketch() }));
+		assertTrue(((ISketchAccumulator) ac).mergeSketch(
+				new Object[] { TDigest.fromBytes(((ISketchAccumulator) group2).getSketch()).toBytes() }));
+		ac.finish();
+		assertEquals(50000, ((Double) ac.getValue()).doubleValue(), 500);
+	}
+
+	private static double evaluate(IAggrFunction aggregation, Object[] values, double pct) throws DataException {
+		Accumulator ac = aggregation.newAccumulator();
+		ac.start();
+		for (int i = 0; i < values.length; i++) {
+			ac.onRow(new Object[] { values[i], Double.valueOf(pct) });
+		}
+		ac.finish();
+		return ((Double) ac.getValue()).doubleValue();
+	}
+
+	private static int lowerBound(double[] sorted, double value) {
+		int index = Arrays.binarySearch(sorted, value);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	private static void assertRelativeError(long expected, long actual, double error) {
+		assertTrue("expected " + expected + " but was " + actual,
+				Math.abs(actual - expected) <= expected * error);
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.executor.cache;
+
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.expression.CompareHints;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.junit.Test;
+
+import com.ibm.icu.text.Collator;
+
+/**
+ * Checks that sorting by sort keys gives the same order as the comparator.
+ */
+public class SortKeyComparatorTest {
+	private static final String[] WORDS = { "a", "b", "B", "\u00e9", "e", "E", "abcd", "abcde", "abce", "", "zz",
+			"Zebra", "z\u00e8bre", "ab" };
+
+	@Test
+	public void testNumbers() throws DataException {
+		checkSort(new int[] { 0, 1 }, false);
+	}
+
+	@Test
+	public void testInexactNumbersAndDates() throws DataException {
+		checkSort(new int[] { 2, 3 }, false);
+	}
+
+	@Test
+	public void testStrings() throws DataException {
+		checkSort(new int[] { 4, 0 }, false);
+	}
+
+	@Test
+	public void testCollatedStrings() throws DataException {
+		checkSort(new int[] { 4, 5 }, true);
+	}
+
+	private void checkSort(int[] kinds, boolean collated) throws DataException {
+		Random random = new Random(0);
+		List columns = new ArrayList();
+		for (int i = 0; i < kinds.length; i++) {
+			columns.add(new ResultFieldMetadata(i + 1, "col" + i, "col" + i, Object.class, null, true));
+		}
+		ResultClass resultClass = new ResultClass(columns);
+		for (int round = 0; round < 20; round++) {
+			IResultObject[] rows = new IResultObject[500];
+			for (int i = 0; i < rows.length; i++) {
+				Object[] values = new Object[kinds.length];
+				for (int j = 0; j < kinds.length; j++) {
+					values[j] = newValue(random, kinds[j]);
+				}
+				rows[i] = new ResultObject(resultClass, values);
+			}
+			int[] indexes = new int[kinds.length];
+			int[] ascending = new int[kinds.length];
+			CompareHints[] hints = new CompareHints[kinds.length];
+			for (int j = 0; j < kinds.length; j++) {
+				indexes[j] = j + 1;
+				ascending[j] = random.nextBoolean() ? SortSpec.SORT_ASC : SortSpec.SORT_DESC;
+				hints[j] = new CompareHints(collated ? Collator.getInstance(Locale.FRENCH) : null,
+						random.nextBoolean() ? IBaseDataSetDesign.NULLS_ORDERING_NULLS_HIGHEST : null);
+			}
+			SortKeyComparator comparator = new SortKeyComparator(
+					new SortSpec(indexes, new String[kinds.length], ascending, hints), null);
+
+			IResultObject[] expected = rows.clone();
+			Arrays.sort(expected, comparator);
+			comparator.sort(rows);
+			for (int i = 0; i < rows.length; i++) {
+				assertSame(expected[i], rows[i]);
+			}
+		}
+	}
+
+	private static Object newValue(Random random, int kind) {
+		if (random.nextInt(8) == 0) {
+			return null;
+		}
+		switch (kind) {
+		case 0:
+			return Integer.valueOf(random.nextInt(20) - 10);
+		case 1:
+			switch (random.nextInt(4)) {
+			case 0:
+				return Double.valueOf(Double.NaN);
+			case 1:
+				return Double.valueOf(-0.0);
+			case 2:
+				return Double.valueOf((random.nextInt(7) - 3) / 2.0);
+			default:
+				return Integer.valueOf(random.nextInt(7) - 3);
+			}
+		case 2:
+			return random.nextBoolean() ? new BigDecimal(random.nextInt(100)).movePointLeft(1)
+					: (Object) Long.valueOf((1L << 60) + random.nextInt(20));
+		case 3:
+			Timestamp timestamp = new Timestamp(random.nextInt(5) * 1000L);
+			timestamp.setNanos(random.nextInt(3) * 1000);
+			return timestamp;
+		default:
+			return WORDS[random.nextInt(WORDS.length)];
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.executor.transform.group;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.transform.OrderingInfo;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroupBoundaryIndexTest {
+	private GroupBoundaryIndex index;
+
+	/*
+	 * Two groups of the outer level: the first one with rows 0-4 in three inner
+	 * groups, the second one with rows 5-9 in two inner groups.
+	 */
+	@Before
+	public void setUp() {
+		index = new GroupBoundaryIndex(2);
+		index.addGroup(0, -1, 0);
+		index.addGroup(0, -1, 3);
+		index.addGroup(1, 0, 0);
+		index.addGroup(1, 0, 2);
+		index.addGroup(1, 0, 4);
+		index.addGroup(1, 1, 5);
+		index.addGroup(1, 1, 8);
+		index.setRowCount(10);
+	}
+
+	@Test
+	public void testOrderingInfo() {
+		assertRanges(new int[] { 0, 1, 2, 3, 4, 4, 5, 7, 8, 9 }, index.getOrderingInfo(null, null));
+		assertEquals(5, index.getFirstRow(0, 1));
+		assertEquals(10, index.getFirstRow(0, 2));
+		assertEquals(4, index.getFirstRow(1, 2));
+	}
+
+	@Test
+	public void testSortWithinParents() throws DataException {
+		final int[] keys = { 1, 2, 1, 5, 3 };
+		int[][] orders = new int[2][];
+		// descending, the inner groups with equal keys keep their order
+		orders[1] = index.sortWithinParents(1, (index1, index2) -> keys[index2] - keys[index1]);
+		orders[0] = index.sortWithinParents(0, (index1, index2) -> index2 - index1);
+		assertRanges(new int[] { 5, 7, 8, 9, 2, 3, 0, 1, 4, 4 }, index.getOrderingInfo(orders, null));
+	}
+
+	@Test
+	public void testSortIsStable() throws DataException {
+		GroupBoundaryIndex single = new GroupBoundaryIndex(1);
+		for (int i = 0; i < 100; i++) {
+			single.addGroup(0, -1, i);
+		}
+		single.setRowCount(100);
+		int[] order = single.sortWithinParents(0, (index1, index2) -> index1 % 3 - index2 % 3);
+		int k = 0;
+		for (int r = 0; r < 3; r++) {
+			for (int i = r; i < 100; i += 3) {
+				assertEquals(i, order[k++]);
+			}
+		}
+	}
+
+	@Test
+	public void testFilter() {
+		boolean[][] accepted = new boolean[2][];
+		accepted[1] = new boolean[] { true, false, true, true, true };
+		assertRanges(new int[] { 0, 1, 4, 4, 5, 7, 8, 9 }, index.getOrderingInfo(null, accepted));
+		accepted[0] = new boolean[] { true, false };
+		assertRanges(new int[] { 0, 1, 4, 4 }, index.getOrderingInfo(null, accepted));
+	}
+
+	@Test
+	public void testGroupInfos() {
+		List<GroupInfo> groupInfos = index.getGroupInfos(1);
+		assertEquals(5, groupInfos.size());
+		assertEquals(1, groupInfos.get(3).parent);
+		assertEquals(5, groupInfos.get(3).firstChild);
+
+		GroupInfo groupInfo = new GroupInfo();
+		groupInfo.parent = 1;
+		groupInfo.firstChild = 9;
+		groupInfos.add(groupInfo);
+		assertEquals(6, index.getGroupCount(1));
+		assertEquals(9, index.getFirstChild(1, 5));
+
+		GroupBoundaryIndex copy = GroupBoundaryIndex.valueOf(
+				new List[] { index.getGroupInfos(0), index.getGroupInfos(1) }, 10);
+		assertRanges(new int[] { 0, 1, 2, 3, 4, 4, 5, 7, 8, 8, 9, 9 }, copy.getOrderingInfo(null, null));
+
+		groupInfos.clear();
+		assertEquals(0, index.getGroupCount(1));
+	}
+
+	private static void assertRanges(int[] expected, OrderingInfo odInfo) {
+		assertEquals(expected.length / 2, odInfo.getCount());
+		for (int i = 0; i < odInfo.getCount(); i++) {
+			assertEquals(expected[i * 2], odInfo.getStartIndex(i));
+			assertEquals(expected[i * 2 + 1], odInfo.getEndIndex(i));
+		}
+	}
+}
@@ -884,6 +884,62 @@ public class AggregationTest extends APITestCase {
 		outputQueryResult(executeQuery(query), cols);
 		checkOutputFile();
 	}
+
+	/**
+	 * The simple aggregations calculated in blocks of rows give the same values as
+	 * the ones calculated by their accumulators, which a filter forces.
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testBatchedAggregation() throws Exception {
+		QueryDefinition query = newReportQuery();
+
+		GroupDefinition g1 = new GroupDefinition("G1");
+		g1.setKeyExpression("row.e1");
+		query.addGroup(g1);
+		GroupDefinition g2 = new GroupDefinition("G2");
+		g2.setKeyExpression("row.e2");
+		query.addGroup(g2);
+
+		query.addResultSetExpression("e1", new ScriptExpression("dataSetRow.CITY"));
+		query.addResultSetExpression("e2", new ScriptExpression("dataSetRow.STORE"));
+
+		String[] functions = { "Sum", "Ave", "Min", "Max" };
+		String[] groups = { null, "G1", "G2" };
+		int count = 0;
+		for (int i = 0; i < functions.length; i++) {
+			for (int j = 0; j < groups.length; j++) {
+				ScriptExpression batched = new ScriptExpression(
+						"Total." + functions[i] + "( dataSetRow.PRICE * dataSetRow.QUANTITY )");
+				batched.setGroupName(groups[j]);
+				query.addResultSetExpression("batched" + count, batched);
+				ScriptExpression accumulated = new ScriptExpression(
+						"Total." + functions[i] + "( dataSetRow.PRICE * dataSetRow.QUANTITY, true )");
+				accumulated.setGroupName(groups[j]);
+				query.addResultSetExpression("accumulated" + count, accumulated);
+				count++;
+			}
+		}
+		ScriptExpression batchedCount = new ScriptExpression("Total.Count( )");
+		batchedCount.setGroupName("G2");
+		query.addResultSetExpression("batched" + count, batchedCount);
+		ScriptExpression accumulatedCount = new ScriptExpression("Total.Count( true )");
+		accumulatedCount.setGroupName("G2");
+		query.addResultSetExpression("accumulated" + count, accumulatedCount);
+		count++;
+
+		IResultIterator resultIt = executeQuery(query);
+		int rows = 0;
+		while (resultIt.next()) {
+			for (int i = 0; i < count; i++) {
+				assertEquals(resultIt.getValue("accumulated" + i), resultIt.getValue("batched" + i));
+			}
+			rows++;
+		}
+		assertTrue(rows > 0);
+		resultIt.close();
+	}
 }
 
 class CancelDataEngineThread extends Thread {
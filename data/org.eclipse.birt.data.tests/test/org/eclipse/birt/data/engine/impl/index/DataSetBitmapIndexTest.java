@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.archive.FolderArchiveWriter;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.api.IBinding;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.ConditionalExpression;
+import org.eclipse.birt.data.engine.api.querydefn.FilterDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.impl.document.DataSetIndexFactory;
+import org.eclipse.birt.data.engine.impl.document.QueryResultInfo;
+import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+
+public class DataSetBitmapIndexTest {
+	private static final String INDEX_NAME = "Index/CITY/btreeIndex";
+	private static final String[] CITIES = { "Boston", "Paris", null, "Tokyo", "Paris" };
+
+	private FolderArchiveWriter writer;
+	private StreamManager manager;
+	private File folder;
+
+	@Before
+	public void setUp() throws IOException, BirtException {
+		folder = File.createTempFile("DataSetBitmapIndexTest", "");
+		folder.delete();
+		writer = new FolderArchiveWriter(folder.getPath());
+		writer.initialize();
+		DataEngineContext context = DataEngineContext.newInstance(DataEngineContext.MODE_GENERATION, null, null,
+				writer);
+		manager = new StreamManager(context, new QueryResultInfo("QuRs0", null, 0));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		writer.finish();
+		delete(folder);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws BirtException {
+		IIndexSerializer serializer = DataSetIndexFactory.createIndex(0, INDEX_NAME, manager, String.class);
+		// 100000 rows, so that some keys have dense bitmap chunks
+		for (int i = 0; i < 100000; i++) {
+			serializer.put(CITIES[i % CITIES.length], i);
+		}
+		serializer.close();
+
+		IDataSetIndex index = DataSetIndexFactory.loadIndex(INDEX_NAME, manager);
+		assertTrue(index.supportFilter(IConditionalExpression.OP_EQ));
+		assertTrue(index.supportFilter(IConditionalExpression.OP_IN));
+
+		assertEquals(20000, index.getKeyIndex("Boston", IConditionalExpression.OP_EQ).size());
+		assertEquals(40000, index.getKeyIndex("Paris", IConditionalExpression.OP_EQ).size());
+		assertEquals(20000, index.getKeyIndex(null, IConditionalExpression.OP_EQ).size());
+		assertTrue(index.getKeyIndex("Rome", IConditionalExpression.OP_EQ).isEmpty());
+
+		IOrderedIntSet rows = index.getKeyIndex(Arrays.asList("Tokyo", "Rome", "Boston"),
+				IConditionalExpression.OP_IN);
+		assertEquals(40000, rows.size());
+		IOrderedIntSetIterator it = rows.iterator();
+		int count = 0;
+		int last = -1;
+		while (it.hasNext()) {
+			int row = it.next();
+			assertTrue(row > last);
+			assertTrue(row % 5 == 0 || row % 5 == 3);
+			last = row;
+			count++;
+		}
+		assertEquals(40000, count);
+
+		assertEquals(4, index.getAllKeyValues().length);
+		assertEquals(Arrays.asList(0, 1, 2, 3), toList(index.getAllKeyRows()));
+	}
+
+	@Test
+	public void testConvertKey() throws BirtException {
+		IIndexSerializer serializer = DataSetIndexFactory.createIndex(0, INDEX_NAME, manager, Integer.class);
+		for (int i = 0; i < 1000; i++) {
+			serializer.put(Integer.valueOf(i % 10), i);
+		}
+		serializer.close();
+
+		IDataSetIndex index = DataSetIndexFactory.loadIndex(INDEX_NAME, manager);
+		assertEquals(100, index.getKeyIndex(Double.valueOf(7), IConditionalExpression.OP_EQ).size());
+		assertEquals(100, index.getKeyIndex("7", IConditionalExpression.OP_EQ).size());
+		assertTrue(index.getKeyIndex("seven", IConditionalExpression.OP_EQ).isEmpty());
+	}
+
+	@Test
+	public void testNoIndex() throws BirtException {
+		assertNull(DataSetIndexFactory.loadIndex(INDEX_NAME, manager));
+		IIndexSerializer serializer = DataSetIndexFactory.createIndex(0, INDEX_NAME, manager, Object.class);
+		serializer.put(new Object(), 0);
+		serializer.put("a", 1);
+		serializer.close();
+		assertNull(DataSetIndexFactory.loadIndex(INDEX_NAME, manager));
+	}
+
+	@Test
+	public void testMemoryLimit() throws BirtException {
+		// a key per row takes more than the memory of the index
+		IIndexSerializer serializer = DataSetIndexFactory.createIndex(10000, INDEX_NAME, manager, Integer.class);
+		for (int i = 0; i < 1000; i++) {
+			serializer.put(Integer.valueOf(i), i);
+		}
+		serializer.close();
+		assertNull(DataSetIndexFactory.loadIndex(INDEX_NAME, manager));
+	}
+
+	@Test
+	public void testPreFilteredRowIds() throws BirtException {
+		IIndexSerializer cities = DataSetIndexFactory.createIndex(0, DataSetIndexFactory.getIndexName("CITY"),
+				manager, String.class);
+		IIndexSerializer ids = DataSetIndexFactory.createIndex(0, DataSetIndexFactory.getIndexName("ID"), manager,
+				Integer.class);
+		for (int i = 0; i < 1000; i++) {
+			cities.put(CITIES[i % CITIES.length], i);
+			ids.put(Integer.valueOf(i % 10), i);
+		}
+		cities.close();
+		ids.close();
+
+		List<ResultFieldMetadata> columns = new ArrayList<>();
+		columns.add(new ResultFieldMetadata(1, "CITY", "CITY", String.class, null, false, -1, null, true, false));
+		columns.add(new ResultFieldMetadata(2, "ID", "ID", Integer.class, null, false, -1, null, true, false));
+		columns.add(new ResultFieldMetadata(3, "NAME", "NAME", String.class, null, false, -1, null, false, false));
+		IResultClass resultClass = new ResultClass(columns);
+		Map<String, IBinding> bindings = new HashMap<>();
+		bindings.put("id", new Binding("id", new ScriptExpression("dataSetRow[\"ID\"]")));
+
+		List<IFilterDefinition> filters = new ArrayList<>();
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"CITY\"]", IConditionalExpression.OP_EQ, "'Paris'")));
+		filters.add(new FilterDefinition(new ConditionalExpression("row[\"id\"]", IConditionalExpression.OP_IN,
+				Arrays.asList("1", "6", "7"))));
+		// filters which are not looked up
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"NAME\"]", IConditionalExpression.OP_EQ, "'Paris'")));
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"ID\"]", IConditionalExpression.OP_GT, "5")));
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"CITY\"]", IConditionalExpression.OP_EQ, "'To' + 'kyo'")));
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"ID\"]", IConditionalExpression.OP_EQ, "'1'")));
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"CITY\"]", IConditionalExpression.OP_EQ, "'Boston'"),
+				false));
+
+		// the Paris rows are the rows 1 and 4 of every 5, and the ids 1, 6 and 7 are
+		// the rows 1, 6 and 7 of every 10
+		IOrderedIntSet rows = DataSetIndexFactory.getPreFilteredRowIds(manager, resultClass, filters, bindings);
+		assertEquals(200, rows.size());
+		IOrderedIntSetIterator it = rows.iterator();
+		while (it.hasNext()) {
+			int row = it.next();
+			assertTrue(row % 10 == 1 || row % 10 == 6);
+		}
+		assertNull(DataSetIndexFactory.getPreFilteredRowIds(manager, resultClass, filters.subList(2, filters.size()),
+				bindings));
+	}
+
+	@Test
+	public void testAndOr() {
+		BitmapOrderedIntSet even = bitmapSet(0, 1000, 2);
+		BitmapOrderedIntSet tens = bitmapSet(0, 1000, 10);
+		BitmapOrderedIntSet threes = bitmapSet(0, 1000, 3);
+
+		assertEquals(100, even.and(tens).size());
+		assertEquals(500, even.or(tens).size());
+		assertEquals(Arrays.asList(0, 30, 60, 90), toList(BitmapOrderedIntSet.and(Arrays.asList(even, tens, threes)))
+				.subList(0, 4));
+		assertEquals(667, BitmapOrderedIntSet.or(Arrays.asList(even, threes)).size());
+		assertTrue(BitmapOrderedIntSet.and(Arrays.asList(even, bitmapSet(1, 1000, 2), tens)).isEmpty());
+	}
+
+	private static BitmapOrderedIntSet bitmapSet(int from, int to, int step) {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (int i = from; i < to; i += step) {
+			bitmap.add(i);
+		}
+		return new BitmapOrderedIntSet(bitmap);
+	}
+
+	private static List<Integer> toList(IOrderedIntSet set) {
+		List<Integer> result = new ArrayList<>();
+		IOrderedIntSetIterator it = set.iterator();
+		while (it.hasNext()) {
+			result.add(it.next());
+		}
+		return result;
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+
+public class CompressedBitmapTest {
+
+	@Test
+	public void testAddAndContains() {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		assertTrue(bitmap.isEmpty());
+		bitmap.add(70000);
+		bitmap.add(3);
+		bitmap.add(3);
+		bitmap.add(65535);
+		assertEquals(3, bitmap.getCardinality());
+		assertTrue(bitmap.contains(3));
+		assertTrue(bitmap.contains(65535));
+		assertTrue(bitmap.contains(70000));
+		assertFalse(bitmap.contains(4));
+		assertFalse(bitmap.contains(-1));
+		assertEquals(3, bitmap.nextValue(0));
+		assertEquals(65535, bitmap.nextValue(4));
+		assertEquals(70000, bitmap.nextValue(65536));
+		assertEquals(-1, bitmap.nextValue(70001));
+	}
+
+	@Test
+	public void testDenseChunk() throws IOException {
+		CompressedBitmap bitmap = new CompressedBitmap();
+		for (int i = 0; i < 10000; i++) {
+			bitmap.add(i * 2);
+		}
+		assertEquals(10000, bitmap.getCardinality());
+		assertTrue(bitmap.contains(19998));
+		assertFalse(bitmap.contains(19999));
+		assertEquals(102, bitmap.nextValue(101));
+
+		CompressedBitmap copy = writeAndRead(bitmap);
+		assertEquals(10000, copy.getCardinality());
+		for (int i = 0; i < 20000; i++) {
+			assertEquals(bitmap.contains(i), copy.contains(i));
+		}
+	}
+
+	@Test
+	public void testOrAndAnd() throws IOException {
+		CompressedBitmap even = new CompressedBitmap();
+		CompressedBitmap small = new CompressedBitmap();
+		for (int i = 0; i < 200000; i += 2) {
+			even.add(i);
+		}
+		for (int i = 0; i < 100; i++) {
+			small.add(i);
+			small.add(150000 + i);
+		}
+		CompressedBitmap and = even.and(small);
+		assertEquals(100, and.getCardinality());
+		assertTrue(and.contains(150002));
+		assertFalse(and.contains(150003));
+
+		CompressedBitmap or = even.or(small);
+		assertEquals(100000 + 100, or.getCardinality());
+		assertTrue(or.contains(150003));
+
+		CompressedBitmap union = CompressedBitmap.or(Arrays.asList(small, writeAndRead(small), new CompressedBitmap()));
+		assertEquals(200, union.getCardinality());
+		assertTrue(small.and(new CompressedBitmap()).isEmpty());
+	}
+
+	private static CompressedBitmap writeAndRead(CompressedBitmap bitmap) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bitmap.writeTo(new DataOutputStream(bytes));
+		return CompressedBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.olap.data.api.cube;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.impl.DataEngineImpl;
+import org.eclipse.birt.data.engine.impl.StopSign;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.Dimension;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionForTest;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionRow;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.LevelDefinition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import testutil.BaseTestCase;
+
+/**
+ *
+ */
+
+public class CubeMaterializerTest extends BaseTestCase {
+	private DataEngineImpl engine;
+	private CubeMaterializer materializer;
+
+	@Before
+	public void cubeMaterializerSetUp() throws Exception {
+		DataEngineContext context = DataEngineContext.newInstance(DataEngineContext.DIRECT_PRESENTATION, null, null,
+				null);
+		context.setTmpdir(getTempDir());
+		engine = (DataEngineImpl) DataEngine.newDataEngine(context);
+		materializer = new CubeMaterializer(engine, "cubeMaterializerTest");
+	}
+
+	@After
+	public void cubeMaterializerTearDown() throws Exception {
+		engine.shutdown();
+	}
+
+	/**
+	 * The hierarchies built by concurrent workers are the same as the ones built
+	 * one after another.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testCreateHierarchiesInParallel() throws IOException, BirtException {
+		materializer.setHierarchyParallelism(3);
+		assertHierarchies(createHierarchies("parallel"));
+	}
+
+	/**
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testCreateHierarchiesSequentially() throws IOException, BirtException {
+		assertHierarchies(createHierarchies("sequential"));
+	}
+
+	@SuppressWarnings("unchecked")
+	private IDimension[] createHierarchies(String prefix) throws IOException, BirtException {
+		int count = 4;
+		String[] dimensionNames = new String[count];
+		ILevelDefn[][] levelDefs = new ILevelDefn[count][];
+		Callable<IDatasetIterator>[] iterators = new Callable[count];
+		for (int i = 0; i < count; i++) {
+			final int size = (i + 1) * 100;
+			dimensionNames[i] = prefix + i;
+			levelDefs[i] = new ILevelDefn[] { new LevelDefinition("level1", new String[] { "col1" }, null),
+					new LevelDefinition("level2", new String[] { "col2" }, null) };
+			iterators[i] = () -> {
+				int[] level1 = new int[size];
+				int[] level2 = new int[size];
+				for (int j = 0; j < size; j++) {
+					// unsorted members
+					level2[j] = (j * 7) % size;
+					level1[j] = level2[j] / 10;
+				}
+				DimensionForTest iterator = new DimensionForTest(new String[] { "col1", "col2" });
+				iterator.setLevelMember(0, level1);
+				iterator.setLevelMember(1, level2);
+				return iterator;
+			};
+		}
+		IHierarchy[] hierarchies = materializer.createHierarchies(dimensionNames, dimensionNames, iterators,
+				levelDefs, new StopSign());
+		IDimension[] dimensions = new IDimension[count];
+		for (int i = 0; i < count; i++) {
+			dimensions[i] = materializer.createDimension(dimensionNames[i], hierarchies[i]);
+		}
+		return dimensions;
+	}
+
+	private void assertHierarchies(IDimension[] dimensions) throws IOException {
+		for (int i = 0; i < dimensions.length; i++) {
+			Dimension dimension = (Dimension) dimensions[i];
+			int size = (i + 1) * 100;
+			assertEquals(size, dimension.length());
+			assertEquals(2, dimension.getHierarchy().getLevels().length);
+			for (int j = 0; j < size; j++) {
+				DimensionRow row = dimension.getRowByPosition(j);
+				assertEquals(Integer.valueOf(j / 10), row.getMembers()[0].getKeyValues()[0]);
+				assertEquals(Integer.valueOf(j), row.getMembers()[1].getKeyValues()[0]);
+			}
+			dimension.close();
+		}
+	}
+}
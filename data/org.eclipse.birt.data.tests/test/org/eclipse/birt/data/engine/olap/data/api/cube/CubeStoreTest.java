@@ -0,0 +1,284 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.olap.data.api.cube;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.impl.DataEngineImpl;
+import org.eclipse.birt.data.engine.impl.StopSign;
+import org.eclipse.birt.data.engine.olap.data.document.IDocumentManager;
+import org.eclipse.birt.data.engine.olap.data.impl.Cube;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.Dimension;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionForTest;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.LevelDefinition;
+import org.eclipse.birt.data.engine.olap.data.impl.facttable.FactTableRowIterator;
+import org.eclipse.birt.data.engine.olap.data.util.IDiskArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import testutil.BaseTestCase;
+
+/**
+ *
+ */
+
+public class CubeStoreTest extends BaseTestCase {
+	private static final String[][] KEY_COLUMNS = { { "col1" } };
+
+	private DataEngineImpl engine;
+	private CubeMaterializer materializer;
+	private CubeStore store;
+	private File storeDir;
+
+	@Before
+	public void cubeStoreSetUp() throws Exception {
+		DataEngineContext context = DataEngineContext.newInstance(DataEngineContext.DIRECT_PRESENTATION, null, null,
+				null);
+		context.setTmpdir(getTempDir());
+		engine = (DataEngineImpl) DataEngine.newDataEngine(context);
+		materializer = new CubeMaterializer(engine, "cubeStoreTest");
+		storeDir = new File(getTempDir(), "cubeStore" + System.currentTimeMillis());
+		store = new CubeStore(storeDir.getPath());
+	}
+
+	@After
+	public void cubeStoreTearDown() throws Exception {
+		engine.shutdown();
+		deleteFile(storeDir);
+	}
+
+	/**
+	 * A stored cube is only reused with the signature it has been saved with.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testSaveAndOpen() throws IOException, BirtException {
+		createCube();
+		materializer.saveCubeToStore(store, "storeCube", "signature1", new StopSign());
+
+		assertNull(store.open("storeCube", "signature2"));
+		assertNull(store.open("otherCube", "signature1"));
+
+		IDocumentManager manager = store.open("storeCube", "signature1");
+		assertNotNull(manager);
+		assertFactTable(manager, 3, 4, 100);
+		manager.close();
+
+		assertEquals(true, materializer.loadCubeFromStore(store, "storeCube", "signature1"));
+		assertEquals(false, materializer.loadCubeFromStore(store, "storeCube", "signature2"));
+	}
+
+	/**
+	 * A stored cube is opened read only, and a new commit replaces the descriptor.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testOpenReadOnly() throws IOException, BirtException {
+		createCube();
+		materializer.saveCubeToStore(store, "storeCube", "signature1", new StopSign());
+
+		IDocumentManager manager = store.open("storeCube", "signature1");
+		assertFactTable(manager, 3, 4, 100);
+		try {
+			manager.createDocumentObject("newObject");
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+		manager.close();
+
+		materializer.saveCubeToStore(store, "storeCube", "signature2", new StopSign());
+		assertNull(store.open("storeCube", "signature1"));
+		manager = store.open("storeCube", "signature2");
+		assertFactTable(manager, 3, 4, 100);
+		manager.close();
+	}
+
+	/**
+	 * New dimension members and fact rows are appended to the stored cube.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testAppend() throws IOException, BirtException {
+		createCube();
+		materializer.saveCubeToStore(store, "storeCube", "signature1", new StopSign());
+
+		DimensionForTest members = new DimensionForTest(new String[] { "col1" });
+		members.setLevelMember(0, new int[] { 4 });
+		Map<String, IDatasetIterator> dimensionMembers = new HashMap<>();
+		dimensionMembers.put("dim1", members);
+
+		DimensionForTest facts = new DimensionForTest(new String[] { "col1", "measure1" });
+		facts.setLevelMember(0, new int[] { 4, 1 });
+		facts.setLevelMember(1, new int[] { 50, 60 });
+
+		materializer.appendToStoredCube(store, "storeCube", "signature1", KEY_COLUMNS, KEY_COLUMNS, dimensionMembers,
+				facts, new String[] { "measure1" }, null, null, 0, new StopSign());
+
+		IDocumentManager manager = store.open("storeCube", "signature1");
+		assertFactTable(manager, 4, 6, 210);
+		manager.close();
+	}
+
+	/**
+	 * Without new members, the fact rows are appended to the stored segments and
+	 * the segments without new rows are copied as they are.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testAppendWithoutNewMembers() throws IOException, BirtException {
+		createCube();
+		materializer.saveCubeToStore(store, "storeCube", "signature1", new StopSign());
+
+		DimensionForTest facts = new DimensionForTest(new String[] { "col1", "measure1" });
+		facts.setLevelMember(0, new int[] { 1, 2 });
+		facts.setLevelMember(1, new int[] { 5, 7 });
+		materializer.appendToStoredCube(store, "storeCube", "signature1", KEY_COLUMNS, KEY_COLUMNS,
+				(Map<String, IDatasetIterator>) null, facts, new String[] { "measure1" }, null, null, 0,
+				new StopSign());
+
+		IDocumentManager manager = store.open("storeCube", "signature1");
+		assertFactTable(manager, 3, 6, 112);
+		manager.close();
+	}
+
+	/**
+	 * The appended rows are merged by SUM into the stored rows of the same
+	 * members.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testAppendWithSum() throws IOException, BirtException {
+		createCube(new String[] { "SUM" });
+		materializer.saveCubeToStore(store, "storeCube", "signature1", new StopSign());
+
+		DimensionForTest facts = new DimensionForTest(new String[] { "col1", "measure1" });
+		facts.setLevelMember(0, new int[] { 1, 1, 3 });
+		facts.setLevelMember(1, new int[] { 5, 6, 7 });
+		materializer.appendToStoredCube(store, "storeCube", "signature1", KEY_COLUMNS, KEY_COLUMNS,
+				(Map<String, IDatasetIterator>) null, facts, new String[] { "measure1" }, null,
+				new String[] { "SUM" }, 0, new StopSign());
+
+		IDocumentManager manager = store.open("storeCube", "signature1");
+		assertFactTable(manager, 3, 3, 118);
+		manager.close();
+	}
+
+	/**
+	 * The stored cube is found by its definition, which is kept by an append.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testDefinition() throws IOException, BirtException {
+		createCube();
+		materializer.saveCubeToStore(store, "storeCube", "signature1", "definition1", new StopSign());
+
+		assertEquals("signature1", store.getSignature("storeCube", "definition1"));
+		assertNull(store.getSignature("storeCube", "definition2"));
+		assertNull(store.getSignature("otherCube", "definition1"));
+
+		DimensionForTest facts = new DimensionForTest(new String[] { "col1", "measure1" });
+		facts.setLevelMember(0, new int[] { 1 });
+		facts.setLevelMember(1, new int[] { 1 });
+		materializer.appendToStoredCube(store, "storeCube", "signature1", KEY_COLUMNS, KEY_COLUMNS,
+				(Map<String, IDatasetIterator>) null, facts, new String[] { "measure1" }, null, null, 0,
+				new StopSign());
+		assertEquals("signature1", store.getSignature("storeCube", "definition1"));
+
+		assertEquals(true, CubeMaterializer.canAppend(new String[] { "SUM", null, "max" }));
+		assertEquals(false, CubeMaterializer.canAppend(new String[] { "SUM", "COUNT" }));
+	}
+
+	/**
+	 * Stored measures can not be aggregated by COUNT again.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test(expected = BirtException.class)
+	public void testAppendWithCount() throws IOException, BirtException {
+		createCube();
+		materializer.saveCubeToStore(store, "storeCube", "signature1", new StopSign());
+
+		DimensionForTest facts = new DimensionForTest(new String[] { "col1", "measure1" });
+		facts.setLevelMember(0, new int[] { 1 });
+		facts.setLevelMember(1, new int[] { 1 });
+		materializer.appendToStoredCube(store, "storeCube", "signature1", KEY_COLUMNS, KEY_COLUMNS,
+				(Map<String, IDatasetIterator>) null, facts, new String[] { "measure1" }, null,
+				new String[] { "COUNT" }, 0, new StopSign());
+	}
+
+	private void createCube() throws IOException, BirtException {
+		createCube(null);
+	}
+
+	private void createCube(String[] measureAggrFunctionNames) throws IOException, BirtException {
+		DimensionForTest iterator = new DimensionForTest(new String[] { "col1" });
+		iterator.setLevelMember(0, new int[] { 1, 2, 3 });
+		IHierarchy hierarchy = materializer.createHierarchy("dim1", "dim1", iterator,
+				new ILevelDefn[] { new LevelDefinition("level1", new String[] { "col1" }, null) }, new StopSign());
+		IDimension dimension = materializer.createDimension("dim1", hierarchy);
+
+		DimensionForTest facts = new DimensionForTest(new String[] { "col1", "measure1" });
+		facts.setLevelMember(0, new int[] { 1, 2, 3, 3 });
+		facts.setLevelMember(1, new int[] { 10, 20, 30, 40 });
+		materializer.createCube("storeCube", KEY_COLUMNS, KEY_COLUMNS, new IDimension[] { dimension }, facts,
+				new String[] { "measure1" }, null, measureAggrFunctionNames, 0, new StopSign());
+	}
+
+	private void assertFactTable(IDocumentManager manager, int memberCount, int rowCount, int measureSum)
+			throws IOException, BirtException {
+		Cube cube = new Cube("storeCube", manager);
+		cube.load(new StopSign());
+		Dimension dimension = (Dimension) cube.getDimesions()[0];
+		assertEquals(memberCount, dimension.length());
+
+		FactTableRowIterator iterator = new FactTableRowIterator(cube.getFactTable(), new String[] { "dim1" },
+				new IDiskArray[] { dimension.findAll() }, new StopSign());
+		int count = 0;
+		int sum = 0;
+		while (iterator.next()) {
+			count++;
+			sum += ((Number) iterator.getMeasure(0)).intValue();
+		}
+		iterator.close();
+		cube.close();
+		assertEquals(rowCount, count);
+		assertEquals(measureSum, sum);
+	}
+}
@@ -67,6 +67,7 @@ import org.eclipse.birt.data.engine.olap.data.impl.dimension.LevelDefinition;
 import org.eclipse.birt.data.engine.olap.data.util.BufferedPrimitiveDiskArray;
 import org.eclipse.birt.data.engine.olap.data.util.DataType;
 import org.eclipse.birt.data.engine.olap.data.util.IDiskArray;
+import org.eclipse.birt.data.engine.olap.data.util.SynchronizedDiskArray;
 import org.junit.Test;
 import org.mozilla.javascript.Context;
 import org.mozilla.javascript.ScriptableObject;
@@ -525,6 +526,349 @@ public class FactTableHelperTest2 extends BaseTestCase {
 		closeResultSets(resultSet);
 	}
 
+	/**
+	 * The fact table has several segments and the sort buffers are small, so that
+	 * the partitions are scanned, spilled and merged concurrently.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testParallelAggregationOverSegments() throws IOException, BirtException {
+		IDocumentManager documentManager = DocumentManagerFactory.createFileDocumentManager();
+
+		Dimension[] dimensions = new Dimension[2];
+		int[] members = new int[LargeFactTable.L1_COUNT];
+		for (int i = 0; i < members.length; i++) {
+			members[i] = i;
+		}
+		DimensionForTest iterator = new DimensionForTest(new String[] { "level11" });
+		iterator.setLevelMember(0, members);
+		dimensions[0] = (Dimension) DimensionFactory.createDimension("dimension1", documentManager, iterator,
+				new ILevelDefn[] { new LevelDefinition("level11", new String[] { "level11" }, null) }, false,
+				new StopSign());
+
+		members = new int[LargeFactTable.L2_COUNT];
+		for (int i = 0; i < members.length; i++) {
+			members[i] = i;
+		}
+		iterator = new DimensionForTest(new String[] { "level21" });
+		iterator.setLevelMember(0, members);
+		dimensions[1] = (Dimension) DimensionFactory.createDimension("dimension2", documentManager, iterator,
+				new ILevelDefn[] { new LevelDefinition("level21", new String[] { "level21" }, null) }, false,
+				new StopSign());
+
+		FactTableAccessor factTableConstructor = new FactTableAccessor(documentManager);
+		factTableConstructor.saveFactTable(NamingUtil.getFactTableName("parallelSegments"),
+				CubeUtility.getKeyColNames(dimensions), CubeUtility.getKeyColNames(dimensions), new LargeFactTable(),
+				dimensions, new String[] { "measure1" }, new StopSign());
+		FactTable factTable = factTableConstructor.load(NamingUtil.getFactTableName("parallelSegments"),
+				new StopSign());
+		assertTrue(factTable.getSegmentCount() > 3);
+
+		DimLevel dimLevel11 = new DimLevel("dimension1", "level11");
+		AggregationFunctionDefinition[] functions = {
+				new AggregationFunctionDefinition("measure1", IBuildInAggregation.TOTAL_SUM_FUNC) };
+		AggregationDefinition[] aggregations = {
+				new AggregationDefinition(new DimLevel[] { dimLevel11 }, new int[] { IDimensionSortDefn.SORT_ASC },
+						functions),
+				new AggregationDefinition(new DimLevel[] { dimLevel21 }, new int[] { IDimensionSortDefn.SORT_ASC },
+						functions) };
+
+		IAggregationResultSet[] serialResultSet = new AggregationExecutor(null,
+				createDataSet(factTable, dimensions, 1, 0), aggregations, 64 * 1024).execute(new StopSign());
+
+		IDataSet4Aggregation[] partitionDataSets = new IDataSet4Aggregation[3];
+		for (int i = 0; i < partitionDataSets.length; i++) {
+			partitionDataSets[i] = createDataSet(factTable, dimensions, partitionDataSets.length, i);
+		}
+		AggregationExecutor aggregationCalculatorExecutor = new AggregationExecutor(null, partitionDataSets[0],
+				aggregations, 64 * 1024);
+		aggregationCalculatorExecutor.setPartitionDataSets(partitionDataSets);
+		IAggregationResultSet[] resultSet = aggregationCalculatorExecutor.execute(new StopSign());
+
+		assertEquals(LargeFactTable.L1_COUNT, resultSet[0].length());
+		for (int i = 0; i < LargeFactTable.L1_COUNT; i++) {
+			resultSet[0].seek(i);
+			assertEquals(Integer.valueOf(i), resultSet[0].getLevelKeyValue(0)[0]);
+			// the rows i, i + L1_COUNT, i + 2 * L1_COUNT, ...
+			double sum = (double) LargeFactTable.L1_COUNT * LargeFactTable.L2_COUNT * (LargeFactTable.L2_COUNT - 1)
+					/ 2 + (double) i * LargeFactTable.L2_COUNT;
+			assertEquals(Double.valueOf(sum), resultSet[0].getAggregationValue(0));
+		}
+		for (int i = 0; i < resultSet.length; i++) {
+			assertEquals(serialResultSet[i].length(), resultSet[i].length());
+			for (int j = 0; j < resultSet[i].length(); j++) {
+				serialResultSet[i].seek(j);
+				resultSet[i].seek(j);
+				assertEquals(serialResultSet[i].getLevelKeyValue(0)[0], resultSet[i].getLevelKeyValue(0)[0]);
+				assertEquals(serialResultSet[i].getAggregationValue(0), resultSet[i].getAggregationValue(0));
+			}
+		}
+		closeResultSets(serialResultSet);
+		closeResultSets(resultSet);
+		documentManager.close();
+	}
+
+	private IDataSet4Aggregation createDataSet(FactTable factTable, Dimension[] dimensions, int partitionCount,
+			int partitionIndex) throws IOException, DataException {
+		String[] dimensionNames = { "dimension1", "dimension2" };
+		IDiskArray[] positions = { new SynchronizedDiskArray(dimensions[0].findAll()),
+				new SynchronizedDiskArray(dimensions[1].findAll()) };
+		FactTableRowIterator facttableRowIterator = new FactTableRowIterator(factTable, dimensionNames, positions,
+				null, null, partitionCount, partitionIndex, new StopSign());
+		DimensionResultIterator[] dimensionResultIterators = {
+				new DimensionResultIterator(dimensions[0], positions[0], new StopSign()),
+				new DimensionResultIterator(dimensions[1], positions[1], new StopSign()) };
+		return new DataSetFromOriginalCube(facttableRowIterator, dimensionResultIterators, null);
+	}
+
+	/**
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testParallelAggregation() throws IOException, BirtException {
+		IDocumentManager documentManager = DocumentManagerFactory.createFileDocumentManager();
+
+		testParallelAggregation(documentManager);
+
+		documentManager.close();
+	}
+
+	private void testParallelAggregation(IDocumentManager documentManager)
+			throws IOException, BirtException, DataException {
+		Dimension[] dimensions = new Dimension[3];
+
+		// dimension0
+		String[] levelNames = new String[3];
+		levelNames[0] = "level11";
+		levelNames[1] = "level12";
+		levelNames[2] = "level13";
+		DimensionForTest iterator = new DimensionForTest(levelNames);
+		iterator.setLevelMember(0, FactTable2.L1Col);
+		iterator.setLevelMember(1, FactTable2.L2Col);
+		iterator.setLevelMember(2, FactTable2.L3Col);
+
+		ILevelDefn[] levelDefs = new ILevelDefn[3];
+		levelDefs[0] = new LevelDefinition("level11", new String[] { "level11" }, null);
+		levelDefs[1] = new LevelDefinition("level12", new String[] { "level12" }, null);
+		levelDefs[2] = new LevelDefinition("level13", new String[] { "level13" }, null);
+		dimensions[0] = (Dimension) DimensionFactory.createDimension("dimension1", documentManager, iterator, levelDefs,
+				false, new StopSign());
+		IHierarchy hierarchy = dimensions[0].getHierarchy();
+		assertEquals(hierarchy.getName(), "dimension1");
+		assertEquals(dimensions[0].length(), FactTable2.L1Col.length);
+
+		// dimension1
+		levelNames = new String[1];
+		levelNames[0] = "level21";
+		iterator = new DimensionForTest(levelNames);
+		iterator.setLevelMember(0, distinct(FactTable2.L1Col));
+
+		levelDefs = new ILevelDefn[1];
+		levelDefs[0] = new LevelDefinition("level21", new String[] { "level21" }, null);
+		dimensions[1] = (Dimension) DimensionFactory.createDimension("dimension2", documentManager, iterator, levelDefs,
+				false, new StopSign());
+		hierarchy = dimensions[1].getHierarchy();
+		assertEquals(hierarchy.getName(), "dimension2");
+		assertEquals(dimensions[1].length(), 3);
+
+		// dimension2
+		levelNames = new String[1];
+		levelNames[0] = "level31";
+
+		iterator = new DimensionForTest(levelNames);
+		iterator.setLevelMember(0, FactTable2.L3Col);
+
+		levelDefs = new ILevelDefn[1];
+		levelDefs[0] = new LevelDefinition("level31", new String[] { "level31" }, null);
+		dimensions[2] = (Dimension) DimensionFactory.createDimension("dimension3", documentManager, iterator, levelDefs,
+				false, new StopSign());
+		hierarchy = dimensions[2].getHierarchy();
+		assertEquals(hierarchy.getName(), "dimension3");
+		assertEquals(dimensions[2].length(), 12);
+
+		FactTable2 factTable2 = new FactTable2();
+		String[] measureColumnName = new String[2];
+		measureColumnName[0] = "measure1";
+		measureColumnName[1] = "measure2";
+		FactTableAccessor factTableConstructor = new FactTableAccessor(documentManager);
+		FactTable factTable = factTableConstructor.saveFactTable(NamingUtil.getFactTableName("parallelThreeDimensions"),
+				CubeUtility.getKeyColNames(dimensions), CubeUtility.getKeyColNames(dimensions), factTable2, dimensions,
+				measureColumnName, new StopSign());
+		factTable = factTableConstructor.load(NamingUtil.getFactTableName("parallelThreeDimensions"), new StopSign());
+		ILevel[] level = dimensions[1].getHierarchy().getLevels();
+
+		ISelection[][] filter = new ISelection[1][1];
+		filter[0][0] = SelectionFactory.createRangeSelection(new Object[] { new Integer(1) },
+				new Object[] { new Integer(3) }, true, false);
+		Level[] findLevel = new Level[1];
+		findLevel[0] = (Level) level[0];
+
+		IDiskArray[] positionForFilter;
+		positionForFilter = new IDiskArray[2];
+
+		IDiskArray positionArray = dimensions[1].find(findLevel, filter);
+		positionForFilter[0] = positionArray;
+		assertEquals(positionArray.size(), 2);
+		positionArray = dimensions[2].findAll();
+
+		String[] dimensionNamesForFilter = new String[2];
+		dimensionNamesForFilter[0] = "dimension2";
+		dimensionNamesForFilter[1] = "dimension3";
+
+		positionForFilter[1] = positionArray;
+		positionForFilter[0] = new SynchronizedDiskArray(positionForFilter[0]);
+		positionForFilter[1] = new SynchronizedDiskArray(positionForFilter[1]);
+		AggregationDefinition[] aggregations = new AggregationDefinition[2];
+		int[] sortType = new int[1];
+		sortType[0] = IDimensionSortDefn.SORT_ASC;
+		DimLevel[] levelsForFilter = { dimLevel21 };
+		AggregationFunctionDefinition[] funcitons = new AggregationFunctionDefinition[1];
+		funcitons[0] = new AggregationFunctionDefinition("measure1", IBuildInAggregation.TOTAL_SUM_FUNC);
+		aggregations[0] = new AggregationDefinition(levelsForFilter, sortType, funcitons);
+		sortType = new int[1];
+		sortType[0] = IDimensionSortDefn.SORT_ASC;
+		levelsForFilter = new DimLevel[] { dimLevel31 };
+		aggregations[1] = new AggregationDefinition(levelsForFilter, sortType, funcitons);
+		IDataSet4Aggregation[] partitionDataSets = new IDataSet4Aggregation[3];
+		for (int i = 0; i < partitionDataSets.length; i++) {
+			FactTableRowIterator facttableRowIterator = new FactTableRowIterator(factTable, dimensionNamesForFilter,
+					positionForFilter, null, null, partitionDataSets.length, i, new StopSign());
+			DimensionResultIterator[] partitionResultSets = new DimensionResultIterator[2];
+			partitionResultSets[0] = new DimensionResultIterator(dimensions[1], positionForFilter[0], new StopSign());
+			partitionResultSets[1] = new DimensionResultIterator(dimensions[2], positionForFilter[1], new StopSign());
+			partitionDataSets[i] = new DataSetFromOriginalCube(facttableRowIterator, partitionResultSets, null);
+		}
+		AggregationExecutor aggregationCalculatorExecutor = new AggregationExecutor(null, partitionDataSets[0],
+				aggregations, 10 * 1024 * 1024);
+		aggregationCalculatorExecutor.setPartitionDataSets(partitionDataSets);
+		IAggregationResultSet[] resultSet = aggregationCalculatorExecutor.execute(new StopSign());
+		assertEquals(resultSet[0].length(), 2);
+		assertEquals(resultSet[0].getAggregationDataType(0), DataType.DOUBLE_TYPE);
+		assertEquals(resultSet[0].getLevelIndex(dimLevel21), 0);
+		assertEquals(resultSet[0].getLevelKeyDataType(dimLevel21, "level21"), DataType.INTEGER_TYPE);
+		resultSet[0].seek(0);
+		assertEquals(resultSet[0].getLevelKeyValue(0)[0], new Integer(1));
+		assertEquals(resultSet[0].getAggregationValue(0), new Double(6));
+		resultSet[0].seek(1);
+		assertEquals(resultSet[0].getLevelKeyValue(0)[0], new Integer(2));
+		assertEquals(resultSet[0].getAggregationValue(0), new Double(22));
+
+		assertEquals(resultSet[1].length(), 8);
+		assertEquals(resultSet[1].getAggregationDataType(0), DataType.DOUBLE_TYPE);
+		assertEquals(resultSet[1].getLevelIndex(dimLevel31), 0);
+		assertEquals(resultSet[1].getLevelKeyDataType(dimLevel31, "level31"), DataType.INTEGER_TYPE);
+		resultSet[1].seek(0);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(1));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(0));
+		resultSet[1].seek(1);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(2));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(1));
+		resultSet[1].seek(2);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(3));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(2));
+		resultSet[1].seek(3);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(4));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(3));
+		resultSet[1].seek(4);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(5));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(4));
+		resultSet[1].seek(5);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(6));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(5));
+		resultSet[1].seek(6);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(7));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(6));
+		resultSet[1].seek(7);
+		assertEquals(resultSet[1].getLevelKeyValue(0)[0], new Integer(8));
+		assertEquals(resultSet[1].getAggregationValue(0), new Double(7));
+		closeResultSets(resultSet);
+	}
+
+	/**
+	 * The rows read through the bitmap index are the ones read without it.
+	 *
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+	public void testBitmapIndexedScan() throws IOException, BirtException {
+		IDocumentManager documentManager = DocumentManagerFactory.createFileDocumentManager();
+		Dimension[] dimensions = new Dimension[2];
+		int[] members = new int[100];
+		for (int i = 0; i < members.length; i++) {
+			members[i] = i;
+		}
+		DimensionForTest iterator = new DimensionForTest(new String[] { "level11" });
+		iterator.setLevelMember(0, members);
+		dimensions[0] = (Dimension) DimensionFactory.createDimension("dimension1", documentManager, iterator,
+				new ILevelDefn[] { new LevelDefinition("level11", new String[] { "level11" }, null) }, false,
+				new StopSign());
+		iterator = new DimensionForTest(new String[] { "level21" });
+		iterator.setLevelMember(0, Arrays.copyOf(members, 50));
+		dimensions[1] = (Dimension) DimensionFactory.createDimension("dimension2", documentManager, iterator,
+				new ILevelDefn[] { new LevelDefinition("level21", new String[] { "level21" }, null) }, false,
+				new StopSign());
+
+		int[] level11 = new int[20000];
+		int[] level21 = new int[level11.length];
+		int[] measure1 = new int[level11.length];
+		for (int i = 0; i < level11.length; i++) {
+			level11[i] = i % 100;
+			level21[i] = (i / 100) % 50;
+			measure1[i] = i % 7;
+		}
+		String[] factTableNames = { "plainTwoDimensions", "indexedTwoDimensions" };
+		for (int i = 0; i < factTableNames.length; i++) {
+			DimensionForTest facts = new DimensionForTest(new String[] { "level11", "level21", "measure1" });
+			facts.setLevelMember(0, level11);
+			facts.setLevelMember(1, level21);
+			facts.setLevelMember(2, measure1);
+			FactTableAccessor factTableConstructor = new FactTableAccessor(documentManager);
+			factTableConstructor.setBuildBitmapIndex(i == 1);
+			factTableConstructor.saveFactTable(factTableNames[i], CubeUtility.getKeyColNames(dimensions),
+					CubeUtility.getKeyColNames(dimensions), facts, dimensions, new String[] { "measure1" },
+					new StopSign());
+		}
+
+		int[][] selections = { { 3, 40, 41, 97 }, { 5, 6, 7, 8, 9 } };
+		int[] expected = new int[2];
+		for (int i = 0; i < level11.length; i++) {
+			if (Arrays.binarySearch(selections[0], level11[i]) >= 0
+					&& Arrays.binarySearch(selections[1], level21[i]) >= 0) {
+				expected[0]++;
+				expected[1] += measure1[i];
+			}
+		}
+		for (int i = 0; i < factTableNames.length; i++) {
+			FactTable factTable = new FactTableAccessor(documentManager).load(factTableNames[i], new StopSign());
+			IDiskArray[] dimensionPosition = new IDiskArray[2];
+			for (int j = 0; j < dimensionPosition.length; j++) {
+				dimensionPosition[j] = new BufferedPrimitiveDiskArray();
+				for (int k = 0; k < selections[j].length; k++) {
+					dimensionPosition[j].add(Integer.valueOf(selections[j][k]));
+				}
+			}
+			FactTableRowIterator facttableRowIterator = new FactTableRowIterator(factTable,
+					new String[] { "dimension1", "dimension2" }, dimensionPosition, new StopSign());
+			int count = 0;
+			int sum = 0;
+			while (facttableRowIterator.next()) {
+				assertTrue(Arrays.binarySearch(selections[0], facttableRowIterator.getDimensionPosition(0)) >= 0);
+				assertTrue(Arrays.binarySearch(selections[1], facttableRowIterator.getDimensionPosition(1)) >= 0);
+				count++;
+				sum += ((Integer) facttableRowIterator.getMeasure(0)).intValue();
+			}
+			facttableRowIterator.close();
+			assertEquals(expected[0], count);
+			assertEquals(expected[1], sum);
+		}
+		documentManager.close();
+	}
+
 	/**
 	 *
 	 * @throws IOException
@@ -1321,3 +1665,57 @@ class FactTable2 implements IDatasetIterator {
 		return true;
 	}
 }
+
+/**
+ * A fact table of several segments: every pair of level11 and level21 members
+ * has one row, whose measure is the row number.
+ */
+class LargeFactTable implements IDatasetIterator {
+
+	static final int L1_COUNT = 10;
+	static final int L2_COUNT = 1000;
+
+	int ptr = -1;
+
+	@Override
+	public void close() throws BirtException {
+	}
+
+	@Override
+	public int getFieldIndex(String name) throws BirtException {
+		if (name.equals("level11")) {
+			return 0;
+		} else if (name.equals("level21")) {
+			return 1;
+		} else if (name.equals("measure1")) {
+			return 2;
+		}
+		return -1;
+	}
+
+	@Override
+	public int getFieldType(String name) throws BirtException {
+		if (name.equals("level11") || name.equals("level21") || name.equals("measure1")) {
+			return DataType.INTEGER_TYPE;
+		}
+		return -1;
+	}
+
+	@Override
+	public Object getValue(int fieldIndex) throws BirtException {
+		if (fieldIndex == 0) {
+			return Integer.valueOf(ptr % L1_COUNT);
+		} else if (fieldIndex == 1) {
+			return Integer.valueOf(ptr / L1_COUNT);
+		} else if (fieldIndex == 2) {
+			return Integer.valueOf(ptr);
+		}
+		return null;
+	}
+
+	@Override
+	public boolean next() throws BirtException {
+		ptr++;
+		return ptr < L1_COUNT * L2_COUNT;
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.perf;
+
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.engine.api.APITestCase;
+import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
+import org.eclipse.birt.data.engine.api.IBaseDataSourceDesign;
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.QueryDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import testutil.ConfigText;
+
+/**
+ * Test bench mark of the approximate aggregations against the exact ones by
+ * using DtE API. The accuracy of the approximate aggregations is tested in
+ * ApproxAggregationTest.
+ */
+@Ignore("Ignore performance test")
+public class ApproxAggregationPerfTest extends APITestCase {
+	/** instance of performance test utility */
+	private APIPerfTestUtil perfTest = APIPerfTestUtil.newInstance();
+
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#getDataSourceInfo()
+	 */
+	@Override
+	protected DataSourceInfo getDataSourceInfo() {
+		return new DataSourceInfo(ConfigText.getString("Api.TestData2.TableName"),
+				ConfigText.getString("Api.TestData2.TableSQL"), ConfigText.getString("Api.TestData2.TestDataFileName"));
+	}
+
+	/**
+	 * Test count distinct
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testCountDistinct() throws Exception {
+		System.out.println("time bench mark of exact count distinct");
+		perfTest.setQueryInfo(getQueryInfo(IBuildInAggregation.TOTAL_COUNTDISTINCT_FUNC, null));
+		perfTest.runTimeBenchMark(true);
+
+		System.out.println("time bench mark of approximate count distinct");
+		perfTest.setQueryInfo(getQueryInfo(IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC, null));
+		perfTest.runTimeBenchMark(true);
+	}
+
+	/**
+	 * Test percentile
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testPercentile() throws Exception {
+		System.out.println("time bench mark of exact percentile");
+		perfTest.setQueryInfo(getQueryInfo(IBuildInAggregation.TOTAL_PERCENTILE_FUNC, "0.99"));
+		perfTest.runTimeBenchMark(true);
+
+		System.out.println("time bench mark of approximate percentile");
+		perfTest.setQueryInfo(getQueryInfo(IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC, "0.99"));
+		perfTest.runTimeBenchMark(true);
+	}
+
+	/**
+	 * Test median
+	 *
+	 * @throws Exception
+	 */
+	@Test
+	public void testMedian() throws Exception {
+		System.out.println("time bench mark of exact median");
+		perfTest.setQueryInfo(getQueryInfo(IBuildInAggregation.TOTAL_MEDIAN_FUNC, null));
+		perfTest.runTimeBenchMark(true);
+
+		System.out.println("time bench mark of approximate median");
+		perfTest.setQueryInfo(getQueryInfo(IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC, null));
+		perfTest.runTimeBenchMark(true);
+	}
+
+	/**
+	 * @param aggrFunction name of the aggregation
+	 * @param argument     expression of the second argument, or null
+	 * @return query info which aggregates the columns of the data set
+	 */
+	private QueryInfo getQueryInfo(final String aggrFunction, final String argument) {
+		return new QueryInfo() {
+
+			@Override
+			public IBaseDataSourceDesign getDataSource() {
+				return dataSource;
+			}
+
+			@Override
+			public IBaseDataSetDesign getDataSet() {
+				return dataSet;
+			}
+
+			@Override
+			public QueryDefinition getQueryDefn() throws Exception {
+				QueryDefinition queryDefn = newReportQuery();
+				queryDefn.addBinding(new Binding("ID", new ScriptExpression("dataSetRow.ID")));
+				String[] columns = { "AMOUNT1", "AMOUNT2" };
+				for (int i = 0; i < columns.length; i++) {
+					Binding binding = new Binding("AGGR_" + columns[i],
+							new ScriptExpression("dataSetRow." + columns[i]));
+					binding.setAggrFunction(aggrFunction);
+					if (argument != null) {
+						binding.addArgument(new ScriptExpression(argument));
+					}
+					queryDefn.addBinding(binding);
+				}
+				return queryDefn;
+			}
+
+			@Override
+			public String[] getExprNames() {
+				return new String[] { "ID", "AGGR_AMOUNT1", "AGGR_AMOUNT2" };
+			}
+		};
+	}
+
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.archive.FolderArchiveWriter;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ConditionalExpression;
+import org.eclipse.birt.data.engine.api.querydefn.FilterDefinition;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.impl.document.DataSetIndexFactory;
+import org.eclipse.birt.data.engine.impl.document.QueryResultInfo;
+import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
+import org.eclipse.birt.data.engine.impl.document.viewing.ExprMetaUtil;
+import org.eclipse.birt.data.engine.impl.document.viewing.IDataSetResultSet;
+import org.eclipse.birt.data.engine.impl.index.BitmapOrderedIntSet;
+import org.eclipse.birt.data.engine.impl.index.IOrderedIntSet;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+
+public class ColumnarDataSetStoreTest {
+	private static final String[] CITIES = { "Boston", "Paris", null, "Tokyo", "Paris" };
+	// more than two blocks
+	private static final int ROW_COUNT = 10000;
+
+	private FolderArchiveWriter writer;
+	private StreamManager manager;
+	private File folder;
+	private IResultClass resultClass;
+	private Map<String, String> appContext;
+
+	@Before
+	public void setUp() throws IOException, BirtException {
+		folder = File.createTempFile("ColumnarDataSetStoreTest", "");
+		folder.delete();
+		writer = new FolderArchiveWriter(folder.getPath());
+		writer.initialize();
+		DataEngineContext context = DataEngineContext.newInstance(DataEngineContext.MODE_GENERATION, null, null,
+				writer);
+		manager = new StreamManager(context, new QueryResultInfo("QuRs0", null, 0));
+
+		List<ResultFieldMetadata> fields = new ArrayList<>();
+		fields.add(new ResultFieldMetadata(1, "ID", null, Integer.class, null, false));
+		fields.add(new ResultFieldMetadata(2, "CITY", null, String.class, null, false));
+		fields.add(new ResultFieldMetadata(3, "AMOUNT", null, Double.class, null, false));
+		fields.add(new ResultFieldMetadata(4, "DAY", null, Date.class, null, false));
+		fields.add(new ResultFieldMetadata(5, "PRICE", null, BigDecimal.class, null, false));
+		resultClass = new ResultClass(fields);
+
+		appContext = new HashMap<>();
+		appContext.put(DataEngine.DATA_SET_COLUMNAR_STORE, "true");
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		writer.finish();
+		delete(folder);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws BirtException {
+		save(0, ROW_COUNT);
+
+		IDataSetReader reader = DataSetStore.createReader(manager, resultClass, true, appContext);
+		IDataSetResultSet rs = reader.load(null);
+		assertEquals(ROW_COUNT, rs.getRowCount());
+		assertEquals(ExprMetaUtil.POS_NAME, rs.getResultClass().getFieldName(6));
+		for (int i = 0; i < ROW_COUNT; i++) {
+			IResultObject row = rs.next();
+			assertRow(i, row);
+			assertEquals(Integer.valueOf(i), row.getFieldValue(6));
+		}
+		assertNull(rs.next());
+		rs.close();
+	}
+
+	@Test
+	public void testProjection() throws BirtException {
+		save(0, ROW_COUNT);
+
+		List<ResultFieldMetadata> fields = new ArrayList<>();
+		fields.add(new ResultFieldMetadata(1, "PRICE", null, BigDecimal.class, null, false));
+		fields.add(new ResultFieldMetadata(2, "CITY", null, String.class, null, false));
+		IDataSetReader reader = DataSetStore.createReader(manager, new ResultClass(fields), false, appContext);
+
+		CompressedBitmap bitmap = new CompressedBitmap();
+		bitmap.add(3);
+		bitmap.add(4500);
+		bitmap.add(9999);
+		IDataSetResultSet rs = reader.load(new BitmapOrderedIntSet(bitmap));
+		assertEquals(3, rs.getRowCount());
+		assertEquals(2, rs.getResultClass().getFieldCount());
+		for (int i : new int[] { 3, 4500, 9999 }) {
+			IResultObject row = rs.next();
+			assertEquals(BigDecimal.valueOf(i, 2), row.getFieldValue(1));
+			assertEquals(CITIES[i % CITIES.length], row.getFieldValue(2));
+		}
+		assertNull(rs.next());
+		rs.close();
+	}
+
+	@Test
+	public void testCandidateRows() throws BirtException {
+		save(0, ROW_COUNT);
+
+		ColumnarDataSetReader reader = (ColumnarDataSetReader) DataSetStore.createReader(manager, resultClass, false,
+				appContext);
+		// the second block only
+		IOrderedIntSet rows = reader.getCandidateRows("ID", Integer.valueOf(5000), Integer.valueOf(6000));
+		assertEquals(ColumnarDataSetWriter.BLOCK_SIZE, rows.size());
+		assertTrue(reader.getCandidateRows("ID", Integer.valueOf(ROW_COUNT), null).isEmpty());
+		assertEquals(ROW_COUNT, reader.getCandidateRows("CITY", "Paris", "Paris").size());
+		assertTrue(reader.getCandidateRows("CITY", "Zurich", null).isEmpty());
+		reader.close();
+	}
+
+	@Test
+	public void testPreFilteredRowIds() throws BirtException {
+		save(0, ROW_COUNT);
+
+		List<IFilterDefinition> filters = new ArrayList<>();
+		filters.add(new FilterDefinition(new ConditionalExpression("dataSetRow[\"ID\"]",
+				IConditionalExpression.OP_BETWEEN, "5000", "6000")));
+		// the second block only
+		assertEquals(ColumnarDataSetWriter.BLOCK_SIZE,
+				DataSetIndexFactory.getPreFilteredRowIds(manager, resultClass, filters, null).size());
+
+		// the amount 10 is in the first block
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"AMOUNT\"]", IConditionalExpression.OP_EQ, "10")));
+		assertTrue(DataSetIndexFactory.getPreFilteredRowIds(manager, resultClass, filters, null).isEmpty());
+
+		filters.clear();
+		filters.add(new FilterDefinition(new ConditionalExpression("dataSetRow[\"ID\"]", IConditionalExpression.OP_IN,
+				Arrays.asList("1", "9999"))));
+		assertEquals(ROW_COUNT, DataSetIndexFactory.getPreFilteredRowIds(manager, resultClass, filters, null).size());
+
+		// filters which are not looked up
+		filters.clear();
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"ID\"]", IConditionalExpression.OP_GT, "5000")));
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"CITY\"]", IConditionalExpression.OP_EQ, "'Zurich'")));
+		filters.add(new FilterDefinition(
+				new ConditionalExpression("dataSetRow[\"AMOUNT\"]", IConditionalExpression.OP_EQ, "1.5")));
+		assertNull(DataSetIndexFactory.getPreFilteredRowIds(manager, resultClass, filters, null));
+	}
+
+	@Test
+	public void testUpdate() throws BirtException {
+		save(0, ROW_COUNT);
+		IDataSetUpdater updater = DataSetStore.createUpdater(manager, resultClass, null, null, null, null, null,
+				ROW_COUNT);
+		for (int i = ROW_COUNT; i < ROW_COUNT + 100; i++) {
+			updater.save(createRow(i), i);
+		}
+		updater.close();
+
+		IDataSetReader reader = DataSetStore.createReader(manager, resultClass, false, appContext);
+		IDataSetResultSet rs = reader.load(null);
+		assertEquals(ROW_COUNT + 100, rs.getRowCount());
+		for (int i = 0; i < ROW_COUNT + 100; i++) {
+			assertRow(i, rs.next());
+		}
+		rs.close();
+	}
+
+	@Test
+	public void testNotColumnar() throws BirtException {
+		assertFalse(DataSetStore.isColumnarStore(new HashMap<String, String>()));
+		assertNull(DataSetStore.createWriter(manager, resultClass, null, null, null));
+		assertNull(DataSetStore.createReader(manager, resultClass, false, appContext));
+		assertNull(DataSetStore.createUpdater(manager, resultClass, appContext, null, null, null, null, 0));
+	}
+
+	private void save(int from, int to) throws BirtException {
+		IDataSetWriter dataSetWriter = DataSetStore.createWriter(manager, resultClass, appContext, null, null);
+		for (int i = from; i < to; i++) {
+			dataSetWriter.save(createRow(i), i);
+		}
+		dataSetWriter.close();
+	}
+
+	private IResultObject createRow(int i) {
+		return new ResultObject(resultClass,
+				new Object[] { Integer.valueOf(i), CITIES[i % CITIES.length],
+						i % 7 == 0 ? null : Double.valueOf(i / 4.0), new Date(1000000000000L + i / 10 * 86400000L),
+						BigDecimal.valueOf(i, 2) });
+	}
+
+	private void assertRow(int i, IResultObject row) throws BirtException {
+		IResultObject expectedRow = createRow(i);
+		for (int j = 0; j < 5; j++) {
+			assertEquals(expectedRow.getFieldValue(j + 1), row.getFieldValue(j + 1));
+		}
+	}
+
+	private static void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -161,6 +161,63 @@ abstract public class DataEngine {
 	 */
 	public static String IN_MEMORY_CUBE_SIZE = "org.eclipse.birt.data.engine.cube.inmemory.size";
 
+	/**
+	 * The number of workers which scan the fact table of a cube in parallel when
+	 * the cube aggregations are computed. Each worker aggregates a part of the
+	 * fact table segments and the partial results are merged at the end. Zero or
+	 * one disables the parallel scan, which is the default.
+	 */
+	public static String CUBE_AGGREGATION_PARALLELISM = "org.eclipse.birt.data.engine.olap.aggregation.parallelism";
+
+	/**
+	 * The directory of a persistent cube store. When it is set, a materialized
+	 * cube is saved to the store, and later runs with the same cube definition
+	 * and parameter values load it from there instead of materializing it
+	 * again.
+	 */
+	public static String CUBE_STORE_PATH = "org.eclipse.birt.data.engine.olap.cube.store.path";
+
+	/**
+	 * Whether the rows of a refresh are appended to the stored cube, "true" or
+	 * "false". When it is "true", a cube which is in the store under
+	 * CUBE_STORE_PATH with the same definition gets the rows returned by its data
+	 * sets appended, instead of being rebuilt when the parameter values change;
+	 * the parameter values are not compared, and the appended cube keeps the
+	 * signature it has been stored with. Cubes with an automatic primary key, or
+	 * with measure aggregations other than SUM, MAX and MIN, are not appended
+	 * to. The default is "false".
+	 */
+	public static String CUBE_STORE_APPEND = "org.eclipse.birt.data.engine.olap.cube.store.append";
+
+	/**
+	 * Whether a bitmap index is built for the fact tables of the materialized
+	 * cubes, "true" or "false". The index costs one more pass over the fact table
+	 * when the cube is created, and lets queries which select a few members of a
+	 * dimension skip the other fact table rows without reading them. The default
+	 * is "false".
+	 */
+	public static String CUBE_BITMAP_INDEX = "org.eclipse.birt.data.engine.olap.cube.bitmapIndex";
+
+	/**
+	 * The maximum number of cube hierarchies which are written at the same time
+	 * when a cube is materialized, as an integer. The dimension data sets are
+	 * still executed one after another on the calling thread, since they run in
+	 * its script scope; the hierarchies of the data sets already read are sorted
+	 * and written by up to this many workers. An empty value, "auto" or a number
+	 * below 1 uses one worker per available processor. If the option is not set,
+	 * the hierarchies are built one after another.
+	 */
+	public static String CUBE_HIERARCHY_PARALLELISM = "org.eclipse.birt.data.engine.olap.cube.hierarchyParallelism";
+
+	/**
+	 * Whether the data set rows are saved in the report document column by
+	 * column, "true" or "false". The columns are saved in compressed blocks with
+	 * the minimum and maximum values of each block, so the document is smaller
+	 * and readers can skip the columns and blocks they do not need. Documents
+	 * saved this way can not be read by older versions. The default is "false".
+	 */
+	public static String DATA_SET_COLUMNAR_STORE = "org.eclipse.birt.data.engine.dataset.columnarStore";
+
 	/**
 	 * Creates a new instance of DataEngine, using the specified DataEngineContext
 	 * as its running environment
@@ -115,6 +115,9 @@ public class DataEngineContext {
 
 	public final static int DATASET_DATA_LEN_STREAM = 23;
 
+	// data set data saved column by column
+	public final static int DATASET_COLUMNAR_STREAM = 24;
+
 	public final static int EXPR_VALUE_STREAM = 31;
 
 	public final static int EXPR_META_STREAM = 32;
@@ -659,6 +662,9 @@ public class DataEngineContext {
 		case DATASET_DATA_LEN_STREAM:
 			relativePath = "DataSetLens"; //$NON-NLS-1$
 			break;
+		case DATASET_COLUMNAR_STREAM:
+			relativePath = "DataSetColumns"; //$NON-NLS-1$
+			break;
 		case EXPR_VALUE_STREAM:
 			relativePath = "ExprValue"; //$NON-NLS-1$
 			break;
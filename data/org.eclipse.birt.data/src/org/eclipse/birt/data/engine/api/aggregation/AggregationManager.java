@@ -58,7 +58,7 @@ public class AggregationManager {
 	 * allowed aggregation function names in x-tab
 	 */
 	private static String[] xTabAggrNames = { "SUM", "AVE", "MAX", "MIN", "FIRST", "LAST", "COUNT", "COUNTDISTINCT",
-			"MEDIAN", "MODE", "STDDEV", "VARIANCE", "RANGE",
+			"MEDIAN", "MODE", "STDDEV", "VARIANCE", "RANGE", "APPROXCOUNTDISTINCT", "APPROXPERCENTILE", "APPROXMEDIAN",
 			// "RANK",
 			// "RUNNINGSUM"
 	};
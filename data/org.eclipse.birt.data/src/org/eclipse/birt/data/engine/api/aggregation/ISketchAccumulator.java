@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.api.aggregation;
+
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * An accumulator of an approximate aggregation. The sketch it has built can be
+ * merged into another accumulator of the same aggregation, so that the
+ * aggregation of a group can be rolled up from the sketches of its sub groups
+ * without reading their rows again.
+ */
+
+public interface ISketchAccumulator {
+
+	/**
+	 *
+	 * @return the serialized sketch of the values accumulated since start()
+	 * @throws DataException
+	 */
+	byte[] getSketch() throws DataException;
+
+	/**
+	 * Merges the sketch of a sub group, as if its values had been passed to
+	 * onRow().
+	 *
+	 * @param args the argument values as they are passed to onRow(), except that
+	 *             the first one is a sketch returned by getSketch()
+	 * @return false if the first argument is not a sketch of the kind of this
+	 *         accumulator, in which case nothing is merged
+	 * @throws DataException
+	 */
+	boolean mergeSketch(Object[] args) throws DataException;
+}
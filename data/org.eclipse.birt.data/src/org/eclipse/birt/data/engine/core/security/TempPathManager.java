@@ -31,6 +31,10 @@ public class TempPathManager {
 		}
 	}
 
+	public String getTempPath() {
+		return this.tmpPath;
+	}
+
 	public String getTempFileName(String fileNamePrefix, int objectID, String extName) {
 		checkTempDir();
 		if (extName == null || extName.equals("")) {
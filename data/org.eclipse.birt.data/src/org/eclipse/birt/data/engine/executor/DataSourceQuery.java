@@ -29,6 +29,7 @@ import java.util.logging.Logger;
 
 import org.eclipse.birt.core.data.DataType;
 import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.data.QueryPushDown;
 import org.eclipse.birt.data.engine.api.DataEngineContext;
 import org.eclipse.birt.data.engine.api.IColumnDefinition;
 import org.eclipse.birt.data.engine.api.IOdaDataSetDesign;
@@ -498,6 +499,10 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
 		Iterator<Entry<String, Object>> iter = propertyMap.entrySet().iterator();
 		while (iter.hasNext()) {
 			Entry<String, Object> property = iter.next();
+			if (property.getValue() instanceof QueryPushDown) {
+				// only given to the driver in the query specification
+				continue;
+			}
 			String value = (property.getValue() == null) ? null : property.getValue().toString();
 			odaStatement.setProperty(property.getKey(), value);
 		}
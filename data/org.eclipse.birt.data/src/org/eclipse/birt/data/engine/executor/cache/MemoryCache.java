@@ -17,7 +17,6 @@ package org.eclipse.birt.data.engine.executor.cache;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -56,7 +55,7 @@ public class MemoryCache implements ResultSetCache {
 		this.countOfResult = resultObjects.length;
 
 		if (comparator != null) {
-			Arrays.sort(this.resultObjects, comparator);
+			SortKeyComparator.sort(this.resultObjects, comparator);
 		}
 	}
 
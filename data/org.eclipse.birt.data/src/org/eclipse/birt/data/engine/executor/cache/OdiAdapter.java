@@ -18,6 +18,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.data.StringValueConverter;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ResultObject;
@@ -68,6 +69,10 @@ public class OdiAdapter {
 
 	private Set columnIndexListForTypeConvert = null;
 
+	// the converters of the string values of the columns, which remember the
+	// formats of the values
+	private StringValueConverter[] stringValueConverters;
+
 	/**
 	 * Construction
 	 *
@@ -85,6 +90,7 @@ public class OdiAdapter {
 								.getDriverProvidedDataType())) {
 					if (columnIndexListForTypeConvert == null) {
 						columnIndexListForTypeConvert = new HashSet();
+						stringValueConverters = new StringValueConverter[resultClass.getFieldCount() + 1];
 					}
 					columnIndexListForTypeConvert.add(Integer.valueOf(i));
 				}
@@ -168,8 +174,17 @@ public class OdiAdapter {
 		for (int i = 1; i <= resultClass.getFieldCount(); i++) {
 			if (columnIndexListForTypeConvert.contains(i)) {
 				try {
-					obj[i - 1] = DataTypeUtil.convert(resultObject.getFieldValue(i),
-							DataTypeUtil.toApiDataType(resultClass.getFieldMetaData(i).getDataType()));
+					Object value = resultObject.getFieldValue(i);
+					int dataType = DataTypeUtil.toApiDataType(resultClass.getFieldMetaData(i).getDataType());
+					Object convertedValue = null;
+					if (value instanceof String) {
+						if (stringValueConverters[i] == null) {
+							stringValueConverters[i] = new StringValueConverter();
+						}
+						convertedValue = stringValueConverters[i].convert((String) value, dataType);
+					}
+					// DataTypeUtil reports the values the converter can not convert
+					obj[i - 1] = convertedValue != null ? convertedValue : DataTypeUtil.convert(value, dataType);
 				} catch (BirtException e) {
 					throw DataException.wrap(e);
 				}
@@ -29,7 +29,6 @@ import org.eclipse.birt.data.engine.odaconsumer.ResultSet;
 import org.eclipse.birt.data.engine.odi.IEventHandler;
 import org.eclipse.birt.data.engine.odi.IResultClass;
 import org.eclipse.birt.data.engine.odi.IResultObject;
-import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 
 /**
  * Help SmartCache to get the ResultSetCache, the real data cache.
@@ -340,60 +339,11 @@ class SmartCacheHelper {
 			return null;
 		}
 
-		final int[] sortKeyIndexes = sortSpec.getSortKeyIndexes();
-		final String[] sortKeyColumns = sortSpec.getSortKeyColumns();
-
+		int[] sortKeyIndexes = sortSpec.getSortKeyIndexes();
 		if (sortKeyIndexes == null || sortKeyIndexes.length == 0) {
 			return null;
 		}
 
-		final int[] sortAscending = sortSpec.getSortAscending();
-		final CompareHints[] comparators = sortSpec.getComparator();
-		Comparator comparator = new Comparator() {
-
-			/**
-			 * compares two row indexes, actually compares two rows pointed by the two row
-			 * indexes
-			 */
-			@Override
-			public int compare(Object obj1, Object obj2) {
-				IResultObject row1 = (IResultObject) obj1;
-				IResultObject row2 = (IResultObject) obj2;
-
-				// compare group keys first
-				for (int i = 0; i < sortKeyIndexes.length; i++) {
-					int colIndex = sortKeyIndexes[i];
-					String colName = sortKeyColumns[i];
-					try {
-						Object colObj1 = null;
-						Object colObj2 = null;
-
-						if (eventHandler != null) {
-							colObj1 = eventHandler.getValue(row1, colIndex, colName);
-							colObj2 = eventHandler.getValue(row2, colIndex, colName);
-						} else {
-							colObj1 = row1.getFieldValue(colIndex);
-							colObj2 = row2.getFieldValue(colIndex);
-						}
-
-						int result = ScriptEvalUtil.compare(colObj1, colObj2, comparators[i]);
-						if (result != 0) {
-							if (sortAscending[i] == SortSpec.SORT_DISABLE) {
-								return 0;
-							}
-							return sortAscending[i] == SortSpec.SORT_ASC ? result : -result;
-						}
-					} catch (DataException e) {
-						// Should never get here
-						// colIndex is always valid
-					}
-				}
-
-				// all equal, so return 0
-				return 0;
-			}
-		};
-
-		return comparator;
+		return new SortKeyComparator(sortSpec, eventHandler);
 	}
 }
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.executor.cache;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+
+import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.expression.CompareHints;
+import org.eclipse.birt.data.engine.odi.IEventHandler;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
+
+import com.ibm.icu.text.CollationKey;
+import com.ibm.icu.text.Collator;
+
+/**
+ * Compares the rows of a result set by the sort keys of a SortSpec.
+ *
+ * Used as a plain comparator, it compares the column values of the two rows
+ * with ScriptEvalUtil for every pair. When a whole array of rows is sorted with
+ * sort(), the sort columns of every row are instead normalized once into long
+ * keys whose order is the order of the values: the numbers, dates and booleans
+ * by their value, the strings by their first characters, or by their ICU
+ * collation key when the sort has a collator. The rows are then sorted by
+ * comparing the long keys, and only the rows whose keys are equal for a column
+ * whose key does not hold the whole value are compared by their values.
+ */
+
+public class SortKeyComparator implements Comparator<IResultObject> {
+	// arrays smaller than this are not worth computing the keys for
+	private static final int MIN_KEYED_SORT_SIZE = 64;
+
+	// the kinds of sort key of a column
+	private static final int KIND_NONE = 0;
+	private static final int KIND_LONG = 1;
+	private static final int KIND_DOUBLE = 2;
+	private static final int KIND_DATE = 3;
+	private static final int KIND_BOOLEAN = 4;
+	private static final int KIND_STRING = 5;
+	private static final int KIND_COLLATED_STRING = 6;
+
+	private int[] sortKeyIndexes;
+	private String[] sortKeyColumns;
+	private int[] sortAscending;
+	private CompareHints[] compareHints;
+	private IEventHandler eventHandler;
+
+	/**
+	 *
+	 * @param sortSpec
+	 * @param eventHandler the handler which provides the values of the rows, or
+	 *                     null to take the field values of the rows
+	 */
+	public SortKeyComparator(SortSpec sortSpec, IEventHandler eventHandler) {
+		this.sortKeyIndexes = sortSpec.getSortKeyIndexes();
+		this.sortKeyColumns = sortSpec.getSortKeyColumns();
+		this.sortAscending = sortSpec.getSortAscending();
+		this.compareHints = sortSpec.getComparator();
+		this.eventHandler = eventHandler;
+	}
+
+	/**
+	 * Sorts the rows with the comparator, by their sort keys if it is a
+	 * SortKeyComparator.
+	 *
+	 * @param rows
+	 * @param comparator
+	 */
+	public static void sort(IResultObject[] rows, Comparator comparator) {
+		if (comparator instanceof SortKeyComparator) {
+			((SortKeyComparator) comparator).sort(rows);
+		} else {
+			Arrays.sort(rows, comparator);
+		}
+	}
+
+	/**
+	 * Sorts the rows by their sort keys. The order is the one of compare().
+	 *
+	 * @param rows
+	 */
+	public void sort(IResultObject[] rows) {
+		if (rows.length < MIN_KEYED_SORT_SIZE || sortAscending[0] == SortSpec.SORT_DISABLE) {
+			Arrays.sort(rows, this);
+			return;
+		}
+		int columnCount = sortKeyIndexes.length;
+		RowKey[] rowKeys = new RowKey[rows.length];
+		try {
+			for (int i = 0; i < rows.length; i++) {
+				Object[] values = new Object[columnCount];
+				for (int j = 0; j < columnCount; j++) {
+					values[j] = getValue(rows[i], j);
+				}
+				rowKeys[i] = new RowKey(rows[i], values);
+			}
+		} catch (DataException e) {
+			// compare() ignores the values which can not be read
+			Arrays.sort(rows, this);
+			return;
+		}
+
+		final int[] kinds = new int[columnCount];
+		final boolean[] exact = new boolean[columnCount];
+		for (int j = 0; j < columnCount; j++) {
+			kinds[j] = getKind(rowKeys, j);
+			exact[j] = isExact(rowKeys, j, kinds[j]);
+		}
+		for (int i = 0; i < rowKeys.length; i++) {
+			RowKey rowKey = rowKeys[i];
+			rowKey.keys = new long[columnCount];
+			for (int j = 0; j < columnCount; j++) {
+				Object value = rowKey.values[j];
+				if (value == null) {
+					continue;
+				}
+				if (kinds[j] == KIND_COLLATED_STRING) {
+					// the collation key replaces the value, they compare the same way
+					CollationKey collationKey = ((Collator) compareHints[j].getComparator())
+							.getCollationKey((String) value);
+					rowKey.values[j] = collationKey;
+					value = collationKey;
+				}
+				rowKey.keys[j] = toKey(value, kinds[j]);
+			}
+		}
+
+		Arrays.sort(rowKeys, new Comparator<RowKey>() {
+
+			@Override
+			public int compare(RowKey o1, RowKey o2) {
+				for (int j = 0; j < kinds.length; j++) {
+					Object value1 = o1.values[j];
+					Object value2 = o2.values[j];
+					int result;
+					if (value1 == null || value2 == null) {
+						result = compareNull(value1, value2, compareHints == null ? null : compareHints[j]);
+					} else {
+						result = Long.compare(o1.keys[j], o2.keys[j]);
+						if (result == 0 && !exact[j]) {
+							result = compareValues(value1, value2, j, kinds[j]);
+						}
+					}
+					if (result != 0) {
+						return applyDirection(result, j);
+					}
+				}
+				return 0;
+			}
+		});
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = rowKeys[i].row;
+		}
+	}
+
+	/**
+	 * compares two row indexes, actually compares two rows pointed by the two row
+	 * indexes
+	 */
+	@Override
+	public int compare(IResultObject row1, IResultObject row2) {
+		// compare group keys first
+		for (int i = 0; i < sortKeyIndexes.length; i++) {
+			try {
+				Object colObj1 = getValue(row1, i);
+				Object colObj2 = getValue(row2, i);
+
+				int result = ScriptEvalUtil.compare(colObj1, colObj2,
+						compareHints == null ? null : compareHints[i]);
+				if (result != 0) {
+					return applyDirection(result, i);
+				}
+			} catch (DataException e) {
+				// Should never get here
+				// colIndex is always valid
+			}
+		}
+
+		// all equal, so return 0
+		return 0;
+	}
+
+	private int applyDirection(int result, int column) {
+		if (sortAscending[column] == SortSpec.SORT_DISABLE) {
+			return 0;
+		}
+		return sortAscending[column] == SortSpec.SORT_ASC ? result : -result;
+	}
+
+	private Object getValue(IResultObject row, int column) throws DataException {
+		if (eventHandler != null) {
+			return eventHandler.getValue(row, sortKeyIndexes[column], sortKeyColumns[column]);
+		}
+		return row.getFieldValue(sortKeyIndexes[column]);
+	}
+
+	/**
+	 * Compares the values of a column whose keys are equal.
+	 */
+	private int compareValues(Object value1, Object value2, int column, int kind) {
+		if (kind == KIND_COLLATED_STRING) {
+			return ((CollationKey) value1).compareTo((CollationKey) value2);
+		}
+		try {
+			return ScriptEvalUtil.compare(value1, value2, compareHints == null ? null : compareHints[column]);
+		} catch (DataException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Compares a null value as ScriptEvalUtil does.
+	 */
+	private static int compareNull(Object value1, Object value2, CompareHints hints) {
+		if (value1 == value2) {
+			return 0;
+		}
+		boolean nullsHighest = hints != null
+				&& IBaseDataSetDesign.NULLS_ORDERING_NULLS_HIGHEST.equals(hints.getNullType());
+		return (value1 == null) == nullsHighest ? 1 : -1;
+	}
+
+	/**
+	 * Returns the kind of key of a column, from the classes of its values. Values
+	 * of different classes are only given a key when ScriptEvalUtil compares them
+	 * by a common numeric or date value.
+	 */
+	private int getKind(RowKey[] rowKeys, int column) {
+		boolean isInteger = true, isNumber = true, isDate = true, isBoolean = true, isString = true;
+		for (int i = 0; i < rowKeys.length; i++) {
+			Object value = rowKeys[i].values[column];
+			if (value == null) {
+				continue;
+			}
+			isInteger &= value instanceof Integer || value instanceof Long || value instanceof Short
+					|| value instanceof Byte;
+			isNumber &= value instanceof Number;
+			isDate &= value instanceof Date;
+			isBoolean &= value instanceof Boolean;
+			isString &= value instanceof String;
+		}
+		if (isInteger) {
+			return KIND_LONG;
+		}
+		if (isNumber) {
+			return KIND_DOUBLE;
+		}
+		if (isDate) {
+			return KIND_DATE;
+		}
+		if (isBoolean) {
+			return KIND_BOOLEAN;
+		}
+		if (isString) {
+			Comparator comparator = compareHints == null || compareHints[column] == null ? null
+					: compareHints[column].getComparator();
+			if (comparator == null) {
+				return KIND_STRING;
+			}
+			if (comparator instanceof Collator) {
+				return KIND_COLLATED_STRING;
+			}
+		}
+		return KIND_NONE;
+	}
+
+	/**
+	 * Returns whether the keys of a column are equal only for equal values, so
+	 * that the values need not be compared.
+	 */
+	private static boolean isExact(RowKey[] rowKeys, int column, int kind) {
+		switch (kind) {
+		case KIND_LONG:
+		case KIND_BOOLEAN:
+			return true;
+		case KIND_DOUBLE:
+			// longs and decimals may round to the same double
+			for (int i = 0; i < rowKeys.length; i++) {
+				Object value = rowKeys[i].values[column];
+				if (value != null && !(value instanceof Double || value instanceof Float
+						|| value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+					return false;
+				}
+			}
+			return true;
+		case KIND_DATE:
+			// the nanoseconds of timestamps are not in the key
+			for (int i = 0; i < rowKeys.length; i++) {
+				if (rowKeys[i].values[column] instanceof Timestamp) {
+					return false;
+				}
+			}
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Returns a key of the value whose order is the order of the values of the
+	 * column.
+	 */
+	private static long toKey(Object value, int kind) {
+		switch (kind) {
+		case KIND_LONG:
+			return ((Number) value).longValue();
+		case KIND_DOUBLE:
+			long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+			// flip the magnitude of the negative numbers, so that the order of the
+			// bits as longs is the order of Double.compare()
+			return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		case KIND_DATE:
+			return ((Date) value).getTime();
+		case KIND_BOOLEAN:
+			return ((Boolean) value).booleanValue() ? 1 : 0;
+		case KIND_STRING:
+			// the first four characters, with the unsigned order of chars
+			String s = (String) value;
+			long key = 0;
+			for (int i = 0; i < 4; i++) {
+				key = key << 16 | (i < s.length() ? s.charAt(i) : 0);
+			}
+			return key ^ Long.MIN_VALUE;
+		case KIND_COLLATED_STRING:
+			// the first eight bytes of the collation key, with their unsigned order
+			byte[] bytes = ((CollationKey) value).toByteArray();
+			long prefix = 0;
+			for (int i = 0; i < 8; i++) {
+				prefix = prefix << 8 | (i < bytes.length ? bytes[i] & 0xFF : 0);
+			}
+			return prefix ^ Long.MIN_VALUE;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * A row with the values and the keys of its sort columns.
+	 */
+	private static class RowKey {
+		private IResultObject row;
+		private Object[] values;
+		private long[] keys;
+
+		RowKey(IResultObject row, Object[] values) {
+			this.row = row;
+			this.values = values;
+		}
+	}
+}
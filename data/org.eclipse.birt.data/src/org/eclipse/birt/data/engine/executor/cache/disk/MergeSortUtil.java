@@ -14,9 +14,9 @@
 
 package org.eclipse.birt.data.engine.executor.cache.disk;
 
-import java.util.Arrays;
 import java.util.Comparator;
 
+import org.eclipse.birt.data.engine.executor.cache.SortKeyComparator;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
 import org.eclipse.birt.data.engine.odi.IResultObject;
 
@@ -57,17 +57,7 @@ class MergeSortUtil {
 	 * @param self, which needs to be sorted
 	 */
 	void sortSelf(IResultObject[] self) {
-		Comparator comparator = new Comparator() {
-
-			@Override
-			public int compare(Object obj1, Object obj2) {
-				IResultObject data1 = (IResultObject) obj1;
-				IResultObject data2 = (IResultObject) obj2;
-				return compareResultObject(data1, data2);
-			}
-		};
-
-		Arrays.sort(self, comparator);
+		SortKeyComparator.sort(self, comparator);
 	}
 
 	/**
@@ -273,19 +273,21 @@ public class CachedResultSet implements IResultIterator {
 				if (streamsWrapper.getStreamForDataSet() != null) {
 					Map<String, IIndexSerializer> index = streamsWrapper.getStreamForIndex(this.getResultClass(),
 							handler.getAppContext());
-					Map<String, StringTable> stringTables = streamsWrapper.getOutputStringTable(this.getResultClass());
 
 					IDataSetWriter writer = DataSetStore.createWriter(streamsWrapper.getStreamManager(),
 							getResultClass(), handler.getAppContext(), resultSetPopulator.getSession(),
-							streamsWrapper.getAuxiliaryIndexCreators());
+							streamsWrapper.getAuxiliaryIndexCreators(), index,
+							resultSetPopulator.getEventHandler().getAllColumnBindings());
 
+					for (IAuxiliaryIndexCreator aIndex : streamsWrapper.getAuxiliaryIndexCreators()) {
+						aIndex.initialize(resultClass, this.getExecutorHelper().getScriptable());
+					}
 					if (writer != null) {
 						writer.save(this.resultSetPopulator.getCache());
 						writer.close();
 					} else {
-						for (IAuxiliaryIndexCreator aIndex : streamsWrapper.getAuxiliaryIndexCreators()) {
-							aIndex.initialize(resultClass, this.getExecutorHelper().getScriptable());
-						}
+						Map<String, StringTable> stringTables = streamsWrapper
+								.getOutputStringTable(this.getResultClass());
 						this.resultSetPopulator.getCache().doSave(streamsWrapper.getStreamForDataSet(),
 								streamsWrapper.getStreamForDataSetRowLens(), stringTables, index,
 								resultSetPopulator.getEventHandler().getAllColumnBindings(),
@@ -553,10 +555,15 @@ public class CachedResultSet implements IResultIterator {
 				&& streamsWrapper.getStreamForResultClass() != null) {
 			IDataSetUpdater updater = DataSetStore.createUpdater(streamsWrapper.getStreamManager(), getResultClass(),
 					handler.getAppContext(), resultSetPopulator.getSession(),
-					streamsWrapper.getAuxiliaryIndexCreators());
+					streamsWrapper.getAuxiliaryIndexCreators(),
+					streamsWrapper.getStreamForIndex(this.getResultClass(), handler.getAppContext()),
+					resultSetPopulator.getEventHandler().getAllColumnBindings(), originalRowCount);
 			if (updater != null) {
 				updater.save(this.resultSetPopulator.getCache());
 				updater.close();
+				for (IAuxiliaryIndexCreator creator : streamsWrapper.getAuxiliaryIndexCreators()) {
+					creator.close();
+				}
 				return;
 			}
 
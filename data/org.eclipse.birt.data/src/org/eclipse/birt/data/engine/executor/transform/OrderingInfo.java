@@ -14,8 +14,7 @@
 
 package org.eclipse.birt.data.engine.executor.transform;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * The OrderingInfo instance is used by SmartCache to generate a new SmartCache
@@ -25,10 +24,12 @@ import java.util.List;
 public final class OrderingInfo {
 
 	// The group start index array
-	private List startIndex = new ArrayList();
+	private int[] startIndex = new int[16];
 
 	// The group end index array
-	private List endIndex = new ArrayList();
+	private int[] endIndex = new int[16];
+
+	private int count;
 
 	/**
 	 *
@@ -36,7 +37,8 @@ public final class OrderingInfo {
 	 * @return
 	 */
 	public int getStartIndex(int i) {
-		return Integer.parseInt(startIndex.get(i).toString());
+		checkIndex(i);
+		return startIndex[i];
 	}
 
 	/**
@@ -45,7 +47,8 @@ public final class OrderingInfo {
 	 * @return
 	 */
 	public int getEndIndex(int i) {
-		return Integer.parseInt(endIndex.get(i).toString());
+		checkIndex(i);
+		return endIndex[i];
 	}
 
 	/**
@@ -54,8 +57,13 @@ public final class OrderingInfo {
 	 * @param endIdx
 	 */
 	public void add(int startIdx, int endIdx) {
-		this.startIndex.add(String.valueOf(startIdx));
-		this.endIndex.add(String.valueOf(endIdx));
+		if (count == startIndex.length) {
+			startIndex = Arrays.copyOf(startIndex, count * 2);
+			endIndex = Arrays.copyOf(endIndex, count * 2);
+		}
+		startIndex[count] = startIdx;
+		endIndex[count] = endIdx;
+		count++;
 	}
 
 	/**
@@ -63,6 +71,12 @@ public final class OrderingInfo {
 	 * @return
 	 */
 	public int getCount() {
-		return startIndex.size();
+		return count;
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= count) {
+			throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count); //$NON-NLS-1$ //$NON-NLS-2$
+		}
 	}
 }
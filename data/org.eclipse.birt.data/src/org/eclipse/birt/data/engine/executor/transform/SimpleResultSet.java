@@ -297,6 +297,9 @@ public class SimpleResultSet implements IResultIterator {
 		if (this.writer != null) {
 			this.writer.close();
 			this.writer = null;
+			if (this.streamsWrapper != null) {
+				saveExprValueRowCount();
+			}
 		}
 
 		this.groupCalculator.close();
@@ -324,17 +327,7 @@ public class SimpleResultSet implements IResultIterator {
 				for (StringTable stringTable : stringTables.values()) {
 					stringTable.close();
 				}
-				if (this.streamsWrapper.getStreamManager().hasOutStream(DataEngineContext.EXPR_VALUE_STREAM,
-						StreamManager.ROOT_STREAM, StreamManager.SELF_SCOPE)) {
-					OutputStream exprValueStream = this.streamsWrapper.getStreamManager().getOutStream(
-							DataEngineContext.EXPR_VALUE_STREAM, StreamManager.ROOT_STREAM, StreamManager.SELF_SCOPE);
-					if (exprValueStream instanceof RAOutputStream) {
-						((RAOutputStream) exprValueStream).seek(0);
-						IOUtil.writeInt(exprValueStream, rowCount);
-					}
-
-					exprValueStream.close();
-				}
+				saveExprValueRowCount();
 
 				dataSetStream.close();
 				dataSetStream = null;
@@ -387,7 +380,9 @@ public class SimpleResultSet implements IResultIterator {
 
 		try {
 			writer = DataSetStore.createUpdater(this.streamsWrapper.getStreamManager(), getResultClass(),
-					handler.getAppContext(), this.session, auxiliaryIndexCreators);
+					handler.getAppContext(), this.session, auxiliaryIndexCreators,
+					this.streamsWrapper.getStreamForIndex(getResultClass(), handler.getAppContext()),
+					getRequestColumnMap(), originalRowCount);
 
 			if (writer == null) {
 				dataSetStream = this.streamsWrapper.getStreamManager().getOutStream(
@@ -412,6 +407,28 @@ public class SimpleResultSet implements IResultIterator {
 
 	}
 
+	/**
+	 * Saves the row count at the start of the expression value stream.
+	 *
+	 * @throws DataException
+	 */
+	private void saveExprValueRowCount() throws DataException {
+		if (this.streamsWrapper.getStreamManager().hasOutStream(DataEngineContext.EXPR_VALUE_STREAM,
+				StreamManager.ROOT_STREAM, StreamManager.SELF_SCOPE)) {
+			OutputStream exprValueStream = this.streamsWrapper.getStreamManager()
+					.getOutStream(DataEngineContext.EXPR_VALUE_STREAM, StreamManager.ROOT_STREAM, StreamManager.SELF_SCOPE);
+			try {
+				if (exprValueStream instanceof RAOutputStream) {
+					((RAOutputStream) exprValueStream).seek(0);
+					IOUtil.writeInt(exprValueStream, rowCount);
+				}
+				exprValueStream.close();
+			} catch (IOException e) {
+				throw new DataException(e.getLocalizedMessage(), e);
+			}
+		}
+	}
+
 	private List<IBinding> getRequestColumnMap() {
 		try {
 			if (DataSetStore.isDataMartStore(handler.getAppContext(), this.session)) {
@@ -437,7 +454,8 @@ public class SimpleResultSet implements IResultIterator {
 		this.auxiliaryIndexCreators = streamsWrapper.getAuxiliaryIndexCreators();
 		this.groupCalculator.doSave(streamsWrapper.getStreamManager());
 		this.writer = DataSetStore.createWriter(streamsWrapper.getStreamManager(), getResultClass(),
-				handler.getAppContext(), this.session, auxiliaryIndexCreators);
+				handler.getAppContext(), this.session, auxiliaryIndexCreators,
+				streamsWrapper.getStreamForIndex(getResultClass(), handler.getAppContext()), getRequestColumnMap());
 		try {
 			if (streamsWrapper.getStreamForResultClass() != null) {
 				((ResultClass) populateResultClass(getResultClass())).doSave(streamsWrapper.getStreamForResultClass(),
@@ -453,11 +471,10 @@ public class SimpleResultSet implements IResultIterator {
 					rowCountOffset = ((RAOutputStream) dataSetStream).getOffset();
 				}
 				IOUtil.writeInt(dataSetStream, this.initialRowCount);
-
-				if (auxiliaryIndexCreators != null) {
-					for (IAuxiliaryIndexCreator aIndex : this.auxiliaryIndexCreators) {
-						aIndex.initialize(this.resultClass, this.getExecutorHelper().getScriptable());
-					}
+			}
+			if (auxiliaryIndexCreators != null) {
+				for (IAuxiliaryIndexCreator aIndex : this.auxiliaryIndexCreators) {
+					aIndex.initialize(this.resultClass, this.getExecutorHelper().getScriptable());
 				}
 			}
 			// try to save the first row
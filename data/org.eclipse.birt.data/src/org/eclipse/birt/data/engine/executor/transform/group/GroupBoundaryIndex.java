@@ -0,0 +1,317 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.executor.transform.group;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.transform.OrderingInfo;
+
+/**
+ * The group instances of all the group levels of a result set, with one int
+ * array per level which holds the parent and the first child of every group
+ * instance of the level, in the order of the rows. The first child of a group
+ * at the innermost level is its first row. The index is built in the same pass
+ * over the sorted rows that finds the group breaks.
+ *
+ * The group instances are sorted and filtered as permutations and flags over
+ * these arrays, and the resulting order of the rows is given as an
+ * OrderingInfo, so that no object is created per group instance.
+ */
+final class GroupBoundaryIndex {
+	// groups[level][2 * i] is the parent and groups[level][2 * i + 1] the first
+	// child of the group instance i
+	private int[][] groups;
+	private int[] sizes;
+	private int rowCount;
+
+	/**
+	 *
+	 * @param levelCount
+	 */
+	GroupBoundaryIndex(int levelCount) {
+		this.groups = new int[levelCount][];
+		this.sizes = new int[levelCount];
+		for (int i = 0; i < levelCount; i++) {
+			groups[i] = new int[32];
+		}
+	}
+
+	/**
+	 * Builds the index of group instances kept as lists of GroupInfo.
+	 *
+	 * @param groupInfos
+	 * @param rowCount
+	 * @return
+	 */
+	static GroupBoundaryIndex valueOf(List<GroupInfo>[] groupInfos, int rowCount) {
+		GroupBoundaryIndex index = new GroupBoundaryIndex(groupInfos.length);
+		for (int i = 0; i < groupInfos.length; i++) {
+			for (int j = 0; j < groupInfos[i].size(); j++) {
+				GroupInfo groupInfo = groupInfos[i].get(j);
+				index.addGroup(i, groupInfo.parent, groupInfo.firstChild);
+			}
+		}
+		index.setRowCount(rowCount);
+		return index;
+	}
+
+	/**
+	 * Appends a group instance to a level.
+	 *
+	 * @param level      0-based group level
+	 * @param parent
+	 * @param firstChild
+	 */
+	void addGroup(int level, int parent, int firstChild) {
+		int size = sizes[level];
+		if (size * 2 == groups[level].length) {
+			groups[level] = Arrays.copyOf(groups[level], size * 4);
+		}
+		groups[level][size * 2] = parent;
+		groups[level][size * 2 + 1] = firstChild;
+		sizes[level] = size + 1;
+	}
+
+	/**
+	 *
+	 * @param rowCount
+	 */
+	void setRowCount(int rowCount) {
+		this.rowCount = rowCount;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	int getLevelCount() {
+		return groups.length;
+	}
+
+	/**
+	 *
+	 * @param level 0-based group level
+	 * @return
+	 */
+	int getGroupCount(int level) {
+		return sizes[level];
+	}
+
+	/**
+	 *
+	 * @param level 0-based group level
+	 * @param index
+	 * @return
+	 */
+	int getParent(int level, int index) {
+		return groups[level][index * 2];
+	}
+
+	/**
+	 *
+	 * @param level 0-based group level
+	 * @param index
+	 * @return
+	 */
+	int getFirstChild(int level, int index) {
+		return groups[level][index * 2 + 1];
+	}
+
+	/**
+	 * Returns the index of the first child of the group instance which follows
+	 * the given one, that is the end of the range of the children of the given
+	 * one.
+	 */
+	private int getChildEnd(int level, int index) {
+		if (index + 1 < sizes[level]) {
+			return getFirstChild(level, index + 1);
+		}
+		return level == groups.length - 1 ? rowCount : sizes[level + 1];
+	}
+
+	/**
+	 *
+	 * @param level 0-based group level
+	 * @param index the group index, or the group count for the end of the rows
+	 * @return the index of the first row of the group instance
+	 */
+	int getFirstRow(int level, int index) {
+		if (index >= sizes[level]) {
+			return rowCount;
+		}
+		for (int i = level; i < groups.length; i++) {
+			index = getFirstChild(i, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Returns a view of the group instances of a level as GroupInfo objects.
+	 *
+	 * @param level 0-based group level
+	 * @return
+	 */
+	List<GroupInfo> getGroupInfos(int level) {
+		return new GroupInfoList(level);
+	}
+
+	/**
+	 * Sorts the group instances of a level within their parents. The sort is
+	 * stable, so the instances which are equal keep their order.
+	 *
+	 * @param level      0-based group level
+	 * @param comparator compares two group indexes of the level
+	 * @return the group indexes of the level, with the children of every parent
+	 *         in sorted order at the same positions as the unsorted ones
+	 * @throws DataException
+	 */
+	int[] sortWithinParents(int level, GroupIndexComparator comparator) throws DataException {
+		int size = sizes[level];
+		int[] order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		int[] buffer = new int[size];
+		int start = 0;
+		while (start < size) {
+			int end = level == 0 ? size : getChildEnd(level - 1, getParent(level, start));
+			mergeSort(order, buffer, start, end, comparator);
+			start = end;
+		}
+		return order;
+	}
+
+	/**
+	 * Returns the order of the rows when the group instances are sorted and
+	 * filtered: the row ranges of the accepted innermost group instances, with
+	 * the children of every group instance visited in the sorted order. A group
+	 * instance is left out with all its children if it is not accepted.
+	 *
+	 * @param orders   for every level, the result of sortWithinParents, or null
+	 *                 to keep the order of the group instances
+	 * @param accepted for every level, whether every group instance is accepted,
+	 *                 or null if they all are
+	 * @return
+	 */
+	OrderingInfo getOrderingInfo(int[][] orders, boolean[][] accepted) {
+		OrderingInfo odInfo = new OrderingInfo();
+		if (groups.length > 0) {
+			addChildren(odInfo, 0, 0, sizes[0], orders, accepted);
+		}
+		return odInfo;
+	}
+
+	private void addChildren(OrderingInfo odInfo, int level, int start, int end, int[][] orders,
+			boolean[][] accepted) {
+		boolean isLeaf = level == groups.length - 1;
+		for (int i = start; i < end; i++) {
+			int index = orders == null || orders[level] == null ? i : orders[level][i];
+			if (accepted != null && accepted[level] != null && !accepted[level][index]) {
+				continue;
+			}
+			if (isLeaf) {
+				odInfo.add(getFirstChild(level, index), getChildEnd(level, index) - 1);
+			} else {
+				addChildren(odInfo, level + 1, getFirstChild(level, index), getChildEnd(level, index), orders,
+						accepted);
+			}
+		}
+	}
+
+	/**
+	 * A stable merge sort of a range of group indexes.
+	 */
+	private static void mergeSort(int[] a, int[] buffer, int from, int to, GroupIndexComparator comparator)
+			throws DataException {
+		if (to - from < 8) {
+			for (int i = from + 1; i < to; i++) {
+				int value = a[i];
+				int j = i;
+				while (j > from && comparator.compare(a[j - 1], value) > 0) {
+					a[j] = a[j - 1];
+					j--;
+				}
+				a[j] = value;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(a, buffer, from, middle, comparator);
+		mergeSort(a, buffer, middle, to, comparator);
+		if (comparator.compare(a[middle - 1], a[middle]) <= 0) {
+			return;
+		}
+		System.arraycopy(a, from, buffer, from, to - from);
+		int i = from, j = middle, k = from;
+		while (i < middle && j < to) {
+			a[k++] = comparator.compare(buffer[j], buffer[i]) < 0 ? buffer[j++] : buffer[i++];
+		}
+		while (i < middle) {
+			a[k++] = buffer[i++];
+		}
+		while (j < to) {
+			a[k++] = buffer[j++];
+		}
+	}
+
+	/**
+	 * Compares two group instances of a level by their indexes.
+	 */
+	interface GroupIndexComparator {
+		int compare(int index1, int index2) throws DataException;
+	}
+
+	/**
+	 * The group instances of a level as a list of GroupInfo.
+	 */
+	private class GroupInfoList extends AbstractList<GroupInfo> {
+		private int level;
+
+		GroupInfoList(int level) {
+			this.level = level;
+		}
+
+		@Override
+		public GroupInfo get(int index) {
+			if (index < 0 || index >= sizes[level]) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			GroupInfo groupInfo = new GroupInfo();
+			groupInfo.parent = getParent(level, index);
+			groupInfo.firstChild = getFirstChild(level, index);
+			return groupInfo;
+		}
+
+		@Override
+		public boolean add(GroupInfo groupInfo) {
+			addGroup(level, groupInfo.parent, groupInfo.firstChild);
+			modCount++;
+			return true;
+		}
+
+		@Override
+		public int size() {
+			return sizes[level];
+		}
+
+		@Override
+		public void clear() {
+			groups[level] = new int[32];
+			sizes[level] = 0;
+			modCount++;
+		}
+	}
+}
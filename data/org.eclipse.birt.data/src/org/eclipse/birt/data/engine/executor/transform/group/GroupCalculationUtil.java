@@ -16,17 +16,11 @@ package org.eclipse.birt.data.engine.executor.transform.group;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 
 import org.eclipse.birt.core.data.ExpressionUtil;
 import org.eclipse.birt.data.engine.api.IGroupDefinition;
 import org.eclipse.birt.data.engine.api.ISortDefinition;
-import org.eclipse.birt.data.engine.cache.CachedList;
-import org.eclipse.birt.data.engine.cache.ICachedObject;
-import org.eclipse.birt.data.engine.cache.ICachedObjectCreator;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.BaseQuery;
 import org.eclipse.birt.data.engine.executor.cache.ResultSetCache;
@@ -37,10 +31,6 @@ import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
 import org.eclipse.birt.data.engine.odi.IQuery;
 import org.eclipse.birt.data.engine.odi.IResultClass;
-import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
-
-import com.ibm.icu.text.Collator;
-import com.ibm.icu.util.ULocale;
 
 /**
  * The instance of this class is used by CachedResultSet to deal with
@@ -150,53 +140,10 @@ public class GroupCalculationUtil {
 		return groupDefs.length;
 	}
 
-	/**
-	 * Sort the group array according to the values in sortKeys[] of
-	 * GroupBoundaryInfo intances. within them.
-	 *
-	 * @param groupArray
-	 */
-	void sortGroupBoundaryInfos(List[] groupArray) {
-		for (int i = 0; i < groupArray.length; i++) {
-			Object[] toBeSorted = new Object[groupArray[i].size()];
-			for (int j = 0; j < toBeSorted.length; j++) {
-				toBeSorted[j] = groupArray[i].get(j);
-			}
-			Arrays.sort(toBeSorted, new GroupBoundaryInfoComparator());
-			groupArray[i].clear();
-			for (int j = 0; j < toBeSorted.length; j++) {
-				groupArray[i].add(toBeSorted[j]);
-			}
-		}
-	}
-
 	public BaseQuery getQuery() {
 		return this.query;
 	}
 
-	/**
-	 * This method is used to filter out the GroupBoundaryInfo instances that are
-	 * marked as "not accepted" from GroupBoundaryInfos.
-	 *
-	 * @param groupArray
-	 * @return
-	 */
-	List[] filterGroupBoundaryInfos(List[] groupArray) {
-		List[] result = new List[groupArray.length];
-		for (int i = 0; i < result.length; i++) {
-			result[i] = new CachedList(resultPopoulator.getSession().getTempDir(),
-					DataEngineSession.getCurrentClassLoader(), GroupBoundaryInfo.getCreator());
-		}
-		for (int i = 0; i < groupArray.length; i++) {
-			for (int j = 0; j < groupArray[i].size(); j++) {
-				if (((GroupBoundaryInfo) groupArray[i].get(j)).isAccpted()) {
-					result[i].add(groupArray[i].get(j));
-				}
-			}
-		}
-		return result;
-	}
-
 	/**
 	 *
 	 * @return
@@ -350,284 +297,3 @@ public class GroupCalculationUtil {
 		}
 	}
 }
-
-/**
- * Structure to hold a group instance with its startIndex, endIndex, filter
- * result, sortKeys and Sort directions.
- *
- */
-final class GroupBoundaryInfo implements ICachedObject {
-
-	// The start index and end index of a Group
-	private int startIndex;
-	private int endIndex;
-
-	// Used by Group sorting
-	private Object[] sortKeys;
-	private boolean[] sortDirections;
-
-	// Used by Group filtering
-	private boolean accept = true;
-	private Collator[] comparator;
-	private CompareHints[] compareHints;
-
-	/**
-	 *
-	 * @return
-	 */
-	public static ICachedObjectCreator getCreator() {
-		return new GroupBoundaryInfoCreator();
-	}
-
-	/**
-	 * @param start The start index of a group
-	 * @param end   The end index of a group
-	 */
-	GroupBoundaryInfo(int start, int end) {
-		this.startIndex = start;
-		this.endIndex = end;
-		sortKeys = new Object[0];
-	}
-
-	/*
-	 * (non-Javadoc)
-	 *
-	 * @see org.eclipse.birt.data.engine.cache.ICachedObject#getFieldValues()
-	 */
-	@Override
-	public Object[] getFieldValues() {
-		ArrayList fields = new ArrayList();
-		fields.add(new Integer(startIndex)); // idx 0
-		fields.add(new Integer(endIndex)); // idx 1
-
-		if (sortKeys != null) {
-			fields.add(new Integer(sortKeys.length)); // idx 2
-			for (int i = 0; i < sortKeys.length; i++) {
-				fields.add(sortKeys[i]);
-			}
-		} else {
-			fields.add(null);
-		}
-
-		if (sortDirections != null) {
-			fields.add(Integer.valueOf(sortDirections.length)); // idx 2 + n + 1
-			for (int i = 0; i < sortDirections.length; i++) {
-				fields.add(Boolean.valueOf(sortDirections[i]));
-			}
-		} else {
-			fields.add(null);
-		}
-
-		if (this.comparator != null) {
-			fields.add(Integer.valueOf(comparator.length)); // idx 2 + n + 1 + n + 1
-			for (int i = 0; i < comparator.length; i++) {
-				fields.add(comparator[i] == null ? ISortDefinition.ASCII_SORT_STRENGTH
-						: Integer.valueOf(comparator[i].getStrength()));
-			}
-
-			for (int i = 0; i < comparator.length; i++) {
-				fields.add(comparator[i] == null ? null : comparator[i].getLocale(ULocale.ACTUAL_LOCALE).getBaseName());
-			}
-		} else {
-			fields.add(null);
-		}
-
-		fields.add(Boolean.valueOf(accept));
-		return fields.toArray();
-	}
-
-	/**
-	 * Return the start index.
-	 *
-	 * @return
-	 */
-	int getStartIndex() {
-		return this.startIndex;
-	}
-
-	/**
-	 * Return the end index.
-	 *
-	 * @return
-	 */
-	int getEndIndex() {
-		return this.endIndex;
-	}
-
-	/**
-	 * Detect whether the given GroupBoundaryInfo consists of the startIdx and
-	 * endIdx that included in current GroupBoundaryInfo instance.
-	 *
-	 * @param gbi
-	 * @return
-	 */
-	boolean isInBoundary(GroupBoundaryInfo gbi) {
-		if (gbi.getStartIndex() >= this.getStartIndex() && gbi.getEndIndex() <= this.getEndIndex()) {
-			return true;
-		} else {
-			return false;
-		}
-	}
-
-	/**
-	 * Set the sort conditions
-	 *
-	 * @param sortKeys
-	 * @param sortOrderings
-	 */
-	void setSortCondition(Object[] sortKeys, boolean[] sortOrderings, int[] sortStrength, ULocale[] sortLocale) {
-		this.sortKeys = sortKeys;
-		this.sortDirections = sortOrderings;
-		this.comparator = new Collator[this.sortKeys.length];
-		this.compareHints = new CompareHints[this.sortKeys.length];
-		for (int i = 0; i < this.comparator.length; i++) {
-			this.comparator[i] = sortStrength[i] == ISortDefinition.ASCII_SORT_STRENGTH ? null
-					: Collator.getInstance(sortLocale[i]);
-			this.compareHints[i] = new CompareHints(this.comparator[i], null);
-		}
-	}
-
-	/**
-	 * Return the sort keys array.
-	 *
-	 * @return
-	 */
-	Object[] getSortKeys() {
-		return this.sortKeys;
-	}
-
-	/**
-	 * Return the sort direction array.
-	 *
-	 * @return
-	 */
-	boolean[] getSortDirection() {
-		return this.sortDirections;
-	}
-
-	/**
-	 * Return the sort strength;
-	 *
-	 * @return
-	 */
-	CompareHints[] getCollarComparator() {
-		return this.compareHints;
-	}
-
-	/**
-	 * Set the filter value of GroupBoundaryInfo.
-	 *
-	 * @param accept
-	 */
-	void setAccepted(boolean accept) {
-		this.accept = accept;
-	}
-
-	/**
-	 * Return whether the GroupBoundaryInfo intance is accpeted or not.
-	 *
-	 * @return
-	 */
-	boolean isAccpted() {
-		return this.accept;
-	}
-
-}
-
-/**
- * The Comparator instance which is used to compare two GroupBoundaryInfo
- * instance.
- *
- */
-final class GroupBoundaryInfoComparator implements Comparator {
-
-	/**
-	 *
-	 */
-
-	@Override
-	public int compare(Object o1, Object o2) {
-		Object[] sortKeys1 = ((GroupBoundaryInfo) o1).getSortKeys();
-		Object[] sortKeys2 = ((GroupBoundaryInfo) o2).getSortKeys();
-		boolean[] sortDirection = ((GroupBoundaryInfo) o1).getSortDirection();
-		CompareHints[] comparator = ((GroupBoundaryInfo) o1).getCollarComparator();
-		int result = 0;
-		for (int i = 0; i < sortKeys1.length; i++) {
-			try {
-				result = ScriptEvalUtil.compare(sortKeys1[i], sortKeys2[i], comparator[i]);
-			} catch (DataException e) {
-				result = 0;
-			}
-			if (result != 0) {
-				if (!sortDirection[i]) {
-					result = result * -1;
-				}
-				break;
-			}
-
-		}
-
-		return result;
-	}
-}
-
-/**
- * A creator class implemented ICachedObjectCreator. This class is used to
- * create GroupBoundaryInfo object.
- *
- * @author Administrator
- *
- */
-class GroupBoundaryInfoCreator implements ICachedObjectCreator {
-	/*
-	 * (non-Javadoc)
-	 *
-	 * @see
-	 * org.eclipse.birt.data.engine.cache.ICachedObjectCreator#createInstance(java.
-	 * lang.Object[])
-	 */
-	@Override
-	public ICachedObject createInstance(Object[] fields) {
-		GroupBoundaryInfo groupBoundaryInfo = new GroupBoundaryInfo(((Integer) fields[0]).intValue(),
-				((Integer) fields[1]).intValue());
-		Object[] sortKeys = null;
-		int sortKeysTotalLength = 1;
-		if (fields[2] != null) {
-			sortKeys = new Object[((Integer) fields[2]).intValue()];
-			System.arraycopy(fields, 3, sortKeys, 0, sortKeys.length);
-			sortKeysTotalLength = sortKeys.length + 1;
-		}
-
-		boolean[] sortDirections = null;
-		if (fields[2 + sortKeysTotalLength] != null) {
-			sortDirections = new boolean[((Integer) fields[2 + sortKeysTotalLength]).intValue()];
-
-			for (int i = 0; i < sortDirections.length; i++) {
-				sortDirections[i] = ((Boolean) fields[3 + sortKeysTotalLength + i]).booleanValue();
-			}
-		}
-		int[] sortStrength = null;
-		ULocale[] locales = null;
-		if (fields[2 + sortKeysTotalLength * 2] != null) {
-			sortStrength = new int[((Integer) fields[2 + sortKeysTotalLength * 2]).intValue()];
-
-			for (int i = 0; i < sortStrength.length; i++) {
-				sortStrength[i] = ((Integer) fields[3 + sortKeysTotalLength * 2 + i]).intValue();
-
-			}
-			locales = new ULocale[sortStrength.length];
-			for (int i = 0; i < sortStrength.length; i++) {
-				Object locale = fields[2 + sortKeysTotalLength * 3 + i];
-				if (locale != null) {
-					locales[i] = new ULocale((String) locale);
-				}
-			}
-		}
-
-		groupBoundaryInfo.setSortCondition(sortKeys, sortDirections, sortStrength, locales);
-
-		groupBoundaryInfo.setAccepted(((Boolean) fields[fields.length - 1]).booleanValue());
-
-		return groupBoundaryInfo;
-	}
-}
@@ -17,19 +17,13 @@ package org.eclipse.birt.data.engine.executor.transform.group;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.Comparator;
 import java.util.List;
 
 import org.eclipse.birt.core.util.IOUtil;
-import org.eclipse.birt.data.engine.cache.CachedList;
 import org.eclipse.birt.data.engine.core.DataException;
-import org.eclipse.birt.data.engine.executor.transform.OrderingInfo;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
 import org.eclipse.birt.data.engine.odi.IResultObject;
-import org.eclipse.birt.data.engine.olap.data.util.DiskSortedStack;
-import org.eclipse.birt.data.engine.olap.data.util.IStructure;
-import org.eclipse.birt.data.engine.olap.data.util.IStructureCreator;
 
 /**
  * The instance of this class is used by CachedResultSet to deal with
@@ -52,12 +46,13 @@ public class GroupInformationUtil {
 	 */
 
 	private List<GroupInfo>[] groups;
+	// the int array index of the groups, null if it is not built yet
+	private GroupBoundaryIndex groupIndex;
 	// index of the current innermost group
 	private int leafGroupIdx = -1;
 
 	private GroupCalculationUtil groupCalculationUtil;
 
-	private String tempDir;
 	private DataEngineSession session;
 
 	/**
@@ -66,7 +61,6 @@ public class GroupInformationUtil {
 	 */
 	GroupInformationUtil(GroupCalculationUtil groupCalculationUtil, DataEngineSession session) {
 		this.groupCalculationUtil = groupCalculationUtil;
-		this.tempDir = this.groupCalculationUtil.getResultSetPopoulator().getSession().getTempDir();
 		this.groups = new List[0];
 		this.session = session;
 	}
@@ -92,9 +86,45 @@ public class GroupInformationUtil {
 			grp.clear();
 		}
 		this.groups = groups;
+		this.groupIndex = null;
 		leafGroupIdx = 0;
 	}
 
+	/**
+	 * Returns the index of the group instances, which is built from the group
+	 * lists if they are not built by this utility.
+	 *
+	 * @return
+	 * @throws DataException
+	 */
+	GroupBoundaryIndex getGroupBoundaryIndex() throws DataException {
+		int rowCount = this.groupCalculationUtil.getResultSetCache().getCount();
+		if (groupIndex == null) {
+			groupIndex = GroupBoundaryIndex.valueOf(groups, rowCount);
+		}
+		groupIndex.setRowCount(rowCount);
+		return groupIndex;
+	}
+
+	/**
+	 * Moves the row cursor to the first row of a group instance.
+	 *
+	 * @param groupLevel 1-based group level
+	 * @param groupIdx   0-based group index
+	 * @throws DataException
+	 */
+	void moveToGroup(int groupLevel, int groupIdx) throws DataException {
+		if (groupLevel > this.groups.length || groupLevel < 1) {
+			throw new DataException(ResourceConstants.INVALID_GROUP_LEVEL, Integer.valueOf(groupLevel));
+		}
+		for (int i = groupLevel; i < this.groups.length; i++) {
+			groupIdx = GroupUtil.findGroup(i - 1, groupIdx, this.groups).firstChild;
+		}
+		leafGroupIdx = groupIdx;
+		this.groupCalculationUtil.getResultSetCache()
+				.moveTo(GroupUtil.findGroup(this.groups.length - 1, leafGroupIdx, this.groups).firstChild);
+	}
+
 	/**
 	 *
 	 * @param index
@@ -395,14 +425,16 @@ public class GroupInformationUtil {
 	public void doGrouping() throws DataException {
 		assert this.groupCalculationUtil.getResultSetCache() != null;
 		// Pass through sorted data set to process group indexes
-		groups = new CachedList[this.groupCalculationUtil.getGroupDefn().length];
+		int levelCount = this.groupCalculationUtil.getGroupDefn().length;
+		groups = new List[levelCount];
+		groupIndex = new GroupBoundaryIndex(levelCount);
 
 		if (groups.length == 0) {
 			return;
 		}
 
-		for (int i = 0; i < this.groupCalculationUtil.getGroupDefn().length; i++) {
-			groups[i] = new CachedList(tempDir, DataEngineSession.getCurrentClassLoader(), GroupInfo.getCreator());
+		for (int i = 0; i < levelCount; i++) {
+			groups[i] = groupIndex.getGroupInfos(i);
 		}
 
 		IResultObject prevRow = null;
@@ -428,24 +460,24 @@ public class GroupInformationUtil {
 
 			// Create a new group in each group level between
 			// [ breakLevel ... groupDefs.length - 1]
-			for (int level = breakLevel; level < groups.length; level++) {
-				GroupInfo group = new GroupInfo();
-
+			for (int level = breakLevel; level < levelCount; level++) {
+				int parent = -1;
+				int firstChild;
 				if (level != 0) {
-					group.parent = groups[level - 1].size() - 1;
+					parent = groupIndex.getGroupCount(level - 1) - 1;
 				}
-				if (level == groups.length - 1) {
+				if (level == levelCount - 1) {
 					// at leaf group level, first child is the first row, which
 					// is current row
-					group.firstChild = rowID;
+					firstChild = rowID;
 
 				} else {
 					// Our first child is the group to be created at the next
 					// level
 					// in the next loop
-					group.firstChild = groups[level + 1].size();
+					firstChild = groupIndex.getGroupCount(level + 1);
 				}
-				groups[level].add(group);
+				groupIndex.addGroup(level, parent, firstChild);
 			}
 
 			prevRow = currRow;
@@ -537,20 +569,17 @@ public class GroupInformationUtil {
 
 	void readGroupsFromStream(InputStream inputStream) throws IOException {
 		int size = IOUtil.readInt(inputStream);
-		this.groups = new CachedList[size];
+		this.groups = new List[size];
+		this.groupIndex = new GroupBoundaryIndex(size);
 
 		for (int i = 0; i < size; i++) {
-			List list = new CachedList(tempDir, DataEngineSession.getCurrentClassLoader(), GroupInfo.getCreator());
-
 			int asize = IOUtil.readInt(inputStream);
 			for (int j = 0; j < asize; j++) {
-
-				GroupInfo groupInfo = new GroupInfo();
-				groupInfo.parent = IOUtil.readInt(inputStream);
-				groupInfo.firstChild = IOUtil.readInt(inputStream);
-				list.add(groupInfo);
+				int parent = IOUtil.readInt(inputStream);
+				int firstChild = IOUtil.readInt(inputStream);
+				groupIndex.addGroup(i, parent, firstChild);
 			}
-			this.groups[i] = list;
+			this.groups[i] = groupIndex.getGroupInfos(i);
 		}
 	}
 
@@ -570,203 +599,4 @@ public class GroupInformationUtil {
 			}
 		}
 	}
-
-	/**
-	 * The structue of a groupBoundaryInfoArray is exactly same as that of
-	 * GroupCalculationUtil.groups,except that all GroupInfo instances are replaced
-	 * by GroupBoundaryInfo instances.
-	 *
-	 * @return
-	 * @throws DataException
-	 */
-	List[] getGroupBoundaryInfos() throws DataException {
-		List[] groupBoundaryInfos = new List[groups.length];
-
-		for (int i = 1; i <= groups.length; i++) {
-			groupBoundaryInfos[i - 1] = new CachedList(tempDir, DataEngineSession.getCurrentClassLoader(),
-					GroupBoundaryInfo.getCreator());
-			// i is the group level, is 1-based
-			for (int j = 0; j < groups[i - 1].size(); j++) {
-				groupBoundaryInfos[i - 1].add(getGroupBoundaryInfo(i, j));
-			}
-		}
-		return groupBoundaryInfos;
-	}
-
-	/**
-	 * Generate a GroupBoundaryInfo instance from certain groupLevel and groupIndex.
-	 *
-	 * @param groupLevel 1-based group level
-	 * @param groupIndex 0-based group index
-	 * @return
-	 * @throws DataException
-	 */
-	private GroupBoundaryInfo getGroupBoundaryInfo(int groupLevel, int groupIndex) throws DataException {
-		// j is the group index, is 0-based
-		int startIdx = GroupUtil.getGroupFirstRowIndex(groupLevel, groupIndex, groups,
-				this.groupCalculationUtil.getResultSetCache().getCount());
-		int endIdx = this.groupCalculationUtil.getResultSetCache().getCount() - 1;
-		if (groupIndex < groups[groupLevel - 1].size() - 1) {
-			endIdx = GroupUtil.getGroupFirstRowIndex(groupLevel, groupIndex + 1, groups,
-					this.groupCalculationUtil.getResultSetCache().getCount()) - 1;
-		}
-		assert startIdx >= 0;
-		assert endIdx >= 0;
-
-		GroupBoundaryInfo result = new GroupBoundaryInfo(startIdx, endIdx);
-		return result;
-	}
-
-	/**
-	 * Re-sort the GroupBoundaryInfo instances of a lower group level according the
-	 * ordering of GroupBoundaryInfo instances of a higher group level .
-	 *
-	 * @param higherGroup
-	 * @param lowerGroup
-	 * @return
-	 * @throws IOException
-	 */
-	private List mergeTwoGroupBoundaryInfoGroups(List higherGroup, List lowerGroup) throws IOException {
-		List result = new CachedList(tempDir, DataEngineSession.getCurrentClassLoader(),
-				GroupBoundaryInfo.getCreator());
-		GroupInfoWithIndex groupInfoWithIndex;
-		DiskSortedStack higherSortedStack = new DiskSortedStack(0, false,
-				new GroupInfoWithIndexComparator(GroupInfoWithIndexComparator.START_INDEX_KEY),
-				GroupInfoWithIndex.getCreator());
-		DiskSortedStack lowerSortedStack = new DiskSortedStack(0, false,
-				new GroupInfoWithIndexComparator(GroupInfoWithIndexComparator.START_INDEX_KEY),
-				GroupInfoWithIndex.getCreator());
-		// sort higher group boundary info objects
-		for (int i = 0; i < higherGroup.size(); i++) {
-			groupInfoWithIndex = new GroupInfoWithIndex();
-			groupInfoWithIndex.groupIndex = i;
-			groupInfoWithIndex.groupBoundaryInfo = (GroupBoundaryInfo) higherGroup.get(i);
-			higherSortedStack.push(groupInfoWithIndex);
-		}
-		// sort lower group boundary info objects
-		for (int i = 0; i < lowerGroup.size(); i++) {
-			groupInfoWithIndex = new GroupInfoWithIndex();
-			groupInfoWithIndex.groupIndex = i;
-			groupInfoWithIndex.groupBoundaryInfo = (GroupBoundaryInfo) lowerGroup.get(i);
-			lowerSortedStack.push(groupInfoWithIndex);
-		}
-
-		DiskSortedStack resultSortedStack = new DiskSortedStack(0, false,
-				new GroupInfoWithIndexComparator(GroupInfoWithIndexComparator.PARENT_GROUP_INDEX_KEY),
-				GroupInfoWithIndex.getCreator());
-
-		GroupInfoWithIndex gbiH;
-		GroupInfoWithIndex gbiL = (GroupInfoWithIndex) lowerSortedStack.pop();
-		for (int i = 0; i < higherSortedStack.size(); i++) {
-			gbiH = (GroupInfoWithIndex) higherSortedStack.pop();
-			while (gbiL != null && gbiL.groupBoundaryInfo.getStartIndex() <= gbiH.groupBoundaryInfo.getEndIndex()) {
-				if (gbiH.groupBoundaryInfo.isInBoundary(gbiL.groupBoundaryInfo)) {
-					gbiL.parentGroupIndex = gbiH.groupIndex;
-					resultSortedStack.push(gbiL);
-				}
-				gbiL = (GroupInfoWithIndex) lowerSortedStack.pop();
-			}
-		}
-		for (int i = 0; i < resultSortedStack.size(); i++) {
-			result.add(((GroupInfoWithIndex) resultSortedStack.pop()).groupBoundaryInfo);
-		}
-
-		return result;
-	}
-
-	/**
-	 * This method return the OrderingInfo that will be finally used to re-generate
-	 * the smartcache.
-	 *
-	 * @param groups
-	 * @return
-	 */
-	OrderingInfo getOrderingInfo(List[] groups) {
-		// First merge all GroupBoundaryInfos groups
-		for (int i = 1; i < groups.length; i++) {
-			try {
-				groups[i] = mergeTwoGroupBoundaryInfoGroups(groups[i - 1], groups[i]);
-			} catch (IOException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-		}
-
-		// Then populate the OrderingInfo
-		OrderingInfo odInfo = new OrderingInfo();
-		for (int i = 0; i < groups[groups.length - 1].size(); i++) {
-			odInfo.add(((GroupBoundaryInfo) groups[groups.length - 1].get(i)).getStartIndex(),
-					((GroupBoundaryInfo) groups[groups.length - 1].get(i)).getEndIndex());
-		}
-		return odInfo;
-	}
-}
-
-class GroupInfoWithIndex implements IStructure {
-	int parentGroupIndex;
-	int groupIndex;
-	GroupBoundaryInfo groupBoundaryInfo;
-
-	@Override
-	public Object[] getFieldValues() {
-		Object[] groupFields = groupBoundaryInfo.getFieldValues();
-		Object[] fields = new Object[groupFields.length + 2];
-		System.arraycopy(groupFields, 0, fields, 0, groupFields.length);
-		fields[fields.length - 2] = Integer.valueOf(parentGroupIndex);
-		fields[fields.length - 1] = Integer.valueOf(groupIndex);
-		return fields;
-	}
-
-	public static IStructureCreator getCreator() {
-		return new GroupInfoWithIndexCreator();
-	}
-}
-
-class GroupInfoWithIndexCreator implements IStructureCreator {
-
-	@Override
-	public IStructure createInstance(Object[] fields) {
-		GroupInfoWithIndex groupInfoWithIndex = new GroupInfoWithIndex();
-		groupInfoWithIndex.parentGroupIndex = ((Integer) fields[fields.length - 2]).intValue();
-		groupInfoWithIndex.groupIndex = ((Integer) fields[fields.length - 1]).intValue();
-		Object[] groupFields = new Object[fields.length - 2];
-		System.arraycopy(fields, 0, groupFields, 0, fields.length - 2);
-		groupInfoWithIndex.groupBoundaryInfo = (GroupBoundaryInfo) GroupBoundaryInfo.getCreator()
-				.createInstance(groupFields);
-		return groupInfoWithIndex;
-	}
-}
-
-final class GroupInfoWithIndexComparator implements Comparator {
-	final static int PARENT_GROUP_INDEX_KEY = 1;
-	final static int START_INDEX_KEY = 2;
-	private int keyType;
-
-	GroupInfoWithIndexComparator(int keyType) {
-		this.keyType = keyType;
-	}
-
-	/**
-	 *
-	 */
-
-	@Override
-	public int compare(Object o1, Object o2) {
-		if (keyType == START_INDEX_KEY) {
-			return compare(((GroupInfoWithIndex) o1).groupBoundaryInfo.getStartIndex(),
-					((GroupInfoWithIndex) o2).groupBoundaryInfo.getStartIndex());
-		} else if (keyType == PARENT_GROUP_INDEX_KEY) {
-			int result = compare(((GroupInfoWithIndex) o1).parentGroupIndex,
-					((GroupInfoWithIndex) o2).parentGroupIndex);
-			if (result != 0) {
-				return result;
-			}
-			return compare(((GroupInfoWithIndex) o1).groupIndex, ((GroupInfoWithIndex) o2).groupIndex);
-		}
-		return 0;
-	}
-
-	private int compare(int i1, int i2) {
-		return (i1 < i2 ? -1 : (i1 == i2 ? 0 : 1));
-	}
 }
@@ -15,6 +15,7 @@
 package org.eclipse.birt.data.engine.executor.transform.group;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.birt.core.data.DataTypeUtil;
@@ -24,14 +25,12 @@ import org.eclipse.birt.core.script.ScriptExpression;
 import org.eclipse.birt.data.engine.api.IBaseExpression;
 import org.eclipse.birt.data.engine.api.IFilterDefinition;
 import org.eclipse.birt.data.engine.api.IScriptExpression;
-import org.eclipse.birt.data.engine.cache.CachedList;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.transform.FilterUtil;
 import org.eclipse.birt.data.engine.executor.transform.IExpressionProcessor;
 import org.eclipse.birt.data.engine.executor.transform.OrderingInfo;
 import org.eclipse.birt.data.engine.executor.transform.ResultSetPopulator;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
-import org.eclipse.birt.data.engine.impl.DataEngineSession;
 import org.eclipse.birt.data.engine.script.FilterPassController;
 import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 
@@ -67,17 +66,13 @@ class GroupInstanceFilter {
 		if (expressionList.size() > 0) {
 			this.groupProcessor.calculateExpressionList(expressionList, groupLevels,
 					IExpressionProcessor.FILTER_ON_GROUP_EXPR);
-			// The groupBoundaryInfos gotten here has not be sorted yet.
-			List[] groupBoundaryInfos = this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil()
-					.getGroupBoundaryInfos();
+			GroupBoundaryIndex groupIndex = this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil()
+					.getGroupBoundaryIndex();
+			boolean[][] accepted = new boolean[groupIndex.getLevelCount()][];
 
-			populateFiltersInGroupBoundaryInfoSets(cx, groupBoundaryInfos);
+			populateFilterResults(cx, groupIndex, accepted);
 
-			groupBoundaryInfos = this.groupProcessor.getGroupCalculationUtil()
-					.filterGroupBoundaryInfos(groupBoundaryInfos);
-
-			OrderingInfo odInfo = this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil()
-					.getOrderingInfo(groupBoundaryInfos);
+			OrderingInfo odInfo = groupIndex.getOrderingInfo(null, accepted);
 
 			this.populator.reSetSmartCacheUsingOrderingInfo(odInfo);
 		}
@@ -108,14 +103,16 @@ class GroupInstanceFilter {
 	}
 
 	/**
-	 * Populate the "accept" fields in GroupBoundaryInfos. If one GroupBoundaryInfo
-	 * would be filtered out then the "accept" field is set to false else ture.
+	 * Populate whether every group instance is accepted by the filters of its
+	 * group level. The group instances of a level are only accepted if their
+	 * parents are.
 	 *
 	 * @param cx
-	 * @param groupBoundaryInfos
+	 * @param groupIndex
+	 * @param accepted   the flags of every level which has filters are set
 	 * @throws DataException
 	 */
-	private void populateFiltersInGroupBoundaryInfoSets(ScriptContext cx, List[] groupBoundaryInfos)
+	private void populateFilterResults(ScriptContext cx, GroupBoundaryIndex groupIndex, boolean[][] accepted)
 			throws DataException {
 		for (int i = 1; i <= this.populator.getQuery().getGrouping().length; i++) {
 			// The sorts of certain group
@@ -123,6 +120,8 @@ class GroupInstanceFilter {
 			if (filters == null || filters.size() == 0) {
 				continue;
 			}
+			accepted[i - 1] = new boolean[groupIndex.getGroupCount(i - 1)];
+			Arrays.fill(accepted[i - 1], true);
 
 			// Return to first record.
 			this.populator.getResultIterator().first(0);
@@ -140,15 +139,13 @@ class GroupInstanceFilter {
 				}
 
 				if (singlePassFilter.size() > 0) {
-					populateGroupBoundaryInfoFilters(cx, groupBoundaryInfos[i - 1], singlePassFilter, i, true);
+					populateGroupFilters(cx, accepted[i - 1], 0, accepted[i - 1].length, singlePassFilter, i, true);
 				}
 
-				populateGroupBoundaryInfoFilterValues(cx, groupBoundaryInfos, i, multiPassFilter);
+				populateGroupFilterValues(cx, groupIndex, accepted, i, multiPassFilter);
 			} else {
-				populateGroupBoundaryInfoFilters(cx, groupBoundaryInfos[i - 1], filters, i, true);
+				populateGroupFilters(cx, accepted[i - 1], 0, accepted[i - 1].length, filters, i, true);
 			}
-			groupBoundaryInfos = this.groupProcessor.getGroupCalculationUtil()
-					.filterGroupBoundaryInfos(groupBoundaryInfos);
 			for (int j = 0; j < filters.size(); j++) {
 				IFilterDefinition fd = (IFilterDefinition) filters.get(j);
 				if (FilterUtil.isFilterNeedMultiPass(fd)) {
@@ -159,31 +156,34 @@ class GroupInstanceFilter {
 	}
 
 	/**
+	 * Applies the filters which need multiple passes to the children of every
+	 * accepted group instance of the outer level, or to all the group instances
+	 * of the outermost level.
+	 *
 	 * @param cx
-	 * @param groupBoundaryInfos
-	 * @param i
+	 * @param groupIndex
+	 * @param accepted
+	 * @param groupLevel
 	 * @param groupedFilters
-	 * @param j
 	 * @throws DataException
 	 */
-	private void populateGroupBoundaryInfoFilterValues(ScriptContext cx, List[] groupBoundaryInfos, int i,
-			List groupedFilters) throws DataException {
-		if (i > 1) {
-			int passedGroups = 0;
-			for (int k = 0; k < groupBoundaryInfos[i - 2].size(); k++) {
-				List currentGroupArray = new CachedList(tempDir, DataEngineSession.getCurrentClassLoader(),
-						GroupBoundaryInfo.getCreator());
-				for (int n = 0; n < groupBoundaryInfos[i - 1].size(); n++) {
-					if ((((GroupBoundaryInfo) groupBoundaryInfos[i - 2].get(k))
-							.isInBoundary(((GroupBoundaryInfo) groupBoundaryInfos[i - 1].get(n))))) {
-						currentGroupArray.add(groupBoundaryInfos[i - 1].get(n));
-					}
+	private void populateGroupFilterValues(ScriptContext cx, GroupBoundaryIndex groupIndex, boolean[][] accepted,
+			int groupLevel, List groupedFilters) throws DataException {
+		if (groupLevel > 1) {
+			boolean[] parentAccepted = accepted[groupLevel - 2];
+			int parentCount = groupIndex.getGroupCount(groupLevel - 2);
+			for (int k = 0; k < parentCount; k++) {
+				if (parentAccepted != null && !parentAccepted[k]) {
+					continue;
 				}
-				makeAGroupFilteringMultiPass(cx, i, groupedFilters, currentGroupArray, passedGroups);
-				passedGroups += currentGroupArray.size();
+				int start = groupIndex.getFirstChild(groupLevel - 2, k);
+				int end = k + 1 < parentCount ? groupIndex.getFirstChild(groupLevel - 2, k + 1)
+						: groupIndex.getGroupCount(groupLevel - 1);
+				makeAGroupFilteringMultiPass(cx, groupLevel, groupedFilters, accepted[groupLevel - 1], start, end);
 			}
 		} else {
-			makeAGroupFilteringMultiPass(cx, i, groupedFilters, groupBoundaryInfos[i - 1], 0);
+			makeAGroupFilteringMultiPass(cx, groupLevel, groupedFilters, accepted[groupLevel - 1], 0,
+					accepted[groupLevel - 1].length);
 		}
 	}
 
@@ -192,27 +192,27 @@ class GroupInstanceFilter {
 	 *
 	 * @param cx
 	 * @param groupLevel
-	 * @param groupedFilters
-	 * @param j
-	 * @param currentGroupArray
-	 * @param startingGroupInstanceIndex
+	 * @param filters
+	 * @param accepted
+	 * @param start      the index of the first group instance
+	 * @param end        the index after the last group instance
 	 * @throws DataException
 	 */
-	private void makeAGroupFilteringMultiPass(ScriptContext cx, int groupLevel, List filters, List currentGroupArray,
-			int startingGroupInstanceIndex) throws DataException {
-		advanceResultIteratorCursor(groupLevel, startingGroupInstanceIndex);
+	private void makeAGroupFilteringMultiPass(ScriptContext cx, int groupLevel, List filters, boolean[] accepted,
+			int start, int end) throws DataException {
+		moveToGroup(groupLevel, start);
 
 		// Make first pass
 		filterPass.setPassLevel(FilterPassController.FIRST_PASS);
-		filterPass.setRowCount(currentGroupArray.size());
+		filterPass.setRowCount(end - start);
 
-		populateGroupBoundaryInfoFilters(cx, currentGroupArray, filters, groupLevel, false);
+		populateGroupFilters(cx, accepted, start, end, filters, groupLevel, false);
 
-		advanceResultIteratorCursor(groupLevel, startingGroupInstanceIndex);
+		moveToGroup(groupLevel, start);
 		// Make second pass
 		filterPass.setPassLevel(FilterPassController.SECOND_PASS);
 
-		populateGroupBoundaryInfoFilters(cx, currentGroupArray, filters, groupLevel, true);
+		populateGroupFilters(cx, accepted, start, end, filters, groupLevel, true);
 
 		filterPass.setPassLevel(FilterPassController.DEFAULT_PASS);
 		filterPass.setRowCount(FilterPassController.DEFAULT_ROW_COUNT);
@@ -221,41 +221,43 @@ class GroupInstanceFilter {
 
 	/**
 	 * @param groupLevel
-	 * @param startingGroupInstanceIndex
+	 * @param groupIndex
 	 * @throws DataException
 	 */
-	private void advanceResultIteratorCursor(int groupLevel, int startingGroupInstanceIndex) throws DataException {
-		this.populator.getResultIterator().first(0);
-		for (int i = 0; i < startingGroupInstanceIndex; i++) {
-			this.populator.getResultIterator().last(groupLevel);
-			this.populator.getResultIterator().next();
+	private void moveToGroup(int groupLevel, int groupIndex) throws DataException {
+		if (groupIndex == 0) {
+			this.populator.getResultIterator().first(0);
+		} else {
+			this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil().moveToGroup(groupLevel,
+					groupIndex);
 		}
 	}
 
 	/**
-	 * Add filter infos to a group of GroupBoundaryInfo instances.
+	 * Applies filters to a range of group instances of a level. The row cursor is
+	 * on the first row of the first group instance of the range.
 	 *
 	 * @param cx
-	 * @param currentGroupArray
+	 * @param accepted   the flags of the group instances of the level
+	 * @param start
+	 * @param end
 	 * @param filters
 	 * @param groupLevel
-	 * @param setUpValue        if true then set the value to GroupBoundaryInfos,
-	 *                          else not.
+	 * @param setUpValue if true then set the filter results, else not.
 	 * @throws DataException
 	 */
-	private void populateGroupBoundaryInfoFilters(ScriptContext cx, List currentGroupArray, List filters,
+	private void populateGroupFilters(ScriptContext cx, boolean[] accepted, int start, int end, List filters,
 			int groupLevel, boolean setUpValue) throws DataException {
-		for (int m = 0; m < currentGroupArray.size(); m++) {
-			GroupBoundaryInfo currentGBI = (GroupBoundaryInfo) currentGroupArray.get(m);
+		for (int m = start; m < end; m++) {
 			this.populator.getResultIterator().last(groupLevel);
-			if (!currentGBI.isAccpted()) {
+			if (!accepted[m]) {
 				this.populator.getResultIterator().next();
 				continue;
 			}
 
 			boolean accept = evaluateFilters(cx, filters);
 			if (setUpValue) {
-				currentGBI.setAccepted(currentGBI.isAccpted() && accept);
+				accepted[m] = accept;
 			}
 			this.populator.getResultIterator().next();
 		}
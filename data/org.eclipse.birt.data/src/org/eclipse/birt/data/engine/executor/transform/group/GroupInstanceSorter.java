@@ -30,8 +30,10 @@ import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.transform.IExpressionProcessor;
 import org.eclipse.birt.data.engine.executor.transform.OrderingInfo;
 import org.eclipse.birt.data.engine.executor.transform.ResultSetPopulator;
+import org.eclipse.birt.data.engine.expression.CompareHints;
 import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 
+import com.ibm.icu.text.Collator;
 import com.ibm.icu.util.ULocale;
 
 /**
@@ -62,13 +64,17 @@ class GroupInstanceSorter {
 		if (expressionList.size() > 0) {
 			this.groupProcessor.calculateExpressionList(expressionList, groupLevels,
 					IExpressionProcessor.SORT_ON_GROUP_EXPR);
-			// The groupArray gotten here has not be sorted yet.
-			List[] groupArray = this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil()
-					.getGroupBoundaryInfos();
-			populateGroupBoundaryInfosSortings(cx, groupArray);
-			this.groupProcessor.getGroupCalculationUtil().sortGroupBoundaryInfos(groupArray);
-			OrderingInfo odInfo = this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil()
-					.getOrderingInfo(groupArray);
+			GroupBoundaryIndex groupIndex = this.groupProcessor.getGroupCalculationUtil().getGroupInformationUtil()
+					.getGroupBoundaryIndex();
+			int[][] orders = new int[groupIndex.getLevelCount()][];
+			for (int i = 0; i < this.populator.getQuery().getGrouping().length; i++) {
+				List groupSorts = this.populator.getQuery().getGrouping()[i].getSorts();
+				if (groupSorts == null || groupSorts.size() == 0) {
+					continue;
+				}
+				orders[i] = groupIndex.sortWithinParents(i, new GroupKeyComparator(cx, i, groupIndex.getGroupCount(i)));
+			}
+			OrderingInfo odInfo = groupIndex.getOrderingInfo(orders, null);
 
 			this.populator.reSetSmartCacheUsingOrderingInfo(odInfo);
 		}
@@ -96,72 +102,91 @@ class GroupInstanceSorter {
 	}
 
 	/**
-	 * Populate the sortings in GroupBoundaryInfos instance. Each GroupBoundaryInfos
-	 * instance consists of several GroupBoundaryInfo instances.
-	 *
-	 * @param cx
-	 * @param groupArray
-	 * @throws DataException
+	 * Compares the group instances of a level by the values of the group sorts,
+	 * which are evaluated once for every group instance.
 	 */
-	void populateGroupBoundaryInfosSortings(ScriptContext cx, List[] groupArray) throws DataException {
-		for (int i = 0; i < this.populator.getQuery().getGrouping().length; i++) {
-			// The sorts of certain group
-			List groupSorts = this.populator.getQuery().getGrouping()[i].getSorts();
-			if (groupSorts == null || groupSorts.size() == 0) {
-				continue;
+	private class GroupKeyComparator implements GroupBoundaryIndex.GroupIndexComparator {
+		private Object[][] sortKeys;
+		private boolean[] sortDirections;
+		private CompareHints[] compareHints;
+
+		/**
+		 *
+		 * @param cx
+		 * @param groupPosition groupPosition = groupLevel - 1; it is 0-based;
+		 * @param groupCount
+		 * @throws DataException
+		 */
+		GroupKeyComparator(ScriptContext cx, int groupPosition, int groupCount) throws DataException {
+			List groupSorts = populator.getQuery().getGrouping()[groupPosition].getSorts();
+			this.sortDirections = new boolean[groupSorts.size()];
+			this.compareHints = new CompareHints[groupSorts.size()];
+			for (int l = 0; l < groupSorts.size(); l++) {
+				ISortDefinition sort = (ISortDefinition) groupSorts.get(l);
+				sortDirections[l] = sort.getSortDirection() == ISortDefinition.SORT_ASC;
+				ULocale locale = sort.getSortLocale();
+				if (locale == null) {
+					locale = populator.getSession().getEngineContext().getLocale();
+				}
+				compareHints[l] = new CompareHints(sort.getSortStrength() == ISortDefinition.ASCII_SORT_STRENGTH ? null
+						: Collator.getInstance(locale), null);
 			}
-			this.populator.getResultIterator().first(0);
-			for (int j = 0; j < groupArray[i].size(); j++) {
-				populateGroupBoundaryInfoSortings(cx, groupArray, i, j);
+
+			this.sortKeys = new Object[groupCount][];
+			populator.getResultIterator().first(0);
+			for (int j = 0; j < groupCount; j++) {
+				sortKeys[j] = evaluateSortKeys(cx, groupPosition, groupSorts);
 			}
 		}
-	}
 
-	/**
-	 * Add sort infos to GroupBoundaryInfo in groupArray.
-	 *
-	 * @param cx
-	 * @param groupArray
-	 * @param groupPosition groupPosition = groupLevel - 1; it is 0-based;
-	 * @param groupIndex
-	 * @throws DataException
-	 */
-	private void populateGroupBoundaryInfoSortings(ScriptContext cx, List[] groupArray, int groupPosition,
-			int groupIndex) throws DataException {
-		Object[] sortKeys = new Object[this.populator.getQuery().getGrouping()[groupPosition].getSorts().size()];
-		boolean[] sortDirections = new boolean[sortKeys.length];
-		int[] sortStrength = new int[sortKeys.length];
-		ULocale[] sortLocale = new ULocale[sortKeys.length];
-		// populate the sortKeys
-		// this.smartCache.moveTo(((GroupBoundaryInfo)groupArray[groupPosition].get(groupIndex)).getStartIndex());
-		this.populator.getResultIterator().last(groupPosition + 1);
-		for (int l = 0; l < sortKeys.length; l++) {
-			IScriptExpression sortExpr = ((ISortDefinition) this.populator.getQuery().getGrouping()[groupPosition]
-					.getSorts().get(l)).getExpression();
-			if (sortExpr != null) {
-				String datasetName = getDataSetName(sortExpr.getText(), this.populator.getQuery().getQueryDefinition());
-				if (datasetName != null) {
-					sortKeys[l] = this.populator.getResultIterator().getCurrentResult().getFieldValue(datasetName);
-				} else {
-					sortKeys[l] = ScriptEvalUtil.evalExpr(sortExpr,
-							cx.newContext(this.groupProcessor.getExpressionProcessor().getScope()),
-							ScriptExpression.defaultID, 0);
+		/**
+		 * Evaluates the sort keys of the current group instance, and moves to the
+		 * next one.
+		 */
+		private Object[] evaluateSortKeys(ScriptContext cx, int groupPosition, List groupSorts)
+				throws DataException {
+			Object[] keys = new Object[groupSorts.size()];
+			populator.getResultIterator().last(groupPosition + 1);
+			for (int l = 0; l < keys.length; l++) {
+				IScriptExpression sortExpr = ((ISortDefinition) groupSorts.get(l)).getExpression();
+				if (sortExpr != null) {
+					String datasetName = getDataSetName(sortExpr.getText(), populator.getQuery().getQueryDefinition());
+					if (datasetName != null) {
+						keys[l] = populator.getResultIterator().getCurrentResult().getFieldValue(datasetName);
+					} else {
+						keys[l] = ScriptEvalUtil.evalExpr(sortExpr,
+								cx.newContext(groupProcessor.getExpressionProcessor().getScope()),
+								ScriptExpression.defaultID, 0);
+					}
 				}
 			}
-			sortDirections[l] = ((ISortDefinition) this.populator.getQuery().getGrouping()[groupPosition].getSorts()
-					.get(l)).getSortDirection() == ISortDefinition.SORT_ASC ? true : false;
-			sortStrength[l] = ((ISortDefinition) this.populator.getQuery().getGrouping()[groupPosition].getSorts()
-					.get(l)).getSortStrength();
-			ULocale locale = ((ISortDefinition) this.populator.getQuery().getGrouping()[groupPosition].getSorts()
-					.get(l)).getSortLocale();
-			if (locale == null) {
-				locale = populator.getSession().getEngineContext().getLocale();
+			populator.getResultIterator().next();
+			return keys;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see org.eclipse.birt.data.engine.executor.transform.group.GroupBoundaryIndex.
+		 * GroupIndexComparator#compare(int, int)
+		 */
+		@Override
+		public int compare(int index1, int index2) {
+			Object[] keys1 = sortKeys[index1];
+			Object[] keys2 = sortKeys[index2];
+			for (int i = 0; i < keys1.length; i++) {
+				int result;
+				try {
+					result = ScriptEvalUtil.compare(keys1[i], keys2[i], compareHints[i]);
+				} catch (DataException e) {
+					result = 0;
+				}
+				if (result != 0) {
+					return sortDirections[i] ? result : -result;
+				}
 			}
-			sortLocale[l] = locale;
+			return 0;
 		}
-		((GroupBoundaryInfo) groupArray[groupPosition].get(groupIndex)).setSortCondition(sortKeys, sortDirections,
-				sortStrength, sortLocale);
-		this.populator.getResultIterator().next();
 	}
 
 	private static String getDataSetName(String rowExpr, IBaseQueryDefinition baseQueryDefn) throws DataException {
@@ -378,6 +378,8 @@ public class ResourceConstants {
 	public final static String NO_PARENT_RESULT_CURSOR = "data.olap.missingParentCursor";
 	public final static String CANNOT_ACCESS_NULL_DIMENSION_ROW = "data.olap.CannotAccessNullDimensionRow";
 	public final static String NONEXISTENT_DIMENSION = "data.olap.NonexistentDimension";
+	public final static String CUBE_NOT_IN_STORE = "data.olap.CubeNotInStore";
+	public final static String CUBE_STORE_AGGREGATION_NOT_REAPPLIABLE = "data.olap.CubeStoreAggregationNotReappliable";
 	public final static String NONEXISTENT_LEVEL = "data.olap.NonexistentLevel";
 	public final static String NONEXISTENT_KEY_OR_ATTR = "data.olap.NonexistentKeyOrAttr";
 	public final static String UNSUPPORTED_FUNCTION = "data.olap.UnsupportedFunction";
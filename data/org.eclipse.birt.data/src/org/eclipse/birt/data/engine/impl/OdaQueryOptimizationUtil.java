@@ -14,13 +14,29 @@
 
 package org.eclipse.birt.data.engine.impl;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.data.ExpressionUtil;
+import org.eclipse.birt.core.data.QueryPushDown;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
+import org.eclipse.birt.data.engine.api.IBaseExpression;
 import org.eclipse.birt.data.engine.api.IBinding;
+import org.eclipse.birt.data.engine.api.IColumnDefinition;
+import org.eclipse.birt.data.engine.api.IComputedColumn;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.api.IExpressionCollection;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
 import org.eclipse.birt.data.engine.api.IOdaDataSetDesign;
 import org.eclipse.birt.data.engine.api.IQueryDefinition;
+import org.eclipse.birt.data.engine.api.IScriptExpression;
+import org.eclipse.birt.data.engine.api.querydefn.BaseExpression;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.datatools.connectivity.oda.spec.QuerySpecification;
 import org.eclipse.datatools.connectivity.oda.spec.ValidationContext;
@@ -31,6 +47,12 @@ import org.eclipse.datatools.connectivity.oda.spec.ValidationContext;
 
 public class OdaQueryOptimizationUtil {
 
+	/**
+	 * The whole numbers which are pushed down, these compare the same in the data
+	 * engine and in a database
+	 */
+	private static final Pattern WHOLE_NUMBER = Pattern.compile("-?\\d{1,18}"); //$NON-NLS-1$
+
 	public static QuerySpecification optimizeExecution(String dataSourceId, ValidationContext validationContext,
 			IOdaDataSetDesign dataSetDesign, IQueryDefinition query, DataEngineSession session, Map appContext,
 			IQueryContextVisitor contextVisitor) throws DataException {
@@ -42,4 +64,185 @@ public class OdaQueryOptimizationUtil {
 		return null;
 	}
 
+	/**
+	 * Returns the data set filters which a data source can apply to the rows of
+	 * the query as well as the data engine. A filter is pushed down when it
+	 * compares a numeric column of the data source with whole number constants,
+	 * using an operator which treats null values the same as the nulls ordering
+	 * of the data set. Nothing is pushed down when an onFetch script may change
+	 * the row values before the filters.
+	 *
+	 * @param dataSetDesign
+	 * @param filters         the filters of the data set
+	 * @param resultSetHints  the result set hints of the data set
+	 * @param computedColumns the computed columns of the data set
+	 * @param pushedFilters   receives the filters which are pushed down
+	 * @return the push down, or null if no filter can be pushed down
+	 */
+	public static QueryPushDown createPushDown(IOdaDataSetDesign dataSetDesign, List filters, List resultSetHints,
+			List computedColumns, List<IFilterDefinition> pushedFilters) {
+		if (filters == null || filters.isEmpty() || resultSetHints == null || resultSetHints.isEmpty()) {
+			return null;
+		}
+		String onFetchScript = dataSetDesign.getOnFetchScript();
+		if (onFetchScript != null && onFetchScript.trim().length() > 0) {
+			return null;
+		}
+
+		QueryPushDown pushDown = new QueryPushDown();
+		for (int i = 0; i < filters.size(); i++) {
+			IFilterDefinition filter = (IFilterDefinition) filters.get(i);
+			if (!filter.updateAggregation() || !(filter.getExpression() instanceof IConditionalExpression)) {
+				continue;
+			}
+			IConditionalExpression condition = (IConditionalExpression) filter.getExpression();
+			int operator = getPushDownOperator(condition.getOperator(), dataSetDesign.getNullsOrdering());
+			if (operator < 0) {
+				continue;
+			}
+			IColumnDefinition column = getPushDownColumn(condition.getExpression(), resultSetHints, computedColumns);
+			if (column == null) {
+				continue;
+			}
+			Object[] values = getPushDownValues(condition, operator);
+			if (values == null) {
+				continue;
+			}
+			pushDown.addFilter(
+					column.getColumnNativeName() != null ? column.getColumnNativeName() : column.getColumnName(),
+					operator, values);
+			pushedFilters.add(filter);
+		}
+		return pushDown.isEmpty() ? null : pushDown;
+	}
+
+	/**
+	 *
+	 * @param operator      one of the IConditionalExpression operators
+	 * @param nullsOrdering
+	 * @return the QueryPushDown operator, or -1 if the operator is not pushed
+	 *         down
+	 */
+	private static int getPushDownOperator(int operator, String nullsOrdering) {
+		switch (operator) {
+		case IConditionalExpression.OP_EQ:
+			return QueryPushDown.OP_EQ;
+		case IConditionalExpression.OP_BETWEEN:
+			return QueryPushDown.OP_BETWEEN;
+		case IConditionalExpression.OP_IN:
+			return QueryPushDown.OP_IN;
+		case IConditionalExpression.OP_GT:
+		case IConditionalExpression.OP_GE:
+			// a null value is greater than any value when nulls are highest
+			if (IBaseDataSetDesign.NULLS_ORDERING_NULLS_HIGHEST.equals(nullsOrdering)) {
+				return -1;
+			}
+			return operator == IConditionalExpression.OP_GT ? QueryPushDown.OP_GT : QueryPushDown.OP_GE;
+		case IConditionalExpression.OP_LT:
+		case IConditionalExpression.OP_LE:
+			// a null value is less than any value unless nulls are excluded
+			if (!IBaseDataSetDesign.NULLS_ORDERING_EXCLUDE_NULLS.equals(nullsOrdering)) {
+				return -1;
+			}
+			return operator == IConditionalExpression.OP_LT ? QueryPushDown.OP_LT : QueryPushDown.OP_LE;
+		default:
+			return -1;
+		}
+	}
+
+	/**
+	 * Returns the result set hint of the numeric data source column which an
+	 * expression refers to.
+	 *
+	 * @param expr
+	 * @param resultSetHints
+	 * @param computedColumns
+	 * @return the hint, or null if the expression is not a direct reference to a
+	 *         numeric data source column
+	 */
+	private static IColumnDefinition getPushDownColumn(IScriptExpression expr, List resultSetHints,
+			List computedColumns) {
+		if (expr == null || expr.getText() == null || BaseExpression.constantId.equals(expr.getScriptId())) {
+			return null;
+		}
+		String name;
+		try {
+			name = ExpressionUtil.getColumnBindingName(expr.getText());
+			if (name == null) {
+				name = ExpressionUtil.getColumnName(expr.getText());
+			}
+		} catch (BirtException e) {
+			return null;
+		}
+		if (name == null) {
+			return null;
+		}
+		if (computedColumns != null) {
+			for (int i = 0; i < computedColumns.size(); i++) {
+				if (name.equals(((IComputedColumn) computedColumns.get(i)).getName())) {
+					return null;
+				}
+			}
+		}
+		for (int i = 0; i < resultSetHints.size(); i++) {
+			IColumnDefinition column = (IColumnDefinition) resultSetHints.get(i);
+			if (name.equals(column.getColumnName()) || name.equals(column.getAlias())) {
+				int dataType = column.getDataType();
+				return dataType == DataType.INTEGER_TYPE || dataType == DataType.DOUBLE_TYPE
+						|| dataType == DataType.DECIMAL_TYPE ? column : null;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 *
+	 * @param condition
+	 * @param operator  the QueryPushDown operator
+	 * @return the operand values, or null if one of them is not a whole number
+	 *         constant
+	 */
+	private static Object[] getPushDownValues(IConditionalExpression condition, int operator) {
+		if (operator == QueryPushDown.OP_IN) {
+			if (!(condition.getOperand1() instanceof IExpressionCollection)) {
+				Object value = getWholeNumber(condition.getOperand1());
+				return value == null ? null : new Object[] { value };
+			}
+			Collection operands = ((IExpressionCollection) condition.getOperand1()).getExpressions();
+			if (operands == null || operands.isEmpty()) {
+				return null;
+			}
+			Object[] values = new Object[operands.size()];
+			Iterator it = operands.iterator();
+			for (int i = 0; i < values.length; i++) {
+				values[i] = getWholeNumber((IBaseExpression) it.next());
+				if (values[i] == null) {
+					return null;
+				}
+			}
+			return values;
+		}
+		Object value1 = getWholeNumber(condition.getOperand1());
+		if (value1 == null) {
+			return null;
+		}
+		if (operator != QueryPushDown.OP_BETWEEN) {
+			return new Object[] { value1 };
+		}
+		Object value2 = getWholeNumber(condition.getOperand2());
+		return value2 == null ? null : new Object[] { value1, value2 };
+	}
+
+	/**
+	 *
+	 * @param expr
+	 * @return the value of a whole number literal, or null
+	 */
+	private static Object getWholeNumber(IBaseExpression expr) {
+		if (!(expr instanceof IScriptExpression) || ((IScriptExpression) expr).getText() == null) {
+			return null;
+		}
+		String text = ((IScriptExpression) expr).getText().trim();
+		return WHOLE_NUMBER.matcher(text).matches() ? Long.valueOf(text) : null;
+	}
 }
@@ -51,6 +51,7 @@ import org.eclipse.birt.data.engine.impl.document.RDUtil;
 import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
 import org.eclipse.birt.data.engine.impl.document.viewing.IDataSetResultSet;
 import org.eclipse.birt.data.engine.impl.document.viewing.NewInstanceHelper;
+import org.eclipse.birt.data.engine.impl.index.IOrderedIntSet;
 import org.eclipse.birt.data.engine.odi.IDataSource;
 import org.eclipse.birt.data.engine.odi.IEventHandler;
 import org.eclipse.birt.data.engine.odi.IQuery;
@@ -251,7 +252,15 @@ class PreparedIVDataSourceQuery extends PreparedDataSourceQuery {
 					return new EmptyResultIterator();
 				}
 
-				IDataSetResultSet dataSetResult = rdLoad.loadDataSetData(null, null, new HashMap());
+				// the rows which fail an indexed filter are not loaded. A PLS query saves
+				// the data set rows again, and the data set rows of a query run for
+				// generation are saved too, so all of them have to be loaded
+				IOrderedIntSet preFilteredRowIds = null;
+				if (!PLSUtil.isPLSEnabled(queryDefn)
+						&& getEngineContext().getMode() != DataEngineContext.MODE_GENERATION) {
+					preFilteredRowIds = rdLoad.loadPreFilteredRowIds(queryDefn);
+				}
+				IDataSetResultSet dataSetResult = rdLoad.loadDataSetData(preFilteredRowIds, null, new HashMap());
 				StreamManager manager = new StreamManager(getEngineContext(),
 						new QueryResultInfo(queryDefn.getQueryResultsID(), null, 0));
 				if (PLSUtil.isPLSEnabled(queryDefn)) {
@@ -336,6 +345,7 @@ class PreparedIVDataSourceQuery extends PreparedDataSourceQuery {
 
 			manager.dropStream1(DataEngineContext.DATASET_DATA_STREAM);
 			manager.dropStream1(DataEngineContext.DATASET_DATA_LEN_STREAM);
+			manager.dropStream1(DataEngineContext.DATASET_COLUMNAR_STREAM);
 			cleanUpOldRD();
 			OutputStream resultClassStream = manager.getOutStream(DataEngineContext.DATASET_META_STREAM,
 					StreamManager.ROOT_STREAM, StreamManager.SELF_SCOPE);
@@ -27,16 +27,19 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.logging.Level;
 
+import org.eclipse.birt.core.data.QueryPushDown;
 import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
 import org.eclipse.birt.data.engine.api.IBaseQueryResults;
 import org.eclipse.birt.data.engine.api.IColumnDefinition;
 import org.eclipse.birt.data.engine.api.IComputedColumn;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
 import org.eclipse.birt.data.engine.api.IOdaDataSetDesign;
 import org.eclipse.birt.data.engine.api.IPreparedQuery;
 import org.eclipse.birt.data.engine.api.IQueryDefinition;
 import org.eclipse.birt.data.engine.api.IQueryResults;
 import org.eclipse.birt.data.engine.api.querydefn.ColumnDefinition;
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.BaseQuery;
 import org.eclipse.birt.data.engine.executor.CacheIDFetcher;
 import org.eclipse.birt.data.engine.executor.DataSourceFactory;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
@@ -222,6 +225,10 @@ public class PreparedOdaDSQuery extends PreparedDataSourceQuery implements IPrep
 
 		protected QuerySpecification querySpec;
 
+		// the data set filters asked to the data source, and their push down
+		private QueryPushDown pushDown;
+		private List<IFilterDefinition> pushedFilters;
+
 		/**
 		 * @return prepared query
 		 */
@@ -433,6 +440,9 @@ public class PreparedOdaDSQuery extends PreparedDataSourceQuery implements IPrep
 						rollbackHelper.rollback();
 					}
 				}
+				if (querySpec == null) {
+					querySpec = createPushDownSpecification(extDataSet, dataSetType);
+				}
 			}
 
 			if (FilterPrepareUtil.containsExternalFilter(dataSetDesign.getFilters(), dataSetType,
@@ -564,6 +574,59 @@ public class PreparedOdaDSQuery extends PreparedDataSourceQuery implements IPrep
 
 			odiPreparedQuery = odiDSQuery.prepare();
 			odiPreparedQuery.setQuerySpecification(querySpec);
+
+			if (pushDown != null && pushDown.isApplied()) {
+				removePushedFilters();
+			}
+		}
+
+		/**
+		 * Creates a query specification which asks the data source to apply the
+		 * data set filters it can, as a QueryPushDown property. The data engine
+		 * still applies all the filters unless the data source tells that the push
+		 * down is applied. Nothing is pushed down when the rows of the data set are
+		 * cached, as the cache holds the rows of the data set without its filters.
+		 *
+		 * @param extDataSet
+		 * @param dataSetType
+		 * @return the query specification, or null if nothing is pushed down
+		 * @throws DataException
+		 */
+		@SuppressWarnings("restriction")
+		private QuerySpecification createPushDownSpecification(OdaDataSetRuntime extDataSet, String dataSetType)
+				throws DataException {
+			if (dataEngine.getSession().getDataSetCacheManager().needsToCache(dataSetDesign, this.getAppContext())) {
+				return null;
+			}
+			List<IFilterDefinition> filters = new ArrayList<>();
+			QueryPushDown queryPushDown = OdaQueryOptimizationUtil.createPushDown((IOdaDataSetDesign) dataSetDesign,
+					extDataSet.getFilters(), extDataSet.getResultSetHints(), extDataSet.getComputedColumns(),
+					filters);
+			if (queryPushDown == null) {
+				return null;
+			}
+			QuerySpecification spec = new QuerySpecHelper(extDataSet.getDataSource().getExtensionID(), dataSetType)
+					.getFactoryHelper().createQuerySpecification();
+			spec.setProperty(QueryPushDown.KEY, queryPushDown);
+			this.pushDown = queryPushDown;
+			this.pushedFilters = filters;
+			return spec;
+		}
+
+		/**
+		 * Removes the filters which the data source applies from the row filters of
+		 * the query.
+		 */
+		private void removePushedFilters() {
+			if (!(odiQuery instanceof BaseQuery) || ((BaseQuery) odiQuery).getFetchEvents() == null) {
+				return;
+			}
+			List fetchEvents = ((BaseQuery) odiQuery).getFetchEvents();
+			for (int i = 0; i < fetchEvents.size(); i++) {
+				if (fetchEvents.get(i) instanceof FilterByRow) {
+					((FilterByRow) fetchEvents.get(i)).deleteFilter(pushedFilters);
+				}
+			}
 		}
 
 		/**
@@ -127,7 +127,11 @@ class AggregateCalculator {
 			accumulatorManagers[i] = new AccumulatorManager(this.getAggrInfo(i).aggregation);
 		}
 
-		while (validAggregations.size() > 0) {
+		// The simple aggregations are calculated in blocks of rows in the first
+		// pass, the others by their accumulators
+		BatchAggregator batchAggregator = createBatchAggregator(validAggregations);
+
+		while (validAggregations.size() > 0 || batchAggregator != null) {
 			int[] validAggregationArray = new int[validAggregations.size()];
 			for (int i = 0; i < validAggregations.size(); i++) {
 				validAggregationArray[i] = ((Integer) validAggregations.get(i)).intValue();
@@ -138,7 +142,8 @@ class AggregateCalculator {
 				return;
 			}
 
-			pass(scope, cx, populateAggrValue, validAggregationArray);
+			pass(scope, cx, populateAggrValue, validAggregationArray, batchAggregator);
+			batchAggregator = null;
 
 			// Rewind to first row
 			odiResult.first(0);
@@ -148,6 +153,32 @@ class AggregateCalculator {
 		}
 	}
 
+	/**
+	 * Removes the aggregations which can be calculated in blocks from the valid
+	 * aggregations, and returns the aggregator which calculates them.
+	 *
+	 * @param validAggregations
+	 * @return the aggregator, or null if no aggregation can be calculated in
+	 *         blocks
+	 */
+	private BatchAggregator createBatchAggregator(List validAggregations) {
+		List batchAggregations = new ArrayList();
+		for (int i = 0; i < this.aggrCount; i++) {
+			if (BatchAggregator.isSupported(this.getAggrInfo(i))) {
+				batchAggregations.add(Integer.valueOf(i));
+			}
+		}
+		if (batchAggregations.isEmpty()) {
+			return null;
+		}
+		validAggregations.removeAll(batchAggregations);
+		int[] indexes = new int[batchAggregations.size()];
+		for (int i = 0; i < indexes.length; i++) {
+			indexes[i] = ((Integer) batchAggregations.get(i)).intValue();
+		}
+		return new BatchAggregator(this.aggrExprInfoList, indexes, this.aggrValues);
+	}
+
 	/**
 	 * Make a pass to all aggregations. Iterator over entire result set. At each
 	 * row, call each aggregate aggregationtion.
@@ -155,14 +186,20 @@ class AggregateCalculator {
 	 * @param scope
 	 * @param populateAggrValue
 	 * @param validAggregationArray
+	 * @param batchAggregator       the aggregator of the aggregations calculated
+	 *                              in blocks, or null
 	 * @throws DataException
 	 */
-	private void pass(Scriptable scope, ScriptContext cx, boolean[] populateAggrValue, int[] validAggregationArray)
-			throws DataException {
+	private void pass(Scriptable scope, ScriptContext cx, boolean[] populateAggrValue, int[] validAggregationArray,
+			BatchAggregator batchAggregator) throws DataException {
 		do {
 			int startingGroupLevel = odiResult.getStartingGroupLevel();
 			int endingGroupLevel = odiResult.getEndingGroupLevel();
 
+			if (batchAggregator != null) {
+				batchAggregator.onRow(odiResult, startingGroupLevel, endingGroupLevel, scope, cx);
+			}
+
 			for (int i = 0; i < validAggregationArray.length; i++) {
 				int index = validAggregationArray[i];
 				if (invalidAggrSet != null && invalidAggrSet.contains(Integer.valueOf(index))) {
@@ -180,6 +217,10 @@ class AggregateCalculator {
 				}
 			}
 		} while (odiResult.next());
+
+		if (batchAggregator != null) {
+			batchAggregator.finish();
+		}
 	}
 
 	/**
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.aggregation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.script.ScriptContext;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.expression.CompiledExpression;
+import org.eclipse.birt.data.engine.expression.ExprEvaluateUtil;
+import org.eclipse.birt.data.engine.odi.IResultIterator;
+import org.mozilla.javascript.Scriptable;
+
+/**
+ * Calculates the simple SUM, COUNT, MIN, MAX and AVE aggregations of an
+ * aggregate table in blocks of rows. The argument expressions are evaluated
+ * once per row whatever the number of aggregations on them, and the values are
+ * kept column by column for a block of rows with the group boundaries of the
+ * rows. When the block is full, every aggregation runs over its argument column
+ * with primitive arithmetic, for all the groups the block covers.
+ *
+ * Only aggregations which give the same values as their accumulators are
+ * calculated this way: single pass summary aggregations without filter or
+ * calculation level, whose arguments are all required.
+ */
+class BatchAggregator {
+	private static final String SUM_FUNC = "SUM"; //$NON-NLS-1$
+	private static final String COUNT_FUNC = "COUNT"; //$NON-NLS-1$
+	private static final String MIN_FUNC = "MIN"; //$NON-NLS-1$
+	private static final String MAX_FUNC = "MAX"; //$NON-NLS-1$
+	private static final String AVE_FUNC = "AVE"; //$NON-NLS-1$
+
+	private static final int BLOCK_SIZE = 1024;
+
+	// the distinct argument expressions, and the values of the rows in the block
+	private List<CompiledExpression> columnExprs;
+	private Column[] columns;
+
+	// the group boundaries of the rows in the block
+	private int[] startingGroupLevels;
+	private int[] endingGroupLevels;
+	private int rowCount;
+
+	private Aggregation[] aggregations;
+	private List[] aggrValues;
+
+	/**
+	 *
+	 * @param aggrExprInfoList
+	 * @param aggrIndexes      the indexes of the aggregations to calculate
+	 * @param aggrValues       the value lists of all the aggregations
+	 */
+	BatchAggregator(List aggrExprInfoList, int[] aggrIndexes, List[] aggrValues) {
+		this.aggrValues = aggrValues;
+		this.columnExprs = new ArrayList<>();
+		this.aggregations = new Aggregation[aggrIndexes.length];
+		for (int i = 0; i < aggrIndexes.length; i++) {
+			AggrExprInfo aggrInfo = (AggrExprInfo) aggrExprInfoList.get(aggrIndexes[i]);
+			int column = -1;
+			if (aggrInfo.args != null && aggrInfo.args.length > 0) {
+				// CompiledExpression only implements equals(), so no hash map
+				column = columnExprs.indexOf(aggrInfo.args[0]);
+				if (column < 0) {
+					column = columnExprs.size();
+					columnExprs.add(aggrInfo.args[0]);
+				}
+			}
+			aggregations[i] = new Aggregation(aggrIndexes[i], aggrInfo, column);
+		}
+		this.columns = new Column[columnExprs.size()];
+		for (int i = 0; i < columns.length; i++) {
+			columns[i] = new Column();
+		}
+		this.startingGroupLevels = new int[BLOCK_SIZE];
+		this.endingGroupLevels = new int[BLOCK_SIZE];
+	}
+
+	/**
+	 * Returns whether the aggregation can be calculated in blocks.
+	 *
+	 * @param aggrInfo
+	 * @return
+	 */
+	static boolean isSupported(AggrExprInfo aggrInfo) {
+		IAggrFunction aggregation = aggrInfo.aggregation;
+		if (aggregation.getType() != IAggrFunction.SUMMARY_AGGR || aggregation.getNumberOfPasses() > 1
+				|| aggrInfo.filter != null || aggrInfo.calculateLevel > 0) {
+			return false;
+		}
+		String name = aggregation.getName();
+		int argCount = aggrInfo.args == null ? 0 : aggrInfo.args.length;
+		if (COUNT_FUNC.equals(name) && argCount == 0) {
+			return true;
+		}
+		// an optional argument is only evaluated at the start of a group
+		IParameterDefn[] argDefs = aggregation.getParameterDefn();
+		if (argCount != 1 || argDefs.length != 1 || argDefs[0].isOptional()) {
+			return false;
+		}
+		if (SUM_FUNC.equals(name) || AVE_FUNC.equals(name)) {
+			return aggregation.getDataType() == DataType.DOUBLE_TYPE;
+		}
+		return MIN_FUNC.equals(name) || MAX_FUNC.equals(name);
+	}
+
+	/**
+	 * Evaluates the arguments of the current row of the result. The block is
+	 * calculated when it is full.
+	 *
+	 * @param odiResult
+	 * @param startingGroupLevel
+	 * @param endingGroupLevel
+	 * @param scope
+	 * @param cx
+	 * @throws DataException
+	 */
+	void onRow(IResultIterator odiResult, int startingGroupLevel, int endingGroupLevel, Scriptable scope,
+			ScriptContext cx) throws DataException {
+		for (int i = 0; i < columns.length; i++) {
+			try {
+				columns[i].values[rowCount] = ExprEvaluateUtil.evaluateCompiledExpression(columnExprs.get(i),
+						odiResult, scope, cx);
+			} catch (DataException e) {
+				columns[i].setError(rowCount, e);
+			}
+		}
+		startingGroupLevels[rowCount] = startingGroupLevel;
+		endingGroupLevels[rowCount] = endingGroupLevel;
+		rowCount++;
+		if (rowCount == BLOCK_SIZE) {
+			calculateBlock();
+		}
+	}
+
+	/**
+	 * Calculates the rows left in the block. Called at the end of the result.
+	 *
+	 * @throws DataException
+	 */
+	void finish() throws DataException {
+		if (rowCount > 0) {
+			calculateBlock();
+		}
+	}
+
+	/**
+	 *
+	 * @throws DataException
+	 */
+	private void calculateBlock() throws DataException {
+		for (int i = 0; i < columns.length; i++) {
+			columns[i].converted = false;
+		}
+		for (int i = 0; i < aggregations.length; i++) {
+			Aggregation aggregation = aggregations[i];
+			aggregation.calculate(aggregation.column < 0 ? null : columns[aggregation.column]);
+		}
+		for (int i = 0; i < columns.length; i++) {
+			columns[i].clear(rowCount);
+		}
+		rowCount = 0;
+	}
+
+	/**
+	 * The argument values of the rows in the block.
+	 */
+	private class Column {
+		private Object[] values = new Object[BLOCK_SIZE];
+		// the evaluation or conversion errors, null if there is none
+		private DataException[] errors;
+
+		// the values as doubles, converted for the first aggregation which needs
+		// them
+		private boolean converted;
+		private double[] doubles = new double[BLOCK_SIZE];
+		private boolean[] isNull = new boolean[BLOCK_SIZE];
+
+		void setError(int row, DataException e) {
+			if (errors == null) {
+				errors = new DataException[BLOCK_SIZE];
+			}
+			errors[row] = e;
+		}
+
+		DataException getError(int row) {
+			return errors == null ? null : errors[row];
+		}
+
+		void convert() {
+			if (converted) {
+				return;
+			}
+			for (int i = 0; i < rowCount; i++) {
+				Object value = values[i];
+				if (value instanceof Double) {
+					doubles[i] = ((Double) value).doubleValue();
+					isNull[i] = false;
+				} else if (value == null) {
+					isNull[i] = true;
+				} else {
+					isNull[i] = false;
+					if (getError(i) != null) {
+						continue;
+					}
+					try {
+						doubles[i] = DataTypeUtil.toDouble(value).doubleValue();
+					} catch (BirtException e) {
+						setError(i, DataException.wrap(e));
+					}
+				}
+			}
+			converted = true;
+		}
+
+		void clear(int count) {
+			for (int i = 0; i < count; i++) {
+				values[i] = null;
+			}
+			errors = null;
+		}
+	}
+
+	/**
+	 * The state of one aggregation in the current group.
+	 */
+	private class Aggregation {
+		private int index;
+		private int groupLevel;
+		private String name;
+		private IAggrFunction function;
+		private int column;
+
+		private int count;
+		private boolean hasSum;
+		private double sum;
+		private Object best;
+
+		// the error which makes the values of the aggregation invalid
+		private DataException invalid;
+
+		Aggregation(int index, AggrExprInfo aggrInfo, int column) {
+			this.index = index;
+			this.groupLevel = aggrInfo.groupLevel;
+			this.function = aggrInfo.aggregation;
+			this.name = function.getName();
+			this.column = column;
+		}
+
+		void calculate(Column values) throws DataException {
+			boolean isNumeric = SUM_FUNC.equals(name) || AVE_FUNC.equals(name);
+			boolean isMax = MAX_FUNC.equals(name);
+			if (isNumeric) {
+				values.convert();
+			}
+			for (int row = 0; row < rowCount; row++) {
+				if (invalid != null) {
+					if (endingGroupLevels[row] <= groupLevel) {
+						aggrValues[index].add(invalid);
+					}
+					continue;
+				}
+				if (startingGroupLevels[row] <= groupLevel) {
+					count = 0;
+					hasSum = false;
+					sum = 0;
+					best = null;
+				}
+				if (values == null) {
+					count++;
+				} else if (values.getError(row) != null) {
+					invalid = values.getError(row);
+					if (endingGroupLevels[row] <= groupLevel) {
+						aggrValues[index].add(invalid);
+					}
+					continue;
+				} else if (isNumeric) {
+					if (!values.isNull[row]) {
+						addToSum(values.doubles[row]);
+						count++;
+					}
+				} else if (values.values[row] != null) {
+					compare(values.values[row], isMax);
+				}
+				if (endingGroupLevels[row] <= groupLevel) {
+					aggrValues[index].add(getValue());
+				}
+			}
+		}
+
+		/**
+		 * Adds the same way as the number calculator of the built-in aggregations,
+		 * which gives NaN once one of the operands is NaN or infinite.
+		 */
+		private void addToSum(double value) {
+			if (!hasSum) {
+				sum = value;
+				hasSum = true;
+			} else if (Double.isNaN(sum) || Double.isInfinite(sum) || Double.isNaN(value)
+					|| Double.isInfinite(value)) {
+				sum = Double.NaN;
+			} else {
+				sum += value;
+			}
+		}
+
+		private void compare(Object value, boolean isMax) throws DataException {
+			if (best == null) {
+				best = value;
+				return;
+			}
+			int result;
+			if (value instanceof Double && best instanceof Double) {
+				result = Double.compare(((Double) value).doubleValue(), ((Double) best).doubleValue());
+			} else if (value instanceof Comparable && best instanceof Comparable) {
+				result = ((Comparable) value).compareTo(best);
+			} else {
+				// let the accumulator report the values it can not compare
+				Accumulator accumulator = function.newAccumulator();
+				accumulator.start();
+				accumulator.onRow(new Object[] { best });
+				accumulator.onRow(new Object[] { value });
+				accumulator.finish();
+				best = accumulator.getValue();
+				return;
+			}
+			if (isMax ? result > 0 : result < 0) {
+				best = value;
+			}
+		}
+
+		private Object getValue() {
+			if (SUM_FUNC.equals(name)) {
+				return hasSum ? Double.valueOf(sum) : null;
+			}
+			if (AVE_FUNC.equals(name)) {
+				if (count == 0 || !hasSum) {
+					return null;
+				}
+				if (Double.isNaN(sum) || Double.isInfinite(sum)) {
+					return Double.valueOf(Double.NaN);
+				}
+				return Double.valueOf(sum / count);
+			}
+			if (COUNT_FUNC.equals(name)) {
+				return Integer.valueOf(count);
+			}
+			return best;
+		}
+	}
+}
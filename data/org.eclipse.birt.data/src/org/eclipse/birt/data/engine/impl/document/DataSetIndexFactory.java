@@ -14,17 +14,340 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.impl.document;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.data.ExpressionUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.IBaseExpression;
+import org.eclipse.birt.data.engine.api.IBinding;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.api.IExpressionCollection;
+import org.eclipse.birt.data.engine.api.IFilterDefinition;
+import org.eclipse.birt.data.engine.api.IScriptExpression;
+import org.eclipse.birt.data.engine.api.querydefn.BaseExpression;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
+import org.eclipse.birt.data.engine.impl.index.BitmapOrderedIntSet;
+import org.eclipse.birt.data.engine.impl.index.DataSetBitmapIndex;
+import org.eclipse.birt.data.engine.impl.index.IDataSetIndex;
 import org.eclipse.birt.data.engine.impl.index.IIndexSerializer;
+import org.eclipse.birt.data.engine.impl.index.IOrderedIntSet;
+import org.eclipse.birt.data.engine.impl.index.SerializableBitmapIndex;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.storage.DataSetStore;
 
 /**
  *
  */
 
 public class DataSetIndexFactory {
+	// the literals whose values are looked up in an index
+	private static final Pattern STRING_LITERAL = Pattern.compile("(['\"])([^'\"\\\\]*)\\1"); //$NON-NLS-1$
+	private static final Pattern WHOLE_NUMBER = Pattern.compile("-?\\d{1,18}"); //$NON-NLS-1$
+
+	/**
+	 *
+	 * @param fieldName
+	 * @return the name of the index stream of a data set column
+	 */
+	public static String getIndexName(String fieldName) {
+		return "Index/" + fieldName + "/btreeIndex"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Creates the serializer of the index of a data set column. The column is
+	 * indexed with one compressed bitmap of row ids per value, which takes a few
+	 * bytes per row. The column is not indexed if its bitmaps take more than the
+	 * given memory.
+	 *
+	 * @param memory   the memory the index may take while it is built, 0 for no
+	 *                 limit
+	 * @param name
+	 * @param manager
+	 * @param dataType
+	 * @return
+	 * @throws DataException
+	 */
 	public static IIndexSerializer createIndex(long memory, String name, StreamManager manager, Class dataType)
 			throws DataException {
+		return new SerializableBitmapIndex(name, manager, memory);
+	}
+
+	/**
+	 * Opens the index saved by the serializer of createIndex.
+	 *
+	 * @param name
+	 * @param manager
+	 * @return the index, or null if the column is not indexed
+	 * @throws DataException
+	 */
+	public static IDataSetIndex loadIndex(String name, StreamManager manager) throws DataException {
+		RAInputStream stream = manager.getInStream(name);
+		if (stream == null) {
+			return null;
+		}
+		return new DataSetBitmapIndex(stream);
+	}
+
+	/**
+	 * Looks the row filters of a query up in the indexes of the saved data set
+	 * columns. The EQ and IN filters on an indexed column with string or whole
+	 * number literals are looked up in the index of the column. The EQ, IN and
+	 * BETWEEN filters on another numeric column with whole number literals are
+	 * looked up in the minimum and maximum values of the blocks of a data set
+	 * saved column by column. A row which is not returned fails one of them.
+	 * The filters still have to be evaluated on the returned rows.
+	 *
+	 * @param manager     the stream manager of the saved data set
+	 * @param resultClass the result class of the saved data set
+	 * @param filters     the filters of the query
+	 * @param bindings    the bindings of the query
+	 * @return the ids of the rows which may pass the filters, or null if no filter
+	 *         could be looked up
+	 * @throws DataException
+	 */
+	public static IOrderedIntSet getPreFilteredRowIds(StreamManager manager, IResultClass resultClass, List filters,
+			Map bindings) throws DataException {
+		if (filters == null || filters.isEmpty()) {
+			return null;
+		}
+		List<IOrderedIntSet> rowIds = new ArrayList<>();
+		List<String> rangeColumns = new ArrayList<>();
+		List<Object> lows = new ArrayList<>();
+		List<Object> highs = new ArrayList<>();
+		for (int i = 0; i < filters.size(); i++) {
+			IFilterDefinition filter = (IFilterDefinition) filters.get(i);
+			if (!filter.updateAggregation() || !(filter.getExpression() instanceof IConditionalExpression)) {
+				continue;
+			}
+			IConditionalExpression condition = (IConditionalExpression) filter.getExpression();
+			int operator = condition.getOperator();
+			if (operator != IConditionalExpression.OP_EQ && operator != IConditionalExpression.OP_IN
+					&& operator != IConditionalExpression.OP_BETWEEN) {
+				continue;
+			}
+			int fieldIndex = getField(condition.getExpression(), resultClass, bindings);
+			if (fieldIndex <= 0) {
+				continue;
+			}
+			if (operator != IConditionalExpression.OP_BETWEEN && resultClass.isIndexColumn(fieldIndex)) {
+				IOrderedIntSet keyRowIds = getKeyRowIds(manager, resultClass, fieldIndex, condition);
+				if (keyRowIds != null) {
+					rowIds.add(keyRowIds);
+					continue;
+				}
+			}
+			Object[] range = getRange(condition, resultClass.getFieldValueClass(fieldIndex));
+			if (range != null) {
+				rangeColumns.add(resultClass.getFieldName(fieldIndex));
+				lows.add(range[0]);
+				highs.add(range[1]);
+			}
+		}
+		if (!rangeColumns.isEmpty()) {
+			IOrderedIntSet candidateRows = DataSetStore.getCandidateRows(manager, resultClass,
+					rangeColumns.toArray(new String[rangeColumns.size()]), lows.toArray(), highs.toArray());
+			if (candidateRows != null) {
+				rowIds.add(candidateRows);
+			}
+		}
+		return rowIds.isEmpty() ? null : BitmapOrderedIntSet.and(rowIds);
+	}
+
+	/**
+	 *
+	 * @param manager
+	 * @param resultClass
+	 * @param fieldIndex
+	 * @param condition   an EQ or IN condition
+	 * @return the ids of the rows with the keys of the condition in the index of
+	 *         the field, or null if the keys can not be looked up
+	 * @throws DataException
+	 */
+	private static IOrderedIntSet getKeyRowIds(StreamManager manager, IResultClass resultClass, int fieldIndex,
+			IConditionalExpression condition) throws DataException {
+		Object key = getKey(condition, resultClass.getFieldValueClass(fieldIndex));
+		if (key == null) {
+			return null;
+		}
+		RAInputStream stream = manager.getInStream(getIndexName(resultClass.getFieldName(fieldIndex)));
+		if (stream == null) {
+			return null;
+		}
+		try {
+			return new DataSetBitmapIndex(stream).getKeyIndex(key, condition.getOperator());
+		} finally {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				throw new DataException(e.getLocalizedMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * A null value is not equal to any literal and not between two literals,
+	 * whatever the nulls ordering, so the blocks without a value in the range of
+	 * the condition have no row which passes it.
+	 *
+	 * @param condition  an EQ, IN or BETWEEN condition
+	 * @param fieldClass the class of the column values
+	 * @return the lowest and the highest literal of the condition, or null if the
+	 *         column is not numeric or an operand is not a whole number literal
+	 */
+	private static Object[] getRange(IConditionalExpression condition, Class fieldClass) {
+		if (fieldClass == null || !Number.class.isAssignableFrom(fieldClass)) {
+			return null;
+		}
+		List<IBaseExpression> operands = new ArrayList<>();
+		if (condition.getOperand1() instanceof IExpressionCollection) {
+			Collection expressions = ((IExpressionCollection) condition.getOperand1()).getExpressions();
+			if (expressions == null || expressions.isEmpty()) {
+				return null;
+			}
+			operands.addAll(expressions);
+		} else {
+			operands.add(condition.getOperand1());
+			if (condition.getOperator() == IConditionalExpression.OP_BETWEEN) {
+				operands.add(condition.getOperand2());
+			}
+		}
+		Long low = null;
+		Long high = null;
+		for (int i = 0; i < operands.size(); i++) {
+			Long value = (Long) getLiteral(operands.get(i), Long.class);
+			if (value == null) {
+				return null;
+			}
+			if (condition.getOperator() == IConditionalExpression.OP_BETWEEN) {
+				// the bounds as they are, a reversed range is empty anyway
+				low = i == 0 ? value : low;
+				high = i == 1 ? value : high;
+			} else {
+				low = low == null || value.longValue() < low.longValue() ? value : low;
+				high = high == null || value.longValue() > high.longValue() ? value : high;
+			}
+		}
+		return new Object[] { low, high };
+	}
+
+	/**
+	 *
+	 * @param expr
+	 * @param resultClass
+	 * @param bindings
+	 * @return the index of the field the expression refers to directly, or -1
+	 * @throws DataException
+	 */
+	private static int getField(IScriptExpression expr, IResultClass resultClass, Map bindings)
+			throws DataException {
+		String name = getColumnName(expr);
+		if (name == null && expr != null && expr.getText() != null && bindings != null) {
+			// a row filter may refer to a binding of a data set column
+			try {
+				String bindingName = ExpressionUtil.getColumnBindingName(expr.getText());
+				IBinding binding = bindingName == null ? null : (IBinding) bindings.get(bindingName);
+				if (binding != null && binding.getAggrFunction() == null
+						&& binding.getExpression() instanceof IScriptExpression) {
+					name = getColumnName((IScriptExpression) binding.getExpression());
+				}
+			} catch (BirtException e) {
+				return -1;
+			}
+		}
+		if (name == null) {
+			return -1;
+		}
+		return resultClass.getFieldIndex(name);
+	}
+
+	/**
+	 *
+	 * @param expr
+	 * @return the name of the data set column the expression is, or null
+	 */
+	private static String getColumnName(IScriptExpression expr) {
+		if (expr == null || expr.getText() == null || BaseExpression.constantId.equals(expr.getScriptId())) {
+			return null;
+		}
+		try {
+			return ExpressionUtil.getColumnName(expr.getText());
+		} catch (BirtException e) {
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * @param condition
+	 * @param keyClass  the class of the column values
+	 * @return the key, or the list of keys of an IN filter, to look up, or null
+	 *         if an operand is not a literal of the class of the column
+	 */
+	private static Object getKey(IConditionalExpression condition, Class keyClass) {
+		if (condition.getOperator() == IConditionalExpression.OP_EQ
+				|| !(condition.getOperand1() instanceof IExpressionCollection)) {
+			Object key = getLiteral(condition.getOperand1(), keyClass);
+			if (key == null || condition.getOperator() == IConditionalExpression.OP_EQ) {
+				return key;
+			}
+			List<Object> keys = new ArrayList<>();
+			keys.add(key);
+			return keys;
+		}
+		Collection operands = ((IExpressionCollection) condition.getOperand1()).getExpressions();
+		if (operands == null || operands.isEmpty()) {
+			return null;
+		}
+		List<Object> keys = new ArrayList<>();
+		Iterator it = operands.iterator();
+		while (it.hasNext()) {
+			Object key = getLiteral((IBaseExpression) it.next(), keyClass);
+			if (key == null) {
+				return null;
+			}
+			keys.add(key);
+		}
+		return keys;
+	}
+
+	/**
+	 * A literal is looked up only if it compares equal to exactly the column
+	 * values which are equal to it, so strings are looked up in string columns
+	 * and whole numbers in integer columns.
+	 *
+	 * @param expr
+	 * @param keyClass
+	 * @return the value of the literal, or null
+	 */
+	private static Object getLiteral(IBaseExpression expr, Class keyClass) {
+		if (!(expr instanceof IScriptExpression) || ((IScriptExpression) expr).getText() == null
+				|| BaseExpression.constantId.equals(((IScriptExpression) expr).getScriptId())) {
+			return null;
+		}
+		String text = ((IScriptExpression) expr).getText().trim();
+		if (keyClass == String.class) {
+			Matcher matcher = STRING_LITERAL.matcher(text);
+			return matcher.matches() ? matcher.group(2) : null;
+		}
+		if (!WHOLE_NUMBER.matcher(text).matches()) {
+			return null;
+		}
+		long value = Long.parseLong(text);
+		if (keyClass == Long.class) {
+			return Long.valueOf(value);
+		}
+		if (keyClass == Integer.class && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+			return Integer.valueOf((int) value);
+		}
 		return null;
 	}
 }
@@ -29,6 +29,7 @@ import org.eclipse.birt.core.archive.RAInputStream;
 import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.data.engine.api.DataEngineContext;
 import org.eclipse.birt.data.engine.api.IBaseQueryDefinition;
+import org.eclipse.birt.data.engine.api.IQueryDefinition;
 import org.eclipse.birt.data.engine.api.ISubqueryDefinition;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ResultClass;
@@ -299,6 +300,23 @@ public class RDLoad {
 				adjustedVersion, includeInnerID, PLSUtil.isRowIdSaved(streamManager));
 	}
 
+	/**
+	 * Looks the row filters of the query up in the indexes of the saved data set.
+	 *
+	 * @param queryDefn
+	 * @return the ids of the rows which may pass the filters of the query, to be
+	 *         passed to loadDataSetData, or null if no filter can be looked up
+	 * @throws DataException
+	 */
+	public IOrderedIntSet loadPreFilteredRowIds(IQueryDefinition queryDefn) throws DataException {
+		if (!streamManager.hasInStream(DataEngineContext.DATASET_META_STREAM, StreamManager.ROOT_STREAM,
+				StreamManager.BASE_SCOPE)) {
+			return null;
+		}
+		return DataSetIndexFactory.getPreFilteredRowIds(streamManager, loadResultClass(), queryDefn.getFilters(),
+				queryDefn.getBindings());
+	}
+
 	private int resolveVersionConflict() {
 		if (version == VersionManager.VERSION_3_7_2_1 && ("4.2.0.v20120611".equals(this.context.getBundleVersion())
 				|| "4.2.1.v20120820".equals(this.context.getBundleVersion()))) {
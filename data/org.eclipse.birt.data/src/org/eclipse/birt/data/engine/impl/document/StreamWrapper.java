@@ -141,7 +141,7 @@ public class StreamWrapper {
 			long memoryBufferSize = CacheUtil.computeMemoryBufferSize(appContext);
 
 			IIndexSerializer index = DataSetIndexFactory.createIndex(memoryBufferSize / indexColumnCount,
-					"Index/" + fieldName + "/btreeIndex", manager, dataType);
+					DataSetIndexFactory.getIndexName(fieldName), manager, dataType);
 			if (index != null) {
 				result.put(fieldName, index);
 			}
@@ -150,12 +150,20 @@ public class StreamManager {
 
 	public RAInputStream getInStream(String streamSubName) throws DataException {
 		StreamID streamID = getStreamID(0, ROOT_STREAM, BASE_SCOPE);
+		String streamName = "/" + streamID.getStartStream() + "/" + streamSubName;
 		RAInputStream inputStream;
 		try {
-			if (!context.getDocWriter().exists("/" + streamID.getStartStream() + "/" + streamSubName)) {
-				return null;
+			if (context.getDocWriter() != null) {
+				if (!context.getDocWriter().exists(streamName)) {
+					return null;
+				}
+				inputStream = context.getDocWriter().getInputStream(streamName);
+			} else {
+				if (context.getDocReader() == null || !context.getDocReader().exists(streamName)) {
+					return null;
+				}
+				inputStream = context.getDocReader().getInputStream(streamName);
 			}
-			inputStream = context.getDocWriter().getInputStream("/" + streamID.getStartStream() + "/" + streamSubName);
 		} catch (IOException e) {
 			throw new DataException(e.getLocalizedMessage(), e);
 		}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+
+/**
+ * An ordered set of row ids backed by a compressed bitmap. The sets of several
+ * filter conditions are combined with bitmap intersections and unions, without
+ * boxing the row ids.
+ */
+
+public class BitmapOrderedIntSet implements IOrderedIntSet {
+	private CompressedBitmap bitmap;
+	private int size = -1;
+
+	/**
+	 *
+	 * @param bitmap
+	 */
+	public BitmapOrderedIntSet(CompressedBitmap bitmap) {
+		this.bitmap = bitmap;
+	}
+
+	/**
+	 * Returns the set as a bitmap set, copying its row ids if it is not one.
+	 *
+	 * @param set
+	 * @return
+	 */
+	public static BitmapOrderedIntSet valueOf(IOrderedIntSet set) {
+		if (set instanceof BitmapOrderedIntSet) {
+			return (BitmapOrderedIntSet) set;
+		}
+		CompressedBitmap bitmap = new CompressedBitmap();
+		IOrderedIntSetIterator it = set.iterator();
+		while (it.hasNext()) {
+			bitmap.add(it.next());
+		}
+		return new BitmapOrderedIntSet(bitmap);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public CompressedBitmap getBitmap() {
+		return bitmap;
+	}
+
+	/**
+	 *
+	 * @param other
+	 * @return a new set with the row ids which are in both this set and the other
+	 */
+	public BitmapOrderedIntSet and(IOrderedIntSet other) {
+		return new BitmapOrderedIntSet(bitmap.and(valueOf(other).bitmap));
+	}
+
+	/**
+	 * Intersects the sets from the smallest one, and stops as soon as the
+	 * intersection is empty.
+	 *
+	 * @param sets
+	 * @return a new set with the row ids which are in all of the sets
+	 */
+	public static BitmapOrderedIntSet and(List<? extends IOrderedIntSet> sets) {
+		List<BitmapOrderedIntSet> sorted = new ArrayList<>(sets.size());
+		for (int i = 0; i < sets.size(); i++) {
+			sorted.add(valueOf(sets.get(i)));
+		}
+		Collections.sort(sorted, new Comparator<BitmapOrderedIntSet>() {
+
+			@Override
+			public int compare(BitmapOrderedIntSet o1, BitmapOrderedIntSet o2) {
+				return Integer.compare(o1.size(), o2.size());
+			}
+		});
+		CompressedBitmap result = sorted.isEmpty() ? new CompressedBitmap() : sorted.get(0).bitmap;
+		for (int i = 1; i < sorted.size() && !result.isEmpty(); i++) {
+			result = result.and(sorted.get(i).bitmap);
+		}
+		return new BitmapOrderedIntSet(result);
+	}
+
+	/**
+	 *
+	 * @param other
+	 * @return a new set with the row ids which are in this set or in the other
+	 */
+	public BitmapOrderedIntSet or(IOrderedIntSet other) {
+		return new BitmapOrderedIntSet(bitmap.or(valueOf(other).bitmap));
+	}
+
+	/**
+	 *
+	 * @param sets
+	 * @return a new set with the row ids which are in any of the sets
+	 */
+	public static BitmapOrderedIntSet or(List<? extends IOrderedIntSet> sets) {
+		List<CompressedBitmap> bitmaps = new ArrayList<>(sets.size());
+		for (int i = 0; i < sets.size(); i++) {
+			bitmaps.add(valueOf(sets.get(i)).bitmap);
+		}
+		return new BitmapOrderedIntSet(CompressedBitmap.or(bitmaps));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IOrderedIntSet#iterator()
+	 */
+	@Override
+	public IOrderedIntSetIterator iterator() {
+		return new IOrderedIntSetIterator() {
+
+			private int next = bitmap.nextValue(0);
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public int next() {
+				int result = next;
+				next = result == Integer.MAX_VALUE ? -1 : bitmap.nextValue(result + 1);
+				return result;
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IOrderedIntSet#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty() {
+		return bitmap.isEmpty();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IOrderedIntSet#size()
+	 */
+	@Override
+	public int size() {
+		if (size < 0) {
+			size = bitmap.getCardinality();
+		}
+		return size;
+	}
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.index;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.api.IConditionalExpression;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+
+/**
+ * The index of a data set column saved by SerializableBitmapIndex. The
+ * directory of the keys is read when the index is first used, and the bitmap of
+ * a key only when a filter asks for it. The bitmaps which have been read are
+ * softly cached.
+ */
+
+public class DataSetBitmapIndex implements IDataSetIndex {
+	private RAInputStream stream;
+
+	// the keys and their bitmaps, null until the directory is read
+	private Map<Object, Entry> entries;
+	private long dataOffset;
+
+	// the class of the keys, to which the searched keys are converted
+	private Class keyClass;
+
+	/**
+	 *
+	 * @param stream
+	 */
+	public DataSetBitmapIndex(RAInputStream stream) {
+		this.stream = stream;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.impl.index.IDataSetIndex#getKeyIndex(java.lang.
+	 * Object, int)
+	 */
+	@Override
+	public IOrderedIntSet getKeyIndex(Object key, int filterType) throws DataException {
+		if (!supportFilter(filterType)) {
+			throw new UnsupportedOperationException();
+		}
+		if (filterType == IConditionalExpression.OP_EQ) {
+			return new BitmapOrderedIntSet(getBitmap(key));
+		}
+		List candidate = (List) key;
+		List<CompressedBitmap> bitmaps = new ArrayList<>(candidate.size());
+		for (Object eachKey : candidate) {
+			CompressedBitmap bitmap = getBitmap(eachKey);
+			if (!bitmap.isEmpty()) {
+				bitmaps.add(bitmap);
+			}
+		}
+		if (bitmaps.size() == 1) {
+			return new BitmapOrderedIntSet(bitmaps.get(0));
+		}
+		return new BitmapOrderedIntSet(CompressedBitmap.or(bitmaps));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IDataSetIndex#supportFilter(int)
+	 */
+	@Override
+	public boolean supportFilter(int filterType) throws DataException {
+		return filterType == IConditionalExpression.OP_EQ || filterType == IConditionalExpression.OP_IN;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IDataSetIndex#getAllKeyValues()
+	 */
+	@Override
+	public Object[] getAllKeyValues() throws DataException {
+		return getEntries().keySet().toArray();
+	}
+
+	/**
+	 * Returns the first row of every key.
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IDataSetIndex#getAllKeyRows()
+	 */
+	@Override
+	public IOrderedIntSet getAllKeyRows() throws DataException {
+		CompressedBitmap result = new CompressedBitmap();
+		for (Entry entry : getEntries().values()) {
+			result.add(entry.firstRow);
+		}
+		return new BitmapOrderedIntSet(result);
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @return the bitmap of the rows of the key, which is empty if there is none
+	 * @throws DataException
+	 */
+	private CompressedBitmap getBitmap(Object key) throws DataException {
+		Map<Object, Entry> entries = getEntries();
+		Entry entry = entries.get(key);
+		if (entry == null && key != null && keyClass != null && key.getClass() != keyClass) {
+			try {
+				entry = entries.get(DataTypeUtil.convert(key, keyClass));
+			} catch (BirtException e) {
+				// a key which can not be converted is not in the index
+			}
+		}
+		if (entry == null) {
+			return new CompressedBitmap();
+		}
+		synchronized (stream) {
+			CompressedBitmap bitmap = entry.bitmap == null ? null : entry.bitmap.get();
+			if (bitmap == null) {
+				try {
+					stream.seek(dataOffset + entry.offset);
+					bitmap = CompressedBitmap.readFrom(new DataInputStream(new BufferedInputStream(stream)));
+				} catch (IOException e) {
+					throw new DataException(e.getLocalizedMessage(), e);
+				}
+				entry.bitmap = new SoftReference<>(bitmap);
+			}
+			return bitmap;
+		}
+	}
+
+	/**
+	 * Reads the directory of the keys if it has not been read.
+	 *
+	 * @return
+	 * @throws DataException
+	 */
+	private Map<Object, Entry> getEntries() throws DataException {
+		synchronized (stream) {
+			if (entries != null) {
+				return entries;
+			}
+			try {
+				stream.seek(0);
+				DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+				int keyCount = IOUtil.readInt(input);
+				int directoryLength = IOUtil.readInt(input);
+				Map<Object, Entry> result = new HashMap<>(keyCount * 4 / 3 + 1);
+				for (int i = 0; i < keyCount; i++) {
+					Object key = IOUtil.readObject(input);
+					Entry entry = new Entry();
+					entry.firstRow = IOUtil.readInt(input);
+					entry.offset = IOUtil.readLong(input);
+					result.put(key, entry);
+					if (key != null && keyClass == null) {
+						keyClass = key.getClass();
+					}
+				}
+				dataOffset = 8 + directoryLength;
+				entries = result;
+				return entries;
+			} catch (IOException e) {
+				throw new DataException(e.getLocalizedMessage(), e);
+			}
+		}
+	}
+
+	/**
+	 * The directory entry of a key.
+	 */
+	private static class Entry {
+		private int firstRow;
+		private long offset;
+		private SoftReference<CompressedBitmap> bitmap;
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.index;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.eclipse.birt.core.archive.RAOutputStream;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+
+/**
+ * Saves the index of a data set column as one compressed bitmap of row ids per
+ * distinct column value. The index is written to a single stream in the
+ * format: key count, directory length, the directory, then the bitmaps. For
+ * every key the directory holds the key, its first row and the offset of its
+ * bitmap from the end of the directory, so that DataSetBitmapIndex only has to
+ * read the bitmaps a filter uses. A column whose bitmaps take more than the
+ * given memory before they are saved is not indexed.
+ */
+
+public class SerializableBitmapIndex implements IIndexSerializer {
+	// the estimated memory size of a key, its map entry and its empty bitmap
+	private static final int KEY_SIZE = 128;
+	// the estimated memory size of a row id in a sparse bitmap
+	private static final int ROW_SIZE = 2;
+
+	private Map<Object, CompressedBitmap> bitmaps = new HashMap<>();
+	private boolean closed = false;
+	// a column with values which can not be saved, or with so many distinct
+	// values that the bitmaps do not fit into the memory, is not indexed
+	private boolean unsupported = false;
+	private StreamManager manager;
+	private String indexName;
+	private long memory;
+	private long estimatedSize = 0;
+
+	/**
+	 *
+	 * @param indexName
+	 * @param manager
+	 */
+	public SerializableBitmapIndex(String indexName, StreamManager manager) {
+		this(indexName, manager, 0);
+	}
+
+	/**
+	 *
+	 * @param indexName
+	 * @param manager
+	 * @param memory    the memory the bitmaps may take until they are saved, 0
+	 *                  for no limit
+	 */
+	public SerializableBitmapIndex(String indexName, StreamManager manager, long memory) {
+		this.indexName = indexName;
+		this.manager = manager;
+		this.memory = memory;
+	}
+
+	/**
+	 * Adds a row to the bitmap of a key.
+	 *
+	 * @param key   the column value
+	 * @param rowId the Integer id of the row
+	 * @return the bitmap of the key, or null if the column can not be indexed
+	 */
+	@Override
+	public Object put(Object key, Object rowId) throws DataException {
+		if (unsupported) {
+			return null;
+		}
+		if (IOUtil.getTypeIndex(key) == -1) {
+			unsupported = true;
+			bitmaps.clear();
+			return null;
+		}
+		CompressedBitmap bitmap = bitmaps.get(key);
+		if (bitmap == null) {
+			bitmap = new CompressedBitmap();
+			bitmaps.put(key, bitmap);
+			estimatedSize += KEY_SIZE;
+		}
+		bitmap.add(((Integer) rowId).intValue());
+		estimatedSize += ROW_SIZE;
+		if (memory > 0 && estimatedSize > memory) {
+			unsupported = true;
+			bitmaps.clear();
+			return null;
+		}
+		return bitmap;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.impl.index.IIndexSerializer#close()
+	 */
+	@Override
+	public void close() throws DataException {
+		if (closed) {
+			return;
+		}
+		this.closed = true;
+		if (bitmaps.isEmpty()) {
+			return;
+		}
+		try {
+			// the directory is small, the bitmaps are written one by one after it
+			ByteArrayOutputStream directory = new ByteArrayOutputStream();
+			DataOutputStream directoryOutput = new DataOutputStream(directory);
+			long offset = 0;
+			for (Map.Entry<Object, CompressedBitmap> entry : bitmaps.entrySet()) {
+				CompressedBitmap bitmap = entry.getValue();
+				IOUtil.writeObject(directoryOutput, entry.getKey());
+				IOUtil.writeInt(directoryOutput, bitmap.nextValue(0));
+				IOUtil.writeLong(directoryOutput, offset);
+				offset += bitmap.getSerializedSize();
+			}
+			directoryOutput.flush();
+
+			RAOutputStream indexStream = manager.getOutStream(indexName);
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(indexStream));
+			IOUtil.writeInt(output, bitmaps.size());
+			IOUtil.writeInt(output, directory.size());
+			directory.writeTo(output);
+			Iterator<CompressedBitmap> it = bitmaps.values().iterator();
+			while (it.hasNext()) {
+				it.next().writeTo(output);
+				it.remove();
+			}
+			output.close();
+		} catch (IOException e) {
+			throw new DataException(e.getLocalizedMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,492 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.impl.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A compressed set of non negative integers. The integers are divided into
+ * chunks of 65536 values by their high 16 bits. The low 16 bits of the values
+ * of a sparse chunk are kept in a sorted array, and the ones of a dense chunk
+ * in a bitmap of 1024 longs, so that the set takes at most about two bytes per
+ * value and at most 8 KB per chunk.
+ */
+
+public class CompressedBitmap {
+	// a chunk with more values than this is kept as a bitmap
+	private static final int MAX_ARRAY_SIZE = 4096;
+	private static final int BITMAP_SIZE = 1024;
+
+	private int[] keys;
+	private Container[] containers;
+	private int size;
+
+	/**
+	 *
+	 */
+	public CompressedBitmap() {
+		this.keys = new int[4];
+		this.containers = new Container[4];
+		this.size = 0;
+	}
+
+	/**
+	 * Adds a value to the set.
+	 *
+	 * @param value
+	 */
+	public void add(int value) {
+		assert value >= 0;
+		int key = value >>> 16;
+		int index = findContainer(key);
+		if (index < 0) {
+			index = -index - 1;
+			insertContainer(index, key, new ArrayContainer());
+		}
+		containers[index] = containers[index].add((char) value);
+	}
+
+	/**
+	 * Returns whether the set contains the value.
+	 *
+	 * @param value
+	 * @return
+	 */
+	public boolean contains(int value) {
+		if (value < 0) {
+			return false;
+		}
+		int index = findContainer(value >>> 16);
+		return index >= 0 && containers[index].contains((char) value);
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 *
+	 * @return the number of values in the set
+	 */
+	public int getCardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].getCardinality();
+		}
+		return cardinality;
+	}
+
+	/**
+	 * Returns the smallest value in the set which is not less than the given
+	 * value.
+	 *
+	 * @param from
+	 * @return the value, or -1 if there is none
+	 */
+	public int nextValue(int from) {
+		if (from < 0) {
+			from = 0;
+		}
+		int index = findContainer(from >>> 16);
+		if (index >= 0) {
+			int low = containers[index].nextValue(from & 0xFFFF);
+			if (low >= 0) {
+				return keys[index] << 16 | low;
+			}
+			index++;
+		} else {
+			index = -index - 1;
+		}
+		for (; index < size; index++) {
+			int low = containers[index].nextValue(0);
+			if (low >= 0) {
+				return keys[index] << 16 | low;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 *
+	 * @param other
+	 * @return a new set with the values which are in this set or in the other
+	 */
+	public CompressedBitmap or(CompressedBitmap other) {
+		return or(Arrays.asList(this, other));
+	}
+
+	/**
+	 *
+	 * @param bitmaps
+	 * @return a new set with the values which are in any of the sets
+	 */
+	public static CompressedBitmap or(List<CompressedBitmap> bitmaps) {
+		TreeMap<Integer, long[]> chunks = new TreeMap<>();
+		for (int i = 0; i < bitmaps.size(); i++) {
+			CompressedBitmap bitmap = bitmaps.get(i);
+			for (int j = 0; j < bitmap.size; j++) {
+				long[] words = chunks.get(bitmap.keys[j]);
+				if (words == null) {
+					words = new long[BITMAP_SIZE];
+					chunks.put(bitmap.keys[j], words);
+				}
+				bitmap.containers[j].orInto(words);
+			}
+		}
+		CompressedBitmap result = new CompressedBitmap();
+		for (Map.Entry<Integer, long[]> chunk : chunks.entrySet()) {
+			result.appendContainer(chunk.getKey(), Container.fromWords(chunk.getValue()));
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param other
+	 * @return a new set with the values which are in both this set and the other
+	 */
+	public CompressedBitmap and(CompressedBitmap other) {
+		CompressedBitmap result = new CompressedBitmap();
+		int i = 0, j = 0;
+		while (i < size && j < other.size) {
+			if (keys[i] < other.keys[j]) {
+				i++;
+			} else if (other.keys[j] < keys[i]) {
+				j++;
+			} else {
+				Container container = containers[i].and(other.containers[j]);
+				if (container.getCardinality() > 0) {
+					result.appendContainer(keys[i], container);
+				}
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param output
+	 * @throws IOException
+	 */
+	public void writeTo(DataOutput output) throws IOException {
+		output.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			output.writeShort(keys[i]);
+			containers[i].writeTo(output);
+		}
+	}
+
+	/**
+	 *
+	 * @return the number of bytes writeTo writes
+	 */
+	public long getSerializedSize() {
+		long result = 4;
+		for (int i = 0; i < size; i++) {
+			int cardinality = containers[i].getCardinality();
+			result += 6 + (cardinality > MAX_ARRAY_SIZE ? BITMAP_SIZE * 8 : cardinality * 2);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param input
+	 * @return
+	 * @throws IOException
+	 */
+	public static CompressedBitmap readFrom(DataInput input) throws IOException {
+		CompressedBitmap result = new CompressedBitmap();
+		int count = input.readInt();
+		for (int i = 0; i < count; i++) {
+			int key = input.readUnsignedShort();
+			int cardinality = input.readInt();
+			Container container;
+			if (cardinality > MAX_ARRAY_SIZE) {
+				long[] words = new long[BITMAP_SIZE];
+				for (int j = 0; j < words.length; j++) {
+					words[j] = input.readLong();
+				}
+				container = new BitmapContainer(words, cardinality);
+			} else {
+				char[] values = new char[cardinality];
+				for (int j = 0; j < cardinality; j++) {
+					values[j] = input.readChar();
+				}
+				container = new ArrayContainer(values, cardinality);
+			}
+			result.appendContainer(key, container);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @return the index of the container, or (-(insertion point) - 1)
+	 */
+	private int findContainer(int key) {
+		// values are usually added in ascending order
+		if (size > 0 && keys[size - 1] == key) {
+			return size - 1;
+		}
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	private void insertContainer(int index, int key, Container container) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, index, keys, index + 1, size - index);
+		System.arraycopy(containers, index, containers, index + 1, size - index);
+		keys[index] = key;
+		containers[index] = container;
+		size++;
+	}
+
+	private void appendContainer(int key, Container container) {
+		insertContainer(size, key, container);
+	}
+
+	/**
+	 * The low 16 bits of the values of one chunk.
+	 */
+	private static abstract class Container {
+		abstract Container add(char value);
+
+		abstract boolean contains(char value);
+
+		abstract int getCardinality();
+
+		abstract int nextValue(int from);
+
+		abstract long[] toWords();
+
+		abstract void orInto(long[] words);
+
+		abstract void writeTo(DataOutput output) throws IOException;
+
+		Container and(Container other) {
+			long[] words = toWords();
+			long[] otherWords = other.toWords();
+			for (int i = 0; i < words.length; i++) {
+				words[i] &= otherWords[i];
+			}
+			return fromWords(words);
+		}
+
+		static Container fromWords(long[] words) {
+			int cardinality = 0;
+			for (int i = 0; i < words.length; i++) {
+				cardinality += Long.bitCount(words[i]);
+			}
+			if (cardinality > MAX_ARRAY_SIZE) {
+				return new BitmapContainer(words, cardinality);
+			}
+			char[] values = new char[cardinality];
+			int index = 0;
+			for (int i = 0; i < words.length; i++) {
+				long word = words[i];
+				while (word != 0) {
+					values[index++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+			return new ArrayContainer(values, cardinality);
+		}
+	}
+
+	private static class ArrayContainer extends Container {
+		private char[] values;
+		private int cardinality;
+
+		ArrayContainer() {
+			this(new char[4], 0);
+		}
+
+		ArrayContainer(char[] values, int cardinality) {
+			this.values = values;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			int index;
+			if (cardinality == 0 || values[cardinality - 1] < value) {
+				index = cardinality;
+			} else {
+				index = Arrays.binarySearch(values, 0, cardinality, value);
+				if (index >= 0) {
+					return this;
+				}
+				index = -index - 1;
+			}
+			if (cardinality == MAX_ARRAY_SIZE) {
+				BitmapContainer bitmap = new BitmapContainer(toWords(), cardinality);
+				return bitmap.add(value);
+			}
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(Math.max(cardinality * 2, 4), MAX_ARRAY_SIZE));
+			}
+			System.arraycopy(values, index, values, index + 1, cardinality - index);
+			values[index] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		int getCardinality() {
+			return cardinality;
+		}
+
+		@Override
+		int nextValue(int from) {
+			int index = Arrays.binarySearch(values, 0, cardinality, (char) from);
+			if (index < 0) {
+				index = -index - 1;
+			}
+			return index < cardinality ? values[index] : -1;
+		}
+
+		@Override
+		long[] toWords() {
+			long[] words = new long[BITMAP_SIZE];
+			orInto(words);
+			return words;
+		}
+
+		@Override
+		void orInto(long[] words) {
+			for (int i = 0; i < cardinality; i++) {
+				words[values[i] >>> 6] |= 1L << values[i];
+			}
+		}
+
+		@Override
+		Container and(Container other) {
+			if (!(other instanceof ArrayContainer)) {
+				return super.and(other);
+			}
+			ArrayContainer array = (ArrayContainer) other;
+			char[] result = new char[Math.min(cardinality, array.cardinality)];
+			int count = 0;
+			int i = 0, j = 0;
+			while (i < cardinality && j < array.cardinality) {
+				if (values[i] < array.values[j]) {
+					i++;
+				} else if (array.values[j] < values[i]) {
+					j++;
+				} else {
+					result[count++] = values[i];
+					i++;
+					j++;
+				}
+			}
+			return new ArrayContainer(result, count);
+		}
+
+		@Override
+		void writeTo(DataOutput output) throws IOException {
+			output.writeInt(cardinality);
+			for (int i = 0; i < cardinality; i++) {
+				output.writeChar(values[i]);
+			}
+		}
+	}
+
+	private static class BitmapContainer extends Container {
+		private long[] words;
+		private int cardinality;
+
+		BitmapContainer(long[] words, int cardinality) {
+			this.words = words;
+			this.cardinality = cardinality;
+		}
+
+		@Override
+		Container add(char value) {
+			long bit = 1L << value;
+			if ((words[value >>> 6] & bit) == 0) {
+				words[value >>> 6] |= bit;
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		int getCardinality() {
+			return cardinality;
+		}
+
+		@Override
+		int nextValue(int from) {
+			int index = from >>> 6;
+			if (index >= BITMAP_SIZE) {
+				return -1;
+			}
+			long word = words[index] & (-1L << from);
+			while (true) {
+				if (word != 0) {
+					return index * 64 + Long.numberOfTrailingZeros(word);
+				}
+				if (++index == BITMAP_SIZE) {
+					return -1;
+				}
+				word = words[index];
+			}
+		}
+
+		@Override
+		long[] toWords() {
+			return words.clone();
+		}
+
+		@Override
+		void orInto(long[] words) {
+			for (int i = 0; i < words.length; i++) {
+				words[i] |= this.words[i];
+			}
+		}
+
+		@Override
+		void writeTo(DataOutput output) throws IOException {
+			output.writeInt(cardinality);
+			for (int i = 0; i < words.length; i++) {
+				output.writeLong(words[i]);
+			}
+		}
+	}
+}
@@ -30,8 +30,10 @@ import org.eclipse.birt.core.archive.FileArchiveReader;
 import org.eclipse.birt.core.archive.FileArchiveWriter;
 import org.eclipse.birt.core.archive.IDocArchiveReader;
 import org.eclipse.birt.core.archive.IDocArchiveWriter;
+import org.eclipse.birt.core.data.DataTypeUtil;
 import org.eclipse.birt.core.data.ExpressionUtil;
 import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
 import org.eclipse.birt.data.engine.api.IBaseExpression;
 import org.eclipse.birt.data.engine.api.IShutdownListener;
 import org.eclipse.birt.data.engine.cache.Constants;
@@ -74,6 +76,7 @@ import org.eclipse.birt.data.engine.olap.data.impl.facttable.FactTableRowIterato
 import org.eclipse.birt.data.engine.olap.data.util.BufferedStructureArray;
 import org.eclipse.birt.data.engine.olap.data.util.DiskSortedStack;
 import org.eclipse.birt.data.engine.olap.data.util.IDiskArray;
+import org.eclipse.birt.data.engine.olap.data.util.SynchronizedDiskArray;
 import org.eclipse.birt.data.engine.olap.impl.query.CubeQueryExecutor;
 import org.eclipse.birt.data.engine.olap.util.OlapExpressionCompiler;
 import org.eclipse.birt.data.engine.olap.util.filter.BaseDimensionFilterEvalHelper;
@@ -832,11 +835,20 @@ public class CubeQueryExecutorHelper implements ICubeQueryExcutorHelper {
 			throws DataException, IOException, BirtException {
 		IDiskArray[] dimPosition = getFilterResult();
 
-		FactTableRowIterator factTableRowIterator = populateFactTableIterator(stopSign, dimPosition);
-		DimensionResultIterator[] dimensionResultIterators = populateDimensionResultIterator(dimPosition, stopSign);
+		IDataSet4Aggregation[] partitionDataSets = null;
+		IDataSet4Aggregation dataSet4Aggregation;
+		int partitionCount = getAggregationPartitionCount();
+		if (partitionCount > 1) {
+			partitionDataSets = populatePartitionDataSets(dimPosition, partitionCount, stopSign);
+			dataSet4Aggregation = partitionDataSets[0];
+		} else {
+			FactTableRowIterator factTableRowIterator = populateFactTableIterator(stopSign, dimPosition);
+			DimensionResultIterator[] dimensionResultIterators = populateDimensionResultIterator(dimPosition,
+					stopSign);
 
-		IDataSet4Aggregation dataSet4Aggregation = new DataSetFromOriginalCube(factTableRowIterator,
-				dimensionResultIterators, computedMeasureHelper);
+			dataSet4Aggregation = new DataSetFromOriginalCube(factTableRowIterator, dimensionResultIterators,
+					computedMeasureHelper);
+		}
 
 		long memoryCacheSize = this.memoryCacheSize;
 		if (this.appContext != null) {
@@ -849,10 +861,65 @@ public class CubeQueryExecutorHelper implements ICubeQueryExcutorHelper {
 				dataSet4Aggregation, aggregations, memoryCacheSize);
 
 		aggregationCalculatorExecutor.setMaxDataObjectRows(maxDataObjectRows);
+		aggregationCalculatorExecutor.setPartitionDataSets(partitionDataSets);
 
 		return aggregationCalculatorExecutor.execute(stopSign);
 	}
 
+	/**
+	 * Returns the number of fact table partitions which are aggregated in
+	 * parallel. The parallel scan is only used when it is enabled through
+	 * <code>DataEngine.CUBE_AGGREGATION_PARALLELISM</code> and no script has to be
+	 * evaluated per fact table row, since script scopes can not be shared between
+	 * threads.
+	 *
+	 * @return
+	 */
+	private int getAggregationPartitionCount() {
+		if (this.appContext == null || !this.measureFilters.isEmpty() || this.computedMeasureHelper != null) {
+			return 1;
+		}
+		int parallelism;
+		try {
+			Integer value = DataTypeUtil.toInteger(this.appContext.get(DataEngine.CUBE_AGGREGATION_PARALLELISM));
+			parallelism = value == null ? 1 : value.intValue();
+		} catch (BirtException e) {
+			logger.log(java.util.logging.Level.WARNING, e.getLocalizedMessage(), e);
+			return 1;
+		}
+		return Math.min(parallelism, cube.getFactTable().getSegmentCount());
+	}
+
+	/**
+	 * Creates one data set per fact table partition. The partitions share the
+	 * dimension filter result, which is read from all the workers.
+	 *
+	 * @param dimPosition
+	 * @param partitionCount
+	 * @param stopSign
+	 * @return
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	private IDataSet4Aggregation[] populatePartitionDataSets(IDiskArray[] dimPosition, int partitionCount,
+			StopSign stopSign) throws DataException, IOException {
+		IDiskArray[] sharedDimPosition = new IDiskArray[dimPosition.length];
+		for (int i = 0; i < dimPosition.length; i++) {
+			if (dimPosition[i] != null) {
+				sharedDimPosition[i] = new SynchronizedDiskArray(dimPosition[i]);
+			}
+		}
+		IDataSet4Aggregation[] result = new IDataSet4Aggregation[partitionCount];
+		for (int i = 0; i < partitionCount; i++) {
+			FactTableRowIterator factTableRowIterator = populateFactTableIterator(stopSign, sharedDimPosition,
+					partitionCount, i);
+			DimensionResultIterator[] dimensionResultIterators = populateDimensionResultIterator(sharedDimPosition,
+					stopSign);
+			result[i] = new DataSetFromOriginalCube(factTableRowIterator, dimensionResultIterators, null);
+		}
+		return result;
+	}
+
 	/**
 	 *
 	 * @param stopSign
@@ -863,6 +930,20 @@ public class CubeQueryExecutorHelper implements ICubeQueryExcutorHelper {
 	 */
 	public FactTableRowIterator populateFactTableIterator(StopSign stopSign, IDiskArray[] dimPosition)
 			throws IOException {
+		return populateFactTableIterator(stopSign, dimPosition, 1, 0);
+	}
+
+	/**
+	 *
+	 * @param stopSign
+	 * @param dimPosition
+	 * @param partitionCount
+	 * @param partitionIndex
+	 * @return
+	 * @throws IOException
+	 */
+	private FactTableRowIterator populateFactTableIterator(StopSign stopSign, IDiskArray[] dimPosition,
+			int partitionCount, int partitionIndex) throws IOException {
 		int count = 0;
 		for (int i = 0; i < dimPosition.length; i++) {
 			if (dimPosition[i] != null) {
@@ -882,7 +963,7 @@ public class CubeQueryExecutorHelper implements ICubeQueryExcutorHelper {
 		}
 
 		FactTableRowIterator factTableRowIterator = new FactTableRowIterator(cube.getFactTable(), validDimensionName,
-				validDimPosition, cube.getDimesions(), null, stopSign);
+				validDimPosition, cube.getDimesions(), null, partitionCount, partitionIndex, stopSign);
 		if (cubePosFilters != null && !cubePosFilters.isEmpty()) {// add fact table filter if it's necessary
 			for (Iterator itr = cubePosFilters.iterator(); itr.hasNext();) {
 				ICubePosFilter cubePosFilter = (ICubePosFilter) itr.next();
@@ -14,9 +14,17 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.olap.data.api.cube;
 
-import java.io.EOFException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.birt.core.archive.IDocArchiveWriter;
 import org.eclipse.birt.core.archive.RAOutputStream;
@@ -29,12 +37,19 @@ import org.eclipse.birt.data.engine.impl.DataEngineImpl;
 import org.eclipse.birt.data.engine.impl.StopSign;
 import org.eclipse.birt.data.engine.olap.data.api.ILevel;
 import org.eclipse.birt.data.engine.olap.data.document.DocumentManagerFactory;
+import org.eclipse.birt.data.engine.olap.data.document.DocumentObjectUtil;
 import org.eclipse.birt.data.engine.olap.data.document.IDocumentManager;
 import org.eclipse.birt.data.engine.olap.data.document.IDocumentObject;
 import org.eclipse.birt.data.engine.olap.data.impl.Cube;
 import org.eclipse.birt.data.engine.olap.data.impl.NamingUtil;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.Dimension;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionDatasetIterator;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionFactory;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.Hierarchy;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.LevelDefinition;
+import org.eclipse.birt.data.engine.olap.data.impl.facttable.FactTableAccessor;
+import org.eclipse.birt.data.engine.olap.data.impl.facttable.FactTableDatasetIterator;
+import org.eclipse.birt.data.engine.olap.data.util.ConcatenatedDatasetIterator;
 
 /**
  *
@@ -43,6 +58,13 @@ import org.eclipse.birt.data.engine.olap.data.impl.dimension.Hierarchy;
 public class CubeMaterializer {
 	private IDocumentManager documentManager;
 	private DataEngine dataEngine;
+	private Map<String, IDocumentManager> storedCubes = new HashMap<>();
+	private boolean buildBitmapIndex = false;
+	private int hierarchyParallelism = 1;
+
+	// the measure aggregations which give the same result when they are applied
+	// to already aggregated values again
+	private static String[] reappliableAggrNames = { "SUM", "MAX", "MIN" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
 	/**
 	 *
@@ -97,6 +119,37 @@ public class CubeMaterializer {
 		dataEngine.addShutdownListener(new DocManagerReleaser(dataEngine));
 	}
 
+	/**
+	 * Sets whether the cubes created by this materializer get a bitmap index on
+	 * their fact tables, which lets selective cube queries skip the fact table
+	 * rows of the unselected dimension members without reading them.
+	 *
+	 * @param buildBitmapIndex
+	 */
+	public void setBuildBitmapIndex(boolean buildBitmapIndex) {
+		this.buildBitmapIndex = buildBitmapIndex;
+	}
+
+	/**
+	 * Sets the maximum number of hierarchies createHierarchies writes at the same
+	 * time. The default is 1, which builds them one after another on the calling
+	 * thread.
+	 *
+	 * @param parallelism
+	 */
+	public void setHierarchyParallelism(int parallelism) {
+		this.hierarchyParallelism = Math.max(parallelism, 1);
+	}
+
+	/**
+	 *
+	 * @return the maximum number of hierarchies createHierarchies writes at the
+	 *         same time
+	 */
+	public int getHierarchyParallelism() {
+		return hierarchyParallelism;
+	}
+
 	/**
 	 *
 	 * @return
@@ -122,6 +175,134 @@ public class CubeMaterializer {
 		return hierarchy;
 	}
 
+	/**
+	 * Creates several independent hierarchies. The data sets of the hierarchies
+	 * are opened and read one after another on the calling thread, since they
+	 * may run through state which is confined to it, such as a script scope. As
+	 * soon as the rows of a hierarchy are read and sorted, a worker merges them
+	 * and writes the hierarchy and its level indexes to the document manager of
+	 * this materializer, while the calling thread reads the next data set. Up to
+	 * the hierarchy parallelism of hierarchies are written at the same time.
+	 *
+	 * The materializer closes the data sets. It returns or throws only after all
+	 * the workers have finished.
+	 *
+	 * @param dimensionNames
+	 * @param hierarchyNames
+	 * @param iterators      open the data sets of the hierarchies
+	 * @param levelDefs
+	 * @param stopSign
+	 * @return the hierarchies, in the order of the arguments
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	public IHierarchy[] createHierarchies(String[] dimensionNames, String[] hierarchyNames,
+			Callable<IDatasetIterator>[] iterators, ILevelDefn[][] levelDefs, StopSign stopSign)
+			throws IOException, BirtException {
+		IHierarchy[] hierarchies = new IHierarchy[iterators.length];
+		int parallelism = Math.min(hierarchyParallelism, iterators.length);
+		if (parallelism <= 1) {
+			for (int i = 0; i < iterators.length; i++) {
+				IDatasetIterator iterator = openDataset(iterators[i]);
+				try {
+					hierarchies[i] = createHierarchy(dimensionNames[i], hierarchyNames[i], iterator, levelDefs[i],
+							stopSign);
+				} finally {
+					iterator.close();
+				}
+			}
+			return hierarchies;
+		}
+
+		final String tempPath = DataEngineThreadLocal.getInstance().getPathManager().getTempPath();
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			List<ForkJoinTask<Object>> tasks = new ArrayList<>();
+			for (int i = 0; i < iterators.length; i++) {
+				if (i >= parallelism) {
+					// keeps at most the parallelism of read hierarchies waiting for a worker
+					tasks.get(i - parallelism).get();
+				}
+				final Hierarchy hierarchy = new Hierarchy(documentManager, dimensionNames[i], hierarchyNames[i]);
+				IDatasetIterator iterator = openDataset(iterators[i]);
+				try {
+					hierarchy.readHierarchyRows(iterator, levelDefs[i]);
+				} finally {
+					iterator.close();
+				}
+				hierarchies[i] = hierarchy;
+				tasks.add(pool.submit(() -> {
+					DataEngineThreadLocal.getInstance().getPathManager().setTempPath(tempPath);
+					try {
+						hierarchy.saveHierarchy(stopSign);
+					} finally {
+						DataEngineThreadLocal.getInstance().getCloseListener().closeAll();
+						DataEngineThreadLocal.getInstance().removeCloseListener();
+						DataEngineThreadLocal.getInstance().removeTempPathManger();
+					}
+					return null;
+				}));
+			}
+			for (int i = 0; i < tasks.size(); i++) {
+				tasks.get(i).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataException(ResourceConstants.UNEXPECTED_ERROR, e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof BirtException) {
+				throw (BirtException) cause;
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new DataException(ResourceConstants.UNEXPECTED_ERROR, cause);
+		} finally {
+			pool.shutdown();
+			awaitTermination(pool);
+		}
+		return hierarchies;
+	}
+
+	/**
+	 * Waits until the workers of the pool have finished, so that nothing writes
+	 * to the document manager any more when createHierarchies returns or throws.
+	 *
+	 * @param pool
+	 */
+	private static void awaitTermination(ForkJoinPool pool) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				if (pool.awaitTermination(1, TimeUnit.SECONDS)) {
+					break;
+				}
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 *
+	 * @param iterator
+	 * @return
+	 * @throws BirtException
+	 */
+	private static IDatasetIterator openDataset(Callable<IDatasetIterator> iterator) throws BirtException {
+		try {
+			return iterator.call();
+		} catch (BirtException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new DataException(ResourceConstants.UNEXPECTED_ERROR, e);
+		}
+	}
+
 	/**
 	 *
 	 * @param name
@@ -210,6 +391,7 @@ public class CubeMaterializer {
 			throw new DataException(ResourceConstants.MISSING_DIMENSION_IN_CUBE, name);
 		}
 		Cube cube = new Cube(name, documentManager);
+		cube.setBuildBitmapIndex(buildBitmapIndex);
 		cube.create(factTableJointColumnNames, DimJointColumnNames, dimensions, factTable, measureColumns,
 				calculatedMeasure, measureAggrFunctionNames, cacheSize, stopSign);
 		cube.close();
@@ -225,64 +407,380 @@ public class CubeMaterializer {
 	 */
 	public void saveCubeToReportDocument(String cubeName, IDocArchiveWriter writer, StopSign stopSign)
 			throws IOException, DataException {
-		Cube cube = new Cube(cubeName, documentManager);
-		cube.load(stopSign);
-		// save cube
-		saveDocObjToReportDocument(NamingUtil.getCubeDocName(cubeName), writer, stopSign);
-		// save facttable
-		String factTableName = cube.getFactTable().getName();
-		saveDocObjToReportDocument(NamingUtil.getFactTableName(factTableName), writer, stopSign);
-		saveDocObjToReportDocument(NamingUtil.getFTSUListName(factTableName), writer, stopSign);
-		// save FTSU
-		IDocumentObject documentObject = documentManager.openDocumentObject(NamingUtil.getFTSUListName(factTableName));
+		IDocumentManager manager = getCubeDocumentManager(cubeName);
+		List<String> names = getCubeDocumentObjectNames(manager, cubeName, stopSign);
+		for (int i = 0; i < names.size(); i++) {
+			saveDocObjToReportDocument(manager, names.get(i), writer, stopSign);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Loads the cube from the cube store if it has been materialized there with
+	 * the given signature.
+	 *
+	 * @param store
+	 * @param cubeName
+	 * @param signature
+	 * @return true if the cube is loaded, false if it needs to be created
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public boolean loadCubeFromStore(CubeStore store, String cubeName, String signature)
+			throws IOException, DataException {
+		IDocumentManager manager = store.open(cubeName, signature);
+		if (manager == null) {
+			return false;
+		}
+		registerStoredCube(cubeName, manager);
+		return true;
+	}
+
+	/**
+	 * Saves the cube, which has been created by this materializer, to the cube
+	 * store so that it can be loaded by later runs with the same signature.
+	 *
+	 * @param store
+	 * @param cubeName
+	 * @param signature
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public void saveCubeToStore(CubeStore store, String cubeName, String signature, StopSign stopSign)
+			throws IOException, DataException {
+		saveCubeToStore(store, cubeName, signature, null, stopSign);
+	}
+
+	/**
+	 * Saves the cube, which has been created by this materializer, to the cube
+	 * store so that it can be loaded by later runs with the same signature, and
+	 * appended to by later runs with the same definition.
+	 *
+	 * @param store
+	 * @param cubeName
+	 * @param signature
+	 * @param definition the signature of the cube definition alone, see
+	 *                   CubeStore.getSignature
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public void saveCubeToStore(CubeStore store, String cubeName, String signature, String definition,
+			StopSign stopSign) throws IOException, DataException {
+		CubeStore.Generation generation = store.createGeneration(cubeName);
 		try {
-			String FTSUName = documentObject.readString();
-			while (FTSUName != null) {
-				saveDocObjToReportDocument(FTSUName, writer, stopSign);
-				FTSUName = documentObject.readString();
+			List<String> names = getCubeDocumentObjectNames(documentManager, cubeName, stopSign);
+			for (int i = 0; i < names.size() && !stopSign.isStopped(); i++) {
+				DocumentObjectUtil.copyDocumentObject(documentManager, generation.getDocumentManager(), names.get(i),
+						stopSign);
 			}
-		} catch (EOFException e) {
+			if (stopSign.isStopped()) {
+				store.discard(cubeName, generation);
+				return;
+			}
+			store.commit(cubeName, signature, definition, generation);
+		} catch (IOException | DataException e) {
+			store.discard(cubeName, generation);
+			throw e;
+		}
+		generation.getDocumentManager().close();
+	}
 
+	/**
+	 * Returns whether cubes whose measures are aggregated with the given
+	 * functions can be appended to, which needs functions that give the same
+	 * result when they are applied to already aggregated values again.
+	 *
+	 * @param measureAggrFunctionNames
+	 * @return
+	 */
+	public static boolean canAppend(String[] measureAggrFunctionNames) {
+		if (measureAggrFunctionNames == null) {
+			return true;
 		}
-		// save dimension
-		IDimension[] dimensions = cube.getDimesions();
+		for (int i = 0; i < measureAggrFunctionNames.length; i++) {
+			if (measureAggrFunctionNames[i] != null
+					&& !Arrays.asList(reappliableAggrNames).contains(measureAggrFunctionNames[i].toUpperCase())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Appends new fact rows and the members of the given dimensions to a stored
+	 * cube, see appendToStoredCube with the members keyed by dimension name.
+	 *
+	 * @param store
+	 * @param name
+	 * @param signature
+	 * @param factTableJointColumnNames
+	 * @param DimJointColumnNames
+	 * @param dimensions                the dimensions with the new members,
+	 *                                  created by this materializer
+	 * @param factTable                 the new fact rows
+	 * @param measureColumns
+	 * @param calculatedMeasure
+	 * @param measureAggrFunctionNames
+	 * @param cacheSize
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	public void appendToStoredCube(CubeStore store, String name, String signature, String[][] factTableJointColumnNames,
+			String[][] DimJointColumnNames, IDimension[] dimensions, IDatasetIterator factTable,
+			String[] measureColumns, Map calculatedMeasure, String[] measureAggrFunctionNames, long cacheSize,
+			StopSign stopSign) throws IOException, BirtException {
+		Map<String, IDatasetIterator> dimensionMembers = new HashMap<>();
 		for (int i = 0; i < dimensions.length; i++) {
-			saveDocObjToReportDocument(NamingUtil.getDimensionDocName(dimensions[i].getName()), writer, stopSign);
-			IHierarchy hierarchy = dimensions[i].getHierarchy();
-			saveDocObjToReportDocument(NamingUtil.getHierarchyDocName(dimensions[i].getName(), hierarchy.getName()),
-					writer, stopSign);
-			saveDocObjToReportDocument(
-					NamingUtil.getHierarchyOffsetDocName(dimensions[i].getName(), hierarchy.getName()), writer,
-					stopSign);
-			ILevel[] levels = hierarchy.getLevels();
-			for (int j = 0; j < levels.length; j++) {
-				saveDocObjToReportDocument(
-						NamingUtil.getLevelIndexDocName(dimensions[i].getName(), levels[j].getName()), writer,
-						stopSign);
-				saveDocObjToReportDocument(
-						NamingUtil.getLevelIndexOffsetDocName(dimensions[i].getName(), levels[j].getName()), writer,
-						stopSign);
+			if (dimensions[i] instanceof Dimension) {
+				dimensionMembers.put(dimensions[i].getName(),
+						new DimensionDatasetIterator((Dimension) dimensions[i], stopSign));
+			}
+		}
+		appendToStoredCube(store, name, signature, factTableJointColumnNames, DimJointColumnNames, dimensionMembers,
+				factTable, measureColumns, calculatedMeasure, measureAggrFunctionNames, cacheSize, stopSign);
+	}
 
+	/**
+	 * Appends new fact rows and new dimension members to a stored cube. The
+	 * result becomes the new generation of the stored cube; the generation read
+	 * by other runs is not changed.
+	 *
+	 * The members of a dimension are merged with the stored ones. When no
+	 * dimension gets a new member, the stored fact table is appended to: its
+	 * segments which get no new row are copied without being decoded, see
+	 * FactTableAccessor.appendFactTable. A new member changes the positions of
+	 * the stored members, so the fact table is then rebuilt from the stored rows,
+	 * read back from the store, and the new ones.
+	 *
+	 * The new rows must use the same column names as the ones the cube was
+	 * created with; the new members of a dimension are named after the key and
+	 * attribute columns of its levels. Since the stored measures are already
+	 * aggregated, only the SUM, MAX and MIN measure aggregations can be
+	 * applied again.
+	 *
+	 * @param store
+	 * @param name
+	 * @param signature
+	 * @param factTableJointColumnNames
+	 * @param DimJointColumnNames
+	 * @param dimensionMembers      the new members, keyed by dimension name
+	 * @param factTable             the new fact rows
+	 * @param measureColumns
+	 * @param calculatedMeasure
+	 * @param measureAggrFunctionNames
+	 * @param cacheSize
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	public void appendToStoredCube(CubeStore store, String name, String signature, String[][] factTableJointColumnNames,
+			String[][] DimJointColumnNames, Map<String, IDatasetIterator> dimensionMembers, IDatasetIterator factTable,
+			String[] measureColumns, Map calculatedMeasure, String[] measureAggrFunctionNames, long cacheSize,
+			StopSign stopSign) throws IOException, BirtException {
+		if (!canAppend(measureAggrFunctionNames)) {
+			for (int i = 0; i < measureAggrFunctionNames.length; i++) {
+				if (!canAppend(new String[] { measureAggrFunctionNames[i] })) {
+					throw new DataException(ResourceConstants.CUBE_STORE_AGGREGATION_NOT_REAPPLIABLE,
+							new Object[] { name, measureAggrFunctionNames[i] });
+				}
+			}
+		}
+		IDocumentManager storedManager = store.open(name, signature);
+		if (storedManager == null) {
+			throw new DataException(ResourceConstants.CUBE_NOT_IN_STORE, name);
+		}
+		CubeStore.Generation generation = null;
+		try {
+			Cube storedCube = new Cube(name, storedManager);
+			storedCube.load(stopSign);
+			generation = store.createGeneration(name);
+			IDocumentManager manager = generation.getDocumentManager();
+			IDimension[] storedDimensions = storedCube.getDimesions();
+			IDimension[] dimensions = new IDimension[storedDimensions.length];
+			boolean membersAdded = false;
+			for (int i = 0; i < dimensions.length; i++) {
+				Dimension storedDimension = (Dimension) storedDimensions[i];
+				IDatasetIterator members = dimensionMembers == null ? null
+						: dimensionMembers.get(storedDimension.getName());
+				if (members == null) {
+					List<String> names = new ArrayList<>();
+					addDimensionDocumentObjectNames(storedDimension, names);
+					for (int j = 0; j < names.size(); j++) {
+						DocumentObjectUtil.copyDocumentObject(storedManager, manager, names.get(j), stopSign);
+					}
+					dimensions[i] = DimensionFactory.loadDimension(storedDimension.getName(), manager);
+					continue;
+				}
+				ILevel[] levels = storedDimension.getHierarchy().getLevels();
+				ILevelDefn[] levelDefs = new ILevelDefn[levels.length];
+				for (int j = 0; j < levels.length; j++) {
+					LevelDefinition levelDef = new LevelDefinition(levels[j].getName(), levels[j].getKeyNames(),
+							levels[j].getAttributeNames());
+					levelDef.setTimeType(levels[j].getLeveType());
+					levelDefs[j] = levelDef;
+				}
+				Hierarchy hierarchy = new Hierarchy(manager, storedDimension.getName(),
+						storedDimension.getHierarchy().getName());
+				hierarchy.createAndSaveHierarchy(new ConcatenatedDatasetIterator(new IDatasetIterator[] {
+						new DimensionDatasetIterator(storedDimension, stopSign), members }), levelDefs, stopSign);
+				dimensions[i] = new Dimension(storedDimension.getName(), manager, hierarchy,
+						storedDimension.isTime());
+				// the merged members are sorted and unique, so the same count
+				// means the same members at the same positions
+				membersAdded |= dimensions[i].length() != storedDimension.length();
+			}
+			Cube cube = new Cube(name, manager);
+			cube.setBuildBitmapIndex(buildBitmapIndex || hasBitmapIndex(storedManager, storedCube));
+			if (membersAdded) {
+				cube.create(factTableJointColumnNames, DimJointColumnNames, dimensions,
+						new ConcatenatedDatasetIterator(new IDatasetIterator[] { new FactTableDatasetIterator(
+								storedCube, factTableJointColumnNames, DimJointColumnNames, stopSign), factTable }),
+						measureColumns, calculatedMeasure, measureAggrFunctionNames, cacheSize, stopSign);
+			} else {
+				cube.append(storedCube, factTableJointColumnNames, DimJointColumnNames, dimensions, factTable,
+						measureAggrFunctionNames, cacheSize, stopSign);
 			}
+			cube.close();
+			storedCube.close();
+			if (stopSign.isStopped()) {
+				store.discard(name, generation);
+				return;
+			}
+			store.commit(name, signature, generation);
+		} catch (IOException | BirtException e) {
+			if (generation != null) {
+				store.discard(name, generation);
+			}
+			throw e;
+		} finally {
+			storedManager.close();
 		}
+		registerStoredCube(name, generation.getDocumentManager());
+	}
 
-		writer.flush();
+	/**
+	 *
+	 * @param cubeName
+	 * @param manager
+	 * @throws IOException
+	 */
+	private void registerStoredCube(String cubeName, IDocumentManager manager) throws IOException {
+		IDocumentManager previous = storedCubes.put(cubeName, manager);
+		if (previous != null) {
+			previous.close();
+		}
+		if (dataEngine != null) {
+			DocManagerMap.getDocManagerMap().set(String.valueOf(dataEngine.hashCode()),
+					CubeStore.class.getName() + "/" + cubeName, manager); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 *
+	 * @param cubeName
+	 * @return
+	 */
+	private IDocumentManager getCubeDocumentManager(String cubeName) {
+		IDocumentManager manager = storedCubes.get(cubeName);
+		return manager == null ? documentManager : manager;
 	}
 
 	/**
+	 * Returns the names of all the document objects a cube consists of.
 	 *
+	 * @param manager
+	 * @param cubeName
+	 * @param stopSign
+	 * @return
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private static List<String> getCubeDocumentObjectNames(IDocumentManager manager, String cubeName,
+			StopSign stopSign) throws IOException, DataException {
+		List<String> names = new ArrayList<>();
+		Cube cube = new Cube(cubeName, manager);
+		cube.load(stopSign);
+		// cube
+		names.add(NamingUtil.getCubeDocName(cubeName));
+		// facttable
+		String factTableName = cube.getFactTable().getName();
+		names.add(NamingUtil.getFactTableName(factTableName));
+		names.add(NamingUtil.getFTSUListName(factTableName));
+		// FTSU and their bitmap index
+		List<String> FTSUNames = FactTableAccessor.getFTSUNames(manager, factTableName);
+		for (int i = 0; i < FTSUNames.size(); i++) {
+			names.add(FTSUNames.get(i));
+			String indexName = NamingUtil.getFactTableBitmapIndexName(FTSUNames.get(i));
+			if (manager.exist(indexName)) {
+				names.add(indexName);
+			}
+		}
+		// dimension
+		IDimension[] dimensions = cube.getDimesions();
+		for (int i = 0; i < dimensions.length; i++) {
+			addDimensionDocumentObjectNames(dimensions[i], names);
+		}
+		cube.close();
+		return names;
+	}
+
+	/**
+	 *
+	 * @param manager
+	 * @param cube
+	 * @return whether the fact table of the cube has a bitmap index
+	 * @throws IOException
+	 */
+	private static boolean hasBitmapIndex(IDocumentManager manager, Cube cube) throws IOException {
+		List<String> FTSUNames = FactTableAccessor.getFTSUNames(manager, cube.getFactTable().getName());
+		return !FTSUNames.isEmpty() && manager.exist(NamingUtil.getFactTableBitmapIndexName(FTSUNames.get(0)));
+	}
+
+	/**
+	 *
+	 * @param dimension
+	 * @param names
+	 */
+	private static void addDimensionDocumentObjectNames(IDimension dimension, List<String> names) {
+		names.add(NamingUtil.getDimensionDocName(dimension.getName()));
+		addHierarchyDocumentObjectNames(dimension.getName(), dimension.getHierarchy(), names);
+	}
+
+	/**
+	 *
+	 * @param dimensionName
+	 * @param hierarchy
+	 * @param names
+	 */
+	private static void addHierarchyDocumentObjectNames(String dimensionName, IHierarchy hierarchy,
+			List<String> names) {
+		names.add(NamingUtil.getHierarchyDocName(dimensionName, hierarchy.getName()));
+		names.add(NamingUtil.getHierarchyOffsetDocName(dimensionName, hierarchy.getName()));
+		ILevel[] levels = hierarchy.getLevels();
+		for (int j = 0; j < levels.length; j++) {
+			names.add(NamingUtil.getLevelIndexDocName(dimensionName, levels[j].getName()));
+			names.add(NamingUtil.getLevelIndexOffsetDocName(dimensionName, levels[j].getName()));
+		}
+	}
+
+	/**
+	 *
+	 * @param manager
 	 * @param name
 	 * @param writer
 	 * @param stopSign
 	 * @throws IOException
 	 * @throws DataException
 	 */
-	private void saveDocObjToReportDocument(String name, IDocArchiveWriter writer, StopSign stopSign)
-			throws IOException, DataException {
+	private void saveDocObjToReportDocument(IDocumentManager manager, String name, IDocArchiveWriter writer,
+			StopSign stopSign) throws IOException, DataException {
 		if (writer.exists(name)) {
 			return;
 		}
-		IDocumentObject documentObject = documentManager.openDocumentObject(name);
+		IDocumentObject documentObject = manager.openDocumentObject(name);
 		RAOutputStream outputStreadm = writer.createRandomAccessStream(name);
 		byte[] buffer = new byte[4096];
 
@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.olap.data.api.cube;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.core.security.FileSecurity;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.olap.data.document.DocumentManagerFactory;
+import org.eclipse.birt.data.engine.olap.data.document.IDocumentManager;
+
+/**
+ * A persistent store of materialized cubes. Every cube is kept in its own
+ * directory under the store root, together with the signature of the cube
+ * definition and parameter bindings it was materialized with. A cube is never
+ * rewritten in place: a refresh writes a new generation and then switches the
+ * descriptor to it, so that the readers which have opened the previous
+ * generation are not disturbed.
+ */
+
+public class CubeStore {
+	private static final String DESCRIPTOR_NAME = "cube.properties";
+	private static final String GENERATION_PREFIX = "gen";
+	private static final String MANAGER_NAME = "cube";
+	private static final String SIGNATURE = "signature";
+	private static final String GENERATION = "generation";
+	private static final String DEFINITION = "definition";
+
+	private static final Object lock = new Object();
+	private static Logger logger = Logger.getLogger(CubeStore.class.getName());
+
+	private File root;
+
+	/**
+	 *
+	 * @param rootPath
+	 */
+	public CubeStore(String rootPath) {
+		this.root = new File(rootPath);
+	}
+
+	/**
+	 * Opens the stored cube if it has been materialized with the given signature.
+	 * The cube is opened read only, since its generation is shared by all the
+	 * readers of the store.
+	 *
+	 * @param cubeName
+	 * @param signature
+	 * @return the document manager of the stored cube, or null if the cube is not
+	 *         in the store or has been materialized with a different signature.
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	public IDocumentManager open(String cubeName, String signature) throws DataException, IOException {
+		Properties descriptor = readDescriptor(cubeName);
+		if (descriptor == null || !signature.equals(descriptor.getProperty(SIGNATURE))) {
+			return null;
+		}
+		File dir = getGenerationDir(cubeName, Integer.parseInt(descriptor.getProperty(GENERATION)));
+		if (!FileSecurity.fileExist(dir)) {
+			return null;
+		}
+		return DocumentManagerFactory.loadFileDocumentManager(dir.getPath(), MANAGER_NAME, true);
+	}
+
+	/**
+	 * Creates an empty generation of the cube. The generation is not visible to
+	 * readers until it is committed.
+	 *
+	 * @param cubeName
+	 * @return
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	public Generation createGeneration(String cubeName) throws DataException, IOException {
+		synchronized (lock) {
+			int number = 0;
+			File[] files = FileSecurity.fileListFiles(getCubeDir(cubeName));
+			if (files != null) {
+				for (int i = 0; i < files.length; i++) {
+					number = Math.max(number, getGenerationNumber(files[i]) + 1);
+				}
+			}
+			File dir = getGenerationDir(cubeName, number);
+			if (!FileSecurity.fileMakeDirs(dir)) {
+				throw new DataException(ResourceConstants.OLAPDIR_CREATE_FAIL, dir.getAbsolutePath());
+			}
+			return new Generation(number,
+					DocumentManagerFactory.createFileDocumentManager(dir.getPath(), MANAGER_NAME));
+		}
+	}
+
+	/**
+	 * Returns the signature the cube has been stored with, if it has been stored
+	 * with the given definition. Parameter values are typically part of the
+	 * signature but not of the definition, so this finds the stored cube which
+	 * can be appended to with the rows of another run.
+	 *
+	 * @param cubeName
+	 * @param definition
+	 * @return the signature of the stored cube, or null if the cube is not in the
+	 *         store or has been stored with a different definition.
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	public String getSignature(String cubeName, String definition) throws DataException, IOException {
+		Properties descriptor = readDescriptor(cubeName);
+		if (descriptor == null || definition == null || !definition.equals(descriptor.getProperty(DEFINITION))) {
+			return null;
+		}
+		return descriptor.getProperty(SIGNATURE);
+	}
+
+	/**
+	 * Makes the generation the current one of the cube. The definition the cube
+	 * has been stored with is kept if the signature is not changed.
+	 *
+	 * @param cubeName
+	 * @param signature
+	 * @param generation
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	public void commit(String cubeName, String signature, Generation generation) throws DataException, IOException {
+		commit(cubeName, signature, null, generation);
+	}
+
+	/**
+	 * Makes the generation the current one of the cube. Generations older than
+	 * the replaced one are removed.
+	 *
+	 * @param cubeName
+	 * @param signature
+	 * @param definition the signature of the cube definition alone, or null to
+	 *                   keep the one of an unchanged signature
+	 * @param generation
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	public void commit(String cubeName, String signature, String definition, Generation generation)
+			throws DataException, IOException {
+		generation.getDocumentManager().flush();
+		synchronized (lock) {
+			Properties previous = readDescriptor(cubeName);
+			Properties descriptor = new Properties();
+			descriptor.setProperty(SIGNATURE, signature);
+			descriptor.setProperty(GENERATION, String.valueOf(generation.getNumber()));
+			if (definition == null && previous != null && signature.equals(previous.getProperty(SIGNATURE))) {
+				definition = previous.getProperty(DEFINITION);
+			}
+			if (definition != null) {
+				descriptor.setProperty(DEFINITION, definition);
+			}
+			File file = new File(getCubeDir(cubeName), DESCRIPTOR_NAME);
+			File tmpFile = new File(getCubeDir(cubeName), DESCRIPTOR_NAME + ".tmp");
+			try (FileOutputStream out = FileSecurity.createFileOutputStream(tmpFile)) {
+				descriptor.store(out, null);
+			}
+			// readers see either the previous descriptor or this one
+			try {
+				Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+						StandardCopyOption.REPLACE_EXISTING);
+			} catch (IOException e) {
+				throw new DataException(ResourceConstants.OLAPFILE_CREATE_FAIL, e, file.getAbsolutePath());
+			}
+			int keep = previous == null ? generation.getNumber()
+					: Integer.parseInt(previous.getProperty(GENERATION));
+			removeGenerations(cubeName, Math.min(keep, generation.getNumber()), generation.getNumber());
+		}
+	}
+
+	/**
+	 * Discards an uncommitted generation.
+	 *
+	 * @param cubeName
+	 * @param generation
+	 */
+	public void discard(String cubeName, Generation generation) {
+		try {
+			generation.getDocumentManager().close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+		}
+		delete(getGenerationDir(cubeName, generation.getNumber()));
+	}
+
+	/**
+	 * Creates the signature of a cube from the given parts, typically the cube
+	 * definition and the values of the parameters it is bound to.
+	 *
+	 * @param parts
+	 * @return
+	 */
+	public static String createSignature(Object[] parts) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			for (int i = 0; i < parts.length; i++) {
+				digest.update(String.valueOf(parts[i]).getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) 0);
+			}
+			StringBuilder buffer = new StringBuilder();
+			byte[] bytes = digest.digest();
+			for (int i = 0; i < bytes.length; i++) {
+				buffer.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+				buffer.append(Character.forDigit(bytes[i] & 0xF, 16));
+			}
+			return buffer.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 *
+	 * @param cubeName
+	 * @return
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	private Properties readDescriptor(String cubeName) throws DataException, IOException {
+		File file = new File(getCubeDir(cubeName), DESCRIPTOR_NAME);
+		if (!FileSecurity.fileExist(file)) {
+			return null;
+		}
+		Properties descriptor = new Properties();
+		try (FileInputStream in = FileSecurity.createFileInputStream(file)) {
+			descriptor.load(in);
+		}
+		if (descriptor.getProperty(SIGNATURE) == null || descriptor.getProperty(GENERATION) == null) {
+			return null;
+		}
+		return descriptor;
+	}
+
+	/**
+	 *
+	 * @param cubeName
+	 * @param from
+	 * @param current
+	 */
+	private void removeGenerations(String cubeName, int from, int current) {
+		File[] files = FileSecurity.fileListFiles(getCubeDir(cubeName));
+		if (files == null) {
+			return;
+		}
+		for (int i = 0; i < files.length; i++) {
+			int number = getGenerationNumber(files[i]);
+			if (number >= 0 && number < from && number != current) {
+				delete(files[i]);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param dir
+	 */
+	private static void delete(File dir) {
+		File[] files = FileSecurity.fileListFiles(dir);
+		if (files != null) {
+			for (int i = 0; i < files.length; i++) {
+				FileSecurity.fileDelete(files[i]);
+			}
+		}
+		if (!FileSecurity.fileDelete(dir)) {
+			logger.fine("Cube store directory " + dir.getAbsolutePath() + " is still in use.");
+		}
+	}
+
+	/**
+	 *
+	 * @param file
+	 * @return
+	 */
+	private static int getGenerationNumber(File file) {
+		String name = file.getName();
+		if (!name.startsWith(GENERATION_PREFIX) || !FileSecurity.fileIsDirectory(file)) {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(name.substring(GENERATION_PREFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 *
+	 * @param cubeName
+	 * @return
+	 */
+	private File getCubeDir(String cubeName) {
+		return new File(root, createSignature(new Object[] { cubeName }).substring(0, 16));
+	}
+
+	/**
+	 *
+	 * @param cubeName
+	 * @param number
+	 * @return
+	 */
+	private File getGenerationDir(String cubeName, int number) {
+		return new File(getCubeDir(cubeName), GENERATION_PREFIX + number);
+	}
+
+	/**
+	 * A generation of a stored cube.
+	 */
+	public static class Generation {
+		private int number;
+		private IDocumentManager documentManager;
+
+		Generation(int number, IDocumentManager documentManager) {
+			this.number = number;
+			this.documentManager = documentManager;
+		}
+
+		/**
+		 *
+		 * @return
+		 */
+		public int getNumber() {
+			return number;
+		}
+
+		/**
+		 *
+		 * @return
+		 */
+		public IDocumentManager getDocumentManager() {
+			return documentManager;
+		}
+	}
+}
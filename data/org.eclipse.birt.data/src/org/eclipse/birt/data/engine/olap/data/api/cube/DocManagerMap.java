@@ -85,6 +85,29 @@ public class DocManagerMap {
 		return (IDocumentManager) docManagerMap.get(key);
 	}
 
+	/**
+	 * Finds the document manager of the data engine which contains the given
+	 * document object.
+	 *
+	 * @param dataEngineKey
+	 * @param documentObjectName
+	 * @return
+	 */
+	public IDocumentManager find(String dataEngineKey, String documentObjectName) {
+		Map map = tmap.get();
+		if (!map.containsKey(dataEngineKey)) {
+			return null;
+		}
+		Iterator docManagerIterator = ((Map) map.get(dataEngineKey)).values().iterator();
+		while (docManagerIterator.hasNext()) {
+			IDocumentManager manager = (IDocumentManager) docManagerIterator.next();
+			if (manager.exist(documentObjectName)) {
+				return manager;
+			}
+		}
+		return null;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
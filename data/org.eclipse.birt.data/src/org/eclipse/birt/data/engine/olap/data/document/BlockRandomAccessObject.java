@@ -98,13 +98,13 @@ public class BlockRandomAccessObject implements IRandomAccessObject {
 		}
 		int remainSizeOfCurrentBlock = FileDocumentManager.BLOCK_SIZE
 				- (int) (position % FileDocumentManager.BLOCK_SIZE);
-		dataFileSeek();
 		if (remainSizeOfCurrentBlock >= len || position + remainSizeOfCurrentBlock >= length) {
 			int readSize = (int) Math.min(length - position, len);
+			int result = readDataFile(b, off, readSize);
 			position += readSize;
-			return dataFile.read(b, off, readSize);
+			return result;
 		} else {
-			dataFile.read(b, off, remainSizeOfCurrentBlock);
+			readDataFile(b, off, remainSizeOfCurrentBlock);
 			position += remainSizeOfCurrentBlock;
 			int readSize = read(b, off + remainSizeOfCurrentBlock, len - remainSizeOfCurrentBlock);
 			if (readSize == -1) {
@@ -115,6 +115,39 @@ public class BlockRandomAccessObject implements IRandomAccessObject {
 		}
 	}
 
+	/**
+	 * The data file is shared by all the document objects of a document manager.
+	 * Seek and read are done under its lock so that document objects can be read
+	 * from several threads, for example by a parallel aggregation.
+	 *
+	 * @param b
+	 * @param off
+	 * @param len
+	 * @return
+	 * @throws IOException
+	 */
+	private int readDataFile(byte[] b, int off, int len) throws IOException {
+		synchronized (dataFile) {
+			dataFileSeek();
+			return dataFile.read(b, off, len);
+		}
+	}
+
+	/**
+	 * Seek and write are done under the lock of the data file, like the reads.
+	 *
+	 * @param b
+	 * @param off
+	 * @param len
+	 * @throws IOException
+	 */
+	private void writeDataFile(byte[] b, int off, int len) throws IOException {
+		synchronized (dataFile) {
+			dataFileSeek();
+			dataFile.write(b, off, len);
+		}
+	}
+
 	/*
 	 *
 	 */
@@ -187,13 +220,12 @@ public class BlockRandomAccessObject implements IRandomAccessObject {
 		}
 		int remainSizeOfCurrentBlock = FileDocumentManager.BLOCK_SIZE
 				- (int) (position % FileDocumentManager.BLOCK_SIZE);
-		dataFileSeek();
 		if (remainSizeOfCurrentBlock >= len || position + remainSizeOfCurrentBlock >= length) {
 			len = (int) Math.min(length - position, len);
+			writeDataFile(b, off, len);
 			position += len;
-			dataFile.write(b, off, len);
 		} else {
-			dataFile.write(b, off, remainSizeOfCurrentBlock);
+			writeDataFile(b, off, remainSizeOfCurrentBlock);
 			position += remainSizeOfCurrentBlock;
 			write(b, off + remainSizeOfCurrentBlock, len - remainSizeOfCurrentBlock);
 		}
@@ -135,4 +135,18 @@ public class DocumentManagerFactory {
 			throws DataException, IOException {
 		return FileDocumentManager.loadManager(dirName, managerName);
 	}
+
+	/**
+	 *
+	 * @param dirName
+	 * @param managerName
+	 * @param readOnly    whether the document objects are only read
+	 * @return
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	static public IDocumentManager loadFileDocumentManager(String dirName, String managerName, boolean readOnly)
+			throws DataException, IOException {
+		return FileDocumentManager.loadManager(dirName, managerName, readOnly);
+	}
 }
@@ -22,6 +22,7 @@ import org.eclipse.birt.core.data.DataTypeUtil;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.StopSign;
 import org.eclipse.birt.data.engine.olap.data.util.Bytes;
 import org.eclipse.birt.data.engine.olap.data.util.DataType;
 
@@ -180,4 +181,34 @@ public class DocumentObjectUtil {
 			return null;
 		}
 	}
+
+	/**
+	 * Copies a document object from one document manager to another without
+	 * decoding it. Nothing is copied if the target already has the object or the
+	 * source does not.
+	 *
+	 * @param source
+	 * @param target
+	 * @param name
+	 * @param stopSign
+	 * @throws IOException
+	 */
+	public static void copyDocumentObject(IDocumentManager source, IDocumentManager target, String name,
+			StopSign stopSign) throws IOException {
+		if (target.exist(name) || !source.exist(name)) {
+			return;
+		}
+		IDocumentObject sourceObject = source.openDocumentObject(name);
+		IDocumentObject targetObject = target.createDocumentObject(name);
+		byte[] buffer = new byte[4096];
+
+		int readSize = sourceObject.read(buffer, 0, buffer.length);
+
+		while (!stopSign.isStopped() && readSize >= 0) {
+			targetObject.write(buffer, 0, readSize);
+			readSize = sourceObject.read(buffer, 0, buffer.length);
+		}
+		targetObject.close();
+		sourceObject.close();
+	}
 }
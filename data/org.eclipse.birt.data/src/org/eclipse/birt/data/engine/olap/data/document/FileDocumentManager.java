@@ -38,6 +38,7 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	private File oatFile = null;
 	private File dataFile = null;
 	private HashMap documentObjectMap = null;
+	private boolean readOnly = false;
 
 	/**
 	 *
@@ -79,7 +80,23 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * @throws IOException
 	 */
 	static FileDocumentManager loadManager(String dirName, String managerName) throws DataException, IOException {
+		return loadManager(dirName, managerName, false);
+	}
+
+	/**
+	 *
+	 * @param dirName
+	 * @param managerName
+	 * @param readOnly    whether the files are opened read only, in which case
+	 *                    no document object can be created or changed
+	 * @return
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	static FileDocumentManager loadManager(String dirName, String managerName, boolean readOnly)
+			throws DataException, IOException {
 		FileDocumentManager manager = new FileDocumentManager();
+		manager.readOnly = readOnly;
 		manager.load(dirName, managerName);
 		return manager;
 	}
@@ -130,23 +147,24 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	private void load(String dirName, String managerName) throws IOException, DataException {
 		documentObjectMap = new HashMap();
 
+		String mode = readOnly ? "r" : "rw";
 		File file = new File(dirName + File.separatorChar + managerName + "obj");
-		objectAccessFile = new BufferedRandomAccessFile(file, "rw", 1024, dataFileCacheSize / 5);
 		if (!FileSecurity.fileExist(file)) {
 			throw new DataException(ResourceConstants.OLAPFILE_NOT_FOUND, file.getAbsolutePath());
 		}
+		objectAccessFile = new BufferedRandomAccessFile(file, mode, 1024, dataFileCacheSize / 5);
 
 		file = new File(dirName + File.separatorChar + managerName + "Oat");
 		if (!FileSecurity.fileExist(file)) {
 			throw new DataException(ResourceConstants.OLAPFILE_NOT_FOUND, file.getAbsolutePath());
 		}
-		oatAccessFile = new BufferedRandomAccessFile(file, "rw", 1024, dataFileCacheSize / 10);
+		oatAccessFile = new BufferedRandomAccessFile(file, mode, 1024, dataFileCacheSize / 10);
 
 		file = new File(dirName + File.separatorChar + managerName + "data");
 		if (!FileSecurity.fileExist(file)) {
 			throw new DataException(ResourceConstants.OLAPFILE_NOT_FOUND, file.getAbsolutePath());
 		}
-		dataAccessFile = new BufferedRandomAccessFile(file, "rw", 1024, dataFileCacheSize);
+		dataAccessFile = new BufferedRandomAccessFile(file, mode, 1024, dataFileCacheSize);
 
 		objectAccessFile.seek(0);
 		while (true) {
@@ -199,7 +217,8 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * createDocumentObject(java.lang.String)
 	 */
 	@Override
-	public IDocumentObject createDocumentObject(String documentObjectName) throws IOException {
+	public synchronized IDocumentObject createDocumentObject(String documentObjectName) throws IOException {
+		checkWritable();
 		ObjectStructure objectStructure = new ObjectStructure();
 		objectStructure.name = documentObjectName;
 		objectStructure.firstBlock = findFreeBlock();
@@ -237,6 +256,16 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 		return structure;
 	}
 
+	/**
+	 *
+	 * @throws IOException if the document manager is read only
+	 */
+	private void checkWritable() throws IOException {
+		if (readOnly) {
+			throw new IOException("The document manager is read only.");
+		}
+	}
+
 	/**
 	 *
 	 * @return
@@ -256,7 +285,7 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * java.lang.String)
 	 */
 	@Override
-	public IDocumentObject openDocumentObject(String documentObjectName) throws IOException {
+	public synchronized IDocumentObject openDocumentObject(String documentObjectName) throws IOException {
 		ObjectStructure objectStructure = (ObjectStructure) this.documentObjectMap.get(documentObjectName);
 		if (objectStructure == null) {
 			return null;
@@ -273,7 +302,7 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * String)
 	 */
 	@Override
-	public boolean exist(String documentObjectName) {
+	public synchronized boolean exist(String documentObjectName) {
 		return this.documentObjectMap.get(documentObjectName) != null;
 	}
 
@@ -284,7 +313,7 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * org.eclipse.birt.data.olap.data.document.IObjectAllocTable#getNextBlock(int)
 	 */
 	@Override
-	public int getNextBlock(int blockNo) throws IOException {
+	public synchronized int getNextBlock(int blockNo) throws IOException {
 		oatAccessFile.seek(blockNo * 4L);
 		return oatAccessFile.readInt();
 	}
@@ -296,7 +325,8 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * org.eclipse.birt.data.olap.data.document.IObjectAllocTable#allocateBlock(int)
 	 */
 	@Override
-	public int allocateBlock(int blockNo) throws IOException {
+	public synchronized int allocateBlock(int blockNo) throws IOException {
+		checkWritable();
 		int newBlock = findFreeBlock();
 		oatAccessFile.seek(blockNo * 4L);
 		oatAccessFile.writeInt(newBlock);
@@ -311,11 +341,13 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * java.lang.String, long)
 	 */
 	@Override
-	public void setObjectLength(String documentObjectName, long length) throws IOException {
+	public synchronized void setObjectLength(String documentObjectName, long length) throws IOException {
 		ObjectStructure objectStructure = (ObjectStructure) documentObjectMap.get(documentObjectName);
-		if (objectStructure == null) {
+		if (objectStructure == null || objectStructure.length == length && readOnly) {
+			// the objects of a read only manager are closed with their length
 			return;
 		}
+		checkWritable();
 		objectStructure.length = length;
 		objectAccessFile.seek(objectStructure.fileOffset);
 		objectAccessFile.writeLong(length);
@@ -327,7 +359,7 @@ public class FileDocumentManager implements IDocumentManager, IObjectAllocTable
 	 * @see org.eclipse.birt.data.engine.olap.data.document.IDocumentManager#flush()
 	 */
 	@Override
-	public void flush() throws IOException {
+	public synchronized void flush() throws IOException {
 		objectAccessFile.flush();
 		oatAccessFile.flush();
 		dataAccessFile.flush();
@@ -252,6 +252,11 @@ public class AggregationResultSetSaveUtil {
 	 */
 	private static void saveAggregationRow(DataOutputStream outputStream, IAggregationResultRow resultRow)
 			throws IOException {
+		if (resultRow instanceof AggregationResultRow
+				&& ((AggregationResultRow) resultRow).getAggregationSketches() != null) {
+			// the sketches are only used to roll up the aggregations of a query
+			resultRow = new AggregationResultRow(resultRow.getLevelMembers(), resultRow.getAggregationValues());
+		}
 		writeObjectArray(outputStream, resultRow.getFieldValues());
 	}
 
@@ -41,6 +41,7 @@ public class Cube implements ICube {
 	protected IDocumentManager documentManager;
 	protected IDimension[] dimension;
 	private FactTable factTable;
+	private boolean buildBitmapIndex = false;
 
 	private static Logger logger = Logger.getLogger(Cube.class.getName());
 
@@ -90,6 +91,53 @@ public class Cube implements ICube {
 	public void create(String[][] factTableJointColumnNames, String[][] DimJointColumnNames, IDimension[] dimension,
 			IDatasetIterator iterator, String[] measureColumnName, Map calculatedMeasure,
 			String[] measureColumnAggregations, long cacheSize, StopSign stopSign) throws IOException, BirtException {
+		IDocumentObject documentObject = saveDimensionNames(dimension);
+		FactTableAccessor factTableConstructor = new FactTableAccessor(documentManager);
+		factTableConstructor.setMemoryCacheSize(cacheSize);
+		factTableConstructor.setBuildBitmapIndex(buildBitmapIndex);
+		factTable = factTableConstructor.saveFactTable(name, factTableJointColumnNames, DimJointColumnNames, iterator,
+				getDimensions(dimension), measureColumnName, calculatedMeasure, measureColumnAggregations, stopSign);
+		documentObject.close();
+		documentManager.flush();
+	}
+
+	/**
+	 * Creates the cube from the fact table of a saved cube and new fact rows,
+	 * without rebuilding the fact table, see FactTableAccessor.appendFactTable.
+	 * The dimensions must have the same members as the ones of the saved cube.
+	 *
+	 * @param savedCube
+	 * @param factTableJointColumnNames
+	 * @param DimJointColumnNames
+	 * @param dimension
+	 * @param iterator                  the new fact rows
+	 * @param measureColumnAggregations
+	 * @param cacheSize
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	public void append(Cube savedCube, String[][] factTableJointColumnNames, String[][] DimJointColumnNames,
+			IDimension[] dimension, IDatasetIterator iterator, String[] measureColumnAggregations, long cacheSize,
+			StopSign stopSign) throws IOException, BirtException {
+		IDocumentObject documentObject = saveDimensionNames(dimension);
+		FactTableAccessor factTableConstructor = new FactTableAccessor(documentManager);
+		factTableConstructor.setMemoryCacheSize(cacheSize);
+		factTableConstructor.setBuildBitmapIndex(buildBitmapIndex);
+		factTable = factTableConstructor.appendFactTable(savedCube.getFactTable(), factTableJointColumnNames,
+				DimJointColumnNames, iterator, getDimensions(dimension), measureColumnAggregations, stopSign);
+		documentObject.close();
+		documentManager.flush();
+	}
+
+	/**
+	 *
+	 * @param dimension
+	 * @return the cube document object, with the name of the cube and of its
+	 *         dimensions
+	 * @throws IOException
+	 */
+	private IDocumentObject saveDimensionNames(IDimension[] dimension) throws IOException {
 		IDocumentObject documentObject = documentManager.createDocumentObject(NamingUtil.getCubeDocName(name));
 		documentObject.writeString(name);
 		documentObject.writeInt(dimension.length);
@@ -97,16 +145,20 @@ public class Cube implements ICube {
 			documentObject.writeString(dimension[i].getName());
 		}
 		this.dimension = dimension;
+		return documentObject;
+	}
+
+	/**
+	 *
+	 * @param dimension
+	 * @return
+	 */
+	private static Dimension[] getDimensions(IDimension[] dimension) {
 		Dimension[] tDimensions = new Dimension[dimension.length];
 		for (int i = 0; i < tDimensions.length; i++) {
 			tDimensions[i] = (Dimension) dimension[i];
 		}
-		FactTableAccessor factTableConstructor = new FactTableAccessor(documentManager);
-		factTableConstructor.setMemoryCacheSize(cacheSize);
-		factTable = factTableConstructor.saveFactTable(name, factTableJointColumnNames, DimJointColumnNames, iterator,
-				tDimensions, measureColumnName, calculatedMeasure, measureColumnAggregations, stopSign);
-		documentObject.close();
-		documentManager.flush();
+		return tDimensions;
 	}
 
 	/**
@@ -127,6 +179,16 @@ public class Cube implements ICube {
 				cacheSize, stopSign);
 	}
 
+	/**
+	 * Sets whether a bitmap index is built for the fact table when the cube is
+	 * created.
+	 *
+	 * @param buildBitmapIndex
+	 */
+	public void setBuildBitmapIndex(boolean buildBitmapIndex) {
+		this.buildBitmapIndex = buildBitmapIndex;
+	}
+
 	/**
 	 *
 	 * @param stopSign
@@ -27,6 +27,7 @@ public class NamingUtil {
 	private static final String HIERARCHY_OFFSET = OLAP_PREFIX + "hierarchy_offset_";
 	private static final String FACT_TABLE = OLAP_PREFIX + "fact_table_";
 	private static final String FTSU_LIST = OLAP_PREFIX + "ftsu_list_";
+	private static final String BITMAP_INDEX_SUFFIX = "_bitmap_index";
 	private static final String AGGREGATION_RS_DOC = OLAP_PREFIX + "rs_doc_";
 
 	public static final String DERIVED_MEASURE_PREFIX = "_${DERIVED_MEASURE}$_";
@@ -128,6 +129,15 @@ public class NamingUtil {
 		return FTSU_LIST + factTableName;
 	}
 
+	/**
+	 *
+	 * @param FTSUDocName
+	 * @return
+	 */
+	public static String getFactTableBitmapIndexName(String FTSUDocName) {
+		return FTSUDocName + BITMAP_INDEX_SUFFIX;
+	}
+
 	/**
 	 *
 	 * @param ID
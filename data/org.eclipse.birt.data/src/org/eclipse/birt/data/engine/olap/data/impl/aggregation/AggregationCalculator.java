@@ -24,6 +24,7 @@ import org.eclipse.birt.data.engine.aggregation.AggregationUtil;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
 import org.eclipse.birt.data.engine.api.timefunction.IParallelPeriod;
 import org.eclipse.birt.data.engine.api.timefunction.IPeriodsFunction;
 import org.eclipse.birt.data.engine.api.timefunction.ITimeFunction;
@@ -35,7 +36,6 @@ import org.eclipse.birt.data.engine.executor.cache.SizeOfUtil;
 import org.eclipse.birt.data.engine.i18n.DataResourceHandle;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.olap.data.api.DimLevel;
-import org.eclipse.birt.data.engine.olap.data.api.IAggregationResultRow;
 import org.eclipse.birt.data.engine.olap.data.api.MeasureInfo;
 import org.eclipse.birt.data.engine.olap.data.api.cube.IDimension;
 import org.eclipse.birt.data.engine.olap.data.impl.AggregationDefinition;
@@ -64,8 +64,10 @@ public class AggregationCalculator {
 	private int[] measureIndexes;
 	private MeasureInfo[] measureInfos;
 	private IDiskArray result = null;
-	private IAggregationResultRow currentResultObj = null;
+	private AggregationResultRow currentResultObj = null;
 	private int[] parameterColIndex;
+	private int[] parameterCount;
+	private boolean mergeSketches;
 	private FacttableRow facttableRow;
 	private ICubeDimensionReader cubeDimensionReader;
 	private static Logger logger = Logger.getLogger(AggregationCalculator.class.getName());
@@ -97,6 +99,7 @@ public class AggregationCalculator {
 			this.timeFilterLevelCount = new int[aggregationFunction.length];
 			this.measureIndexes = new int[aggregationFunction.length];
 			this.parameterColIndex = new int[aggregationFunction.length];
+			this.parameterCount = new int[aggregationFunction.length];
 
 			for (int i = 0; i < aggregationFunction.length; i++) {
 				IAggrFunction aggregation = AggregationManager.getInstance()
@@ -119,6 +122,8 @@ public class AggregationCalculator {
 				} else {
 					this.parameterColIndex[i] = -1;
 				}
+				this.parameterCount[i] = aggregation.getParameterDefn() == null ? 0
+						: aggregation.getParameterDefn().length;
 				this.accumulators[i] = aggregation.newAccumulator();
 				this.accumulators[i].start();
 				final String measureName = aggregationFunction[i].getMeasureName();
@@ -262,25 +267,60 @@ public class AggregationCalculator {
 						if (!getFilterResult(row, i)) {
 							continue;
 						}
-						accumulators[i].onRow(getAccumulatorParameter(row, i));
+						accumulate(row, i);
 					}
 				}
 				row.firstMeasure();
 			}
 		} else {
 			if (accumulators != null) {
-				currentResultObj.setAggregationValues(new Object[accumulators.length]);
-				for (int i = 0; i < accumulators.length; i++) {
-					accumulators[i].finish();
-					currentResultObj.getAggregationValues()[i] = accumulators[i].getValue();
-					accumulators[i].start();
-				}
+				finishAccumulators();
 			}
 			result.add(currentResultObj);
 			newAggregationResultRow(row);
 		}
 	}
 
+	/**
+	 * Sets whether the measure values of the approximate aggregations are the
+	 * sketches of partly aggregated rows, which are merged instead of being
+	 * accumulated as values.
+	 *
+	 * @param mergeSketches
+	 */
+	void setMergeSketches(boolean mergeSketches) {
+		this.mergeSketches = mergeSketches;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @param funcIndex
+	 * @throws DataException
+	 */
+	private void accumulate(Row4Aggregation row, int funcIndex) throws DataException {
+		Object[] parameters = getAccumulatorParameter(row, funcIndex);
+		if (mergeSketches && parameters != null && accumulators[funcIndex] instanceof ISketchAccumulator
+				&& ((ISketchAccumulator) accumulators[funcIndex]).mergeSketch(parameters)) {
+			return;
+		}
+		accumulators[funcIndex].onRow(parameters);
+	}
+
+	/**
+	 *
+	 * @throws DataException
+	 */
+	private void finishAccumulators() throws DataException {
+		for (int i = 0; i < accumulators.length; i++) {
+			accumulators[i].finish();
+		}
+		currentResultObj.setAggregationValues(accumulators);
+		for (int i = 0; i < accumulators.length; i++) {
+			accumulators[i].start();
+		}
+	}
+
 	/**
 	 *
 	 * @param row
@@ -327,12 +367,7 @@ public class AggregationCalculator {
 	 */
 	IDiskArray getResult() throws IOException, DataException {
 		if (currentResultObj != null && accumulators != null) {
-			currentResultObj.setAggregationValues(new Object[accumulators.length]);
-			for (int i = 0; i < accumulators.length; i++) {
-				accumulators[i].finish();
-				currentResultObj.getAggregationValues()[i] = accumulators[i].getValue();
-				accumulators[i].start();
-			}
+			finishAccumulators();
 		}
 		if (currentResultObj != null) {
 			result.add(currentResultObj);
@@ -362,7 +397,7 @@ public class AggregationCalculator {
 					if (!getFilterResult(row, i)) {
 						continue;
 					}
-					accumulators[i].onRow(getAccumulatorParameter(row, i));
+					accumulate(row, i);
 				}
 			}
 			row.firstMeasure();
@@ -371,7 +406,14 @@ public class AggregationCalculator {
 
 	private Object[] getAccumulatorParameter(Row4Aggregation row, int funcIndex) {
 		Object[] parameters = null;
-		if (parameterColIndex[funcIndex] == -1) {
+		if (parameterColIndex[funcIndex] == -1 && parameterCount[funcIndex] > 1) {
+			// the second argument is a value, such as the percentage of a percentile
+			parameters = new Object[2];
+			if (measureIndexes[funcIndex] >= 0) {
+				parameters[0] = row.getMeasures()[measureIndexes[funcIndex]];
+			}
+			parameters[1] = aggregation.getAggregationFunctions()[funcIndex].getParaValue();
+		} else if (parameterColIndex[funcIndex] == -1) {
 			parameters = new Object[1];
 			if (measureIndexes[funcIndex] < 0) {
 				return null;
@@ -20,11 +20,18 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.aggregation.AggregationUtil;
+import org.eclipse.birt.data.engine.api.DataEngineThreadLocal;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
+import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ComparatorUtil;
 import org.eclipse.birt.data.engine.executor.cache.SizeOfUtil;
@@ -78,6 +85,8 @@ public class AggregationExecutor {
 	public Row4Aggregation[] aggregationRow;
 	private AggregationFunctionDefinition simpleFunc;
 	private boolean existReferenceDate = false;
+	private IDataSet4Aggregation[] partitionDataSets = null;
+	private int sortBufferSize = 10000;
 
 	private static String[] simpleFuncNames = { "SUM", "MAX", "MIN", "FIRST", "LAST" };
 
@@ -123,6 +132,11 @@ public class AggregationExecutor {
 						this.memoryCacheSize / 5 / this.aggregationCalculators.length);
 			}
 		}
+		if (simpleFunc != null && isSketchFunction(simpleFunc)) {
+			for (int i = 0; i < this.aggregationCalculators.length; i++) {
+				this.aggregationCalculators[i].setMergeSketches(true);
+			}
+		}
 		if (simpleFunc != null) {
 			measureIndexes4Merge = dataSet4Aggregation.getMetaInfo().getMeasureIndex(simpleFunc.getMeasureName());
 			if (AggregationUtil
@@ -181,7 +195,8 @@ public class AggregationExecutor {
 				}
 			}
 		}
-		if (func != null && isSimepleFunction(func.getFunctionName()) && !existReferenceDate) {
+		if (func != null && (isSimepleFunction(func.getFunctionName()) || isSketchFunction(aggregations, func))
+				&& !existReferenceDate) {
 			String mesureName = func.getMeasureName();
 			try {
 				MeasureInfo[] infos = dataSet4Aggregation.getMetaInfo().getMeasureInfos();
@@ -215,6 +230,41 @@ public class AggregationExecutor {
 		return true;
 	}
 
+	/**
+	 * The rows of an approximate aggregation of a measure can be partly
+	 * aggregated into sketches, which are merged by the aggregations of all the
+	 * levels. The time functions read the measure values of the rows, so they
+	 * must not be used.
+	 *
+	 * @param aggregations
+	 * @param func
+	 * @return
+	 * @throws DataException
+	 */
+	private static boolean isSketchFunction(AggregationDefinition[] aggregations, AggregationFunctionDefinition func)
+			throws DataException {
+		if (func.getMeasureName() == null || func.getParaCol() != null || !isSketchFunction(func)) {
+			return false;
+		}
+		for (int i = 0; i < aggregations.length; i++) {
+			AggregationFunctionDefinition[] aggrFunc = aggregations[i].getAggregationFunctions();
+			if (aggrFunc == null) {
+				continue;
+			}
+			for (int j = 0; j < aggrFunc.length; j++) {
+				if (aggrFunc[j].getTimeFunction() != null || aggrFunc[j].getTimeFunctionFilter() != null) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isSketchFunction(AggregationFunctionDefinition func) throws DataException {
+		IAggrFunction aggrFunc = AggregationManager.getInstance().getAggregation(func.getFunctionName());
+		return aggrFunc != null && aggrFunc.newAccumulator() instanceof ISketchAccumulator;
+	}
+
 	private static boolean isSimepleFunction(String funcName) {
 		for (int i = 0; i < simpleFuncNames.length; i++) {
 			if (simpleFuncNames[i].equals(funcName)) {
@@ -274,10 +324,25 @@ public class AggregationExecutor {
 			}
 		}
 
-		this.dataSet4Aggregation.close();
+		closeDataSets();
 		return resultSets;
 	}
 
+	/**
+	 *
+	 * @throws DataException
+	 * @throws IOException
+	 */
+	private void closeDataSets() throws DataException, IOException {
+		if (partitionDataSets == null) {
+			this.dataSet4Aggregation.close();
+			return;
+		}
+		for (int i = 0; i < partitionDataSets.length; i++) {
+			partitionDataSets[i].close();
+		}
+	}
+
 	private void populateEdgeMember(List<Member[]> edgeMember, IAggregationResultSet rs) throws IOException {
 		for (int i = 0; i < rs.length(); i++) {
 			rs.seek(i);
@@ -544,73 +609,95 @@ public class AggregationExecutor {
 //				facttableRowIterator, parameterColIndexs );
 
 		prepareSortedStacks();
-		int measureCount = dataSet4Aggregation.getMetaInfo().getMeasureInfos().length;
-		int factRowCount = 0;
+		if (partitionDataSets != null) {
+			populatePartitionedSortedFactRows(stopSign);
+			return;
+		}
 		if (this.aggregationRow == null) {
 			this.aggregationRow = new Row4Aggregation[allSortedFactRows.size()];
 		}
-		DiskSortedStackWrapper[] diskSortedStackWrapper = new DiskSortedStackWrapper[allSortedFactRows.size()];
+		DiskSortedStack[] diskSortedStacks = new DiskSortedStack[allSortedFactRows.size()];
 		for (int i = 0; i < allSortedFactRows.size(); i++) {
-			diskSortedStackWrapper[i] = ((DiskSortedStackWrapper) allSortedFactRows.get(i));
+			diskSortedStacks[i] = ((DiskSortedStackWrapper) allSortedFactRows.get(i)).diskSortedStack;
 		}
+		populateSortedFactRows(dataSet4Aggregation, diskSortedStacks, mergeRow4Aggregations, aggregationRow,
+				new AtomicInteger(), stopSign);
+	}
+
+	/**
+	 * Reads all the rows of a data set and pushes them into the sorted stacks.
+	 *
+	 * @param dataSet
+	 * @param diskSortedStacks
+	 * @param mergeRows
+	 * @param aggregationRow
+	 * @param factRowCount     fact row counter shared by all the data sets
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private void populateSortedFactRows(IDataSet4Aggregation dataSet, DiskSortedStack[] diskSortedStacks,
+			MergeRow4Aggregation[] mergeRows, Row4Aggregation[] aggregationRow, AtomicInteger factRowCount,
+			StopSign stopSign) throws IOException, DataException {
+		int measureCount = dataSet.getMetaInfo().getMeasureInfos().length;
 		try {
-			while (dataSet4Aggregation.next() && !stopSign.isStopped()) {
-				for (int i = 0; i < allSortedFactRows.size(); i++) {
-					int[] levelIndex = diskSortedStackWrapper[i].levelIndex;
-					if (!dataSet4Aggregation.isDuplicatedRow()) {
-						Member[] members = getLevelMembers(levelIndex);
+			while (dataSet.next() && !stopSign.isStopped()) {
+				for (int i = 0; i < diskSortedStacks.length; i++) {
+					int[] levelIndex = ((DiskSortedStackWrapper) allSortedFactRows.get(i)).levelIndex;
+					if (!dataSet.isDuplicatedRow()) {
+						Member[] members = getLevelMembers(dataSet, levelIndex);
 						if (aggregationRow[i] != null) {
 							if (existReferenceDate) {
-								diskSortedStackWrapper[i].diskSortedStack.push(aggregationRow[i]);
+								diskSortedStacks[i].push(aggregationRow[i]);
 							} else {
-								Row4Aggregation popRow = this.mergeRow4Aggregations[i].push(aggregationRow[i]);
+								Row4Aggregation popRow = mergeRows[i].push(aggregationRow[i]);
 								if (popRow != null) {
-									diskSortedStackWrapper[i].diskSortedStack.push(popRow);
+									diskSortedStacks[i].push(popRow);
 								}
 							}
 						}
-						aggregationRow[i] = createRow4Aggregation();
+						aggregationRow[i] = createRow4Aggregation(dataSet);
 						aggregationRow[i].setLevelMembers(members);
 						if (aggregationRow[i].getLevelMembers() == null) {
 							continue;
 						}
 						aggregationRow[i].setMeasures(new Object[measureCount]);
 						for (int j = 0; j < measureCount; j++) {
-							aggregationRow[i].getMeasures()[j] = dataSet4Aggregation.getMeasureValue(j);
+							aggregationRow[i].getMeasures()[j] = dataSet.getMeasureValue(j);
 						}
-						aggregationRow[i].setParameterValues(getParameterValues());
+						aggregationRow[i].setParameterValues(getParameterValues(dataSet));
 
 					} else {
 						Object[] measures = new Object[measureCount];
 						for (int j = 0; j < measureCount; j++) {
-							measures[j] = dataSet4Aggregation.getMeasureValue(j);
+							measures[j] = dataSet.getMeasureValue(j);
 						}
 						aggregationRow[i].addMeasure(measures);
-						addPosition(aggregationRow[i]);
+						addPosition(aggregationRow[i], dataSet);
 					}
 				}
-				factRowCount++;
-				if (maxDataObjectRows > 0 && factRowCount > maxDataObjectRows) {
+				int rowCount = factRowCount.incrementAndGet();
+				if (maxDataObjectRows > 0 && rowCount > maxDataObjectRows) {
 					throw new DataException(ResourceConstants.EXCEED_MAX_DATA_OBJECT_ROWS);
 				}
 			}
-			for (int i = 0; i < allSortedFactRows.size(); i++) {
+			for (int i = 0; i < diskSortedStacks.length; i++) {
 				if (aggregationRow[i] != null) {
 					if (existReferenceDate) {
-						diskSortedStackWrapper[i].diskSortedStack.push(aggregationRow[i]);
+						diskSortedStacks[i].push(aggregationRow[i]);
 					} else {
-						Row4Aggregation popRow = this.mergeRow4Aggregations[i].push(aggregationRow[i]);
+						Row4Aggregation popRow = mergeRows[i].push(aggregationRow[i]);
 						if (popRow != null) {
-							diskSortedStackWrapper[i].diskSortedStack.push(popRow);
+							diskSortedStacks[i].push(popRow);
 						}
 					}
 				}
 				if (!existReferenceDate) {
-					List<Row4Aggregation> remainRows = this.mergeRow4Aggregations[i].getAll();
+					List<Row4Aggregation> remainRows = mergeRows[i].getAll();
 					for (int j = 0; j < remainRows.size(); j++) {
-						diskSortedStackWrapper[i].diskSortedStack.push(remainRows.get(j));
+						diskSortedStacks[i].push(remainRows.get(j));
 					}
-					this.mergeRow4Aggregations[i] = null;
+					mergeRows[i] = null;
 				}
 			}
 		} catch (BirtException e) {
@@ -618,22 +705,106 @@ public class AggregationExecutor {
 		}
 	}
 
-	protected Row4Aggregation createRow4Aggregation() {
+	/**
+	 * Parallel execution mode. Every partition data set is scanned by its own
+	 * worker into its own sorted stacks, and the rows are partly aggregated on the
+	 * way by <code>MergeRow4Aggregation</code>. The sorted partial results of all
+	 * the partitions are then merged into one sorted sequence per stack, which is
+	 * what the aggregation calculators expect.
+	 *
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private void populatePartitionedSortedFactRows(final StopSign stopSign) throws IOException, DataException {
+		final int stackCount = allSortedFactRows.size();
+		final DiskSortedStack[][] partitionStacks = new DiskSortedStack[partitionDataSets.length][stackCount];
+		final MergeRow4Aggregation[][] partitionMergeRows = new MergeRow4Aggregation[partitionDataSets.length][];
+		int partitionBufferSize = Math.max(sortBufferSize / partitionDataSets.length, 100);
+		for (int i = 0; i < partitionDataSets.length; i++) {
+			partitionMergeRows[i] = new MergeRow4Aggregation[stackCount];
+			for (int j = 0; j < stackCount; j++) {
+				DiskSortedStackWrapper wrapper = (DiskSortedStackWrapper) allSortedFactRows.get(j);
+				partitionStacks[i][j] = new DiskSortedStack(partitionBufferSize, false, wrapper.comparator,
+						Row4Aggregation.getCreator());
+				partitionStacks[i][j].setUseMemoryOnly(memoryCacheSize == 0);
+				partitionMergeRows[i][j] = new MergeRow4Aggregation(partitionBufferSize, simpleFunc,
+						measureIndexes4Merge, parameterColIndex4Merge);
+			}
+		}
+
+		final String tempPath = DataEngineThreadLocal.getInstance().getPathManager().getTempPath();
+		final AtomicInteger factRowCount = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(partitionDataSets.length);
+		try {
+			List<ForkJoinTask<Object>> tasks = new ArrayList<>();
+			for (int i = 0; i < partitionDataSets.length; i++) {
+				final int partition = i;
+				tasks.add(pool.submit(() -> {
+					DataEngineThreadLocal.getInstance().getPathManager().setTempPath(tempPath);
+					try {
+						populateSortedFactRows(partitionDataSets[partition], partitionStacks[partition],
+								partitionMergeRows[partition], new Row4Aggregation[stackCount], factRowCount,
+								stopSign);
+					} finally {
+						DataEngineThreadLocal.getInstance().removeTempPathManger();
+					}
+					return null;
+				}));
+			}
+			for (int i = 0; i < tasks.size(); i++) {
+				tasks.get(i).get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DataException(ResourceConstants.UNEXPECTED_ERROR, e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof DataException) {
+				throw (DataException) cause;
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new DataException(ResourceConstants.UNEXPECTED_ERROR, cause);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		for (int j = 0; j < stackCount; j++) {
+			DiskSortedStackWrapper wrapper = (DiskSortedStackWrapper) allSortedFactRows.get(j);
+			DiskSortedStack[] stacks = new DiskSortedStack[partitionDataSets.length];
+			for (int i = 0; i < partitionDataSets.length; i++) {
+				stacks[i] = partitionStacks[i][j];
+			}
+			MergedDiskSortedStackWrapper mergedWrapper = new MergedDiskSortedStackWrapper(stacks, wrapper.comparator,
+					wrapper.levelIndex);
+			allSortedFactRows.set(j, mergedWrapper);
+			for (int i = 0; i < sortedFactRows.length; i++) {
+				if (sortedFactRows[i] == wrapper) {
+					sortedFactRows[i] = mergedWrapper;
+				}
+			}
+		}
+		mergeRow4Aggregations = null;
+	}
+
+	protected Row4Aggregation createRow4Aggregation(IDataSet4Aggregation dataSet) {
 		Row4Aggregation aggregationRow = new Row4Aggregation();
-		aggregationRow.setDimPos(dataSet4Aggregation.getDimensionPosition());
+		aggregationRow.setDimPos(dataSet.getDimensionPosition());
 		return aggregationRow;
 	}
 
-	protected void addPosition(Row4Aggregation aggregationRow) {
+	protected void addPosition(Row4Aggregation aggregationRow, IDataSet4Aggregation dataSet) {
 		// Implement in sub classes.
 	}
 
-	Member[] getLevelMembers(int[] levelIndex) throws BirtException, IOException {
+	Member[] getLevelMembers(IDataSet4Aggregation dataSet, int[] levelIndex) throws BirtException, IOException {
 		Member[] result = new Member[levelIndex.length / 2];
 		for (int i = 0; i < result.length; i++) {
 			int dim = levelIndex[i * 2];
 			int level = levelIndex[i * 2 + 1];
-			result[i] = dataSet4Aggregation.getMember(dim, level);
+			result[i] = dataSet.getMember(dim, level);
 			if (result[i] == null) {
 				return null;
 			}
@@ -641,13 +812,13 @@ public class AggregationExecutor {
 		return result;
 	}
 
-	Object[] getParameterValues() throws BirtException, IOException {
+	Object[] getParameterValues(IDataSet4Aggregation dataSet) throws BirtException, IOException {
 		if (paraInfos == null || paraInfos.length == 0) {
 			return null;
 		}
 		Object[] reValues = new Object[paraInfos.length];
 		for (int i = 0; i < reValues.length; i++) {
-			Member member = dataSet4Aggregation.getMember(paraInfos[i].getDimIndex(), paraInfos[i].getLevelIndex());
+			Member member = dataSet.getMember(paraInfos[i].getDimIndex(), paraInfos[i].getLevelIndex());
 			if (paraInfos[i].isKey()) {
 				reValues[i] = member.getKeyValues()[paraInfos[i].getColumnIndex()];
 			} else {
@@ -709,7 +880,7 @@ public class AggregationExecutor {
 				diskSortedStack.setUseMemoryOnly(true);
 			}
 
-			DiskSortedStackWrapper diskSortedStackReader = new DiskSortedStackWrapper(diskSortedStack,
+			DiskSortedStackWrapper diskSortedStackReader = new DiskSortedStackWrapper(diskSortedStack, comparator,
 					levelIndex[aggregationIndex]);
 			this.allSortedFactRows.add(diskSortedStackReader);
 
@@ -734,6 +905,7 @@ public class AggregationExecutor {
 				diskSortedStackReader.getDiskSortedStack().setBufferSize(bufferSize);
 			}
 		}
+		this.sortBufferSize = bufferSize;
 		for (int i = 0; i < allSortedFactRows.size(); i++) {
 			mergeRow4Aggregations[i] = new MergeRow4Aggregation(bufferSize, simpleFunc, measureIndexes4Merge,
 					parameterColIndex4Merge);
@@ -869,6 +1041,22 @@ public class AggregationExecutor {
 		}
 	}
 
+	/**
+	 * Turns on the parallel execution mode. Each data set must read a disjoint
+	 * part of the same fact table, and all of them together the whole selection;
+	 * the data set given to the constructor must be one of them. The data sets
+	 * must not use script evaluation, since they are read from worker threads.
+	 *
+	 * @param partitionDataSets
+	 */
+	public void setPartitionDataSets(IDataSet4Aggregation[] partitionDataSets) {
+		if (partitionDataSets == null || partitionDataSets.length < 2) {
+			this.partitionDataSets = null;
+		} else {
+			this.partitionDataSets = partitionDataSets;
+		}
+	}
+
 	public void setMaxDataObjectRows(int rowSize) {
 		this.maxDataObjectRows = rowSize;
 	}
@@ -942,16 +1130,19 @@ class Row4AggregationComparator implements Comparator {
 class DiskSortedStackWrapper {
 
 	DiskSortedStack diskSortedStack = null;
+	Comparator comparator = null;
 	Object currentObj = null;
 	int[] levelIndex = null;
 
 	/**
 	 *
 	 * @param diskSortedStack
+	 * @param comparator
 	 * @param levelIndex
 	 */
-	DiskSortedStackWrapper(DiskSortedStack diskSortedStack, int[] levelIndex) {
+	DiskSortedStackWrapper(DiskSortedStack diskSortedStack, Comparator comparator, int[] levelIndex) {
 		this.diskSortedStack = diskSortedStack;
+		this.comparator = comparator;
 		this.levelIndex = levelIndex;
 	}
 
@@ -977,3 +1168,54 @@ class DiskSortedStackWrapper {
 		return currentObj;
 	}
 }
+
+/**
+ * Merges the sorted stacks of several fact table partitions into one sorted
+ * sequence.
+ */
+class MergedDiskSortedStackWrapper extends DiskSortedStackWrapper {
+
+	private DiskSortedStack[] stacks;
+	private Object[] heads;
+
+	/**
+	 *
+	 * @param stacks
+	 * @param comparator
+	 * @param levelIndex
+	 * @throws IOException
+	 */
+	MergedDiskSortedStackWrapper(DiskSortedStack[] stacks, Comparator comparator, int[] levelIndex)
+			throws IOException {
+		super(null, comparator, levelIndex);
+		this.stacks = stacks;
+		this.heads = new Object[stacks.length];
+		for (int i = 0; i < stacks.length; i++) {
+			heads[i] = stacks[i].pop();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.impl.aggregation.DiskSortedStackWrapper
+	 * #pop()
+	 */
+	@Override
+	Object pop() throws IOException {
+		int minIndex = -1;
+		for (int i = 0; i < heads.length; i++) {
+			if (heads[i] != null && (minIndex == -1 || comparator.compare(heads[i], heads[minIndex]) < 0)) {
+				minIndex = i;
+			}
+		}
+		if (minIndex == -1) {
+			currentObj = null;
+			return null;
+		}
+		currentObj = heads[minIndex];
+		heads[minIndex] = stacks[minIndex].pop();
+		return currentObj;
+	}
+}
@@ -14,6 +14,9 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.olap.data.impl.aggregation;
 
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.olap.data.api.IAggregationResultRow;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.Member;
 import org.eclipse.birt.data.engine.olap.data.util.IStructure;
@@ -27,6 +30,8 @@ import org.eclipse.birt.data.engine.olap.data.util.ObjectArrayUtil;
 public class AggregationResultRow implements IAggregationResultRow {
 	private Member[] levelMembers = null;
 	private Object[] aggregationValues = null;
+	// the sketches of the approximate aggregations, null for the others
+	private Object[] aggregationSketches = null;
 
 	public AggregationResultRow() {
 
@@ -57,7 +62,13 @@ public class AggregationResultRow implements IAggregationResultRow {
 				objectArrays[i] = levelMembers[i].getFieldValues();
 			}
 		}
-		if (getAggregationValues() != null) {
+		if (getAggregationValues() != null && aggregationSketches != null) {
+			int length = getAggregationValues().length;
+			objectArrays[objectArrays.length - 1] = new Object[length * 2 + 1];
+			objectArrays[objectArrays.length - 1][0] = Integer.valueOf(2);
+			System.arraycopy(getAggregationValues(), 0, objectArrays[objectArrays.length - 1], 1, length);
+			System.arraycopy(aggregationSketches, 0, objectArrays[objectArrays.length - 1], length + 1, length);
+		} else if (getAggregationValues() != null) {
 			objectArrays[objectArrays.length - 1] = new Object[getAggregationValues().length + 1];
 			objectArrays[objectArrays.length - 1][0] = Integer.valueOf(1);
 			System.arraycopy(getAggregationValues(), 0, objectArrays[objectArrays.length - 1], 1,
@@ -148,6 +159,58 @@ public class AggregationResultRow implements IAggregationResultRow {
 	public Object[] getAggregationValues() {
 		return aggregationValues;
 	}
+
+	/**
+	 * Sets the values of the finished accumulators. The sketches of the
+	 * approximate aggregations are kept too, so that an aggregation of coarser
+	 * levels can be rolled up from them.
+	 *
+	 * @param accumulators
+	 * @throws DataException
+	 */
+	void setAggregationValues(Accumulator[] accumulators) throws DataException {
+		this.aggregationValues = new Object[accumulators.length];
+		this.aggregationSketches = null;
+		for (int i = 0; i < accumulators.length; i++) {
+			this.aggregationValues[i] = accumulators[i].getValue();
+			if (accumulators[i] instanceof ISketchAccumulator) {
+				if (this.aggregationSketches == null) {
+					this.aggregationSketches = new Object[accumulators.length];
+				}
+				this.aggregationSketches[i] = ((ISketchAccumulator) accumulators[i]).getSketch();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param aggregationSketches the sketches of the aggregation values, null
+	 *                            for the values which have no sketch
+	 */
+	public void setAggregationSketches(Object[] aggregationSketches) {
+		this.aggregationSketches = aggregationSketches;
+	}
+
+	/**
+	 *
+	 * @return the sketches of the aggregation values, or null if no value has a
+	 *         sketch
+	 */
+	public Object[] getAggregationSketches() {
+		return aggregationSketches;
+	}
+
+	/**
+	 *
+	 * @param row
+	 * @return the sketches of the aggregation values of the row, or null
+	 */
+	static Object[] getAggregationSketches(IAggregationResultRow row) {
+		if (row instanceof AggregationResultRow) {
+			return ((AggregationResultRow) row).getAggregationSketches();
+		}
+		return null;
+	}
 }
 
 /**
@@ -182,6 +245,13 @@ class AggregationResultObjectCreator implements IStructureCreator {
 			result.setAggregationValues(new Object[objectArrays[objectArrays.length - 1].length - 1]);
 			System.arraycopy(objectArrays[objectArrays.length - 1], 1, result.getAggregationValues(), 0,
 					result.getAggregationValues().length);
+		} else if (objectArrays[objectArrays.length - 1][0].equals(Integer.valueOf(2))) {
+			int length = (objectArrays[objectArrays.length - 1].length - 1) / 2;
+			result.setAggregationValues(new Object[length]);
+			result.setAggregationSketches(new Object[length]);
+			System.arraycopy(objectArrays[objectArrays.length - 1], 1, result.getAggregationValues(), 0, length);
+			System.arraycopy(objectArrays[objectArrays.length - 1], length + 1, result.getAggregationSketches(), 0,
+					length);
 		}
 
 		return result;
@@ -18,15 +18,18 @@ import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.core.data.ExpressionUtil;
 import org.eclipse.birt.core.script.ScriptContext;
 import org.eclipse.birt.core.script.ScriptExpression;
 import org.eclipse.birt.data.engine.api.IBaseExpression;
+import org.eclipse.birt.data.engine.api.IScriptExpression;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.olap.data.api.DimLevel;
 import org.eclipse.birt.data.engine.olap.data.api.IAggregationResultRow;
 import org.eclipse.birt.data.engine.olap.data.api.IAggregationResultSet;
 import org.eclipse.birt.data.engine.olap.data.impl.AggregationDefinition;
+import org.eclipse.birt.data.engine.olap.util.OlapExpressionUtil;
 import org.eclipse.birt.data.engine.script.ScriptConstants;
 import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 import org.mozilla.javascript.Context;
@@ -148,9 +151,39 @@ public class AggregationResultSetWithOneMoreDummyAggr implements IAggregationRes
 		AggregationResultRow result = new AggregationResultRow();
 		result.setLevelMembers(arr.getLevelMembers());
 		result.setAggregationValues(values);
+		// the added aggregation of a direct reference to an aggregation has the
+		// sketch of the referenced aggregation
+		Object[] sketches1 = AggregationResultRow.getAggregationSketches(arr);
+		int referencedIndex = getReferencedAggregationIndex();
+		if (sketches1 != null) {
+			Object[] sketches = new Object[values.length];
+			System.arraycopy(sketches1, 0, sketches, 0, values1.length);
+			if (referencedIndex >= 0) {
+				sketches[sketches.length - 1] = sketches1[referencedIndex];
+			}
+			result.setAggregationSketches(sketches);
+		}
 		return result;
 	}
 
+	/**
+	 *
+	 * @return the index of the aggregation of ars which the added aggregation
+	 *         expression directly refers to, or -1
+	 * @throws IOException
+	 */
+	private int getReferencedAggregationIndex() throws IOException {
+		if (!(addedAggrExpression instanceof IScriptExpression)) {
+			return -1;
+		}
+		String text = ((IScriptExpression) addedAggrExpression).getText();
+		String bindingName = OlapExpressionUtil.getBindingName(text);
+		if (bindingName == null || !ExpressionUtil.createJSDataExpression(bindingName).equals(text.trim())) {
+			return -1;
+		}
+		return ars.getAggregationIndex(bindingName);
+	}
+
 	@Override
 	public String[][] getKeyNames() {
 		return ars.getKeyNames();
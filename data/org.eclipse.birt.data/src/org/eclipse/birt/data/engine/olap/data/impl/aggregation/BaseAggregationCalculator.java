@@ -20,6 +20,7 @@ import org.eclipse.birt.data.engine.aggregation.AggregationUtil;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.i18n.DataResourceHandle;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
@@ -202,11 +203,41 @@ public abstract class BaseAggregationCalculator implements IAggregationCalculato
 		}
 		for (int i = 0; i < accumulators.length; i++) {
 			if (getFilterResult(row, i)) {
-				accumulators[i].onRow(getAccumulatorParameter(aggregation.getAggregationFunctions()[i], row, i));
+				Object[] parameters = getAccumulatorParameter(aggregation.getAggregationFunctions()[i], row, i);
+				if (!mergeSketch(row, i, parameters)) {
+					accumulators[i].onRow(parameters);
+				}
 			}
 		}
 	}
 
+	/**
+	 * An approximate aggregation of a value which has been aggregated by an
+	 * approximate aggregation of the same kind is rolled up from the sketches of
+	 * the sub groups, so that for example the distinct values of the sub groups
+	 * are counted once.
+	 *
+	 * @param row
+	 * @param funcIndex
+	 * @param parameters
+	 * @return whether the sketch of the value has been merged
+	 * @throws DataException
+	 */
+	private boolean mergeSketch(IAggregationResultRow row, int funcIndex, Object[] parameters)
+			throws DataException {
+		if (parameters == null || measureIndexes[funcIndex] < 0
+				|| !(accumulators[funcIndex] instanceof ISketchAccumulator)) {
+			return false;
+		}
+		Object[] sketches = AggregationResultRow.getAggregationSketches(row);
+		if (sketches == null || sketches[measureIndexes[funcIndex]] == null) {
+			return false;
+		}
+		Object[] sketchParameters = parameters.clone();
+		sketchParameters[0] = sketches[measureIndexes[funcIndex]];
+		return ((ISketchAccumulator) accumulators[funcIndex]).mergeSketch(sketchParameters);
+	}
+
 	/**
 	 *
 	 * @param function
@@ -21,6 +21,7 @@ import java.util.Map;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.ISketchAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ComparatorUtil;
 import org.eclipse.birt.data.engine.i18n.DataResourceHandle;
@@ -38,6 +39,8 @@ public class MergeRow4Aggregation {
 
 	private int measureIndexes;
 	private int parameterColIndex;
+	private int parameterCount;
+	private Object parameterValue;
 
 	MergeRow4Aggregation(int cacheSize, AggregationFunctionDefinition aggregation, int measureIndexes,
 			int parameterColIndex) throws DataException {
@@ -52,6 +55,8 @@ public class MergeRow4Aggregation {
 
 			this.parameterColIndex = parameterColIndex;
 			this.measureIndexes = measureIndexes;
+			this.parameterCount = aggrFunc.getParameterDefn() == null ? 0 : aggrFunc.getParameterDefn().length;
+			this.parameterValue = aggregation.getParaValue();
 
 		}
 		this.rowMap = new HashMap<>();
@@ -82,7 +87,13 @@ public class MergeRow4Aggregation {
 
 	private Object[] getAccumulatorParameter(Row4Aggregation row) {
 		Object[] parameters = null;
-		if (parameterColIndex == -1) {
+		if (parameterColIndex == -1 && parameterCount > 1) {
+			parameters = new Object[2];
+			if (measureIndexes >= 0) {
+				parameters[0] = row.getMeasures()[measureIndexes];
+			}
+			parameters[1] = parameterValue;
+		} else if (parameterColIndex == -1) {
 			parameters = new Object[1];
 			if (measureIndexes < 0) {
 				return null;
@@ -137,7 +148,7 @@ public class MergeRow4Aggregation {
 		nodeSize--;
 		if (node.accumulator != null) {
 			node.accumulator.finish();
-			node.row.getMeasures()[measureIndexes] = node.accumulator.getValue();
+			node.row.getMeasures()[measureIndexes] = getValue(node.accumulator);
 		}
 		node.row.resetPosition();
 		return node;
@@ -150,13 +161,28 @@ public class MergeRow4Aggregation {
 			Node node = nodes.next();
 			if (node.accumulator != null) {
 				node.accumulator.finish();
-				node.row.getMeasures()[measureIndexes] = node.accumulator.getValue();
+				node.row.getMeasures()[measureIndexes] = getValue(node.accumulator);
 				node.row.resetPosition();
 			}
 			rowList.add(node.row);
 		}
 		return rowList;
 	}
+
+	/**
+	 * The partly aggregated value of a row. An approximate aggregation keeps its
+	 * sketch, which is merged when the row is aggregated again.
+	 *
+	 * @param accumulator
+	 * @return
+	 * @throws DataException
+	 */
+	private static Object getValue(Accumulator accumulator) throws DataException {
+		if (accumulator instanceof ISketchAccumulator) {
+			return ((ISketchAccumulator) accumulator).getSketch();
+		}
+		return accumulator.getValue();
+	}
 }
 
 class Node {
@@ -138,6 +138,19 @@ public class MergedAggregationResultSet implements IAggregationResultSet {
 		AggregationResultRow arr = new AggregationResultRow();
 		arr.setLevelMembers(arr1.getLevelMembers());
 		arr.setAggregationValues(values);
+		// keep the sketches, so that the merged aggregations can still be rolled up
+		Object[] sketches1 = AggregationResultRow.getAggregationSketches(arr1);
+		Object[] sketches2 = AggregationResultRow.getAggregationSketches(arr2);
+		if (sketches1 != null || sketches2 != null) {
+			Object[] sketches = new Object[values.length];
+			if (sketches1 != null) {
+				System.arraycopy(sketches1, 0, sketches, 0, values1.length);
+			}
+			if (sketches2 != null) {
+				System.arraycopy(sketches2, 0, sketches, values1.length, values2.length);
+			}
+			arr.setAggregationSketches(sketches);
+		}
 		return arr;
 	}
 
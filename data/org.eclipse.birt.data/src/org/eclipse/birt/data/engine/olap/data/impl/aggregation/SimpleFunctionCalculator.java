@@ -79,7 +79,9 @@ public class SimpleFunctionCalculator extends BaseAggregationCalculator {
 				if (accumulators != null) {
 					for (int j = 0; j < accumulators.length; j++) {
 						accumulators[j].finish();
-						resultRow.getAggregationValues()[j] = accumulators[j].getValue();
+					}
+					resultRow.setAggregationValues(accumulators);
+					for (int j = 0; j < accumulators.length; j++) {
 						accumulators[j].start();
 					}
 				}
@@ -93,8 +95,8 @@ public class SimpleFunctionCalculator extends BaseAggregationCalculator {
 		if (accumulators != null) {
 			for (int j = 0; j < accumulators.length; j++) {
 				accumulators[j].finish();
-				resultRow.getAggregationValues()[j] = accumulators[j].getValue();
 			}
+			resultRow.setAggregationValues(accumulators);
 		}
 		result.add(resultRow);
 
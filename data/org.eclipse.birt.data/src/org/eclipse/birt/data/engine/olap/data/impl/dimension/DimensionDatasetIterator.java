@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.olap.data.impl.dimension;
+
+import java.io.IOException;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.StopSign;
+import org.eclipse.birt.data.engine.olap.data.api.ILevel;
+import org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator;
+
+/**
+ * Reads the rows of a materialized dimension back as a data set. The fields are
+ * named after the key and attribute columns of the levels, so the iterator can
+ * be used to rebuild the dimension, for instance together with new members.
+ */
+
+public class DimensionDatasetIterator implements IDatasetIterator {
+	private Dimension dimension;
+	private StopSign stopSign;
+	private int[] levelIndex;
+	private int[] columnIndex;
+	private boolean[] isKey;
+	private int[] dataType;
+	private String[] fieldName;
+	private int position = -1;
+	private DimensionRow currentRow = null;
+
+	/**
+	 *
+	 * @param dimension
+	 * @param stopSign
+	 */
+	public DimensionDatasetIterator(Dimension dimension, StopSign stopSign) {
+		this.dimension = dimension;
+		this.stopSign = stopSign;
+		ILevel[] levels = dimension.getHierarchy().getLevels();
+		int fieldCount = 0;
+		for (int i = 0; i < levels.length; i++) {
+			fieldCount += levels[i].getKeyNames().length;
+			if (levels[i].getAttributeNames() != null) {
+				fieldCount += levels[i].getAttributeNames().length;
+			}
+		}
+		levelIndex = new int[fieldCount];
+		columnIndex = new int[fieldCount];
+		isKey = new boolean[fieldCount];
+		dataType = new int[fieldCount];
+		fieldName = new String[fieldCount];
+		int index = 0;
+		for (int i = 0; i < levels.length; i++) {
+			String[] keyNames = levels[i].getKeyNames();
+			for (int j = 0; j < keyNames.length; j++) {
+				levelIndex[index] = i;
+				columnIndex[index] = j;
+				isKey[index] = true;
+				fieldName[index] = keyNames[j];
+				dataType[index] = levels[i].getKeyDataType(keyNames[j]);
+				index++;
+			}
+			String[] attributeNames = levels[i].getAttributeNames();
+			if (attributeNames == null) {
+				continue;
+			}
+			for (int j = 0; j < attributeNames.length; j++) {
+				levelIndex[index] = i;
+				columnIndex[index] = j;
+				isKey[index] = false;
+				fieldName[index] = attributeNames[j];
+				dataType[index] = levels[i].getAttributeDataType(attributeNames[j]);
+				index++;
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getFieldIndex
+	 * (java.lang.String)
+	 */
+	@Override
+	public int getFieldIndex(String name) throws BirtException {
+		for (int i = 0; i < fieldName.length; i++) {
+			if (fieldName[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getFieldType(
+	 * java.lang.String)
+	 */
+	@Override
+	public int getFieldType(String name) throws BirtException {
+		int index = getFieldIndex(name);
+		return index < 0 ? DataType.UNKNOWN_TYPE : dataType[index];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#next()
+	 */
+	@Override
+	public boolean next() throws BirtException {
+		if (stopSign.isStopped() || position + 1 >= dimension.length()) {
+			currentRow = null;
+			return false;
+		}
+		position++;
+		try {
+			currentRow = dimension.getRowByPosition(position);
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.OLAPFILE_DATA_ERROR, e, dimension.getName());
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getValue(int)
+	 */
+	@Override
+	public Object getValue(int fieldIndex) throws BirtException {
+		if (currentRow == null) {
+			return null;
+		}
+		Member member = currentRow.getMembers()[levelIndex[fieldIndex]];
+		if (isKey[fieldIndex]) {
+			return member.getKeyValues()[columnIndex[fieldIndex]];
+		}
+		return member.getAttributes() == null ? null : member.getAttributes()[columnIndex[fieldIndex]];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#close()
+	 */
+	@Override
+	public void close() throws BirtException {
+		currentRow = null;
+	}
+}
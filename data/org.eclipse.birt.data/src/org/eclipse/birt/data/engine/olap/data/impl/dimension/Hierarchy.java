@@ -50,6 +50,12 @@ public class Hierarchy implements IHierarchy {
 	private Map levelMap = new HashMap();
 	private String dimensionName;
 
+	// the state kept between readHierarchyRows and saveHierarchy
+	private ILevelDefn[] levelDefs;
+	private int[][] keyDataType;
+	private int[][] attributesDataType;
+	private DiskSortedStack sortedDimensionSet;
+
 	public Hierarchy(IDocumentManager documentManager, String dimensionName, String hierarchyName) {
 		this.documentManager = documentManager;
 		this.dimensionName = dimensionName;
@@ -116,16 +122,26 @@ public class Hierarchy implements IHierarchy {
 	 */
 	public void createAndSaveHierarchy(IDatasetIterator datasetIterator, ILevelDefn[] levelDefs, StopSign stopSign)
 			throws IOException, BirtException {
-		documentObj = createHierarchyDocumentObject();
-		offsetDocObj = createLevelOffsetDocumentObject();
-
-		DiskSortedStack sortedDimensionSet = getSortedDimRows(datasetIterator, levelDefs);
-
-		documentObj.seek(4);
-		saveHierarchyMetadata(datasetIterator, levelDefs);
+		readHierarchyRows(datasetIterator, levelDefs);
+		saveHierarchy(stopSign);
+	}
 
-		int[][] keyDataType = new int[levelDefs.length][];
-		int[][] attributesDataType = new int[levelDefs.length][];
+	/**
+	 * Reads the rows of the hierarchy from the data set and sorts them, which is
+	 * the first half of createAndSaveHierarchy. The data set is not used any more
+	 * afterwards, so saveHierarchy can be called on another thread after the data
+	 * set is closed.
+	 *
+	 * @param datasetIterator
+	 * @param levelDefs
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	public void readHierarchyRows(IDatasetIterator datasetIterator, ILevelDefn[] levelDefs)
+			throws IOException, BirtException {
+		this.levelDefs = levelDefs;
+		keyDataType = new int[levelDefs.length][];
+		attributesDataType = new int[levelDefs.length][];
 		for (int i = 0; i < levelDefs.length; i++) {
 			keyDataType[i] = new int[levelDefs[i].getKeyColumns().length];
 			for (int j = 0; j < levelDefs[i].getKeyColumns().length; j++) {
@@ -138,8 +154,26 @@ public class Hierarchy implements IHierarchy {
 				}
 			}
 		}
+		sortedDimensionSet = getSortedDimRows(datasetIterator, levelDefs);
+	}
+
+	/**
+	 * Writes the rows read by readHierarchyRows and the level indexes to the
+	 * document manager, which is the second half of createAndSaveHierarchy.
+	 *
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	public void saveHierarchy(StopSign stopSign) throws IOException, BirtException {
+		documentObj = createHierarchyDocumentObject();
+		offsetDocObj = createLevelOffsetDocumentObject();
+
+		documentObj.seek(4);
+		saveHierarchyMetadata();
 
 		int size = saveHierarchyRows(levelDefs, keyDataType, attributesDataType, sortedDimensionSet, stopSign);
+		sortedDimensionSet = null;
 		// save dimension member size
 		int savedPointer = (int) documentObj.getFilePointer();
 		documentObj.seek(0);
@@ -238,39 +272,36 @@ public class Hierarchy implements IHierarchy {
 
 	/**
 	 *
-	 * @param iterator
-	 * @param levelDefs
 	 * @throws IOException
-	 * @throws BirtException
 	 */
-	private void saveHierarchyMetadata(IDatasetIterator iterator, ILevelDefn[] levelDefs)
-			throws IOException, BirtException {
+	private void saveHierarchyMetadata() throws IOException {
 		documentObj.writeInt(levelDefs.length);
 		for (int i = 0; i < levelDefs.length; i++) {
-			saveLevelMetadata(iterator, levelDefs[i]);
+			saveLevelMetadata(levelDefs[i], keyDataType[i], attributesDataType[i]);
 		}
 	}
 
 	/**
 	 *
-	 * @param iterator
 	 * @param levelDef
+	 * @param keyDataType
+	 * @param attributesDataType
 	 * @throws IOException
-	 * @throws BirtException
 	 */
-	private void saveLevelMetadata(IDatasetIterator iterator, ILevelDefn levelDef) throws IOException, BirtException {
+	private void saveLevelMetadata(ILevelDefn levelDef, int[] keyDataType, int[] attributesDataType)
+			throws IOException {
 		documentObj.writeString(levelDef.getLevelName());
 		documentObj.writeInt(levelDef.getKeyColumns().length);
 		for (int i = 0; i < levelDef.getKeyColumns().length; i++) {
 			documentObj.writeString(levelDef.getKeyColumns()[i]);
-			documentObj.writeInt(iterator.getFieldType(levelDef.getKeyColumns()[i]));
+			documentObj.writeInt(keyDataType[i]);
 		}
 		String[] attributes = levelDef.getAttributeColumns();
 		if (attributes != null) {
 			documentObj.writeInt(attributes.length);
 			for (int j = 0; j < attributes.length; j++) {
 				documentObj.writeString(attributes[j]);
-				documentObj.writeInt(iterator.getFieldType(attributes[j]));
+				documentObj.writeInt(attributesDataType[j]);
 			}
 		} else {
 			documentObj.writeInt(0);
@@ -445,7 +476,7 @@ public class Hierarchy implements IHierarchy {
 	 * @throws IOException
 	 * @throws DataException
 	 */
-	public IDiskArray readAllRows(StopSign stopSign) throws IOException, DataException {
+	public synchronized IDiskArray readAllRows(StopSign stopSign) throws IOException, DataException {
 		if (documentObj == null) {
 			loadFromDisk();
 		}
@@ -473,7 +504,7 @@ public class Hierarchy implements IHierarchy {
 	 * @return
 	 * @throws IOException
 	 */
-	public DimensionRow readRowByPosition(int dimPosition) throws IOException {
+	public synchronized DimensionRow readRowByPosition(int dimPosition) throws IOException {
 		offsetDocObj.seek(dimPosition * 4L);
 
 		return readRowByOffset(offsetDocObj.readInt());
@@ -485,7 +516,7 @@ public class Hierarchy implements IHierarchy {
 	 * @return
 	 * @throws IOException
 	 */
-	public DimensionRow readRowByOffset(int offset) throws IOException {
+	public synchronized DimensionRow readRowByOffset(int offset) throws IOException {
 		documentObj.seek(offset);
 
 		return readDimensionRow();
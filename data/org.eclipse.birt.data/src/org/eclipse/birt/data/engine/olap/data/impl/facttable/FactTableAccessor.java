@@ -14,6 +14,7 @@
 
 package org.eclipse.birt.data.engine.olap.data.impl.facttable;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -21,6 +22,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -65,6 +67,7 @@ public class FactTableAccessor {
 	private IDocumentManager documentManager = null;
 	private static Logger logger = Logger.getLogger(FactTableAccessor.class.getName());
 	private long memoryCacheSize = 0;
+	private boolean buildBitmapIndex = false;
 
 	public FactTableAccessor(IDocumentManager documentManager) {
 		logger.entering(FactTableAccessor.class.getName(), "FactTableAccessor", documentManager);
@@ -160,9 +163,13 @@ public class FactTableAccessor {
 					+ "invalid rows where the value of dimension key does not exist in dimension.");
 		}
 		documentObjectManager.closeAll();
+		FactTable factTable = new FactTable(factTableName, documentManager, dimensionInfo, measureInfo, calMeasureInfo,
+				segmentCount, subDimensions);
+		if (buildBitmapIndex) {
+			FactTableBitmapIndex.build(factTable, stopSign);
+		}
 		documentManager.flush();
-		return new FactTable(factTableName, documentManager, dimensionInfo, measureInfo, calMeasureInfo, segmentCount,
-				subDimensions);
+		return factTable;
 
 	}
 
@@ -250,7 +257,257 @@ public class FactTableAccessor {
 				measureColumnName, null, null, stopSign);
 	}
 
-	private int[][][] getColumnIndex(String[][] keyColumnNames, Dimension[] dimensions) throws DataException {
+	/**
+	 * Appends new rows to a saved fact table without rebuilding it. The new fact
+	 * table keeps the segment count and the dimension division of the saved one,
+	 * so the segments which get no new row are copied together with their bitmap
+	 * index without being decoded. Without measure aggregations, the new rows of
+	 * a segment are appended after its saved rows. With measure aggregations,
+	 * the new rows of a segment are held in memory and merged by the aggregation
+	 * functions into the saved rows at the same dimension positions, so the
+	 * functions must give the same result when they are applied to already
+	 * aggregated values again, such as SUM, MAX and MIN.
+	 *
+	 * The dimensions must have the same members at the same positions as the
+	 * ones the saved fact table was created with.
+	 *
+	 * @param savedFactTable
+	 * @param factTableJointColumnNames
+	 * @param DimJointColumnNames
+	 * @param iterator                  the new rows
+	 * @param dimensions
+	 * @param measureColumnAggregations
+	 * @param stopSign
+	 * @return
+	 * @throws BirtException
+	 * @throws IOException
+	 */
+	public FactTable appendFactTable(FactTable savedFactTable, String[][] factTableJointColumnNames,
+			String[][] DimJointColumnNames, IDatasetIterator iterator, Dimension[] dimensions,
+			String[] measureColumnAggregations, StopSign stopSign) throws BirtException, IOException {
+		String factTableName = savedFactTable.getName();
+		IDocumentManager savedManager = savedFactTable.getDocumentManager();
+		MeasureInfo[] measureInfo = savedFactTable.getMeasureInfo();
+		String[] measureColumnName = savedFactTable.getMeasureNames();
+		boolean aggregate = measureColumnAggregations != null && measureColumnAggregations.length > 0;
+		FacttableRowContainer sortedFactTableRows = null;
+		if (aggregate) {
+			sortedFactTableRows = populatedSortedFacttableRowsWithAggregationCalculation(factTableJointColumnNames,
+					iterator, measureColumnName, measureColumnAggregations, stopSign);
+		} else {
+			sortedFactTableRows = populateSortedFacttableRowsWithoutAggregationCalculation(factTableJointColumnNames,
+					iterator, measureColumnName, stopSign);
+		}
+
+		DimensionDivision[] subDimensions = savedFactTable.getDimensionDivision();
+		CombinedPositionContructor combinedPositionCalculator = savedFactTable.getCombinedPositionCalculator();
+		int[][][] columnIndex = getColumnIndex(DimJointColumnNames, dimensions);
+		DimensionPositionSeeker[] dimensionSeekers = new DimensionPositionSeeker[dimensions.length];
+		for (int i = 0; i < dimensionSeekers.length; i++) {
+			assert dimensions[i].length() == savedFactTable.getDimensionInfo()[i].dimensionLength;
+			dimensionSeekers[i] = new DimensionPositionSeeker(
+					getDimCombinatedKey(columnIndex[i], dimensions[i].getAllRows(stopSign)));
+		}
+
+		FTSUNameSaveHelper saveHelper = new FTSUNameSaveHelper(documentManager, factTableName);
+		List<String> savedFTSUNames = getFTSUNames(savedManager, factTableName);
+		for (int i = 0; i < savedFTSUNames.size(); i++) {
+			saveHelper.add(savedFTSUNames.get(i));
+		}
+		Map<String, int[]> changedSegments = new HashMap<>();
+		Map<String, Map<Bytes, Object[]>> aggregatedRows = new HashMap<>();
+		DocumentObjectCache documentObjectManager = new DocumentObjectCache(documentManager,
+				(long) (memoryCacheSize * 0.25));
+		int[] dimensionPosition = new int[dimensions.length];
+		int invalidRowNumber = 0;
+		FactTableRow currentRow = sortedFactTableRows.pop();
+		while (currentRow != null && !stopSign.isStopped()) {
+			boolean invalidDimensionKey = false;
+			for (int i = 0; i < dimensionPosition.length; i++) {
+				dimensionPosition[i] = dimensionSeekers[i].find(currentRow.getDimensionKeys()[i]);
+				if (dimensionPosition[i] < 0) {
+					invalidDimensionKey = true;
+				}
+			}
+			if (invalidDimensionKey) {
+				currentRow = sortedFactTableRows.pop();
+				invalidRowNumber++;
+				continue;
+			}
+			int[] subDimensionIndex = getSubDimensionIndex(dimensionPosition, subDimensions);
+			String FTSUDocName = FTSUDocumentObjectNamingUtil
+					.getDocumentObjectName(NamingUtil.getFactTableName(factTableName), subDimensionIndex);
+			Bytes combinedPosition = new Bytes(combinedPositionCalculator
+					.calculateCombinedPosition(subDimensionIndex, dimensionPosition).toByteArray());
+			if (!changedSegments.containsKey(FTSUDocName)) {
+				changedSegments.put(FTSUDocName, subDimensionIndex);
+				saveHelper.add(FTSUDocName);
+				if (aggregate) {
+					aggregatedRows.put(FTSUDocName, new LinkedHashMap<Bytes, Object[]>());
+				} else {
+					// the saved rows come first, the new rows are appended to them
+					DocumentObjectUtil.copyDocumentObject(savedManager, documentManager, FTSUDocName, stopSign);
+				}
+			}
+			if (aggregate) {
+				aggregatedRows.get(FTSUDocName).put(combinedPosition, currentRow.getMeasures());
+			} else {
+				IDocumentObject documentObject = documentObjectManager.getIDocumentObject(FTSUDocName);
+				documentObject.writeBytes(combinedPosition);
+				for (int i = 0; i < measureInfo.length; i++) {
+					DocumentObjectUtil.writeValue(documentObject, measureInfo[i].getDataType(),
+							currentRow.getMeasures()[i]);
+				}
+			}
+			currentRow = sortedFactTableRows.pop();
+		}
+		documentObjectManager.closeAll();
+		if (invalidRowNumber > 0) {
+			logger.warning("The appended rows of the fact table of cube " + factTableName + " have "
+					+ invalidRowNumber + " invalid rows where the value of dimension key does not exist in dimension.");
+		}
+		if (aggregate) {
+			IAggrFunction[] functions = new IAggrFunction[measureColumnAggregations.length];
+			for (int i = 0; i < measureColumnAggregations.length; i++) {
+				functions[i] = AggregationManager.getInstance().getAggregation(measureColumnAggregations[i]);
+			}
+			Iterator<Entry<String, Map<Bytes, Object[]>>> it = aggregatedRows.entrySet().iterator();
+			while (it.hasNext() && !stopSign.isStopped()) {
+				Entry<String, Map<Bytes, Object[]>> entry = it.next();
+				mergeSegment(savedManager, entry.getKey(), entry.getValue(), measureInfo, functions);
+			}
+		}
+
+		// the segments without new rows are copied as they are
+		for (int i = 0; i < savedFTSUNames.size() && !stopSign.isStopped(); i++) {
+			String FTSUDocName = savedFTSUNames.get(i);
+			if (!changedSegments.containsKey(FTSUDocName)) {
+				DocumentObjectUtil.copyDocumentObject(savedManager, documentManager, FTSUDocName, stopSign);
+				DocumentObjectUtil.copyDocumentObject(savedManager, documentManager,
+						NamingUtil.getFactTableBitmapIndexName(FTSUDocName), stopSign);
+			}
+		}
+		saveHelper.save();
+		DocumentObjectUtil.copyDocumentObject(savedManager, documentManager,
+				NamingUtil.getFactTableName(factTableName), stopSign);
+
+		FactTable factTable = new FactTable(factTableName, documentManager, savedFactTable.getDimensionInfo(),
+				measureInfo, savedFactTable.getCalcualtedMeasureInfo(), savedFactTable.getSegmentCount(),
+				subDimensions);
+		// indexes the segments with new rows, and all of them if the saved ones
+		// are not indexed
+		if (buildBitmapIndex) {
+			FactTableBitmapIndex.build(factTable, stopSign);
+		}
+		documentManager.flush();
+		return factTable;
+	}
+
+	/**
+	 * Writes a segment with the saved rows merged with the new rows at the same
+	 * dimension positions, followed by the new rows at other positions.
+	 *
+	 * @param savedManager
+	 * @param FTSUDocName
+	 * @param newRows      the measures of the new rows by combined position
+	 * @param measureInfo
+	 * @param functions
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private void mergeSegment(IDocumentManager savedManager, String FTSUDocName, Map<Bytes, Object[]> newRows,
+			MeasureInfo[] measureInfo, IAggrFunction[] functions) throws IOException, DataException {
+		IDocumentObject documentObject = documentManager.createDocumentObject(FTSUDocName);
+		if (savedManager.exist(FTSUDocName)) {
+			IDocumentObject savedSegment = savedManager.openDocumentObject(FTSUDocName);
+			try {
+				while (true) {
+					Bytes combinedPosition = savedSegment.readBytes();
+					Object[] measures = new Object[measureInfo.length];
+					for (int i = 0; i < measureInfo.length; i++) {
+						measures[i] = DocumentObjectUtil.readValue(savedSegment, measureInfo[i].getDataType());
+					}
+					Object[] newMeasures = newRows.remove(combinedPosition);
+					if (newMeasures != null) {
+						measures = aggregate(functions, measures, newMeasures);
+					}
+					writeRow(documentObject, combinedPosition, measureInfo, measures);
+				}
+			} catch (EOFException e) {
+				// end of the segment
+			} finally {
+				savedSegment.close();
+			}
+		}
+		Iterator<Entry<Bytes, Object[]>> it = newRows.entrySet().iterator();
+		while (it.hasNext()) {
+			Entry<Bytes, Object[]> entry = it.next();
+			writeRow(documentObject, entry.getKey(), measureInfo, entry.getValue());
+		}
+		documentObject.close();
+	}
+
+	/**
+	 *
+	 * @param functions
+	 * @param savedMeasures
+	 * @param newMeasures
+	 * @return
+	 * @throws DataException
+	 */
+	private static Object[] aggregate(IAggrFunction[] functions, Object[] savedMeasures, Object[] newMeasures)
+			throws DataException {
+		FTAggregationHelper aggrHelper = new FTAggregationHelper(functions);
+		FactTableRow row = new FactTableRow();
+		row.setMeasures(savedMeasures);
+		aggrHelper.onRow(false, row);
+		row.setMeasures(newMeasures);
+		aggrHelper.onRow(true, row);
+		return aggrHelper.getCurrentValues();
+	}
+
+	/**
+	 *
+	 * @param documentObject
+	 * @param combinedPosition
+	 * @param measureInfo
+	 * @param measures
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private static void writeRow(IDocumentObject documentObject, Bytes combinedPosition, MeasureInfo[] measureInfo,
+			Object[] measures) throws IOException, DataException {
+		documentObject.writeBytes(combinedPosition);
+		for (int i = 0; i < measureInfo.length; i++) {
+			DocumentObjectUtil.writeValue(documentObject, measureInfo[i].getDataType(), measures[i]);
+		}
+	}
+
+	/**
+	 * Returns the names of the segments of a saved fact table.
+	 *
+	 * @param manager
+	 * @param factTableName
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<String> getFTSUNames(IDocumentManager manager, String factTableName) throws IOException {
+		List<String> names = new ArrayList<>();
+		IDocumentObject documentObject = manager.openDocumentObject(NamingUtil.getFTSUListName(factTableName));
+		try {
+			String FTSUName = documentObject.readString();
+			while (FTSUName != null) {
+				names.add(FTSUName);
+				FTSUName = documentObject.readString();
+			}
+		} catch (EOFException e) {
+
+		}
+		documentObject.close();
+		return names;
+	}
+
+	static int[][][] getColumnIndex(String[][] keyColumnNames, Dimension[] dimensions) throws DataException {
 		int[][][] columnIndex = new int[keyColumnNames.length][][];
 		for (int i = 0; i < keyColumnNames.length; i++) {
 			columnIndex[i] = new int[keyColumnNames[i].length][];
@@ -292,7 +549,7 @@ public class FactTableAccessor {
 	 * @param str
 	 * @return
 	 */
-	private int find(String[] strArray, String str) {
+	private static int find(String[] strArray, String str) {
 		if (strArray == null) {
 			return -1;
 		}
@@ -438,6 +695,16 @@ public class FactTableAccessor {
 		this.memoryCacheSize = memoryCacheSize;
 	}
 
+	/**
+	 * Sets whether a bitmap index is built for the saved fact tables, see
+	 * FactTableBitmapIndex.
+	 *
+	 * @param buildBitmapIndex
+	 */
+	public void setBuildBitmapIndex(boolean buildBitmapIndex) {
+		this.buildBitmapIndex = buildBitmapIndex;
+	}
+
 	private static int getObjectSize(int[] dataType) {
 		int size = 0;
 		for (int i = 0; i < dataType.length; i++) {
@@ -629,9 +896,9 @@ public class FactTableAccessor {
 		 */
 		final static char[] digits = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9' };
 
-		private static char[] buffer = new char[500];
-
 		public static String getDocumentObjectName(String factTableName, int[] subDimensionNumber) {
+			// a local buffer, since the fact table may be scanned by several threads
+			char[] buffer = new char[500];
 			int radix = 10;
 
 			int position = 0;
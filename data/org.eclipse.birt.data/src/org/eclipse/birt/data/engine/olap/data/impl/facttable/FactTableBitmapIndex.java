@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.olap.data.impl.facttable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.impl.StopSign;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+import org.eclipse.birt.data.engine.olap.data.api.MeasureInfo;
+import org.eclipse.birt.data.engine.olap.data.document.DocumentObjectUtil;
+import org.eclipse.birt.data.engine.olap.data.document.IDocumentManager;
+import org.eclipse.birt.data.engine.olap.data.document.IDocumentObject;
+import org.eclipse.birt.data.engine.olap.data.impl.NamingUtil;
+import org.eclipse.birt.data.engine.olap.data.impl.Traversalor;
+import org.eclipse.birt.data.engine.olap.data.impl.facttable.FactTableAccessor.FTSUDocumentObjectNamingUtil;
+import org.eclipse.birt.data.engine.olap.data.util.Bytes;
+
+/**
+ * The bitmap index of a fact table. For every segment of the fact table and
+ * every dimension, the index keeps one compressed bitmap per dimension position
+ * with the ordinals of the segment rows at that position. A dimension selection
+ * is then turned into the candidate rows of a segment by bitmap unions and
+ * intersections, before any row of the segment is read.
+ *
+ * The index of a segment is kept in its own document object next to the
+ * segment, in the format: row count, dimension count, then for every dimension
+ * the number of its positions in the segment, and for every position the
+ * position, the byte length of its bitmap and the bitmap.
+ */
+
+public class FactTableBitmapIndex {
+
+	private FactTableBitmapIndex() {
+	}
+
+	/**
+	 * Builds the bitmap index of all the segments of the fact table. The segments
+	 * are indexed one by one, so only the bitmaps of one segment are held in
+	 * memory. The segments which already have an index, such as the ones copied
+	 * from a saved fact table, are skipped.
+	 *
+	 * @param factTable
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public static void build(FactTable factTable, StopSign stopSign) throws IOException, DataException {
+		DimensionDivision[] dimensionDivisions = factTable.getDimensionDivision();
+		int[] subDimensionCount = new int[dimensionDivisions.length];
+		for (int i = 0; i < dimensionDivisions.length; i++) {
+			subDimensionCount[i] = dimensionDivisions[i].getRanges().length;
+		}
+		Traversalor traversalor = new Traversalor(subDimensionCount);
+		while (!stopSign.isStopped() && traversalor.next()) {
+			int[] subDimensionIndex = traversalor.getIntArray();
+			String FTSUDocName = FTSUDocumentObjectNamingUtil
+					.getDocumentObjectName(NamingUtil.getFactTableName(factTable.getName()), subDimensionIndex);
+			if (factTable.getDocumentManager().exist(FTSUDocName) && !factTable.getDocumentManager()
+					.exist(NamingUtil.getFactTableBitmapIndexName(FTSUDocName))) {
+				buildSegmentIndex(factTable, FTSUDocName, subDimensionIndex, stopSign);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param factTable
+	 * @param FTSUDocName
+	 * @param subDimensionIndex
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private static void buildSegmentIndex(FactTable factTable, String FTSUDocName, int[] subDimensionIndex,
+			StopSign stopSign) throws IOException, DataException {
+		int dimensionCount = factTable.getDimensionInfo().length;
+		MeasureInfo[] measureInfo = factTable.getMeasureInfo();
+		List<TreeMap<Integer, CompressedBitmap>> bitmaps = new ArrayList<>();
+		for (int i = 0; i < dimensionCount; i++) {
+			bitmaps.add(new TreeMap<Integer, CompressedBitmap>());
+		}
+
+		IDocumentObject segment = factTable.getDocumentManager().openDocumentObject(FTSUDocName);
+		int rowCount = 0;
+		Bytes lastCombinedPosition = null;
+		CompressedBitmap[] lastBitmaps = new CompressedBitmap[dimensionCount];
+		try {
+			while (!stopSign.isStopped()) {
+				Bytes combinedPosition = segment.readBytes();
+				if (lastCombinedPosition == null || !lastCombinedPosition.equals(combinedPosition)) {
+					int[] position = factTable.getCombinedPositionCalculator()
+							.calculateDimensionPosition(subDimensionIndex, combinedPosition.bytesValue());
+					for (int i = 0; i < dimensionCount; i++) {
+						CompressedBitmap bitmap = bitmaps.get(i).get(position[i]);
+						if (bitmap == null) {
+							bitmap = new CompressedBitmap();
+							bitmaps.get(i).put(position[i], bitmap);
+						}
+						lastBitmaps[i] = bitmap;
+					}
+					lastCombinedPosition = combinedPosition;
+				}
+				for (int i = 0; i < dimensionCount; i++) {
+					lastBitmaps[i].add(rowCount);
+				}
+				for (int i = 0; i < measureInfo.length; i++) {
+					DocumentObjectUtil.readValue(segment, measureInfo[i].getDataType());
+				}
+				rowCount++;
+			}
+		} catch (EOFException e) {
+			// end of the segment
+		} finally {
+			segment.close();
+		}
+		if (stopSign.isStopped()) {
+			return;
+		}
+
+		IDocumentObject index = factTable.getDocumentManager()
+				.createDocumentObject(NamingUtil.getFactTableBitmapIndexName(FTSUDocName));
+		index.writeInt(rowCount);
+		index.writeInt(dimensionCount);
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		for (int i = 0; i < dimensionCount; i++) {
+			index.writeInt(bitmaps.get(i).size());
+			Iterator<Entry<Integer, CompressedBitmap>> it = bitmaps.get(i).entrySet().iterator();
+			while (it.hasNext()) {
+				Entry<Integer, CompressedBitmap> entry = it.next();
+				buffer.reset();
+				entry.getValue().writeTo(new DataOutputStream(buffer));
+				index.writeInt(entry.getKey().intValue());
+				index.writeInt(buffer.size());
+				index.write(buffer.toByteArray(), 0, buffer.size());
+			}
+		}
+		index.close();
+	}
+
+	/**
+	 * Returns the rows of a segment whose dimension positions are selected. A row
+	 * is returned if, for every filtered dimension, its position is one of the
+	 * selected positions.
+	 *
+	 * @param documentManager
+	 * @param FTSUDocName
+	 * @param selectedPositions the sorted selected positions of every dimension in
+	 *                          the segment, or null for the dimensions which are
+	 *                          not filtered
+	 * @return the ordinals of the selected rows in the segment, or null if the
+	 *         segment is not indexed
+	 * @throws IOException
+	 */
+	public static CompressedBitmap selectRows(IDocumentManager documentManager, String FTSUDocName,
+			int[][] selectedPositions) throws IOException {
+		String indexName = NamingUtil.getFactTableBitmapIndexName(FTSUDocName);
+		if (!documentManager.exist(indexName)) {
+			return null;
+		}
+		IDocumentObject index = documentManager.openDocumentObject(indexName);
+		try {
+			index.readInt();
+			int dimensionCount = index.readInt();
+			CompressedBitmap result = null;
+			for (int i = 0; i < dimensionCount; i++) {
+				int positionCount = index.readInt();
+				int[] selected = selectedPositions[i];
+				List<CompressedBitmap> rows = new ArrayList<>();
+				int pointer = 0;
+				for (int j = 0; j < positionCount; j++) {
+					int position = index.readInt();
+					int length = index.readInt();
+					if (selected != null) {
+						while (pointer < selected.length && selected[pointer] < position) {
+							pointer++;
+						}
+						if (pointer < selected.length && selected[pointer] == position) {
+							rows.add(readBitmap(index, length));
+							continue;
+						}
+					}
+					index.skipBytes(length);
+				}
+				if (selected == null) {
+					continue;
+				}
+				CompressedBitmap selectedRows = CompressedBitmap.or(rows);
+				result = result == null ? selectedRows : result.and(selectedRows);
+				if (result.isEmpty()) {
+					break;
+				}
+			}
+			return result;
+		} finally {
+			index.close();
+		}
+	}
+
+	/**
+	 *
+	 * @param index
+	 * @param length
+	 * @return
+	 * @throws IOException
+	 */
+	private static CompressedBitmap readBitmap(IDocumentObject index, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		int count = 0;
+		while (count < length) {
+			int n = index.read(bytes, count, length - count);
+			if (n < 0) {
+				throw new EOFException();
+			}
+			count += n;
+		}
+		return CompressedBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+}
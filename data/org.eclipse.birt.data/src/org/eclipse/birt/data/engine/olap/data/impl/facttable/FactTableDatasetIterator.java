@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.olap.data.impl.facttable;
+
+import java.io.IOException;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.StopSign;
+import org.eclipse.birt.data.engine.olap.data.api.ILevel;
+import org.eclipse.birt.data.engine.olap.data.api.MeasureInfo;
+import org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator;
+import org.eclipse.birt.data.engine.olap.data.api.cube.IDimension;
+import org.eclipse.birt.data.engine.olap.data.impl.Cube;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.Dimension;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionRow;
+import org.eclipse.birt.data.engine.olap.data.util.IDiskArray;
+
+/**
+ * Reads the rows of a materialized fact table back as a data set. For every
+ * dimension the fields are named after the fact table joint columns and carry
+ * the values of the corresponding dimension joint columns; the measures keep
+ * their names. Feeding the iterator to FactTableAccessor reproduces the fact
+ * table, which makes it possible to append new rows without reading the
+ * original data set again.
+ */
+
+public class FactTableDatasetIterator implements IDatasetIterator {
+	private Dimension[] dimensions;
+	private FactTableRowIterator rowIterator;
+	private int[][][] columnIndex;
+	private int[] dimensionIndex;
+	private int[] positions;
+	private DimensionRow[] currentRows;
+	private String[] fieldName;
+	private int[] dataType;
+	private int keyFieldCount;
+	private String factTableName;
+
+	/**
+	 *
+	 * @param cube
+	 * @param factTableJointColumnNames
+	 * @param DimJointColumnNames
+	 * @param stopSign
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public FactTableDatasetIterator(Cube cube, String[][] factTableJointColumnNames, String[][] DimJointColumnNames,
+			StopSign stopSign) throws IOException, DataException {
+		this.factTableName = cube.getFactTable().getName();
+		IDimension[] cubeDimensions = cube.getDimesions();
+		dimensions = new Dimension[cubeDimensions.length];
+		String[] dimensionNames = new String[cubeDimensions.length];
+		IDiskArray[] dimensionPos = new IDiskArray[cubeDimensions.length];
+		for (int i = 0; i < dimensions.length; i++) {
+			dimensions[i] = (Dimension) cubeDimensions[i];
+			dimensionNames[i] = dimensions[i].getName();
+			dimensionPos[i] = dimensions[i].findAll();
+		}
+		columnIndex = FactTableAccessor.getColumnIndex(DimJointColumnNames, dimensions);
+		rowIterator = new FactTableRowIterator(cube.getFactTable(), dimensionNames, dimensionPos, stopSign);
+		dimensionIndex = new int[dimensions.length];
+		for (int i = 0; i < dimensions.length; i++) {
+			dimensionIndex[i] = rowIterator.getDimensionIndex(dimensionNames[i]);
+		}
+		positions = new int[dimensions.length];
+		currentRows = new DimensionRow[dimensions.length];
+
+		MeasureInfo[] measureInfo = rowIterator.getMeasureInfos();
+		for (int i = 0; i < factTableJointColumnNames.length; i++) {
+			keyFieldCount += factTableJointColumnNames[i].length;
+		}
+		fieldName = new String[keyFieldCount + measureInfo.length];
+		dataType = new int[fieldName.length];
+		int index = 0;
+		for (int i = 0; i < factTableJointColumnNames.length; i++) {
+			ILevel[] levels = dimensions[i].getHierarchy().getLevels();
+			for (int j = 0; j < factTableJointColumnNames[i].length; j++) {
+				fieldName[index] = factTableJointColumnNames[i][j];
+				ILevel level = levels[columnIndex[i][j][1]];
+				dataType[index] = columnIndex[i][j][0] == 0 ? level.getKeyDataType(DimJointColumnNames[i][j])
+						: level.getAttributeDataType(DimJointColumnNames[i][j]);
+				index++;
+			}
+		}
+		for (int i = 0; i < measureInfo.length; i++) {
+			fieldName[index] = measureInfo[i].getMeasureName();
+			dataType[index] = measureInfo[i].getDataType();
+			index++;
+		}
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = -1;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getFieldIndex
+	 * (java.lang.String)
+	 */
+	@Override
+	public int getFieldIndex(String name) throws BirtException {
+		for (int i = 0; i < fieldName.length; i++) {
+			if (fieldName[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getFieldType(
+	 * java.lang.String)
+	 */
+	@Override
+	public int getFieldType(String name) throws BirtException {
+		int index = getFieldIndex(name);
+		return index < 0 ? DataType.UNKNOWN_TYPE : dataType[index];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#next()
+	 */
+	@Override
+	public boolean next() throws BirtException {
+		try {
+			if (!rowIterator.next()) {
+				return false;
+			}
+			for (int i = 0; i < dimensions.length; i++) {
+				int position = rowIterator.getDimensionPosition(dimensionIndex[i]);
+				// the rows are sorted by dimension position, so the last row is
+				// usually still the current one
+				if (position != positions[i]) {
+					positions[i] = position;
+					currentRows[i] = dimensions[i].getRowByPosition(position);
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.OLAPFILE_DATA_ERROR, e, factTableName);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getValue(int)
+	 */
+	@Override
+	public Object getValue(int fieldIndex) throws BirtException {
+		if (fieldIndex >= keyFieldCount) {
+			return rowIterator.getMeasure(fieldIndex - keyFieldCount);
+		}
+		int index = fieldIndex;
+		for (int i = 0; i < columnIndex.length; i++) {
+			if (index < columnIndex[i].length) {
+				int[] column = columnIndex[i][index];
+				if (column[0] == 0) {
+					return currentRows[i].getMembers()[column[1]].getKeyValues()[column[2]];
+				}
+				return currentRows[i].getMembers()[column[1]].getAttributes()[column[2]];
+			}
+			index -= columnIndex[i].length;
+		}
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#close()
+	 */
+	@Override
+	public void close() throws BirtException {
+		try {
+			rowIterator.close();
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.OLAPFILE_DATA_ERROR, e, factTableName);
+		}
+	}
+}
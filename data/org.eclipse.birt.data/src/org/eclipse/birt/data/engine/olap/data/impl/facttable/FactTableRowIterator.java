@@ -25,6 +25,7 @@ import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.impl.StopSign;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
 import org.eclipse.birt.data.engine.olap.data.api.IComputedMeasureHelper;
 import org.eclipse.birt.data.engine.olap.data.api.IDimensionResultIterator;
 import org.eclipse.birt.data.engine.olap.data.api.MeasureInfo;
@@ -36,6 +37,7 @@ import org.eclipse.birt.data.engine.olap.data.impl.Traversalor;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.Dimension;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.DimensionResultIterator;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.Member;
+import org.eclipse.birt.data.engine.olap.data.impl.facttable.DimensionDivision.IntRange;
 import org.eclipse.birt.data.engine.olap.data.impl.facttable.FactTableAccessor.FTSUDocumentObjectNamingUtil;
 import org.eclipse.birt.data.engine.olap.data.util.Bytes;
 import org.eclipse.birt.data.engine.olap.data.util.DataType;
@@ -90,6 +92,17 @@ public class FactTableRowIterator implements IFactTableRowIterator {
 	private boolean lastFilterResult;
 	private boolean isDuplicatedRow;
 
+	// segments are dealt out to partitions in round robin, see nextSegment()
+	private int partitionCount = 1;
+	private int partitionIndex = 0;
+	private int segmentOrdinal = -1;
+
+	// the candidate rows of the current segment given by the bitmap index, or
+	// null if all the rows of the segment are read
+	private CompressedBitmap selectedRowsOfCurSegment;
+	private int rowOrdinal;
+	private int nextSelectedRow;
+
 	/**
 	 *
 	 * @param factTable
@@ -114,9 +127,34 @@ public class FactTableRowIterator implements IFactTableRowIterator {
 	public FactTableRowIterator(FactTable factTable, String[] dimensionName, IDiskArray[] dimensionPos,
 			IDimension[] allCubeDimensions, IComputedMeasureHelper computedMeasureHelper, StopSign stopSign)
 			throws IOException {
+		this(factTable, dimensionName, dimensionPos, allCubeDimensions, computedMeasureHelper, 1, 0, stopSign);
+	}
+
+	/**
+	 * Creates an iterator which only reads one partition of the fact table. The
+	 * existing segments of the fact table are dealt out to
+	 * <code>partitionCount</code> partitions in turn, so that the iterators of all
+	 * the partitions together read every selected row exactly once.
+	 *
+	 * @param factTable
+	 * @param dimensionName
+	 * @param dimensionPos
+	 * @param allCubeDimensions
+	 * @param computedMeasureHelper
+	 * @param partitionCount
+	 * @param partitionIndex
+	 * @param stopSign
+	 * @throws IOException
+	 */
+	public FactTableRowIterator(FactTable factTable, String[] dimensionName, IDiskArray[] dimensionPos,
+			IDimension[] allCubeDimensions, IComputedMeasureHelper computedMeasureHelper, int partitionCount,
+			int partitionIndex, StopSign stopSign) throws IOException {
 		Object[] params = { factTable, dimensionName, dimensionPos, stopSign };
 		logger.entering(FactTableRowIterator.class.getName(), "FactTableRowIterator", params);
+		assert partitionCount > 0 && partitionIndex >= 0 && partitionIndex < partitionCount;
 		this.factTable = factTable;
+		this.partitionCount = partitionCount;
+		this.partitionIndex = partitionIndex;
 		this.selectedPos = dimensionPos;
 		this.selectedSubDim = new List[factTable.getDimensionInfo().length];
 		this.selectedPosOfCurSegment = new int[factTable.getDimensionInfo().length][];
@@ -220,6 +258,9 @@ public class FactTableRowIterator implements IFactTableRowIterator {
 				if (currentSegment == null) {
 					return false;
 				}
+				if (selectedRowsOfCurSegment != null && !skipToSelectedRow()) {
+					break;
+				}
 				Bytes combinedDimensionPosition = currentSegment.readBytes();
 				if (this.lastCombinedDimensionPosition == null) {
 					this.lastCombinedDimensionPosition = combinedDimensionPosition;
@@ -431,6 +472,58 @@ public class FactTableRowIterator implements IFactTableRowIterator {
 		return true;
 	}
 
+	/**
+	 * Skips the rows of the current segment which are not selected by the bitmap
+	 * index without decoding them.
+	 *
+	 * @return false if there is no selected row left in the segment
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	private boolean skipToSelectedRow() throws IOException, DataException {
+		if (nextSelectedRow < 0) {
+			return false;
+		}
+		while (rowOrdinal < nextSelectedRow) {
+			currentSegment.readBytes();
+			if (!skipMeasure()) {
+				return false;
+			}
+			this.lastCombinedDimensionPosition = null;
+			rowOrdinal++;
+		}
+		rowOrdinal++;
+		nextSelectedRow = selectedRowsOfCurSegment.nextValue(rowOrdinal);
+		return true;
+	}
+
+	/**
+	 * Returns the candidate rows of the segment from its bitmap index when a
+	 * dimension selection does not cover the whole segment.
+	 *
+	 * @param FTSUDocName
+	 * @return the candidate rows, or null if all the rows need to be read
+	 * @throws IOException
+	 */
+	private CompressedBitmap getSelectedRowsOfCurSegment(String FTSUDocName) throws IOException {
+		DimensionDivision[] dimensionDivisions = factTable.getDimensionDivision();
+		int[][] selectedPositions = new int[dimensionIndex.length][];
+		boolean isSelective = false;
+		for (int i = 0; i < dimensionIndex.length; i++) {
+			if (dimensionIndex[i] != -1) {
+				IntRange range = dimensionDivisions[i].getRanges()[subDimensionIndex[i]];
+				if (selectedPosOfCurSegment[i].length < range.getEnd() - range.getStart() + 1) {
+					selectedPositions[i] = selectedPosOfCurSegment[i];
+					isSelective = true;
+				}
+			}
+		}
+		if (!isSelective) {
+			return null;
+		}
+		return FactTableBitmapIndex.selectRows(factTable.getDocumentManager(), FTSUDocName, selectedPositions);
+	}
+
 	/**
 	 * Moves down one segment from its current segment of the iterator.
 	 *
@@ -449,13 +542,11 @@ public class FactTableRowIterator implements IFactTableRowIterator {
 			if (!factTable.getDocumentManager().exist(FTSUDocName)) {
 				continue;
 			}
-
-			if (currentSegment != null) {
-				currentSegment.close();
+			segmentOrdinal++;
+			if (segmentOrdinal % partitionCount != partitionIndex) {
+				continue;
 			}
 
-			currentSegment = factTable.getDocumentManager().openDocumentObject(FTSUDocName);
-
 			for (int i = 0; i < dimensionIndex.length; i++) {
 				if (dimensionIndex[i] != -1) {
 					SelectedSubDimension selectedSubDimension = ((SelectedSubDimension) selectedSubDim[i]
@@ -467,6 +558,22 @@ public class FactTableRowIterator implements IFactTableRowIterator {
 					}
 				}
 			}
+
+			selectedRowsOfCurSegment = getSelectedRowsOfCurSegment(FTSUDocName);
+			if (selectedRowsOfCurSegment != null) {
+				if (selectedRowsOfCurSegment.isEmpty()) {
+					continue;
+				}
+				rowOrdinal = 0;
+				nextSelectedRow = selectedRowsOfCurSegment.nextValue(0);
+				this.lastCombinedDimensionPosition = null;
+			}
+
+			if (currentSegment != null) {
+				currentSegment.close();
+			}
+
+			currentSegment = factTable.getDocumentManager().openDocumentObject(FTSUDocName);
 			break;
 		}
 		return true;
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.olap.data.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator;
+
+/**
+ * Reads several data sets one after another as if they were one. The fields are
+ * matched by name, and the field types are the ones of the first data set.
+ */
+
+public class ConcatenatedDatasetIterator implements IDatasetIterator {
+	private IDatasetIterator[] iterators;
+	private int current = 0;
+	private List<String> fieldNames = new ArrayList<>();
+	private int[][] fieldIndex;
+
+	/**
+	 *
+	 * @param iterators
+	 */
+	public ConcatenatedDatasetIterator(IDatasetIterator[] iterators) {
+		this.iterators = iterators;
+		this.fieldIndex = new int[iterators.length][];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getFieldIndex
+	 * (java.lang.String)
+	 */
+	@Override
+	public int getFieldIndex(String name) throws BirtException {
+		int index = fieldNames.indexOf(name);
+		if (index < 0) {
+			if (iterators[0].getFieldIndex(name) < 0) {
+				return -1;
+			}
+			fieldNames.add(name);
+			index = fieldNames.size() - 1;
+		}
+		return index;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getFieldType(
+	 * java.lang.String)
+	 */
+	@Override
+	public int getFieldType(String name) throws BirtException {
+		return iterators[0].getFieldType(name);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#next()
+	 */
+	@Override
+	public boolean next() throws BirtException {
+		while (current < iterators.length) {
+			if (iterators[current].next()) {
+				return true;
+			}
+			current++;
+		}
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#getValue(int)
+	 */
+	@Override
+	public Object getValue(int index) throws BirtException {
+		if (current >= iterators.length) {
+			return null;
+		}
+		int[] indexes = fieldIndex[current];
+		if (indexes == null || indexes.length < fieldNames.size()) {
+			indexes = new int[fieldNames.size()];
+			for (int i = 0; i < indexes.length; i++) {
+				indexes[i] = iterators[current].getFieldIndex(fieldNames.get(i));
+			}
+			fieldIndex[current] = indexes;
+		}
+		if (indexes[index] < 0) {
+			return null;
+		}
+		return iterators[current].getValue(indexes[index]);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator#close()
+	 */
+	@Override
+	public void close() throws BirtException {
+		for (int i = 0; i < iterators.length; i++) {
+			iterators[i].close();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.olap.data.util;
+
+import java.io.IOException;
+
+/**
+ * A thread safe view of a disk array. It is used when one disk array, such as
+ * the selected positions of a dimension, is shared by several workers. The
+ * delegate is closed only once.
+ */
+
+public class SynchronizedDiskArray implements IDiskArray {
+	private IDiskArray delegate;
+	private boolean closed = false;
+
+	/**
+	 *
+	 * @param delegate
+	 */
+	public SynchronizedDiskArray(IDiskArray delegate) {
+		this.delegate = delegate;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.eclipse.birt.data.engine.olap.data.util.IDiskArray#add(java.lang.Object)
+	 */
+	@Override
+	public synchronized boolean add(Object o) throws IOException {
+		return delegate.add(o);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.util.IDiskArray#get(int)
+	 */
+	@Override
+	public synchronized Object get(int index) throws IOException {
+		return delegate.get(index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.util.IDiskArray#size()
+	 */
+	@Override
+	public synchronized int size() {
+		return delegate.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.util.IDiskArray#close()
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			delegate.close();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.birt.data.engine.olap.data.util.IDiskArray#clear()
+	 */
+	@Override
+	public synchronized void clear() throws IOException {
+		delegate.clear();
+	}
+}
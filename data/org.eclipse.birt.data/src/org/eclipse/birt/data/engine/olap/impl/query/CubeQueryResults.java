@@ -326,6 +326,16 @@ public class CubeQueryResults implements ICubeQueryResults {
 				return manager;
 			}
 		}
+		if (executor.getContext().getMode() == DataEngineContext.DIRECT_PRESENTATION
+				|| executor.getContext().getMode() == DataEngineContext.MODE_GENERATION) {
+			// the cube may have been loaded from a cube store
+			manager = DocManagerMap.getDocManagerMap().find(
+					String.valueOf(executor.getSession().getEngine().hashCode()),
+					NamingUtil.getCubeDocName(executor.getCubeQueryDefinition().getName()));
+			if (manager != null) {
+				return manager;
+			}
+		}
 		return CubeRADocumentManagerFactory.createRADocumentManager(executor.getCubeQueryDefinition().getName(),
 				executor.getContext().getDocReader());
 	}
@@ -0,0 +1,497 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.storage;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.impl.DataEngineSession;
+
+/**
+ * Encodes the values of one column in one block of a columnar data set. When
+ * all the values of the chunk have the same class, integers, dates and booleans
+ * are kept as longs with delta or run length encoding, and numbers and strings
+ * with a dictionary if they repeat enough. Such a chunk starts with the minimum
+ * and the maximum of its values, so that a reader can tell whether a range
+ * condition may hold on any row without decoding the chunk. The values of any
+ * other class, or of mixed classes, are serialized one by one.
+ *
+ * The chunk format is: the type of the values, then for typed values whether
+ * there is any null and the null bitmap, the minimum, the maximum and the
+ * encoded values which are not null.
+ */
+
+final class ColumnChunk {
+	private static final byte NULL_TYPE = 0;
+	private static final byte INTEGER_TYPE = 1;
+	private static final byte LONG_TYPE = 2;
+	private static final byte BOOLEAN_TYPE = 3;
+	private static final byte DATE_TYPE = 4;
+	private static final byte SQL_DATE_TYPE = 5;
+	private static final byte SQL_TIME_TYPE = 6;
+	private static final byte DOUBLE_TYPE = 7;
+	private static final byte BIG_DECIMAL_TYPE = 8;
+	private static final byte STRING_TYPE = 9;
+	private static final byte OBJECT_TYPE = 10;
+
+	private static final byte PLAIN_ENCODING = 0;
+	private static final byte DICTIONARY_ENCODING = 1;
+	private static final byte DELTA_ENCODING = 2;
+	private static final byte RUN_LENGTH_ENCODING = 3;
+
+	private ColumnChunk() {
+	}
+
+	/**
+	 *
+	 * @param output
+	 * @param values
+	 * @param count  the number of values of the chunk
+	 * @throws IOException
+	 */
+	static void write(DataOutputStream output, Object[] values, int count) throws IOException {
+		byte type = getType(values, count);
+		output.writeByte(type);
+		if (type == NULL_TYPE) {
+			return;
+		}
+		if (type == OBJECT_TYPE) {
+			for (int i = 0; i < count; i++) {
+				IOUtil.writeObject(output, values[i]);
+			}
+			return;
+		}
+
+		Object[] nonNullValues = new Object[count];
+		int nonNullCount = 0;
+		byte[] nulls = new byte[(count + 7) / 8];
+		Object min = null;
+		Object max = null;
+		for (int i = 0; i < count; i++) {
+			if (values[i] == null) {
+				nulls[i >>> 3] |= 1 << (i & 7);
+				continue;
+			}
+			nonNullValues[nonNullCount++] = values[i];
+			if (min == null || compareTo(values[i], min) < 0) {
+				min = values[i];
+			}
+			if (max == null || compareTo(values[i], max) > 0) {
+				max = values[i];
+			}
+		}
+		output.writeBoolean(nonNullCount < count);
+		if (nonNullCount < count) {
+			output.write(nulls);
+		}
+		writeValue(output, type, min);
+		writeValue(output, type, max);
+
+		if (isIntegral(type)) {
+			long[] longs = new long[nonNullCount];
+			for (int i = 0; i < nonNullCount; i++) {
+				longs[i] = toLong(type, nonNullValues[i]);
+			}
+			writeLongs(output, longs, nonNullCount);
+		} else {
+			writeValues(output, type, nonNullValues, nonNullCount);
+		}
+	}
+
+	/**
+	 *
+	 * @param input
+	 * @param count the number of values of the chunk
+	 * @return the values
+	 * @throws IOException
+	 */
+	static Object[] read(DataInputStream input, int count) throws IOException {
+		Object[] values = new Object[count];
+		byte type = input.readByte();
+		if (type == NULL_TYPE) {
+			return values;
+		}
+		if (type == OBJECT_TYPE) {
+			for (int i = 0; i < count; i++) {
+				values[i] = IOUtil.readObject(input, DataEngineSession.getCurrentClassLoader());
+			}
+			return values;
+		}
+
+		byte[] nulls = null;
+		int nonNullCount = count;
+		if (input.readBoolean()) {
+			nulls = new byte[(count + 7) / 8];
+			input.readFully(nulls);
+			for (int i = 0; i < count; i++) {
+				if (isNull(nulls, i)) {
+					nonNullCount--;
+				}
+			}
+		}
+		// skip the statistics
+		readValue(input, type);
+		readValue(input, type);
+
+		Object[] nonNullValues;
+		if (isIntegral(type)) {
+			long[] longs = readLongs(input, nonNullCount);
+			nonNullValues = new Object[nonNullCount];
+			for (int i = 0; i < nonNullCount; i++) {
+				nonNullValues[i] = fromLong(type, longs[i]);
+			}
+		} else {
+			nonNullValues = readValues(input, type, nonNullCount);
+		}
+		int index = 0;
+		for (int i = 0; i < count; i++) {
+			if (nulls == null || !isNull(nulls, i)) {
+				values[i] = nonNullValues[index++];
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns whether any value of the chunk may be in the range, from the
+	 * minimum and the maximum of the chunk. Null values are never in a range.
+	 *
+	 * @param input
+	 * @param count the number of values of the chunk
+	 * @param low   the lowest value of the range, or null if there is none
+	 * @param high  the highest value of the range, or null if there is none
+	 * @return false if no value of the chunk is in the range
+	 * @throws IOException
+	 */
+	static boolean mayContain(DataInputStream input, int count, Object low, Object high) throws IOException {
+		byte type = input.readByte();
+		if (type == NULL_TYPE) {
+			return false;
+		}
+		if (type == OBJECT_TYPE) {
+			return true;
+		}
+		if (input.readBoolean()) {
+			input.skipBytes((count + 7) / 8);
+		}
+		Object min = readValue(input, type);
+		Object max = readValue(input, type);
+		Integer result = low == null ? null : compare(max, low);
+		if (result != null && result.intValue() < 0) {
+			return false;
+		}
+		result = high == null ? null : compare(min, high);
+		return result == null || result.intValue() <= 0;
+	}
+
+	/**
+	 * Compares two values in their natural order.
+	 *
+	 * @param value1
+	 * @param value2
+	 * @return the result, or null if the values can not be compared
+	 */
+	static Integer compare(Object value1, Object value2) {
+		if (value1.getClass() == value2.getClass() && value1 instanceof Comparable) {
+			return Integer.valueOf(compareTo(value1, value2));
+		}
+		if (value1 instanceof Date && value2 instanceof Date) {
+			return Integer.valueOf(Long.compare(((Date) value1).getTime(), ((Date) value2).getTime()));
+		}
+		if (value1 instanceof Number && value2 instanceof Number) {
+			try {
+				return Integer.valueOf(new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString())));
+			} catch (NumberFormatException e) {
+				// NaN or infinite
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static int compareTo(Object value1, Object value2) {
+		return ((Comparable) value1).compareTo(value2);
+	}
+
+	/**
+	 *
+	 * @param values
+	 * @param count
+	 * @return the type of all the values which are not null
+	 */
+	private static byte getType(Object[] values, int count) {
+		Class<?> valueClass = null;
+		for (int i = 0; i < count; i++) {
+			if (values[i] == null) {
+				continue;
+			}
+			if (valueClass == null) {
+				valueClass = values[i].getClass();
+			} else if (valueClass != values[i].getClass()) {
+				return OBJECT_TYPE;
+			}
+		}
+		if (valueClass == null) {
+			return NULL_TYPE;
+		}
+		if (valueClass == Integer.class) {
+			return INTEGER_TYPE;
+		}
+		if (valueClass == Long.class) {
+			return LONG_TYPE;
+		}
+		if (valueClass == Boolean.class) {
+			return BOOLEAN_TYPE;
+		}
+		if (valueClass == Date.class) {
+			return DATE_TYPE;
+		}
+		if (valueClass == java.sql.Date.class) {
+			return SQL_DATE_TYPE;
+		}
+		if (valueClass == java.sql.Time.class) {
+			return SQL_TIME_TYPE;
+		}
+		if (valueClass == Double.class) {
+			return DOUBLE_TYPE;
+		}
+		if (valueClass == BigDecimal.class) {
+			return BIG_DECIMAL_TYPE;
+		}
+		if (valueClass == String.class) {
+			return STRING_TYPE;
+		}
+		return OBJECT_TYPE;
+	}
+
+	private static boolean isIntegral(byte type) {
+		return type == INTEGER_TYPE || type == LONG_TYPE || type == BOOLEAN_TYPE || type == DATE_TYPE
+				|| type == SQL_DATE_TYPE || type == SQL_TIME_TYPE;
+	}
+
+	private static boolean isNull(byte[] nulls, int index) {
+		return (nulls[index >>> 3] & (1 << (index & 7))) != 0;
+	}
+
+	private static long toLong(byte type, Object value) {
+		switch (type) {
+		case BOOLEAN_TYPE:
+			return ((Boolean) value).booleanValue() ? 1 : 0;
+		case DATE_TYPE:
+		case SQL_DATE_TYPE:
+		case SQL_TIME_TYPE:
+			return ((Date) value).getTime();
+		default:
+			return ((Number) value).longValue();
+		}
+	}
+
+	private static Object fromLong(byte type, long value) {
+		switch (type) {
+		case INTEGER_TYPE:
+			return Integer.valueOf((int) value);
+		case LONG_TYPE:
+			return Long.valueOf(value);
+		case BOOLEAN_TYPE:
+			return Boolean.valueOf(value != 0);
+		case DATE_TYPE:
+			return new Date(value);
+		case SQL_DATE_TYPE:
+			return new java.sql.Date(value);
+		default:
+			return new java.sql.Time(value);
+		}
+	}
+
+	private static void writeValue(DataOutputStream output, byte type, Object value) throws IOException {
+		switch (type) {
+		case INTEGER_TYPE:
+			output.writeInt(((Integer) value).intValue());
+			break;
+		case DOUBLE_TYPE:
+			output.writeDouble(((Double) value).doubleValue());
+			break;
+		case BIG_DECIMAL_TYPE:
+		case STRING_TYPE:
+			IOUtil.writeString(output, value.toString());
+			break;
+		default:
+			output.writeLong(toLong(type, value));
+		}
+	}
+
+	private static Object readValue(DataInputStream input, byte type) throws IOException {
+		switch (type) {
+		case INTEGER_TYPE:
+			return Integer.valueOf(input.readInt());
+		case DOUBLE_TYPE:
+			return Double.valueOf(input.readDouble());
+		case BIG_DECIMAL_TYPE:
+			return new BigDecimal(IOUtil.readString(input));
+		case STRING_TYPE:
+			return IOUtil.readString(input);
+		default:
+			return fromLong(type, input.readLong());
+		}
+	}
+
+	/**
+	 * Writes the doubles, big decimals or strings with a dictionary if there are
+	 * at most half as many distinct values as values, one by one otherwise.
+	 */
+	private static void writeValues(DataOutputStream output, byte type, Object[] values, int count)
+			throws IOException {
+		Map<Object, Integer> ids = new HashMap<>();
+		List<Object> dictionary = new ArrayList<>();
+		long[] indexes = new long[count];
+		for (int i = 0; i < count; i++) {
+			Integer id = ids.get(values[i]);
+			if (id == null) {
+				if (dictionary.size() >= count / 2) {
+					dictionary = null;
+					break;
+				}
+				id = Integer.valueOf(dictionary.size());
+				ids.put(values[i], id);
+				dictionary.add(values[i]);
+			}
+			indexes[i] = id.intValue();
+		}
+		if (dictionary == null) {
+			output.writeByte(PLAIN_ENCODING);
+			for (int i = 0; i < count; i++) {
+				writeValue(output, type, values[i]);
+			}
+			return;
+		}
+		output.writeByte(DICTIONARY_ENCODING);
+		writeVarLong(output, dictionary.size());
+		for (int i = 0; i < dictionary.size(); i++) {
+			writeValue(output, type, dictionary.get(i));
+		}
+		writeLongs(output, indexes, count);
+	}
+
+	private static Object[] readValues(DataInputStream input, byte type, int count) throws IOException {
+		Object[] values = new Object[count];
+		if (input.readByte() == PLAIN_ENCODING) {
+			for (int i = 0; i < count; i++) {
+				values[i] = readValue(input, type);
+			}
+			return values;
+		}
+		Object[] dictionary = new Object[(int) readVarLong(input)];
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = readValue(input, type);
+		}
+		long[] indexes = readLongs(input, count);
+		for (int i = 0; i < count; i++) {
+			values[i] = dictionary[(int) indexes[i]];
+		}
+		return values;
+	}
+
+	/**
+	 * Writes the longs as runs of equal values if there are at most a quarter as
+	 * many runs as values, as the differences between consecutive values
+	 * otherwise. Both are written as zigzag variable length longs, so that small
+	 * differences take one byte.
+	 */
+	private static void writeLongs(DataOutputStream output, long[] values, int count) throws IOException {
+		int runCount = count == 0 ? 0 : 1;
+		for (int i = 1; i < count; i++) {
+			if (values[i] != values[i - 1]) {
+				runCount++;
+			}
+		}
+		long previous = 0;
+		if (runCount * 4 <= count) {
+			output.writeByte(RUN_LENGTH_ENCODING);
+			writeVarLong(output, runCount);
+			int start = 0;
+			while (start < count) {
+				int end = start + 1;
+				while (end < count && values[end] == values[start]) {
+					end++;
+				}
+				writeVarLong(output, zigzag(values[start] - previous));
+				writeVarLong(output, end - start);
+				previous = values[start];
+				start = end;
+			}
+			return;
+		}
+		output.writeByte(DELTA_ENCODING);
+		for (int i = 0; i < count; i++) {
+			writeVarLong(output, zigzag(values[i] - previous));
+			previous = values[i];
+		}
+	}
+
+	private static long[] readLongs(DataInputStream input, int count) throws IOException {
+		long[] values = new long[count];
+		long previous = 0;
+		if (input.readByte() == RUN_LENGTH_ENCODING) {
+			int runCount = (int) readVarLong(input);
+			int index = 0;
+			for (int i = 0; i < runCount; i++) {
+				previous += unzigzag(readVarLong(input));
+				int length = (int) readVarLong(input);
+				for (int j = 0; j < length; j++) {
+					values[index++] = previous;
+				}
+			}
+			return values;
+		}
+		for (int i = 0; i < count; i++) {
+			previous += unzigzag(readVarLong(input));
+			values[i] = previous;
+		}
+		return values;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void writeVarLong(DataOutputStream output, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			output.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		output.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInputStream input) throws IOException {
+		long value = 0;
+		for (int shift = 0;; shift += 7) {
+			int b = input.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+}
@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.ResultObject;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.document.viewing.ExprMetaUtil;
+import org.eclipse.birt.data.engine.impl.document.viewing.IDataSetResultSet;
+import org.eclipse.birt.data.engine.impl.index.BitmapOrderedIntSet;
+import org.eclipse.birt.data.engine.impl.index.IOrderedIntSet;
+import org.eclipse.birt.data.engine.impl.index.IOrderedIntSetIterator;
+import org.eclipse.birt.data.engine.impl.util.CompressedBitmap;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+/**
+ * Reads a data set saved by ColumnarDataSetWriter. Opening the reader only
+ * reads the headers of the blocks. The rows are then read block by block, and
+ * only the chunks of the columns of the target result class are decoded, so a
+ * reader which needs a few columns, or the rows of a few blocks, skips the rest
+ * of the stream.
+ */
+
+class ColumnarDataSetReader implements IDataSetReader {
+	private static Logger logger = Logger.getLogger(ColumnarDataSetReader.class.getName());
+
+	private RAInputStream stream;
+	private IResultClass resultClass;
+	private boolean includeInnerID;
+
+	private List<Block> blocks;
+	private int rowCount;
+
+	/**
+	 *
+	 * @param stream
+	 * @param targetResultClass the columns to read
+	 * @param includeInnerID    whether the rows have the inner id column
+	 * @throws DataException
+	 */
+	ColumnarDataSetReader(RAInputStream stream, IResultClass targetResultClass, boolean includeInnerID)
+			throws DataException {
+		this.stream = stream;
+		this.includeInnerID = includeInnerID;
+		this.resultClass = populateResultClass(targetResultClass);
+		this.blocks = new ArrayList<>();
+		try {
+			stream.seek(0);
+			DataInputStream input = new DataInputStream(stream);
+			int version = IOUtil.readInt(input);
+			if (version != ColumnarDataSetWriter.FORMAT_VERSION) {
+				throw new DataException(ResourceConstants.RD_LOAD_ERROR, "Result Data");
+			}
+			long length = stream.length();
+			while (stream.getOffset() < length) {
+				Block block = new Block(stream, input, rowCount);
+				rowCount += block.rowCount;
+				blocks.add(block);
+				stream.seek(block.end);
+			}
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.RD_LOAD_ERROR, e, "Result Data");
+		}
+	}
+
+	private IResultClass populateResultClass(IResultClass meta) throws DataException {
+		List<ResultFieldMetadata> list = new ArrayList<>();
+		for (int i = 1; i <= meta.getFieldCount(); i++) {
+			if (!ExprMetaUtil.POS_NAME.equals(meta.getFieldName(i))) {
+				list.add(meta.getFieldMetaData(i));
+			}
+		}
+		if (includeInnerID) {
+			ResultFieldMetadata rfm = new ResultFieldMetadata(0, ExprMetaUtil.POS_NAME, null, Integer.class, null, true,
+					-1);
+			list.add(rfm);
+		}
+		return new ResultClass(list);
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.storage.IDataSetReader#load(org.eclipse.
+	 * birt.data.engine.impl.index.IOrderedIntSet)
+	 */
+	@Override
+	public IDataSetResultSet load(IOrderedIntSet targetRows) throws DataException {
+		return new ColumnarDataSetResultSet(targetRows);
+	}
+
+	/**
+	 *
+	 * @return the number of saved rows
+	 */
+	int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns the rows of the blocks where the column may have a value in the
+	 * range, from the minimum and maximum values of the blocks. The rows are a
+	 * superset of the rows whose value is in the range: the condition still has
+	 * to be evaluated on them.
+	 *
+	 * @param columnName
+	 * @param low        the lowest value of the range, or null if there is none
+	 * @param high       the highest value of the range, or null if there is none
+	 * @return
+	 * @throws DataException
+	 */
+	IOrderedIntSet getCandidateRows(String columnName, Object low, Object high) throws DataException {
+		return getCandidateRows(new String[] { columnName }, new Object[] { low }, new Object[] { high });
+	}
+
+	/**
+	 * Returns the rows of the blocks where every column may have a value in its
+	 * range.
+	 *
+	 * @param columnNames
+	 * @param lows        the lowest value of the range of each column, or null
+	 * @param highs       the highest value of the range of each column, or null
+	 * @return
+	 * @throws DataException
+	 */
+	IOrderedIntSet getCandidateRows(String[] columnNames, Object[] lows, Object[] highs) throws DataException {
+		CompressedBitmap rows = new CompressedBitmap();
+		try {
+			for (int i = 0; i < blocks.size(); i++) {
+				Block block = blocks.get(i);
+				if (mayContain(block, columnNames, lows, highs)) {
+					for (int row = 0; row < block.rowCount; row++) {
+						rows.add(block.firstRow + row);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.RD_LOAD_ERROR, e, "Result Data");
+		}
+		return new BitmapOrderedIntSet(rows);
+	}
+
+	/**
+	 *
+	 * @param block
+	 * @param columnNames
+	 * @param lows
+	 * @param highs
+	 * @return false if a column of the block has no value in its range
+	 * @throws IOException
+	 */
+	private boolean mayContain(Block block, String[] columnNames, Object[] lows, Object[] highs)
+			throws IOException {
+		for (int i = 0; i < columnNames.length; i++) {
+			int column = block.getColumn(columnNames[i]);
+			if (column < 0) {
+				continue;
+			}
+			stream.seek(block.chunkOffsets[column]);
+			if (!ColumnChunk.mayContain(new DataInputStream(stream), block.rowCount, lows[i], highs[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.storage.IDataSetReader#close()
+	 */
+	@Override
+	public void close() throws DataException {
+		try {
+			stream.close();
+		} catch (IOException e) {
+			logger.log(Level.FINE, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * The position of the chunks of a block in the stream.
+	 */
+	private static class Block {
+		private int firstRow;
+		private int rowCount;
+		private String[] columnNames;
+		private long[] chunkOffsets;
+		private int[] chunkLengths;
+		private long end;
+
+		Block(RAInputStream stream, DataInputStream input, int firstRow) throws IOException {
+			this.firstRow = firstRow;
+			this.rowCount = IOUtil.readInt(input);
+			int columnCount = IOUtil.readInt(input);
+			this.columnNames = new String[columnCount];
+			this.chunkLengths = new int[columnCount];
+			for (int i = 0; i < columnCount; i++) {
+				columnNames[i] = IOUtil.readString(input);
+				chunkLengths[i] = IOUtil.readInt(input);
+			}
+			this.chunkOffsets = new long[columnCount];
+			long offset = stream.getOffset();
+			for (int i = 0; i < columnCount; i++) {
+				chunkOffsets[i] = offset;
+				offset += chunkLengths[i];
+			}
+			this.end = offset;
+		}
+
+		int getColumn(String name) {
+			for (int i = 0; i < columnNames.length; i++) {
+				if (columnNames[i].equals(name)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	/**
+	 * The rows of the data set, or the target rows if there are some.
+	 */
+	private class ColumnarDataSetResultSet implements IDataSetResultSet {
+		private IOrderedIntSet targetRows;
+		private IOrderedIntSetIterator rowIdIterator;
+		private int rowIndex = -1;
+		private IResultObject currentObject;
+
+		// the names of the fields, and the decoded values of the fields in the
+		// current block
+		private String[] fieldNames;
+		private int innerIdIndex = -1;
+		private int blockIndex = -1;
+		private Object[][] values;
+
+		ColumnarDataSetResultSet(IOrderedIntSet targetRows) throws DataException {
+			this.targetRows = targetRows;
+			if (targetRows != null) {
+				this.rowIdIterator = targetRows.iterator();
+			}
+			this.fieldNames = new String[resultClass.getFieldCount()];
+			for (int i = 0; i < fieldNames.length; i++) {
+				fieldNames[i] = resultClass.getFieldName(i + 1);
+				if (includeInnerID && ExprMetaUtil.POS_NAME.equals(fieldNames[i])) {
+					innerIdIndex = i;
+				}
+			}
+			this.values = new Object[fieldNames.length][];
+		}
+
+		/*
+		 * @see org.eclipse.birt.data.engine.odi.IDataSetPopulator#next()
+		 */
+		@Override
+		public IResultObject next() throws DataException {
+			if (rowIdIterator != null) {
+				if (!rowIdIterator.hasNext()) {
+					currentObject = null;
+					return null;
+				}
+				skipTo(rowIdIterator.next());
+			} else if (rowIndex < rowCount - 1) {
+				skipTo(rowIndex + 1);
+			} else {
+				currentObject = null;
+			}
+			return currentObject;
+		}
+
+		@Override
+		public IResultObject getResultObject() {
+			return currentObject;
+		}
+
+		@Override
+		public int getRowCount() {
+			return targetRows != null ? targetRows.size() : rowCount;
+		}
+
+		@Override
+		public void skipTo(int index) throws DataException {
+			if (index == rowIndex && currentObject != null) {
+				return;
+			}
+			if (index < 0 || index >= rowCount) {
+				currentObject = null;
+				return;
+			}
+			int block = findBlock(index);
+			if (block != blockIndex) {
+				readBlock(block);
+			}
+			int row = index - blocks.get(block).firstRow;
+			Object[] fields = new Object[fieldNames.length];
+			for (int i = 0; i < fields.length; i++) {
+				if (i == innerIdIndex) {
+					fields[i] = Integer.valueOf(index);
+				} else if (values[i] != null) {
+					fields[i] = values[i][row];
+				}
+			}
+			rowIndex = index;
+			currentObject = new ResultObject(resultClass, fields);
+		}
+
+		private int findBlock(int index) {
+			int low = 0;
+			int high = blocks.size() - 1;
+			while (low < high) {
+				int middle = (low + high + 1) >>> 1;
+				if (blocks.get(middle).firstRow <= index) {
+					low = middle;
+				} else {
+					high = middle - 1;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Decodes the chunks of the columns to read in the block.
+		 */
+		private void readBlock(int index) throws DataException {
+			Block block = blocks.get(index);
+			try {
+				for (int i = 0; i < fieldNames.length; i++) {
+					values[i] = null;
+					int column = i == innerIdIndex ? -1 : block.getColumn(fieldNames[i]);
+					if (column < 0) {
+						continue;
+					}
+					byte[] bytes = new byte[block.chunkLengths[column]];
+					stream.seek(block.chunkOffsets[column]);
+					stream.readFully(bytes, 0, bytes.length);
+					values[i] = ColumnChunk.read(new DataInputStream(new ByteArrayInputStream(bytes)),
+							block.rowCount);
+				}
+			} catch (IOException e) {
+				throw new DataException(ResourceConstants.RD_LOAD_ERROR, e, "Result Data");
+			}
+			blockIndex = index;
+		}
+
+		@Override
+		public IResultClass getResultClass() {
+			return resultClass;
+		}
+
+		@Override
+		public void close() throws DataException {
+			ColumnarDataSetReader.this.close();
+		}
+	}
+}
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.birt.core.archive.RAOutputStream;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.api.IBinding;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.cache.ResultSetCache;
+import org.eclipse.birt.data.engine.executor.cache.ResultSetUtil;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
+import org.eclipse.birt.data.engine.impl.document.viewing.ExprMetaUtil;
+import org.eclipse.birt.data.engine.impl.index.IAuxiliaryIndexCreator;
+import org.eclipse.birt.data.engine.impl.index.IIndexSerializer;
+import org.eclipse.birt.data.engine.odi.IResultClass;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+/**
+ * Saves the rows of a data set in the columnar format of the report document.
+ * The rows are collected in blocks of BLOCK_SIZE rows, and every block is
+ * appended to the stream with one ColumnChunk per column. The stream starts
+ * with the format version, and every block with its row count, its column
+ * count and the name and byte length of every column chunk, so that more
+ * blocks can be appended when the document is updated.
+ */
+
+class ColumnarDataSetWriter implements IDataSetUpdater {
+	static final int FORMAT_VERSION = 1;
+	static final int BLOCK_SIZE = 4096;
+
+	private OutputStream stream;
+	private DataOutputStream output;
+
+	private String[] columnNames;
+	private Object[][] block;
+	private int blockRowCount;
+
+	// the field indexes of the columns in the result class of the last row
+	private IResultClass rowClass;
+	private int[] fieldIndexes;
+
+	private IIndexSerializer[] indexes;
+	private Map<String, IIndexSerializer> index;
+	private List<IAuxiliaryIndexCreator> auxiliaryIndexCreators;
+	private int firstRowId;
+
+	/**
+	 *
+	 * @param manager
+	 * @param resultClass
+	 * @param cacheRequestMap        the bindings which tell the columns to save, or
+	 *                               null to save all the columns
+	 * @param index                  the indexes of the columns, or null
+	 * @param auxiliaryIndexCreators
+	 * @param firstRowId             the id of the first row to save
+	 * @param append                 whether the rows are appended to the saved
+	 *                               ones
+	 * @throws DataException
+	 */
+	ColumnarDataSetWriter(StreamManager manager, IResultClass resultClass, List<IBinding> cacheRequestMap,
+			Map<String, IIndexSerializer> index, List<IAuxiliaryIndexCreator> auxiliaryIndexCreators, int firstRowId,
+			boolean append) throws DataException {
+		Set nameSet = cacheRequestMap == null ? null : ResultSetUtil.getRsColumnRequestMap(cacheRequestMap);
+		List<String> names = new ArrayList<>();
+		for (int i = 1; i <= resultClass.getFieldCount(); i++) {
+			String name = resultClass.getFieldName(i);
+			if (ExprMetaUtil.POS_NAME.equals(name)) {
+				continue;
+			}
+			if (nameSet == null || nameSet.contains(name) || nameSet.contains(resultClass.getFieldAlias(i))) {
+				names.add(name);
+			}
+		}
+		this.columnNames = names.toArray(new String[names.size()]);
+		this.block = new Object[columnNames.length][BLOCK_SIZE];
+		this.indexes = new IIndexSerializer[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			this.indexes[i] = index == null ? null : index.get(columnNames[i]);
+		}
+		this.index = index;
+		this.auxiliaryIndexCreators = auxiliaryIndexCreators;
+		this.firstRowId = firstRowId;
+
+		this.stream = manager.getOutStream(DataEngineContext.DATASET_COLUMNAR_STREAM, StreamManager.ROOT_STREAM,
+				StreamManager.SELF_SCOPE);
+		try {
+			long length = 0;
+			if (append && stream instanceof RAOutputStream) {
+				length = ((RAOutputStream) stream).length();
+				((RAOutputStream) stream).seek(length);
+			}
+			this.output = new DataOutputStream(stream);
+			if (length == 0) {
+				IOUtil.writeInt(output, FORMAT_VERSION);
+			}
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.RD_SAVE_ERROR, e);
+		}
+	}
+
+	/*
+	 * @see
+	 * org.eclipse.birt.data.engine.storage.IDataSetWriter#save(org.eclipse.birt.
+	 * data.engine.odi.IResultObject, int)
+	 */
+	@Override
+	public void save(IResultObject object, int rowId) throws DataException {
+		if (object.getResultClass() != rowClass) {
+			rowClass = object.getResultClass();
+			fieldIndexes = new int[columnNames.length];
+			for (int i = 0; i < columnNames.length; i++) {
+				fieldIndexes[i] = rowClass.getFieldIndex(columnNames[i]);
+			}
+		}
+		for (int i = 0; i < columnNames.length; i++) {
+			Object value = fieldIndexes[i] > 0 ? object.getFieldValue(fieldIndexes[i]) : null;
+			block[i][blockRowCount] = value;
+			if (indexes[i] != null) {
+				indexes[i].put(value, rowId);
+			}
+		}
+		if (auxiliaryIndexCreators != null) {
+			for (IAuxiliaryIndexCreator creator : auxiliaryIndexCreators) {
+				creator.save(object, rowId);
+			}
+		}
+		blockRowCount++;
+		if (blockRowCount == BLOCK_SIZE) {
+			writeBlock();
+		}
+	}
+
+	/*
+	 * @see
+	 * org.eclipse.birt.data.engine.storage.IDataSetWriter#save(org.eclipse.birt.
+	 * data.engine.executor.cache.ResultSetCache)
+	 */
+	@Override
+	public void save(ResultSetCache results) throws DataException {
+		int currentIndex = results.getCurrentIndex();
+		results.reset();
+		int rowCount = results.getCount();
+		for (int i = 0; i < rowCount; i++) {
+			IResultObject object = results.fetch();
+			if (object == null) {
+				break;
+			}
+			save(object, firstRowId + i);
+		}
+		results.reset();
+		results.moveTo(currentIndex);
+	}
+
+	/*
+	 * @see org.eclipse.birt.data.engine.storage.IDataSetWriter#close()
+	 */
+	@Override
+	public void close() throws DataException {
+		if (output == null) {
+			return;
+		}
+		if (blockRowCount > 0) {
+			writeBlock();
+		}
+		try {
+			output.close();
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.RD_SAVE_ERROR, e);
+		}
+		output = null;
+		if (index != null) {
+			for (IIndexSerializer serializer : index.values()) {
+				serializer.close();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @throws DataException
+	 */
+	private void writeBlock() throws DataException {
+		try {
+			byte[][] chunks = new byte[columnNames.length][];
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			for (int i = 0; i < columnNames.length; i++) {
+				buffer.reset();
+				DataOutputStream chunkOutput = new DataOutputStream(buffer);
+				ColumnChunk.write(chunkOutput, block[i], blockRowCount);
+				chunkOutput.flush();
+				chunks[i] = buffer.toByteArray();
+				Arrays.fill(block[i], 0, blockRowCount, null);
+			}
+			IOUtil.writeInt(output, blockRowCount);
+			IOUtil.writeInt(output, columnNames.length);
+			for (int i = 0; i < columnNames.length; i++) {
+				IOUtil.writeString(output, columnNames[i]);
+				IOUtil.writeInt(output, chunks[i].length);
+			}
+			for (int i = 0; i < columnNames.length; i++) {
+				output.write(chunks[i]);
+			}
+		} catch (IOException e) {
+			throw new DataException(ResourceConstants.RD_SAVE_ERROR, e);
+		}
+		blockRowCount = 0;
+	}
+}
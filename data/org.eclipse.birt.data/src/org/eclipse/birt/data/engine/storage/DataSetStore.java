@@ -17,26 +17,90 @@ package org.eclipse.birt.data.engine.storage;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.api.IBinding;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
 import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
 import org.eclipse.birt.data.engine.impl.index.IAuxiliaryIndexCreator;
+import org.eclipse.birt.data.engine.impl.index.IIndexSerializer;
+import org.eclipse.birt.data.engine.impl.index.IOrderedIntSet;
 import org.eclipse.birt.data.engine.odi.IResultClass;
 
 /**
- *
+ * Creates the readers and writers of the data set data in a report document
+ * which is not saved row by row. The data set data is saved column by column
+ * when DataEngine.DATA_SET_COLUMNAR_STORE is set, and read or updated the same
+ * way whenever the document has the columnar stream.
  */
 
 public class DataSetStore {
 
 	public static IDataSetReader createReader(StreamManager manager, IResultClass resultClass, boolean includeInnerId,
 			Map<?, ?> appContext) throws DataException {
-		return null;
+		if (resultClass == null || !manager.hasInStream(DataEngineContext.DATASET_COLUMNAR_STREAM,
+				StreamManager.ROOT_STREAM, StreamManager.BASE_SCOPE)) {
+			return null;
+		}
+		return new ColumnarDataSetReader(manager.getInStream(DataEngineContext.DATASET_COLUMNAR_STREAM,
+				StreamManager.ROOT_STREAM, StreamManager.BASE_SCOPE), resultClass, includeInnerId);
+	}
+
+	/**
+	 * Returns the rows of the blocks of the data set data where every column may
+	 * have a value in its range, from the minimum and maximum values saved with
+	 * the blocks. The conditions still have to be evaluated on the returned rows.
+	 *
+	 * @param manager
+	 * @param resultClass the result class of the saved data set
+	 * @param columnNames
+	 * @param lows        the lowest value of the range of each column, or null
+	 * @param highs       the highest value of the range of each column, or null
+	 * @return the rows, or null if the data set data is not saved column by
+	 *         column
+	 * @throws DataException
+	 */
+	public static IOrderedIntSet getCandidateRows(StreamManager manager, IResultClass resultClass,
+			String[] columnNames, Object[] lows, Object[] highs) throws DataException {
+		ColumnarDataSetReader reader = (ColumnarDataSetReader) createReader(manager, resultClass, false, null);
+		if (reader == null) {
+			return null;
+		}
+		try {
+			return reader.getCandidateRows(columnNames, lows, highs);
+		} finally {
+			reader.close();
+		}
 	}
 
 	public static IDataSetWriter createWriter(StreamManager manager, IResultClass resultClass, Map<?, ?> appContext,
 			DataEngineSession session, List<IAuxiliaryIndexCreator> auxiliaryIndexs) throws DataException {
-		return null;
+		return createWriter(manager, resultClass, appContext, session, auxiliaryIndexs, null, null);
+	}
+
+	/**
+	 *
+	 * @param manager
+	 * @param resultClass
+	 * @param appContext
+	 * @param session
+	 * @param auxiliaryIndexs
+	 * @param index           the indexes of the columns, closed by the writer
+	 * @param cacheRequestMap the bindings which tell the columns to save, or null
+	 *                        to save all the columns
+	 * @return the writer, or null if the rows are saved one by one
+	 * @throws DataException
+	 */
+	public static IDataSetWriter createWriter(StreamManager manager, IResultClass resultClass, Map<?, ?> appContext,
+			DataEngineSession session, List<IAuxiliaryIndexCreator> auxiliaryIndexs,
+			Map<String, IIndexSerializer> index, List<IBinding> cacheRequestMap) throws DataException {
+		if (!isColumnarStore(appContext)) {
+			return null;
+		}
+		return new ColumnarDataSetWriter(manager, resultClass, cacheRequestMap, index, auxiliaryIndexs, 0, false);
 	}
 
 	public static IDataSetUpdater createUpdater(StreamManager manager, IResultClass resultClass, Map<?, ?> appContext,
@@ -44,7 +108,50 @@ public class DataSetStore {
 		return null;
 	}
 
+	/**
+	 *
+	 * @param manager
+	 * @param resultClass
+	 * @param appContext
+	 * @param session
+	 * @param auxiliaryIndexs
+	 * @param index            the indexes of the columns, closed by the updater
+	 * @param cacheRequestMap  the bindings which tell the columns to save, or null
+	 *                         to save all the columns
+	 * @param originalRowCount the number of rows already saved
+	 * @return the updater, or null if the rows are saved one by one
+	 * @throws DataException
+	 */
+	public static IDataSetUpdater createUpdater(StreamManager manager, IResultClass resultClass, Map<?, ?> appContext,
+			DataEngineSession session, List<IAuxiliaryIndexCreator> auxiliaryIndexs,
+			Map<String, IIndexSerializer> index, List<IBinding> cacheRequestMap, int originalRowCount)
+			throws DataException {
+		if (!manager.hasOutStream(DataEngineContext.DATASET_COLUMNAR_STREAM, StreamManager.ROOT_STREAM,
+				StreamManager.SELF_SCOPE)) {
+			return null;
+		}
+		return new ColumnarDataSetWriter(manager, resultClass, cacheRequestMap, index, auxiliaryIndexs,
+				originalRowCount, true);
+	}
+
 	public static boolean isDataMartStore(Map<?, ?> appContext, DataEngineSession session) throws DataException {
 		return false;
 	}
+
+	/**
+	 *
+	 * @param appContext
+	 * @return whether DataEngine.DATA_SET_COLUMNAR_STORE is set
+	 * @throws DataException
+	 */
+	public static boolean isColumnarStore(Map<?, ?> appContext) throws DataException {
+		if (appContext == null || appContext.get(DataEngine.DATA_SET_COLUMNAR_STORE) == null) {
+			return false;
+		}
+		try {
+			return DataTypeUtil.toBoolean(appContext.get(DataEngine.DATA_SET_COLUMNAR_STORE)).booleanValue();
+		} catch (BirtException e) {
+			throw DataException.wrap(e);
+		}
+	}
 }
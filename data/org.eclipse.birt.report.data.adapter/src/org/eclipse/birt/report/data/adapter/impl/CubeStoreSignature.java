@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.report.data.adapter.impl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.birt.core.data.ExpressionUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.script.ScriptContext;
+import org.eclipse.birt.data.engine.api.IBaseExpression;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.olap.data.api.cube.CubeStore;
+import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
+import org.eclipse.birt.report.data.adapter.api.IModelAdapter;
+import org.eclipse.birt.report.model.api.DataSetHandle;
+import org.eclipse.birt.report.model.api.DataSetParameterHandle;
+import org.eclipse.birt.report.model.api.DataSourceHandle;
+import org.eclipse.birt.report.model.api.DesignElementHandle;
+import org.eclipse.birt.report.model.api.Expression;
+import org.eclipse.birt.report.model.api.ExpressionHandle;
+import org.eclipse.birt.report.model.api.ModuleHandle;
+import org.eclipse.birt.report.model.api.OdaDataSetParameterHandle;
+import org.eclipse.birt.report.model.api.ParameterHandle;
+import org.eclipse.birt.report.model.api.PropertyHandle;
+import org.eclipse.birt.report.model.api.StructureHandle;
+import org.eclipse.birt.report.model.api.elements.structures.DataSetParameter;
+import org.eclipse.birt.report.model.api.metadata.IElementPropertyDefn;
+import org.eclipse.birt.report.model.api.metadata.IPropertyDefn;
+import org.eclipse.birt.report.model.api.metadata.IPropertyType;
+import org.eclipse.birt.report.model.api.olap.CubeHandle;
+
+/**
+ * Creates the signature a cube is kept with in the cube store. The signature
+ * covers the properties of the cube, of its dimensions, hierarchies, levels
+ * and measures, of the data sets and data sources it is built from, the values
+ * of the report parameters and the values the input parameters of these data
+ * sets are bound to in this session.
+ */
+
+class CubeStoreSignature {
+
+	private CubeStoreSignature() {
+	}
+
+	/**
+	 *
+	 * @param cubeHandle
+	 * @param modelAdaptor  adapts the default value expressions of the data set
+	 *                      parameters
+	 * @param scriptContext the script context the parameter values are evaluated
+	 *                      in
+	 * @return
+	 * @throws BirtException if a parameter value can't be evaluated
+	 */
+	static String create(CubeHandle cubeHandle, IModelAdapter modelAdaptor, ScriptContext scriptContext)
+			throws BirtException {
+		StringBuilder buffer = new StringBuilder();
+		List<DataSetHandle> dataSets = new ArrayList<>();
+		appendElement(buffer, cubeHandle, new HashSet<>(), dataSets);
+
+		StringBuilder parameters = new StringBuilder();
+		ModuleHandle module = cubeHandle.getModuleHandle();
+		List<?> reportParameters = module == null ? null : module.getAllParameters();
+		if (reportParameters != null) {
+			for (int i = 0; i < reportParameters.size(); i++) {
+				if (!(reportParameters.get(i) instanceof ParameterHandle)) {
+					continue;
+				}
+				String name = ((ParameterHandle) reportParameters.get(i)).getName();
+				parameters.append(name).append('=');
+				appendValue(parameters, evaluate(
+						new ScriptExpression(ExpressionUtil.createJSParameterValueExpression(name)), scriptContext));
+				parameters.append(';');
+			}
+		}
+		for (int i = 0; i < dataSets.size(); i++) {
+			appendDataSetParameters(parameters, dataSets.get(i), modelAdaptor, scriptContext);
+		}
+		return CubeStore.createSignature(new Object[] { cubeHandle.getQualifiedName(), buffer, parameters });
+	}
+
+	/**
+	 * Creates the signature of the cube definition alone, without the parameter
+	 * values, so that the runs of a report with different parameter values find
+	 * the same stored cube to append to.
+	 *
+	 * @param cubeHandle
+	 * @return
+	 */
+	static String createDefinition(CubeHandle cubeHandle) {
+		StringBuilder buffer = new StringBuilder();
+		appendElement(buffer, cubeHandle, new HashSet<>(), new ArrayList<>());
+		return CubeStore.createSignature(new Object[] { cubeHandle.getQualifiedName(), buffer });
+	}
+
+	/**
+	 * Appends the values of the input parameters of the data set which are not
+	 * linked to a report parameter.
+	 *
+	 * @param buffer
+	 * @param dataSet
+	 * @param modelAdaptor
+	 * @param scriptContext
+	 * @throws BirtException
+	 */
+	private static void appendDataSetParameters(StringBuilder buffer, DataSetHandle dataSet,
+			IModelAdapter modelAdaptor, ScriptContext scriptContext) throws BirtException {
+		Iterator it = dataSet.parametersIterator();
+		while (it.hasNext()) {
+			DataSetParameterHandle parameter = (DataSetParameterHandle) it.next();
+			if (!parameter.isInput() || (parameter instanceof OdaDataSetParameterHandle
+					&& ((OdaDataSetParameterHandle) parameter).getParamName() != null)) {
+				continue;
+			}
+			ExpressionHandle handle = parameter.getExpressionProperty(DataSetParameter.DEFAULT_VALUE_MEMBER);
+			if (handle == null || handle.getValue() == null) {
+				continue;
+			}
+			buffer.append(dataSet.getQualifiedName()).append('.').append(parameter.getName()).append('=');
+			appendValue(buffer, evaluate(modelAdaptor.adaptExpression((Expression) handle.getValue()), scriptContext));
+			buffer.append(';');
+		}
+	}
+
+	/**
+	 *
+	 * @param expression
+	 * @param scriptContext
+	 * @return
+	 * @throws BirtException
+	 */
+	private static Object evaluate(IBaseExpression expression, ScriptContext scriptContext) throws BirtException {
+		if (expression == null) {
+			return null;
+		}
+		return ScriptEvalUtil.evalExpr(expression, scriptContext,
+				org.eclipse.birt.core.script.ScriptExpression.defaultID, 0);
+	}
+
+	/**
+	 * Appends a parameter value, with the type and full precision of dates and
+	 * the elements of multiple values.
+	 *
+	 * @param buffer
+	 * @param value
+	 */
+	private static void appendValue(StringBuilder buffer, Object value) {
+		if (value == null) {
+			buffer.append("null"); //$NON-NLS-1$
+		} else if (value instanceof Object[]) {
+			Object[] values = (Object[]) value;
+			buffer.append('[');
+			for (int i = 0; i < values.length; i++) {
+				appendValue(buffer, values[i]);
+				buffer.append(',');
+			}
+			buffer.append(']');
+		} else if (value instanceof Date) {
+			buffer.append(value.getClass().getName()).append(':').append(((Date) value).getTime());
+		} else {
+			buffer.append(value.getClass().getName()).append(':').append(value);
+		}
+	}
+
+	/**
+	 *
+	 * @param buffer
+	 * @param element
+	 * @param visited
+	 * @param dataSets the data sets the element refers to
+	 */
+	private static void appendElement(StringBuilder buffer, DesignElementHandle element, Set<Long> visited,
+			List<DataSetHandle> dataSets) {
+		if (element == null || !visited.add(Long.valueOf(element.getID()))) {
+			return;
+		}
+		if (element instanceof DataSetHandle) {
+			dataSets.add((DataSetHandle) element);
+		}
+		buffer.append('<').append(element.getDefn().getName()).append(' ').append(element.getQualifiedName())
+				.append('>');
+		Iterator it = element.getPropertyIterator();
+		while (it.hasNext()) {
+			PropertyHandle property = (PropertyHandle) it.next();
+			if (!property.isSet()) {
+				continue;
+			}
+			IElementPropertyDefn defn = property.getPropertyDefn();
+			buffer.append(defn.getName()).append('=');
+			switch (defn.getTypeCode()) {
+			case IPropertyType.CONTENT_ELEMENT_TYPE:
+				List contents = property.getContents();
+				for (int i = 0; i < contents.size(); i++) {
+					appendElement(buffer, (DesignElementHandle) contents.get(i), visited, dataSets);
+				}
+				break;
+			case IPropertyType.ELEMENT_REF_TYPE:
+				buffer.append(property.getStringValue());
+				DesignElementHandle reference = element.getElementProperty(defn.getName());
+				if (reference instanceof DataSetHandle || reference instanceof DataSourceHandle) {
+					appendElement(buffer, reference, visited, dataSets);
+				}
+				break;
+			case IPropertyType.STRUCT_TYPE:
+				if (defn.isList()) {
+					Iterator structures = property.iterator();
+					while (structures.hasNext()) {
+						appendStructure(buffer, (StructureHandle) structures.next());
+					}
+				}
+				break;
+			default:
+				buffer.append(property.getStringValue());
+			}
+			buffer.append(';');
+		}
+		buffer.append("</>"); //$NON-NLS-1$
+	}
+
+	/**
+	 *
+	 * @param buffer
+	 * @param structure
+	 */
+	private static void appendStructure(StringBuilder buffer, StructureHandle structure) {
+		buffer.append('{');
+		Iterator<IPropertyDefn> members = structure.getDefn().getPropertyIterator();
+		while (members.hasNext()) {
+			IPropertyDefn member = members.next();
+			if (member.getTypeCode() == IPropertyType.STRUCT_TYPE) {
+				continue;
+			}
+			buffer.append(member.getName()).append('=')
+					.append(structure.getMember(member.getName()).getStringValue()).append(';');
+		}
+		buffer.append('}');
+	}
+}
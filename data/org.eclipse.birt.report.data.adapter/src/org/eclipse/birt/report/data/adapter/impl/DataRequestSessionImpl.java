@@ -33,6 +33,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -85,6 +86,7 @@ import org.eclipse.birt.data.engine.olap.data.api.DimLevel;
 import org.eclipse.birt.data.engine.olap.data.api.ILevel;
 import org.eclipse.birt.data.engine.olap.data.api.cube.CubeElementFactory;
 import org.eclipse.birt.data.engine.olap.data.api.cube.CubeMaterializer;
+import org.eclipse.birt.data.engine.olap.data.api.cube.CubeStore;
 import org.eclipse.birt.data.engine.olap.data.api.cube.IDatasetIterator;
 import org.eclipse.birt.data.engine.olap.data.api.cube.IDimension;
 import org.eclipse.birt.data.engine.olap.data.api.cube.IHierarchy;
@@ -711,10 +713,10 @@ public class DataRequestSessionImpl extends DataRequestSession {
 					}
 				}
 				CubeMaterializer cm = getCubeMaterializer(size);
-				createCube((TabularCubeHandle) cubeHandle, cm, appContext);
+				createOrLoadCube((TabularCubeHandle) cubeHandle, cm, appContext);
 			} else if (mode == DataEngineContext.MODE_GENERATION) {
 				CubeMaterializer cm = getCubeMaterializer(0);
-				createCube((TabularCubeHandle) cubeHandle, cm, appContext);
+				createOrLoadCube((TabularCubeHandle) cubeHandle, cm, appContext);
 				cm.saveCubeToReportDocument(cubeHandle.getQualifiedName(), this.sessionContext.getDocumentWriter(),
 						this.dataEngine.getSession().getStopSign());
 			}
@@ -723,6 +725,76 @@ public class DataRequestSessionImpl extends DataRequestSession {
 		}
 	}
 
+	/**
+	 * Returns the hierarchy parallelism set by the host: an empty value, "auto" or
+	 * a number below 1 means one worker per available processor.
+	 *
+	 * @param value
+	 * @return
+	 * @throws BirtException
+	 */
+	private static int getHierarchyParallelism(Object value) throws BirtException {
+		String text = value.toString().trim();
+		int parallelism = 0;
+		if (text.length() > 0 && !"auto".equalsIgnoreCase(text)) { //$NON-NLS-1$
+			parallelism = DataTypeUtil.toInteger(value).intValue();
+		}
+		return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * Loads the cube from the cube store configured in the application context
+	 * if it has been materialized there with the same definition and parameter
+	 * values; otherwise creates the cube and saves it to the store. The bitmap
+	 * index option of the application context applies to the created cube.
+	 *
+	 * @param cubeHandle
+	 * @param cubeMaterializer
+	 * @param appContext
+	 * @throws BirtException
+	 * @throws IOException
+	 */
+	protected void createOrLoadCube(TabularCubeHandle cubeHandle, CubeMaterializer cubeMaterializer, Map appContext)
+			throws BirtException, IOException {
+		if (appContext != null && appContext.get(DataEngine.CUBE_BITMAP_INDEX) != null) {
+			cubeMaterializer.setBuildBitmapIndex(
+					DataTypeUtil.toBoolean(appContext.get(DataEngine.CUBE_BITMAP_INDEX)).booleanValue());
+		}
+		if (appContext != null && appContext.get(DataEngine.CUBE_HIERARCHY_PARALLELISM) != null) {
+			cubeMaterializer.setHierarchyParallelism(
+					getHierarchyParallelism(appContext.get(DataEngine.CUBE_HIERARCHY_PARALLELISM)));
+		}
+		Object storePath = appContext == null ? null : appContext.get(DataEngine.CUBE_STORE_PATH);
+		if (storePath == null || storePath.toString().trim().length() == 0) {
+			createCube(cubeHandle, cubeMaterializer, appContext);
+			return;
+		}
+		CubeStore store = new CubeStore(storePath.toString());
+		String definition = CubeStoreSignature.createDefinition(cubeHandle);
+		if (appContext.get(DataEngine.CUBE_STORE_APPEND) != null
+				&& DataTypeUtil.toBoolean(appContext.get(DataEngine.CUBE_STORE_APPEND)).booleanValue()
+				&& !cubeHandle.autoPrimaryKey()) {
+			String storedSignature = store.getSignature(cubeHandle.getQualifiedName(), definition);
+			if (storedSignature != null) {
+				if (!createCube(cubeHandle, cubeMaterializer, appContext, store, storedSignature)) {
+					// the stored cube is kept, this run uses the cube it has created
+					logger.log(Level.WARNING, "Cube " + cubeHandle.getQualifiedName() //$NON-NLS-1$
+							+ " is not appended to the cube store," //$NON-NLS-1$
+							+ " its measure aggregations can not be applied again."); //$NON-NLS-1$
+				}
+				return;
+			}
+		}
+		String signature = CubeStoreSignature.create(cubeHandle, modelAdaptor,
+				sessionContext.getDataEngineContext().getScriptContext());
+		if (cubeMaterializer.loadCubeFromStore(store, cubeHandle.getQualifiedName(), signature)) {
+			return;
+		}
+		createCube(cubeHandle, cubeMaterializer, appContext);
+		cubeMaterializer.saveCubeToStore(store, cubeHandle.getQualifiedName(), signature, definition,
+				dataEngine.getSession().getStopSign());
+	}
+
 	// Appcontext entries that may be temporarily modified during createCube call
 	protected static final String[] APPCONTEXT_BACKUP_KEYS = { DataEngine.MEMORY_DATA_SET_CACHE,
 			DataEngine.DATA_SET_CACHE_ROW_LIMIT };
@@ -761,9 +833,28 @@ public class DataRequestSessionImpl extends DataRequestSession {
 	 * @throws BirtException
 	 * @throws DataException
 	 */
-	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected void createCube(TabularCubeHandle cubeHandle, CubeMaterializer cubeMaterializer, Map appContext)
 			throws BirtException {
+		createCube(cubeHandle, cubeMaterializer, appContext, null, null);
+	}
+
+	/**
+	 * Creates the cube, or appends the rows of its data sets to the stored cube
+	 * when a cube store is given and the measure aggregations of the cube can be
+	 * applied to the stored measures again.
+	 *
+	 * @param cubeHandle
+	 * @param cubeMaterializer
+	 * @param appContext
+	 * @param appendStore     the store of the cube to append to, or null
+	 * @param appendSignature the signature the cube has been stored with
+	 * @return whether the rows have been appended to the stored cube
+	 * @throws BirtException
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected boolean createCube(TabularCubeHandle cubeHandle, CubeMaterializer cubeMaterializer, Map appContext,
+			CubeStore appendStore, String appendSignature) throws BirtException {
+		boolean appended = false;
 		SecurityListener sl = new SecurityListener(this);
 		sl.start(cubeHandle);
 
@@ -956,10 +1047,18 @@ public class DataRequestSessionImpl extends DataRequestSession {
 				query.getGroups().clear();
 				dataForCube = new DataSetIterator(this, query, cubeMetaMap.get(cubeHandle), appContext);
 			}
-			cubeMaterializer.createCube(cubeHandle.getQualifiedName(), factTableKey, dimensionKey, dimensions,
-					dataForCube, this.toStringArray(measureNames), calculatedMeasure,
-					this.toStringArray(measureAggrFunctions), computeMemoryBufferSize(appContext),
-					dataEngine.getSession().getStopSign());
+			if (appendStore != null && CubeMaterializer.canAppend(this.toStringArray(measureAggrFunctions))) {
+				cubeMaterializer.appendToStoredCube(appendStore, cubeHandle.getQualifiedName(), appendSignature,
+						factTableKey, dimensionKey, dimensions, dataForCube, this.toStringArray(measureNames),
+						calculatedMeasure, this.toStringArray(measureAggrFunctions),
+						computeMemoryBufferSize(appContext), dataEngine.getSession().getStopSign());
+				appended = true;
+			} else {
+				cubeMaterializer.createCube(cubeHandle.getQualifiedName(), factTableKey, dimensionKey, dimensions,
+						dataForCube, this.toStringArray(measureNames), calculatedMeasure,
+						this.toStringArray(measureAggrFunctions), computeMemoryBufferSize(appContext),
+						dataEngine.getSession().getStopSign());
+			}
 		} catch (Exception e) {
 			throw new AdapterException(ResourceConstants.CUBE_MEASURE_CREATION_ERROR, e);
 		} finally {
@@ -971,6 +1070,7 @@ public class DataRequestSessionImpl extends DataRequestSession {
 		sl.end();
 
 		restoreAppContext(appContext, backupAppContext);
+		return appended;
 	}
 
 	public static long computeMemoryBufferSize(Map appContext) {
@@ -1204,24 +1304,91 @@ public class DataRequestSessionImpl extends DataRequestSession {
 	protected IDimension[] populateDimensions(CubeMaterializer cubeMaterializer, TabularCubeHandle cubeHandle,
 			Map appContext, SecurityListener sl) throws AdapterException {
 		List dimHandles = cubeHandle.getContents(CubeHandle.DIMENSIONS_PROP);
-		List result = new ArrayList();
+		IDimension[] dimArray = new IDimension[dimHandles.size()];
+		List<Integer> concurrentIndexes = new ArrayList<>();
 		for (int i = 0; i < dimHandles.size(); i++) {
 			DimensionHandle dh = (DimensionHandle) dimHandles.get(i);
 			IDimension dim = createdDimensions.get(dh.getName());
+			if (dim == null && cubeMaterializer.getHierarchyParallelism() > 1
+					&& !dh.getContents(DimensionHandle.HIERARCHIES_PROP).isEmpty()) {
+				concurrentIndexes.add(i);
+				continue;
+			}
 			if (dim == null) {
 				dim = populateDimension(cubeMaterializer, dh, cubeHandle, appContext, sl);
 				createdDimensions.put(dh.getName(), dim);
 			}
-			result.add(dim);
+			dimArray[i] = dim;
 		}
 
-		IDimension[] dimArray = new IDimension[dimHandles.size()];
-		for (int i = 0; i < result.size(); i++) {
-			dimArray[i] = (IDimension) result.get(i);
+		if (!concurrentIndexes.isEmpty()) {
+			List<DimensionHandle> concurrentDims = new ArrayList<>();
+			for (int i = 0; i < concurrentIndexes.size(); i++) {
+				concurrentDims.add((DimensionHandle) dimHandles.get(concurrentIndexes.get(i)));
+			}
+			IDimension[] dims = populateDimensionsConcurrently(cubeMaterializer, concurrentDims, cubeHandle,
+					appContext, sl);
+			for (int i = 0; i < dims.length; i++) {
+				createdDimensions.put(concurrentDims.get(i).getName(), dims[i]);
+				dimArray[concurrentIndexes.get(i)] = dims[i];
+			}
 		}
 		return dimArray;
 	}
 
+	/**
+	 * Populates the dimensions with CubeMaterializer.createHierarchies. Their data
+	 * sets are still executed one after another on this thread, while the
+	 * hierarchies of the data sets already read are written by the workers of
+	 * the materializer.
+	 *
+	 * @param cubeMaterializer
+	 * @param dims
+	 * @param cubeHandle
+	 * @param appContext
+	 * @param sl
+	 * @return
+	 * @throws AdapterException
+	 */
+	@SuppressWarnings("unchecked")
+	private IDimension[] populateDimensionsConcurrently(CubeMaterializer cubeMaterializer, List<DimensionHandle> dims,
+			TabularCubeHandle cubeHandle, Map appContext, SecurityListener sl) throws AdapterException {
+		String[] dimensionNames = new String[dims.size()];
+		String[] hierarchyNames = new String[dims.size()];
+		ILevelDefn[][] levelDefs = new ILevelDefn[dims.size()][];
+		Callable<IDatasetIterator>[] iterators = new Callable[dims.size()];
+		List<String> qualifiedNames = new ArrayList<>();
+		for (int i = 0; i < dims.size(); i++) {
+			DimensionHandle dim = dims.get(i);
+			TabularHierarchyHandle hierhandle = (TabularHierarchyHandle) dim
+					.getContents(DimensionHandle.HIERARCHIES_PROP).get(0);
+			dimensionNames[i] = dim.getName();
+			hierarchyNames[i] = hierhandle.getName();
+			levelDefs[i] = createLevelDefinitions(dim, hierhandle, cubeHandle);
+			iterators[i] = () -> openHierarchyDataSet(dim, hierhandle, cubeHandle, appContext, sl);
+			qualifiedNames.add(dim.getName() + "." + hierhandle.getName());
+		}
+
+		IHierarchy[] hierarchies;
+		try {
+			hierarchies = cubeMaterializer.createHierarchies(dimensionNames, hierarchyNames, iterators, levelDefs,
+					dataEngine.getSession().getStopSign());
+		} catch (Exception e) {
+			throw new AdapterException(ResourceConstants.CUBE_HIERARCHY_CREATION_ERROR, e,
+					String.join(", ", qualifiedNames));
+		}
+
+		IDimension[] result = new IDimension[dims.size()];
+		for (int i = 0; i < dims.size(); i++) {
+			try {
+				result[i] = cubeMaterializer.createDimension(dimensionNames[i], hierarchies[i]);
+			} catch (Exception e) {
+				throw new AdapterException(ResourceConstants.CUBE_DIMENSION_CREATION_ERROR, e, dimensionNames[i]);
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Populate the dimension.
 	 *
@@ -1240,76 +1407,13 @@ public class DataRequestSessionImpl extends DataRequestSession {
 		List iHiers = new ArrayList();
 		for (int j = 0; j < hiers.size(); j++) {
 			TabularHierarchyHandle hierhandle = (TabularHierarchyHandle) hiers.get(0);
-			List levels = hierhandle.getContents(TabularHierarchyHandle.LEVELS_PROP);
-
-			List<ILevelDefn> levelInHier = new ArrayList<>();
-			List<String> leafLevelKeyColumn = new ArrayList<>();
-			Set<String> columnNamesForLevels = new HashSet<>();
-			for (int k = 0; k < levels.size(); k++) {
-				TabularLevelHandle level = (TabularLevelHandle) levels.get(k);
-				columnNamesForLevels.add(level.getColumnName());
-				List levelAttrs = new ArrayList();
-				Iterator it = level.attributesIterator();
-				while (it.hasNext()) {
-					LevelAttributeHandle levelAttr = (LevelAttributeHandle) it.next();
-					levelAttrs.add(OlapExpressionUtil.getAttributeColumnName(level.getName(), levelAttr.getName()));
-				}
-				if (DesignChoiceConstants.LEVEL_TYPE_DYNAMIC.equals(level.getLevelType())
-						&& level.getDisplayColumnName() != null) {
-					levelAttrs.add(OlapExpressionUtil.getDisplayColumnName(level.getName()));
-				}
-				leafLevelKeyColumn.add(level.getName());
-
-				levelInHier.add(CubeElementFactory.createLevelDefinition(level.getName(),
-						new String[] { level.getName() }, this.toStringArray(levelAttrs)));
-			}
-			String[] jointHierarchyKeys = getJointHierarchyKeys(cubeHandle, hierhandle);
-			if (!cubeHandle.autoPrimaryKey()) {
-				for (String jointKey : jointHierarchyKeys) {
-					if (!columnNamesForLevels.contains(jointKey)) {
-						throw new AdapterException(ResourceConstants.CUBE_JOINT_COLUMN_NOT_IN_LEVELS,
-								new String[] { jointKey, dim.getName() });
-					}
-				}
-			}
-			// create leaf level
-			if (levelInHier.size() >= 1) {
-				if (cubeHandle.autoPrimaryKey() && jointHierarchyKeys.length > 0) {
-					if (!Arrays.deepEquals(jointHierarchyKeys,
-							new String[] { ((TabularLevelHandle) levels.get(levels.size() - 1)).getColumnName() })) {
-						// need to append joint keys as leaf level
-						levelInHier.add(CubeElementFactory.createLevelDefinition("_${INTERNAL_INDEX}$_",
-								getDummyLevelNamesForJointHierarchyKeys(jointHierarchyKeys), new String[0]));
-					} else if (levelInHier.size() > 1 && isDateTimeDimension(hierhandle)) {
-						levelInHier.add(CubeElementFactory.createLevelDefinition("_${INTERNAL_INDEX}$_",
-								leafLevelKeyColumn.toArray(new String[0]), new String[0]));
-					}
-				} else if (levelInHier.size() > 1) {
-					levelInHier.add(CubeElementFactory.createLevelDefinition("_${INTERNAL_INDEX}$_",
-							leafLevelKeyColumn.toArray(new String[0]), new String[0]));
-				}
-			}
-			Object originalMemCache = null;
-			Object originalRowLimit = null;
+			ILevelDefn[] levelInHier = createLevelDefinitions(dim, hierhandle, cubeHandle);
 			IDatasetIterator valueIt = null;
 			try {
-				sl.process(dim);
-				if (!(cubeHandle.getDataSet().equals(hierhandle.getDataSet()) || hierhandle.getDataSet() == null)) {
-					// remove cache limit for dimension data set
-					originalMemCache = appContext.remove(DataEngine.MEMORY_DATA_SET_CACHE);
-					originalRowLimit = appContext.remove(DataEngine.DATA_SET_CACHE_ROW_LIMIT);
-				}
+				valueIt = openHierarchyDataSet(dim, hierhandle, cubeHandle, appContext, sl);
 
-				String[] timeType = getTimeLevelType(hierhandle);
-				for (int i = 0; i < timeType.length; i++) {
-					levelInHier.get(i).setTimeType(timeType[i]);
-				}
-				valueIt = new DataSetIterator(this, cubeQueryMap.get(hierhandle), cubeMetaMap.get(hierhandle),
-						appContext);
-				((DataSetIterator) valueIt).initSecurityListenerAndDimension(dim.getName(), sl);
-
-				iHiers.add(cubeMaterializer.createHierarchy(dim.getName(), hierhandle.getName(), valueIt,
-						levelInHier.toArray(new ILevelDefn[0]), dataEngine.getSession().getStopSign()));
+				iHiers.add(cubeMaterializer.createHierarchy(dim.getName(), hierhandle.getName(), valueIt, levelInHier,
+						dataEngine.getSession().getStopSign()));
 			} catch (Exception e) {
 				throw new AdapterException(ResourceConstants.CUBE_HIERARCHY_CREATION_ERROR, e,
 						dim.getName() + "." + hierhandle.getName());
@@ -1320,12 +1424,6 @@ public class DataRequestSessionImpl extends DataRequestSession {
 					} catch (BirtException e) {
 					}
 				}
-				if (originalMemCache != null) {
-					appContext.put(DataEngine.MEMORY_DATA_SET_CACHE, originalMemCache);
-				}
-				if (originalRowLimit != null) {
-					appContext.put(DataEngine.DATA_SET_CACHE_ROW_LIMIT, originalRowLimit);
-				}
 			}
 		}
 
@@ -1336,6 +1434,135 @@ public class DataRequestSessionImpl extends DataRequestSession {
 		}
 	}
 
+	/**
+	 * Creates the level definitions of the hierarchy.
+	 *
+	 * @param dim
+	 * @param hierhandle
+	 * @param cubeHandle
+	 * @return
+	 * @throws AdapterException
+	 */
+	private ILevelDefn[] createLevelDefinitions(DimensionHandle dim, TabularHierarchyHandle hierhandle,
+			TabularCubeHandle cubeHandle) throws AdapterException {
+		List levels = hierhandle.getContents(TabularHierarchyHandle.LEVELS_PROP);
+
+		List<ILevelDefn> levelInHier = new ArrayList<>();
+		List<String> leafLevelKeyColumn = new ArrayList<>();
+		Set<String> columnNamesForLevels = new HashSet<>();
+		for (int k = 0; k < levels.size(); k++) {
+			TabularLevelHandle level = (TabularLevelHandle) levels.get(k);
+			columnNamesForLevels.add(level.getColumnName());
+			List levelAttrs = new ArrayList();
+			Iterator it = level.attributesIterator();
+			while (it.hasNext()) {
+				LevelAttributeHandle levelAttr = (LevelAttributeHandle) it.next();
+				levelAttrs.add(OlapExpressionUtil.getAttributeColumnName(level.getName(), levelAttr.getName()));
+			}
+			if (DesignChoiceConstants.LEVEL_TYPE_DYNAMIC.equals(level.getLevelType())
+					&& level.getDisplayColumnName() != null) {
+				levelAttrs.add(OlapExpressionUtil.getDisplayColumnName(level.getName()));
+			}
+			leafLevelKeyColumn.add(level.getName());
+
+			levelInHier.add(CubeElementFactory.createLevelDefinition(level.getName(),
+					new String[] { level.getName() }, this.toStringArray(levelAttrs)));
+		}
+		String[] jointHierarchyKeys = getJointHierarchyKeys(cubeHandle, hierhandle);
+		if (!cubeHandle.autoPrimaryKey()) {
+			for (String jointKey : jointHierarchyKeys) {
+				if (!columnNamesForLevels.contains(jointKey)) {
+					throw new AdapterException(ResourceConstants.CUBE_JOINT_COLUMN_NOT_IN_LEVELS,
+							new String[] { jointKey, dim.getName() });
+				}
+			}
+		}
+		// create leaf level
+		if (levelInHier.size() >= 1) {
+			if (cubeHandle.autoPrimaryKey() && jointHierarchyKeys.length > 0) {
+				if (!Arrays.deepEquals(jointHierarchyKeys,
+						new String[] { ((TabularLevelHandle) levels.get(levels.size() - 1)).getColumnName() })) {
+					// need to append joint keys as leaf level
+					levelInHier.add(CubeElementFactory.createLevelDefinition("_${INTERNAL_INDEX}$_",
+							getDummyLevelNamesForJointHierarchyKeys(jointHierarchyKeys), new String[0]));
+				} else if (levelInHier.size() > 1 && isDateTimeDimension(hierhandle)) {
+					levelInHier.add(CubeElementFactory.createLevelDefinition("_${INTERNAL_INDEX}$_",
+							leafLevelKeyColumn.toArray(new String[0]), new String[0]));
+				}
+			} else if (levelInHier.size() > 1) {
+				levelInHier.add(CubeElementFactory.createLevelDefinition("_${INTERNAL_INDEX}$_",
+						leafLevelKeyColumn.toArray(new String[0]), new String[0]));
+			}
+		}
+		String[] timeType = getTimeLevelType(hierhandle);
+		for (int i = 0; i < timeType.length; i++) {
+			levelInHier.get(i).setTimeType(timeType[i]);
+		}
+		return levelInHier.toArray(new ILevelDefn[0]);
+	}
+
+	/**
+	 * Executes the data set of the hierarchy. The data set of a hierarchy which
+	 * does not use the data set of the cube is executed without the cache limits
+	 * of the application context, which are put back when the returned iterator
+	 * is closed.
+	 *
+	 * @param dim
+	 * @param hierhandle
+	 * @param cubeHandle
+	 * @param appContext
+	 * @param sl
+	 * @return
+	 * @throws BirtException
+	 */
+	private IDatasetIterator openHierarchyDataSet(DimensionHandle dim, TabularHierarchyHandle hierhandle,
+			TabularCubeHandle cubeHandle, Map appContext, SecurityListener sl) throws BirtException {
+		sl.process(dim);
+		if (cubeHandle.getDataSet().equals(hierhandle.getDataSet()) || hierhandle.getDataSet() == null) {
+			DataSetIterator valueIt = new DataSetIterator(this, cubeQueryMap.get(hierhandle),
+					cubeMetaMap.get(hierhandle), appContext);
+			valueIt.initSecurityListenerAndDimension(dim.getName(), sl);
+			return valueIt;
+		}
+		// remove cache limit for dimension data set
+		Object originalMemCache = appContext.remove(DataEngine.MEMORY_DATA_SET_CACHE);
+		Object originalRowLimit = appContext.remove(DataEngine.DATA_SET_CACHE_ROW_LIMIT);
+		try {
+			DataSetIterator valueIt = new DataSetIterator(this, cubeQueryMap.get(hierhandle),
+					cubeMetaMap.get(hierhandle), appContext) {
+
+				@Override
+				public void close() throws BirtException {
+					try {
+						super.close();
+					} finally {
+						restoreCacheLimits(appContext, originalMemCache, originalRowLimit);
+					}
+				}
+			};
+			valueIt.initSecurityListenerAndDimension(dim.getName(), sl);
+			return valueIt;
+		} catch (BirtException | RuntimeException e) {
+			restoreCacheLimits(appContext, originalMemCache, originalRowLimit);
+			throw e;
+		}
+	}
+
+	/**
+	 *
+	 * @param appContext
+	 * @param originalMemCache
+	 * @param originalRowLimit
+	 */
+	private static void restoreCacheLimits(Map appContext, Object originalMemCache, Object originalRowLimit) {
+		if (originalMemCache != null) {
+			appContext.put(DataEngine.MEMORY_DATA_SET_CACHE, originalMemCache);
+		}
+		if (originalRowLimit != null) {
+			appContext.put(DataEngine.DATA_SET_CACHE_ROW_LIMIT, originalRowLimit);
+		}
+	}
+
 	protected String[] getFieldName(TabularHierarchyHandle timeHierhandle) {
 		List levels = timeHierhandle.getContents(TabularHierarchyHandle.LEVELS_PROP);
 		String[] fieldName = new String[levels.size()];
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.data.oda.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.birt.core.data.QueryPushDown;
+import org.eclipse.datatools.connectivity.oda.IResultSet;
+import org.eclipse.datatools.connectivity.oda.spec.QuerySpecification;
+import org.eclipse.datatools.connectivity.oda.spec.util.QuerySpecificationHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for QueryRewrite
+ *
+ */
+public class QueryRewriteTest {
+
+	private final static String SELECT_SQL = "select * from " + TestUtil.TABLE_NAME;
+
+	private Connection conn = null;
+
+	private Statement stmt = null;
+
+	@Before
+	public void queryRewriteSetUp() throws Exception {
+		TestUtil.createTestData();
+		conn = TestUtil.openConnection();
+		stmt = (Statement) conn.newQuery("");
+	}
+
+	@After
+	public void queryRewriteTearDown() throws Exception {
+		stmt.close();
+		conn.close();
+		TestUtil.deleteTestData();
+	}
+
+	@Test
+	public void testRewriteText() {
+		SQLDialect dialect = new SQLDialect("\"");
+		QueryRewrite rewrite = new QueryRewrite().addFilter("a", QueryRewrite.OP_EQ, "x'y")
+				.addFilter("b", QueryRewrite.OP_BETWEEN, Integer.valueOf(1), Double.valueOf(2.5))
+				.addFilter("c", QueryRewrite.OP_IN, Date.valueOf("2020-01-02"),
+						Timestamp.valueOf("2020-01-02 03:04:05"))
+				.addFilter("d", QueryRewrite.OP_NOT_NULL);
+		assertEquals("SELECT * FROM (\nselect * from t\n) BIRT_REWRITE WHERE \"a\" = 'x''y'"
+				+ " AND \"b\" BETWEEN 1 AND 2.5E0"
+				+ " AND \"c\" IN ({d '2020-01-02'}, {ts '2020-01-02 03:04:05.0'})"
+				+ " AND \"d\" IS NOT NULL", rewrite.rewrite("select * from t;", dialect));
+	}
+
+	@Test
+	public void testNoRewrite() {
+		SQLDialect dialect = new SQLDialect("\"");
+		assertNull(new QueryRewrite().rewrite("select * from t", dialect));
+		assertNull(new QueryRewrite().addFilter("a", QueryRewrite.OP_NULL).rewrite("{call proc()}", dialect));
+		// booleans have no portable literal
+		assertNull(new QueryRewrite().addFilter("a", QueryRewrite.OP_EQ, Boolean.TRUE).rewrite("select * from t",
+				dialect));
+		// identifiers with spaces can not be written without quotes
+		assertNull(new QueryRewrite().addFilter("a b", QueryRewrite.OP_NULL).rewrite("select * from t",
+				new SQLDialect(" ")));
+	}
+
+	@Test
+	public void testRewrittenQuery() throws Exception {
+		stmt.setQueryRewrite(new QueryRewrite().addFilter("COL3", QueryRewrite.OP_GT, Integer.valueOf(4)));
+		stmt.prepare(SELECT_SQL);
+		assertTrue(stmt.isQueryRewritten());
+		assertTrue(stmt.getEffectiveQueryText().startsWith("SELECT * FROM ("));
+		IResultSet rs = stmt.executeQuery();
+		int sum = 0;
+		int count = 0;
+		while (rs.next()) {
+			sum += rs.getInt(4);
+			count++;
+		}
+		assertEquals(2, count);
+		assertEquals(11, sum);
+		rs.close();
+	}
+
+	@Test
+	public void testAppContextPushDown() throws Exception {
+		Map<String, Object> appContext = new HashMap<>();
+		appContext.put(QueryRewrite.APP_CONTEXT_KEY,
+				new QueryRewrite().addFilter("COL3", QueryRewrite.OP_BETWEEN, Integer.valueOf(1), Integer.valueOf(2)));
+		stmt.setAppContext(appContext);
+		stmt.prepare(SELECT_SQL);
+		assertTrue(stmt.isQueryRewritten());
+		IResultSet rs = stmt.executeQuery();
+		int count = 0;
+		while (rs.next()) {
+			count++;
+		}
+		assertEquals(2, count);
+		rs.close();
+	}
+
+	@Test
+	public void testQuerySpecificationPushDown() throws Exception {
+		QueryPushDown pushDown = new QueryPushDown().addFilter("COL3", QueryPushDown.OP_IN, Long.valueOf(1),
+				Long.valueOf(6));
+		QuerySpecification querySpec = new QuerySpecificationHelper((String) null).createQuerySpecification();
+		querySpec.setProperty(QueryPushDown.KEY, pushDown);
+		stmt.setSpecification(querySpec);
+		stmt.prepare(SELECT_SQL);
+		assertTrue(pushDown.isApplied());
+		IResultSet rs = stmt.executeQuery();
+		int count = 0;
+		while (rs.next()) {
+			count++;
+		}
+		assertEquals(2, count);
+		rs.close();
+	}
+
+	@Test
+	public void testFallback() throws Exception {
+		// the column does not exist, the query is run as is
+		QueryRewrite rewrite = new QueryRewrite().addFilter("NO_SUCH_COLUMN", QueryRewrite.OP_EQ, Integer.valueOf(1));
+		stmt.setQueryRewrite(rewrite);
+		stmt.prepare(SELECT_SQL);
+		assertFalse(stmt.isQueryRewritten());
+		assertFalse(rewrite.isApplied());
+		assertEquals(SELECT_SQL, stmt.getEffectiveQueryText());
+		IResultSet rs = stmt.executeQuery();
+		int count = 0;
+		while (rs.next()) {
+			count++;
+		}
+		assertEquals(TestUtil.DATA_VALUES.length, count);
+		rs.close();
+	}
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.report.data.oda.jdbc;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.birt.core.data.QueryPushDown;
+
+/**
+ * The filters to apply to the rows of a query in the database instead of after
+ * they are fetched. The query is wrapped into
+ *
+ * <pre>
+ * SELECT * FROM (query) BIRT_REWRITE WHERE ...
+ * </pre>
+ *
+ * where the columns are the columns of the query. The values of the filters
+ * are written as SQL literals, dates and times with the JDBC escapes. When a
+ * part of the rewrite can not be written for the query or the database, the
+ * query is not rewritten at all.
+ *
+ * A statement rewrites its query the same way for any QueryPushDown in its
+ * query specification or application context, such as the one the data engine
+ * builds from the data set filters.
+ */
+
+public class QueryRewrite extends QueryPushDown {
+	/**
+	 * The key of a QueryRewrite in the application context of a statement.
+	 */
+	public static final String APP_CONTEXT_KEY = QueryPushDown.KEY;
+
+	private static final String ALIAS = "BIRT_REWRITE"; //$NON-NLS-1$
+
+	@Override
+	public QueryRewrite addFilter(String column, int operator, Object... values) {
+		super.addFilter(column, operator, values);
+		return this;
+	}
+
+	/**
+	 * Returns the rewritten query.
+	 *
+	 * @param query   the text of a SELECT statement
+	 * @param dialect
+	 * @return the rewritten query, or null if the query can not be rewritten
+	 */
+	public String rewrite(String query, SQLDialect dialect) {
+		return rewrite(this, query, dialect);
+	}
+
+	/**
+	 * Returns a query rewritten with a push down.
+	 *
+	 * @param pushDown
+	 * @param query    the text of a SELECT statement
+	 * @param dialect
+	 * @return the rewritten query, or null if the query can not be rewritten
+	 */
+	static String rewrite(QueryPushDown pushDown, String query, SQLDialect dialect) {
+		if (query == null || pushDown.isEmpty()) {
+			return null;
+		}
+		List<Filter> filters = pushDown.getFilters();
+
+		String inner = query.trim();
+		while (inner.endsWith(";")) { //$NON-NLS-1$
+			inner = inner.substring(0, inner.length() - 1).trim();
+		}
+		// stored procedure calls, WITH clauses and other statements can not be
+		// used as a derived table in every database
+		if (!inner.toLowerCase(Locale.ENGLISH).startsWith("select") //$NON-NLS-1$
+				|| (inner.length() > 6 && Character.isJavaIdentifierPart(inner.charAt(6)))) {
+			return null;
+		}
+
+		StringBuilder sql = new StringBuilder("SELECT * FROM (\n"); //$NON-NLS-1$
+		// the query may end with a line comment
+		sql.append(inner).append("\n) ").append(ALIAS); //$NON-NLS-1$
+
+		for (int i = 0; i < filters.size(); i++) {
+			String filter = toSQL(filters.get(i), dialect);
+			if (filter == null) {
+				return null;
+			}
+			sql.append(i == 0 ? " WHERE " : " AND ").append(filter); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		return sql.toString();
+	}
+
+	/**
+	 * Returns the SQL literal of a value.
+	 *
+	 * @param value
+	 * @return the literal, or null if the value has no portable literal
+	 */
+	static String toLiteral(Object value) {
+		if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof BigInteger) {
+			return value.toString();
+		}
+		if (value instanceof BigDecimal) {
+			return ((BigDecimal) value).toPlainString();
+		}
+		if (value instanceof Double || value instanceof Float) {
+			double d = ((Number) value).doubleValue();
+			if (Double.isNaN(d) || Double.isInfinite(d)) {
+				return null;
+			}
+			// an approximate literal, so that it is not taken for an exact decimal
+			return Double.toString(d).contains("E") ? Double.toString(d) : Double.toString(d) + "E0"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (value instanceof String || value instanceof Character) {
+			return "'" + value.toString().replace("'", "''") + "'"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		}
+		if (value instanceof java.sql.Date) {
+			return "{d '" + value.toString() + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (value instanceof Time) {
+			return "{t '" + value.toString() + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (value instanceof Timestamp) {
+			return "{ts '" + value.toString() + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (value instanceof Date) {
+			return "{ts '" + new Timestamp(((Date) value).getTime()).toString() + "'}"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		// booleans have no literal in every database
+		return null;
+	}
+
+	/**
+	 * Returns the SQL condition of a filter.
+	 *
+	 * @param filter
+	 * @param dialect
+	 * @return the condition, or null if it can not be written
+	 */
+	private static String toSQL(Filter filter, SQLDialect dialect) {
+		String name = dialect.quoteIdentifier(filter.getColumn());
+		if (name == null) {
+			return null;
+		}
+		int operator = filter.getOperator();
+		Object[] values = filter.getValues();
+		switch (operator) {
+		case OP_NULL:
+			return values.length == 0 ? name + " IS NULL" : null; //$NON-NLS-1$
+		case OP_NOT_NULL:
+			return values.length == 0 ? name + " IS NOT NULL" : null; //$NON-NLS-1$
+		case OP_BETWEEN:
+		case OP_NOT_BETWEEN:
+			if (values.length != 2) {
+				return null;
+			}
+			String low = toLiteral(values[0]);
+			String high = toLiteral(values[1]);
+			if (low == null || high == null) {
+				return null;
+			}
+			return name + (operator == OP_BETWEEN ? " BETWEEN " : " NOT BETWEEN ") + low + " AND " + high; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		case OP_IN:
+		case OP_NOT_IN:
+			if (values.length == 0) {
+				return null;
+			}
+			StringBuilder list = new StringBuilder(name).append(operator == OP_IN ? " IN (" : " NOT IN ("); //$NON-NLS-1$ //$NON-NLS-2$
+			for (int i = 0; i < values.length; i++) {
+				String literal = toLiteral(values[i]);
+				if (literal == null) {
+					return null;
+				}
+				list.append(i == 0 ? "" : ", ").append(literal); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return list.append(')').toString();
+		default:
+			break;
+		}
+		if (values.length != 1) {
+			return null;
+		}
+		String literal = toLiteral(values[0]);
+		if (literal == null) {
+			return null;
+		}
+		switch (operator) {
+		case OP_EQ:
+			return name + " = " + literal; //$NON-NLS-1$
+		case OP_NE:
+			return name + " <> " + literal; //$NON-NLS-1$
+		case OP_LT:
+			return name + " < " + literal; //$NON-NLS-1$
+		case OP_LE:
+			return name + " <= " + literal; //$NON-NLS-1$
+		case OP_GT:
+			return name + " > " + literal; //$NON-NLS-1$
+		case OP_GE:
+			return name + " >= " + literal; //$NON-NLS-1$
+		case OP_LIKE:
+			return values[0] instanceof String ? name + " LIKE " + literal : null; //$NON-NLS-1$
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.report.data.oda.jdbc;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * The SQL syntax a database accepts for the parts of a rewritten query which
+ * are not the same in every database: how identifiers are quoted.
+ */
+
+public class SQLDialect {
+	private String quote;
+
+	/**
+	 *
+	 * @param quote the identifier quote string, or null if identifiers can not be
+	 *              quoted
+	 */
+	public SQLDialect(String quote) {
+		this.quote = quote == null || quote.trim().length() == 0 ? null : quote.trim();
+	}
+
+	/**
+	 * Returns the dialect of the database of a connection.
+	 *
+	 * @param metaData
+	 * @return
+	 * @throws SQLException
+	 */
+	public static SQLDialect getDialect(DatabaseMetaData metaData) throws SQLException {
+		return new SQLDialect(metaData.getIdentifierQuoteString());
+	}
+
+	/**
+	 * Quotes an identifier, so that its case and any special character in it are
+	 * kept.
+	 *
+	 * @param name
+	 * @return the quoted identifier, or null if the identifier can not be written
+	 */
+	public String quoteIdentifier(String name) {
+		if (name == null || name.length() == 0) {
+			return null;
+		}
+		if (quote == null) {
+			// only plain identifiers can be used without quotes
+			for (int i = 0; i < name.length(); i++) {
+				char c = name.charAt(i);
+				if (!(c == '_' || Character.isLetter(c) || (i > 0 && Character.isDigit(c)))) {
+					return null;
+				}
+			}
+			return name;
+		}
+		return quote + name.replace(quote, quote + quote) + quote;
+	}
+}
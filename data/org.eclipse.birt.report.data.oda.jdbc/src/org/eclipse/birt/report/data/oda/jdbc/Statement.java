@@ -20,9 +20,11 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.core.data.QueryPushDown;
 import org.eclipse.birt.report.data.oda.i18n.ResourceConstants;
 import org.eclipse.datatools.connectivity.oda.IParameterMetaData;
 import org.eclipse.datatools.connectivity.oda.IQuery;
@@ -61,6 +63,13 @@ public class Statement implements IQuery {
 	private IResultSet cachedResultSet;
 	private QuerySpecification querySpec;
 
+	/** the filters to apply in the database */
+	private QueryPushDown queryRewrite;
+
+	/** the query text which is prepared, and whether it is rewritten */
+	private String preparedText;
+	private boolean isRewritten;
+
 	/**
 	 * assertNull(Object o)
 	 *
@@ -112,23 +121,137 @@ public class Statement implements IQuery {
 			this.cachedResultMetaData = null;
 			this.cachedResultSet = null;
 
+			this.isRewritten = false;
+			if (prepareRewrite(command)) {
+				return;
+			}
+
 			/*
 			 * call the JDBC Connection.prepareStatement(String) method to get the
 			 * preparedStatement
 			 */
 			this.preStat = conn.prepareStatement(command);
+			this.preparedText = command;
 		} catch (SQLException e) {
 			throw new JDBCException(ResourceConstants.STATEMENT_CANNOT_PREPARE, e);
 		}
 	}
 
+	/**
+	 * Prepares the query rewritten with the query rewrite, if there is one. The
+	 * rewritten query is checked by getting its metadata, as some drivers do not
+	 * parse the query before it is executed.
+	 *
+	 * @param command
+	 * @return whether the rewritten query is prepared
+	 */
+	private boolean prepareRewrite(String command) {
+		QueryPushDown pushDown = getPushDown();
+		if (pushDown == null || pushDown.isEmpty()) {
+			return false;
+		}
+		pushDown.setApplied(false);
+		PreparedStatement statement = null;
+		try {
+			SQLDialect dialect = SQLDialect.getDialect(conn.getMetaData());
+			String rewritten = QueryRewrite.rewrite(pushDown, command, dialect);
+			if (rewritten == null) {
+				logger.logp(Level.FINE, Statement.class.getName(), "prepareRewrite", //$NON-NLS-1$
+						"The query can not be rewritten."); //$NON-NLS-1$
+				return false;
+			}
+			statement = conn.prepareStatement(rewritten);
+			try {
+				statement.getMetaData();
+			} catch (SQLException e) {
+				throw e;
+			} catch (Throwable e) {
+				// the driver does not give the metadata at prepare time, such as
+				// AbstractMethodError of DB2 7.2
+			}
+			this.preStat = statement;
+			this.preparedText = rewritten;
+			this.isRewritten = true;
+			pushDown.setApplied(true);
+			return true;
+		} catch (SQLException e) {
+			logger.logp(Level.FINE, Statement.class.getName(), "prepareRewrite", //$NON-NLS-1$
+					"The rewritten query is not accepted, the query is prepared as is.", e); //$NON-NLS-1$
+			if (statement != null) {
+				try {
+					statement.close();
+				} catch (SQLException e1) {
+					logger.logp(Level.FINE, Statement.class.getName(), "prepareRewrite", //$NON-NLS-1$
+							"The rewritten statement can not be closed.", e1); //$NON-NLS-1$
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the push down to apply to the query: the one in the query
+	 * specification, as set by the data engine, or else the one set on this
+	 * statement.
+	 *
+	 * @return the push down, or null for none
+	 */
+	@SuppressWarnings("restriction")
+	private QueryPushDown getPushDown() {
+		if (querySpec != null) {
+			Object pushDown = querySpec.getProperty(QueryPushDown.KEY);
+			if (pushDown instanceof QueryPushDown) {
+				return (QueryPushDown) pushDown;
+			}
+		}
+		return this.queryRewrite;
+	}
+
+	/**
+	 * Sets the filters to apply in the database to the queries which are
+	 * prepared afterwards. Whether a query is
+	 * actually rewritten is given by isQueryRewritten, and by the applied status
+	 * of the rewrite.
+	 *
+	 * @param queryRewrite the rewrite, or null for none
+	 */
+	public void setQueryRewrite(QueryPushDown queryRewrite) {
+		this.queryRewrite = queryRewrite;
+	}
+
+	/**
+	 *
+	 * @return
+	 */
+	public QueryPushDown getQueryRewrite() {
+		return this.queryRewrite;
+	}
+
+	/**
+	 * Returns whether the prepared query is rewritten with the query rewrite. If
+	 * not, the query is run as is and the rewrite is to be applied to its rows by
+	 * the caller. The same status is given to the caller through
+	 * QueryPushDown.isApplied.
+	 *
+	 * @return
+	 */
+	public boolean isQueryRewritten() {
+		return this.isRewritten;
+	}
+
 	/*
 	 * @see
 	 * org.eclipse.datatools.connectivity.oda.IQuery#setAppContext(java.lang.Object)
 	 */
 	@Override
 	public void setAppContext(Object context) throws OdaException {
-		// do nothing; no support for pass-through application context
+		// the only supported context entry is the query rewrite
+		if (context instanceof Map) {
+			Object rewrite = ((Map) context).get(QueryPushDown.KEY);
+			if (rewrite instanceof QueryPushDown) {
+				this.queryRewrite = (QueryPushDown) rewrite;
+			}
+		}
 	}
 
 	/*
@@ -845,7 +968,7 @@ public class Statement implements IQuery {
 	 */
 	@Override
 	public String getEffectiveQueryText() {
-		throw new UnsupportedOperationException();
+		return this.preparedText;
 	}
 
 	@Override
@@ -27,6 +27,7 @@ import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -379,6 +380,61 @@ public class CSVDataExtractionImplTest extends TestCase {
 		subtestRegular(option, "testRegularTab.csv"); //$NON-NLS-1$
 	}
 
+	public void testOutputThreads() throws Exception {
+		option.setLocale(Locale.FRANCE);
+		option.setLocaleNeutralFormat(false);
+		Object[][] data = new Object[5000][];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = new Object[] { i % 7 == 0 ? null : "row, " + i, //$NON-NLS-1$
+					Integer.valueOf(i), makeDate("2008-08-08 10:30:00"), //$NON-NLS-1$
+					Double.valueOf(i / 3.0) };
+		}
+		createExtraction(out, option)
+				.output(new MockExtractionResults(TEST_DATA_COLUMNS, TEST_DATA_TYPES, data));
+		byte[] expected = out.toByteArray();
+
+		out.reset();
+		option.setThreadCount(4);
+		createExtraction(out, option)
+				.output(new MockExtractionResults(TEST_DATA_COLUMNS, TEST_DATA_TYPES, data));
+		assertTrue("Rows formatted by threads are written in order", //$NON-NLS-1$
+				Arrays.equals(expected, out.toByteArray()));
+
+		// several result sets at once
+		ByteArrayOutputStream[] outputs = { new ByteArrayOutputStream(), new ByteArrayOutputStream() };
+		createExtraction(out, option).output(
+				new IExtractionResults[] { new MockExtractionResults(TEST_DATA_COLUMNS, TEST_DATA_TYPES, data),
+						new MockExtractionResults(TEST_DATA_COLUMNS, TEST_DATA_TYPES, TEST_DATA) },
+				outputs);
+		assertTrue(Arrays.equals(expected, outputs[0].toByteArray()));
+		assertFileContent(ROOT_FOLDER + "testLocalized.csv", outputs[1].toByteArray()); //$NON-NLS-1$
+	}
+
+	public void testOutputStringValueHook() throws Exception {
+		option.setSelectedColumns(new String[] { "stringColumn", "integerColumn" }); //$NON-NLS-1$ //$NON-NLS-2$
+		option.setExportDataType(false);
+		option.setThreadCount(4);
+		CSVDataExtractionImpl extract = new CSVDataExtractionImpl() {
+
+			@Override
+			protected String getStringValue(IDataIterator dataIterator, String[] columnNames, int index)
+					throws BirtException {
+				String value = super.getStringValue(dataIterator, columnNames, index);
+				return value == null ? null : "<" + value + ">"; //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		};
+		DataExtractionOption deOptions = new DataExtractionOption(new HashMap(option.getOptions()));
+		deOptions.setOutputStream(out);
+		extract.initialize(null, deOptions);
+		extract.output(results);
+
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new ByteArrayInputStream(out.toByteArray()), "UTF-8")); //$NON-NLS-1$
+		assertEquals("stringColumn,integerColumn", reader.readLine()); //$NON-NLS-1$
+		assertEquals("<myString1>,<5>", reader.readLine()); //$NON-NLS-1$
+		assertEquals(",<-12>", reader.readLine()); //$NON-NLS-1$
+	}
+
 	/**
 	 * @throws BirtException
 	 */
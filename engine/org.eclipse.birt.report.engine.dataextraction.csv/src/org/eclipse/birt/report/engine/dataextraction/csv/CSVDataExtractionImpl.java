@@ -16,15 +16,30 @@ package org.eclipse.birt.report.engine.dataextraction.csv;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.eclipse.birt.core.data.DataType;
 import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.format.IFormatter;
 import org.eclipse.birt.report.engine.api.IDataExtractionOption;
 import org.eclipse.birt.report.engine.api.IDataIterator;
 import org.eclipse.birt.report.engine.api.IExtractionResults;
@@ -43,6 +58,9 @@ public class CSVDataExtractionImpl extends CommonDataExtractionImpl {
 	public static final String PLUGIN_ID = "org.eclipse.birt.report.engine.dataextraction.csv"; //$NON-NLS-1$
 	public static final String DEFAULT_ENCODING = Charset.defaultCharset().name();
 
+	// the number of rows formatted and written at once
+	private static final int BATCH_SIZE = 1024;
+
 	private OutputStream outputStream;
 	private String encoding;
 	private String sep;
@@ -51,6 +69,7 @@ public class CSVDataExtractionImpl extends CommonDataExtractionImpl {
 	private boolean isExportColumnHeader;
 	private String[] selectedColumnNames;
 	private int columnLocalizeOption;
+	private int threadCount;
 
 	/**
 	 * @see org.eclipse.birt.report.engine.extension.IDataExtractionExtension#initialize(org.eclipse.birt.report.engine.api.script.IReportContext,
@@ -100,6 +119,7 @@ public class CSVDataExtractionImpl extends CommonDataExtractionImpl {
 		isExportColumnHeader = csvOptions.isExportColumnHeader();
 		selectedColumnNames = csvOptions.getSelectedColumns();
 		columnLocalizeOption = csvOptions.getColumnLocalizeOption();
+		threadCount = csvOptions.getThreadCount();
 	}
 
 	/**
@@ -112,83 +132,190 @@ public class CSVDataExtractionImpl extends CommonDataExtractionImpl {
 					Messages.getString("exception.dataextraction.no_extraction_result_error"), //$NON-NLS-1$
 					(ResourceBundle) null);
 		}
+		ForkJoinPool pool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
 		try {
-			String[] columnNames = null;
-			String[] columnLabels = null;
-
-			IResultMetaData metaData = results.getResultMetaData();
-			int count = metaData.getColumnCount();
-
-			// if selected columns are null or empty, returns all columns
-			if (selectedColumnNames == null || selectedColumnNames.length <= 0) {
-				columnNames = new String[count];
-				columnLabels = new String[count];
-				for (int i = 0; i < count; i++) {
-					String colName = metaData.getColumnName(i);
-					columnNames[i] = colName;
-					columnLabels[i] = metaData.getColumnLabel(i);
-				}
-			} else {
-				Map<String, String> nameLabelMap = new HashMap<>();
-				for (int i = 0; i < count; i++) {
-					String colName = metaData.getColumnName(i);
-					String colLabel = metaData.getColumnLabel(i);
-					nameLabelMap.put(colName, colLabel);
-				}
-				int selectedCount = selectedColumnNames.length;
-				List<String> labelList = new ArrayList<>();
-				List<String> nameList = new ArrayList<>();
-				for (int i = 0; i < selectedCount; i++) {
-					String label = nameLabelMap.get(selectedColumnNames[i]);
-					if (label != null) {
-						nameList.add(selectedColumnNames[i]);
-						labelList.add(label);
-					}
-				}
-				columnLabels = labelList.toArray(new String[0]);
-				columnNames = nameList.toArray(new String[0]);
-			}
-
-			IDataIterator iData = null;
-			if (results != null) {
-				iData = results.nextResultIterator();
-				if (iData != null && columnNames.length > 0) {
-					if (isExportColumnHeader) {
-						if ((columnLocalizeOption & ICommonDataExtractionOption.OPTION_COLUMN_NAME) != 0) {
-							output(CSVUtil.makeCSVRow(columnNames, sep, addCR));
-						}
-
-						if ((columnLocalizeOption & ICommonDataExtractionOption.OPTION_COLUMN_DISPLAY_NAME) != 0) {
-							output(CSVUtil.makeCSVRow(columnLabels, sep, addCR));
-						}
-					}
-
-					int[] columnTypes = getColumnTypes(columnNames, results);
-					// Column data type
-					if (isExportDataType) {
-						output(makeDataTypesRow(columnTypes));
-					}
+			output(results, outputStream, pool);
+		} catch (Exception e) {
+			throw new BirtException(PLUGIN_ID, Messages.getString("exception.dataextraction.exception_occured"), //$NON-NLS-1$
+					(ResourceBundle) null, e);
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+	}
 
-					// Data
-					String[] values = new String[columnNames.length];
-					createFormatters(columnNames, columnTypes);
-					while (iData.next()) {
-						for (int i = 0; i < columnNames.length; i++) {
-							if (columnTypes[i] != DataType.BLOB_TYPE && columnTypes[i] != DataType.BINARY_TYPE) {
-								values[i] = getStringValue(iData, columnNames, i);
-							} else {
-								values[i] = null;
-							}
-						}
-
-						output(CSVUtil.makeCSVRow(values, sep, addCR));
+	/**
+	 * Extracts several result sets concurrently, each one to its own output
+	 * stream, with the options of this instance. The result sets must be
+	 * independent of each other, for example opened by different extraction
+	 * tasks.
+	 *
+	 * @param results the result sets to extract
+	 * @param outputs the output streams of the result sets
+	 * @throws BirtException
+	 */
+	public void output(IExtractionResults[] results, OutputStream[] outputs) throws BirtException {
+		if (results == null || outputs == null || results.length != outputs.length) {
+			throw new BirtException(PLUGIN_ID,
+					Messages.getString("exception.dataextraction.no_extraction_result_error"), //$NON-NLS-1$
+					(ResourceBundle) null);
+		}
+		if (results.length == 0) {
+			return;
+		}
+		// an overridden getStringValue formats with the formatters of this
+		// instance, so the result sets are extracted one after another
+		ForkJoinPool resultSetPool = new ForkJoinPool(overridesGetStringValue() ? 1 : results.length);
+		ForkJoinPool pool = threadCount > 1 ? new ForkJoinPool(threadCount) : null;
+		try {
+			List<ForkJoinTask<Object>> tasks = new ArrayList<>();
+			for (int i = 0; i < results.length; i++) {
+				final int index = i;
+				tasks.add(resultSetPool.submit(() -> {
+					output(results[index], outputs[index], pool);
+					return null;
+				}));
+			}
+			Exception error = null;
+			for (int i = 0; i < tasks.size(); i++) {
+				try {
+					tasks.get(i).get();
+				} catch (ExecutionException e) {
+					if (error == null) {
+						error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
 					}
 				}
 			}
+			if (error != null) {
+				throw error;
+			}
 		} catch (Exception e) {
 			throw new BirtException(PLUGIN_ID, Messages.getString("exception.dataextraction.exception_occured"), //$NON-NLS-1$
 					(ResourceBundle) null, e);
+		} finally {
+			resultSetPool.shutdownNow();
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+	}
+
+	/**
+	 * Extracts a result set to an output stream. The rows are read in batches,
+	 * and every batch is formatted and encoded into a buffer which is written at
+	 * once. If there is a pool, the batches are formatted by its threads, and
+	 * written in the order of the rows. If a subclass overrides getStringValue,
+	 * the values are formatted through it while the rows are read, and the
+	 * batches are only quoted and encoded.
+	 *
+	 * @param results result set to extract
+	 * @param out     output stream
+	 * @param pool    the pool which formats the batches, or null to format them
+	 *                in the calling thread
+	 * @throws Exception
+	 */
+	private void output(IExtractionResults results, OutputStream out, ForkJoinPool pool) throws Exception {
+		String[] columnNames = null;
+		String[] columnLabels = null;
+
+		IResultMetaData metaData = results.getResultMetaData();
+		int count = metaData.getColumnCount();
+
+		// if selected columns are null or empty, returns all columns
+		if (selectedColumnNames == null || selectedColumnNames.length <= 0) {
+			columnNames = new String[count];
+			columnLabels = new String[count];
+			for (int i = 0; i < count; i++) {
+				String colName = metaData.getColumnName(i);
+				columnNames[i] = colName;
+				columnLabels[i] = metaData.getColumnLabel(i);
+			}
+		} else {
+			Map<String, String> nameLabelMap = new HashMap<>();
+			for (int i = 0; i < count; i++) {
+				String colName = metaData.getColumnName(i);
+				String colLabel = metaData.getColumnLabel(i);
+				nameLabelMap.put(colName, colLabel);
+			}
+			int selectedCount = selectedColumnNames.length;
+			List<String> labelList = new ArrayList<>();
+			List<String> nameList = new ArrayList<>();
+			for (int i = 0; i < selectedCount; i++) {
+				String label = nameLabelMap.get(selectedColumnNames[i]);
+				if (label != null) {
+					nameList.add(selectedColumnNames[i]);
+					labelList.add(label);
+				}
+			}
+			columnLabels = labelList.toArray(new String[0]);
+			columnNames = nameList.toArray(new String[0]);
+		}
+
+		IDataIterator iData = results.nextResultIterator();
+		if (iData == null || columnNames.length == 0) {
+			return;
+		}
+		if (isExportColumnHeader) {
+			if ((columnLocalizeOption & ICommonDataExtractionOption.OPTION_COLUMN_NAME) != 0) {
+				output(out, CSVUtil.makeCSVRow(columnNames, sep, addCR));
+			}
+
+			if ((columnLocalizeOption & ICommonDataExtractionOption.OPTION_COLUMN_DISPLAY_NAME) != 0) {
+				output(out, CSVUtil.makeCSVRow(columnLabels, sep, addCR));
+			}
+		}
+
+		int[] columnTypes = getColumnTypes(columnNames, results);
+		// Column data type
+		if (isExportDataType) {
+			output(out, makeDataTypesRow(columnTypes));
+		}
+
+		// Data
+		boolean[] skipped = new boolean[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			skipped[i] = columnTypes[i] == DataType.BLOB_TYPE || columnTypes[i] == DataType.BINARY_TYPE;
+		}
+		boolean formatted = overridesGetStringValue();
+		if (formatted) {
+			createFormatters(columnNames, columnTypes);
+		}
+		BatchWriter writer = new BatchWriter(out, pool, columnNames, columnTypes, formatted);
+		try {
+			while (iData.next()) {
+				Object[] row = writer.nextRow();
+				for (int i = 0; i < columnNames.length; i++) {
+					if (skipped[i]) {
+						continue;
+					}
+					if (formatted) {
+						row[i] = getStringValue(iData, columnNames, i);
+					} else {
+						row[i] = iData.getValue(columnNames[i]);
+					}
+				}
+			}
+			writer.finish();
+		} finally {
+			writer.cancel();
+		}
+	}
+
+	/**
+	 * Returns whether a subclass formats the values with its own getStringValue.
+	 *
+	 * @return true if getStringValue is overridden
+	 */
+	private boolean overridesGetStringValue() {
+		for (Class<?> c = getClass(); c != CSVDataExtractionImpl.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod("getStringValue", IDataIterator.class, String[].class, int.class); //$NON-NLS-1$
+				return true;
+			} catch (NoSuchMethodException e) {
+			}
 		}
+		return false;
 	}
 
 	/**
@@ -241,7 +368,175 @@ public class CSVDataExtractionImpl extends CommonDataExtractionImpl {
 	 * @throws IOException
 	 * @throws UnsupportedEncodingException
 	 */
-	private void output(String s) throws IOException, UnsupportedEncodingException {
-		outputStream.write(s.getBytes(encoding));
+	private void output(OutputStream out, String s) throws IOException, UnsupportedEncodingException {
+		out.write(s.getBytes(encoding));
+	}
+
+	/**
+	 * Collects the rows in batches, and writes every batch formatted and encoded
+	 * at once. With a pool, the batches are formatted by its threads, and the
+	 * formatted batches are written in order as soon as they are ready.
+	 */
+	private class BatchWriter {
+		private OutputStream out;
+		private ForkJoinPool pool;
+
+		private int columnCount;
+		private Object[][] rows;
+		private int rowCount;
+
+		// the formatter of the calling thread, or the free formatters of the pool
+		private BatchFormatter formatter;
+		private BlockingQueue<BatchFormatter> formatters;
+		private Deque<ForkJoinTask<byte[]>> pending;
+
+		BatchWriter(OutputStream out, ForkJoinPool pool, String[] columnNames, int[] columnTypes,
+				boolean formatted) {
+			this.out = out;
+			this.pool = pool;
+			this.columnCount = columnNames.length;
+			this.rows = new Object[BATCH_SIZE][];
+			if (pool == null) {
+				formatter = new BatchFormatter(columnNames, columnTypes, formatted);
+			} else {
+				int parallelism = pool.getParallelism();
+				formatters = new ArrayBlockingQueue<>(parallelism);
+				for (int i = 0; i < parallelism; i++) {
+					formatters.add(new BatchFormatter(columnNames, columnTypes, formatted));
+				}
+				pending = new ArrayDeque<>();
+			}
+		}
+
+		/**
+		 * Returns the array to fill with the values of the next row.
+		 */
+		Object[] nextRow() throws Exception {
+			if (rowCount == BATCH_SIZE) {
+				flush();
+			}
+			Object[] row = rows[rowCount];
+			if (row == null) {
+				row = new Object[columnCount];
+				rows[rowCount] = row;
+			}
+			rowCount++;
+			return row;
+		}
+
+		void finish() throws Exception {
+			flush();
+			if (pending != null) {
+				while (!pending.isEmpty()) {
+					writeNext();
+				}
+			}
+		}
+
+		void cancel() {
+			if (pending != null) {
+				for (ForkJoinTask<byte[]> task : pending) {
+					task.cancel(true);
+				}
+				pending.clear();
+			}
+		}
+
+		private void flush() throws Exception {
+			if (rowCount == 0) {
+				return;
+			}
+			if (pool == null) {
+				// the rows are formatted before they are reused
+				ByteBuffer bytes = formatter.format(rows, rowCount);
+				out.write(bytes.array(), 0, bytes.limit());
+				rowCount = 0;
+				return;
+			}
+			final Object[][] batch = rows;
+			final int batchSize = rowCount;
+			pending.add(pool.submit(() -> {
+				BatchFormatter batchFormatter = formatters.take();
+				try {
+					ByteBuffer bytes = batchFormatter.format(batch, batchSize);
+					return Arrays.copyOf(bytes.array(), bytes.limit());
+				} finally {
+					formatters.add(batchFormatter);
+				}
+			}));
+			rows = new Object[BATCH_SIZE][];
+			rowCount = 0;
+			// write the batches which are ready, and wait when too many are pending
+			while (!pending.isEmpty() && (pending.peek().isDone() || pending.size() > pool.getParallelism() * 2)) {
+				writeNext();
+			}
+		}
+
+		private void writeNext() throws Exception {
+			byte[] bytes;
+			try {
+				bytes = pending.poll().get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof Exception) {
+					throw (Exception) e.getCause();
+				}
+				throw e;
+			}
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Formats batches of rows, and encodes them into a reusable buffer. A
+	 * formatter is used by one thread at a time.
+	 */
+	private class BatchFormatter {
+		// the values of the rows are already formatted strings
+		private boolean formatted;
+		private IFormatter[] formatters;
+		private String[] values;
+		private StringBuilder buffer;
+		private CharsetEncoder encoder;
+		private ByteBuffer bytes;
+
+		BatchFormatter(String[] columnNames, int[] columnTypes, boolean formatted) {
+			this.formatted = formatted;
+			this.formatters = formatted ? null : newFormatters(columnNames, columnTypes);
+			this.values = new String[columnNames.length];
+			this.buffer = new StringBuilder();
+			this.encoder = Charset.forName(encoding).newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+					.onUnmappableCharacter(CodingErrorAction.REPLACE);
+			this.bytes = ByteBuffer.allocate(0);
+		}
+
+		/**
+		 * Returns the encoded rows, which are valid until the next call.
+		 */
+		ByteBuffer format(Object[][] rows, int rowCount) throws BirtException, CharacterCodingException {
+			buffer.setLength(0);
+			for (int i = 0; i < rowCount; i++) {
+				Object[] row = rows[i];
+				for (int j = 0; j < values.length; j++) {
+					values[j] = formatted ? (String) row[j] : formatValue(formatters, j, row[j]);
+					row[j] = null;
+				}
+				CSVUtil.appendCSVRow(buffer, values, sep, addCR);
+			}
+			int capacity = (int) (buffer.length() * encoder.maxBytesPerChar()) + 16;
+			if (bytes.capacity() < capacity) {
+				bytes = ByteBuffer.allocate(capacity);
+			}
+			bytes.clear();
+			encoder.reset();
+			CoderResult result = encoder.encode(CharBuffer.wrap(buffer), bytes, true);
+			if (result.isUnderflow()) {
+				result = encoder.flush(bytes);
+			}
+			if (!result.isUnderflow()) {
+				result.throwException();
+			}
+			bytes.flip();
+			return bytes;
+		}
 	}
 }
@@ -71,21 +71,71 @@ public class CSVUtil {
 	 */
 	public static String makeCSVRow(String[] values, String sep, boolean addCR) {
 		StringBuilder buf = new StringBuilder(values.length * 10);
+		appendCSVRow(buf, values, sep, addCR);
+		return buf.toString();
+	}
+
+	/**
+	 * Appends a row in CSV format to the buffer, the same way as makeCSVRow(),
+	 * without creating an intermediate string per value.
+	 *
+	 * @param buf    buffer to append to
+	 * @param values values of the columns
+	 * @param sep    separator to use
+	 * @param addCR  whether the line ends with CR + LF
+	 */
+	public static void appendCSVRow(StringBuilder buf, String[] values, String sep, boolean addCR) {
 		for (int i = 0; i < values.length; i++) {
 			if (i > 0) {
 				buf.append(sep);
 			}
-
-			String value = CSVUtil.quoteCSVValue(values[i], sep);
-			if (value != null) {
-				buf.append(value);
-			}
+			appendCSVValue(buf, values[i], sep);
 		}
 		if (addCR) {
 			buf.append(CR);
 		}
 		buf.append(LF);
-		return buf.toString();
+	}
+
+	/**
+	 * Appends a value quoted as quoteCSVValue() does to the buffer. Null values
+	 * append nothing.
+	 *
+	 * @param buf   buffer to append to
+	 * @param value value to quote
+	 * @param sep   CSV separator
+	 */
+	public static void appendCSVValue(StringBuilder buf, String value, String sep) {
+		if (value == null) {
+			return;
+		}
+		int length = value.length();
+		if (length == 0) {
+			buf.append(QUOTE).append(QUOTE);
+			return;
+		}
+		char first = value.charAt(0);
+		char last = value.charAt(length - 1);
+		boolean hasQuote = value.indexOf('"') != -1;
+		boolean needQuote = hasQuote || value.indexOf(sep) != -1 || value.indexOf('\n') != -1 || first == ' '
+				|| first == '\t' || last == ' ' || last == '\t';
+		if (!needQuote) {
+			buf.append(value);
+			return;
+		}
+		buf.append('"');
+		if (hasQuote) {
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (c == '"') {
+					buf.append('"');
+				}
+				buf.append(c);
+			}
+		} else {
+			buf.append(value);
+		}
+		buf.append('"');
 	}
 
 }
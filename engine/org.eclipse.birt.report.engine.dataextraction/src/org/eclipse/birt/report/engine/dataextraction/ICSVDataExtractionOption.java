@@ -35,6 +35,13 @@ public interface ICSVDataExtractionOption extends ICommonDataExtractionOption {
 	 */
 	String ADD_CR_LINE_BREAK = "AddCR";
 
+	/**
+	 * the number of threads which format the rows. The rows are read in order
+	 * and written in order, and the batches of rows between are formatted by the
+	 * threads. 1, the default, formats the rows in the calling thread.
+	 */
+	String THREAD_COUNT = "ThreadCount"; //$NON-NLS-1$
+
 	/**
 	 * Sets the output separator
 	 *
@@ -52,4 +59,26 @@ public interface ICSVDataExtractionOption extends ICommonDataExtractionOption {
 	boolean getAddCR();
 
 	void setAddCR(boolean addCR);
+
+	/**
+	 * Returns the number of threads which format the rows
+	 *
+	 * @return int
+	 */
+	default int getThreadCount() {
+		Object value = getOption(THREAD_COUNT);
+		if (value instanceof Integer) {
+			return ((Integer) value).intValue();
+		}
+		return 1;
+	}
+
+	/**
+	 * Sets the number of threads which format the rows
+	 *
+	 * @param threadCount
+	 */
+	default void setThreadCount(int threadCount) {
+		setOption(THREAD_COUNT, threadCount);
+	}
 }
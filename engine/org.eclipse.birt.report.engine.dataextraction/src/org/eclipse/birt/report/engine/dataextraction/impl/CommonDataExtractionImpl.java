@@ -46,6 +46,7 @@ public class CommonDataExtractionImpl extends DataExtractionExtensionBase {
 
 	private IReportContext context;
 	private IDataExtractionOption options;
+	private String dateFormat;
 	private DateFormatter dateFormatter = null;
 	private ULocale locale = null;
 	private TimeZone timeZone = null;
@@ -81,7 +82,6 @@ public class CommonDataExtractionImpl extends DataExtractionExtensionBase {
 	 * @param options options
 	 */
 	private void initCommonOptions(IReportContext context, IDataExtractionOption options) {
-		String dateFormat;
 		ICommonDataExtractionOption commonOptions;
 		if (options instanceof ICommonDataExtractionOption) {
 			commonOptions = (ICommonDataExtractionOption) options;
@@ -150,8 +150,26 @@ public class CommonDataExtractionImpl extends DataExtractionExtensionBase {
 	}
 
 	protected void createFormatters(String[] columnNames, int[] columnTypes) {
+		valueFormatters = createFormatters(columnNames, columnTypes, dateFormatter);
+	}
+
+	/**
+	 * Creates a new set of formatters for the columns. The formatters are not
+	 * thread safe, so every thread which formats values needs its own set.
+	 *
+	 * @param columnNames
+	 * @param columnTypes
+	 * @return the formatters of the columns
+	 */
+	protected IFormatter[] newFormatters(String[] columnNames, int[] columnTypes) {
+		DateFormatter defaultDateFormatter = isLocaleNeutral ? null
+				: createDateFormatter(dateFormat, this.locale, this.timeZone);
+		return createFormatters(columnNames, columnTypes, defaultDateFormatter);
+	}
+
+	private IFormatter[] createFormatters(String[] columnNames, int[] columnTypes, DateFormatter dateFormatter) {
 		int length = columnNames.length;
-		valueFormatters = new IFormatter[length];
+		IFormatter[] valueFormatters = new IFormatter[length];
 		String[] patterns = getPatterns(columnNames);
 		for (int i = 0; i < length; i++) {
 			boolean flag = isColumnLocaleNeutral(columnNames, i);
@@ -192,6 +210,7 @@ public class CommonDataExtractionImpl extends DataExtractionExtensionBase {
 				}
 			}
 		}
+		return valueFormatters;
 	}
 
 	private boolean isColumnLocaleNeutral(String[] columnNames, int colIndex) {
@@ -255,7 +274,20 @@ public class CommonDataExtractionImpl extends DataExtractionExtensionBase {
 	protected String getStringValue(IDataIterator dataIterator, String[] columnNames, int index) throws BirtException {
 		Object obj = dataIterator.getValue(columnNames[index]);
 
-		return obj != null ? valueFormatters[index].formatValue(obj) : null;
+		return formatValue(valueFormatters, index, obj);
+	}
+
+	/**
+	 * Returns the string value of an object with the formatter of its column.
+	 *
+	 * @param formatters the formatters from newFormatters()
+	 * @param index      the column index
+	 * @param value
+	 * @return string representation of the object, or null if it is null
+	 * @throws BirtException
+	 */
+	protected String formatValue(IFormatter[] formatters, int index, Object value) throws BirtException {
+		return value != null ? formatters[index].formatValue(value) : null;
 	}
 
 }
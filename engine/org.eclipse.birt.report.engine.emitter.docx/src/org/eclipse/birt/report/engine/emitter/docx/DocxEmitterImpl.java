@@ -60,7 +60,10 @@ public class DocxEmitterImpl extends AbstractEmitterImpl {
 			this.embedHtml = (Boolean) value;
 		}
 
-		wordWriter = new DocxWriter(out, tempFileDir, getCompressionMode(service).getValue(), getWordVersion());
+		DocxWriter docxWriter = new DocxWriter(out, tempFileDir, getCompressionMode(service).getValue(),
+				getWordVersion());
+		docxWriter.setMediaCompressionMode(getMediaCompressionMode(service).getValue());
+		wordWriter = docxWriter;
 	}
 
 	private CompressionMode getCompressionMode(IEmitterServices service) {
@@ -73,6 +76,16 @@ public class DocxEmitterImpl extends AbstractEmitterImpl {
 		return compressionMode;
 	}
 
+	private CompressionMode getMediaCompressionMode(IEmitterServices service) {
+		RenderOption renderOption = (RenderOption) service.getRenderOption();
+		CompressionMode compressionMode = CompressionMode.NO_COMPRESSION;
+		Object mode = renderOption.getOption(DocxRenderOption.OPTION_MEDIA_COMPRESSION_MODE);
+		if (mode instanceof CompressionMode) {
+			compressionMode = (CompressionMode) mode;
+		}
+		return compressionMode;
+	}
+
 	@Override
 	public String getOutputFormat() {
 		return OUTPUT_FORMAT;
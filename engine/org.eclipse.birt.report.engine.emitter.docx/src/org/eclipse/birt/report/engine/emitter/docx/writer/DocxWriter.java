@@ -53,6 +53,15 @@ public class DocxWriter implements IWordWriter {
 		this.wordVersion = wordVersion;
 	}
 
+	/**
+	 * Sets the compression level of the PNG, JPEG and GIF images.
+	 *
+	 * @param compressionMode
+	 */
+	public void setMediaCompressionMode(int compressionMode) {
+		pkg.setMediaCompressionLevel(compressionMode);
+	}
+
 	@Override
 	public void start(boolean rtl, String creator, String title, String description, String subject)
 			throws IOException {
@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter.pptx.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.eclipse.birt.report.engine.ooxml.Package;
+import org.eclipse.birt.report.engine.ooxml.writer.OOXmlWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the staging of the cached parts of an OOXML package.
+ */
+public class PackageTest {
+
+	private static final String TYPE = "application/xml"; //$NON-NLS-1$
+
+	private File tempDir;
+
+	@Before
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("ooxml").toFile(); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() {
+		File[] files = tempDir.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		tempDir.delete();
+	}
+
+	@Test
+	public void testSmallPartInMemory() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Package pkg = Package.createInstance(out, tempDir.getPath(), Deflater.DEFAULT_COMPRESSION);
+		byte[] data = createData(100);
+
+		OOXmlWriter writer = pkg.getPart("small.xml", TYPE, null).getCacheWriter(); //$NON-NLS-1$
+		writer.getOutputStream().write(data);
+		assertEquals(0, tempDir.list().length);
+		writer.close();
+		pkg.close();
+
+		assertEquals(0, tempDir.list().length);
+		assertArrayEquals(data, readEntries(out).get("small.xml")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testBigPartSpillsToDisk() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Package pkg = Package.createInstance(out, tempDir.getPath(), Deflater.DEFAULT_COMPRESSION);
+		byte[] data1 = createData(2 * 1024 * 1024);
+		byte[] data2 = createData(3 * 1024 * 1024);
+
+		OOXmlWriter writer1 = pkg.getPart("big1.xml", TYPE, null).getCacheWriter(); //$NON-NLS-1$
+		writer1.getOutputStream().write(data1);
+		assertEquals(1, tempDir.list().length);
+
+		// a closed part is copied into the package and its file deleted
+		writer1.close();
+		assertEquals(0, tempDir.list().length);
+
+		// a part still open is copied when the package is closed
+		OOXmlWriter writer2 = pkg.getPart("big2.xml", TYPE, null).getCacheWriter(); //$NON-NLS-1$
+		writer2.getOutputStream().write(data2);
+		assertEquals(1, tempDir.list().length);
+		pkg.close();
+
+		assertEquals(0, tempDir.list().length);
+		Map<String, byte[]> entries = readEntries(out);
+		assertArrayEquals(data1, entries.get("big1.xml")); //$NON-NLS-1$
+		assertArrayEquals(data2, entries.get("big2.xml")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testTempFileDeletedOnFailure() throws IOException {
+		OutputStream out = new OutputStream() {
+
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("disk full"); //$NON-NLS-1$
+			}
+		};
+		Package pkg = Package.createInstance(out, tempDir.getPath(), Deflater.DEFAULT_COMPRESSION);
+
+		OOXmlWriter writer = pkg.getPart("big.xml", TYPE, null).getCacheWriter(); //$NON-NLS-1$
+		writer.getOutputStream().write(createData(2 * 1024 * 1024));
+		assertEquals(1, tempDir.list().length);
+		try {
+			pkg.close();
+			fail();
+		} catch (IOException e) {
+			// expected
+		}
+
+		assertEquals(0, tempDir.list().length);
+	}
+
+	private byte[] createData(int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) ('a' + i % 26);
+		}
+		return data;
+	}
+
+	private Map<String, byte[]> readEntries(ByteArrayOutputStream out) throws IOException {
+		Map<String, byte[]> entries = new HashMap<>();
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			byte[] buffer = new byte[4096];
+			while ((entry = in.getNextEntry()) != null) {
+				ByteArrayOutputStream data = new ByteArrayOutputStream();
+				int length;
+				while ((length = in.read(buffer)) != -1) {
+					data.write(buffer, 0, length);
+				}
+				entries.put(entry.getName(), data.toByteArray());
+			}
+		}
+		return entries;
+	}
+}
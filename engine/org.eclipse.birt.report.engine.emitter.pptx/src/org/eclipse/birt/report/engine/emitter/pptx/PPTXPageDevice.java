@@ -18,6 +18,7 @@ import java.awt.Color;
 import java.io.OutputStream;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.report.engine.api.CompressionMode;
 import org.eclipse.birt.report.engine.emitter.pptx.writer.Presentation;
 import org.eclipse.birt.report.engine.layout.emitter.IPage;
 import org.eclipse.birt.report.engine.layout.emitter.IPageDevice;
@@ -29,7 +30,14 @@ public class PPTXPageDevice implements IPageDevice {
 
 	public PPTXPageDevice(OutputStream output, String title, String author, String description, String subject,
 			String tempFileDir, int compressionMode) {
+		this(output, title, author, description, subject, tempFileDir, compressionMode,
+				CompressionMode.NO_COMPRESSION.getValue());
+	}
+
+	public PPTXPageDevice(OutputStream output, String title, String author, String description, String subject,
+			String tempFileDir, int compressionMode, int mediaCompressionMode) {
 		presentation = new Presentation(output, tempFileDir, compressionMode);
+		presentation.setMediaCompressionMode(mediaCompressionMode);
 		presentation.setAuthor(author);
 		presentation.setTitle(title);
 		presentation.setDescription(description);
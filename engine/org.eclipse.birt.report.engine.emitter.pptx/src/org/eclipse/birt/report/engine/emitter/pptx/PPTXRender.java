@@ -106,8 +106,9 @@ public class PPTXRender extends PageDeviceRender {
 			IReportContext context, IReportContent report) throws Exception {
 		try {
 			int compressionMode = getCompressionMode(renderOption).getValue();
+			int mediaCompressionMode = getMediaCompressionMode(renderOption).getValue();
 			PPTXPageDevice pageDevice = new PPTXPageDevice(out, title, author, description, subject, tempFileDir,
-					compressionMode);
+					compressionMode, mediaCompressionMode);
 			isTextWrap = renderOption.getBooleanOption("pdfRenderOption.textWrapping", true);
 			return pageDevice;
 		} catch (Exception e) {
@@ -125,6 +126,15 @@ public class PPTXRender extends PageDeviceRender {
 		return compressionMode;
 	}
 
+	private CompressionMode getMediaCompressionMode(RenderOption renderOption) {
+		CompressionMode compressionMode = CompressionMode.NO_COMPRESSION;
+		Object mode = renderOption.getOption(DocxRenderOption.OPTION_MEDIA_COMPRESSION_MODE);
+		if (mode instanceof CompressionMode) {
+			compressionMode = (CompressionMode) mode;
+		}
+		return compressionMode;
+	}
+
 	/**
 	 * Returns the output format, always is "pptx".
 	 *
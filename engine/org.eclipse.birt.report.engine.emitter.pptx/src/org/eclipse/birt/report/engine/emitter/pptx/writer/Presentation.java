@@ -89,6 +89,15 @@ public class Presentation extends Component {
 		}
 	}
 
+	/**
+	 * Sets the compression level of the PNG, JPEG and GIF images.
+	 *
+	 * @param compressionMode
+	 */
+	public void setMediaCompressionMode(int compressionMode) {
+		pkg.setMediaCompressionLevel(compressionMode);
+	}
+
 	public SlideMaster getSlideMaster(String name) throws IOException {
 		return slideMasters.get(name);
 	}
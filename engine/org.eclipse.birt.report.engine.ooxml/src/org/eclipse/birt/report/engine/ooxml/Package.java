@@ -14,62 +14,95 @@
 
 package org.eclipse.birt.report.engine.ooxml;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
-import org.eclipse.birt.core.archive.compound.ArchiveFile;
-import org.eclipse.birt.core.archive.compound.ArchiveWriter;
 import org.eclipse.birt.report.engine.ooxml.constants.NameSpaces;
 import org.eclipse.birt.report.engine.ooxml.writer.OOXmlWriter;
 
+/**
+ * The package of an OOXML document, written as a zip stream. The parts written
+ * with an entry writer go straight into the zip stream, one at a time. The
+ * parts written with a cache writer may be written while another part is,
+ * so they are staged, in memory or in a temporary file if they are big, and
+ * copied into the zip stream as soon as they are closed and no entry writer is
+ * open.
+ */
 public class Package extends PartContainer {
 	private static Logger logger = Logger.getLogger(Package.class.getName());
 
+	// a staged part bigger than this is kept in a temporary file
+	private static final int MAX_MEMORY_STAGING_SIZE = 1024 * 1024;
+
+	// the media which are already compressed
+	private static final String[] COMPRESSED_MEDIA_EXTENSIONS = { ".png", ".jpg", ".jpeg", ".jpe", ".gif" };
+
 	private List<ContentType> contents = new ArrayList<>();
 
-	private String tempFileName;
-	private ArchiveWriter archiveWriter;
-	private ArchiveFile archive;
+	private String tempFileDir;
+
+	// the staged parts by uri, in the order they are created
+	private Map<String, StagingOutputStream> stagedParts = new LinkedHashMap<>();
+	// the uris of the staged parts copied into the zip stream
+	private Set<String> writtenParts = new HashSet<>();
 
 	private Object data;
 
 	private ZipOutputStream zipStream;
 
+	private int compressionLevel;
+	private int mediaCompressionLevel = Deflater.NO_COMPRESSION;
+
 	private boolean hasEntryWriter = false;
 
 	public static Package createInstance(OutputStream out, String tempFileDir, int compressionMode) {
-		try {
-			File tempFile = File.createTempFile("BIRT_OOXML_Temp_", "", new File(tempFileDir));
-			return new Package(tempFile.getAbsolutePath(), out, compressionMode);
-		} catch (IOException e) {
-			logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
-		}
-		return null;
+		return new Package(tempFileDir, out, compressionMode);
 	}
 
-	private Package(String tempFileName, OutputStream out, int compressionMode) throws IOException {
+	private Package(String tempFileDir, OutputStream out, int compressionMode) {
 		super("/");
 
-		this.tempFileName = tempFileName;
-		this.archive = new ArchiveFile(tempFileName, "rw");
-		this.archive.setCacheSize(4084);
-		this.archiveWriter = new ArchiveWriter(archive);
+		this.tempFileDir = tempFileDir;
 		zipStream = new ZipOutputStream(out);
+		compressionLevel = compressionMode;
 		zipStream.setLevel(compressionMode);
 		addContentType(MimeType.RELS);
 		addContentType(MimeType.XML);
 	}
 
+	/**
+	 * Sets the compression level of the media which are already compressed, PNG,
+	 * JPEG and GIF images, which gain next to nothing from being compressed again.
+	 * The default level is Deflater.NO_COMPRESSION.
+	 *
+	 * @param level
+	 */
+	public void setMediaCompressionLevel(int level) {
+		this.mediaCompressionLevel = level;
+	}
+
 	@Override
 	protected Package getPackage() {
 		return this;
@@ -80,8 +113,26 @@ public class Package extends PartContainer {
 		return uri;
 	}
 
+	/**
+	 * Opens the staged stream of a part. A part which is still staged is replaced,
+	 * but a part can't be opened again once it is copied into the zip stream,
+	 * which can't replace an entry. The emitters create each cached part once,
+	 * with a uri made unique by a counter, and open it once.
+	 *
+	 * @param uri the absolute uri of the part
+	 * @return the stream
+	 * @throws IOException if the part is already copied into the zip stream
+	 */
 	OutputStream getOutputStream(String uri) throws IOException {
-		return archiveWriter.getOutputStream(uri);
+		if (writtenParts.contains(uri)) {
+			throw new IOException("The part " + uri + " has already been written."); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		StagingOutputStream out = new StagingOutputStream(uri);
+		StagingOutputStream previous = stagedParts.put(uri, out);
+		if (previous != null) {
+			previous.delete();
+		}
+		return out;
 	}
 
 	OOXmlWriter getTempWriter(String uri) throws IOException {
@@ -97,10 +148,6 @@ public class Package extends PartContainer {
 		}
 	}
 
-	private InputStream getInputStream(String uri) throws IOException {
-		return archiveWriter.getInputStream(uri);
-	}
-
 	private void save() throws IOException {
 		try {
 			outputRelationships();
@@ -141,11 +188,40 @@ public class Package extends PartContainer {
 		if (!part.isCached()) {
 			return;
 		}
+		// the part is written here if it has not been closed
+		StagingOutputStream out = stagedParts.get(part.getAbsoluteUri().toString());
+		if (out != null) {
+			writeStagedPart(out);
+		}
+	}
+
+	/**
+	 * Copies the closed staged parts into the zip stream, if no entry writer is
+	 * open.
+	 *
+	 * @throws IOException
+	 */
+	private void writeClosedStagedParts() throws IOException {
+		if (hasEntryWriter) {
+			return;
+		}
+		Iterator<StagingOutputStream> it = new ArrayList<>(stagedParts.values()).iterator();
+		while (it.hasNext()) {
+			StagingOutputStream out = it.next();
+			if (out.closed) {
+				writeStagedPart(out);
+			}
+		}
+	}
+
+	private void writeStagedPart(StagingOutputStream out) throws IOException {
+		stagedParts.remove(out.uri);
+		writtenParts.add(out.uri);
 		InputStream inStream = null;
 		try {
-			String uri = part.getAbsoluteUri().toString();
-			inStream = getInputStream(uri);
-			zipStream.putNextEntry(new ZipEntry(uri.substring(1)));
+			inStream = out.getInputStream();
+			zipStream.setLevel(getCompressionLevel(out.uri));
+			zipStream.putNextEntry(new ZipEntry(out.uri.substring(1)));
 
 			int length = -1;
 			byte[] buff = new byte[4096];
@@ -157,9 +233,20 @@ public class Package extends PartContainer {
 			if (inStream != null) {
 				inStream.close();
 			}
+			out.delete();
 		}
 	}
 
+	private int getCompressionLevel(String entry) {
+		String name = entry.toLowerCase();
+		for (int i = 0; i < COMPRESSED_MEDIA_EXTENSIONS.length; i++) {
+			if (name.endsWith(COMPRESSED_MEDIA_EXTENSIONS[i])) {
+				return mediaCompressionLevel;
+			}
+		}
+		return compressionLevel;
+	}
+
 	private void outputContentTypes() throws IOException {
 		OOXmlWriter writer = getEntryWriter("/[Content_Types].xml");
 		writer.startWriter();
@@ -180,12 +267,14 @@ public class Package extends PartContainer {
 	}
 
 	public void close() throws IOException {
-		save();
-		archiveWriter.finish();
-		archive.close();
-		File file = new File(tempFileName);
-		if (file.exists() && file.isFile()) {
-			file.delete();
+		try {
+			save();
+		} finally {
+			// the parts which have not been written because of an error
+			for (StagingOutputStream out : stagedParts.values()) {
+				out.delete();
+			}
+			stagedParts.clear();
 		}
 	}
 
@@ -221,6 +310,7 @@ public class Package extends PartContainer {
 			}
 			hasEntryWriter = true;
 
+			zipStream.setLevel(getCompressionLevel(entry));
 			zipStream.putNextEntry(new ZipEntry(entry));
 		}
 
@@ -240,9 +330,90 @@ public class Package extends PartContainer {
 			try {
 				zipStream.flush();
 				zipStream.closeEntry();
+				writeClosedStagedParts();
 			} catch (IOException e) {
 				logger.log(Level.SEVERE, e.getLocalizedMessage(), e);
 			}
 		}
 	}
+
+	/**
+	 * The data of a staged part, in memory, or in a temporary file once it is
+	 * bigger than MAX_MEMORY_STAGING_SIZE.
+	 */
+	private class StagingOutputStream extends OutputStream {
+		private String uri;
+		private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		private File file;
+		private OutputStream fileStream;
+		private boolean closed;
+
+		StagingOutputStream(String uri) {
+			this.uri = uri;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (fileStream == null && buffer.size() + len > MAX_MEMORY_STAGING_SIZE) {
+				file = tempFileDir == null ? File.createTempFile("BIRT_OOXML_Temp_", "") //$NON-NLS-1$ //$NON-NLS-2$
+						: File.createTempFile("BIRT_OOXML_Temp_", "", new File(tempFileDir)); //$NON-NLS-1$ //$NON-NLS-2$
+				fileStream = new BufferedOutputStream(new FileOutputStream(file));
+				buffer.writeTo(fileStream);
+				buffer = null;
+			}
+			if (fileStream != null) {
+				fileStream.write(b, off, len);
+			} else {
+				buffer.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (fileStream != null) {
+				fileStream.flush();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (fileStream != null) {
+				fileStream.close();
+			}
+			// the stream may have been replaced, or written at the end of the package
+			if (stagedParts.get(uri) == this) {
+				writeClosedStagedParts();
+			}
+		}
+
+		InputStream getInputStream() throws IOException {
+			if (fileStream != null) {
+				fileStream.flush();
+				return new BufferedInputStream(new FileInputStream(file));
+			}
+			return new ByteArrayInputStream(buffer.toByteArray());
+		}
+
+		void delete() {
+			if (file != null) {
+				try {
+					fileStream.close();
+				} catch (IOException e) {
+					logger.log(Level.WARNING, e.getLocalizedMessage(), e);
+				}
+				file.delete();
+				file = null;
+			}
+			buffer = null;
+		}
+	}
 }
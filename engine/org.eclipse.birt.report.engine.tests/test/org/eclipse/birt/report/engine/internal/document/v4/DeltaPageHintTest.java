@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document.v4;
+
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.eclipse.birt.core.archive.FileArchiveReader;
+import org.eclipse.birt.core.archive.FileArchiveWriter;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.EngineCase;
+import org.eclipse.birt.report.engine.api.InstanceID;
+import org.eclipse.birt.report.engine.api.impl.ReportDocumentConstants;
+import org.eclipse.birt.report.engine.executor.PageVariable;
+import org.eclipse.birt.report.engine.internal.document.IPageHintReader;
+import org.eclipse.birt.report.engine.internal.document.v3.PageHintReaderV3;
+import org.eclipse.birt.report.engine.presentation.IPageHint;
+import org.eclipse.birt.report.engine.presentation.InstanceIndex;
+import org.eclipse.birt.report.engine.presentation.PageHint;
+import org.eclipse.birt.report.engine.presentation.PageSection;
+import org.eclipse.birt.report.engine.presentation.TableColumnHint;
+import org.eclipse.birt.report.engine.presentation.UnresolvedRowHint;
+
+public class DeltaPageHintTest extends EngineCase {
+
+	final static String REPORT_DOCUMENT_NAME = ".delta.pagehint.rptdocument";
+	final static int PAGE_COUNT = 200;
+
+	@Override
+	public void setUp() {
+		removeFile(REPORT_DOCUMENT_NAME);
+	}
+
+	@Override
+	public void tearDown() {
+		removeFile(REPORT_DOCUMENT_NAME);
+	}
+
+	public void testReadWrite() throws Exception {
+		FileArchiveWriter archive = new FileArchiveWriter(REPORT_DOCUMENT_NAME);
+		DataOutputStream pageIndex = new DataOutputStream(
+				archive.createRandomAccessStream(ReportDocumentConstants.PAGE_INDEX_STREAM));
+		IOUtil.writeString(pageIndex, "master");
+		IOUtil.writeLong(pageIndex, 100);
+		IOUtil.writeString(pageIndex, "landscape");
+		IOUtil.writeLong(pageIndex, 200);
+		pageIndex.close();
+		DeltaPageHintWriter hintWriter = new DeltaPageHintWriter(archive);
+		for (int i = 1; i <= PAGE_COUNT; i++) {
+			hintWriter.writePageHint(createPageHint(i));
+			if (i == 10) {
+				// the report variables of a check point
+				hintWriter.writePageVariables(createReportVariables(i));
+			}
+		}
+		hintWriter.writePageVariables(createReportVariables(PAGE_COUNT));
+		hintWriter.writeTotalPage(PAGE_COUNT);
+		hintWriter.close();
+		archive.finish();
+
+		FileArchiveReader reader = new FileArchiveReader(REPORT_DOCUMENT_NAME);
+		PageHintReaderV3 hintReader = new PageHintReaderV3(reader);
+		assertEquals(IPageHintReader.VERSION_7, hintReader.getVersion());
+		assertEquals(PAGE_COUNT, hintReader.getTotalPage());
+		Collection<PageVariable> variables = hintReader.getPageVariables();
+		assertEquals(1, variables.size());
+		assertEquals(Integer.valueOf(PAGE_COUNT), variables.iterator().next().getValue());
+
+		for (int i = 1; i <= PAGE_COUNT; i++) {
+			checkPageHint(createPageHint(i), hintReader.getPageHint(i));
+		}
+		int[] pages = { 150, 3, 64, 65, 66, 129, 200, 1, 128, 2 };
+		for (int i = 0; i < pages.length; i++) {
+			checkPageHint(createPageHint(pages[i]), hintReader.getPageHint(pages[i]));
+		}
+		hintReader.close();
+		reader.close();
+	}
+
+	protected PageHint createPageHint(long pageNumber) {
+		PageHint hint = new PageHint(pageNumber, pageNumber <= 100 ? "master" : "landscape");
+		PageSection section = new PageSection();
+		section.starts = new InstanceIndex[] { new InstanceIndex(InstanceID.parse("/1(QuRs0:0)"), 10),
+				new InstanceIndex(InstanceID.parse("/5(QuRs0/QuRs1:" + pageNumber * 20 + ")"), pageNumber * 1000) };
+		section.ends = new InstanceIndex[] { new InstanceIndex(InstanceID.parse("/1(QuRs0:0)"), 10),
+				new InstanceIndex(InstanceID.parse("/5(QuRs0/QuRs1:" + (pageNumber * 20 + 19) + ")"),
+						pageNumber * 1000 + 900) };
+		hint.addSection(section);
+		if (pageNumber % 3 != 0) {
+			UnresolvedRowHint rowHint = new UnresolvedRowHint("/3", "/7(QuRs0:" + pageNumber / 10 + ")");
+			rowHint.addUnresolvedCell("color: red", 2, 1, 3);
+			hint.addUnresolvedRowHint(rowHint);
+		}
+		hint.addTableColumnHint(new TableColumnHint("/3", 0, 4));
+		hint.addTableColumnHint(new TableColumnHint("/9", (int) pageNumber % 2, 2));
+		hint.getPageVariables().add(new PageVariable("row", PageVariable.SCOPE_PAGE, Long.valueOf(pageNumber)));
+		return hint;
+	}
+
+	protected Collection<PageVariable> createReportVariables(int pageCount) {
+		ArrayList<PageVariable> variables = new ArrayList<>();
+		variables.add(new PageVariable("pages", PageVariable.SCOPE_REPORT, Integer.valueOf(pageCount)));
+		return variables;
+	}
+
+	protected void checkPageHint(IPageHint expected, IPageHint hint) {
+		assertEquals(expected.getPageNumber(), hint.getPageNumber());
+		assertEquals(expected.getMasterPage(), hint.getMasterPage());
+		assertEquals(expected.getPageNumber() <= 100 ? 100 : 200, hint.getOffset());
+		assertEquals(expected.getSectionCount(), hint.getSectionCount());
+		for (int i = 0; i < expected.getSectionCount(); i++) {
+			checkInstanceIndex(expected.getSection(i).starts, hint.getSection(i).starts);
+			checkInstanceIndex(expected.getSection(i).ends, hint.getSection(i).ends);
+			assertEquals(expected.getSection(i).ends[1].getOffset(), hint.getSectionEnd(i));
+		}
+		assertEquals(expected.getUnresolvedRowCount(), hint.getUnresolvedRowCount());
+		for (int i = 0; i < expected.getUnresolvedRowCount(); i++) {
+			UnresolvedRowHint rowHint = hint.getUnresolvedRowHint(i);
+			assertEquals(expected.getUnresolvedRowHint(i).getTableId(), rowHint.getTableId());
+			assertEquals(expected.getUnresolvedRowHint(i).getRowId(), rowHint.getRowId());
+		}
+		assertEquals(expected.getTableColumnHintCount(), hint.getTableColumnHintCount());
+		for (int i = 0; i < expected.getTableColumnHintCount(); i++) {
+			assertEquals(expected.getTableColumnHint(i).toString(), hint.getTableColumnHint(i).toString());
+		}
+		Iterator<PageVariable> variables = hint.getPageVariables().iterator();
+		for (PageVariable variable : expected.getPageVariables()) {
+			PageVariable value = variables.next();
+			assertEquals(variable.getName(), value.getName());
+			assertEquals(variable.getValue(), value.getValue());
+		}
+		assertFalse(variables.hasNext());
+	}
+
+	protected void checkInstanceIndex(InstanceIndex[] expected, InstanceIndex[] indexes) {
+		assertEquals(expected.length, indexes.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getInstanceID().toString(), indexes[i].getInstanceID().toString());
+			assertEquals(expected[i].getOffset(), indexes[i].getOffset());
+		}
+	}
+}
@@ -14,8 +14,12 @@
 
 package org.eclipse.birt.report.engine.toc;
 
+import java.io.File;
 import java.io.IOException;
 
+import org.eclipse.birt.core.archive.compound.ArchiveFile;
+import org.eclipse.birt.core.archive.compound.ArchiveReader;
+import org.eclipse.birt.core.archive.compound.ArchiveWriter;
 import org.eclipse.birt.report.engine.api.EngineException;
 import org.eclipse.birt.report.engine.api.TOCNode;
 
@@ -24,11 +28,62 @@ import com.ibm.icu.util.ULocale;
 
 public class TOCViewTest extends TOCTestCase {
 
+	static final String TOC_FILE = "./utest/index.toc";
+
 	public void testTocFind() throws Exception {
 		ITreeNode tree = createTocNormal();
 		TOCView view = new TOCView(tree, null, ULocale.ENGLISH, TimeZone.getTimeZone("GMT+08:00"), "html");
 
 		checkTocNode(view, "/", null, 3);
+		checkTocFind(view);
+		assertTrue(view.findTOC("__TOC_3") == null);
+		assertEquals("__TOC_1_0", view.findTOCByBookmark("__TOC_1_0").getNodeID());
+	}
+
+	public void testTocFindWithIndex() throws Exception {
+		new File(TOC_FILE).delete();
+		ArchiveFile archive = new ArchiveFile(TOC_FILE, "rw");
+		try {
+			ITOCWriter writer = new TOCWriter(new ArchiveWriter(archive));
+			try {
+				TOCBuilder builder = new TOCBuilder(writer);
+				createTocNormal(builder);
+				TOCEntry footer = builder.startEntry(null, "footer", "footer", -1);
+				closeEntry(builder, footer);
+				TOCEntry hidden = startEntry(builder, null, "hidden", "html");
+				createEntry(builder, hidden, "hidden detail");
+				closeEntry(builder, hidden);
+			} finally {
+				writer.close();
+			}
+
+			TOCReader reader = new TOCReader(new ArchiveReader(archive), ClassLoader.getSystemClassLoader());
+			try {
+				ITreeNode tree = reader.readTree();
+				assertTrue(tree instanceof ITOCIndex);
+				TOCView view = new TOCView(tree, null, ULocale.ENGLISH, TimeZone.getTimeZone("GMT+08:00"), "html");
+
+				checkTocNode(view, "/", null, 4);
+				checkTocFind(view);
+				checkTocNode(view, "__TOC_3", "footer", 0);
+				assertTrue(view.findTOC("__TOC_4") == null);
+				assertTrue(view.findTOC("__TOC_4_0") == null);
+				assertTrue(view.findTOC("__TOC_5") == null);
+				assertEquals(2, view.findTOC("__TOC_1_1_1").getParent().getParent().getChildren().size());
+
+				assertEquals("__TOC_3", view.findTOCByBookmark("footer").getNodeID());
+				assertEquals("__TOC_1_0", view.findTOCByBookmark("__TOC_1_0").getNodeID());
+				assertTrue(view.findTOCByBookmark("__TOC_3") == null);
+				assertTrue(view.findTOCByBookmark("__TOC_4_0") == null);
+			} finally {
+				reader.close();
+			}
+		} finally {
+			archive.close();
+		}
+	}
+
+	void checkTocFind(TOCView view) {
 		checkTocNode(view, "__TOC_0", "report header", 0);
 		checkTocNode(view, "__TOC_1", "table", 2);
 		checkTocNode(view, "__TOC_1_0", "group 1", 2);
@@ -42,7 +97,6 @@ public class TOCViewTest extends TOCTestCase {
 		assertTrue(view.findTOC("__TOC_0_0") == null);
 		assertTrue(view.findTOC("__TOC_1_1_2") == null);
 		assertTrue(view.findTOC("__TOC_1_1_1_0") == null);
-		assertTrue(view.findTOC("__TOC_3") == null);
 	}
 
 	void checkTocNode(TOCView view, String id, String label, int children) {
@@ -76,6 +130,11 @@ public class TOCViewTest extends TOCTestCase {
 
 	protected ITreeNode createTocNormal() {
 		TOCBuilder builder = new TOCBuilder();
+		createTocNormal(builder);
+		return builder.getTOCTree();
+	}
+
+	protected void createTocNormal(TOCBuilder builder) {
 		{
 			createEntry(builder, null, "report header");
 
@@ -96,6 +155,7 @@ public class TOCViewTest extends TOCTestCase {
 				}
 				closeEntry(builder, group2);
 			}
+			closeEntry(builder, table);
 
 			// dummy container
 			TOCEntry dummyGird = startDummyEntry(builder, null, "pdf");
@@ -105,7 +165,6 @@ public class TOCViewTest extends TOCTestCase {
 			}
 			closeEntry(builder, dummyGird);
 		}
-		return builder.getTOCTree();
 	}
 
 	public void testTocViewWithFormat() throws EngineException, IOException {
@@ -22,6 +22,12 @@ public class DocxRenderOption extends RenderOption {
 
 	public static final String OPTION_WORD_VERSION = "WordVersion";
 
+	/**
+	 * The compression mode of the PNG, JPEG and GIF images, which are already
+	 * compressed. NO_COMPRESSION by default.
+	 */
+	public static final String OPTION_MEDIA_COMPRESSION_MODE = "MediaCompressionMode"; //$NON-NLS-1$
+
 	@SuppressWarnings("unchecked")
 	public void setCompressionMode(CompressionMode compressionMode) {
 		options.put(OPTION_COMPRESSION_MODE, compressionMode);
@@ -34,4 +40,17 @@ public class DocxRenderOption extends RenderOption {
 		}
 		return CompressionMode.BEST_COMPRESSION;
 	}
+
+	@SuppressWarnings("unchecked")
+	public void setMediaCompressionMode(CompressionMode compressionMode) {
+		options.put(OPTION_MEDIA_COMPRESSION_MODE, compressionMode);
+	}
+
+	public CompressionMode getMediaCompressionMode() {
+		Object mode = options.get(OPTION_MEDIA_COMPRESSION_MODE);
+		if (mode instanceof CompressionMode) {
+			return (CompressionMode) mode;
+		}
+		return CompressionMode.NO_COMPRESSION;
+	}
 }
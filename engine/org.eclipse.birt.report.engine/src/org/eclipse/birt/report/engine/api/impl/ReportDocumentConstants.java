@@ -48,6 +48,16 @@ public interface ReportDocumentConstants {
 	 * document has only one TOC stream (it isn't changed with the layout).
 	 */
 	String TOC_STREAM = "/toc"; //$NON-NLS-1$
+	/**
+	 * index of the toc nodes, save node id and offset of each node in the toc
+	 * stream.
+	 */
+	String TOC_ID_INDEX_STREAM = "/tocIds"; //$NON-NLS-1$
+	/**
+	 * index of the toc nodes, save bookmark and offset of the nodes whose bookmark
+	 * isn't the node id.
+	 */
+	String TOC_BOOKMARK_INDEX_STREAM = "/tocBookmarks"; //$NON-NLS-1$
 	/**
 	 * content saved in the folder
 	 *
@@ -1150,7 +1150,7 @@ public class ReportDocumentReader implements IReportletDocument, ReportDocumentC
 				}
 			} else if (version == IPageHintReader.VERSION_2 || version == IPageHintReader.VERSION_3
 					|| version == IPageHintReader.VERSION_4 || version == IPageHintReader.VERSION_5
-					|| version == IPageHintReader.VERSION_6) {
+					|| version == IPageHintReader.VERSION_6 || version == IPageHintReader.VERSION_7) {
 				long totalPage = pageHintReader.getTotalPage();
 				for (long pageNumber = 1; pageNumber <= totalPage; pageNumber++) {
 					IPageHint hint = pageHintReader.getPageHint(pageNumber);
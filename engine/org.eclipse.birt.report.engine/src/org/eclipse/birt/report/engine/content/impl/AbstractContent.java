@@ -645,8 +645,7 @@ abstract public class AbstractContent extends AbstractElement implements IConten
 			IOUtil.writeObject(out, acl);
 		}
 		if (userProperties != null && userProperties.size() > 0) {
-			Map<String, Object> copy = new HashMap<>(userProperties);
-			removeConstant(copy);
+			Map<String, Object> copy = removeConstant(userProperties);
 			if (copy.size() > 0) {
 				IOUtil.writeShort(out, FIELD_USER_PROPERTIES);
 				IOUtil.writeMap(out, copy);
@@ -659,11 +658,14 @@ abstract public class AbstractContent extends AbstractElement implements IConten
 	}
 
 	/**
-	 * remove the constant in userProperties
+	 * remove the constant in userProperties. The map is copied only if it has
+	 * some constants.
 	 *
 	 * @param userProperties
+	 * @return the user properties which are not constants
 	 */
-	private void removeConstant(Map<String, Object> userProperties) {
+	private Map<String, Object> removeConstant(Map<String, Object> userProperties) {
+		Map<String, Object> result = userProperties;
 		Object object = getGenerateBy();
 		if (object instanceof ReportElementDesign) {
 			ReportElementDesign design = (ReportElementDesign) object;
@@ -672,12 +674,16 @@ abstract public class AbstractContent extends AbstractElement implements IConten
 				for (Map.Entry<String, Expression> entry : exprs.entrySet()) {
 					String name = entry.getKey();
 					Expression expr = entry.getValue();
-					if (expr != null && expr.getType() == Expression.CONSTANT) {
-						userProperties.remove(name);
+					if (expr != null && expr.getType() == Expression.CONSTANT && result.containsKey(name)) {
+						if (result == userProperties) {
+							result = new HashMap<>(userProperties);
+						}
+						result.remove(name);
 					}
 				}
 			}
 		}
+		return result;
 	}
 
 	@SuppressWarnings("unchecked")
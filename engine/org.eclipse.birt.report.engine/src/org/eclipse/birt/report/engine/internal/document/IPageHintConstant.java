@@ -53,8 +53,14 @@ public interface IPageHintConstant {
 	 * used after 2.5.0RC1 release, add page variable support
 	 */
 	int VERSION_6 = 6;
+
+	/**
+	 * the page hints are saved as the changes to the previous page, with a
+	 * checkpoint index.
+	 */
+	int VERSION_7 = 7;
 	/**
-	 * the current release is version 5.
+	 * the current release is version 7.
 	 */
-	int VERSION = VERSION_6;
+	int VERSION = VERSION_7;
 }
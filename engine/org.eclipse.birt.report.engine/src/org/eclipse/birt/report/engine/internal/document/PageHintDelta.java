@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.api.InstanceID;
+import org.eclipse.birt.report.engine.presentation.IPageHint;
+import org.eclipse.birt.report.engine.presentation.InstanceIndex;
+import org.eclipse.birt.report.engine.presentation.PageHint;
+import org.eclipse.birt.report.engine.presentation.PageSection;
+import org.eclipse.birt.report.engine.presentation.TableColumnHint;
+import org.eclipse.birt.report.engine.presentation.UnresolvedRowHint;
+
+/**
+ * The state of the delta encoding of the page hints in VERSION_7.
+ *
+ * A page hint is saved as the changes to the hint of the previous page: the
+ * master page is saved only if it changes, an instance id is saved as the
+ * length of the prefix it shares with the id at the same position in the
+ * previous page and the remaining characters, and an unresolved row hint or a
+ * table column hint is saved only if it differs from the one at the same
+ * position in the previous page. The state is reset at every checkpoint page,
+ * so a page can be decoded from its checkpoint.
+ */
+public class PageHintDelta {
+
+	/**
+	 * the number of pages between two checkpoints.
+	 */
+	public static final int CHECKPOINT_INTERVAL = 64;
+
+	private String masterPage;
+	private List<String> instanceIds = new ArrayList<>();
+	private List<byte[]> rowHints = new ArrayList<>();
+	private List<TableColumnHint> columnHints = new ArrayList<>();
+
+	private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private DataOutputStream bufferStream = new DataOutputStream(buffer);
+
+	/**
+	 * the page hint is a checkpoint if it is the first one of its interval.
+	 *
+	 * @param pageNumber
+	 * @param interval
+	 * @return
+	 */
+	public static boolean isCheckpoint(long pageNumber, int interval) {
+		return (pageNumber - 1) % interval == 0;
+	}
+
+	/**
+	 * forget the previous page, the next hint is saved in full.
+	 */
+	public void reset() {
+		masterPage = null;
+		instanceIds.clear();
+		rowHints.clear();
+		columnHints.clear();
+	}
+
+	public void write(DataOutputStream out, IPageHint hint) throws IOException {
+		String master = hint.getMasterPage();
+		boolean sameMasterPage = master != null && master.equals(masterPage);
+		IOUtil.writeBool(out, sameMasterPage);
+		if (!sameMasterPage) {
+			IOUtil.writeString(out, master);
+		}
+		masterPage = master;
+
+		List<String> ids = new ArrayList<>();
+		int sectionCount = hint.getSectionCount();
+		IOUtil.writeInt(out, sectionCount);
+		for (int i = 0; i < sectionCount; i++) {
+			PageSection section = hint.getSection(i);
+			writeInstanceIndex(out, section.starts, ids);
+			writeInstanceIndex(out, section.ends, ids);
+		}
+		instanceIds = ids;
+
+		List<byte[]> hints = new ArrayList<>();
+		int hintSize = hint.getUnresolvedRowCount();
+		IOUtil.writeInt(out, hintSize);
+		for (int i = 0; i < hintSize; i++) {
+			buffer.reset();
+			hint.getUnresolvedRowHint(i).writeObject(bufferStream);
+			bufferStream.flush();
+			byte[] bytes = buffer.toByteArray();
+			boolean same = i < rowHints.size() && Arrays.equals(bytes, rowHints.get(i));
+			IOUtil.writeBool(out, same);
+			if (!same) {
+				IOUtil.writeBytes(out, bytes);
+			}
+			hints.add(bytes);
+		}
+		rowHints = hints;
+
+		List<TableColumnHint> columns = new ArrayList<>();
+		int columnHintSize = hint.getTableColumnHintCount();
+		IOUtil.writeInt(out, columnHintSize);
+		for (int i = 0; i < columnHintSize; i++) {
+			TableColumnHint columnHint = hint.getTableColumnHint(i);
+			boolean same = i < columnHints.size() && equals(columnHint, columnHints.get(i));
+			IOUtil.writeBool(out, same);
+			if (!same) {
+				IOUtil.writeString(out, columnHint.getTableId());
+				IOUtil.writeInt(out, columnHint.getStart());
+				IOUtil.writeInt(out, columnHint.getColumnCount());
+			}
+			columns.add(columnHint);
+		}
+		columnHints = columns;
+	}
+
+	public PageHint read(DataInputStream in, long pageNumber) throws IOException {
+		boolean sameMasterPage = IOUtil.readBool(in);
+		if (!sameMasterPage) {
+			masterPage = IOUtil.readString(in);
+		}
+		PageHint hint = new PageHint(pageNumber, masterPage);
+
+		List<String> ids = new ArrayList<>();
+		int sectionCount = IOUtil.readInt(in);
+		for (int i = 0; i < sectionCount; i++) {
+			PageSection section = new PageSection();
+			section.starts = readInstanceIndex(in, ids);
+			section.ends = readInstanceIndex(in, ids);
+			section.startOffset = section.starts[section.starts.length - 1].getOffset();
+			section.endOffset = section.ends[section.ends.length - 1].getOffset();
+			hint.addSection(section);
+		}
+		instanceIds = ids;
+
+		List<byte[]> hints = new ArrayList<>();
+		int hintSize = IOUtil.readInt(in);
+		for (int i = 0; i < hintSize; i++) {
+			boolean same = IOUtil.readBool(in);
+			byte[] bytes = same ? rowHints.get(i) : IOUtil.readBytes(in);
+			UnresolvedRowHint rowHint = new UnresolvedRowHint();
+			rowHint.readObject(new DataInputStream(new ByteArrayInputStream(bytes)));
+			hint.addUnresolvedRowHint(rowHint);
+			hints.add(bytes);
+		}
+		rowHints = hints;
+
+		List<TableColumnHint> columns = new ArrayList<>();
+		int columnHintSize = IOUtil.readInt(in);
+		for (int i = 0; i < columnHintSize; i++) {
+			boolean same = IOUtil.readBool(in);
+			TableColumnHint columnHint;
+			if (same) {
+				columnHint = columnHints.get(i);
+			} else {
+				String tableId = IOUtil.readString(in);
+				int start = IOUtil.readInt(in);
+				int columnCount = IOUtil.readInt(in);
+				columnHint = new TableColumnHint(tableId, start, columnCount);
+			}
+			hint.addTableColumnHint(columnHint);
+			columns.add(columnHint);
+		}
+		columnHints = columns;
+		return hint;
+	}
+
+	private void writeInstanceIndex(DataOutputStream out, InstanceIndex[] indexes, List<String> ids)
+			throws IOException {
+		if (indexes == null) {
+			IOUtil.writeInt(out, 0);
+			return;
+		}
+		IOUtil.writeInt(out, indexes.length);
+		for (int i = 0; i < indexes.length; i++) {
+			String id = indexes[i].getInstanceID().toString();
+			int prefix = getCommonPrefix(ids.size(), id);
+			IOUtil.writeInt(out, prefix);
+			IOUtil.writeString(out, id.substring(prefix));
+			IOUtil.writeLong(out, indexes[i].getOffset());
+			ids.add(id);
+		}
+	}
+
+	private InstanceIndex[] readInstanceIndex(DataInputStream in, List<String> ids) throws IOException {
+		int length = IOUtil.readInt(in);
+		InstanceIndex[] indexes = new InstanceIndex[length];
+		for (int i = 0; i < length; i++) {
+			int prefix = IOUtil.readInt(in);
+			String suffix = IOUtil.readString(in);
+			String id = prefix == 0 ? suffix : instanceIds.get(ids.size()).substring(0, prefix) + suffix;
+			long offset = IOUtil.readLong(in);
+			indexes[i] = new InstanceIndex(InstanceID.parse(id), offset);
+			ids.add(id);
+		}
+		return indexes;
+	}
+
+	/**
+	 * return the length of the prefix the id shares with the id at the same
+	 * position in the previous page.
+	 */
+	private int getCommonPrefix(int position, String id) {
+		if (position >= instanceIds.size()) {
+			return 0;
+		}
+		String previous = instanceIds.get(position);
+		int length = Math.min(previous.length(), id.length());
+		int prefix = 0;
+		while (prefix < length && previous.charAt(prefix) == id.charAt(prefix)) {
+			prefix++;
+		}
+		return prefix;
+	}
+
+	private boolean equals(TableColumnHint hint, TableColumnHint previous) {
+		return hint.getStart() == previous.getStart() && hint.getColumnCount() == previous.getColumnCount()
+				&& (hint.getTableId() == null ? previous.getTableId() == null
+						: hint.getTableId().equals(previous.getTableId()));
+	}
+}
@@ -27,6 +27,7 @@ import org.eclipse.birt.report.engine.api.impl.ReportDocumentConstants;
 import org.eclipse.birt.report.engine.executor.PageVariable;
 import org.eclipse.birt.report.engine.internal.document.IPageHintReader;
 import org.eclipse.birt.report.engine.internal.document.IPageHintWriter;
+import org.eclipse.birt.report.engine.internal.document.PageHintDelta;
 import org.eclipse.birt.report.engine.internal.document.PageIndexReader;
 import org.eclipse.birt.report.engine.presentation.IPageHint;
 import org.eclipse.birt.report.engine.presentation.InstanceIndex;
@@ -143,6 +144,12 @@ import org.eclipse.birt.report.engine.presentation.UnresolvedRowHint;
  * <td>
  * </tr>
  * </table>
+ *
+ * <h3>Format of VERSION_7</h3>
+ *
+ * The page hints are saved as the changes to the previous page, see
+ * DeltaPageHintWriter. The index stream only has the offsets of the checkpoint
+ * pages, a page is decoded from its checkpoint.
  */
 public class PageHintReaderV3 implements IPageHintReader {
 
@@ -154,6 +161,15 @@ public class PageHintReaderV3 implements IPageHintReader {
 	protected ArrayList<PageVariable> pageVariables;
 	protected int version;
 
+	/**
+	 * the state of the delta decoding in VERSION_7, which is kept so that the
+	 * next page can be read without going back to its checkpoint.
+	 */
+	protected int checkpointInterval;
+	protected PageHintDelta delta;
+	protected long nextPage;
+	protected long nextOffset;
+
 	public PageHintReaderV3(IDocArchiveReader reader) throws IOException {
 		this.reader = reader;
 		try {
@@ -161,9 +177,13 @@ public class PageHintReaderV3 implements IPageHintReader {
 			indexStream = reader.getStream(ReportDocumentConstants.PAGEHINT_INDEX_STREAM);
 			pageIndexReader = new PageIndexReader(reader);
 			version = readHintVersion(hintsStream);
-			if (version != VERSION_3 && version != VERSION_4 && version != VERSION_5 && version != VERSION_6) {
+			if (version != VERSION_3 && version != VERSION_4 && version != VERSION_5 && version != VERSION_6
+					&& version != VERSION_7) {
 				throw new IOException("unsupported hint version:" + version);
 			}
+			if (version == VERSION_7) {
+				checkpointInterval = hintsStream.readInt();
+			}
 		} catch (IOException ex) {
 			close();
 			throw ex;
@@ -213,13 +233,13 @@ public class PageHintReaderV3 implements IPageHintReader {
 	}
 
 	/**
-	 * The page variable is only supported in VERSION_6
+	 * The page variable is only supported after (include) VERSION_6
 	 */
 	@Override
 	synchronized public Collection<PageVariable> getPageVariables() throws IOException {
 		if (pageVariables == null) {
 			pageVariables = new ArrayList<>();
-			if (version == VERSION_6) {
+			if (version == VERSION_6 || version == VERSION_7) {
 				indexStream.seek(8);
 				long offset = indexStream.readLong();
 				if (offset != -1) {
@@ -260,6 +280,9 @@ public class PageHintReaderV3 implements IPageHintReader {
 
 	@Override
 	synchronized public IPageHint getPageHint(long pageNumber) throws IOException {
+		if (version == VERSION_7) {
+			return readDeltaPageHint(pageNumber);
+		}
 		long indexOffset = getHintOffset(pageNumber);
 		indexStream.seek(indexOffset);
 		long offset = indexStream.readLong();
@@ -267,6 +290,53 @@ public class PageHintReaderV3 implements IPageHintReader {
 		return readPageHint(version, new DataInputStream(hintsStream));
 	}
 
+	/**
+	 * read the page hint of VERSION_7. The records are decoded from the checkpoint
+	 * of the page, or from the last read page if the page follows it in the same
+	 * interval.
+	 */
+	private IPageHint readDeltaPageHint(long pageNumber) throws IOException {
+		if (delta == null || pageNumber < nextPage || pageNumber - nextPage >= checkpointInterval) {
+			long checkpoint = (pageNumber - 1) / checkpointInterval;
+			indexStream.seek(16 + checkpoint * 8);
+			nextOffset = indexStream.readLong();
+			nextPage = checkpoint * checkpointInterval + 1;
+			delta = new PageHintDelta();
+		}
+		try {
+			hintsStream.seek(nextOffset);
+			DataInputStream in = new DataInputStream(hintsStream);
+			while (true) {
+				long number = IOUtil.readLong(in);
+				int length = IOUtil.readInt(in);
+				if (number == 0) {
+					// the report level page variables
+					hintsStream.seek(hintsStream.getOffset() + length);
+					continue;
+				}
+				if (PageHintDelta.isCheckpoint(number, checkpointInterval)) {
+					delta.reset();
+				}
+				PageHint hint = readPageHintV7(number, in);
+				if (number == pageNumber) {
+					nextPage = number + 1;
+					nextOffset = hintsStream.getOffset();
+					return hint;
+				}
+			}
+		} catch (IOException ex) {
+			delta = null;
+			throw ex;
+		}
+	}
+
+	public PageHint readPageHintV7(long pageNumber, DataInputStream in) throws IOException {
+		PageHint hint = delta.read(in, pageNumber);
+		hint.setOffset(pageIndexReader.getPageOffset(hint.getMasterPage()));
+		readPageVariables(in, hint.getPageVariables());
+		return hint;
+	}
+
 	protected IPageHint readPageHint(int version, DataInputStream in) throws IOException {
 		switch (version) {
 		case IPageHintWriter.VERSION_4:
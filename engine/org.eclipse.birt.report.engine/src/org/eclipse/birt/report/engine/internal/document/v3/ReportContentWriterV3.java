@@ -85,7 +85,7 @@ public class ReportContentWriterV3 implements IReportContentWriter {
 	/**
 	 * buffer used to save the report content.
 	 */
-	private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private ContentBuffer buffer = new ContentBuffer();
 	/**
 	 * data output stream used to save the report content.
 	 */
@@ -105,20 +105,19 @@ public class ReportContentWriterV3 implements IReportContentWriter {
 	 */
 	@Override
 	public long writeContent(IContent content) throws IOException {
-		// write the index into the stream
+		long index = cntOffset;
+		// the index of the content is written into the buffer
+		buffer.reset();
 		updateIndex(content);
 
-		// get the byte[] of the content
-		buffer.reset();
+		// write the content out as: length, data
+		IOUtil.writeInt(bufferStream, 0);
 		IOUtil.writeInt(bufferStream, content.getContentType());
 		content.writeContent(bufferStream);
 		bufferStream.flush();
-		byte[] values = buffer.toByteArray();
-		// write the content out as: length, data
-		cntStream.seek(cntOffset + VERSION_SIZE);
-		cntStream.writeInt(values.length);
-		cntStream.write(values);
-		cntOffset = cntOffset + 4 + values.length;
+		cntStream.seek(index + VERSION_SIZE);
+		buffer.writeTo(cntStream, INDEX_ENTRY_SIZE);
+		cntOffset = index + buffer.size();
 
 		DocumentExtension docExt = (DocumentExtension) content.getExtension(IContent.DOCUMENT_EXTENSION);
 		if (docExt != null) {
@@ -134,17 +133,15 @@ public class ReportContentWriterV3 implements IReportContentWriter {
 		cntStream.writeLong(-1); // first child
 		cntOffset += INDEX_ENTRY_SIZE;
 
-		// get the byte[] of the content
+		// write the content out as: length, data
 		buffer.reset();
+		IOUtil.writeInt(bufferStream, 0);
 		IOUtil.writeInt(bufferStream, IContent.REPORT_CONTENT);
 		report.writeContent(bufferStream);
 		bufferStream.flush();
-		byte[] values = buffer.toByteArray();
-		// write the content out as: length, data
 		cntStream.seek(cntOffset + VERSION_SIZE);
-		cntStream.writeInt(values.length);
-		cntStream.write(values);
-		cntOffset = cntOffset + 4 + values.length;
+		buffer.writeTo(cntStream, 0);
+		cntOffset = cntOffset + buffer.size();
 
 		return cntOffset;
 	}
@@ -190,7 +187,8 @@ public class ReportContentWriterV3 implements IReportContentWriter {
 	 * There is a content start from the offset, which parent start from the
 	 * parentOffset.
 	 *
-	 * update the index for that object.
+	 * update the index for that object. The index entry of the object is written
+	 * into the buffer, so that it is saved with the object.
 	 *
 	 * @param parentOffset
 	 * @param offset
@@ -221,11 +219,9 @@ public class ReportContentWriterV3 implements IReportContentWriter {
 			rootOffset = index;
 		}
 
-		cntStream.seek(VERSION_SIZE + index);
-		cntStream.writeLong(docExt.getParent()); // parent
-		cntStream.writeLong(docExt.getNext()); // next
-		cntStream.writeLong(-1); // first child
-		cntOffset += INDEX_ENTRY_SIZE;
+		IOUtil.writeLong(bufferStream, docExt.getParent()); // parent
+		IOUtil.writeLong(bufferStream, docExt.getNext()); // next
+		IOUtil.writeLong(bufferStream, -1); // first child
 
 		// update the links refer to this content
 		if (previous == -1) {
@@ -241,4 +237,27 @@ public class ReportContentWriterV3 implements IReportContentWriter {
 			cntStream.writeLong(index);
 		}
 	}
+
+	/**
+	 * buffer which writes its bytes into the stream without copying them.
+	 */
+	private static class ContentBuffer extends ByteArrayOutputStream {
+
+		/**
+		 * write the bytes into the stream, after setting the length of the bytes
+		 * following the length field.
+		 *
+		 * @param out         the stream
+		 * @param lengthIndex the position of the length field in the buffer
+		 * @throws IOException
+		 */
+		void writeTo(RAOutputStream out, int lengthIndex) throws IOException {
+			int length = count - lengthIndex - 4;
+			buf[lengthIndex] = (byte) (length >>> 24);
+			buf[lengthIndex + 1] = (byte) (length >>> 16);
+			buf[lengthIndex + 2] = (byte) (length >>> 8);
+			buf[lengthIndex + 3] = (byte) length;
+			out.write(buf, 0, count);
+		}
+	}
 }
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document.v4;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.eclipse.birt.core.archive.IDocArchiveWriter;
+import org.eclipse.birt.report.engine.api.impl.ReportDocumentConstants;
+import org.eclipse.birt.report.engine.executor.PageVariable;
+import org.eclipse.birt.report.engine.internal.document.IPageHintWriter;
+import org.eclipse.birt.report.engine.internal.document.PageHintDelta;
+import org.eclipse.birt.report.engine.presentation.IPageHint;
+
+/**
+ * Writes the page hints in VERSION_7.
+ *
+ * The hint stream starts with the version and the checkpoint interval. Every
+ * page hint is saved as a record of the page number, the length of the data
+ * and the data, which is the page hint encoded by PageHintDelta followed by the
+ * page variables. The report level page variables are saved as a record with
+ * the page number 0.
+ *
+ * The index stream has the total page, the offset of the report level page
+ * variables and the offset of the record of every checkpoint page, so reading a
+ * page seeks to its checkpoint and decodes at most CHECKPOINT_INTERVAL records
+ * from there.
+ */
+public class DeltaPageHintWriter extends PageHintWriterV4 {
+
+	private PageHintDelta delta = new PageHintDelta();
+	private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+	private DataOutputStream bufferStream = new DataOutputStream(buffer);
+
+	public DeltaPageHintWriter(IDocArchiveWriter writer) throws IOException {
+		super(writer);
+	}
+
+	@Override
+	protected void init(IDocArchiveWriter writer) throws IOException {
+		this.writer = writer;
+		try {
+			hintsStream = writer.createRandomAccessStream(ReportDocumentConstants.PAGEHINT_STREAM);
+			hintsStream.writeInt(IPageHintWriter.VERSION_7);
+			hintsStream.writeInt(PageHintDelta.CHECKPOINT_INTERVAL);
+			indexStream = writer.createRandomAccessStream(ReportDocumentConstants.PAGEHINT_INDEX_STREAM);
+			indexStream.writeLong(0); // total page
+			indexStream.writeLong(-1);// global variable offset
+		} catch (IOException ex) {
+			close();
+			throw ex;
+		}
+	}
+
+	@Override
+	public void writePageHint(IPageHint pageHint) throws IOException {
+		long pageNumber = pageHint.getPageNumber();
+		if (PageHintDelta.isCheckpoint(pageNumber, PageHintDelta.CHECKPOINT_INTERVAL)) {
+			delta.reset();
+			indexStream.seek(16 + (pageNumber - 1) / PageHintDelta.CHECKPOINT_INTERVAL * 8);
+			indexStream.writeLong(hintsStream.getOffset());
+		}
+		buffer.reset();
+		delta.write(bufferStream, pageHint);
+		writePageVariables(bufferStream, pageHint.getPageVariables());
+		writeRecord(pageNumber);
+	}
+
+	@Override
+	public void writePageVariables(Collection<PageVariable> variables) throws IOException {
+		buffer.reset();
+		writePageVariables(bufferStream, variables);
+		long offset = writeRecord(0);
+		hintsStream.flush();
+		indexStream.seek(8);
+		indexStream.writeLong(offset);
+	}
+
+	/**
+	 * write the buffer as a record of the hint stream.
+	 *
+	 * @return the offset of the data of the record
+	 */
+	private long writeRecord(long pageNumber) throws IOException {
+		bufferStream.flush();
+		hintsStream.writeLong(pageNumber);
+		hintsStream.writeInt(buffer.size());
+		long offset = hintsStream.getOffset();
+		buffer.writeTo(hintsStream);
+		return offset;
+	}
+}
@@ -44,7 +44,7 @@ public class PageHintWriterV4 implements IPageHintWriter {
 		this.writer = writer;
 		try {
 			hintsStream = writer.createRandomAccessStream(ReportDocumentConstants.PAGEHINT_STREAM);
-			hintsStream.writeInt(IPageHintWriter.VERSION);
+			hintsStream.writeInt(IPageHintWriter.VERSION_6);
 			indexStream = writer.createRandomAccessStream(ReportDocumentConstants.PAGEHINT_INDEX_STREAM);
 			indexStream.writeLong(0); // total page
 			indexStream.writeLong(-1);// global variable offset
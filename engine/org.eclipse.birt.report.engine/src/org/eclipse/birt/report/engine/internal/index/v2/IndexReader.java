@@ -120,7 +120,7 @@ public class IndexReader implements IndexConstants {
 		return null;
 	}
 
-	Long getLong(String key) throws IOException {
+	public Long getLong(String key) throws IOException {
 		if (valueType != BTreeMap.LONG_VALUE) {
 			return null;
 		}
@@ -136,7 +136,7 @@ public class IndexReader implements IndexConstants {
 		return (BookmarkContent) get(key);
 	}
 
-	void close() throws IOException {
+	public void close() throws IOException {
 		map = null;
 		if (btree != null) {
 			try {
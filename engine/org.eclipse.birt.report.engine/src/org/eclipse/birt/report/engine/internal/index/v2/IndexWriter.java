@@ -46,7 +46,7 @@ public class IndexWriter implements IndexConstants {
 		this.name = name;
 	}
 
-	void add(String key, long value) throws IOException {
+	public void add(String key, long value) throws IOException {
 		if (inlineMap == null) {
 			type = BTreeMap.LONG_VALUE;
 			inlineMap = new HashMap<>();
@@ -76,7 +76,7 @@ public class IndexWriter implements IndexConstants {
 		}
 	}
 
-	void close() throws IOException {
+	public void close() throws IOException {
 		if (btree == null) {
 			RAOutputStream stream = archive.createOutputStream(name);
 			try (stream) {
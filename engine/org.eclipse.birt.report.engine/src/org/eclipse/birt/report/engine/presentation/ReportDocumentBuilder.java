@@ -62,8 +62,8 @@ import org.eclipse.birt.report.engine.internal.document.DocumentExtension;
 import org.eclipse.birt.report.engine.internal.document.IPageHintWriter;
 import org.eclipse.birt.report.engine.internal.document.IReportContentWriter;
 import org.eclipse.birt.report.engine.internal.document.v3.ReportContentWriterV3;
+import org.eclipse.birt.report.engine.internal.document.v4.DeltaPageHintWriter;
 import org.eclipse.birt.report.engine.internal.document.v4.FixedLayoutPageHintWriter;
-import org.eclipse.birt.report.engine.internal.document.v4.PageHintWriterV4;
 import org.eclipse.birt.report.engine.internal.presentation.ReportDocumentInfo;
 import org.eclipse.birt.report.engine.ir.ExtendedItemDesign;
 import org.eclipse.birt.report.engine.ir.ListItemDesign;
@@ -505,7 +505,7 @@ public class ReportDocumentBuilder {
 				return true;
 			}
 			try {
-				hintWriter = new PageHintWriterV4(document.getArchive());
+				hintWriter = new DeltaPageHintWriter(document.getArchive());
 			} catch (IOException ex) {
 				logger.log(Level.SEVERE, "Can not open the hint stream", ex);
 				return false;
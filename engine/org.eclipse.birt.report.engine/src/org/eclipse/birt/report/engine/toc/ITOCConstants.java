@@ -19,6 +19,8 @@ import org.eclipse.birt.report.engine.api.impl.ReportDocumentConstants;
 public interface ITOCConstants {
 
 	String TOC_STREAM = ReportDocumentConstants.TOC_STREAM;
+	String TOC_ID_INDEX_STREAM = ReportDocumentConstants.TOC_ID_INDEX_STREAM;
+	String TOC_BOOKMARK_INDEX_STREAM = ReportDocumentConstants.TOC_BOOKMARK_INDEX_STREAM;
 
 	String VERSION_PREFIX = "__Version : ";
 	String VERSION_V0 = VERSION_PREFIX + "0.0";
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.toc;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * An index of a TOC tree saved in the report document. The root of a tree which
+ * has an index implements this interface, so that a node can be loaded without
+ * walking the tree from the root.
+ */
+public interface ITOCIndex {
+
+	/**
+	 * Gets the nodes from the root to the node with the id.
+	 *
+	 * @param nodeId the id of the node
+	 * @return the root, the ancestors and the node itself, or null if there is no
+	 *         such node.
+	 * @throws IOException
+	 */
+	List<ITreeNode> findPath(String nodeId) throws IOException;
+
+	/**
+	 * Gets the id of the node with the bookmark.
+	 *
+	 * @param bookmark the bookmark of the node
+	 * @return the node id, or null if there is no such node.
+	 * @throws IOException
+	 */
+	String findNodeId(String bookmark) throws IOException;
+}
@@ -34,11 +34,15 @@ public class TOCReader implements ITOCReader, ITOCConstants {
 	protected RAInputStream stream;
 
 	public TOCReader(IDocArchiveReader archive, ClassLoader loader) throws IOException {
-		this(archive.getInputStream(TOC_STREAM), loader);
+		this(archive, archive.getInputStream(TOC_STREAM), loader);
 		ownedStream = true;
 	}
 
 	public TOCReader(RAInputStream in, ClassLoader loader) throws IOException {
+		this(null, in, loader);
+	}
+
+	private TOCReader(IDocArchiveReader archive, RAInputStream in, ClassLoader loader) throws IOException {
 		this.stream = in;
 		version = getVersion(in);
 		if (VERSION_V0.equals(version)) {
@@ -48,7 +52,7 @@ public class TOCReader implements ITOCReader, ITOCConstants {
 		} else if (VERSION_V2.equals(version)) {
 			reader = new TOCReaderV2(in, loader, false);
 		} else if (VERSION_V3.equals(version)) {
-			reader = new TOCReaderV3(in, loader, false);
+			reader = new TOCReaderV3(archive, in, loader, false);
 		} else {
 			in.close();
 			throw new IOException("Unsupporter version :" + version);
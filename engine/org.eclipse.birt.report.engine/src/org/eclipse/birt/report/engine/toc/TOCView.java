@@ -14,6 +14,7 @@
 
 package org.eclipse.birt.report.engine.toc;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -45,6 +46,7 @@ public class TOCView implements ITOCTree {
 	private TOCFormatUtil formatUtil;
 	private String format;
 	private ViewFilter filter;
+	private ITOCIndex index;
 
 	public TOCView(ITreeNode tree, ReportDesignHandle handle, ULocale locale, TimeZone timeZone, String format) {
 		this(tree, handle, locale, timeZone, format, null);
@@ -73,6 +75,9 @@ public class TOCView implements ITOCTree {
 			this.styleUtil = new TOCStyleUtil(handle);
 		}
 		this.root = new ViewNode(this, null, tree);
+		if (tree instanceof ITOCIndex) {
+			this.index = (ITOCIndex) tree;
+		}
 	}
 
 	@Override
@@ -85,9 +90,90 @@ public class TOCView implements ITOCTree {
 		if (tocNodeId == null || tocNodeId.equals("/")) {
 			return root;
 		}
+		if (index != null) {
+			try {
+				return createViewNode(index.findPath(tocNodeId));
+			} catch (IOException ex) {
+				logger.log(Level.WARNING, "failed to load the toc " + tocNodeId + " from the index", ex);
+			}
+		}
 		return findTOC(root, tocNodeId, new TOCComparator());
 	}
 
+	/**
+	 * create the view node of the last tree node in the path, the same as the one
+	 * in the children of its parent view node, without loading its siblings.
+	 *
+	 * @param path the tree nodes from the root to the node
+	 * @return the view node, or null if the node isn't in the view.
+	 */
+	private TOCNode createViewNode(List<ITreeNode> path) {
+		if (path == null) {
+			return null;
+		}
+		ViewNode parent = root;
+		for (int i = 1; i < path.size(); i++) {
+			ITreeNode node = path.get(i);
+			if (isHidden(node)) {
+				return null;
+			}
+			// the children of the invisible nodes are the children of the parent
+			if (!isVisible(node) || !node.isGroup() && node.getTOCValue() == null) {
+				continue;
+			}
+			if (node.isGroup()) {
+				parent = ((ViewNodeList) parent.getChildren()).createGroupNode(parent, node);
+				if (parent == null) {
+					return null;
+				}
+			} else {
+				parent = new ViewNode(parent, node);
+			}
+			if (i == path.size() - 1) {
+				return parent;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the TOCNode with the specified bookmark.
+	 *
+	 * @param bookmark the bookmark of the toc.
+	 * @return TOCNode with the specified bookmark. NULL if not found.
+	 */
+	public TOCNode findTOCByBookmark(String bookmark) {
+		if (bookmark == null) {
+			return null;
+		}
+		if (index != null) {
+			try {
+				String nodeId = index.findNodeId(bookmark);
+				if (nodeId == null) {
+					return null;
+				}
+				return findTOC(nodeId);
+			} catch (IOException ex) {
+				logger.log(Level.WARNING, "failed to load the toc " + bookmark + " from the index", ex);
+			}
+		}
+		return findTOCByBookmark(root, bookmark);
+	}
+
+	private TOCNode findTOCByBookmark(ViewNode node, String bookmark) {
+		if (node != root && bookmark.equals(node.getBookmark())) {
+			return node;
+		}
+		Collection<ViewNode> children = (Collection<ViewNode>) node.getChildren();
+		for (ViewNode child : children) {
+			TOCNode result = findTOCByBookmark(child, bookmark);
+			if (result != null) {
+				return result;
+			}
+		}
+		return null;
+	}
+
 	protected TOCNode findTOC(TOCNode node, String tocNodeId, TOCComparator comparator) {
 		List<ViewNode> children = node.getChildren();
 		if (children == null || children.isEmpty()) {
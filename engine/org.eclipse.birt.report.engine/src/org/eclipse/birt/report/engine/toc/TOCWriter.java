@@ -29,7 +29,7 @@ public class TOCWriter implements ITOCWriter, ITOCConstants {
 		if (archive == null) {
 			tocWriter = new MemTOCWriter();
 		} else {
-			tocWriter = new TOCWriterV3(archive.createOutputStream(TOC_STREAM));
+			tocWriter = new TOCWriterV3(archive);
 		}
 	}
 
@@ -78,6 +78,22 @@ public class ViewNodeList extends AbstractList<ViewNode> {
 		return size;
 	}
 
+	/**
+	 * loads the first child only, so that a node with a lot of children can be
+	 * checked without walking all of them.
+	 */
+	@Override
+	synchronized public boolean isEmpty() {
+		if (size != -1) {
+			return size == 0;
+		}
+		if (cacheIndex > 0) {
+			return false;
+		}
+		refreshCaches(0);
+		return cacheIndex == 0;
+	}
+
 	private int calculateListSize() {
 		ViewNodeIterator iter = new ViewNodeIterator();
 		int size = 0;
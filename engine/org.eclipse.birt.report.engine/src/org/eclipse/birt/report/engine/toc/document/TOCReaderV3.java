@@ -18,14 +18,19 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.core.archive.IDocArchiveReader;
 import org.eclipse.birt.core.archive.RAInputStream;
 import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.internal.index.v2.IndexReader;
 import org.eclipse.birt.report.engine.toc.ITOCConstants;
+import org.eclipse.birt.report.engine.toc.ITOCIndex;
 import org.eclipse.birt.report.engine.toc.ITOCReader;
 import org.eclipse.birt.report.engine.toc.ITreeNode;
 
@@ -35,12 +40,30 @@ public class TOCReaderV3 implements ITOCReader, ITOCConstants {
 	DocTreeNode root;
 	RAInputStream in;
 	ClassLoader classloader;
+	IndexReader idIndex;
+	IndexReader bookmarkIndex;
 
 	public TOCReaderV3(RAInputStream in, ClassLoader loader) throws IOException {
 		this(in, loader, false);
 	}
 
 	public TOCReaderV3(RAInputStream in, ClassLoader loader, boolean checkVersion) throws IOException {
+		this(null, in, loader, checkVersion);
+	}
+
+	/**
+	 * create a reader which uses the indexes saved in the archive with the tree,
+	 * if there are some.
+	 *
+	 * @param archive      the archive, or null if the tree is read without the
+	 *                     indexes
+	 * @param in           the toc stream
+	 * @param loader
+	 * @param checkVersion
+	 * @throws IOException
+	 */
+	public TOCReaderV3(IDocArchiveReader archive, RAInputStream in, ClassLoader loader, boolean checkVersion)
+			throws IOException {
 		this.in = in;
 		this.classloader = loader;
 
@@ -53,11 +76,18 @@ public class TOCReaderV3 implements ITOCReader, ITOCConstants {
 		}
 
 		int offset = (int) in.getOffset();
-		root = readNode(offset);
+		if (archive != null && archive.exists(TOC_ID_INDEX_STREAM)) {
+			idIndex = new IndexReader(archive, TOC_ID_INDEX_STREAM);
+			bookmarkIndex = new IndexReader(archive, TOC_BOOKMARK_INDEX_STREAM);
+			root = readNode(offset, new IndexedTreeNode());
+		} else {
+			root = readNode(offset, new DocTreeNode());
+		}
 	}
 
 	@Override
 	public void close() throws IOException {
+		closeIndex();
 		if (in != null) {
 			try {
 				in.close();
@@ -72,8 +102,28 @@ public class TOCReaderV3 implements ITOCReader, ITOCConstants {
 		return root;
 	}
 
+	synchronized private void closeIndex() throws IOException {
+		try {
+			if (idIndex != null) {
+				idIndex.close();
+			}
+		} finally {
+			idIndex = null;
+			if (bookmarkIndex != null) {
+				try {
+					bookmarkIndex.close();
+				} finally {
+					bookmarkIndex = null;
+				}
+			}
+		}
+	}
+
 	synchronized private DocTreeNode readNode(int offset) throws IOException {
-		DocTreeNode node = new DocTreeNode();
+		return readNode(offset, new DocTreeNode());
+	}
+
+	synchronized private DocTreeNode readNode(int offset, DocTreeNode node) throws IOException {
 		node.offset = offset;
 		in.seek(offset);
 		node.next = in.readInt();
@@ -91,6 +141,66 @@ public class TOCReaderV3 implements ITOCReader, ITOCConstants {
 		return node;
 	}
 
+	/**
+	 * the root of a tree which has the indexes. The node id of a node is the id of
+	 * its parent followed by "_" and a sequence, so the ancestors of a node are
+	 * found by the prefixes of its id.
+	 */
+	private class IndexedTreeNode extends DocTreeNode implements ITOCIndex {
+
+		@Override
+		public List<ITreeNode> findPath(String nodeId) throws IOException {
+			List<ITreeNode> path = new ArrayList<>();
+			path.add(this);
+			if (nodeId == null || nodeId.equals(getNodeId())) {
+				return path;
+			}
+			Long offset = findOffset(idIndex, nodeId);
+			if (offset == null) {
+				return null;
+			}
+			DocTreeNode node = TOCReaderV3.this.readNode(offset.intValue());
+			int index = nodeId.lastIndexOf('_');
+			if (index == -1 || nodeId.startsWith(TOC_PREFIX) && index < TOC_PREFIX.length()) {
+				// a top level node
+				node.parent = this;
+				path.add(node);
+				return path;
+			}
+			path = findPath(nodeId.substring(0, index));
+			if (path == null) {
+				return null;
+			}
+			node.parent = (DocTreeNode) path.get(path.size() - 1);
+			path.add(node);
+			return path;
+		}
+
+		@Override
+		public String findNodeId(String bookmark) throws IOException {
+			if (bookmark == null) {
+				return null;
+			}
+			Long offset = findOffset(bookmarkIndex, bookmark);
+			if (offset != null) {
+				return TOCReaderV3.this.readNode(offset.intValue()).getNodeId();
+			}
+			// the bookmark of most nodes is the node id
+			offset = findOffset(idIndex, bookmark);
+			if (offset != null && bookmark.equals(TOCReaderV3.this.readNode(offset.intValue()).getBookmark())) {
+				return bookmark;
+			}
+			return null;
+		}
+	}
+
+	synchronized private Long findOffset(IndexReader index, String key) throws IOException {
+		if (index == null) {
+			throw new IOException("the toc index is closed");
+		}
+		return index.getLong(key);
+	}
+
 	private class NodeCollection extends AbstractCollection<ITreeNode> {
 
 		DocTreeNode parent;
@@ -18,8 +18,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 
+import org.eclipse.birt.core.archive.IDocArchiveWriter;
 import org.eclipse.birt.core.archive.RAOutputStream;
 import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.internal.index.v2.IndexWriter;
 import org.eclipse.birt.report.engine.toc.ITOCConstants;
 import org.eclipse.birt.report.engine.toc.ITOCWriter;
 import org.eclipse.birt.report.engine.toc.ITreeNode;
@@ -36,6 +38,23 @@ public class TOCWriterV3 implements ITOCWriter, ITOCConstants {
 
 	private long offset;
 
+	private IDocArchiveWriter archive;
+	// the offsets of the nodes by node id and by bookmark, only if the writer
+	// saves the tree into an archive
+	private IndexWriter idIndex;
+	private IndexWriter bookmarkIndex;
+
+	/**
+	 * create a writer which saves the tree and its indexes into the archive.
+	 *
+	 * @param archive
+	 * @throws IOException
+	 */
+	public TOCWriterV3(IDocArchiveWriter archive) throws IOException {
+		this(archive.createOutputStream(TOC_STREAM));
+		this.archive = archive;
+	}
+
 	public TOCWriterV3(RAOutputStream out) throws IOException {
 		this.out = out;
 		IOUtil.writeString(output, VERSION_V3);
@@ -73,10 +92,29 @@ public class TOCWriterV3 implements ITOCWriter, ITOCConstants {
 		parent.childCount++;
 
 		writeTreeNode(node);
+		writeIndex(node);
 
 		tocEntry.setTreeNode(node);
 	}
 
+	private void writeIndex(DocTreeNode node) throws IOException {
+		if (archive == null) {
+			return;
+		}
+		String nodeId = node.getNodeId();
+		if (idIndex == null) {
+			idIndex = new IndexWriter(archive, TOC_ID_INDEX_STREAM);
+		}
+		idIndex.add(nodeId, node.offset);
+		String bookmark = node.getBookmark();
+		if (bookmark != null && !bookmark.equals(nodeId)) {
+			if (bookmarkIndex == null) {
+				bookmarkIndex = new IndexWriter(archive, TOC_BOOKMARK_INDEX_STREAM);
+			}
+			bookmarkIndex.add(bookmark, node.offset);
+		}
+	}
+
 	@Override
 	public void closeTOCEntry(TOCEntry entry) throws IOException {
 		DocTreeNode node = (DocTreeNode) entry.getTreeNode();
@@ -101,12 +139,30 @@ public class TOCWriterV3 implements ITOCWriter, ITOCConstants {
 					root = null;
 				}
 				out.close();
+				closeIndex();
 			} finally {
 				out = null;
 			}
 		}
 	}
 
+	private void closeIndex() throws IOException {
+		try {
+			if (idIndex != null) {
+				idIndex.close();
+			}
+		} finally {
+			idIndex = null;
+			if (bookmarkIndex != null) {
+				try {
+					bookmarkIndex.close();
+				} finally {
+					bookmarkIndex = null;
+				}
+			}
+		}
+	}
+
 	synchronized protected void writeTreeNode(DocTreeNode node) throws IOException {
 		out.seek(node.offset);
 		out.writeInt(node.next);
@@ -14,6 +14,7 @@
 
 package org.eclipse.birt.report.model.api;
 
+import org.eclipse.birt.report.model.elements.Style;
 import org.eclipse.birt.report.model.metadata.ColorPropertyType;
 import org.eclipse.birt.report.model.util.BaseTestCase;
 
@@ -69,4 +70,51 @@ public class ReportDesignCacheTest extends BaseTestCase {
 		assertEquals(ColorPropertyType.RED, label.getStringProperty(StyleHandle.COLOR_PROP));
 
 	}
+
+	/**
+	 * If cached, the resolved property values are kept until the next activity
+	 * stack operation.
+	 *
+	 * @throws Exception
+	 */
+
+	public void testCacheResolvedValues() throws Exception {
+		createDesign();
+
+		StyleHandle tmpStyle = designHandle.getElementFactory().newStyle("style1"); //$NON-NLS-1$
+		designHandle.getStyles().add(tmpStyle);
+		tmpStyle.setProperty(StyleHandle.COLOR_PROP, ColorPropertyType.RED);
+
+		LabelHandle label = designHandle.getElementFactory().newLabel("newLabel"); //$NON-NLS-1$
+		label.setStyle((SharedStyleHandle) tmpStyle);
+		designHandle.getBody().add(label);
+
+		designHandle.cacheValues();
+		assertEquals(ColorPropertyType.RED, label.getStringProperty(StyleHandle.COLOR_PROP));
+
+		// a change which bypasses the command stack doesn't reach the memorized
+		// value
+		tmpStyle.getElement().setProperty(Style.COLOR_PROP, ColorPropertyType.GREEN);
+		assertTrue(design.isCached());
+		assertEquals(ColorPropertyType.RED, label.getStringProperty(StyleHandle.COLOR_PROP));
+		tmpStyle.getElement().setProperty(Style.COLOR_PROP, ColorPropertyType.RED);
+
+		tmpStyle.setProperty(StyleHandle.COLOR_PROP, ColorPropertyType.BLUE);
+		assertFalse(design.isCached());
+		assertEquals(ColorPropertyType.BLUE, label.getStringProperty(StyleHandle.COLOR_PROP));
+
+		designHandle.cacheValues();
+		assertEquals(ColorPropertyType.BLUE, label.getStringProperty(StyleHandle.COLOR_PROP));
+
+		designHandle.getCommandStack().undo();
+		assertFalse(design.isCached());
+		assertEquals(ColorPropertyType.RED, label.getStringProperty(StyleHandle.COLOR_PROP));
+
+		// the clone of a cached design memorizes its own values
+		designHandle.cacheValues();
+		ReportDesignHandle copy = (ReportDesignHandle) designHandle.copy().getHandle(null);
+		assertTrue(copy.getModule().isCached());
+		LabelHandle copiedLabel = (LabelHandle) copy.getBody().get(0);
+		assertEquals(ColorPropertyType.RED, copiedLabel.getStringProperty(StyleHandle.COLOR_PROP));
+	}
 }
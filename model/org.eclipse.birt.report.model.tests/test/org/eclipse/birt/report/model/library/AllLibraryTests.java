@@ -45,6 +45,7 @@ public class AllLibraryTests {
 		test.addTestSuite(ReloadLibraryTest.class);
 		test.addTestSuite(LibrarySharedResultSetTest.class);
 		test.addTestSuite(LibraryWithCubeTest.class);
+		test.addTestSuite(LibraryCacheTest.class);
 
 		// add all test classes here
 
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.model.library;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.birt.report.model.api.LibraryHandle;
+import org.eclipse.birt.report.model.api.ReportDesignHandle;
+import org.eclipse.birt.report.model.api.TableHandle;
+import org.eclipse.birt.report.model.elements.Style;
+import org.eclipse.birt.report.model.metadata.ColorPropertyType;
+import org.eclipse.birt.report.model.util.BaseTestCase;
+
+/**
+ * Tests the designs which include a library parsed once.
+ */
+
+public class LibraryCacheTest extends BaseTestCase {
+
+	/**
+	 * Every design gets its own copy of the library, in its own session, and sees
+	 * the changes of the library file. A design opened while the library file is
+	 * unchanged gets its copy from the cached template, without reading the file.
+	 *
+	 * @throws Exception
+	 */
+
+	public void testIncludeCachedLibrary() throws Exception {
+		String designFilePath = copyContentToFile(INPUT_FOLDER + "DesignToReloadLibrary.xml"); //$NON-NLS-1$
+		String libraryFilePath = copyContentToFile(INPUT_FOLDER + "LibraryToReload.xml"); //$NON-NLS-1$
+
+		openDesign(designFilePath, false);
+		ReportDesignHandle design1 = designHandle;
+
+		// blank the library file, keeping its modification time and length, so
+		// that only the cached template can give the second design its library
+		File libraryFile = new File(libraryFilePath);
+		byte[] content = Files.readAllBytes(libraryFile.toPath());
+		long lastModified = libraryFile.lastModified();
+		byte[] blank = new byte[content.length];
+		Arrays.fill(blank, (byte) ' ');
+		Files.write(libraryFile.toPath(), blank);
+		libraryFile.setLastModified(lastModified);
+		try {
+			openDesign(designFilePath, false);
+		} finally {
+			Files.write(libraryFile.toPath(), content);
+			libraryFile.setLastModified(lastModified);
+		}
+		ReportDesignHandle design2 = designHandle;
+
+		LibraryHandle lib1 = (LibraryHandle) design1.getLibraries().get(0);
+		LibraryHandle lib2 = (LibraryHandle) design2.getLibraries().get(0);
+		assertNotSame(lib1.getModule(), lib2.getModule());
+		assertSame(design1.getModule().getSession(), lib1.getModule().getSession());
+		assertSame(design2.getModule().getSession(), lib2.getModule().getSession());
+		assertTrue(lib2.getModule().isReadOnly());
+		assertEquals(lib1.getModule().getLocation(), lib2.getModule().getLocation());
+		assertNotNull(lib2.findElement("libTable1")); //$NON-NLS-1$
+		assertNotNull(lib2.findElement("libTable2")); //$NON-NLS-1$
+
+		TableHandle table1 = (TableHandle) design2.findElement("table1"); //$NON-NLS-1$
+		assertSame(lib2.findElement("libTable1"), table1.getExtends()); //$NON-NLS-1$
+		assertEquals(ColorPropertyType.RED, table1.getStringProperty(Style.COLOR_PROP));
+
+		// change the library file
+
+		openLibrary(libraryFilePath, false);
+		libraryHandle.findElement("libTable2").drop(); //$NON-NLS-1$
+		libraryHandle.save();
+
+		openDesign(designFilePath, false);
+		LibraryHandle lib3 = (LibraryHandle) designHandle.getLibraries().get(0);
+		assertNull(lib3.findElement("libTable2")); //$NON-NLS-1$
+		assertNotNull(lib2.findElement("libTable2")); //$NON-NLS-1$
+	}
+}
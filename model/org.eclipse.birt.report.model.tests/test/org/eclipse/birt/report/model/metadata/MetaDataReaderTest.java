@@ -14,6 +14,12 @@
 
 package org.eclipse.birt.report.model.metadata;
 
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.eclipse.birt.report.model.elements.ReportDesign;
+import org.eclipse.birt.report.model.elements.interfaces.IStyleModel;
 import org.eclipse.birt.report.model.i18n.ThreadResources;
 
 import com.ibm.icu.util.ULocale;
@@ -67,6 +73,43 @@ public class MetaDataReaderTest extends AbstractMetaTest {
 		}
 	}
 
+	/**
+	 * test reading the rom file with a snapshot. The snapshot is written by the
+	 * first read, replayed by the next one, and written again if it is stale.
+	 *
+	 * @throws Exception
+	 */
+	public void testReadWithSnapshot() throws Exception {
+		File snapshotFile = File.createTempFile("MetaDataReaderTest", ".snapshot"); //$NON-NLS-1$ //$NON-NLS-2$
+		snapshotFile.delete();
+		try {
+			MetaDataReader.read(ReportDesign.class.getResourceAsStream(ROM_DEF_NAME), snapshotFile);
+			assertTrue(snapshotFile.isFile());
+			int elementCount = MetaDataDictionary.getInstance().getElements().size();
+			String defaultColor = (String) MetaDataDictionary.getInstance().getStyle()
+					.getProperty(IStyleModel.COLOR_PROP).getDefault();
+
+			MetaDataDictionary.reset();
+			long lastModified = snapshotFile.lastModified();
+			MetaDataReader.read(ReportDesign.class.getResourceAsStream(ROM_DEF_NAME), snapshotFile);
+			assertEquals(lastModified, snapshotFile.lastModified());
+			assertEquals(elementCount, MetaDataDictionary.getInstance().getElements().size());
+			assertEquals(defaultColor, MetaDataDictionary.getInstance().getStyle().getProperty(IStyleModel.COLOR_PROP)
+					.getDefault());
+
+			// a snapshot of another file is not replayed
+			MetaDataDictionary.reset();
+			byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+			bytes[16] ^= 1;
+			Files.write(snapshotFile.toPath(), bytes);
+			MetaDataReader.read(ReportDesign.class.getResourceAsStream(ROM_DEF_NAME), snapshotFile);
+			assertEquals(elementCount, MetaDataDictionary.getInstance().getElements().size());
+			assertFalse(Arrays.equals(bytes, Files.readAllBytes(snapshotFile.toPath())));
+		} finally {
+			snapshotFile.delete();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 *
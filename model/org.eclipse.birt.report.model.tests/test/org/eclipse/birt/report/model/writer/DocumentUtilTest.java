@@ -15,6 +15,10 @@
 package org.eclipse.birt.report.model.writer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -112,6 +116,80 @@ public class DocumentUtilTest extends BaseTestCase {
 		assertTrue(compareFile("DocumentUtilTest_golden.xml")); //$NON-NLS-1$
 	}
 
+	/**
+	 * Tests that a design which is not changed is localized once, and localized
+	 * again once it is changed.
+	 *
+	 * @throws Exception
+	 */
+
+	public void testSerializeCachedDesign() throws Exception {
+		openDesign(DESIGN_WITH_ELEMENT_EXTENDS);
+		assertNotNull(designHandle);
+
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ReportDesignHandle firstDesign = DocumentUtil.serialize(designHandle, first);
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		ReportDesignHandle secondDesign = DocumentUtil.serialize(designHandle, second);
+
+		assertNotSame(firstDesign.getModule(), secondDesign.getModule());
+		assertSame(designHandle.getModule().getSession(), secondDesign.getModule().getSession());
+		assertEquals(first.toString("UTF-8"), second.toString("UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		designHandle.setDescription("cached design"); //$NON-NLS-1$
+		ByteArrayOutputStream third = new ByteArrayOutputStream();
+		ReportDesignHandle thirdDesign = DocumentUtil.serialize(designHandle, third);
+		assertEquals("cached design", thirdDesign.getDescription()); //$NON-NLS-1$
+		assertFalse(first.toString("UTF-8").equals(third.toString("UTF-8"))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Tests that identical designs at different paths are not given the localized
+	 * design of each other.
+	 *
+	 * @throws Exception
+	 */
+
+	public void testSerializeCachedDesignAtOtherPath() throws Exception {
+		String firstFile = copyDesignWithLibrary("first"); //$NON-NLS-1$
+		String secondFile = copyDesignWithLibrary("second"); //$NON-NLS-1$
+
+		openDesign(firstFile, false);
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		ReportDesignHandle firstDesign = DocumentUtil.serialize(designHandle, first);
+
+		openDesign(secondFile, false);
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		ReportDesignHandle secondDesign = DocumentUtil.serialize(designHandle, second);
+
+		assertEquals(designHandle.getFileName(), secondDesign.getFileName());
+		assertEquals(designHandle.getModule().getSystemId(), secondDesign.getModule().getSystemId());
+		assertFalse(firstDesign.getFileName().equals(secondDesign.getFileName()));
+		assertFalse(firstDesign.getModule().getSystemId().equals(secondDesign.getModule().getSystemId()));
+		assertEquals(first.toString("UTF-8"), second.toString("UTF-8")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Copies the design with element extends and its library to a temporary
+	 * folder.
+	 *
+	 * @param folderName the name of the folder
+	 * @return the path of the design
+	 * @throws Exception
+	 */
+
+	private String copyDesignWithLibrary(String folderName) throws Exception {
+		File folder = new File(getTempFolder(), folderName);
+		folder.mkdirs();
+		String[] fileNames = { DESIGN_WITH_ELEMENT_EXTENDS, "LibraryCompoundElement.xml" }; //$NON-NLS-1$
+		for (int i = 0; i < fileNames.length; i++) {
+			try (InputStream is = getResourceAStream(INPUT_FOLDER + fileNames[i])) {
+				Files.copy(is, new File(folder, fileNames[i]).toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		return new File(folder, DESIGN_WITH_ELEMENT_EXTENDS).getAbsolutePath();
+	}
+
 	/**
 	 * Tests the lib reference of embedded images.
 	 *
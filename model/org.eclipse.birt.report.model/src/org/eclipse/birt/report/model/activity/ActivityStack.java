@@ -382,12 +382,18 @@ public class ActivityStack implements CommandStack {
 	}
 
 	/**
-	 * Sets the cache status and clear the cached values.
+	 * Updates the modification stamp of the module, sets the cache status and
+	 * clear the cached values.
 	 */
 	private void clearCachedValues() {
+		if (module == null) {
+			return;
+		}
+		module.updateModificationStamp();
+
 		// if module is in the caching state and any record is executed, then
 		// the cache must be disabled
-		if (module != null && module.isCached()) {
+		if (module.isCached()) {
 			module.setIsCached(false);
 		}
 	}
@@ -14,6 +14,7 @@
 
 package org.eclipse.birt.report.model.api.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
@@ -22,6 +23,7 @@ import org.eclipse.birt.report.model.api.ReportDesignHandle;
 import org.eclipse.birt.report.model.api.core.IModuleModel;
 import org.eclipse.birt.report.model.core.Module;
 import org.eclipse.birt.report.model.elements.ReportDesign;
+import org.eclipse.birt.report.model.util.LocalizedDesignCache;
 import org.eclipse.birt.report.model.util.ReportDesignSerializer;
 import org.eclipse.birt.report.model.writer.DocumentWriter;
 
@@ -65,12 +67,34 @@ public class DocumentUtil {
 			return clonedDesign.handle();
 		}
 
+		// the localized design is the same as long as the design and its libraries
+		// are not changed
+
+		LocalizedDesignCache cache = LocalizedDesignCache.getInstance();
+		String key = cache.getKey(source);
+		if (key != null) {
+			target = cache.getDesign(key, source, out);
+			if (target != null) {
+				out.close();
+				return target.handle();
+			}
+		}
+
 		target = localizeDesign(source);
 
 		assert target != null;
 
 		// use the writer for the document, not the general design writer
-		new DocumentWriter(target).write(out);
+		if (key == null) {
+			new DocumentWriter(target).write(out);
+			return target.handle();
+		}
+
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		new DocumentWriter(target).write(content);
+		content.writeTo(out);
+		out.close();
+		cache.putDesign(key, target, content.toByteArray());
 
 		return target.handle();
 	}
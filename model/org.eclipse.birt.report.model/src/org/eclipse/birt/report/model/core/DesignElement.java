@@ -980,6 +980,24 @@ public abstract class DesignElement implements IDesignElement, IPropertySet, IDe
 	 */
 
 	public Object getProperty(Module module, ElementPropertyDefn prop) {
+		ResolvedValueCache cache = module == null ? null : module.getResolvedValueCache();
+		if (cache != null) {
+			return cache.getProperty(module, this, prop);
+		}
+
+		return resolveProperty(module, prop);
+	}
+
+	/**
+	 * Searches a property value given its definition, without the values
+	 * memorized by the module.
+	 *
+	 * @param module the module
+	 * @param prop   definition of the property to get
+	 * @return The property value, or null if no value is set.
+	 */
+
+	final Object resolveProperty(Module module, ElementPropertyDefn prop) {
 		Object value = cachedPropStrategy.getPropertyExceptRomDefault(module, this, prop);
 		if (value != null) {
 			return value;
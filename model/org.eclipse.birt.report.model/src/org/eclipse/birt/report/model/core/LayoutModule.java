@@ -356,8 +356,11 @@ public abstract class LayoutModule extends Module {
 			}
 			option.setMarkLineNumber(false);
 
-			library = LibraryReader.getInstance().read(session, this, url, namespace, url.openStream(), option,
-					reloadLibs);
+			library = LibraryCache.getInstance().getLibrary(session, this, url, namespace, option);
+			if (library == null) {
+				library = LibraryReader.getInstance().read(session, this, url, namespace, url.openStream(), option,
+						reloadLibs);
+			}
 			library.setLocation(url);
 
 			if (StringUtil.isBlank(namespace)) {
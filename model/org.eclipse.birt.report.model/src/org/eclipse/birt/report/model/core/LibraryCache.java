@@ -0,0 +1,279 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.report.model.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.report.model.api.DesignFileException;
+import org.eclipse.birt.report.model.api.IModuleOption;
+import org.eclipse.birt.report.model.api.ModuleOption;
+import org.eclipse.birt.report.model.elements.Library;
+import org.eclipse.birt.report.model.parser.LibraryReader;
+import org.eclipse.birt.report.model.util.ResourceLocatorImpl;
+import org.eclipse.birt.report.model.util.SecurityUtil;
+
+/**
+ * Process-wide cache of the parsed libraries included by the modules.
+ * <p>
+ * A library file is parsed once into a template, in a session of its own and
+ * without a host, and every module which includes the library gets a context
+ * clone of the template instead of parsing the file again. The template is
+ * never given out, so it is never modified: a module which modifies or reloads
+ * its library only changes its own copy. The elements of a library refer to
+ * their module and host, which is why the modules can't share one library
+ * instance.
+ * <p>
+ * Only the libraries read from files are cached. The template is keyed by the
+ * URL, the name space, the module options and the resource locator of the
+ * session, and is dropped once the file of the library or of one of the
+ * libraries it includes has a different modification time or length. The
+ * cache holds at most <code>birt.model.libraryCache.size</code> templates, 32
+ * by default, and is disabled if it is 0.
+ */
+
+final class LibraryCache {
+
+	private static final int MAX_SIZE = parseSize(
+			SecurityUtil.getSystemProperty("birt.model.libraryCache.size", "32")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final LibraryCache instance = new LibraryCache();
+
+	/**
+	 * The templates in access order.
+	 */
+	private final Map<Key, Template> templates = new LinkedHashMap<Key, Template>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Template> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private LibraryCache() {
+	}
+
+	/**
+	 * Returns the only instance of the cache.
+	 *
+	 * @return the cache
+	 */
+
+	static LibraryCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns a library included by the host module, cloned from the cached
+	 * template of the library file. The file is parsed into a new template if
+	 * there is none or if the file changed.
+	 *
+	 * @param session   the session of the host module
+	 * @param host      the host module, which includes the library
+	 * @param url       the url of the library file
+	 * @param namespace the name space of the library
+	 * @param options   the options of the library
+	 * @return the library, or null if the library can't be cached
+	 * @throws DesignFileException if the library file can't be parsed
+	 */
+
+	Library getLibrary(DesignSessionImpl session, Module host, URL url, String namespace, ModuleOption options)
+			throws DesignFileException {
+		if (MAX_SIZE <= 0 || toFile(url) == null) {
+			return null;
+		}
+
+		Key key = new Key(session, url, namespace, options);
+		Template template;
+		synchronized (templates) {
+			template = templates.get(key);
+		}
+		if (template == null || !template.isUpToDate()) {
+			template = parse(session, url, namespace, options);
+			if (template == null) {
+				return null;
+			}
+			synchronized (templates) {
+				templates.put(key, template);
+			}
+		}
+		return template.cloneFor(host);
+	}
+
+	/**
+	 * Drops all the templates.
+	 */
+
+	void clear() {
+		synchronized (templates) {
+			templates.clear();
+		}
+	}
+
+	private static Template parse(DesignSessionImpl session, URL url, String namespace, ModuleOption options)
+			throws DesignFileException {
+		// the session of the template mustn't keep the modules of the host
+		// session
+		DesignSessionImpl templateSession = new DesignSessionImpl(session.getLocale());
+		templateSession.setResourceLocator(session.getResourceLocator());
+		templateSession.setResourceFolder(session.getResourceFolder());
+
+		Map<File, long[]> stamps = new HashMap<>();
+		addStamp(stamps, toFile(url));
+
+		Library library;
+		try (InputStream in = url.openStream()) {
+			library = LibraryReader.getInstance().read(templateSession, null, url, namespace, in, options,
+					new HashMap<String, Library>());
+		} catch (IOException e) {
+			return null;
+		}
+		library.setLocation(url);
+
+		List<Library> libraries = library.getAllLibraries();
+		for (int i = 0; i < libraries.size(); i++) {
+			Library included = libraries.get(i);
+			File file = toFile(included.getLocation());
+			if (!included.isValid() || file == null) {
+				return null;
+			}
+			addStamp(stamps, file);
+		}
+		return new Template(library, stamps);
+	}
+
+	private static void addStamp(Map<File, long[]> stamps, File file) {
+		stamps.put(file, new long[] { file.lastModified(), file.length() });
+	}
+
+	private static File toFile(String location) {
+		if (location == null) {
+			return null;
+		}
+		try {
+			return toFile(new URL(location));
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static File toFile(URL url) {
+		if (!"file".equalsIgnoreCase(url.getProtocol())) { //$NON-NLS-1$
+			return null;
+		}
+		try {
+			return new File(url.toURI());
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return new File(url.getPath());
+		}
+	}
+
+	private static int parseSize(String value) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * A parsed library and the modification time and length of its files.
+	 */
+
+	private static class Template {
+
+		private final Library library;
+		private final Map<File, long[]> stamps;
+
+		Template(Library library, Map<File, long[]> stamps) {
+			this.library = library;
+			this.stamps = stamps;
+		}
+
+		boolean isUpToDate() {
+			for (Map.Entry<File, long[]> entry : stamps.entrySet()) {
+				File file = entry.getKey();
+				long[] stamp = entry.getValue();
+				if (file.lastModified() != stamp[0] || file.length() != stamp[1]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		Library cloneFor(Module host) {
+			// cloning reads the template, which may cache values on the way
+			synchronized (library) {
+				Library cloned = library.contextClone(host);
+				cloned.setLocation(library.location);
+				return cloned;
+			}
+		}
+	}
+
+	/**
+	 * The options which change how a library file is parsed.
+	 */
+
+	private static class Key {
+
+		private final String url;
+		private final String namespace;
+		private final Map<Object, Object> options;
+		private final Object locator;
+		private final String resourceFolder;
+
+		Key(DesignSessionImpl session, URL url, String namespace, ModuleOption options) {
+			this.url = url.toExternalForm();
+			this.namespace = namespace;
+			this.options = new HashMap<>();
+			if (options != null) {
+				this.options.putAll(options.getOptions());
+				this.options.remove(IModuleOption.MARK_LINE_NUMBER_KEY);
+			}
+			// the default locator keeps no state, but every session has its own
+			Object sessionLocator = session.getResourceLocator();
+			this.locator = sessionLocator.getClass() == ResourceLocatorImpl.class ? ResourceLocatorImpl.class
+					: sessionLocator;
+			this.resourceFolder = session.getResourceFolder();
+		}
+
+		@Override
+		public int hashCode() {
+			return url.hashCode() * 31 + (namespace == null ? 0 : namespace.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) obj;
+			return url.equals(key.url) && equals(namespace, key.namespace) && options.equals(key.options)
+					&& locator.equals(key.locator) && equals(resourceFolder, key.resourceFolder);
+		}
+
+		private static boolean equals(Object a, Object b) {
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.birt.report.model.activity.ActivityStack;
 import org.eclipse.birt.report.model.activity.ReadOnlyActivityStack;
@@ -274,6 +275,28 @@ public abstract class ModuleImpl extends DesignElement implements IModuleModel,
 	 */
 	protected boolean isCached = false;
 
+	/**
+	 * The resolved property values of the elements, while the module is cached.
+	 */
+	private volatile ResolvedValueCache resolvedValueCache = null;
+
+	/**
+	 * The last modification stamp given to a module.
+	 */
+	private static final AtomicLong lastModificationStamp = new AtomicLong();
+
+	/**
+	 * The modification stamp of the module. It is 0 until the module is modified
+	 * by a command, and then unique to the modified content.
+	 */
+	private volatile long modificationStamp = 0;
+
+	/**
+	 * The digest of the file the module was read from, or null if it was not
+	 * read from a file.
+	 */
+	private String sourceDigest = null;
+
 	/**
 	 * Caches the bundles. The key is file name, the value is the list of
 	 * <code>CachedBundles</code>>.
@@ -643,6 +666,7 @@ public abstract class ModuleImpl extends DesignElement implements IModuleModel,
 		// disable the caching, if the original cache is able, we will
 		// overwrite doClone in ReportDesign to do the caching
 		module.isCached = false;
+		((ModuleImpl) module).resolvedValueCache = null;
 
 		// build name space and id map
 
@@ -1613,6 +1637,66 @@ public abstract class ModuleImpl extends DesignElement implements IModuleModel,
 	 */
 	public final void setIsCached(boolean isCached) {
 		this.isCached = isCached;
+		this.resolvedValueCache = null;
+	}
+
+	/**
+	 * Returns the modification stamp of the module. Two modules read from the
+	 * same content, or cloned from the same module, have the same stamp until one
+	 * of them is modified.
+	 *
+	 * @return the modification stamp, or 0 if the module was never modified
+	 */
+	public final long getModificationStamp() {
+		return modificationStamp;
+	}
+
+	/**
+	 * Gives a new modification stamp to the module. The caller must be the
+	 * activity stack, once a command changed the module.
+	 */
+	public final void updateModificationStamp() {
+		modificationStamp = lastModificationStamp.incrementAndGet();
+	}
+
+	/**
+	 * Returns the digest of the file the module was read from.
+	 *
+	 * @return the digest, or null if the module was not read from a file
+	 */
+	public final String getSourceDigest() {
+		return sourceDigest;
+	}
+
+	/**
+	 * Sets the digest of the file the module was read from. The caller must be
+	 * the module reader.
+	 *
+	 * @param sourceDigest the digest
+	 */
+	public final void setSourceDigest(String sourceDigest) {
+		this.sourceDigest = sourceDigest;
+	}
+
+	/**
+	 * Starts to memorize the resolved property values of the elements. The caller
+	 * must be the report design, once its other values are cached. The values are
+	 * dropped when the cache status is set again.
+	 */
+	protected final void cacheResolvedValues() {
+		if (isCached) {
+			resolvedValueCache = new ResolvedValueCache();
+		}
+	}
+
+	/**
+	 * Returns the resolved property values of the elements. The values are
+	 * memorized only while the module itself is cached, not while its host is.
+	 *
+	 * @return the resolved values, or null if the module is not cached
+	 */
+	final ResolvedValueCache getResolvedValueCache() {
+		return resolvedValueCache;
 	}
 
 	/**
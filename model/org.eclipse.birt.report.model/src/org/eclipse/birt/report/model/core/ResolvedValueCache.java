@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.model.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.birt.report.model.api.metadata.IPropertyType;
+import org.eclipse.birt.report.model.metadata.ElementPropertyDefn;
+
+/**
+ * Memorizes the resolved property values of the elements of a module while the
+ * module is cached. A value is searched only the first time it is read, by the
+ * property search strategy of the element. The cache is dropped by the module
+ * as soon as a command is executed, undone or redone on the module, so a
+ * read-only module, such as the one the engine runs, never invalidates it.
+ * <p>
+ * The values of content element properties are not memorized, since reading
+ * them also updates the containers of the content elements.
+ */
+
+final class ResolvedValueCache {
+
+	/**
+	 * The value kept for a property which resolves to null.
+	 */
+
+	private static final Object NULL_VALUE = new Object();
+
+	/**
+	 * The resolved values of the properties, by element.
+	 */
+
+	private final Map<DesignElement, Map<ElementPropertyDefn, Object>> values = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the resolved value of a property of an element, searching it only
+	 * if it is not memorized yet.
+	 *
+	 * @param module  the module
+	 * @param element the element
+	 * @param prop    definition of the property to get
+	 * @return the property value, or null if no value is set
+	 */
+
+	Object getProperty(Module module, DesignElement element, ElementPropertyDefn prop) {
+		if (prop.getTypeCode() == IPropertyType.CONTENT_ELEMENT_TYPE
+				|| prop.getSubTypeCode() == IPropertyType.CONTENT_ELEMENT_TYPE) {
+			return element.resolveProperty(module, prop);
+		}
+
+		Map<ElementPropertyDefn, Object> elementValues = values.get(element);
+		if (elementValues == null) {
+			elementValues = values.computeIfAbsent(element, key -> new ConcurrentHashMap<>(8));
+		}
+
+		Object value = elementValues.get(prop);
+		if (value == null) {
+			// resolved outside of the map operations, since the search reads the
+			// properties of other elements
+			value = element.resolveProperty(module, prop);
+			elementValues.put(prop, value == null ? NULL_VALUE : value);
+			return value;
+		}
+		return value == NULL_VALUE ? null : value;
+	}
+}
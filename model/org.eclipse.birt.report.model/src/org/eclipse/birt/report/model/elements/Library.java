@@ -14,6 +14,8 @@
 
 package org.eclipse.birt.report.model.elements;
 
+import java.util.List;
+
 import org.eclipse.birt.report.model.api.DesignElementHandle;
 import org.eclipse.birt.report.model.api.LibraryHandle;
 import org.eclipse.birt.report.model.api.ModuleOption;
@@ -322,6 +324,16 @@ public class Library extends LayoutModule implements ILibraryModel {
 
 		cloned.setHost((LayoutModule) newHost);
 
+		// the library may be cloned from a library of another session
+		DesignSessionImpl newSession = newHost.getSession();
+		if (newSession != null && newSession != session) {
+			cloned.session = newSession;
+			List<Library> libraries = cloned.getAllLibraries();
+			for (int i = 0; i < libraries.size(); i++) {
+				libraries.get(i).session = newSession;
+			}
+		}
+
 		return cloned;
 	}
 
@@ -22,6 +22,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 
 import org.eclipse.birt.report.model.api.DesignElementHandle;
+import org.eclipse.birt.report.model.api.ModuleOption;
 import org.eclipse.birt.report.model.api.ReportDesignHandle;
 import org.eclipse.birt.report.model.api.activity.SemanticException;
 import org.eclipse.birt.report.model.api.core.IModuleModel;
@@ -310,6 +311,30 @@ abstract class ReportDesignImpl extends LayoutModule implements IReportDesignMod
 		return module;
 	}
 
+	/**
+	 * Returns a copy of the design in another session. The design is only read, so
+	 * copies of one design can be made by several threads as long as they
+	 * synchronize on the design.
+	 *
+	 * @param newSession the session of the copy
+	 * @param options    the options of the copy, or null
+	 * @return the copy of the design
+	 */
+
+	public final ReportDesign contextClone(DesignSessionImpl newSession, ModuleOption options) {
+		ReportDesign cloned = null;
+		try {
+			cloned = (ReportDesign) clone();
+			cloned.setOptions(options == null ? null : (ModuleOption) options.copy());
+		} catch (CloneNotSupportedException e) {
+			assert false;
+			return null;
+		}
+
+		cloned.session = newSession;
+		return cloned;
+	}
+
 	private void cloneOperation(ReportDesignImpl oldReportDesign, ReportDesignImpl newReportDesign)
 			throws CloneNotSupportedException {
 		CssStyleSheetAdapter oldCssStyleSheetAdapter = (CssStyleSheetAdapter) oldReportDesign.operation;
@@ -350,6 +375,8 @@ abstract class ReportDesignImpl extends LayoutModule implements IReportDesignMod
 		// grid or table lies in body and master page slot
 		doCacheValues(BODY_SLOT);
 		doCacheValues(IModuleModel.PAGE_SLOT);
+
+		cacheResolvedValues();
 	}
 
 	private void doCacheValues(int slotID) {
@@ -14,6 +14,7 @@
 
 package org.eclipse.birt.report.model.metadata;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -43,6 +44,7 @@ import org.eclipse.birt.report.model.api.util.StringUtil;
 import org.eclipse.birt.report.model.elements.ReportDesign;
 import org.eclipse.birt.report.model.elements.Style;
 import org.eclipse.birt.report.model.metadata.validators.IValueValidator;
+import org.eclipse.birt.report.model.util.SecurityUtil;
 import org.eclipse.birt.report.model.validators.AbstractSemanticValidator;
 
 /**
@@ -116,6 +118,13 @@ public final class MetaDataDictionary implements IMetaDataDictionary {
 
 	private static final String ROM_DEF_FILE_NAME = "rom.def"; //$NON-NLS-1$
 
+	/**
+	 * Name of the system property which gives the file of the binary snapshot of
+	 * "rom.def".
+	 */
+
+	private static final String SNAPSHOT_FILE_PROPERTY = "birt.model.metaDataSnapshot"; //$NON-NLS-1$
+
 	/**
 	 * The one and only metadata dictionary.
 	 */
@@ -545,7 +554,7 @@ public final class MetaDataDictionary implements IMetaDataDictionary {
 
 		try {
 			InputStream input = (ReportDesign.class.getResourceAsStream(ROM_DEF_FILE_NAME));
-			MetaDataReader.read(input);
+			MetaDataReader.read(input, getSnapshotFile());
 			ExtensionManager.getInstance().initialize();
 		} catch (MetaDataParserException e) {
 			// we provide logger, so do not assert.
@@ -555,6 +564,23 @@ public final class MetaDataDictionary implements IMetaDataDictionary {
 		}
 	}
 
+	/**
+	 * Returns the file of the binary snapshot of "rom.def", given by the
+	 * <code>birt.model.metaDataSnapshot</code> system property. The snapshot is
+	 * written the first time the meta-data is initialized, or when "rom.def"
+	 * changed, and replayed instead of parsing "rom.def" the next times.
+	 *
+	 * @return the snapshot file, or null if there is none
+	 */
+
+	private static File getSnapshotFile() {
+		String fileName = SecurityUtil.getSystemProperty(SNAPSHOT_FILE_PROPERTY, null);
+		if (StringUtil.isBlank(fileName)) {
+			return null;
+		}
+		return new File(fileName);
+	}
+
 	/**
 	 * Adds an element type to the dictionary. Must be done before the build step.
 	 * The element type name must be unique.
@@ -15,6 +15,9 @@
 package org.eclipse.birt.report.model.metadata;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -25,6 +28,7 @@ import java.util.logging.Logger;
 import javax.xml.parsers.SAXParser;
 
 import org.eclipse.birt.report.model.util.ParserFactory;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Reads the meta-data definition file. The parser populates the singleton
@@ -74,6 +78,16 @@ public final class MetaDataReader {
 		}
 	}
 
+	private static byte[] readBytes(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+		byte[] buffer = new byte[8192];
+		int count;
+		while ((count = inputStream.read(buffer)) != -1) {
+			out.write(buffer, 0, count);
+		}
+		return out.toByteArray();
+	}
+
 	/**
 	 * Parses the source metadata config file, retrieve the data into data
 	 * structures. <code>MetaLogManager</code> will be loaded to do the meta data
@@ -91,13 +105,80 @@ public final class MetaDataReader {
 			assert internalStream.markSupported();
 		}
 
+		parse(internalStream, new MetaDataHandler());
+	}
+
+	/**
+	 * Parses the source metadata config file like {@link #read(InputStream)}, or
+	 * replays its binary snapshot if the snapshot was recorded from the same file.
+	 * Otherwise the file is parsed and a new snapshot is written, for the next
+	 * time. The XML file is always read to check the snapshot, but not parsed.
+	 *
+	 * @param inputStream  meta source file stream.
+	 * @param snapshotFile the file of the snapshot, or null to always parse the
+	 *                     meta source file.
+	 * @throws MetaDataParserException
+	 */
+
+	public static void read(InputStream inputStream, File snapshotFile) throws MetaDataParserException {
+		if (snapshotFile == null || inputStream == null) {
+			read(inputStream);
+			return;
+		}
+
+		byte[] bytes;
+		try {
+			bytes = readBytes(inputStream);
+		} catch (IOException e) {
+			logger.log(Level.SEVERE, e.getMessage());
+			MetaLogManager.log("Metadata parsing error", e); //$NON-NLS-1$
+			throw new MetaDataParserException(e, MetaDataParserException.DESIGN_EXCEPTION_PARSER_ERROR);
+		}
+		long checksum = MetaDataSnapshot.getChecksum(bytes);
+
+		MetaDataSnapshot snapshot = null;
+		try {
+			snapshot = MetaDataSnapshot.load(snapshotFile, bytes.length, checksum);
+		} catch (IOException e) {
+			logger.log(Level.WARNING, e.getMessage());
+		}
+
+		assert MetaDataDictionary.getInstance().isEmpty();
+		if (snapshot != null) {
+			try {
+				snapshot.replay(new MetaDataHandler());
+			} catch (Exception e) {
+				logger.log(Level.SEVERE, e.getMessage());
+				MetaLogManager.log("Metadata parsing error", e); //$NON-NLS-1$
+				throw new MetaDataParserException(e, MetaDataParserException.DESIGN_EXCEPTION_PARSER_ERROR);
+			}
+			return;
+		}
+
+		MetaDataSnapshot.Recorder recorder = new MetaDataSnapshot.Recorder(new MetaDataHandler());
+		parse(new ByteArrayInputStream(bytes), recorder);
+		try {
+			recorder.getSnapshot().write(snapshotFile, bytes.length, checksum);
+		} catch (IOException e) {
+			logger.log(Level.WARNING, e.getMessage());
+		}
+	}
+
+	/**
+	 * Parses the meta source file stream with the given handler.
+	 *
+	 * @param inputStream meta source file stream.
+	 * @param handler     the handler which builds the meta-data
+	 * @throws MetaDataParserException
+	 */
+
+	private static void parse(InputStream inputStream, DefaultHandler handler) throws MetaDataParserException {
 		assert MetaDataDictionary.getInstance().isEmpty();
-		MetaDataHandler handler = new MetaDataHandler();
 
 		SAXParser parser = null;
 		try {
 			parser = ParserFactory.getInstance().getParser(null);
-			parser.parse(internalStream, handler);
+			parser.parse(inputStream, handler);
 		} catch (Exception e) {
 			logger.log(Level.SEVERE, e.getMessage());
 			MetaLogManager.log("Metadata parsing error", e); //$NON-NLS-1$
@@ -0,0 +1,415 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.model.metadata;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.LocatorImpl;
+
+/**
+ * Binary snapshot of the parse events of a meta-data definition file. The
+ * snapshot keeps the elements, attributes and text of the file, with their line
+ * numbers, and the strings of the file only once, so that replaying it to the
+ * meta-data handler builds the same dictionary as parsing the XML file, without
+ * the XML parser. The snapshot is read with one sequential read and is only used
+ * for the definition file it was recorded from: it keeps the length and the
+ * CRC-32 of the file, and a checksum of its own content.
+ */
+
+final class MetaDataSnapshot {
+
+	private static final int MAGIC = 0x42524f4d;
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int START_ELEMENT = 1;
+
+	private static final int END_ELEMENT = 2;
+
+	private static final int CHARACTERS = 3;
+
+	/**
+	 * The strings of the definition file.
+	 */
+
+	private final String[] strings;
+
+	/**
+	 * The parse events, as the event type followed by its line number, string
+	 * indexes and attribute count.
+	 */
+
+	private final int[] events;
+
+	private MetaDataSnapshot(String[] strings, int[] events) {
+		this.strings = strings;
+		this.events = events;
+	}
+
+	/**
+	 * Returns the CRC-32 of a definition file.
+	 *
+	 * @param bytes the content of the definition file
+	 * @return the CRC-32
+	 */
+
+	static long getChecksum(byte[] bytes) {
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		return crc.getValue();
+	}
+
+	/**
+	 * Loads the snapshot of a definition file.
+	 *
+	 * @param file     the snapshot file
+	 * @param length   the length of the definition file
+	 * @param checksum the CRC-32 of the definition file
+	 * @return the snapshot, or null if the file does not exist, is not valid or
+	 *         was recorded from another definition file
+	 * @throws IOException if the snapshot file can't be read
+	 */
+
+	static MetaDataSnapshot load(File file, long length, long checksum) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		if (bytes.length < 32) {
+			return null;
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - 8);
+		if (buffer.getLong(bytes.length - 8) != crc.getValue()) {
+			return null;
+		}
+		buffer.limit(bytes.length - 8);
+
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION || buffer.getLong() != length
+					|| buffer.getLong() != checksum) {
+				return null;
+			}
+			String[] strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; i++) {
+				int size = buffer.getInt();
+				strings[i] = new String(bytes, buffer.position(), size, StandardCharsets.UTF_8);
+				buffer.position(buffer.position() + size);
+			}
+			int[] events = new int[buffer.getInt()];
+			buffer.asIntBuffer().get(events);
+
+			MetaDataSnapshot snapshot = new MetaDataSnapshot(strings, events);
+			return snapshot.isValid() ? snapshot : null;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+				| NegativeArraySizeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks that the events refer to existing strings and that the elements are
+	 * balanced, so that a replay never stops half way.
+	 *
+	 * @return whether the events are valid
+	 */
+
+	private boolean isValid() {
+		int depth = 0;
+		int i = 0;
+		while (i < events.length) {
+			switch (events[i++]) {
+			case START_ELEMENT:
+				if (i + 3 > events.length) {
+					return false;
+				}
+				int attrCount = events[i + 2];
+				if (!isString(events[i + 1]) || attrCount < 0 || attrCount > (events.length - i - 3) / 2) {
+					return false;
+				}
+				i += 3;
+				for (int j = 0; j < attrCount * 2; j++) {
+					if (!isString(events[i++])) {
+						return false;
+					}
+				}
+				depth++;
+				break;
+			case END_ELEMENT:
+				if (i + 2 > events.length || !isString(events[i + 1]) || --depth < 0) {
+					return false;
+				}
+				i += 2;
+				break;
+			case CHARACTERS:
+				if (i + 1 > events.length || !isString(events[i])) {
+					return false;
+				}
+				i++;
+				break;
+			default:
+				return false;
+			}
+		}
+		return depth == 0;
+	}
+
+	private boolean isString(int index) {
+		return index >= 0 && index < strings.length;
+	}
+
+	/**
+	 * Replays the parse events to a handler, as the XML parser would send them.
+	 *
+	 * @param handler the handler
+	 * @throws SAXException if the handler fails
+	 */
+
+	void replay(ContentHandler handler) throws SAXException {
+		LocatorImpl locator = new LocatorImpl();
+		locator.setLineNumber(1);
+		handler.setDocumentLocator(locator);
+		handler.startDocument();
+
+		int i = 0;
+		while (i < events.length) {
+			switch (events[i++]) {
+			case START_ELEMENT:
+				locator.setLineNumber(events[i++]);
+				String name = strings[events[i++]];
+				int attrCount = events[i++];
+				AttributesImpl atts = new AttributesImpl();
+				for (int j = 0; j < attrCount; j++) {
+					String attrName = strings[events[i++]];
+					atts.addAttribute("", attrName, attrName, "CDATA", strings[events[i++]]); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				handler.startElement("", name, name, atts); //$NON-NLS-1$
+				break;
+			case END_ELEMENT:
+				locator.setLineNumber(events[i++]);
+				name = strings[events[i++]];
+				handler.endElement("", name, name); //$NON-NLS-1$
+				break;
+			case CHARACTERS:
+				char[] text = strings[events[i++]].toCharArray();
+				handler.characters(text, 0, text.length);
+				break;
+			default:
+				assert false;
+			}
+		}
+		handler.endDocument();
+	}
+
+	/**
+	 * Handler which records the parse events of a definition file and passes them
+	 * to the meta-data handler.
+	 */
+
+	static class Recorder extends DefaultHandler {
+
+		private final DefaultHandler handler;
+
+		private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+		private final List<String> strings = new ArrayList<>();
+
+		private int[] events = new int[4096];
+
+		private int eventCount = 0;
+
+		private StringBuilder text = new StringBuilder();
+
+		private Locator locator;
+
+		/**
+		 * @param handler the handler which builds the meta-data
+		 */
+
+		Recorder(DefaultHandler handler) {
+			this.handler = handler;
+		}
+
+		/**
+		 * Returns the snapshot of the recorded events.
+		 *
+		 * @return the snapshot
+		 */
+
+		MetaDataSnapshot getSnapshot() {
+			flushText();
+			return new MetaDataSnapshot(strings.toArray(new String[strings.size()]),
+					Arrays.copyOf(events, eventCount));
+		}
+
+		@Override
+		public void setDocumentLocator(Locator theLocator) {
+			locator = theLocator;
+			handler.setDocumentLocator(theLocator);
+		}
+
+		@Override
+		public void startDocument() throws SAXException {
+			handler.startDocument();
+		}
+
+		@Override
+		public void endDocument() throws SAXException {
+			flushText();
+			handler.endDocument();
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes)
+				throws SAXException {
+			flushText();
+			add(START_ELEMENT);
+			add(getLineNumber());
+			add(getStringIndex(qName));
+			add(attributes.getLength());
+			for (int i = 0; i < attributes.getLength(); i++) {
+				add(getStringIndex(attributes.getQName(i)));
+				add(getStringIndex(attributes.getValue(i)));
+			}
+			handler.startElement(uri, localName, qName, attributes);
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			flushText();
+			add(END_ELEMENT);
+			add(getLineNumber());
+			add(getStringIndex(qName));
+			handler.endElement(uri, localName, qName);
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException {
+			text.append(ch, start, length);
+			handler.characters(ch, start, length);
+		}
+
+		@Override
+		public void error(SAXParseException e) throws SAXException {
+			handler.error(e);
+		}
+
+		@Override
+		public void warning(SAXParseException e) throws SAXException {
+			handler.warning(e);
+		}
+
+		@Override
+		public void fatalError(SAXParseException e) throws SAXException {
+			handler.fatalError(e);
+		}
+
+		private void flushText() {
+			if (text.length() > 0) {
+				add(CHARACTERS);
+				add(getStringIndex(text.toString()));
+				text.setLength(0);
+			}
+		}
+
+		private int getLineNumber() {
+			return locator == null ? -1 : locator.getLineNumber();
+		}
+
+		private int getStringIndex(String value) {
+			Integer index = stringIndexes.get(value);
+			if (index == null) {
+				index = Integer.valueOf(strings.size());
+				strings.add(value);
+				stringIndexes.put(value, index);
+			}
+			return index.intValue();
+		}
+
+		private void add(int value) {
+			if (eventCount == events.length) {
+				events = Arrays.copyOf(events, eventCount * 2);
+			}
+			events[eventCount++] = value;
+		}
+	}
+
+	/**
+	 * Writes the snapshot to a file. The snapshot is written to a temporary file
+	 * which then replaces the file, so that a snapshot read at the same time is
+	 * never partly written.
+	 *
+	 * @param file     the snapshot file
+	 * @param length   the length of the definition file
+	 * @param checksum the CRC-32 of the definition file
+	 * @throws IOException if the snapshot can't be written
+	 */
+
+	void write(File file, long length, long checksum) throws IOException {
+		File folder = file.getAbsoluteFile().getParentFile();
+		if (folder != null && !folder.exists()) {
+			folder.mkdirs();
+		}
+		File tmpFile = File.createTempFile(file.getName(), ".tmp", folder); //$NON-NLS-1$
+		try {
+			CRC32 crc = new CRC32();
+			try (DataOutputStream out = new DataOutputStream(
+					new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)), crc))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeLong(length);
+				out.writeLong(checksum);
+				out.writeInt(strings.length);
+				for (int i = 0; i < strings.length; i++) {
+					byte[] bytes = strings[i].getBytes(StandardCharsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+				out.writeInt(events.length);
+				for (int i = 0; i < events.length; i++) {
+					out.writeInt(events[i]);
+				}
+				out.writeLong(crc.getValue());
+			}
+			Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			tmpFile.delete();
+		}
+	}
+}
@@ -18,6 +18,9 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +34,7 @@ import javax.xml.parsers.SAXParser;
 import org.eclipse.birt.report.model.api.DesignFileException;
 import org.eclipse.birt.report.model.api.util.UnicodeUtil;
 import org.eclipse.birt.report.model.core.Module;
+import org.eclipse.birt.report.model.util.LocalizedDesignCache;
 import org.eclipse.birt.report.model.util.ModelUtil;
 import org.eclipse.birt.report.model.util.ParserFactory;
 import org.eclipse.birt.report.model.util.XMLParserException;
@@ -72,8 +76,19 @@ public abstract class ModuleReader {
 		assert handler != null;
 
 		InputStream internalStream = inputStream;
-		if (!inputStream.markSupported()) {
-			internalStream = new BufferedInputStream(inputStream);
+		MessageDigest digest = null;
+		if (LocalizedDesignCache.isEnabled()) {
+			// digest below the buffer, so that the bytes read again after a reset
+			// are digested once
+			try {
+				digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+				internalStream = new BufferedInputStream(new DigestInputStream(inputStream, digest));
+			} catch (NoSuchAlgorithmException e) {
+				digest = null;
+			}
+		}
+		if (!internalStream.markSupported()) {
+			internalStream = new BufferedInputStream(internalStream);
 		}
 
 		assert internalStream.markSupported();
@@ -150,10 +165,22 @@ public abstract class ModuleReader {
 		Module module = handler.getModule();
 		module.setUTFSignature(signature);
 		module.setValid(true);
+		if (digest != null) {
+			module.setSourceDigest(toHexString(digest.digest()));
+		}
 
 		return module;
 	}
 
+	private static String toHexString(byte[] bytes) {
+		StringBuilder buffer = new StringBuilder(bytes.length * 2);
+		for (int i = 0; i < bytes.length; i++) {
+			buffer.append(Character.forDigit((bytes[i] >> 4) & 0xF, 16));
+			buffer.append(Character.forDigit(bytes[i] & 0xF, 16));
+		}
+		return buffer.toString();
+	}
+
 	/**
 	 * Parses an XML design file given a file name. Creates and returns the internal
 	 * representation of the report design
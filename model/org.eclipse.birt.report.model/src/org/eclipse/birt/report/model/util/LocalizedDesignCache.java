@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.model.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.report.model.core.DesignElement;
+import org.eclipse.birt.report.model.core.DesignSessionImpl;
+import org.eclipse.birt.report.model.core.Module;
+import org.eclipse.birt.report.model.elements.AbstractTheme;
+import org.eclipse.birt.report.model.elements.Library;
+import org.eclipse.birt.report.model.elements.ReportDesign;
+import org.eclipse.birt.report.model.elements.interfaces.ILibraryModel;
+import org.eclipse.birt.report.model.elements.interfaces.IReportDesignModel;
+
+/**
+ * Process-wide cache of the localized designs written by the document writer.
+ * <p>
+ * A design is localized again only if its content, or the content of one of
+ * its libraries, is not the one of a cached design. The content is identified
+ * by the digests of the files the design and its libraries were read from, and
+ * by their modification stamps, which change once they are modified by a
+ * command. The location of the design and its resource folder are part of the
+ * key too, so that identical files at different paths are not mixed up. A
+ * cached design is given out as a context clone in the session of the design
+ * to localize, and its written content is copied as is.
+ * <p>
+ * Designs created in memory, and designs or libraries which include css style
+ * sheets, are never cached since their content does not come from one file.
+ * The cache holds at most <code>birt.model.localizedDesignCache.size</code>
+ * designs, 16 by default, and is disabled if it is 0.
+ */
+
+public final class LocalizedDesignCache {
+
+	private static final int MAX_SIZE = parseSize(
+			SecurityUtil.getSystemProperty("birt.model.localizedDesignCache.size", "16")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	private static final LocalizedDesignCache instance = new LocalizedDesignCache();
+
+	/**
+	 * The localized designs in access order.
+	 */
+	private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private LocalizedDesignCache() {
+	}
+
+	/**
+	 * Returns the only instance of the cache.
+	 *
+	 * @return the cache
+	 */
+
+	public static LocalizedDesignCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns whether the designs are cached. The module readers only compute
+	 * the digests of the files if they are.
+	 *
+	 * @return <code>true</code> if the cache is enabled
+	 */
+
+	public static boolean isEnabled() {
+		return MAX_SIZE > 0;
+	}
+
+	/**
+	 * Returns the key of the content of a design and of its libraries.
+	 *
+	 * @param source the design to localize
+	 * @return the key, or null if the design can't be cached
+	 */
+
+	public String getKey(ReportDesign source) {
+		if (!isEnabled() || !hasFileContent(source, IReportDesignModel.THEMES_SLOT)) {
+			return null;
+		}
+		StringBuilder key = new StringBuilder();
+		key.append(source.getSourceDigest()).append('#').append(source.getModificationStamp());
+
+		// the localized design keeps the location of the design, and resolves
+		// resources in the resource folder
+		key.append('@').append(source.getSystemId()).append('@').append(source.getFileName());
+		key.append('@').append(source.getSession().getResourceFolder());
+		if (source.getOptions() != null) {
+			key.append('@').append(source.getOptions().getResourceFolder());
+		}
+
+		List<Library> libraries = source.getAllLibraries();
+		for (int i = 0; i < libraries.size(); i++) {
+			Library library = libraries.get(i);
+			if (!hasFileContent(library, ILibraryModel.THEMES_SLOT)) {
+				return null;
+			}
+			key.append('|').append(library.getNamespace()).append(':').append(library.getSourceDigest()).append('#')
+					.append(library.getModificationStamp());
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Returns whether the content of a module only comes from the file it was
+	 * read from.
+	 */
+
+	private static boolean hasFileContent(Module module, int themesSlot) {
+		if (module.getSourceDigest() == null) {
+			return false;
+		}
+		if (module instanceof ReportDesign && !((ReportDesign) module).getCsses().isEmpty()) {
+			return false;
+		}
+		List<DesignElement> themes = module.getSlot(themesSlot).getContents();
+		for (int i = 0; i < themes.size(); i++) {
+			DesignElement theme = themes.get(i);
+			if (theme instanceof AbstractTheme && !((AbstractTheme) theme).getCsses().isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a copy of the cached localized design, after writing its content.
+	 *
+	 * @param key    the key of the design to localize
+	 * @param source the design to localize
+	 * @param out    the output stream to which the localized design is written
+	 * @return the localized design, or null if it is not cached
+	 * @throws IOException if the content can't be written
+	 */
+
+	public ReportDesign getDesign(String key, ReportDesign source, OutputStream out) throws IOException {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+		}
+		if (entry == null) {
+			return null;
+		}
+
+		ReportDesign design;
+		synchronized (entry.design) {
+			design = entry.design.contextClone(source.getSession(), source.getOptions());
+		}
+		out.write(entry.content);
+		return design;
+	}
+
+	/**
+	 * Caches a localized design. The design is copied, so that the caller can go
+	 * on using it.
+	 *
+	 * @param key     the key of the localized design
+	 * @param design  the localized design
+	 * @param content the written content of the localized design
+	 */
+
+	public void putDesign(String key, ReportDesign design, byte[] content) {
+		// the cached design mustn't keep the session of the caller and its
+		// modules
+		DesignSessionImpl session = design.getSession();
+		DesignSessionImpl cacheSession = new DesignSessionImpl(session.getLocale());
+		cacheSession.setResourceLocator(session.getResourceLocator());
+		cacheSession.setResourceFolder(session.getResourceFolder());
+
+		Entry entry = new Entry(design.contextClone(cacheSession, design.getOptions()), content);
+		synchronized (entries) {
+			entries.put(key, entry);
+		}
+	}
+
+	private static int parseSize(String value) {
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static class Entry {
+
+		private final ReportDesign design;
+		private final byte[] content;
+
+		Entry(ReportDesign design, byte[] content) {
+			this.design = design;
+			this.content = content;
+		}
+	}
+}
@@ -73,6 +73,7 @@ public class AllTests extends BaseTestCase {
 		List tmpClasses = new ArrayList(getClasses("context", pkgPrefix));
 		tmpClasses.addAll(getClasses("service", pkgPrefix)); //$NON-NLS-1$
 		tmpClasses.addAll(getClasses("utility", pkgPrefix)); //$NON-NLS-1$
+		tmpClasses.addAll(getClasses("session", pkgPrefix)); //$NON-NLS-1$
 
 		return tmpClasses;
 
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.viewer.session;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.birt.report.session.PageRenderCache;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the cache of the rendered pages.
+ */
+public class PageRenderCacheTest extends TestCase {
+
+	private static final int PAGE_SIZE = 60;
+
+	private File folder;
+	private File diskFolder;
+	private String document1;
+	private String document2;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		folder = Files.createTempDirectory("pagecache").toFile(); //$NON-NLS-1$
+		diskFolder = new File(folder, "pages"); //$NON-NLS-1$
+		document1 = createDocument("report1.rptdocument"); //$NON-NLS-1$
+		document2 = createDocument("report2.rptdocument"); //$NON-NLS-1$
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		delete(folder);
+		super.tearDown();
+	}
+
+	/**
+	 * A cached page is returned with its instance ids.
+	 */
+	public void testHit() {
+		PageRenderCache cache = new PageRenderCache(5 * PAGE_SIZE, 0, null);
+		cache.put(key(document1, 1), content(1), Arrays.asList("id1", "id2")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		List<Object> activeIds = new ArrayList<>();
+		assertTrue(Arrays.equals(content(1), cache.get(key(document1, 1), activeIds)));
+		assertEquals(Arrays.asList("id1", "id2"), activeIds); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(cache.get(key(document1, 2), null));
+		assertNull(cache.get(new PageRenderCache.Key(document1, 1, "http", "other", ""), null)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	/**
+	 * The least recently used page is dropped once the cache is full.
+	 */
+	public void testEviction() {
+		PageRenderCache cache = new PageRenderCache(5 * PAGE_SIZE, 0, null);
+		for (int i = 1; i <= 5; i++) {
+			cache.put(key(document1, i), content(i), null);
+		}
+		assertNotNull(cache.get(key(document1, 1), null));
+		cache.put(key(document1, 6), content(6), null);
+
+		assertNotNull(cache.get(key(document1, 1), null));
+		assertNull(cache.get(key(document1, 2), null));
+		for (int i = 3; i <= 6; i++) {
+			assertNotNull(cache.get(key(document1, i), null));
+		}
+	}
+
+	/**
+	 * A page dropped from the memory is written to the disk and read back.
+	 */
+	public void testDiskSpill() {
+		// room for five pages and the instance id of the first one
+		PageRenderCache cache = new PageRenderCache(5 * PAGE_SIZE + 10, 100 * PAGE_SIZE, diskFolder.getPath());
+		cache.put(key(document1, 1), content(1), Arrays.asList("id1")); //$NON-NLS-1$
+		for (int i = 2; i <= 6; i++) {
+			cache.put(key(document1, i), content(i), null);
+		}
+		assertEquals(1, diskFolder.list().length);
+
+		List<Object> activeIds = new ArrayList<>();
+		assertTrue(Arrays.equals(content(1), cache.get(key(document1, 1), activeIds)));
+		assertEquals(Arrays.asList("id1"), activeIds); //$NON-NLS-1$
+
+		// reading the page back moves the least recently used page to the disk
+		assertEquals(1, diskFolder.list().length);
+		for (int i = 1; i <= 6; i++) {
+			assertTrue(Arrays.equals(content(i), cache.get(key(document1, i), null)));
+		}
+	}
+
+	/**
+	 * The pages of a document are removed from the memory and the disk.
+	 */
+	public void testInvalidate() {
+		PageRenderCache cache = new PageRenderCache(5 * PAGE_SIZE, 100 * PAGE_SIZE, diskFolder.getPath());
+		for (int i = 1; i <= 3; i++) {
+			cache.put(key(document1, i), content(i), null);
+		}
+		for (int i = 1; i <= 4; i++) {
+			cache.put(key(document2, i), content(i), null);
+		}
+		assertEquals(2, diskFolder.list().length);
+
+		cache.invalidate(document1);
+
+		assertEquals(0, diskFolder.list().length);
+		for (int i = 1; i <= 3; i++) {
+			assertNull(cache.get(key(document1, i), null));
+		}
+		for (int i = 1; i <= 4; i++) {
+			assertTrue(Arrays.equals(content(i), cache.get(key(document2, i), null)));
+		}
+	}
+
+	private PageRenderCache.Key key(String document, long page) {
+		return new PageRenderCache.Key(document, page, "http", "session", ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private byte[] content(int page) {
+		byte[] content = new byte[PAGE_SIZE];
+		Arrays.fill(content, (byte) page);
+		return content;
+	}
+
+	private String createDocument(String name) throws Exception {
+		File file = new File(folder, name);
+		Files.write(file.toPath(), new byte[] { 1 });
+		return file.getPath();
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
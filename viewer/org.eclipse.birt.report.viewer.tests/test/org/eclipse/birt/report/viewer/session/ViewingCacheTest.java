@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.viewer.session;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.eclipse.birt.report.session.ViewingCache;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests of the background cleaner of the viewing cache.
+ */
+public class ViewingCacheTest extends TestCase {
+
+	private static final long INTERVAL = 3600;
+
+	private File folder;
+	private File documentFolder;
+	private File imageFolder;
+	private ViewingCache cache;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		folder = Files.createTempDirectory("viewingcache").toFile(); //$NON-NLS-1$
+		documentFolder = new File(folder, "documents"); //$NON-NLS-1$
+		imageFolder = new File(folder, "images"); //$NON-NLS-1$
+		documentFolder.mkdirs();
+		imageFolder.mkdirs();
+		cache = new ViewingCache(documentFolder.getPath(), imageFolder.getPath());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		cache.shutdown();
+		delete(folder);
+		super.tearDown();
+	}
+
+	/**
+	 * The folder of a cleared session is renamed at once, so that a new session
+	 * with the same id doesn't see its files, and deleted by the cleaner.
+	 */
+	public void testRenameThenDelete() throws Exception {
+		cache.startCleaner(INTERVAL, 0);
+		File sessionFolder = createSessionFolder("session1", 5); //$NON-NLS-1$
+
+		cache.clearSession("session1", null); //$NON-NLS-1$
+
+		assertFalse(sessionFolder.exists());
+		waitForCleanup(10000);
+		assertEquals(0, cache.getPendingCleanupCount());
+		assertEquals(0, documentFolder.list().length);
+	}
+
+	/**
+	 * The cleaner deletes at most the given number of files per second.
+	 */
+	public void testThrottling() throws Exception {
+		cache.startCleaner(INTERVAL, 10);
+		createSessionFolder("session1", 30); //$NON-NLS-1$
+
+		long start = System.currentTimeMillis();
+		cache.clearSession("session1", null); //$NON-NLS-1$
+		Thread.sleep(200);
+		assertEquals(1, cache.getPendingCleanupCount());
+		assertEquals(1, documentFolder.list().length);
+		assertTrue(cache.getCleanupLag() > 0);
+
+		// 31 files at 10 files per second wait for the end of two seconds
+		waitForCleanup(20000);
+		assertTrue(System.currentTimeMillis() - start >= 1500);
+		assertEquals(0, documentFolder.list().length);
+		assertEquals(0, cache.getCleanupLag());
+	}
+
+	/**
+	 * A renamed folder which the cleaner didn't get to is deleted when the cache
+	 * is created again.
+	 */
+	public void testRenamedFolderDeletedOnStartUp() throws Exception {
+		cache.startCleaner(INTERVAL, 1);
+		createSessionFolder("session1", 10); //$NON-NLS-1$
+		cache.clearSession("session1", null); //$NON-NLS-1$
+		cache.shutdown();
+		assertEquals(1, documentFolder.list().length);
+		assertTrue(documentFolder.list()[0].startsWith("BIRTDOC")); //$NON-NLS-1$
+
+		cache = new ViewingCache(documentFolder.getPath(), imageFolder.getPath());
+		assertEquals(0, documentFolder.list().length);
+	}
+
+	/**
+	 * Without a cleaner, the folder is deleted on the calling thread.
+	 */
+	public void testDeleteWithoutCleaner() throws Exception {
+		createSessionFolder("session1", 5); //$NON-NLS-1$
+		cache.clearSession("session1", null); //$NON-NLS-1$
+		assertEquals(0, documentFolder.list().length);
+		assertEquals(0, cache.getPendingCleanupCount());
+		assertEquals(-1, cache.getDiskUsage());
+	}
+
+	private File createSessionFolder(String sessionId, int fileCount) throws Exception {
+		File sessionFolder = new File(cache.createDocumentPath(sessionId, null, "report.rptdocument")) //$NON-NLS-1$
+				.getParentFile();
+		sessionFolder.mkdirs();
+		for (int i = 0; i < fileCount; i++) {
+			Files.write(new File(sessionFolder, "file" + i).toPath(), new byte[] { 1 }); //$NON-NLS-1$
+		}
+		return sessionFolder;
+	}
+
+	private void waitForCleanup(long timeout) throws InterruptedException {
+		long end = System.currentTimeMillis() + timeout;
+		while (cache.getPendingCleanupCount() > 0 && System.currentTimeMillis() < end) {
+			Thread.sleep(50);
+		}
+	}
+
+	private void delete(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -22,6 +22,7 @@ import org.eclipse.birt.report.service.BirtReportServiceFactory;
 import org.eclipse.birt.report.service.BirtViewerReportService;
 import org.eclipse.birt.report.service.ReportEngineService;
 import org.eclipse.birt.report.service.api.IViewerReportService;
+import org.eclipse.birt.report.session.ViewingSessionUtil;
 import org.eclipse.birt.report.utility.ParameterAccessor;
 
 /**
@@ -43,6 +44,9 @@ public class ViewerServletContextListener implements ServletContextListener {
 		// ReportEngineService.
 		Platform.shutdown();
 		ReportEngineService.shutdown();
+		if (ViewingSessionUtil.viewingCache != null) {
+			ViewingSessionUtil.viewingCache.shutdown();
+		}
 
 		// Reset initialized parameter
 		ParameterAccessor.reset();
@@ -14,9 +14,11 @@
 package org.eclipse.birt.report.service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.OutputStream;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -26,9 +28,11 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.TreeMap;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.report.IBirtConstants;
@@ -60,6 +64,9 @@ import org.eclipse.birt.report.service.api.ParameterGroupDefinition;
 import org.eclipse.birt.report.service.api.ParameterSelectionChoice;
 import org.eclipse.birt.report.service.api.ReportServiceException;
 import org.eclipse.birt.report.service.api.ToC;
+import org.eclipse.birt.report.session.IViewingSession;
+import org.eclipse.birt.report.session.PageRenderCache;
+import org.eclipse.birt.report.session.ViewingSessionUtil;
 import org.eclipse.birt.report.soapengine.api.Column;
 import org.eclipse.birt.report.soapengine.api.ResultSet;
 import org.eclipse.birt.report.utility.BirtUtility;
@@ -169,11 +176,22 @@ public class BirtViewerReportService implements IViewerReportService {
 		IReportDocument doc = null;
 		ByteArrayOutputStream os = null;
 		try {
-			doc = openReportDocument(docName, renderOptions);
 			long pageNum = Long.parseLong(pageID);
+			PageRenderCache cache = getRenderCache();
+			PageRenderCache.Key key = cache != null ? createPageKey(docName, pageNum, renderOptions) : null;
+			byte[] page = key != null ? cache.get(key, activeIds) : null;
+			if (page != null) {
+				os = new ByteArrayOutputStream(page.length);
+				os.write(page, 0, page.length);
+			} else {
+				doc = openReportDocument(docName, renderOptions);
 
-			os = new ByteArrayOutputStream();
-			ReportEngineService.getInstance().renderReport(os, doc, pageNum, null, renderOptions, activeIds);
+				os = new ByteArrayOutputStream();
+				ReportEngineService.getInstance().renderReport(os, doc, pageNum, null, renderOptions, activeIds);
+				if (key != null && doc.isComplete()) {
+					cache.put(key, os.toByteArray(), activeIds);
+				}
+			}
 		} catch (RemoteException e) {
 			throwReportServiceException(e);
 		} finally {
@@ -184,6 +202,52 @@ public class BirtViewerReportService implements IViewerReportService {
 		return os;
 	}
 
+	/**
+	 * Returns the cache of the rendered pages, or null if the pages are not cached.
+	 */
+	private PageRenderCache getRenderCache() {
+		if (ParameterAccessor.isDesigner() || ViewingSessionUtil.viewingCache == null) {
+			return null;
+		}
+		return ViewingSessionUtil.viewingCache.getRenderCache();
+	}
+
+	/**
+	 * Creates the key of a page in the cache of the rendered pages. The key has the
+	 * viewing session, since the links and the images of a page belong to it, and
+	 * the render options and request parameters which can change the page.
+	 *
+	 * @return the key, or null if the page can't be cached
+	 */
+	private PageRenderCache.Key createPageKey(String docName, long pageNum, InputOptions renderOptions) {
+		HttpServletRequest request = (HttpServletRequest) renderOptions.getOption(InputOptions.OPT_REQUEST);
+		if (request == null || docName == null || !new File(docName).isFile()) {
+			return null;
+		}
+		HttpSession httpSession = request.getSession(false);
+		IViewingSession session = ViewingSessionUtil.getSession(request);
+		if (httpSession == null || session == null) {
+			return null;
+		}
+		StringBuilder options = new StringBuilder();
+		for (Map.Entry<String, Object> entry : new TreeMap<>(renderOptions.getOptions()).entrySet()) {
+			Object value = entry.getValue();
+			if (value instanceof TimeZone) {
+				value = ((TimeZone) value).getID();
+			} else if (!(value instanceof String || value instanceof Boolean || value instanceof Number
+					|| value instanceof Locale)) {
+				continue;
+			}
+			options.append(entry.getKey()).append('=').append(value).append('&');
+		}
+		Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+		for (Map.Entry<String, String[]> entry : parameters.entrySet()) {
+			options.append(entry.getKey()).append('=').append(Arrays.toString(entry.getValue())).append('&');
+		}
+		options.append(request.getContextPath());
+		return new PageRenderCache.Key(docName, pageNum, httpSession.getId(), session.getId(), options.toString());
+	}
+
 	/**
 	 * Returns whether a given report document has right-to-left orientation.
 	 *
@@ -862,7 +926,8 @@ public class BirtViewerReportService implements IViewerReportService {
 	}
 
 	/**
-	 * Returns the TOC Children from a TOCNode
+	 * Returns the TOC Children from a TOCNode. The children of the children aren't
+	 * loaded, the viewer gets them when the child is expanded.
 	 *
 	 * @param node
 	 * @return
@@ -878,8 +943,8 @@ public class BirtViewerReportService implements IViewerReportService {
 			TOCNode childNode = (TOCNode) it.next();
 			ToC child = new ToC(childNode.getNodeID(), childNode.getDisplayString(), childNode.getBookmark(),
 					BirtUtility.getTOCStyle(childNode));
-			// Recursion to transform all children etc...
-			child.setChildren(getToCChildren(childNode));
+			List grandChildren = childNode.getChildren();
+			child.setLeaf(grandChildren == null || grandChildren.isEmpty());
 			ret.add(child);
 		}
 		return ret;
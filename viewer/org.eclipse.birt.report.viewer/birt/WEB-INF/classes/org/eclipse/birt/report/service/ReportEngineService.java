@@ -1093,6 +1093,12 @@ public class ReportEngineService {
 
 			throwDummyException(e);
 		} finally {
+			// The pages rendered from the previous document are stale
+			if (ViewingSessionUtil.viewingCache != null
+					&& ViewingSessionUtil.viewingCache.getRenderCache() != null) {
+				ViewingSessionUtil.viewingCache.getRenderCache().invalidate(documentName);
+			}
+
 			// Remove task from http session
 			BirtUtility.removeTask(request);
 
@@ -148,8 +148,7 @@ public abstract class AbstractGetTOCActionHandler extends AbstractBaseActionHand
 				childTOCNodes[i].setDisplayName(ParameterAccessor.htmlEncode(child.getDisplayName()));
 				childTOCNodes[i].setBookmark(child.getBookmark());
 				childTOCNodes[i].setStyle(child.getStyle());
-				childTOCNodes[i]
-						.setIsLeaf(child.getChildren() == null || child.getChildren().size() <= 0);
+				childTOCNodes[i].setIsLeaf(child.isLeaf());
 			}
 			toc.setChild(childTOCNodes);
 		}
@@ -46,6 +46,11 @@ public class ToC {
 	 */
 	private String style;
 
+	/**
+	 * whether the toc has no children, if the children aren't loaded
+	 */
+	private boolean leaf;
+
 	/**
 	 * Constructor
 	 *
@@ -77,6 +82,25 @@ public class ToC {
 		this.children = children;
 	}
 
+	/**
+	 * @return whether the toc has no children
+	 */
+	public boolean isLeaf() {
+		if (children != null) {
+			return children.isEmpty();
+		}
+		return leaf;
+	}
+
+	/**
+	 * Set whether the toc has no children, for a toc whose children aren't loaded
+	 *
+	 * @param leaf
+	 */
+	public void setLeaf(boolean leaf) {
+		this.leaf = leaf;
+	}
+
 	/**
 	 * @return the id
 	 */
@@ -0,0 +1,456 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+
+package org.eclipse.birt.report.session;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache of the rendered pages of the report documents, shared by all the
+ * viewing sessions.
+ *
+ * A page is cached with the instance ids the emitter collected while rendering
+ * it, under a key made of the document file, its modification time and length,
+ * the page number, the viewing session and the render options. The pages are
+ * kept in memory up to a number of bytes and dropped in least recently used
+ * order. If a disk size is given, the dropped pages are moved to files in the
+ * disk folder, which are dropped in the same way.
+ *
+ * Only the bookkeeping of the pages is done under the lock of the cache, the
+ * files are written, read and deleted outside of it. A page being written keeps
+ * its content until the file is complete, and a page dropped while its file is
+ * being read is a cache miss.
+ */
+public class PageRenderCache {
+
+	private static final Logger logger = Logger.getLogger(PageRenderCache.class.getName());
+
+	/**
+	 * Identifies a rendered page.
+	 */
+	public static class Key {
+
+		private String documentName;
+		private long documentTime;
+		private long documentLength;
+		private long pageNumber;
+		private String httpSessionId;
+		private String sessionId;
+		private String options;
+
+		/**
+		 * @param documentName  document file name
+		 * @param pageNumber    page number
+		 * @param httpSessionId HTTP session ID
+		 * @param sessionId     viewing session ID
+		 * @param options       the render options, as a string
+		 */
+		public Key(String documentName, long pageNumber, String httpSessionId, String sessionId, String options) {
+			File file = new File(documentName);
+			this.documentName = documentName;
+			this.documentTime = file.lastModified();
+			this.documentLength = file.length();
+			this.pageNumber = pageNumber;
+			this.httpSessionId = httpSessionId;
+			this.sessionId = sessionId;
+			this.options = options;
+		}
+
+		private boolean isSession(String httpSessionId, String sessionId) {
+			return httpSessionId.equals(this.httpSessionId) && (sessionId == null || sessionId.equals(this.sessionId));
+		}
+
+		@Override
+		public int hashCode() {
+			return ((documentName.hashCode() * 31 + (int) pageNumber) * 31 + options.hashCode()) * 31
+					+ (int) documentTime;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) obj;
+			return pageNumber == key.pageNumber && documentTime == key.documentTime
+					&& documentLength == key.documentLength && documentName.equals(key.documentName)
+					&& equals(httpSessionId, key.httpSessionId) && equals(sessionId, key.sessionId)
+					&& options.equals(key.options);
+		}
+
+		private static boolean equals(String a, String b) {
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+
+	/**
+	 * A rendered page. The content and the active ids are null once the page is
+	 * written to its file.
+	 */
+	private static class Page {
+		byte[] content;
+		List<String> activeIds;
+		File file;
+		long size;
+	}
+
+	private long maxSize;
+	private long maxDiskSize;
+	private File diskFolder;
+
+	/**
+	 * Linked hash maps containing the pages in access order.
+	 */
+	private Map<Key, Page> pages = new LinkedHashMap<>(16, 0.75f, true);
+	private Map<Key, Page> diskPages = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+	private long diskSize;
+	private AtomicLong fileCount = new AtomicLong();
+
+	/**
+	 * Instantiates a new page cache.
+	 *
+	 * @param maxSize     the number of bytes of the pages kept in memory
+	 * @param maxDiskSize the number of bytes of the pages kept on the disk, 0 to
+	 *                    keep no page on the disk
+	 * @param diskFolder  the folder of the pages kept on the disk
+	 */
+	public PageRenderCache(long maxSize, long maxDiskSize, String diskFolder) {
+		this.maxSize = maxSize;
+		this.maxDiskSize = diskFolder == null ? 0 : maxDiskSize;
+		if (this.maxDiskSize > 0) {
+			this.diskFolder = new File(diskFolder);
+			this.diskFolder.mkdirs();
+		}
+	}
+
+	/**
+	 * Returns the rendered page and adds the instance ids of the page to the
+	 * active ids.
+	 *
+	 * @param key       page key
+	 * @param activeIds active ids, or null
+	 * @return the content of the page, or null if it isn't cached
+	 */
+	public byte[] get(Key key, List activeIds) {
+		Page page;
+		byte[] content;
+		List<String> ids;
+		File file;
+		boolean onDisk;
+		synchronized (this) {
+			page = pages.get(key);
+			onDisk = page == null;
+			if (onDisk) {
+				page = diskPages.get(key);
+				if (page == null) {
+					return null;
+				}
+			}
+			content = page.content;
+			ids = page.activeIds;
+			file = page.file;
+		}
+		if (file != null) {
+			Page read = new Page();
+			read.file = file;
+			try {
+				readPage(read);
+			} catch (IOException e) {
+				boolean dropped;
+				synchronized (this) {
+					dropped = diskPages.get(key) == page;
+					if (dropped) {
+						diskPages.remove(key);
+						diskSize -= page.size;
+					}
+				}
+				if (!dropped) {
+					// the page is moved or dropped meanwhile
+					return get(key, activeIds);
+				}
+				logger.log(Level.WARNING, e.getMessage(), e);
+				file.delete();
+				return null;
+			}
+			content = read.content;
+			ids = read.activeIds;
+		}
+		if (onDisk) {
+			moveToMemory(key, page, content, ids);
+		}
+		if (activeIds != null) {
+			activeIds.addAll(ids);
+		}
+		return content;
+	}
+
+	/**
+	 * Moves a page kept on the disk back to the memory, unless it is dropped or
+	 * moved meanwhile.
+	 */
+	private void moveToMemory(Key key, Page page, byte[] content, List<String> activeIds) {
+		List<File> deleted = new ArrayList<>();
+		List<Map.Entry<Key, Page>> spilled;
+		synchronized (this) {
+			if (diskPages.get(key) != page) {
+				return;
+			}
+			diskPages.remove(key);
+			diskSize -= page.size;
+			if (page.file != null) {
+				deleted.add(page.file);
+				page.file = null;
+			}
+			page.content = content;
+			page.activeIds = activeIds;
+			pages.put(key, page);
+			size += page.size;
+			spilled = trim(deleted);
+		}
+		delete(deleted);
+		spill(spilled);
+	}
+
+	/**
+	 * Caches a rendered page. A page taking more than a quarter of the cache isn't
+	 * cached.
+	 *
+	 * @param key       page key
+	 * @param content   content of the page
+	 * @param activeIds the instance ids of the page, or null
+	 */
+	public void put(Key key, byte[] content, List activeIds) {
+		if (content.length > maxSize / 4) {
+			return;
+		}
+		Page page = new Page();
+		page.content = content;
+		page.activeIds = new ArrayList<>();
+		if (activeIds != null) {
+			for (Object id : activeIds) {
+				page.activeIds.add(String.valueOf(id));
+			}
+		}
+		page.size = content.length;
+		for (String id : page.activeIds) {
+			page.size += id.length() * 2;
+		}
+		List<File> deleted = new ArrayList<>();
+		List<Map.Entry<Key, Page>> spilled;
+		synchronized (this) {
+			remove(key, deleted);
+			pages.put(key, page);
+			size += page.size;
+			spilled = trim(deleted);
+		}
+		delete(deleted);
+		spill(spilled);
+	}
+
+	/**
+	 * Removes the pages of a document, once it is generated again.
+	 *
+	 * @param documentName document file name
+	 */
+	public void invalidate(String documentName) {
+		List<File> deleted = new ArrayList<>();
+		synchronized (this) {
+			for (Iterator<Map.Entry<Key, Page>> i = pages.entrySet().iterator(); i.hasNext();) {
+				Map.Entry<Key, Page> entry = i.next();
+				if (entry.getKey().documentName.equals(documentName)) {
+					size -= entry.getValue().size;
+					i.remove();
+				}
+			}
+			for (Iterator<Map.Entry<Key, Page>> i = diskPages.entrySet().iterator(); i.hasNext();) {
+				Map.Entry<Key, Page> entry = i.next();
+				if (entry.getKey().documentName.equals(documentName)) {
+					deleteDiskPage(entry.getValue(), deleted);
+					i.remove();
+				}
+			}
+		}
+		delete(deleted);
+	}
+
+	/**
+	 * Removes the pages of a session, once it is expired.
+	 *
+	 * @param httpSessionId HTTP session ID
+	 * @param sessionId     viewing session ID or null to remove the pages of the
+	 *                      master session
+	 */
+	public void clearSession(String httpSessionId, String sessionId) {
+		List<File> deleted = new ArrayList<>();
+		synchronized (this) {
+			for (Iterator<Map.Entry<Key, Page>> i = pages.entrySet().iterator(); i.hasNext();) {
+				Map.Entry<Key, Page> entry = i.next();
+				if (entry.getKey().isSession(httpSessionId, sessionId)) {
+					size -= entry.getValue().size;
+					i.remove();
+				}
+			}
+			for (Iterator<Map.Entry<Key, Page>> i = diskPages.entrySet().iterator(); i.hasNext();) {
+				Map.Entry<Key, Page> entry = i.next();
+				if (entry.getKey().isSession(httpSessionId, sessionId)) {
+					deleteDiskPage(entry.getValue(), deleted);
+					i.remove();
+				}
+			}
+		}
+		delete(deleted);
+	}
+
+	private void remove(Key key, List<File> deleted) {
+		Page page = pages.remove(key);
+		if (page != null) {
+			size -= page.size;
+		}
+		page = diskPages.remove(key);
+		if (page != null) {
+			deleteDiskPage(page, deleted);
+		}
+	}
+
+	/**
+	 * Drops the least recently used pages until the cache fits in its size, the
+	 * dropped pages are moved to the disk if there is a disk folder. Must be called
+	 * under the lock of the cache.
+	 *
+	 * @param deleted the files to delete once the lock is released
+	 * @return the pages to write to the disk once the lock is released
+	 */
+	private List<Map.Entry<Key, Page>> trim(List<File> deleted) {
+		List<Map.Entry<Key, Page>> spilled = new ArrayList<>();
+		Iterator<Map.Entry<Key, Page>> i = pages.entrySet().iterator();
+		while (size > maxSize && i.hasNext()) {
+			Map.Entry<Key, Page> entry = i.next();
+			Page page = entry.getValue();
+			i.remove();
+			size -= page.size;
+			if (maxDiskSize > 0) {
+				diskPages.put(entry.getKey(), page);
+				diskSize += page.size;
+				spilled.add(entry);
+			}
+		}
+		Iterator<Page> j = diskPages.values().iterator();
+		while (diskSize > maxDiskSize && j.hasNext()) {
+			deleteDiskPage(j.next(), deleted);
+			j.remove();
+		}
+		return spilled;
+	}
+
+	/**
+	 * Writes the pages moved to the disk to their files. A page dropped or moved
+	 * back to the memory meanwhile doesn't keep its file.
+	 */
+	private void spill(List<Map.Entry<Key, Page>> spilled) {
+		for (Map.Entry<Key, Page> entry : spilled) {
+			Key key = entry.getKey();
+			Page page = entry.getValue();
+			Page written = new Page();
+			synchronized (this) {
+				if (diskPages.get(key) != page || page.file != null) {
+					continue;
+				}
+				written.content = page.content;
+				written.activeIds = page.activeIds;
+			}
+			File file = null;
+			try {
+				file = writePage(written);
+			} catch (IOException e) {
+				logger.log(Level.WARNING, e.getMessage(), e);
+			}
+			synchronized (this) {
+				if (diskPages.get(key) == page && page.file == null) {
+					if (file != null) {
+						page.file = file;
+						page.content = null;
+						page.activeIds = null;
+						continue;
+					}
+					diskPages.remove(key);
+					diskSize -= page.size;
+				}
+			}
+			if (file != null) {
+				file.delete();
+			}
+		}
+	}
+
+	private File writePage(Page page) throws IOException {
+		File file = new File(diskFolder, "page" + fileCount.getAndIncrement()); //$NON-NLS-1$
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(page.activeIds.size());
+			for (String id : page.activeIds) {
+				out.writeUTF(id);
+			}
+			out.writeInt(page.content.length);
+			out.write(page.content);
+		} catch (IOException e) {
+			file.delete();
+			throw e;
+		}
+		return file;
+	}
+
+	private void readPage(Page page) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(page.file)))) {
+			int count = in.readInt();
+			List<String> activeIds = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				activeIds.add(in.readUTF());
+			}
+			byte[] content = new byte[in.readInt()];
+			in.readFully(content);
+			page.activeIds = activeIds;
+			page.content = content;
+		}
+	}
+
+	private void deleteDiskPage(Page page, List<File> deleted) {
+		diskSize -= page.size;
+		if (page.file != null) {
+			deleted.add(page.file);
+		}
+	}
+
+	private static void delete(List<File> files) {
+		for (File file : files) {
+			file.delete();
+		}
+	}
+}
@@ -15,6 +15,8 @@ package org.eclipse.birt.report.session;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.birt.report.IBirtConstants;
 
@@ -34,6 +36,18 @@ public class ViewingCache implements Serializable {
 	 */
 	private static final String PREFIX_SUB_IMAGE_FOLDER = "BIRTIMG"; //$NON-NLS-1$
 
+	/**
+	 * Name of the folder of the rendered pages kept on the disk
+	 */
+	private static final String PAGE_FOLDER = "BIRTPAGE"; //$NON-NLS-1$
+
+	/**
+	 * Suffix of the session folders waiting to be deleted
+	 */
+	private static final String DELETED_FOLDER_SUFFIX = ".deleted."; //$NON-NLS-1$
+
+	private static final AtomicLong deletedFolderCount = new AtomicLong();
+
 	/**
 	 * Document folder to put the report files and created documents.
 	 */
@@ -44,6 +58,21 @@ public class ViewingCache implements Serializable {
 	 */
 	public String imageFolder = null;
 
+	/**
+	 * Rendered pages shared by the sessions, or null if the pages are not cached.
+	 */
+	private transient PageRenderCache renderCache = null;
+
+	/**
+	 * Background cleaner, or null if the files are deleted on the request thread.
+	 */
+	private transient ViewingCacheCleaner cleaner = null;
+
+	/**
+	 * Number of viewing sessions.
+	 */
+	private AtomicInteger sessionCount = new AtomicInteger();
+
 	/**
 	 * Instantiates a new cache manager.
 	 *
@@ -64,6 +93,133 @@ public class ViewingCache implements Serializable {
 		clearTempFiles();
 	}
 
+	/**
+	 * Creates the cache of the rendered pages.
+	 *
+	 * @param maxSize     the number of bytes of the pages kept in memory, 0 to
+	 *                    cache no page
+	 * @param maxDiskSize the number of bytes of the pages kept on the disk
+	 */
+	public void initRenderCache(long maxSize, long maxDiskSize) {
+		if (maxSize > 0) {
+			renderCache = new PageRenderCache(maxSize, maxDiskSize, documentFolder + PAGE_FOLDER);
+		} else {
+			renderCache = null;
+		}
+	}
+
+	/**
+	 * Returns the cache of the rendered pages.
+	 *
+	 * @return the cache, or null if the pages are not cached
+	 */
+	public PageRenderCache getRenderCache() {
+		return renderCache;
+	}
+
+	/**
+	 * Starts the background cleaner, which expires the viewing sessions and
+	 * deletes their files instead of the request threads.
+	 *
+	 * @param interval          the interval in seconds between the cleanups, 0 to
+	 *                          clean up on the request threads
+	 * @param maxFilesPerSecond the maximum number of files deleted per second,
+	 *                          and measured per cleanup, 0 for no maximum
+	 */
+	public void startCleaner(long interval, int maxFilesPerSecond) {
+		shutdown();
+		if (interval > 0) {
+			cleaner = new ViewingCacheCleaner(new File[] { new File(documentFolder), new File(imageFolder) }, interval,
+					maxFilesPerSecond);
+		}
+	}
+
+	/**
+	 * Stops the background cleaner.
+	 */
+	public void shutdown() {
+		if (cleaner != null) {
+			cleaner.shutdown();
+			cleaner = null;
+		}
+	}
+
+	/**
+	 * Registers a manager whose sessions are expired by the background cleaner.
+	 *
+	 * @param manager viewing session manager
+	 */
+	void addManager(ViewingSessionManager manager) {
+		if (cleaner != null) {
+			cleaner.addManager(manager);
+		}
+	}
+
+	/**
+	 * Unregisters a manager once it is invalidated.
+	 *
+	 * @param manager viewing session manager
+	 */
+	void removeManager(ViewingSessionManager manager) {
+		if (cleaner != null) {
+			cleaner.removeManager(manager);
+		}
+	}
+
+	/**
+	 * Updates the number of viewing sessions.
+	 *
+	 * @param delta the number of created sessions, or minus the number of removed
+	 *              sessions
+	 */
+	void updateSessionCount(int delta) {
+		// null in a cache serialized before the count was added
+		if (sessionCount != null) {
+			sessionCount.addAndGet(delta);
+		}
+	}
+
+	/**
+	 * Returns the number of live viewing sessions.
+	 *
+	 * @return session count
+	 */
+	public int getSessionCount() {
+		// see updateSessionCount
+		return sessionCount != null ? sessionCount.get() : 0;
+	}
+
+	/**
+	 * Returns the number of bytes of the cached documents and images, as measured
+	 * by the background cleaner.
+	 *
+	 * @return disk usage, or -1 if there is no background cleaner or it hasn't run
+	 *         yet
+	 */
+	public long getDiskUsage() {
+		return cleaner != null ? cleaner.getDiskUsage() : -1;
+	}
+
+	/**
+	 * Returns how long the files of the expired sessions have been waiting to be
+	 * deleted by the background cleaner.
+	 *
+	 * @return the wait of the oldest files in milliseconds, 0 if no file waits
+	 */
+	public long getCleanupLag() {
+		return cleaner != null ? cleaner.getCleanupLag() : 0;
+	}
+
+	/**
+	 * Returns the number of session folders waiting to be deleted by the
+	 * background cleaner.
+	 *
+	 * @return folder count
+	 */
+	public int getPendingCleanupCount() {
+		return cleaner != null ? cleaner.getPendingCount() : 0;
+	}
+
 	/**
 	 * Create the file path of the the document. The document will be put under the
 	 * document folder based on different session id.
@@ -137,8 +293,36 @@ public class ViewingCache implements Serializable {
 			return;
 		}
 
-		deleteDir(documentFolder + getSessionSubfolder(PREFIX_SUB_DOC_FOLDER, sessionId, subSessionId));
-		deleteDir(imageFolder + getSessionSubfolder(PREFIX_SUB_IMAGE_FOLDER, sessionId, subSessionId));
+		deleteFolder(documentFolder, PREFIX_SUB_DOC_FOLDER, sessionId, subSessionId);
+		deleteFolder(imageFolder, PREFIX_SUB_IMAGE_FOLDER, sessionId, subSessionId);
+		if (renderCache != null) {
+			renderCache.clearSession(sessionId, subSessionId);
+		}
+	}
+
+	/**
+	 * Deletes the folder of a session. If there is a background cleaner, the folder
+	 * is renamed so that a new session can't see its files, and is deleted by the
+	 * cleaner. The new name has the prefix of the session folders, so that the
+	 * folder is deleted on the next start up if the cleaner doesn't get to it.
+	 */
+	private void deleteFolder(String baseFolder, String prefix, String sessionId, String subSessionId) {
+		File folder = new File(baseFolder + getSessionSubfolder(prefix, sessionId, subSessionId));
+		if (cleaner == null) {
+			deleteDir(folder);
+			return;
+		}
+		if (!folder.exists()) {
+			return;
+		}
+		File deletedFolder = new File(baseFolder + prefix + DELETED_FOLDER_SUFFIX + System.currentTimeMillis() + '.'
+				+ deletedFolderCount.incrementAndGet());
+		if (folder.renameTo(deletedFolder)) {
+			folder = deletedFolder;
+		}
+		if (!cleaner.delete(folder)) {
+			deleteDir(folder);
+		}
 	}
 
 	/**
@@ -151,7 +335,7 @@ public class ViewingCache implements Serializable {
 		if (file != null && file.isDirectory()) {
 			String[] children = file.list();
 			for (int i = 0; i < children.length; i++) {
-				if (children[i].startsWith(PREFIX_SUB_DOC_FOLDER)) {
+				if (children[i].startsWith(PREFIX_SUB_DOC_FOLDER) || children[i].equals(PAGE_FOLDER)) {
 					deleteDir(new File(file, children[i]));
 				}
 			}
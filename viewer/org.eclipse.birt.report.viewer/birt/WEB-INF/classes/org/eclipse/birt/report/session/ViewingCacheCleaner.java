@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * https://www.eclipse.org/legal/epl-2.0/.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   See git history
+ *******************************************************************************/
+package org.eclipse.birt.report.session;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cleans up the viewing cache on a background thread, so that the requests
+ * don't wait for it. The cleaner periodically expires the sessions of the
+ * registered managers, deletes the folders of the expired sessions and
+ * measures the disk usage of the cache. The folders are deleted at most a
+ * given number of files per second, so that the cleanup doesn't compete with
+ * the requests for the disk. For the same reason, each cleanup only measures
+ * that number of files, and the disk usage is updated once all the files of
+ * the cache are measured.
+ */
+class ViewingCacheCleaner {
+
+	private static final Logger logger = Logger.getLogger(ViewingCacheCleaner.class.getName());
+
+	/**
+	 * A folder waiting to be deleted.
+	 */
+	private static class PendingFolder {
+		File folder;
+		long time;
+
+		PendingFolder(File folder) {
+			this.folder = folder;
+			this.time = System.currentTimeMillis();
+		}
+	}
+
+	private ScheduledExecutorService executor;
+	private Queue<PendingFolder> pendingFolders = new ConcurrentLinkedQueue<>();
+	private Set<ViewingSessionManager> managers = ConcurrentHashMap.newKeySet();
+	private File[] cacheFolders;
+	private volatile long diskUsage = -1;
+	private Deque<File> unmeasuredFiles = new ArrayDeque<>();
+	private long measuredSize;
+
+	private int maxFilesPerSecond;
+	private long periodStart;
+	private int periodFiles;
+
+	/**
+	 * Instantiates a new cleaner, which runs every interval seconds.
+	 *
+	 * @param cacheFolders      the folders of the cache, to measure its disk usage
+	 * @param interval          the interval in seconds between the cleanups
+	 * @param maxFilesPerSecond the maximum number of files deleted per second,
+	 *                          and measured per cleanup, 0 for no maximum
+	 */
+	ViewingCacheCleaner(File[] cacheFolders, long interval, int maxFilesPerSecond) {
+		this.cacheFolders = cacheFolders;
+		this.maxFilesPerSecond = maxFilesPerSecond;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "BIRT Viewing Cache Cleaner"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::cleanUp, 0, interval, TimeUnit.SECONDS);
+	}
+
+	void addManager(ViewingSessionManager manager) {
+		managers.add(manager);
+	}
+
+	void removeManager(ViewingSessionManager manager) {
+		managers.remove(manager);
+	}
+
+	/**
+	 * Deletes a folder on the cleaner thread.
+	 *
+	 * @param folder folder
+	 * @return false if the cleaner is shut down and the folder isn't deleted
+	 */
+	boolean delete(File folder) {
+		PendingFolder pending = new PendingFolder(folder);
+		pendingFolders.add(pending);
+		try {
+			executor.execute(this::deletePendingFolders);
+			return true;
+		} catch (RejectedExecutionException e) {
+			// the caller deletes the folder itself
+			pendingFolders.remove(pending);
+			return false;
+		}
+	}
+
+	/**
+	 * @return the number of sessions with a manager
+	 */
+	int getManagerCount() {
+		return managers.size();
+	}
+
+	/**
+	 * @return the number of bytes of the cache folders at the last complete
+	 *         measure, or -1 if they aren't measured yet
+	 */
+	long getDiskUsage() {
+		return diskUsage;
+	}
+
+	/**
+	 * @return the number of milliseconds the oldest folder waiting to be deleted
+	 *         has waited, or 0 if no folder waits
+	 */
+	long getCleanupLag() {
+		PendingFolder pending = pendingFolders.peek();
+		return pending == null ? 0 : Math.max(0, System.currentTimeMillis() - pending.time);
+	}
+
+	/**
+	 * @return the number of folders waiting to be deleted
+	 */
+	int getPendingCount() {
+		return pendingFolders.size();
+	}
+
+	/**
+	 * Stops the cleaner. The folders still waiting are deleted when the cache is
+	 * created again.
+	 */
+	void shutdown() {
+		executor.shutdownNow();
+		managers.clear();
+	}
+
+	private void cleanUp() {
+		try {
+			for (ViewingSessionManager manager : managers) {
+				manager.cleanUp();
+			}
+			deletePendingFolders();
+			measureDiskUsage();
+			if (logger.isLoggable(Level.FINE)) {
+				logger.fine("viewing cache: " + managers.size() + " HTTP sessions, " + diskUsage //$NON-NLS-1$ //$NON-NLS-2$
+						+ " bytes, " + pendingFolders.size() + " folders to delete"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		} catch (RuntimeException e) {
+			// an exception would cancel the next runs
+			logger.log(Level.WARNING, e.getMessage(), e);
+		}
+	}
+
+	private void deletePendingFolders() {
+		PendingFolder pending;
+		while ((pending = pendingFolders.peek()) != null && !Thread.currentThread().isInterrupted()) {
+			deleteFile(pending.folder);
+			pendingFolders.remove(pending);
+		}
+	}
+
+	private void deleteFile(File file) {
+		File[] children = file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				deleteFile(child);
+			}
+		}
+		file.delete();
+		throttle();
+	}
+
+	/**
+	 * Waits for the end of the second once maxFilesPerSecond files are deleted in
+	 * it.
+	 */
+	private void throttle() {
+		if (maxFilesPerSecond <= 0 || ++periodFiles < maxFilesPerSecond) {
+			return;
+		}
+		long wait = periodStart + 1000 - System.currentTimeMillis();
+		if (wait > 0) {
+			try {
+				Thread.sleep(wait);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		periodStart = System.currentTimeMillis();
+		periodFiles = 0;
+	}
+
+	/**
+	 * Measures at most maxFilesPerSecond files of the cache folders, starting
+	 * where the previous cleanup stopped.
+	 */
+	private void measureDiskUsage() {
+		if (unmeasuredFiles.isEmpty()) {
+			for (File folder : cacheFolders) {
+				unmeasuredFiles.push(folder);
+			}
+			measuredSize = 0;
+		}
+		int count = 0;
+		while (!unmeasuredFiles.isEmpty() && (maxFilesPerSecond <= 0 || count++ < maxFilesPerSecond)
+				&& !Thread.currentThread().isInterrupted()) {
+			File file = unmeasuredFiles.pop();
+			File[] children = file.listFiles();
+			if (children == null) {
+				measuredSize += file.length();
+			} else {
+				for (File child : children) {
+					unmeasuredFiles.push(child);
+				}
+			}
+		}
+		if (unmeasuredFiles.isEmpty()) {
+			diskUsage = measuredSize;
+		}
+	}
+}
@@ -16,8 +16,8 @@ package org.eclipse.birt.report.session;
 import java.io.Serializable;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpSessionBindingEvent;
 import javax.servlet.http.HttpSessionBindingListener;
@@ -43,15 +43,19 @@ import org.eclipse.birt.report.resource.ResourceConstants;
  * minimumSessionCountThreshold, then sessionCountThreshold will take the value
  * of minimumSessionCountThreshold.</li>
  * </ul>
+ * The sessions are kept in a concurrent map, so that looking up a session
+ * doesn't lock the manager. If the viewing cache has a background cleaner, the
+ * cleaner also triggers the cleanup of the idle managers, and deletes the files
+ * of the expired sessions instead of the request threads.
  */
 public class ViewingSessionManager implements IViewingSessionManager, HttpSessionBindingListener, Serializable {
 	private static final long serialVersionUID = -7623325281275814412L;
 
 	private ViewingCache viewingCache;
-	private long nextCleanupTime;
+	private volatile long nextCleanupTime;
 
 	/**
-	 * Linked hash map containing the ViewingSession objects in access order.
+	 * Concurrent map containing the ViewingSession objects.
 	 */
 	private Map<String, IViewingSession> sessions;
 
@@ -63,7 +67,7 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 	/**
 	 * Expired flag.
 	 */
-	private boolean expired;
+	private volatile boolean expired;
 
 	/**
 	 * Session count threshold after which the cleanup process will be triggered.
@@ -114,11 +118,9 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 
 		@Override
 		public void invalidate() {
-			synchronized (manager) {
-				session.invalidate();
-				// remove the session from the map
-				manager.sessions.remove(session.getId());
-			}
+			session.invalidate();
+			// remove the session from the map
+			manager.removeSession(session.getId());
 		}
 
 		@Override
@@ -162,11 +164,10 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 		this.config = config;
 		this.sessionCountThreshold = config.getMinimumSessionCountThreshold();
 
-		// using LinkedHashMap to keep the insertion order and access time (LRU)
-		this.sessions = new LinkedHashMap<>(config.getMinimumSessionCountThreshold(),
-				config.getSessionCountThresholdFactor(), true);
+		this.sessions = new ConcurrentHashMap<>(config.getMinimumSessionCountThreshold());
 		this.expired = false;
 		this.nextCleanupTime = new Date().getTime() + config.getSessionTimeout() * 1000l;
+		viewingCache.addManager(this);
 	}
 
 	/**
@@ -209,7 +210,9 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 			}
 		}
 		IViewingSession newSession = new ViewingSessionWrapper(this, new ViewingSession(httpSessionId, viewingCache));
-		sessions.put(newSession.getId(), newSession);
+		if (sessions.put(newSession.getId(), newSession) == null) {
+			viewingCache.updateSessionCount(1);
+		}
 		return newSession;
 	}
 
@@ -218,12 +221,18 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 	 *      .lang.String)
 	 */
 	@Override
-	public synchronized IViewingSession getSession(String id) {
+	public IViewingSession getSession(String id) {
 		checkExpired();
 
 		ViewingSessionWrapper session = (ViewingSessionWrapper) sessions.get(id);
 		if (session != null) {
-			session.getWrappedSession().refresh();
+			IViewingSession wrappedSession = session.getWrappedSession();
+			wrappedSession.refresh();
+			if (wrappedSession.isExpired()) {
+				// expired by a cleanup before it is refreshed
+				removeSession(id, session);
+				return null;
+			}
 		}
 		return session;
 	}
@@ -251,20 +260,19 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 		} finally {
 			// clear master session cache
 			viewingCache.clearSession(httpSessionId, null);
-			sessions.clear();
+			for (String id : sessions.keySet()) {
+				removeSession(id);
+			}
+			viewingCache.removeManager(this);
 		}
 	}
 
 	/**
-	 * Refreshes the given session by calling its refresh() method and by updating
-	 * the internal map order.
+	 * Refreshes the given session by calling its refresh() method.
 	 *
 	 * @param session viewing session
 	 */
-	private synchronized void refreshSession(IViewingSession session) {
-		// touches the linked hash map to make it move
-		// the entry to the end
-		sessions.get(session.getId());
+	private void refreshSession(IViewingSession session) {
 		session.refresh();
 	}
 
@@ -273,27 +281,40 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 	 *
 	 * @param id session id
 	 */
-	public synchronized void removeSession(String id) {
-		sessions.remove(id);
+	public void removeSession(String id) {
+		if (sessions.remove(id) != null) {
+			viewingCache.updateSessionCount(-1);
+		}
+	}
+
+	/**
+	 * Removes a session from the map, unless the id is mapped to another session.
+	 *
+	 * @param id      session id
+	 * @param session session
+	 */
+	private void removeSession(String id, IViewingSession session) {
+		if (sessions.remove(id, session)) {
+			viewingCache.updateSessionCount(-1);
+		}
 	}
 
 	/**
 	 * Requests a cleanup operation. The operation is only performed if the session
 	 * count threshold or the timeout value has been reached.
-	 *
-	 * @param sessions sessions
 	 */
-	private synchronized void cleanUp() {
+	synchronized void cleanUp() {
+		if (expired) {
+			return;
+		}
 		long now = new Date().getTime();
 		if (now >= nextCleanupTime || sessions.size() > sessionCountThreshold) {
 			doCleanup();
-			if (sessions.size() > 0) {
-				// the oldest date is the first entry in the linked hash map
-				IViewingSession oldestSession = sessions.values().iterator().next();
-				nextCleanupTime = oldestSession.getLastAccess().getTime() + config.getSessionTimeout() * 1000l;
-			} else {
-				nextCleanupTime = now + config.getSessionTimeout() * 1000l;
+			long oldestAccess = now;
+			for (IViewingSession session : sessions.values()) {
+				oldestAccess = Math.min(oldestAccess, session.getLastAccess().getTime());
 			}
+			nextCleanupTime = oldestAccess + config.getSessionTimeout() * 1000l;
 
 			int minimumThreshold = config.getMinimumSessionCountThreshold();
 			float factor = config.getSessionCountThresholdFactor();
@@ -307,8 +328,6 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 	/**
 	 * Checks whether there are existing sessions that have expired and clean them
 	 * up accordingly.
-	 *
-	 * @param sessions sessions
 	 */
 	private synchronized void doCleanup() {
 		if (sessions.size() == 0) {
@@ -321,15 +340,9 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 			IViewingSession session = entry.getValue();
 			Date lastAccess = session.getLastAccess();
 			if (currentTime >= lastAccess.getTime() && !session.isLocked()) {
-				if (!session.isExpired()) {
-					((ViewingSessionWrapper) session).getWrappedSession().invalidate();
+				if (expireSession(session, currentTime)) {
+					removeSession(entry.getKey(), session);
 				}
-				i.remove();
-			} else {
-				// since the linked hash map is ordered by insertion, the
-				// iteration will stop as soon as the first non-expired session
-				// is met.
-				break;
 			}
 		}
 	}
@@ -339,18 +352,43 @@ public class ViewingSessionManager implements IViewingSessionManager, HttpSessio
 	 * expired or not.
 	 */
 	private boolean deleteOldestSession() {
-		for (Iterator<Map.Entry<String, IViewingSession>> i = sessions.entrySet().iterator(); i.hasNext();) {
-			Map.Entry<String, IViewingSession> entry = i.next();
-			IViewingSession session = entry.getValue();
-			if (!session.isLocked()) {
-				((ViewingSessionWrapper) session).getWrappedSession().invalidate();
-				i.remove();
-				return true;
+		IViewingSession oldestSession = null;
+		for (IViewingSession session : sessions.values()) {
+			if (!session.isLocked() && (oldestSession == null
+					|| session.getLastAccess().getTime() < oldestSession.getLastAccess().getTime())) {
+				oldestSession = session;
 			}
 		}
+		if (oldestSession != null && expireSession(oldestSession, Long.MAX_VALUE)) {
+			removeSession(oldestSession.getId(), oldestSession);
+			return true;
+		}
 		return false;
 	}
 
+	/**
+	 * Invalidates a session, unless a request has locked or accessed it in the
+	 * meantime. The session is refreshed and locked under its own lock, so the
+	 * last access is checked again under it.
+	 *
+	 * @param session         session
+	 * @param lastAccessLimit the time after which an access keeps the session
+	 * @return whether the session is expired
+	 */
+	private boolean expireSession(IViewingSession session, long lastAccessLimit) {
+		IViewingSession wrappedSession = ((ViewingSessionWrapper) session).getWrappedSession();
+		synchronized (wrappedSession) {
+			if (wrappedSession.isExpired()) {
+				return true;
+			}
+			if (wrappedSession.isLocked() || wrappedSession.getLastAccess().getTime() > lastAccessLimit) {
+				return false;
+			}
+			wrappedSession.invalidate();
+			return true;
+		}
+	}
+
 	/**
 	 * Asserts that the session has not expired.
 	 *
@@ -1613,7 +1613,14 @@ public class ParameterAccessor {
 	private static void initViewingSessionConfig(String documentFolder, String imageFolder) {
 		// instantiate viewing cache and configure the viewing session utility
 		// class
+		if (ViewingSessionUtil.viewingCache != null) {
+			ViewingSessionUtil.viewingCache.shutdown();
+		}
 		ViewingSessionUtil.viewingCache = new ViewingCache(documentFolder, imageFolder);
+		ViewingSessionUtil.viewingCache.startCleaner(getLongInitProp("viewer.session.cleanupInterval"), //$NON-NLS-1$
+				getIntegerInitProp("viewer.session.cleanupMaxFilesPerSecond")); //$NON-NLS-1$
+		ViewingSessionUtil.viewingCache.initRenderCache(getLongInitProp("viewer.session.renderCache.maxSize"), //$NON-NLS-1$
+				getLongInitProp("viewer.session.renderCache.diskSize")); //$NON-NLS-1$
 		ViewingSessionUtil.defaultConfig = new ViewingSessionConfig();
 		long sessionTimeout = getLongInitProp("viewer.session.timeout"); //$NON-NLS-1$
 		if (sessionTimeout <= 0l) {